@@ -19,6 +19,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.pentaho.di.core.row.RowArrayPool;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.core.util.Utils;
 
@@ -41,6 +42,8 @@ abstract class BaseRowSet implements Comparable<RowSet>, RowSet {
   protected volatile String remoteSlaveServerName;
   private ReadWriteLock lock;
 
+  private volatile RowArrayPool rowArrayPool;
+
   public BaseRowSet() {
     // not done putting data into this RowSet
     done = new AtomicBoolean( false );
@@ -283,6 +286,16 @@ abstract class BaseRowSet implements Comparable<RowSet>, RowSet {
     this.remoteSlaveServerName = remoteSlaveServerName;
   }
 
+  @Override
+  public RowArrayPool getRowArrayPool() {
+    return rowArrayPool;
+  }
+
+  @Override
+  public void setRowArrayPool( RowArrayPool rowArrayPool ) {
+    this.rowArrayPool = rowArrayPool;
+  }
+
   /**
    * By default we don't report blocking, only for monitored transformations.
    *
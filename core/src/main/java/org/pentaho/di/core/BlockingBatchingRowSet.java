@@ -13,6 +13,8 @@
 
 package org.pentaho.di.core;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -152,6 +154,28 @@ public class BlockingBatchingRowSet extends BaseRowSet implements Comparable<Row
     return row;
   }
 
+  /**
+   * Only hands out the rows of the buffer that is currently being delivered, we never wait for the next buffer once we
+   * have a row.
+   */
+  @Override
+  public Object[][] getRows( int max ) {
+    Object[] row = getRow();
+    if ( row == null ) {
+      return null;
+    }
+    List<Object[]> rows = new ArrayList<Object[]>();
+    rows.add( row );
+    while ( rows.size() < max && outputBuffer != null ) {
+      row = getRowWait( 0, TimeUnit.MILLISECONDS );
+      if ( row == null ) {
+        break;
+      }
+      rows.add( row );
+    }
+    return rows.toArray( new Object[ rows.size() ][] );
+  }
+
   @Override
   public int size() {
     // does BlockingQueue.size() grab a lock? If so, frequent call to this method
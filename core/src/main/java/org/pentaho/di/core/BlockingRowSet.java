@@ -13,11 +13,14 @@
 
 package org.pentaho.di.core;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.util.ManagedBlocking;
 
 /**
  * Contains a buffer of rows. Getting rows from the buffer or putting rows in the buffer is synchronized to allow
@@ -68,7 +71,11 @@ public class BlockingRowSet extends BaseRowSet implements Comparable<RowSet>, Ro
   public boolean putRowWait( RowMetaInterface rowMeta, Object[] rowData, long time, TimeUnit tu ) {
     this.rowMeta = rowMeta;
     try {
-
+      if ( ManagedBlocking.isManaged() ) {
+        // Only hand the wait over to the fork/join pool when the queue is actually full
+        //
+        return queArray.offer( rowData ) || ManagedBlocking.await( () -> queArray.offer( rowData, time, tu ) );
+      }
       return queArray.offer( rowData, time, tu );
     } catch ( InterruptedException e ) {
       return false;
@@ -110,12 +117,34 @@ public class BlockingRowSet extends BaseRowSet implements Comparable<RowSet>, Ro
   public Object[] getRowWait( long timeout, TimeUnit tu ) {
 
     try {
+      if ( ManagedBlocking.isManaged() ) {
+        Object[] row = queArray.poll();
+        return row != null ? row : ManagedBlocking.await( () -> queArray.poll( timeout, tu ) );
+      }
       return queArray.poll( timeout, tu );
     } catch ( InterruptedException e ) {
       return null;
     }
   }
 
+  /**
+   * Waits for the first row like {@link #getRow()} and then drains whatever else is available with a single lock
+   * acquisition.
+   */
+  @Override
+  public Object[][] getRows( int max ) {
+    Object[] row = getRow();
+    if ( row == null ) {
+      return null;
+    }
+    List<Object[]> rows = new ArrayList<Object[]>( Math.min( max, queArray.size() + 1 ) );
+    rows.add( row );
+    if ( max > 1 ) {
+      queArray.drainTo( rows, max - 1 );
+    }
+    return rows.toArray( new Object[ rows.size() ][] );
+  }
+
   @Override
   public int size() {
     return queArray.size();
@@ -0,0 +1,265 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.row.columnar;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.columnar.ColumnarRowBatch;
+import org.pentaho.di.core.util.ManagedBlocking;
+
+/**
+ * A row set that carries {@link ColumnarRowBatch}es instead of single rows. It is used between two steps that can both
+ * process columnar batches so that the values never have to be boxed into Object[] rows in between.
+ * <p>
+ * The usual row based methods keep working: rows that are put are converted into (small) batches and rows that are
+ * read are materialized from the batch at hand. The capacity is expressed in rows, like for the other row sets, but a
+ * batch is always accepted when the row set is empty, whatever its size.
+ * <p>
+ * Like the other row sets this one supports a single reading thread.
+ *
+ * @since 11.0
+ */
+public class ColumnarRowSet extends BaseRowSet implements Comparable<RowSet>, RowSet {
+
+  private final int maxSize;
+  private final int timeoutPut;
+  private final int timeoutGet;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private final Condition notFull = lock.newCondition();
+
+  /** The batches waiting to be read, guarded by the lock */
+  private final Deque<ColumnarRowBatch> batches = new ArrayDeque<>();
+
+  /** The number of rows in the waiting batches, guarded by the lock */
+  private int queuedRows;
+
+  /** The batch the reader is taking single rows from, only used by the reading thread */
+  private ColumnarRowBatch current;
+  private int currentPosition;
+  private volatile int currentRemaining;
+
+  /**
+   * Create a new columnar row set with maxSize capacity.
+   *
+   * @param maxSize the number of rows this row set holds before a put has to wait
+   */
+  public ColumnarRowSet( int maxSize ) {
+    super();
+
+    this.maxSize = Math.max( 1, maxSize );
+    timeoutGet = Const.toInt( System.getProperty( Const.KETTLE_ROWSET_GET_TIMEOUT ), Const.TIMEOUT_GET_MILLIS );
+    timeoutPut = Const.toInt( System.getProperty( Const.KETTLE_ROWSET_PUT_TIMEOUT ), Const.TIMEOUT_PUT_MILLIS );
+  }
+
+  /**
+   * Puts a batch of rows in the row set, waiting up to the standard put time-out for room.
+   *
+   * @param rowMeta the metadata of the rows in the batch
+   * @param batch   the rows
+   * @return true if the batch was added, false if there was no room
+   */
+  public boolean putBatch( RowMetaInterface rowMeta, ColumnarRowBatch batch ) {
+    return putBatchWait( rowMeta, batch, timeoutPut, TimeUnit.MILLISECONDS );
+  }
+
+  /**
+   * Puts a batch of rows in the row set.
+   *
+   * @param rowMeta the metadata of the rows in the batch
+   * @param batch   the rows
+   * @param time    the maximum time to wait for room
+   * @param tu      the unit of the time
+   * @return true if the batch was added, false if there was no room
+   */
+  public boolean putBatchWait( RowMetaInterface rowMeta, ColumnarRowBatch batch, long time, TimeUnit tu ) {
+    if ( batch == null ) {
+      return false;
+    }
+    this.rowMeta = rowMeta;
+    if ( batch.size() == 0 ) {
+      return true;
+    }
+
+    long nanos = tu.toNanos( time );
+    lock.lock();
+    try {
+      while ( queuedRows > 0 && queuedRows + batch.size() > maxSize ) {
+        if ( nanos <= 0 ) {
+          return false;
+        }
+        nanos = ManagedBlocking.awaitNanos( notFull, nanos );
+      }
+      batches.addLast( batch );
+      queuedRows += batch.size();
+      notEmpty.signal();
+      return true;
+    } catch ( InterruptedException e ) {
+      return false;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Takes the next batch of rows, waiting up to the standard get time-out for one to arrive.
+   *
+   * @param max the maximum number of rows to return
+   * @return the next rows or null if there are none right now
+   */
+  public ColumnarRowBatch getBatch( int max ) {
+    return getBatchWait( max, timeoutGet, TimeUnit.MILLISECONDS );
+  }
+
+  /**
+   * Takes the next batch of rows.
+   *
+   * @param max     the maximum number of rows to return
+   * @param timeout the maximum time to wait for rows
+   * @param tu      the unit of the time
+   * @return the next rows or null if there are none after waiting
+   */
+  public ColumnarRowBatch getBatchWait( int max, long timeout, TimeUnit tu ) {
+    if ( current == null && !takeNextBatch( timeout, tu ) ) {
+      return null;
+    }
+    int end = (int) Math.min( (long) currentPosition + Math.max( 1, max ), current.size() );
+    ColumnarRowBatch batch = current.slice( currentPosition, end );
+    advance( end - currentPosition );
+    return batch;
+  }
+
+  private boolean takeNextBatch( long timeout, TimeUnit tu ) {
+    long nanos = tu.toNanos( timeout );
+    lock.lock();
+    try {
+      while ( batches.isEmpty() ) {
+        if ( nanos <= 0 ) {
+          return false;
+        }
+        nanos = ManagedBlocking.awaitNanos( notEmpty, nanos );
+      }
+      current = batches.removeFirst();
+      currentPosition = 0;
+      currentRemaining = current.size();
+      queuedRows -= current.size();
+      notFull.signal();
+      return true;
+    } catch ( InterruptedException e ) {
+      return false;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void advance( int nrRows ) {
+    currentPosition += nrRows;
+    if ( currentPosition >= current.size() ) {
+      current = null;
+      currentPosition = 0;
+      currentRemaining = 0;
+    } else {
+      currentRemaining = current.size() - currentPosition;
+    }
+  }
+
+  @Override
+  public boolean putRow( RowMetaInterface rowMeta, Object[] rowData ) {
+    return putRowWait( rowMeta, rowData, timeoutPut, TimeUnit.MILLISECONDS );
+  }
+
+  @Override
+  public boolean putRowWait( RowMetaInterface rowMeta, Object[] rowData, long time, TimeUnit tu ) {
+    if ( rowData == null ) {
+      // Same behavior as the blocking row set: null rows are refused
+      return false;
+    }
+    return putBatchWait( rowMeta, ColumnarRowBatch.fromRows( rowMeta, new Object[][] { rowData }, 1 ), time, tu );
+  }
+
+  /**
+   * Converts the rows into a single batch: either all of them are added or none.
+   */
+  @Override
+  public int putRows( RowMetaInterface rowMeta, Object[][] rows, int offset, int n ) {
+    for ( int i = 0; i < n; i++ ) {
+      if ( rows[ offset + i ] == null ) {
+        // Same behavior as putRow(): null rows are refused, stop the batch here
+        n = i;
+        break;
+      }
+    }
+    if ( n == 0 ) {
+      return 0;
+    }
+    return putBatch( rowMeta, ColumnarRowBatch.fromRows( rowMeta, rows, offset, n ) ) ? n : 0;
+  }
+
+  @Override
+  public Object[] getRow() {
+    return getRowWait( timeoutGet, TimeUnit.MILLISECONDS );
+  }
+
+  @Override
+  public Object[] getRowImmediate() {
+    return getRowWait( 0, TimeUnit.NANOSECONDS );
+  }
+
+  @Override
+  public Object[] getRowWait( long timeout, TimeUnit tu ) {
+    if ( current == null && !takeNextBatch( timeout, tu ) ) {
+      return null;
+    }
+    Object[] row = current.getRow( currentPosition );
+    advance( 1 );
+    return row;
+  }
+
+  @Override
+  public Object[][] getRows( int max ) {
+    ColumnarRowBatch batch = getBatch( max );
+    return batch == null ? null : batch.toRows();
+  }
+
+  @Override
+  public int size() {
+    lock.lock();
+    try {
+      return queuedRows + currentRemaining;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    lock.lock();
+    try {
+      batches.clear();
+      queuedRows = 0;
+      current = null;
+      currentPosition = 0;
+      currentRemaining = 0;
+      notFull.signalAll();
+    } finally {
+      lock.unlock();
+    }
+    done.set( false );
+  }
+}
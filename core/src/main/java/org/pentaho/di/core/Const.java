@@ -1042,6 +1042,62 @@ public class Const {
    */
   public static final String KETTLE_BATCHING_ROWSET = "KETTLE_BATCHING_ROWSET";
 
+  /**
+   * Set this variable to N to disable the lock-free ring buffer row set that is used for hops connecting a single
+   * producer step copy to a single consumer step copy. (default = Y)
+   */
+  public static final String KETTLE_RINGBUFFER_ROWSET = "KETTLE_RINGBUFFER_ROWSET";
+
+  /**
+   * The number of busy-spin iterations a thread waiting on a ring buffer row set performs before it starts to park.
+   * (default = 100)
+   */
+  public static final String KETTLE_RINGBUFFER_ROWSET_SPIN_COUNT = "KETTLE_RINGBUFFER_ROWSET_SPIN_COUNT";
+
+  /**
+   * Set this variable to Y to pass columnar row batches instead of single rows over the hops between two steps that
+   * both support columnar processing, like Filter rows, Calculator, Select values, Add constants and Add sequence.
+   * (default = N)
+   */
+  public static final String KETTLE_COLUMNAR_ROWSET = "KETTLE_COLUMNAR_ROWSET";
+
+  /**
+   * Set this variable to Y to recycle the row arrays sent over hops between a single producer and a single consumer
+   * step copy. Steps that copy their input rows into larger rows hand the original arrays back to the producer.
+   * (default = N)
+   */
+  public static final String KETTLE_ROW_ARRAY_POOL = "KETTLE_ROW_ARRAY_POOL";
+
+  /**
+   * Set this variable to Y to make the row array pools keep the released arrays aside and fail a step that still sends
+   * a released row on its way. Meant to find steps that use rows after releasing them. (default = N)
+   */
+  public static final String KETTLE_ROW_ARRAY_POOL_DEBUG = "KETTLE_ROW_ARRAY_POOL_DEBUG";
+
+  /**
+   * The number of sub-transformations the Transformation Executor and the streaming steps create ahead of time, in
+   * the background, while the current one runs. Steps are still initialized for every execution. (default = 0, off)
+   */
+  public static final String KETTLE_SUBTRANS_POOL_SIZE = "KETTLE_SUBTRANS_POOL_SIZE";
+
+  /**
+   * The compression used for the temporary files of the Sort Rows step when compression is enabled: GZIP (default) or
+   * SNAPPY for a faster, lighter compression.
+   */
+  public static final String KETTLE_SORT_SPILL_COMPRESSION = "KETTLE_SORT_SPILL_COMPRESSION";
+
+  /**
+   * The maximum number of temporary files the Sort Rows step merges at once. When there are more files they are merged
+   * in several passes. (default = 100)
+   */
+  public static final String KETTLE_SORT_MAX_OPEN_FILES = "KETTLE_SORT_MAX_OPEN_FILES";
+
+  /**
+   * Set this variable to N to make the Sort Rows step compare the rows field by field instead of building normalized
+   * binary sort keys and sorting on multiple cores. (default = Y)
+   */
+  public static final String KETTLE_SORT_NORMALIZED_KEYS = "KETTLE_SORT_NORMALIZED_KEYS";
+
   /**
    * Set this variable to limit max number of files the Text File Output step can have open at one time.
    */
@@ -1145,6 +1201,55 @@ public class Const {
 
   // Null values tweaks
   public static final String KETTLE_AGGREGATION_MIN_NULL_IS_VALUED = "KETTLE_AGGREGATION_MIN_NULL_IS_VALUED";
+
+  /**
+   * The maximum number of groups the Memory Group By step keeps in memory. The rows of the other groups are written to
+   * temporary files, partitioned on the hash of their group, and aggregated afterwards. (default = 0, no limit)
+   */
+  public static final String KETTLE_MEMORY_GROUP_BY_MAX_GROUPS = "KETTLE_MEMORY_GROUP_BY_MAX_GROUPS";
+
+  /**
+   * Where the Stream Lookup step keeps its lookup data in a compact hash index: HEAP, DIRECT (off-heap) or MAPPED (a
+   * memory mapped temporary file). (default = empty, use the lookup algorithm configured in the step)
+   */
+  public static final String KETTLE_STREAM_LOOKUP_INDEX = "KETTLE_STREAM_LOOKUP_INDEX";
+
+  /**
+   * The directory in which the Stream Lookup step creates the temporary file of a MAPPED compact hash index, see
+   * {@link #KETTLE_STREAM_LOOKUP_INDEX}. (default = empty, the java.io.tmpdir directory)
+   */
+  public static final String KETTLE_STREAM_LOOKUP_INDEX_DIRECTORY = "KETTLE_STREAM_LOOKUP_INDEX_DIRECTORY";
+
+  /**
+   * Set this variable to Y to have the Database Lookup step share its cache with the other step copies and
+   * transformations in the JVM that look up the same data. Only used for lookups with equality conditions.
+   * (default = N)
+   */
+  public static final String KETTLE_SHARED_LOOKUP_CACHE = "KETTLE_SHARED_LOOKUP_CACHE";
+
+  /**
+   * The number of seconds the data in a shared lookup cache stays valid. (default = 0, until it is invalidated)
+   */
+  public static final String KETTLE_SHARED_LOOKUP_CACHE_TTL = "KETTLE_SHARED_LOOKUP_CACHE_TTL";
+
+  /**
+   * The kind of threads transformations run their steps in when the execution configuration doesn't say: Platform,
+   * Virtual (needs Java 21), Pooled or Scheduled. (default = Platform)
+   */
+  public static final String KETTLE_STEP_THREADING_MODE = "KETTLE_STEP_THREADING_MODE";
+
+  /**
+   * System property: the number of worker threads of the JVM-wide pool that runs the steps of transformations in the
+   * Scheduled threading mode. (default = the number of processors)
+   */
+  public static final String KETTLE_STEP_SCHEDULER_THREADS = "KETTLE_STEP_SCHEDULER_THREADS";
+
+  /**
+   * System property: the number of milliseconds a step runs in the Scheduled threading mode before it lets other
+   * steps use the worker thread. (default = 2)
+   */
+  public static final String KETTLE_STEP_SCHEDULER_SLICE_MILLIS = "KETTLE_STEP_SCHEDULER_SLICE_MILLIS";
+
   public static final String KETTLE_AGGREGATION_ALL_NULLS_ARE_ZERO = "KETTLE_AGGREGATION_ALL_NULLS_ARE_ZERO";
 
   /**
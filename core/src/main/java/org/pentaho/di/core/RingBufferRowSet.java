@@ -0,0 +1,326 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.util.ManagedBlocking;
+import org.pentaho.di.core.util.VirtualThreads;
+
+/**
+ * A lock-free row set for hops that connect exactly one producer thread to exactly one consumer thread. The rows are
+ * kept in a ring buffer; the producer only ever moves the tail cursor and the consumer only ever moves the head cursor,
+ * so neither side needs a lock. Both cursors are padded to live on their own cache line to avoid false sharing.
+ * <p>
+ * When the buffer is full (put) or empty (get) the calling thread first spins for a configurable number of iterations
+ * and then parks for short, growing periods until the requested timeout expires. Virtual threads don't spin, spinning
+ * would keep their carrier thread from running other virtual threads. Fork/join workers don't spin either, they wait
+ * as a managed blocker so that the pool can compensate.
+ * <p>
+ * This row set is NOT safe to use with more than one writing or more than one reading thread at the same time.
+ *
+ * @since 11.0
+ */
+public class RingBufferRowSet extends BaseRowSet implements Comparable<RowSet>, RowSet {
+
+  /**
+   * The default number of busy-spin iterations before a waiting thread starts to park.
+   */
+  public static final int DEFAULT_SPIN_COUNT = 100;
+
+  private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos( 1 );
+  private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos( 1 );
+
+  private final Object[][] buffer;
+  private final int mask;
+  private final int maxSize;
+  private final int spinCount;
+
+  private final int timeoutPut;
+  private final int timeoutGet;
+
+  /** Index of the next row to read, only written by the consumer. */
+  private final PaddedCursor head = new PaddedCursor();
+
+  /** Index of the next slot to write, only written by the producer. */
+  private final PaddedCursor tail = new PaddedCursor();
+
+  /** Producer-local copy of the head cursor to avoid reading the shared cursor on every put. */
+  private long cachedHead;
+
+  /** Consumer-local copy of the tail cursor to avoid reading the shared cursor on every get. */
+  private long cachedTail;
+
+  /**
+   * Create a new ring buffer row set with maxSize capacity and the spin count taken from
+   * {@link Const#KETTLE_RINGBUFFER_ROWSET_SPIN_COUNT}.
+   *
+   * @param maxSize
+   */
+  public RingBufferRowSet( int maxSize ) {
+    this( maxSize, Const.toInt( System.getProperty( Const.KETTLE_RINGBUFFER_ROWSET_SPIN_COUNT ), DEFAULT_SPIN_COUNT ) );
+  }
+
+  /**
+   * Create a new ring buffer row set.
+   *
+   * @param maxSize
+   *          the maximum number of rows this row set will hold
+   * @param spinCount
+   *          the number of busy-spin iterations before a waiting thread parks
+   */
+  public RingBufferRowSet( int maxSize, int spinCount ) {
+    super();
+
+    this.maxSize = Math.max( 1, maxSize );
+    this.spinCount = Math.max( 0, spinCount );
+
+    // Round up to the next power of 2 so we can use a mask instead of a modulo
+    //
+    int capacity = Integer.highestOneBit( this.maxSize );
+    if ( capacity < this.maxSize ) {
+      capacity <<= 1;
+    }
+    buffer = new Object[capacity][];
+    mask = capacity - 1;
+
+    timeoutGet = Const.toInt( System.getProperty( Const.KETTLE_ROWSET_GET_TIMEOUT ), Const.TIMEOUT_GET_MILLIS );
+    timeoutPut = Const.toInt( System.getProperty( Const.KETTLE_ROWSET_PUT_TIMEOUT ), Const.TIMEOUT_PUT_MILLIS );
+  }
+
+  @Override
+  public boolean putRow( RowMetaInterface rowMeta, Object[] rowData ) {
+    return putRowWait( rowMeta, rowData, timeoutPut, TimeUnit.MILLISECONDS );
+  }
+
+  @Override
+  public boolean putRowWait( RowMetaInterface rowMeta, Object[] rowData, long time, TimeUnit tu ) {
+    if ( rowData == null ) {
+      // Same behavior as the blocking row set: null rows are refused
+      return false;
+    }
+    this.rowMeta = rowMeta;
+
+    long current = tail.get();
+    long wrapPoint = current - maxSize;
+    if ( cachedHead <= wrapPoint ) {
+      cachedHead = head.get();
+      if ( cachedHead <= wrapPoint && !awaitFreeSlot( wrapPoint, time, tu ) ) {
+        return false;
+      }
+    }
+
+    buffer[ (int) current & mask ] = rowData;
+    // Publish the row: the ordered store makes the slot (and rowMeta) visible before the new tail
+    tail.lazySet( current + 1 );
+    return true;
+  }
+
+  /**
+   * Adds as many rows as there is room for in one go, the tail cursor is only published once per batch.
+   */
+  @Override
+  public int putRows( RowMetaInterface rowMeta, Object[][] rows, int offset, int n ) {
+    this.rowMeta = rowMeta;
+
+    int nrPut = 0;
+    while ( nrPut < n ) {
+      // One read of the shared cursor per batch to see all the room that was freed so far
+      //
+      long current = tail.get();
+      long wrapPoint = current - maxSize;
+      cachedHead = head.get();
+      if ( cachedHead <= wrapPoint && !awaitFreeSlot( wrapPoint, timeoutPut, TimeUnit.MILLISECONDS ) ) {
+        break;
+      }
+
+      long available = cachedHead + maxSize - current;
+      long end = current + Math.min( available, n - nrPut );
+      long next = current;
+      while ( next < end ) {
+        Object[] row = rows[ offset + nrPut ];
+        if ( row == null ) {
+          // Same behavior as putRow(): null rows are refused, stop the batch here
+          tail.lazySet( next );
+          return nrPut;
+        }
+        buffer[ (int) next & mask ] = row;
+        next++;
+        nrPut++;
+      }
+      tail.lazySet( next );
+    }
+    return nrPut;
+  }
+
+  @Override
+  public Object[] getRow() {
+    return getRowWait( timeoutGet, TimeUnit.MILLISECONDS );
+  }
+
+  @Override
+  public Object[] getRowImmediate() {
+    return getRowWait( 0, TimeUnit.NANOSECONDS );
+  }
+
+  @Override
+  public Object[] getRowWait( long timeout, TimeUnit tu ) {
+    long current = head.get();
+    if ( current >= cachedTail ) {
+      cachedTail = tail.get();
+      if ( current >= cachedTail && !awaitAvailableRow( current, timeout, tu ) ) {
+        return null;
+      }
+    }
+
+    int index = (int) current & mask;
+    Object[] row = buffer[ index ];
+    buffer[ index ] = null; // prevent any hold-up to GC
+    head.lazySet( current + 1 );
+    return row;
+  }
+
+  /**
+   * Takes all rows that are available (up to max) in one go, the head cursor is only published once per batch.
+   */
+  @Override
+  public Object[][] getRows( int max ) {
+    // One read of the shared cursor per batch to pick up everything that was published so far
+    //
+    long current = head.get();
+    cachedTail = tail.get();
+    if ( current >= cachedTail && !awaitAvailableRow( current, timeoutGet, TimeUnit.MILLISECONDS ) ) {
+      return null;
+    }
+
+    int nrRows = (int) Math.min( cachedTail - current, Math.max( 1, max ) );
+    Object[][] rows = new Object[ nrRows ][];
+    for ( int i = 0; i < nrRows; i++ ) {
+      int index = (int) ( current + i ) & mask;
+      rows[ i ] = buffer[ index ];
+      buffer[ index ] = null; // prevent any hold-up to GC
+    }
+    head.lazySet( current + nrRows );
+    return rows;
+  }
+
+  private boolean awaitFreeSlot( long wrapPoint, long time, TimeUnit tu ) {
+    long deadline = System.nanoTime() + tu.toNanos( time );
+    if ( ManagedBlocking.isManaged() && ( cachedHead = head.get() ) <= wrapPoint ) {
+      // Let the fork/join pool compensate for the blocked worker, and don't spin
+      //
+      return awaitManaged( () -> waitForFreeSlot( wrapPoint, deadline, spinCount ) );
+    }
+    return waitForFreeSlot( wrapPoint, deadline, firstIteration() );
+  }
+
+  private boolean waitForFreeSlot( long wrapPoint, long deadline, int iteration ) {
+    while ( ( cachedHead = head.get() ) <= wrapPoint ) {
+      if ( !idle( iteration++, deadline ) ) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean awaitAvailableRow( long current, long timeout, TimeUnit tu ) {
+    long deadline = System.nanoTime() + tu.toNanos( timeout );
+    if ( ManagedBlocking.isManaged() && current >= ( cachedTail = tail.get() ) ) {
+      return awaitManaged( () -> waitForAvailableRow( current, deadline, spinCount ) );
+    }
+    return waitForAvailableRow( current, deadline, firstIteration() );
+  }
+
+  private boolean waitForAvailableRow( long current, long deadline, int iteration ) {
+    while ( current >= ( cachedTail = tail.get() ) ) {
+      if ( !idle( iteration++, deadline ) ) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean awaitManaged( ManagedBlocking.Wait<Boolean> wait ) {
+    try {
+      return ManagedBlocking.await( wait );
+    } catch ( InterruptedException e ) {
+      return false;
+    }
+  }
+
+  private int firstIteration() {
+    return VirtualThreads.isVirtual( Thread.currentThread() ) ? spinCount : 0;
+  }
+
+  /**
+   * Spin first, then park for increasingly longer periods (capped) until the deadline is reached.
+   *
+   * @return false if the deadline passed or the thread was interrupted, true if the caller should check again.
+   */
+  private boolean idle( int iteration, long deadline ) {
+    long remaining = deadline - System.nanoTime();
+    if ( remaining <= 0 || Thread.interrupted() ) {
+      return false;
+    }
+    if ( iteration < spinCount ) {
+      Thread.onSpinWait();
+    } else {
+      int shift = Math.min( iteration - spinCount, 10 );
+      LockSupport.parkNanos( Math.min( remaining, Math.min( MIN_PARK_NANOS << shift, MAX_PARK_NANOS ) ) );
+    }
+    return true;
+  }
+
+  @Override
+  public int size() {
+    // Read the head first: the tail can only grow in the meantime so the result is never negative
+    long h = head.get();
+    long t = tail.get();
+    return (int) Math.min( t - h, maxSize );
+  }
+
+  /**
+   * Clear this rowset: remove all rows and remove the "done" flag. Like for the other row sets this should only be
+   * called when neither the producer nor the consumer is active.
+   */
+  @Override
+  public void clear() {
+    long t = tail.get();
+    for ( long i = head.get(); i < t; i++ ) {
+      buffer[ (int) i & mask ] = null;
+    }
+    head.set( t );
+    cachedHead = t;
+    cachedTail = t;
+    done.set( false );
+  }
+
+  /**
+   * An atomic long followed by enough padding to keep the next cursor off its cache line.
+   */
+  @SuppressWarnings( "unused" )
+  private static final class PaddedCursor extends AtomicLong {
+    private static final long serialVersionUID = 1L;
+
+    private long p1, p2, p3, p4, p5, p6, p7;
+
+    /** Keeps the padding from being optimized away. */
+    long sumPadding() {
+      return p1 + p2 + p3 + p4 + p5 + p6 + p7;
+    }
+  }
+}
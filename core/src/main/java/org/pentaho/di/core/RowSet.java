@@ -13,8 +13,11 @@
 
 package org.pentaho.di.core;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import org.pentaho.di.core.row.RowArrayPool;
 import org.pentaho.di.core.row.RowMetaInterface;
 
 public interface RowSet {
@@ -69,6 +72,65 @@ public interface RowSet {
    */
   Object[] getRowWait( long timeout, TimeUnit tu );
 
+  /**
+   * Offer a batch of rows to this rowset, all described by the same metadata. If the buffer is full, wait (block) for a
+   * small period of time.
+   *
+   * @param rowMeta
+   *          The description of the rows
+   * @param rows
+   *          the rows of data
+   * @param n
+   *          the number of rows to take from the start of the rows array
+   * @return the number of rows that were added to the rowset, the first rows of the batch are always added first.
+   */
+  default int putRows( RowMetaInterface rowMeta, Object[][] rows, int n ) {
+    return putRows( rowMeta, rows, 0, n );
+  }
+
+  /**
+   * Offer a batch of rows to this rowset, all described by the same metadata. If the buffer is full, wait (block) for a
+   * small period of time.
+   *
+   * @param rowMeta
+   *          The description of the rows
+   * @param rows
+   *          the rows of data
+   * @param offset
+   *          the index of the first row in the rows array to add
+   * @param n
+   *          the number of rows to add
+   * @return the number of rows that were added to the rowset, the first rows of the batch are always added first.
+   */
+  default int putRows( RowMetaInterface rowMeta, Object[][] rows, int offset, int n ) {
+    int nrPut = 0;
+    while ( nrPut < n && putRow( rowMeta, rows[ offset + nrPut ] ) ) {
+      nrPut++;
+    }
+    return nrPut;
+  }
+
+  /**
+   * Get up to max rows from the input buffer. It blocks for a short period until at least one row becomes available.
+   * Otherwise, it returns null.
+   *
+   * @param max
+   *          the maximum number of rows to return
+   * @return the available rows (at least one) or null if no row is available.
+   */
+  default Object[][] getRows( int max ) {
+    Object[] row = getRow();
+    if ( row == null ) {
+      return null;
+    }
+    List<Object[]> rows = new ArrayList<>( Math.min( max, size() + 1 ) );
+    rows.add( row );
+    while ( rows.size() < max && ( row = getRowImmediate() ) != null ) {
+      rows.add( row );
+    }
+    return rows.toArray( new Object[ rows.size() ][] );
+  }
+
   /**
    * @return Set indication that there is no more input
    */
@@ -145,4 +207,21 @@ public interface RowSet {
    * Clear this rowset: remove all rows and remove the "done" flag.
    */
   void clear();
+
+  /**
+   * @return the pool used to recycle the row arrays sent over this row set, or null if the rows are not recycled
+   */
+  default RowArrayPool getRowArrayPool() {
+    return null;
+  }
+
+  /**
+   * Sets the pool used to recycle the row arrays sent over this row set. Row sets that don't support recycling ignore
+   * the pool and keep returning null from {@link #getRowArrayPool()}, so their rows are simply not recycled.
+   *
+   * @param rowArrayPool the pool used to recycle the row arrays sent over this row set
+   */
+  default void setRowArrayPool( RowArrayPool rowArrayPool ) {
+    // Recycling is optional: the rows of this row set are not recycled
+  }
 }
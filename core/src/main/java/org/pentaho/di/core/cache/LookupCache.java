@@ -0,0 +1,265 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.pentaho.di.core.exception.KettleException;
+
+/**
+ * A named lookup cache that can be shared by steps, step copies and transformations running in the same JVM. Caches
+ * are obtained from the {@link LookupCacheService} which keeps track of the number of users.<br>
+ * <br>
+ * The cache maps keys (typically a {@link org.pentaho.di.core.RowMetaAndData}) to rows. It can be filled in two ways:
+ * <ul>
+ * <li>Row by row with {@link #put(Object, Object[])}. When the maximum number of entries is reached the least recently
+ * used entry is evicted and entries expire once they are older than the time to live.</li>
+ * <li>All at once with {@link #load(Loader)}. A loaded cache is complete: a key that isn't in it doesn't exist. It's
+ * never evicted from, regardless of the maximum number of entries, and it is loaded again by the first user that
+ * comes along after the time to live.</li>
+ * </ul>
+ * All methods are thread-safe.
+ */
+public class LookupCache {
+
+  /**
+   * Fills a cache with all the data there is to look up.
+   */
+  public interface Loader {
+    void load( LookupCache cache ) throws KettleException;
+  }
+
+  private static class Entry {
+    private final Object[] value;
+    private final long created;
+
+    Entry( Object[] value, long created ) {
+      this.value = value;
+      this.created = created;
+    }
+  }
+
+  private final String name;
+  private final int maxEntries;
+  private final long timeToLive;
+
+  private final LinkedHashMap<Object, Entry> map;
+  private final Object loadLock = new Object();
+
+  private boolean complete;
+  private boolean loading;
+  private long loaded;
+  private long lastUsed;
+  private int references;
+
+  private long hits;
+  private long misses;
+  private long loads;
+  private long evictions;
+  private long expirations;
+  private long invalidations;
+
+  /**
+   * @param name       the name of the cache
+   * @param maxEntries the maximum number of entries put in row by row, 0 means no limit
+   * @param timeToLive the number of milliseconds an entry or a complete load stays valid, 0 means forever
+   */
+  public LookupCache( String name, int maxEntries, long timeToLive ) {
+    this.name = name;
+    this.maxEntries = maxEntries;
+    this.timeToLive = timeToLive;
+    this.map = new LinkedHashMap<>( 16, 0.75f, true );
+    this.lastUsed = System.currentTimeMillis();
+  }
+
+  /**
+   * @param key the key to look for
+   * @return the row stored for the key or null if there is none (or it expired)
+   */
+  public synchronized Object[] get( Object key ) {
+    long now = System.currentTimeMillis();
+    lastUsed = now;
+    Entry entry = map.get( key );
+    if ( entry != null && !complete && isExpired( entry.created, now ) ) {
+      map.remove( key );
+      expirations++;
+      entry = null;
+    }
+    if ( entry == null ) {
+      misses++;
+      return null;
+    }
+    hits++;
+    return entry.value;
+  }
+
+  /**
+   * Stores a row for a key, unless there already is a valid row for the key.
+   *
+   * @param key   the key
+   * @param value the row
+   */
+  public synchronized void put( Object key, Object[] value ) {
+    long now = System.currentTimeMillis();
+    lastUsed = now;
+    Entry entry = map.get( key );
+    if ( entry != null && ( complete || !isExpired( entry.created, now ) ) ) {
+      return;
+    }
+    map.put( key, new Entry( value, now ) );
+    if ( !complete && !loading && maxEntries > 0 && map.size() > maxEntries ) {
+      Iterator<Object> iterator = map.keySet().iterator();
+      iterator.next();
+      iterator.remove();
+      evictions++;
+    }
+  }
+
+  /**
+   * Loads all the data in the cache unless that was already done (and didn't expire yet). Other threads wait while a
+   * load is in progress.
+   *
+   * @param loader fills the cache using {@link #put(Object, Object[])}
+   * @throws KettleException when the loader fails, the cache is left empty in that case
+   */
+  public void load( Loader loader ) throws KettleException {
+    synchronized ( loadLock ) {
+      synchronized ( this ) {
+        if ( isComplete() ) {
+          return;
+        }
+        map.clear();
+        complete = false;
+        loading = true;
+      }
+      try {
+        loader.load( this );
+      } catch ( KettleException | RuntimeException e ) {
+        synchronized ( this ) {
+          map.clear();
+          loading = false;
+        }
+        throw e;
+      }
+      synchronized ( this ) {
+        loading = false;
+        complete = true;
+        loaded = System.currentTimeMillis();
+        loads++;
+      }
+    }
+  }
+
+  /**
+   * @return true if the cache was loaded with all the data and that load didn't expire
+   */
+  public synchronized boolean isComplete() {
+    return complete && !isExpired( loaded, System.currentTimeMillis() );
+  }
+
+  /**
+   * Removes all the entries, a complete cache needs to be loaded again.
+   */
+  public synchronized void invalidate() {
+    map.clear();
+    complete = false;
+    invalidations++;
+  }
+
+  /**
+   * @return true if nobody uses the cache and whatever it holds is too old to be used again
+   */
+  synchronized boolean isObsolete( long now ) {
+    return references == 0 && ( map.isEmpty() || isExpired( lastUsed, now ) );
+  }
+
+  private boolean isExpired( long time, long now ) {
+    return timeToLive > 0 && now - time >= timeToLive;
+  }
+
+  synchronized int addReference() {
+    lastUsed = System.currentTimeMillis();
+    return ++references;
+  }
+
+  synchronized int removeReference() {
+    return references > 0 ? --references : 0;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getMaxEntries() {
+    return maxEntries;
+  }
+
+  public long getTimeToLive() {
+    return timeToLive;
+  }
+
+  public synchronized int size() {
+    return map.size();
+  }
+
+  /**
+   * @return the number of step copies currently using the cache
+   */
+  public synchronized int getReferences() {
+    return references;
+  }
+
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  public synchronized long getLoads() {
+    return loads;
+  }
+
+  public synchronized long getEvictions() {
+    return evictions;
+  }
+
+  public synchronized long getExpirations() {
+    return expirations;
+  }
+
+  public synchronized long getInvalidations() {
+    return invalidations;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return name + " [entries=" + map.size() + ", references=" + references + ", hits=" + hits + ", misses=" + misses
+      + ", loads=" + loads + ", evictions=" + evictions + ", expirations=" + expirations + "]";
+  }
+
+  /**
+   * @return a copy of the entries, for testing and monitoring
+   */
+  synchronized Map<Object, Object[]> getEntries() {
+    Map<Object, Object[]> entries = new LinkedHashMap<>();
+    for ( Map.Entry<Object, Entry> entry : map.entrySet() ) {
+      entries.put( entry.getKey(), entry.getValue().value );
+    }
+    return entries;
+  }
+}
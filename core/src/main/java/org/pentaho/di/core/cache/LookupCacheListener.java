@@ -11,17 +11,14 @@
  ******************************************************************************/
 
 
-package org.pentaho.di.trans.steps.sort;
+package org.pentaho.di.core.cache;
 
 /**
- * Keeps track of which temporary file a row is coming from
+ * Gets notified when a shared lookup cache is invalidated, for example to invalidate related data as well.
  */
-public class RowTempFile {
-  public Object[] row;
-  public int fileNumber;
-
-  public RowTempFile( Object[] row, int fileNumber ) {
-    this.row = row;
-    this.fileNumber = fileNumber;
-  }
+public interface LookupCacheListener {
+  /**
+   * @param cache the cache that was just emptied
+   */
+  void cacheInvalidated( LookupCache cache );
 }
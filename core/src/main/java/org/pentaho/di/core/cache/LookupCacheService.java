@@ -0,0 +1,125 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps the named {@link LookupCache}s of the JVM. A step copy acquires a cache by name when it starts and releases it
+ * when it's done. Caches that are no longer used are kept so that the next transformation doing the same lookup finds
+ * the data in memory. They are removed once their data expired (see {@link LookupCache#getTimeToLive()}) or when they
+ * are invalidated.
+ */
+public class LookupCacheService {
+  private static final LookupCacheService instance = new LookupCacheService();
+
+  private final Map<String, LookupCache> caches = new ConcurrentHashMap<>();
+  private final List<LookupCacheListener> listeners = new CopyOnWriteArrayList<>();
+
+  public static LookupCacheService getInstance() {
+    return instance;
+  }
+
+  /**
+   * Gets the cache with the given name, creating it if needed, and registers a new user of it. The size and time to
+   * live of an existing cache are not changed.
+   *
+   * @param name       the name of the cache, it should describe the data it holds
+   * @param maxEntries the maximum number of entries put in row by row, 0 means no limit
+   * @param timeToLive the number of milliseconds entries stay valid, 0 means forever
+   * @return the cache, to be released with {@link #release(LookupCache)}
+   */
+  public LookupCache acquire( String name, int maxEntries, long timeToLive ) {
+    removeObsoleteCaches();
+    return caches.compute( name, ( key, existing ) -> {
+      LookupCache cache = existing != null ? existing : new LookupCache( key, maxEntries, timeToLive );
+      cache.addReference();
+      return cache;
+    } );
+  }
+
+  /**
+   * Tells the service a user is done with a cache. The data is kept for later users.
+   *
+   * @param cache the cache obtained with {@link #acquire(String, int, long)}
+   */
+  public void release( LookupCache cache ) {
+    cache.removeReference();
+  }
+
+  /**
+   * @param name the name of the cache
+   * @return the cache or null if there is no cache with that name
+   */
+  public LookupCache getCache( String name ) {
+    return caches.get( name );
+  }
+
+  /**
+   * @return all the caches
+   */
+  public List<LookupCache> getCaches() {
+    return new ArrayList<>( caches.values() );
+  }
+
+  /**
+   * Empties a cache and notifies the listeners. A cache that nobody uses is removed as well.
+   *
+   * @param name the name of the cache
+   * @return true if a cache with that name was found
+   */
+  public boolean invalidate( String name ) {
+    LookupCache cache = caches.get( name );
+    if ( cache == null ) {
+      return false;
+    }
+    cache.invalidate();
+    caches.computeIfPresent( name, ( key, existing ) -> existing.getReferences() == 0 ? null : existing );
+    for ( LookupCacheListener listener : listeners ) {
+      listener.cacheInvalidated( cache );
+    }
+    return true;
+  }
+
+  /**
+   * Invalidates all the caches.
+   */
+  public void invalidateAll() {
+    for ( String name : new ArrayList<>( caches.keySet() ) ) {
+      invalidate( name );
+    }
+  }
+
+  /**
+   * Removes the caches that are no longer used and hold no data that can still be used.
+   */
+  public void removeObsoleteCaches() {
+    long now = System.currentTimeMillis();
+    for ( String name : new ArrayList<>( caches.keySet() ) ) {
+      caches.computeIfPresent( name, ( key, cache ) -> cache.isObsolete( now ) ? null : cache );
+    }
+  }
+
+  public void addListener( LookupCacheListener listener ) {
+    listeners.add( listener );
+  }
+
+  public void removeListener( LookupCacheListener listener ) {
+    listeners.remove( listener );
+  }
+}
@@ -130,6 +130,8 @@ public class Database implements VariableSpace, LoggingObjectInterface, Closeabl
   private static final String DATA_SERVICES_PLUGIN_ID = "KettleThin";
 
   private int rowlimit;
+
+  private int fetchSize;
   private int commitsize;
 
   private Connection connection;
@@ -317,6 +319,23 @@ public class Database implements VariableSpace, LoggingObjectInterface, Closeabl
     rowlimit = rows;
   }
 
+  /**
+   * Set the number of rows the driver fetches at a time for the queries that are opened. MySQL streaming result sets
+   * keep fetching row by row.
+   *
+   * @param fetchSize the number of rows to fetch at a time, 0 to use the default
+   */
+  public void setFetchSize( int fetchSize ) {
+    this.fetchSize = fetchSize;
+  }
+
+  /**
+   * @return the number of rows the driver fetches at a time, 0 if the default is used
+   */
+  public int getFetchSize() {
+    return fetchSize;
+  }
+
   /**
    * @return Returns the prepStatementInsert.
    */
@@ -1724,7 +1743,7 @@ public class Database implements VariableSpace, LoggingObjectInterface, Closeabl
 
         if ( canWeSetFetchSize( pstmt ) ) {
           int maxRows = pstmt.getMaxRows();
-          int fs = Math.max( Const.FETCH_SIZE, maxRows );
+          int fs = fetchSize > 0 ? fetchSize : Math.max( Const.FETCH_SIZE, maxRows );
           if ( databaseMeta.isMySQLVariant() ) {
             setMysqlFetchSize( pstmt, fs, maxRows );
           } else {
@@ -1746,7 +1765,7 @@ public class Database implements VariableSpace, LoggingObjectInterface, Closeabl
         selStmt = connection.createStatement();
         log.snap( Metrics.METRIC_DATABASE_CREATE_SQL_STOP, databaseMeta.getName() );
         if ( canWeSetFetchSize( selStmt ) ) {
-          int fs = Math.max( Const.FETCH_SIZE, selStmt.getMaxRows() );
+          int fs = fetchSize > 0 ? fetchSize : Math.max( Const.FETCH_SIZE, selStmt.getMaxRows() );
           if ( databaseMeta.getDatabaseInterface().isMySQLVariant()
             && databaseMeta.isStreamingResults() ) {
             selStmt.setFetchSize( Integer.MIN_VALUE );
@@ -1782,6 +1801,7 @@ public class Database implements VariableSpace, LoggingObjectInterface, Closeabl
   private boolean canWeSetFetchSize( Statement statement ) throws SQLException {
     return databaseMeta.isFetchSizeSupported()
       && ( statement.getMaxRows() > 0
+      || fetchSize > 0
       || databaseMeta.getDatabaseInterface() instanceof PostgreSQLDatabaseMeta
       || ( databaseMeta.isMySQLVariant() && databaseMeta.isStreamingResults() ) );
   }
@@ -1800,7 +1820,7 @@ public class Database implements VariableSpace, LoggingObjectInterface, Closeabl
 
       if ( canWeSetFetchSize( ps ) ) {
         int maxRows = ps.getMaxRows();
-        int fs = Math.max( Const.FETCH_SIZE, maxRows );
+        int fs = fetchSize > 0 ? fetchSize : Math.max( Const.FETCH_SIZE, maxRows );
         // mysql have some restriction on fetch size assignment
         if ( databaseMeta.isMySQLVariant() ) {
           setMysqlFetchSize( ps, fs, maxRows );
@@ -1840,8 +1860,8 @@ public class Database implements VariableSpace, LoggingObjectInterface, Closeabl
   void setMysqlFetchSize( PreparedStatement ps, int fs, int getMaxRows ) throws SQLException, KettleDatabaseException {
     if ( databaseMeta.isStreamingResults() && getDatabaseMetaData().getDriverMajorVersion() == 3 ) {
       ps.setFetchSize( Integer.MIN_VALUE );
-    } else if ( fs <= getMaxRows ) {
-      // PDI-11373 do not set fetch size more than max rows can returns
+    } else if ( fs <= getMaxRows || fetchSize > 0 ) {
+      // PDI-11373 do not set fetch size more than max rows can returns, unless it was set explicitly
       ps.setFetchSize( fs );
     }
   }
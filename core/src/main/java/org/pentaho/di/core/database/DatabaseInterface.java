@@ -17,6 +17,7 @@ import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -435,6 +436,15 @@ public interface DatabaseInterface extends Cloneable {
    */
   String getFunctionCount();
 
+  /**
+   * @param dividend the SQL expression to divide
+   * @param divisor  the SQL expression to divide by
+   * @return the SQL expression that calculates the remainder of the division
+   */
+  default String getFunctionModulus( String dividend, String divisor ) {
+    return "MOD( " + dividend + ", " + divisor + " )";
+  }
+
   /**
    * Get the schema-table combination to query the right table. Usually that is SCHEMA.TABLENAME, however there are
    * exceptions to this rule...
@@ -619,6 +629,110 @@ public interface DatabaseInterface extends Cloneable {
    */
   String getSQLUnlockTables( String[] tableNames );
 
+  /**
+   * Get the statement that inserts a row or, if a row with the same key already exists, updates it. The statement has
+   * a parameter for each of the insert columns, in that order. An existing row is only updated if one of the update
+   * columns changes. What the statement reports about a row is described in {@link #isUpsertReturningInserted()}.
+   *
+   * @param schemaTable
+   *          The quoted schema-table combination
+   * @param keyColumns
+   *          The quoted columns of a primary key or unique constraint, all of them part of the insert columns
+   * @param insertColumns
+   *          The quoted columns to insert
+   * @param updateColumns
+   *          The quoted columns to update, none of them a key column. Can be empty.
+   * @return The SQL statement, or null in case the database can't insert or update a row in a single statement.
+   */
+  default String getSQLUpsert( String schemaTable, String[] keyColumns, String[] insertColumns,
+    String[] updateColumns ) {
+    return null;
+  }
+
+  /**
+   * @return true if the upsert statement returns a row for every row it inserts or updates, with a single boolean
+   *         column that is true for an insert. A row that doesn't change isn't returned. If false, the statement
+   *         reports 0 affected rows for a row that doesn't change, 1 for an insert and 2 for an update.
+   */
+  default boolean isUpsertReturningInserted() {
+    return false;
+  }
+
+  /**
+   * @return The connection options, by option name, that the upsert statement needs to report the affected rows as
+   *         described in {@link #isUpsertReturningInserted()}. Empty if it doesn't need any.
+   */
+  default Map<String, String> getUpsertConnectionOptions() {
+    return Collections.emptyMap();
+  }
+
+  /**
+   * Get the name of the temporary table to stage the rows of an upsert batch in. Databases that stage the rows update
+   * and insert them with separate statements, so that the number of updated and inserted rows is known, instead of
+   * using {@link #getSQLUpsert(String, String[], String[], String[])}.
+   *
+   * @param name
+   *          The unquoted name of the table, unique for the connection
+   * @return The name of a table that only the connection that creates it can see, or null in case the database
+   *         doesn't stage upserts.
+   */
+  default String getUpsertStagingTable( String name ) {
+    return null;
+  }
+
+  /**
+   * Get the statement that creates the staging table of an upsert, with the insert columns of the table and no rows.
+   *
+   * @param stagingTable
+   *          The name of the staging table, see {@link #getUpsertStagingTable(String)}
+   * @param schemaTable
+   *          The quoted schema-table combination
+   * @param insertColumns
+   *          The quoted columns to insert
+   * @return The SQL statement, or null in case the database doesn't stage upserts.
+   */
+  default String getSQLCreateUpsertStagingTable( String stagingTable, String schemaTable, String[] insertColumns ) {
+    return null;
+  }
+
+  /**
+   * Get the statement that updates the rows of the table with the keys of a staged row, if one of the update columns
+   * changes. The statement reports the number of updated rows.
+   *
+   * @param schemaTable
+   *          The quoted schema-table combination
+   * @param stagingTable
+   *          The name of the staging table, see {@link #getUpsertStagingTable(String)}
+   * @param keyColumns
+   *          The quoted columns of a primary key or unique constraint
+   * @param updateColumns
+   *          The quoted columns to update, none of them a key column. Not empty.
+   * @return The SQL statement, or null in case the database doesn't stage upserts.
+   */
+  default String getSQLUpsertStagingUpdate( String schemaTable, String stagingTable, String[] keyColumns,
+    String[] updateColumns ) {
+    return null;
+  }
+
+  /**
+   * Get the statement that inserts the staged rows with keys that aren't in the table yet. The statement reports the
+   * number of inserted rows.
+   *
+   * @param schemaTable
+   *          The quoted schema-table combination
+   * @param stagingTable
+   *          The name of the staging table, see {@link #getUpsertStagingTable(String)}
+   * @param keyColumns
+   *          The quoted columns of a primary key or unique constraint, all of them part of the insert columns
+   * @param insertColumns
+   *          The quoted columns to insert
+   * @return The SQL statement, or null in case the database doesn't stage upserts.
+   */
+  default String getSQLUpsertStagingInsert( String schemaTable, String stagingTable, String[] keyColumns,
+    String[] insertColumns ) {
+    return null;
+  }
+
   /**
    * @return true if the database resultsets support getTimeStamp() to retrieve date-time. (Date)
    */
@@ -1570,6 +1570,10 @@ public class DatabaseMeta extends SharedObjectBase implements Cloneable, XMLInte
     return databaseInterface.getFunctionCount();
   }
 
+  public String getFunctionModulus( String dividend, String divisor ) {
+    return databaseInterface.getFunctionModulus( dividend, divisor );
+  }
+
   /**
    * Check the database connection parameters and give back an array of remarks
    *
@@ -2015,6 +2019,58 @@ public class DatabaseMeta extends SharedObjectBase implements Cloneable, XMLInte
     return databaseInterface.getSQLUnlockTables( tableNames );
   }
 
+  /**
+   * @see DatabaseInterface#getSQLUpsert(String, String[], String[], String[])
+   */
+  public String getSQLUpsert( String schemaTable, String[] keyColumns, String[] insertColumns,
+    String[] updateColumns ) {
+    return databaseInterface.getSQLUpsert( schemaTable, keyColumns, insertColumns, updateColumns );
+  }
+
+  /**
+   * @see DatabaseInterface#isUpsertReturningInserted()
+   */
+  public boolean isUpsertReturningInserted() {
+    return databaseInterface.isUpsertReturningInserted();
+  }
+
+  /**
+   * @see DatabaseInterface#getUpsertConnectionOptions()
+   */
+  public Map<String, String> getUpsertConnectionOptions() {
+    return databaseInterface.getUpsertConnectionOptions();
+  }
+
+  /**
+   * @see DatabaseInterface#getUpsertStagingTable(String)
+   */
+  public String getUpsertStagingTable( String name ) {
+    return databaseInterface.getUpsertStagingTable( name );
+  }
+
+  /**
+   * @see DatabaseInterface#getSQLCreateUpsertStagingTable(String, String, String[])
+   */
+  public String getSQLCreateUpsertStagingTable( String stagingTable, String schemaTable, String[] insertColumns ) {
+    return databaseInterface.getSQLCreateUpsertStagingTable( stagingTable, schemaTable, insertColumns );
+  }
+
+  /**
+   * @see DatabaseInterface#getSQLUpsertStagingUpdate(String, String, String[], String[])
+   */
+  public String getSQLUpsertStagingUpdate( String schemaTable, String stagingTable, String[] keyColumns,
+    String[] updateColumns ) {
+    return databaseInterface.getSQLUpsertStagingUpdate( schemaTable, stagingTable, keyColumns, updateColumns );
+  }
+
+  /**
+   * @see DatabaseInterface#getSQLUpsertStagingInsert(String, String, String[], String[])
+   */
+  public String getSQLUpsertStagingInsert( String schemaTable, String stagingTable, String[] keyColumns,
+    String[] insertColumns ) {
+    return databaseInterface.getSQLUpsertStagingInsert( schemaTable, stagingTable, keyColumns, insertColumns );
+  }
+
   /**
    * @return a feature list for the chosen database type.
    *
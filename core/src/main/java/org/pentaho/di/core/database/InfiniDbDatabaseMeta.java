@@ -17,4 +17,12 @@ public class InfiniDbDatabaseMeta extends MySQLDatabaseMeta implements DatabaseI
 
   // Only has a different ID to catch exceptions here and there.
 
+  /**
+   * The InfiniDB storage engine doesn't support INSERT ... ON DUPLICATE KEY UPDATE.
+   */
+  @Override
+  public String getSQLUpsert( String schemaTable, String[] keyColumns, String[] insertColumns,
+    String[] updateColumns ) {
+    return null;
+  }
 }
@@ -28,4 +28,12 @@ public class InfobrightDatabaseMeta extends MySQLDatabaseMeta implements Databas
     addExtraOption( getPluginId(), "characterEncoding", "UTF-8" );
   }
 
+  /**
+   * The Infobright storage engine doesn't support INSERT ... ON DUPLICATE KEY UPDATE.
+   */
+  @Override
+  public String getSQLUpsert( String schemaTable, String[] keyColumns, String[] insertColumns,
+    String[] updateColumns ) {
+    return null;
+  }
 }
@@ -129,6 +129,64 @@ public class MSSQLServerDatabaseMeta extends BaseDatabaseMeta implements Databas
     return sql.toString();
   }
 
+  /**
+   * A local temporary table, dropped when the connection is closed.
+   */
+  @Override
+  public String getUpsertStagingTable( String name ) {
+    return "#" + name;
+  }
+
+  @Override
+  public String getSQLCreateUpsertStagingTable( String stagingTable, String schemaTable, String[] insertColumns ) {
+    return "SELECT " + String.join( ", ", insertColumns ) + " INTO " + stagingTable + " FROM " + schemaTable
+      + " WHERE 1 = 0";
+  }
+
+  /**
+   * MERGE with only an update. The EXCEPT compares the old and new values, treating two nulls as equal.
+   */
+  @Override
+  public String getSQLUpsertStagingUpdate( String schemaTable, String stagingTable, String[] keyColumns,
+    String[] updateColumns ) {
+    StringBuilder source = new StringBuilder();
+    StringBuilder target = new StringBuilder();
+    StringBuilder set = new StringBuilder();
+    for ( int i = 0; i < updateColumns.length; i++ ) {
+      String separator = i > 0 ? ", " : "";
+      source.append( separator ).append( "s." ).append( updateColumns[i] );
+      target.append( separator ).append( "t." ).append( updateColumns[i] );
+      set.append( separator ).append( updateColumns[i] ).append( " = s." ).append( updateColumns[i] );
+    }
+    return getSQLMergeStaged( schemaTable, stagingTable, keyColumns ).append( " WHEN MATCHED AND EXISTS ( SELECT " )
+      .append( source ).append( " EXCEPT SELECT " ).append( target ).append( " ) THEN UPDATE SET " ).append( set )
+      .append( ";" ).toString();
+  }
+
+  @Override
+  public String getSQLUpsertStagingInsert( String schemaTable, String stagingTable, String[] keyColumns,
+    String[] insertColumns ) {
+    StringBuilder sql = getSQLMergeStaged( schemaTable, stagingTable, keyColumns )
+      .append( " WHEN NOT MATCHED THEN INSERT ( " ).append( String.join( ", ", insertColumns ) )
+      .append( " ) VALUES ( " );
+    for ( int i = 0; i < insertColumns.length; i++ ) {
+      sql.append( i > 0 ? ", s." : "s." ).append( insertColumns[i] );
+    }
+    return sql.append( " );" ).toString();
+  }
+
+  /**
+   * The HOLDLOCK hint keeps concurrent merges of the same key from both inserting it.
+   */
+  private static StringBuilder getSQLMergeStaged( String schemaTable, String stagingTable, String[] keyColumns ) {
+    StringBuilder sql = new StringBuilder( "MERGE INTO " ).append( schemaTable )
+      .append( " WITH (HOLDLOCK) AS t USING " ).append( stagingTable ).append( " AS s ON ( " );
+    for ( int i = 0; i < keyColumns.length; i++ ) {
+      sql.append( i > 0 ? " AND t." : "t." ).append( keyColumns[i] ).append( " = s." ).append( keyColumns[i] );
+    }
+    return sql.append( " )" );
+  }
+
   /**
    * Generates the SQL statement to add a column to the specified table
    *
@@ -530,4 +588,9 @@ public class MSSQLServerDatabaseMeta extends BaseDatabaseMeta implements Databas
   public void setConnectionSpecificInfoFromAttributes( Map<String, String> attributes ) {
     this.setUsingDoubleDecimalAsSchemaTableSeparator( setBooleanValueFromMap( attributes, "MSSQL_DOUBLE_DECIMAL_SEPARATOR" ) );
   }
+
+  @Override
+  public String getFunctionModulus( String dividend, String divisor ) {
+    return "( " + dividend + " % " + divisor + " )";
+  }
 }
@@ -24,6 +24,7 @@ import org.pentaho.di.i18n.BaseMessages;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSetMetaData;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -391,6 +392,35 @@ public class MySQLDatabaseMeta extends BaseDatabaseMeta implements DatabaseInter
   @Override public String getSQLUnlockTables( String[] tableName ) {
     return "UNLOCK TABLES"; // This unlocks all tables
   }
+  /**
+   * INSERT ... ON DUPLICATE KEY UPDATE. MySQL only writes the columns that change. With the useAffectedRows connection
+   * option it reports 0 affected rows for a row that doesn't change, 1 for an insert and 2 for an update, instead of
+   * counting the rows it found.
+   */
+  @Override public String getSQLUpsert( String schemaTable, String[] keyColumns, String[] insertColumns,
+    String[] updateColumns ) {
+    StringBuilder sql = new StringBuilder( "INSERT INTO " ).append( schemaTable ).append( " ( " )
+      .append( String.join( ", ", insertColumns ) ).append( " ) VALUES ( " );
+    for ( int i = 0; i < insertColumns.length; i++ ) {
+      sql.append( i > 0 ? ", ?" : "?" );
+    }
+    sql.append( " ) ON DUPLICATE KEY UPDATE " );
+    if ( updateColumns.length == 0 ) {
+      // Leave the existing row alone
+      //
+      return sql.append( keyColumns[0] ).append( " = " ).append( keyColumns[0] ).toString();
+    }
+    for ( int i = 0; i < updateColumns.length; i++ ) {
+      sql.append( i > 0 ? ", " : "" ).append( updateColumns[i] ).append( " = VALUES( " ).append( updateColumns[i] )
+        .append( " )" );
+    }
+    return sql.toString();
+  }
+
+  @Override public Map<String, String> getUpsertConnectionOptions() {
+    return Collections.singletonMap( "useAffectedRows", "true" );
+  }
+
 
   @Override public boolean needsToLockAllTables() {
     return true;
@@ -463,6 +463,58 @@ public class OracleDatabaseMeta extends BaseDatabaseMeta implements DatabaseInte
     return null; // commit handles the unlocking!
   }
 
+  /**
+   * A private temporary table, available as of Oracle 18c. It keeps its rows when the batch is committed.
+   */
+  @Override
+  public String getUpsertStagingTable( String name ) {
+    return "ORA$PTT_" + name;
+  }
+
+  @Override
+  public String getSQLCreateUpsertStagingTable( String stagingTable, String schemaTable, String[] insertColumns ) {
+    return "CREATE PRIVATE TEMPORARY TABLE " + stagingTable + " ON COMMIT PRESERVE DEFINITION AS SELECT "
+      + String.join( ", ", insertColumns ) + " FROM " + schemaTable + " WHERE 1 = 0";
+  }
+
+  /**
+   * MERGE with only an update. DECODE compares the old and new values, treating two nulls as equal.
+   */
+  @Override
+  public String getSQLUpsertStagingUpdate( String schemaTable, String stagingTable, String[] keyColumns,
+    String[] updateColumns ) {
+    StringBuilder sql =
+      getSQLMergeStaged( schemaTable, stagingTable, keyColumns ).append( " WHEN MATCHED THEN UPDATE SET " );
+    StringBuilder changed = new StringBuilder();
+    for ( int i = 0; i < updateColumns.length; i++ ) {
+      sql.append( i > 0 ? ", t." : "t." ).append( updateColumns[i] ).append( " = s." ).append( updateColumns[i] );
+      changed.append( i > 0 ? " OR " : "" ).append( "DECODE( t." ).append( updateColumns[i] ).append( ", s." )
+        .append( updateColumns[i] ).append( ", 0, 1 ) = 1" );
+    }
+    return sql.append( " WHERE " ).append( changed ).toString();
+  }
+
+  @Override
+  public String getSQLUpsertStagingInsert( String schemaTable, String stagingTable, String[] keyColumns,
+    String[] insertColumns ) {
+    StringBuilder sql = getSQLMergeStaged( schemaTable, stagingTable, keyColumns )
+      .append( " WHEN NOT MATCHED THEN INSERT ( " ).append( String.join( ", ", insertColumns ) )
+      .append( " ) VALUES ( " );
+    for ( int i = 0; i < insertColumns.length; i++ ) {
+      sql.append( i > 0 ? ", s." : "s." ).append( insertColumns[i] );
+    }
+    return sql.append( " )" ).toString();
+  }
+
+  private static StringBuilder getSQLMergeStaged( String schemaTable, String stagingTable, String[] keyColumns ) {
+    StringBuilder sql = new StringBuilder( "MERGE INTO " ).append( schemaTable ).append( " t USING " )
+      .append( stagingTable ).append( " s ON ( " );
+    for ( int i = 0; i < keyColumns.length; i++ ) {
+      sql.append( i > 0 ? " AND t." : "t." ).append( keyColumns[i] ).append( " = s." ).append( keyColumns[i] );
+    }
+    return sql.append( " )" );
+  }
+
   /**
    * @return extra help text on the supported options on the selected database platform.
    */
@@ -486,6 +486,43 @@ public class PostgreSQLDatabaseMeta extends BaseDatabaseMeta implements Database
     return null; // commit unlocks everything!
   }
 
+  /**
+   * INSERT ... ON CONFLICT ( keys ) DO UPDATE, available as of PostgreSQL 9.5. The key columns need a unique index.
+   * The statement returns whether the row was inserted: the new version of an updated row has the locking transaction
+   * in xmax.
+   */
+  @Override
+  public String getSQLUpsert( String schemaTable, String[] keyColumns, String[] insertColumns,
+    String[] updateColumns ) {
+    StringBuilder sql = new StringBuilder( "INSERT INTO " ).append( schemaTable ).append( " AS t ( " )
+      .append( String.join( ", ", insertColumns ) ).append( " ) VALUES ( " );
+    for ( int i = 0; i < insertColumns.length; i++ ) {
+      sql.append( i > 0 ? ", ?" : "?" );
+    }
+    sql.append( " ) ON CONFLICT ( " ).append( String.join( ", ", keyColumns ) ).append( " ) DO " );
+    if ( updateColumns.length == 0 ) {
+      return sql.append( "NOTHING RETURNING ( xmax = 0 )" ).toString();
+    }
+    StringBuilder target = new StringBuilder();
+    StringBuilder excluded = new StringBuilder();
+    sql.append( "UPDATE SET " );
+    for ( int i = 0; i < updateColumns.length; i++ ) {
+      String separator = i > 0 ? ", " : "";
+      sql.append( separator ).append( updateColumns[i] ).append( " = EXCLUDED." ).append( updateColumns[i] );
+      target.append( separator ).append( "t." ).append( updateColumns[i] );
+      excluded.append( separator ).append( "EXCLUDED." ).append( updateColumns[i] );
+    }
+    // Only update a row that changes: an unchanged row isn't returned
+    //
+    return sql.append( " WHERE ROW( " ).append( target ).append( " ) IS DISTINCT FROM ROW( " ).append( excluded )
+      .append( " ) RETURNING ( xmax = 0 )" ).toString();
+  }
+
+  @Override
+  public boolean isUpsertReturningInserted() {
+    return true;
+  }
+
   /**
    * @return true if the database defaults to naming tables and fields in uppercase. True for most databases except for
    *         stubborn stuff like PostgreSQL ;-)
@@ -151,4 +151,13 @@ public class RedshiftDatabaseMeta extends PostgreSQLDatabaseMeta {
     addAttribute( AWS_ACCESS_KEY, setStringValueFromMap( attributes, AWS_ACCESS_KEY ) );
     addAttribute( AWS_ACCESS_KEY_ID, setStringValueFromMap( attributes, AWS_ACCESS_KEY_ID ) );
   }
+
+  /**
+   * Redshift doesn't support INSERT ... ON CONFLICT and doesn't enforce unique constraints.
+   */
+  @Override
+  public String getSQLUpsert( String schemaTable, String[] keyColumns, String[] insertColumns,
+    String[] updateColumns ) {
+    return null;
+  }
 }
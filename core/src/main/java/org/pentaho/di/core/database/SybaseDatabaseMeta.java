@@ -238,4 +238,9 @@ public class SybaseDatabaseMeta extends BaseDatabaseMeta implements DatabaseInte
     string = string.replaceAll( "\\r", "\\0xa" );
     return "'" + string + "'";
   }
+
+  @Override
+  public String getFunctionModulus( String dividend, String divisor ) {
+    return "( " + dividend + " % " + divisor + " )";
+  }
 }
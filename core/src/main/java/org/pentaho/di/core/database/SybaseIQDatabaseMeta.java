@@ -235,4 +235,8 @@ public class SybaseIQDatabaseMeta extends BaseDatabaseMeta implements DatabaseIn
     return false;
   }
 
+  @Override
+  public String getFunctionModulus( String dividend, String divisor ) {
+    return "( " + dividend + " % " + divisor + " )";
+  }
 }
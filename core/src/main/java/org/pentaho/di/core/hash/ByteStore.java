@@ -0,0 +1,221 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.hash;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * An append-only store of bytes addressed by a long offset. The bytes are kept in pages of 1MB which live on the heap,
+ * in direct (off-heap) memory or in a memory mapped temporary file. A mapped store can grow beyond the heap and the
+ * physical memory, the operating system pages the data in and out as needed.
+ */
+public class ByteStore implements Closeable {
+
+  public enum Type {
+    HEAP, DIRECT, MAPPED;
+
+    /**
+     * @param name the name of a type, case insensitive
+     * @return the type or null if the name is empty or unknown
+     */
+    public static Type getType( String name ) {
+      for ( Type type : values() ) {
+        if ( type.name().equalsIgnoreCase( name ) ) {
+          return type;
+        }
+      }
+      return null;
+    }
+  }
+
+  private static final int PAGE_BITS = 20;
+  private static final int PAGE_SIZE = 1 << PAGE_BITS;
+  private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+  private final Type type;
+  private final File directory;
+  private ByteBuffer[] pages = new ByteBuffer[ 16 ];
+  private int nrPages;
+  private long size;
+
+  private File file;
+  private RandomAccessFile randomAccessFile;
+
+  public ByteStore( Type type ) {
+    this( type, null );
+  }
+
+  /**
+   * @param type      where to keep the pages
+   * @param directory the directory for the temporary file of a mapped store, null for the default temporary directory
+   */
+  public ByteStore( Type type, File directory ) {
+    this.type = type;
+    this.directory = directory;
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  /**
+   * @return the number of bytes stored
+   */
+  public long size() {
+    return size;
+  }
+
+  /**
+   * @return the number of bytes allocated for the pages
+   */
+  public long getAllocatedSize() {
+    return (long) nrPages * PAGE_SIZE;
+  }
+
+  /**
+   * Appends a 4 byte integer.
+   *
+   * @return the offset of the integer
+   */
+  public long appendInt( int value ) throws IOException {
+    long offset = size;
+    ensureCapacity( size + 4 );
+    for ( int shift = 24; shift >= 0; shift -= 8 ) {
+      putByte( size++, (byte) ( value >>> shift ) );
+    }
+    return offset;
+  }
+
+  /**
+   * Appends bytes.
+   *
+   * @return the offset of the first byte
+   */
+  public long append( byte[] bytes, int length ) throws IOException {
+    long offset = size;
+    ensureCapacity( size + length );
+    int done = 0;
+    while ( done < length ) {
+      ByteBuffer page = pages[ (int) ( size >>> PAGE_BITS ) ];
+      int position = (int) ( size & PAGE_MASK );
+      int n = Math.min( length - done, PAGE_SIZE - position );
+      page.put( position, bytes, done, n );
+      done += n;
+      size += n;
+    }
+    return offset;
+  }
+
+  public int getInt( long offset ) {
+    int value = 0;
+    for ( int i = 0; i < 4; i++ ) {
+      value = ( value << 8 ) | ( getByte( offset + i ) & 0xFF );
+    }
+    return value;
+  }
+
+  /**
+   * Copies stored bytes to an array.
+   */
+  public void get( long offset, byte[] bytes, int length ) {
+    int done = 0;
+    while ( done < length ) {
+      ByteBuffer page = pages[ (int) ( offset >>> PAGE_BITS ) ];
+      int position = (int) ( offset & PAGE_MASK );
+      int n = Math.min( length - done, PAGE_SIZE - position );
+      page.get( position, bytes, done, n );
+      done += n;
+      offset += n;
+    }
+  }
+
+  /**
+   * Compares stored bytes with the start of an array without copying them.
+   *
+   * @return true if the length bytes at the offset are the same as the first length bytes of the array
+   */
+  public boolean equalTo( long offset, byte[] bytes, int length ) {
+    int done = 0;
+    while ( done < length ) {
+      ByteBuffer page = pages[ (int) ( offset >>> PAGE_BITS ) ];
+      int position = (int) ( offset & PAGE_MASK );
+      int n = Math.min( length - done, PAGE_SIZE - position );
+      for ( int i = 0; i < n; i++ ) {
+        if ( page.get( position + i ) != bytes[ done + i ] ) {
+          return false;
+        }
+      }
+      done += n;
+      offset += n;
+    }
+    return true;
+  }
+
+  private byte getByte( long offset ) {
+    return pages[ (int) ( offset >>> PAGE_BITS ) ].get( (int) ( offset & PAGE_MASK ) );
+  }
+
+  private void putByte( long offset, byte b ) {
+    pages[ (int) ( offset >>> PAGE_BITS ) ].put( (int) ( offset & PAGE_MASK ), b );
+  }
+
+  private void ensureCapacity( long capacity ) throws IOException {
+    while ( getAllocatedSize() < capacity ) {
+      if ( nrPages == pages.length ) {
+        pages = Arrays.copyOf( pages, nrPages * 2 );
+      }
+      pages[ nrPages ] = allocatePage( nrPages );
+      nrPages++;
+    }
+  }
+
+  private ByteBuffer allocatePage( int page ) throws IOException {
+    switch ( type ) {
+      case DIRECT:
+        return ByteBuffer.allocateDirect( PAGE_SIZE );
+      case MAPPED:
+        if ( randomAccessFile == null ) {
+          file = File.createTempFile( "kettle-bytestore", ".tmp", directory );
+          randomAccessFile = new RandomAccessFile( file, "rw" );
+        }
+        return randomAccessFile.getChannel().map( FileChannel.MapMode.READ_WRITE, (long) page * PAGE_SIZE, PAGE_SIZE );
+      default:
+        return ByteBuffer.allocate( PAGE_SIZE );
+    }
+  }
+
+  /**
+   * Releases the pages. Direct and mapped memory is given back to the operating system once the pages are garbage
+   * collected. The temporary file of a mapped store is deleted right away, it isn't registered with
+   * {@link File#deleteOnExit()} as that list only grows for the lifetime of the JVM.
+   */
+  @Override
+  public void close() throws IOException {
+    pages = new ByteBuffer[ 0 ];
+    nrPages = 0;
+    size = 0;
+    if ( randomAccessFile != null ) {
+      randomAccessFile.close();
+      randomAccessFile = null;
+      file.delete();
+      file = null;
+    }
+  }
+}
@@ -0,0 +1,267 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.hash;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+
+import org.pentaho.di.core.exception.KettleValueException;
+import org.pentaho.di.core.row.RowKeyEncoder;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+
+/**
+ * A hash index from key rows to value rows that keeps the serialized keys and values in a {@link ByteStore} and
+ * only a couple of primitive arrays on the heap: an open addressing (linear probing) table with the offsets of the
+ * entries and either the hash codes of the keys or, for a single integer key, the keys themselves.<br>
+ * <br>
+ * Keys are serialized with a {@link RowKeyEncoder} so two keys are the same when they compare as equal, like they do
+ * in a map of {@link org.pentaho.di.core.RowMetaAndData} keys. Looking up a key doesn't allocate anything unless it's
+ * found and the value row is rebuilt. Putting a key that is already in the index replaces the value.
+ */
+public class CompactHashIndex implements Closeable {
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private final RowMetaInterface keyMeta;
+  private final RowMetaInterface valueMeta;
+  private final RowKeyEncoder keyEncoder;
+  private final boolean integerKey;
+  private final ByteStore store;
+
+  /** The offset of each entry in the store plus one, 0 for an empty slot */
+  private long[] offsets;
+  /** The hash codes of the keys, or the keys themselves for an integer key */
+  private int[] hashes;
+  private long[] integerKeys;
+  /** The entry of the null key for an integer key */
+  private long nullKeyOffset;
+
+  private int size;
+
+  /**
+   * @param keyMeta   the metadata of the keys, see {@link #canIndex(RowMetaInterface)}
+   * @param valueMeta the metadata of the values
+   * @param type      where to keep the keys and values
+   */
+  public CompactHashIndex( RowMetaInterface keyMeta, RowMetaInterface valueMeta, ByteStore.Type type ) {
+    this( keyMeta, valueMeta, type, null );
+  }
+
+  /**
+   * @param keyMeta   the metadata of the keys, see {@link #canIndex(RowMetaInterface)}
+   * @param valueMeta the metadata of the values
+   * @param type      where to keep the keys and values
+   * @param directory the directory for the temporary file of a mapped index, null for the default temporary directory
+   */
+  public CompactHashIndex( RowMetaInterface keyMeta, RowMetaInterface valueMeta, ByteStore.Type type,
+    File directory ) {
+    this.keyMeta = keyMeta;
+    this.valueMeta = valueMeta;
+    this.store = new ByteStore( type, directory );
+    this.keyEncoder = RowKeyEncoder.create( keyMeta, allFields( keyMeta ) );
+    if ( keyEncoder == null ) {
+      throw new IllegalArgumentException( "The keys can't be serialized for a compact hash index" );
+    }
+    this.integerKey = keyMeta.size() == 1 && keyMeta.getValueMeta( 0 ).getType() == ValueMetaInterface.TYPE_INTEGER;
+    allocate( INITIAL_CAPACITY );
+  }
+
+  /**
+   * @return true if keys with this metadata can be used in a compact hash index
+   */
+  public static boolean canIndex( RowMetaInterface keyMeta ) {
+    return RowKeyEncoder.create( keyMeta, allFields( keyMeta ) ) != null;
+  }
+
+  private static int[] allFields( RowMetaInterface rowMeta ) {
+    int[] fields = new int[ rowMeta.size() ];
+    for ( int i = 0; i < fields.length; i++ ) {
+      fields[ i ] = i;
+    }
+    return fields;
+  }
+
+  private void allocate( int capacity ) {
+    offsets = new long[ capacity ];
+    if ( integerKey ) {
+      integerKeys = new long[ capacity ];
+    } else {
+      hashes = new int[ capacity ];
+    }
+  }
+
+  private static int mix( long key ) {
+    key ^= key >>> 33;
+    key *= 0xFF51AFD7ED558CCDL;
+    key ^= key >>> 33;
+    return (int) key;
+  }
+
+  private static int hash( byte[] bytes, int length ) {
+    int h = 1;
+    for ( int i = 0; i < length; i++ ) {
+      h = 31 * h + bytes[ i ];
+    }
+    return mix( h );
+  }
+
+  public void put( Object[] keyData, Object[] valueData ) throws KettleValueException {
+    byte[] value = RowMeta.extractData( valueMeta, valueData );
+    try {
+      if ( integerKey ) {
+        ValueMetaInterface integerMeta = keyMeta.getValueMeta( 0 );
+        if ( integerMeta.isNull( keyData[ 0 ] ) ) {
+          if ( nullKeyOffset == 0 ) {
+            size++;
+          }
+          nullKeyOffset = appendValue( value ) + 1;
+          return;
+        }
+        long key = integerMeta.getInteger( keyData[ 0 ] );
+        int slot = findIntegerSlot( key );
+        if ( offsets[ slot ] == 0 ) {
+          integerKeys[ slot ] = key;
+          size++;
+        }
+        offsets[ slot ] = appendValue( value ) + 1;
+      } else {
+        int length = keyEncoder.encodeToBuffer( keyData );
+        byte[] key = keyEncoder.getBuffer();
+        int hash = hash( key, length );
+        int slot = findSlot( key, length, hash );
+        if ( offsets[ slot ] == 0 ) {
+          hashes[ slot ] = hash;
+          size++;
+        }
+        long offset = store.appendInt( length );
+        store.append( key, length );
+        appendValue( value );
+        offsets[ slot ] = offset + 1;
+      }
+    } catch ( IOException e ) {
+      throw new KettleValueException( "Unable to store a value in the compact hash index", e );
+    }
+    if ( size * 2 > offsets.length ) {
+      grow();
+    }
+  }
+
+  private long appendValue( byte[] value ) throws IOException {
+    long offset = store.appendInt( value.length );
+    store.append( value, value.length );
+    return offset;
+  }
+
+  /**
+   * @return the value row of the key or null if the key isn't in the index
+   */
+  public Object[] get( Object[] keyData ) throws KettleValueException {
+    long valueOffset;
+    if ( integerKey ) {
+      ValueMetaInterface integerMeta = keyMeta.getValueMeta( 0 );
+      if ( integerMeta.isNull( keyData[ 0 ] ) ) {
+        valueOffset = nullKeyOffset - 1;
+      } else {
+        valueOffset = offsets[ findIntegerSlot( integerMeta.getInteger( keyData[ 0 ] ) ) ] - 1;
+      }
+    } else {
+      int length = keyEncoder.encodeToBuffer( keyData );
+      byte[] key = keyEncoder.getBuffer();
+      long entry = offsets[ findSlot( key, length, hash( key, length ) ) ] - 1;
+      valueOffset = entry < 0 ? -1 : entry + 4 + length;
+    }
+    if ( valueOffset < 0 ) {
+      return null;
+    }
+    byte[] value = new byte[ store.getInt( valueOffset ) ];
+    store.get( valueOffset + 4, value, value.length );
+    return RowMeta.getRow( valueMeta, value );
+  }
+
+  private int findIntegerSlot( long key ) {
+    int mask = offsets.length - 1;
+    int slot = mix( key ) & mask;
+    while ( offsets[ slot ] != 0 && integerKeys[ slot ] != key ) {
+      slot = ( slot + 1 ) & mask;
+    }
+    return slot;
+  }
+
+  private int findSlot( byte[] key, int length, int hash ) {
+    int mask = offsets.length - 1;
+    int slot = hash & mask;
+    while ( offsets[ slot ] != 0 ) {
+      if ( hashes[ slot ] == hash ) {
+        long offset = offsets[ slot ] - 1;
+        if ( store.getInt( offset ) == length && store.equalTo( offset + 4, key, length ) ) {
+          break;
+        }
+      }
+      slot = ( slot + 1 ) & mask;
+    }
+    return slot;
+  }
+
+  private void grow() {
+    long[] oldOffsets = offsets;
+    int[] oldHashes = hashes;
+    long[] oldIntegerKeys = integerKeys;
+    allocate( oldOffsets.length * 2 );
+    int mask = offsets.length - 1;
+    for ( int i = 0; i < oldOffsets.length; i++ ) {
+      if ( oldOffsets[ i ] == 0 ) {
+        continue;
+      }
+      int slot = integerKey ? mix( oldIntegerKeys[ i ] ) & mask : oldHashes[ i ] & mask;
+      while ( offsets[ slot ] != 0 ) {
+        slot = ( slot + 1 ) & mask;
+      }
+      offsets[ slot ] = oldOffsets[ i ];
+      if ( integerKey ) {
+        integerKeys[ slot ] = oldIntegerKeys[ i ];
+      } else {
+        hashes[ slot ] = oldHashes[ i ];
+      }
+    }
+  }
+
+  /**
+   * @return the number of keys in the index
+   */
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * @return the number of bytes used by the index on the heap or off-heap, including the unused part of the pages
+   */
+  public long getMemoryUsage() {
+    long table = (long) offsets.length * ( Long.BYTES + ( integerKey ? Long.BYTES : Integer.BYTES ) );
+    return table + store.getAllocatedSize();
+  }
+
+  public ByteStore.Type getStoreType() {
+    return store.getType();
+  }
+
+  @Override
+  public void close() throws IOException {
+    store.close();
+    allocate( 1 );
+    nullKeyOffset = 0;
+    size = 0;
+  }
+}
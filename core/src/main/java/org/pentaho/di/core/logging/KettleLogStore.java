@@ -235,10 +235,10 @@ public class KettleLogStore {
     // Remove all the rows for these ids
     LoggingBuffer bufferAppender = getInstance().appender;
 
-    for ( String id : ids ) {
-      // Remove it from the central log buffer
-      bufferAppender.removeChannelFromBuffer( id );
+    // Remove them from the central log buffer in one go
+    bufferAppender.removeChannelsFromBuffer( ids );
 
+    for ( String id : ids ) {
       // Also remove the item from the registry.
       metricsRegistry.getSnapshotLists().remove( id );
       metricsRegistry.getSnapshotMaps().remove( id );
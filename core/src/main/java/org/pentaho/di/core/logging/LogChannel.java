@@ -53,6 +53,8 @@ public class LogChannel implements LogChannelInterface {
 
   private LogChannelFileWriterBuffer fileWriter;
 
+  private int fileWriterVersion = -1;
+
   public LogChannel() {
     this( DEFAULT_LOG_SUBJECT );
   }
@@ -129,7 +131,13 @@ public class LogChannel implements LogChannelInterface {
     KettleLogStore.getAppender().addLogggingEvent( loggingEvent );
 
     if ( this.fileWriter == null ) {
-      this.fileWriter = LoggingRegistry.getInstance().getLogChannelFileWriterBuffer( logChannelId );
+      // Only look for a buffer again when the registered buffers changed
+      LoggingRegistry registry = LoggingRegistry.getInstance();
+      int version = registry.getLogChannelFileWriterBuffersVersion();
+      if ( version != fileWriterVersion ) {
+        this.fileWriter = registry.getLogChannelFileWriterBuffer( logChannelId );
+        fileWriterVersion = version;
+      }
     }
 
     // add to buffer
@@ -150,67 +158,93 @@ public class LogChannel implements LogChannelInterface {
 
   @Override
   public void logMinimal( String s ) {
-    println( new LogMessage( s, logChannelId, LogLevel.MINIMAL ), logLevel );
+    if ( LogLevel.MINIMAL.isVisible( logLevel ) ) {
+      println( new LogMessage( s, logChannelId, LogLevel.MINIMAL ), logLevel );
+    }
   }
 
   @Override
   public void logBasic( String s ) {
-    println( new LogMessage( s, logChannelId, LogLevel.BASIC ), logLevel );
+    if ( LogLevel.BASIC.isVisible( logLevel ) ) {
+      println( new LogMessage( s, logChannelId, LogLevel.BASIC ), logLevel );
+    }
   }
 
   @Override
   public void logError( String s ) {
-    println( new LogMessage( s, logChannelId, LogLevel.ERROR ), logLevel );
+    if ( LogLevel.ERROR.isVisible( logLevel ) ) {
+      println( new LogMessage( s, logChannelId, LogLevel.ERROR ), logLevel );
+    }
   }
 
   @Override
   public void logError( String s, Throwable e ) {
-    println( new LogMessage( s, logChannelId, LogLevel.ERROR ), e, logLevel );
+    if ( LogLevel.ERROR.isVisible( logLevel ) ) {
+      println( new LogMessage( s, logChannelId, LogLevel.ERROR ), e, logLevel );
+    }
   }
 
   @Override
   public void logBasic( String s, Object... arguments ) {
-    println( new LogMessage( s, logChannelId, arguments, LogLevel.BASIC ), logLevel );
+    if ( LogLevel.BASIC.isVisible( logLevel ) ) {
+      println( new LogMessage( s, logChannelId, arguments, LogLevel.BASIC ), logLevel );
+    }
   }
 
   @Override
   public void logDetailed( String s, Object... arguments ) {
-    println( new LogMessage( s, logChannelId, arguments, LogLevel.DETAILED ), logLevel );
+    if ( LogLevel.DETAILED.isVisible( logLevel ) ) {
+      println( new LogMessage( s, logChannelId, arguments, LogLevel.DETAILED ), logLevel );
+    }
   }
 
   @Override
   public void logError( String s, Object... arguments ) {
-    println( new LogMessage( s, logChannelId, arguments, LogLevel.ERROR ), logLevel );
+    if ( LogLevel.ERROR.isVisible( logLevel ) ) {
+      println( new LogMessage( s, logChannelId, arguments, LogLevel.ERROR ), logLevel );
+    }
   }
 
   @Override
   public void logDetailed( String s ) {
-    println( new LogMessage( s, logChannelId, LogLevel.DETAILED ), logLevel );
+    if ( LogLevel.DETAILED.isVisible( logLevel ) ) {
+      println( new LogMessage( s, logChannelId, LogLevel.DETAILED ), logLevel );
+    }
   }
 
   @Override
   public void logDebug( String s ) {
-    println( new LogMessage( s, logChannelId, LogLevel.DEBUG ), logLevel );
+    if ( LogLevel.DEBUG.isVisible( logLevel ) ) {
+      println( new LogMessage( s, logChannelId, LogLevel.DEBUG ), logLevel );
+    }
   }
 
   @Override
   public void logDebug( String message, Object... arguments ) {
-    println( new LogMessage( message, logChannelId, arguments, LogLevel.DEBUG ), logLevel );
+    if ( LogLevel.DEBUG.isVisible( logLevel ) ) {
+      println( new LogMessage( message, logChannelId, arguments, LogLevel.DEBUG ), logLevel );
+    }
   }
 
   @Override
   public void logRowlevel( String s ) {
-    println( new LogMessage( s, logChannelId, LogLevel.ROWLEVEL ), logLevel );
+    if ( LogLevel.ROWLEVEL.isVisible( logLevel ) ) {
+      println( new LogMessage( s, logChannelId, LogLevel.ROWLEVEL ), logLevel );
+    }
   }
 
   @Override
   public void logMinimal( String message, Object... arguments ) {
-    println( new LogMessage( message, logChannelId, arguments, LogLevel.MINIMAL ), logLevel );
+    if ( LogLevel.MINIMAL.isVisible( logLevel ) ) {
+      println( new LogMessage( message, logChannelId, arguments, LogLevel.MINIMAL ), logLevel );
+    }
   }
 
   @Override
   public void logRowlevel( String message, Object... arguments ) {
-    println( new LogMessage( message, logChannelId, arguments, LogLevel.ROWLEVEL ), logLevel );
+    if ( LogLevel.ROWLEVEL.isVisible( logLevel ) ) {
+      println( new LogMessage( message, logChannelId, arguments, LogLevel.ROWLEVEL ), logLevel );
+    }
   }
 
   @Override
@@ -18,10 +18,13 @@ import org.apache.commons.lang3.mutable.MutableInt;
 import org.pentaho.di.core.Const;
 import org.pentaho.di.core.util.Utils;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -111,10 +114,12 @@ public class LoggingBuffer {
 
     Stream<BufferLine> bufferStream = buffer.subMap( from, true, to, true ).values().stream();
     if ( !Utils.isEmpty( channelId ) ) {
+      // A large transformation or job has a lot of channels, don't search the list for every line
+      Set<String> channelIds = new HashSet<>( channelId );
       bufferStream = bufferStream.filter( line -> {
         String logChannelId = getLogChId( line );
-        return includeGeneral ? isGeneral( logChannelId ) || channelId.contains( logChannelId )
-          : channelId.contains( logChannelId );
+        return includeGeneral ? channelIds.contains( logChannelId ) || isGeneral( logChannelId )
+          : channelIds.contains( logChannelId );
       } );
     }
 
@@ -212,8 +217,9 @@ public class LoggingBuffer {
     if ( event.getMessage() instanceof LogMessage ) {
       BufferLine bufferLine = new BufferLine( event );
       buffer.put( bufferLine.getNr(), bufferLine );
+      // Other threads can be removing lines as well, unlike firstKey() polling doesn't fail on an empty buffer
       while ( bufferSize > 0 && buffer.size() > bufferSize ) {
-        buffer.remove( buffer.firstKey() );
+        buffer.pollFirstEntry();
       }
     }
   }
@@ -269,14 +275,22 @@ public class LoggingBuffer {
    * @param id the id of the logging channel to remove
    */
   public void removeChannelFromBuffer( String id ) {
-    buffer.values().stream().filter( line -> id.equals( getLogChId( line ) ) ).forEach( line -> buffer.remove( line.getNr() ) );
-    tailMap.remove( id );
+    removeChannelsFromBuffer( Collections.singleton( id ) );
+  }
 
-/*    for ( BufferLine line : buffer.values() ) {
-      if ( id.equals( getLogChId( line ) ) ) {
-        buffer.remove( line.getNr() );
-      }
-    }*/
+  /**
+   * Removes all rows for the channels with the specified ids. This only goes over the buffer once, no matter how many
+   * channels are removed.
+   *
+   * @param ids the ids of the logging channels to remove
+   */
+  public void removeChannelsFromBuffer( Collection<String> ids ) {
+    if ( ids.isEmpty() ) {
+      return;
+    }
+    Set<String> channelIds = ids instanceof Set ? (Set<String>) ids : new HashSet<>( ids );
+    buffer.values().removeIf( line -> channelIds.contains( getLogChId( line ) ) );
+    channelIds.forEach( tailMap::remove );
   }
 
   public int size() {
@@ -18,6 +18,7 @@ import org.pentaho.di.core.Const;
 import org.pentaho.di.core.util.EnvUtil;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Enumeration;
@@ -31,7 +32,9 @@ import java.util.TimerTask;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This class keeps track of all LoggingObjects that implement the LoggingObjectInterface which register with the
@@ -39,6 +42,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * have FileWriter Buffers.
  *
  * The class provides a central and thread safe place to register, remove and find LoggingObjects held in memory.
+ * Registering and looking up objects doesn't lock, only the purge and removal of objects are serialized.
  *
  * It uses a purgeTimer task to attempt to remove older registry objects as the internal map reaches the maxSize which
  * is defined by the Kettle Property "KETTLE_MAX_LOGGING_REGISTRY_SIZE".
@@ -50,6 +54,15 @@ public class LoggingRegistry {
   /** Registry's LoggingObject Map containing objects keyed by object's LogChannelID **/
   private Map<String, LoggingObjectInterface> map;
 
+  /** The same LoggingObjects grouped by container object id, objects can only be equal within the same container **/
+  private Map<String, Map<String, LoggingObjectInterface>> containerMap;
+
+  /** The number of objects in the containerMap, used to detect changes made to the map directly **/
+  private final AtomicInteger containerMapSize = new AtomicInteger();
+
+  /** Changes each time the FileWriterBuffers change so that log channels can cache their lookup of a buffer **/
+  private final AtomicInteger fileWriterBuffersVersion = new AtomicInteger();
+
   /** Registry's FileWriterBuffer Map containing objects keyed by object's LogChannelID **/
   private Map<String, LogChannelFileWriterBuffer> fileWriterBuffers;
 
@@ -60,7 +73,7 @@ public class LoggingRegistry {
   private Queue<LoggingObjectInterface> registerPurgeQueue;
 
   /** Last time a Logging object was registered to the Registry **/
-  private Date lastModificationTime;
+  private volatile Date lastModificationTime;
 
   /** Max Size of the Registry that it shall purge based on. Note: This is not a strict/hard limit, the Map object can
    * grow above this number and will it attempt to "purge" below it. **/
@@ -84,6 +97,7 @@ public class LoggingRegistry {
 
   private LoggingRegistry() {
     this.map = new ConcurrentHashMap<>();
+    this.containerMap = new ConcurrentHashMap<>();
     this.childrenMap = new ConcurrentHashMap<>();
     this.fileWriterBuffers = new ConcurrentHashMap<>();
     this.registerPurgeQueue = new ConcurrentLinkedQueue<>();
@@ -130,34 +144,35 @@ public class LoggingRegistry {
       }
     }
 
-    // Existing not found attempt to register the logging Source.
-    synchronized ( this.syncObject ) {
+    // Existing not found, register the logging Source. The channel ID is unique so this doesn't need a lock.
+    String logChannelId = UUID.randomUUID().toString();
+    loggingSource.setLogChannelId( logChannelId );
 
-      String logChannelId = UUID.randomUUID().toString();
-      loggingSource.setLogChannelId( logChannelId );
+    Date registrationDate = new Date();
+    loggingSource.setRegistrationDate( registrationDate );
 
-      this.map.put( logChannelId, loggingSource );
+    // Add it to the container map first, the map should never hold more objects than the container map.
+    addToContainerMap( logChannelId, loggingSource );
+    this.map.put( logChannelId, loggingSource );
 
-      // If this is a child to something ensure it gets added to the Parents list of children.
-      if ( loggingSource.getParent() != null ) {
-        String parentLogChannelId = loggingSource.getParent().getLogChannelId();
-        if ( parentLogChannelId != null ) {
-          List<String> parentChildren =
-            this.childrenMap.computeIfAbsent( parentLogChannelId, k -> new ArrayList<>() );
-          parentChildren.add( logChannelId );
-        }
+    // If this is a child to something ensure it gets added to the Parents list of children.
+    if ( loggingSource.getParent() != null ) {
+      String parentLogChannelId = loggingSource.getParent().getLogChannelId();
+      if ( parentLogChannelId != null ) {
+        List<String> parentChildren =
+          this.childrenMap.computeIfAbsent( parentLogChannelId, k -> new CopyOnWriteArrayList<>() );
+        parentChildren.add( logChannelId );
       }
+    }
 
-      this.lastModificationTime = new Date();
-      loggingSource.setRegistrationDate( this.lastModificationTime );
+    this.lastModificationTime = registrationDate;
 
-      // If purgeable add it the PurgeQueue which will clean up the registry over time.
-      if ( isPurgeable ) {
-        this.registerPurgeQueue.add( loggingSource );
-      }
-
-      return logChannelId;
+    // If purgeable add it the PurgeQueue which will clean up the registry over time.
+    if ( isPurgeable ) {
+      this.registerPurgeQueue.add( loggingSource );
     }
+
+    return logChannelId;
   }
 
   /**
@@ -166,14 +181,71 @@ public class LoggingRegistry {
    * @return  the LoggingObjectInterface if found, null otherwise.
    */
   public LoggingObjectInterface findExistingLoggingSource( LoggingObjectInterface loggingObject ) {
-    LoggingObjectInterface found = null;
-    for ( LoggingObjectInterface verify : this.map.values() ) {
+    Collection<LoggingObjectInterface> candidates;
+    if ( loggingObject instanceof LoggingObject ) {
+      if ( this.map.size() > this.containerMapSize.get() ) {
+        // Objects were added through the (deprecated) map directly
+        rebuildContainerMap();
+      }
+      // Logging objects from different containers are never equal
+      Map<String, LoggingObjectInterface> container =
+        this.containerMap.get( getContainerKey( loggingObject.getContainerObjectId() ) );
+      if ( container == null ) {
+        return null;
+      }
+      candidates = container.values();
+    } else {
+      candidates = this.map.values();
+    }
+
+    for ( LoggingObjectInterface verify : candidates ) {
       if ( loggingObject.equals( verify ) ) {
-        found = verify;
-        break;
+        return verify;
+      }
+    }
+    return null;
+  }
+
+  private static String getContainerKey( String containerObjectId ) {
+    return containerObjectId == null ? "" : containerObjectId;
+  }
+
+  private void addToContainerMap( String logChannelId, LoggingObjectInterface loggingObject ) {
+    Map<String, LoggingObjectInterface> container = this.containerMap.computeIfAbsent(
+      getContainerKey( loggingObject.getContainerObjectId() ), k -> new ConcurrentHashMap<>() );
+    if ( container.put( logChannelId, loggingObject ) == null ) {
+      this.containerMapSize.incrementAndGet();
+    }
+  }
+
+  /**
+   * Removes a LoggingObject from the registry's maps, not from the children map or the purge queue.
+   * @param logChannelId  LogChannelID of the object to remove.
+   * @return  the removed object or null if it wasn't registered.
+   */
+  private LoggingObjectInterface removeLoggingObject( String logChannelId ) {
+    LoggingObjectInterface loggingObject = this.map.remove( logChannelId );
+    if ( loggingObject != null ) {
+      String containerKey = getContainerKey( loggingObject.getContainerObjectId() );
+      Map<String, LoggingObjectInterface> container = this.containerMap.get( containerKey );
+      if ( container != null && container.remove( logChannelId ) != null ) {
+        this.containerMapSize.decrementAndGet();
+        if ( container.isEmpty() ) {
+          this.containerMap.remove( containerKey, container );
+        }
+      }
+    }
+    return loggingObject;
+  }
+
+  private void rebuildContainerMap() {
+    synchronized ( this.syncObject ) {
+      if ( this.map.size() > this.containerMapSize.get() ) {
+        this.containerMap.clear();
+        this.containerMapSize.set( 0 );
+        this.map.forEach( this::addToContainerMap );
       }
     }
-    return found;
   }
 
   /**
@@ -263,20 +335,18 @@ public class LoggingRegistry {
    * @return  returns a populated list of children's LogChannelID's.
    */
   private List<String> getLogChannelChildren( List<String> children, String parentLogChannelId ) {
-    synchronized ( this.syncObject ) {
-      List<String> list = this.childrenMap.get( parentLogChannelId );
-      if ( list == null ) {
-        // Don't do anything, just return the input.
-        return children;
-      }
+    List<String> list = this.childrenMap.get( parentLogChannelId );
+    if ( list == null ) {
+      // Don't do anything, just return the input.
+      return children;
+    }
 
-      for ( String logChannelId : list ) {
-        // Add the children recursively
-        getLogChannelChildren( children, logChannelId );
+    for ( String logChannelId : list ) {
+      // Add the children recursively
+      getLogChannelChildren( children, logChannelId );
 
-        // Also add the current parent
-        children.add( logChannelId );
-      }
+      // Also add the current parent
+      children.add( logChannelId );
     }
 
     return children;
@@ -325,16 +395,25 @@ public class LoggingRegistry {
   public void removeIncludingChildren( String logChannelId ) {
     synchronized ( this.syncObject ) {
       // Collect all Log Channel IDs that are descendants of the given one
-      List<String> children = getLogChannelChildren( logChannelId );
+      Set<String> children = new HashSet<>( getLogChannelChildren( logChannelId ) );
+
+      // Remove from the Registry's Map, unlink the object from its parent
+      LoggingObjectInterface loggingObject = removeLoggingObject( logChannelId );
+      if ( loggingObject != null && loggingObject.getParent() != null ) {
+        List<String> siblings = this.childrenMap.get( loggingObject.getParent().getLogChannelId() );
+        if ( siblings != null ) {
+          siblings.remove( logChannelId );
+        }
+      }
+      children.forEach( this::removeLoggingObject );
 
-      // Remove from the Registry's Map
-      children.forEach( s -> this.map.remove( s ) );
+      // Remove from the Registry Children's Map, only the removed hierarchy needs to be looked at
+      children.forEach( this.childrenMap::remove );
 
       // Remove from the Registry's PurgeQueue
-      this.registerPurgeQueue.removeIf( loi -> children.contains( loi.getLogChannelId() ) );
-
-      // Remove from the Registry Children's Map - well, technically this removes ALL orphans :-)
-      removeOrphans();
+      if ( !this.registerPurgeQueue.isEmpty() ) {
+        this.registerPurgeQueue.removeIf( loi -> children.contains( loi.getLogChannelId() ) );
+      }
     }
   }
 
@@ -353,9 +432,17 @@ public class LoggingRegistry {
    * @param fileWriterBuffer  Object to register.
    */
   public void registerLogChannelFileWriterBuffer( LogChannelFileWriterBuffer fileWriterBuffer ) {
-    synchronized ( this.syncObject ) {
-      this.fileWriterBuffers.put( fileWriterBuffer.getLogChannelId(), fileWriterBuffer );
-    }
+    this.fileWriterBuffers.put( fileWriterBuffer.getLogChannelId(), fileWriterBuffer );
+    this.fileWriterBuffersVersion.incrementAndGet();
+  }
+
+  /**
+   * The result of {@link #getLogChannelFileWriterBuffer(String)} for a registered log channel can only change when
+   * this version changes. This allows a log channel without a buffer to skip the lookup for every line it logs.
+   * @return  a number that changes each time a LogChannelFileWriterBuffer is registered or removed.
+   */
+  public int getLogChannelFileWriterBuffersVersion() {
+    return this.fileWriterBuffersVersion.get();
   }
 
   /**
@@ -364,24 +451,22 @@ public class LoggingRegistry {
    * @return  Buffer Object, null if can't be determined.
    */
   public LogChannelFileWriterBuffer getLogChannelFileWriterBuffer( String id ) {
-    synchronized ( syncObject ) {
-      LogChannelFileWriterBuffer fileWriterBuffer = this.fileWriterBuffers.get( id );
-      if ( fileWriterBuffer != null ) {
-        return fileWriterBuffer;
-      }
+    LogChannelFileWriterBuffer fileWriterBuffer = this.fileWriterBuffers.get( id );
+    if ( fileWriterBuffer != null || this.fileWriterBuffers.isEmpty() ) {
+      return fileWriterBuffer;
+    }
 
-      ConcurrentHashMap<LogChannelFileWriterBuffer, List<String>> possibleWriters = new ConcurrentHashMap<>();
+    ConcurrentHashMap<LogChannelFileWriterBuffer, List<String>> possibleWriters = new ConcurrentHashMap<>();
 
-      for ( Map.Entry<String, LogChannelFileWriterBuffer> entry : this.fileWriterBuffers.entrySet() ) {
-        final String bufferId = entry.getKey();
-        List<String> logChannelChildren = getLogChannelChildren( bufferId );
-        if ( logChannelChildren.contains( id ) ) {
-          possibleWriters.put( entry.getValue(), logChannelChildren );
-        }
+    for ( Map.Entry<String, LogChannelFileWriterBuffer> entry : this.fileWriterBuffers.entrySet() ) {
+      final String bufferId = entry.getKey();
+      List<String> logChannelChildren = getLogChannelChildren( bufferId );
+      if ( logChannelChildren.contains( id ) ) {
+        possibleWriters.put( entry.getValue(), logChannelChildren );
       }
-
-      return determineLogChannelFileWriterBuffer( possibleWriters );
     }
+
+    return determineLogChannelFileWriterBuffer( possibleWriters );
   }
 
   /**
@@ -441,10 +526,9 @@ public class LoggingRegistry {
    */
   public void removeLogChannelFileWriterBuffer( String id ) {
     synchronized ( this.syncObject ) {
-      for ( String bufferId : this.fileWriterBuffers.keySet() ) {
-        if ( getLogChannelChildren( id ).contains( bufferId ) ) {
-          this.fileWriterBuffers.remove( bufferId );
-        }
+      Set<String> children = new HashSet<>( getLogChannelChildren( id ) );
+      if ( this.fileWriterBuffers.keySet().removeIf( children::contains ) ) {
+        this.fileWriterBuffersVersion.incrementAndGet();
       }
     }
   }
@@ -455,8 +539,11 @@ public class LoggingRegistry {
   public void reset() {
     synchronized ( this.syncObject ) {
       map.clear();
+      containerMap.clear();
+      containerMapSize.set( 0 );
       childrenMap.clear();
       fileWriterBuffers.clear();
+      fileWriterBuffersVersion.incrementAndGet();
       registerPurgeQueue.clear();
 
       purgeTimerCount = 0;
@@ -547,7 +634,7 @@ public class LoggingRegistry {
       if ( !channelsNotToRemove.contains( objId ) ) {
         // Object is safe to remove, but the counter for purged objects will only be incremented if it is really
         // removed from the map as it's possible for the object to not exist on the map.
-        if ( null != map.remove( objId ) ) {
+        if ( null != removeLoggingObject( objId ) ) {
           purgedObjectCount++;
           result = true;
         }
@@ -713,6 +800,7 @@ public class LoggingRegistry {
   @VisibleForTesting
   void setFileWriterBuffers( Map<String, LogChannelFileWriterBuffer> buffers ) {
     fileWriterBuffers = buffers;
+    fileWriterBuffersVersion.incrementAndGet();
   }
 
   @VisibleForTesting
@@ -124,6 +124,19 @@ public class Metrics implements MetricsInterface {
     MetricsSnapshotType.START, "METRIC_STEP_INIT", "Initialize a step" );
   public static Metrics METRIC_STEP_INIT_STOP = new Metrics(
     MetricsSnapshotType.STOP, "METRIC_STEP_INIT", "Initialize a step" );
+  public static Metrics METRIC_STEP_LOOKUP_INDEX_MEMORY = new Metrics(
+    MetricsSnapshotType.MAX, "METRIC_STEP_LOOKUP_INDEX_MEMORY", "Memory used by a lookup index (bytes)" );
+  public static Metrics METRIC_STEP_BATCH_EXECUTE_TIME = new Metrics(
+    MetricsSnapshotType.SUM, "METRIC_STEP_BATCH_EXECUTE_TIME", "Time consumed executing and committing batches (ms)" );
+  public static Metrics METRIC_STEP_BATCH_EXECUTE_MAX_TIME = new Metrics(
+    MetricsSnapshotType.MAX, "METRIC_STEP_BATCH_EXECUTE_MAX_TIME",
+    "Longest time consumed executing and committing a batch (ms)" );
+  public static Metrics METRIC_STEP_BATCH_EXECUTE_COUNT = new Metrics(
+    MetricsSnapshotType.COUNT, "METRIC_STEP_BATCH_EXECUTE_COUNT", "Number of batches executed" );
+  public static Metrics METRIC_REMOTE_STEP_BYTES_SENT = new Metrics(
+    MetricsSnapshotType.SUM, "METRIC_REMOTE_STEP_BYTES_SENT", "Bytes of framed rows sent to a remote step" );
+  public static Metrics METRIC_REMOTE_STEP_BYTES_RECEIVED = new Metrics(
+    MetricsSnapshotType.SUM, "METRIC_REMOTE_STEP_BYTES_RECEIVED", "Bytes of framed rows received from a remote step" );
 
   // Logging back-end
   //
@@ -0,0 +1,133 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.row;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recycles the row arrays sent over a single hop. The producing step allocates its output rows from the pool of its
+ * output hop, the consuming step hands back the rows it no longer needs, typically because it had to copy them into a
+ * larger array to add fields.
+ * <p>
+ * Only arrays created by this pool are ever recycled: rows that were allocated elsewhere or by the pool of another
+ * hop can be referenced by other steps and are left to the garbage collector. The pool creates a bounded number of
+ * arrays, once that number is reached it hands out plain arrays.
+ * <p>
+ * In debug mode released arrays are cleared and never handed out again. That way a step that still uses a row after
+ * releasing it can be caught with {@link #isReleased(Object[])}.
+ *
+ * @since 11.0
+ */
+public class RowArrayPool {
+
+  private final int capacity;
+  private final boolean debug;
+
+  /** All the arrays created by this pool, arrays don't override equals() and hashCode() so this is by identity */
+  private final Set<Object[]> owned = ConcurrentHashMap.newKeySet();
+
+  /** The released arrays that are currently in the pool (or quarantined in debug mode) */
+  private final Set<Object[]> released = ConcurrentHashMap.newKeySet();
+
+  /** The released arrays per array length */
+  private final Map<Integer, Queue<Object[]>> free = new ConcurrentHashMap<>();
+
+  private final AtomicInteger created = new AtomicInteger();
+  private final LongAdder reused = new LongAdder();
+
+  /**
+   * @param capacity the maximum number of arrays this pool creates and recycles
+   * @param debug    true to quarantine the released arrays instead of recycling them
+   */
+  public RowArrayPool( int capacity, boolean debug ) {
+    this.capacity = capacity;
+    this.debug = debug;
+  }
+
+  /**
+   * Allocates a row array, over allocated just like {@link RowDataUtil#allocateRowData(int)} does.
+   *
+   * @param size the minimum size of the row
+   * @return an empty row array, recycled if possible
+   */
+  public Object[] allocate( int size ) {
+    int length = size + RowDataUtil.OVER_ALLOCATE_SIZE;
+    if ( !debug ) {
+      Queue<Object[]> queue = free.get( length );
+      Object[] row = queue == null ? null : queue.poll();
+      if ( row != null ) {
+        released.remove( row );
+        reused.increment();
+        return row;
+      }
+    }
+
+    Object[] row = new Object[ length ];
+    if ( created.get() < capacity && created.incrementAndGet() <= capacity ) {
+      owned.add( row );
+    }
+    return row;
+  }
+
+  /**
+   * Hands a row back to the pool. The caller guarantees that nothing references the row anymore.
+   *
+   * @param row the row to release
+   * @return true if the row was taken back, false if it wasn't created by this pool
+   * @throws IllegalStateException if the row was already released
+   */
+  public boolean release( Object[] row ) {
+    if ( row == null || !owned.contains( row ) ) {
+      return false;
+    }
+    if ( !released.add( row ) ) {
+      throw new IllegalStateException( "Row array released twice" );
+    }
+
+    // Don't hold on to the values
+    //
+    Arrays.fill( row, null );
+    if ( !debug ) {
+      free.computeIfAbsent( row.length, length -> new ConcurrentLinkedQueue<>() ).offer( row );
+    }
+    return true;
+  }
+
+  /**
+   * @param row a row
+   * @return true if the row was released and not handed out again since. In debug mode released rows are never
+   *         handed out again.
+   */
+  public boolean isReleased( Object[] row ) {
+    return row != null && released.contains( row );
+  }
+
+  public boolean isDebug() {
+    return debug;
+  }
+
+  /**
+   * @return the number of times a released array was handed out again
+   */
+  public long getReusedCount() {
+    return reused.sum();
+  }
+}
@@ -44,6 +44,19 @@ public class RowDataUtil {
     return new Object[size + OVER_ALLOCATE_SIZE];
   }
 
+  /**
+   * Allocate a new Object array, recycled from a pool if possible.
+   *
+   * @param size
+   *          the minimum size to allocate.
+   * @param pool
+   *          the pool to take the array from, can be null
+   * @return the newly allocated object array
+   */
+  public static Object[] allocateRowData( int size, RowArrayPool pool ) {
+    return pool == null ? allocateRowData( size ) : pool.allocate( size );
+  }
+
   /**
    * Resize an object array making it bigger, over allocate, return the original array if there's enough room.
    *
@@ -64,6 +77,28 @@ public class RowDataUtil {
     return newObjects;
   }
 
+  /**
+   * Resize an object array making it bigger, taking the new array from a pool. The original array is returned if
+   * there's enough room. Otherwise it is up to the caller to release the original array if it is no longer used.
+   *
+   * @param objects
+   * @param newSize
+   * @param pool
+   *          the pool to take a new array from, can be null
+   * @return A new object array, resized.
+   */
+  public static Object[] resizeArray( Object[] objects, int newSize, RowArrayPool pool ) {
+    if ( pool == null || ( objects != null && objects.length >= newSize ) ) {
+      return resizeArray( objects, newSize );
+    }
+
+    Object[] newObjects = pool.allocate( newSize );
+    if ( objects != null ) {
+      System.arraycopy( objects, 0, newObjects, 0, objects.length );
+    }
+    return newObjects;
+  }
+
   /**
    * Resize an object array making it bigger, over allocate, always create a copy of the original array, even if there's
    * enough room in the old one.
@@ -193,4 +228,34 @@ public class RowDataUtil {
 
     return data;
   }
+
+  /**
+   * Remove a number of items in a row of data, taking the new row from a pool. The result is over allocated, it is up
+   * to the caller to release the original row if it is no longer used.
+   *
+   * @param rowData
+   *          the row of data to remove from
+   * @param index
+   *          the sorted indexes of the items to remove.
+   * @param pool
+   *          the pool to take the new row from, can be null
+   */
+  public static Object[] removeItems( Object[] rowData, int[] index, RowArrayPool pool ) {
+    if ( pool == null ) {
+      return removeItems( rowData, index );
+    }
+    Object[] data = pool.allocate( rowData.length - index.length );
+
+    int count = 0;
+    int removenr = 0;
+    for ( int i = 0; i < rowData.length; i++ ) {
+      if ( removenr < index.length && i == index[removenr] ) {
+        removenr++;
+      } else {
+        data[count++] = rowData[i];
+      }
+    }
+
+    return data;
+  }
 }
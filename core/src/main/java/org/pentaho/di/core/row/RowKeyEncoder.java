@@ -0,0 +1,210 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.row;
+
+import java.text.Collator;
+import java.util.Arrays;
+
+import org.pentaho.di.core.exception.KettleValueException;
+import org.pentaho.di.core.row.value.ValueMetaBase;
+import org.pentaho.di.core.row.value.ValueMetaBoolean;
+import org.pentaho.di.core.row.value.ValueMetaDate;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaNumber;
+import org.pentaho.di.core.row.value.ValueMetaString;
+
+/**
+ * Turns the sort keys of a row into a single byte array so that comparing two arrays as unsigned bytes gives the same
+ * result as {@link RowMetaInterface#compare(Object[], Object[], int[])}. The keys are built once per row which saves
+ * the per field virtual calls, type conversions and collator work when the rows are sorted, and two keys are equal
+ * exactly when the rows compare as equal so they can also be used to group rows.<br>
+ * <br>
+ * Each field starts with a marker byte: 0 for null, 1 for a value. Integers and dates follow as 8 bytes with the sign
+ * bit flipped, numbers as their IEEE 754 bits rearranged the same way and booleans as a single byte. Strings are
+ * written as UTF-16 characters, as case folded code points for case insensitive fields or as the collation key when
+ * the collator is enabled. Zero bytes in a string are escaped as 0x00 0xFF and the string ends with 0x00 0x00 so that
+ * a shorter string sorts before a longer one with the same prefix. For descending fields all the bytes of the field
+ * are inverted.
+ */
+public class RowKeyEncoder {
+  private final ValueMetaInterface[] valueMetas;
+  private final int[] fieldnrs;
+  private final Collator[] collators;
+
+  private byte[] buffer = new byte[ 64 ];
+  private int length;
+
+  private RowKeyEncoder( ValueMetaInterface[] valueMetas, int[] fieldnrs, Collator[] collators ) {
+    this.valueMetas = valueMetas;
+    this.fieldnrs = fieldnrs;
+    this.collators = collators;
+  }
+
+  /**
+   * @param rowMeta  the metadata of the rows to sort
+   * @param fieldnrs the indexes of the sort fields
+   * @return an encoder for the sort keys or null if one of the sort fields can't be encoded
+   */
+  public static RowKeyEncoder create( RowMetaInterface rowMeta, int[] fieldnrs ) {
+    ValueMetaInterface[] valueMetas = new ValueMetaInterface[ fieldnrs.length ];
+    Collator[] collators = new Collator[ fieldnrs.length ];
+    for ( int i = 0; i < fieldnrs.length; i++ ) {
+      ValueMetaInterface valueMeta = rowMeta.getValueMeta( fieldnrs[ i ] );
+      if ( !isSupported( valueMeta ) ) {
+        return null;
+      }
+      if ( valueMeta.getType() == ValueMetaInterface.TYPE_STRING && !valueMeta.isCollatorDisabled() ) {
+        collators[ i ] = ( (ValueMetaBase) valueMeta ).getCollator();
+        if ( collators[ i ] == null ) {
+          return null;
+        }
+      }
+      valueMetas[ i ] = valueMeta;
+    }
+    return new RowKeyEncoder( valueMetas, fieldnrs, collators );
+  }
+
+  /**
+   * Only the standard value types are supported, other classes could override the way values are compared.
+   */
+  private static boolean isSupported( ValueMetaInterface valueMeta ) {
+    Class<?> type = valueMeta.getClass();
+    return ( type == ValueMetaString.class || type == ValueMetaInteger.class || type == ValueMetaNumber.class
+      || type == ValueMetaDate.class || type == ValueMetaBoolean.class )
+      && valueMeta.isStorageNormal() && ( (ValueMetaBase) valueMeta ).getComparator() == null;
+  }
+
+  /**
+   * Compares two keys as unsigned bytes.
+   */
+  public static int compareKeys( byte[] key1, byte[] key2 ) {
+    return Arrays.compareUnsigned( key1, key2 );
+  }
+
+  /**
+   * Builds the sort key of a row. Not thread safe: the collators and the internal buffer are shared between calls.
+   *
+   * @param row the row
+   * @return the key
+   * @throws KettleValueException in case a value can't be converted to the type of the field
+   */
+  public byte[] encode( Object[] row ) throws KettleValueException {
+    return Arrays.copyOf( buffer, encodeToBuffer( row ) );
+  }
+
+  /**
+   * Builds the sort key of a row in the internal buffer, avoiding the copy {@link #encode(Object[])} makes. The key is
+   * only valid until the next call.
+   *
+   * @param row the row
+   * @return the length of the key, the key itself is in {@link #getBuffer()}
+   * @throws KettleValueException in case a value can't be converted to the type of the field
+   */
+  public int encodeToBuffer( Object[] row ) throws KettleValueException {
+    length = 0;
+    for ( int i = 0; i < fieldnrs.length; i++ ) {
+      ValueMetaInterface valueMeta = valueMetas[ i ];
+      Object value = row[ fieldnrs[ i ] ];
+      int start = length;
+
+      if ( valueMeta.isNull( value ) ) {
+        put( 0 );
+      } else {
+        put( 1 );
+        switch ( valueMeta.getType() ) {
+          case ValueMetaInterface.TYPE_STRING:
+            putString( valueMeta, collators[ i ], valueMeta.getString( value ) );
+            break;
+          case ValueMetaInterface.TYPE_INTEGER:
+            putLong( valueMeta.getInteger( value ) ^ Long.MIN_VALUE );
+            break;
+          case ValueMetaInterface.TYPE_NUMBER:
+            long bits = Double.doubleToLongBits( valueMeta.getNumber( value ) );
+            putLong( bits < 0 ? ~bits : bits ^ Long.MIN_VALUE );
+            break;
+          case ValueMetaInterface.TYPE_DATE:
+            putLong( valueMeta.getDate( value ).getTime() ^ Long.MIN_VALUE );
+            break;
+          default:
+            put( valueMeta.getBoolean( value ) ? 1 : 0 );
+            break;
+        }
+      }
+
+      if ( valueMeta.isSortedDescending() ) {
+        for ( int b = start; b < length; b++ ) {
+          buffer[ b ] = (byte) ~buffer[ b ];
+        }
+      }
+    }
+    return length;
+  }
+
+  /**
+   * @return the buffer holding the last key built by {@link #encodeToBuffer(Object[])}
+   */
+  public byte[] getBuffer() {
+    return buffer;
+  }
+
+  private void putString( ValueMetaInterface valueMeta, Collator collator, String string ) {
+    if ( valueMeta.isIgnoreWhitespace() ) {
+      string = string.trim();
+    }
+    if ( collator != null ) {
+      for ( byte b : collator.getCollationKey( string ).toByteArray() ) {
+        putEscaped( b );
+      }
+    } else if ( valueMeta.isCaseInsensitive() ) {
+      // String.compareToIgnoreCase() folds whole code points, written here as 3 bytes each
+      //
+      for ( int i = 0; i < string.length(); ) {
+        int codePoint = string.codePointAt( i );
+        i += Character.charCount( codePoint );
+        codePoint = Character.toLowerCase( Character.toUpperCase( codePoint ) );
+        putEscaped( (byte) ( codePoint >>> 16 ) );
+        putEscaped( (byte) ( codePoint >>> 8 ) );
+        putEscaped( (byte) codePoint );
+      }
+    } else {
+      for ( int i = 0; i < string.length(); i++ ) {
+        char c = string.charAt( i );
+        putEscaped( (byte) ( c >>> 8 ) );
+        putEscaped( (byte) c );
+      }
+    }
+    put( 0 );
+    put( 0 );
+  }
+
+  private void putEscaped( byte b ) {
+    put( b );
+    if ( b == 0 ) {
+      put( 0xFF );
+    }
+  }
+
+  private void putLong( long value ) {
+    for ( int shift = 56; shift >= 0; shift -= 8 ) {
+      put( (int) ( value >>> shift ) );
+    }
+  }
+
+  private void put( int b ) {
+    if ( length == buffer.length ) {
+      buffer = Arrays.copyOf( buffer, length * 2 );
+    }
+    buffer[ length++ ] = (byte) b;
+  }
+}
@@ -0,0 +1,74 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.row.columnar;
+
+/**
+ * A column of boolean values kept in a boolean[], see {@link ColumnVector}.
+ *
+ * @since 11.0
+ */
+public class BooleanColumnVector extends ColumnVector {
+
+  private final boolean[] values;
+
+  public BooleanColumnVector( int size ) {
+    super( size );
+    values = new boolean[ size ];
+  }
+
+  /**
+   * @return the values, the entries of the null rows are undefined
+   */
+  public boolean[] getValues() {
+    return values;
+  }
+
+  public boolean get( int i ) {
+    return values[ i ];
+  }
+
+  public void set( int i, boolean value ) {
+    values[ i ] = value;
+  }
+
+  @Override
+  public boolean accepts( Object value ) {
+    return value == null || value instanceof Boolean;
+  }
+
+  @Override
+  public Object getObject( int i ) {
+    return isNull( i ) ? null : Boolean.valueOf( values[ i ] );
+  }
+
+  @Override
+  public void setObject( int i, Object value ) {
+    if ( value == null ) {
+      setNull( i, true );
+    } else {
+      values[ i ] = (Boolean) value;
+      setNull( i, false );
+    }
+  }
+
+  @Override
+  protected ColumnVector newInstance( int size ) {
+    return new BooleanColumnVector( size );
+  }
+
+  @Override
+  protected void copyValue( int i, ColumnVector source, int sourceIndex ) {
+    values[ i ] = ( (BooleanColumnVector) source ).values[ sourceIndex ];
+  }
+}
@@ -0,0 +1,239 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.row.columnar;
+
+import java.util.Arrays;
+
+import org.pentaho.di.core.row.ValueMetaInterface;
+
+/**
+ * The values of a single field for all the rows of a {@link ColumnarRowBatch}. Subclasses keep the values in a
+ * primitive array where possible. A value is considered to be null when the row data contains a Java null, this is
+ * tracked in a bitmap so that the primitive columns don't need boxed values.
+ *
+ * @since 11.0
+ */
+public abstract class ColumnVector {
+
+  protected final int size;
+
+  /** One bit per row, set when the value is null. Only allocated once a null value is set. */
+  private long[] nulls;
+
+  protected ColumnVector( int size ) {
+    this.size = size;
+  }
+
+  /**
+   * Creates an empty vector that can hold the data of the given value metadata.
+   *
+   * @param valueMeta the metadata of the field
+   * @param size      the number of rows
+   * @return a primitive vector for integers, numbers and booleans, a dictionary encoded vector for strings and a
+   *         generic vector for all the other types and storage types.
+   */
+  public static ColumnVector create( ValueMetaInterface valueMeta, int size ) {
+    if ( valueMeta != null && valueMeta.isStorageNormal() ) {
+      switch ( valueMeta.getType() ) {
+        case ValueMetaInterface.TYPE_INTEGER:
+          return new LongColumnVector( size );
+        case ValueMetaInterface.TYPE_NUMBER:
+          return new DoubleColumnVector( size );
+        case ValueMetaInterface.TYPE_BOOLEAN:
+          return new BooleanColumnVector( size );
+        case ValueMetaInterface.TYPE_STRING:
+          return new StringColumnVector( size );
+        default:
+          break;
+      }
+    }
+    return new ObjectColumnVector( size );
+  }
+
+  /**
+   * Takes the values of one field from a number of rows. If a value turns out not to match the type of the metadata
+   * the values are kept as they are in a generic vector.
+   *
+   * @param valueMeta the metadata of the field
+   * @param index     the index of the field in the rows
+   * @param rows      the rows
+   * @param offset    the index of the first row to take
+   * @param n         the number of rows to take
+   * @return a new vector with n values
+   */
+  public static ColumnVector fromRows( ValueMetaInterface valueMeta, int index, Object[][] rows, int offset, int n ) {
+    ColumnVector vector = create( valueMeta, n );
+    for ( int i = 0; i < n; i++ ) {
+      Object[] row = rows[ offset + i ];
+      Object value = index < row.length ? row[ index ] : null;
+      if ( !vector.accepts( value ) ) {
+        vector = new ObjectColumnVector( n );
+        for ( int j = 0; j < n; j++ ) {
+          Object[] r = rows[ offset + j ];
+          vector.setObject( j, index < r.length ? r[ index ] : null );
+        }
+        return vector;
+      }
+      vector.setObject( i, value );
+    }
+    return vector;
+  }
+
+  /**
+   * Creates a vector with the same value in each row.
+   *
+   * @param valueMeta the metadata of the value
+   * @param value     the value, can be null
+   * @param size      the number of rows
+   * @return the new vector
+   */
+  public static ColumnVector constant( ValueMetaInterface valueMeta, Object value, int size ) {
+    ColumnVector vector = create( valueMeta, size );
+    if ( !vector.accepts( value ) ) {
+      vector = new ObjectColumnVector( size );
+    }
+    for ( int i = 0; i < size; i++ ) {
+      vector.setObject( i, value );
+    }
+    return vector;
+  }
+
+  /**
+   * @return the number of rows in this vector
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @param i the row index
+   * @return true if the value of the row is null
+   */
+  public boolean isNull( int i ) {
+    return nulls != null && ( nulls[ i >>> 6 ] & ( 1L << i ) ) != 0;
+  }
+
+  /**
+   * @return true if at least one of the values is null
+   */
+  public boolean hasNulls() {
+    if ( nulls != null ) {
+      for ( long word : nulls ) {
+        if ( word != 0 ) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Marks the value of the row as null (or not).
+   *
+   * @param i      the row index
+   * @param isNull the new null flag
+   */
+  public void setNull( int i, boolean isNull ) {
+    if ( isNull ) {
+      if ( nulls == null ) {
+        nulls = new long[ ( size + 63 ) >>> 6 ];
+      }
+      nulls[ i >>> 6 ] |= 1L << i;
+    } else if ( nulls != null ) {
+      nulls[ i >>> 6 ] &= ~( 1L << i );
+    }
+  }
+
+  /**
+   * @param value a value from a row
+   * @return true if this vector can store the value without changing it
+   */
+  public abstract boolean accepts( Object value );
+
+  /**
+   * Gets the value of a row the way it would be stored in an Object[] row. For the primitive vectors this creates
+   * the boxed value.
+   *
+   * @param i the row index
+   * @return the value or null
+   */
+  public abstract Object getObject( int i );
+
+  /**
+   * Sets the value of a row from the way it would be stored in an Object[] row.
+   *
+   * @param i     the row index
+   * @param value the value or null, see {@link #accepts(Object)}
+   */
+  public abstract void setObject( int i, Object value );
+
+  /**
+   * Creates a new vector with the values of the selected rows.
+   *
+   * @param selection the row indexes to keep, in the order in which they will appear in the result
+   * @param n         the number of selected rows
+   * @return the new vector
+   */
+  public ColumnVector select( int[] selection, int n ) {
+    ColumnVector target = newInstance( n );
+    for ( int i = 0; i < n; i++ ) {
+      int row = selection[ i ];
+      if ( isNull( row ) ) {
+        target.setNull( i, true );
+      } else {
+        target.copyValue( i, this, row );
+      }
+    }
+    return target;
+  }
+
+  /**
+   * Creates a new vector with the values of a range of rows.
+   *
+   * @param from the first row index, inclusive
+   * @param to   the last row index, exclusive
+   * @return the new vector
+   */
+  public ColumnVector slice( int from, int to ) {
+    int n = to - from;
+    ColumnVector target = newInstance( n );
+    for ( int i = 0; i < n; i++ ) {
+      if ( isNull( from + i ) ) {
+        target.setNull( i, true );
+      } else {
+        target.copyValue( i, this, from + i );
+      }
+    }
+    return target;
+  }
+
+  /**
+   * Creates an empty vector of the same kind, sharing whatever needs to be shared (like a dictionary).
+   */
+  protected abstract ColumnVector newInstance( int size );
+
+  /**
+   * Copies a non-null value from a vector of the same kind.
+   */
+  protected abstract void copyValue( int i, ColumnVector source, int sourceIndex );
+
+  @Override
+  public String toString() {
+    Object[] values = new Object[ Math.min( size, 10 ) ];
+    for ( int i = 0; i < values.length; i++ ) {
+      values[ i ] = getObject( i );
+    }
+    return getClass().getSimpleName() + "[" + size + "] " + Arrays.toString( values );
+  }
+}
@@ -0,0 +1,339 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.row.columnar;
+import java.util.Arrays;
+import java.util.List;
+
+import org.pentaho.di.core.Condition;
+import org.pentaho.di.core.Const;
+import org.pentaho.di.core.row.RowDataUtil;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaAndData;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaNumber;
+import org.pentaho.di.core.util.Utils;
+
+/**
+ * Evaluates a {@link Condition} for all the rows of a {@link ColumnarRowBatch} at once, giving the same results as
+ * {@link Condition#evaluate(RowMetaInterface, Object[])} would give for each row.
+ * <p>
+ * Atomic comparisons of integer and number fields with a constant or with another field of the same type are done
+ * directly on the primitive values. Conditions on a dictionary encoded string field are evaluated once per distinct
+ * value. All the other atomic conditions are evaluated row by row on materialized rows. Composite conditions only
+ * evaluate their parts for the rows that still need it, just like the short-circuit evaluation of the row version.
+ *
+ * @since 11.0
+ */
+public class ColumnarConditionEvaluator {
+
+  private final Condition condition;
+  private final RowMetaInterface rowMeta;
+  private final boolean treatNullsAsNotZero;
+
+  /** The materialized rows of the batch being evaluated, only created when needed. */
+  private Object[][] rows;
+  private ColumnarRowBatch batch;
+
+  /**
+   * @param condition the condition to evaluate
+   * @param rowMeta   the metadata of the rows in the batches
+   */
+  public ColumnarConditionEvaluator( Condition condition, RowMetaInterface rowMeta ) {
+    this.condition = condition;
+    this.rowMeta = rowMeta;
+    this.treatNullsAsNotZero =
+      "Y".equalsIgnoreCase( System.getProperty( Const.KETTLE_FILTER_TREAT_NULLS_AS_NOT_ZERO, "N" ) );
+  }
+
+  /**
+   * @param batch the rows to evaluate the condition for
+   * @return the result of the condition for each row of the batch
+   */
+  public boolean[] evaluate( ColumnarRowBatch batch ) {
+    this.batch = batch;
+    this.rows = null;
+    try {
+      boolean[] active = new boolean[ batch.size() ];
+      Arrays.fill( active, true );
+      boolean[] result = new boolean[ batch.size() ];
+      evaluate( condition, active, result );
+      return result;
+    } finally {
+      this.batch = null;
+      this.rows = null;
+    }
+  }
+
+  /**
+   * Evaluates the condition for the active rows and stores the outcome in result. The other rows are left alone.
+   */
+  private void evaluate( Condition c, boolean[] active, boolean[] result ) {
+    if ( c.isAtomic() ) {
+      evaluateAtomic( c, active, result );
+      return;
+    }
+
+    List<Condition> children = c.getChildren();
+    evaluate( children.get( 0 ), active, result );
+
+    int n = active.length;
+    boolean[] needed = new boolean[ n ];
+    boolean[] outcome = new boolean[ n ];
+    for ( int i = 1; i < children.size(); i++ ) {
+      Condition child = children.get( i );
+      int operator = child.getOperator();
+      switch ( operator ) {
+        case Condition.OPERATOR_OR:
+        case Condition.OPERATOR_OR_NOT:
+          for ( int r = 0; r < n; r++ ) {
+            needed[ r ] = active[ r ] && !result[ r ];
+          }
+          break;
+        case Condition.OPERATOR_AND:
+        case Condition.OPERATOR_AND_NOT:
+          for ( int r = 0; r < n; r++ ) {
+            needed[ r ] = active[ r ] && result[ r ];
+          }
+          break;
+        case Condition.OPERATOR_XOR:
+          System.arraycopy( active, 0, needed, 0, n );
+          break;
+        default:
+          continue;
+      }
+
+      evaluate( child, needed, outcome );
+
+      boolean not = operator == Condition.OPERATOR_OR_NOT || operator == Condition.OPERATOR_AND_NOT;
+      for ( int r = 0; r < n; r++ ) {
+        if ( needed[ r ] ) {
+          if ( operator == Condition.OPERATOR_XOR ) {
+            result[ r ] ^= outcome[ r ];
+          } else {
+            result[ r ] = not != outcome[ r ];
+          }
+        }
+      }
+    }
+
+    if ( c.isNegated() ) {
+      for ( int r = 0; r < n; r++ ) {
+        if ( active[ r ] ) {
+          result[ r ] = !result[ r ];
+        }
+      }
+    }
+  }
+
+  private void evaluateAtomic( Condition c, boolean[] active, boolean[] result ) {
+    int function = c.getFunction();
+    if ( function == Condition.FUNC_TRUE ) {
+      fill( active, result, !c.isNegated() );
+      return;
+    }
+
+    int leftIndex = Utils.isEmpty( c.getLeftValuename() ) ? -1 : rowMeta.indexOfValue( c.getLeftValuename() );
+    if ( leftIndex < 0 ) {
+      // Same as the row version: no fields to evaluate, not negated either
+      //
+      fill( active, result, false );
+      return;
+    }
+    int rightIndex = Utils.isEmpty( c.getRightValuename() ) ? -1 : rowMeta.indexOfValue( c.getRightValuename() );
+
+    if ( !evaluateNumeric( c, function, leftIndex, rightIndex, active, result )
+      && !evaluateDictionary( c, leftIndex, rightIndex, active, result ) ) {
+      for ( int r = 0; r < active.length; r++ ) {
+        if ( active[ r ] ) {
+          result[ r ] = c.evaluate( rowMeta, getRow( r ) );
+        }
+      }
+    }
+  }
+
+  /**
+   * Compares integer or number fields directly on the primitive values.
+   *
+   * @return false if the condition can't be evaluated this way
+   */
+  private boolean evaluateNumeric( Condition c, int function, int leftIndex, int rightIndex, boolean[] active,
+    boolean[] result ) {
+    if ( function > Condition.FUNC_LARGER_EQUAL && function != Condition.FUNC_NULL
+      && function != Condition.FUNC_NOT_NULL ) {
+      return false;
+    }
+    ValueMetaInterface leftMeta = rowMeta.getValueMeta( leftIndex );
+    ColumnVector left = batch.getColumn( leftIndex );
+    if ( !isPlainNumeric( leftMeta, left ) ) {
+      return false;
+    }
+
+    boolean negate = c.isNegated();
+    if ( function == Condition.FUNC_NULL || function == Condition.FUNC_NOT_NULL ) {
+      boolean wanted = function == Condition.FUNC_NULL;
+      for ( int r = 0; r < active.length; r++ ) {
+        if ( active[ r ] ) {
+          result[ r ] = ( left.isNull( r ) == wanted ) != negate;
+        }
+      }
+      return true;
+    }
+
+    // The right hand side is either a constant or a field of the same type
+    //
+    ValueMetaAndData rightExact = c.getRightExact();
+    Object constant = rightExact != null ? rightExact.getValueData() : null;
+    ColumnVector right = null;
+    if ( constant != null ) {
+      ValueMetaInterface constantMeta = rightExact.getValueMeta();
+      if ( constantMeta == null || constantMeta.getType() != leftMeta.getType() || !constantMeta.isStorageNormal()
+        || !left.accepts( constant ) ) {
+        return false;
+      }
+    } else if ( rightIndex >= 0 ) {
+      right = batch.getColumn( rightIndex );
+      ValueMetaInterface rightMeta = rowMeta.getValueMeta( rightIndex );
+      if ( rightMeta.getType() != leftMeta.getType() || right.getClass() != left.getClass()
+        || !isPlainNumeric( rightMeta, right ) ) {
+        return false;
+      }
+    } else {
+      return false;
+    }
+
+    boolean isLong = left instanceof LongColumnVector;
+    long[] leftLongs = isLong ? ( (LongColumnVector) left ).getValues() : null;
+    double[] leftDoubles = isLong ? null : ( (DoubleColumnVector) left ).getValues();
+    long[] rightLongs = right != null && isLong ? ( (LongColumnVector) right ).getValues() : null;
+    double[] rightDoubles = right != null && !isLong ? ( (DoubleColumnVector) right ).getValues() : null;
+    long constantLong = constant != null && isLong ? (Long) constant : 0L;
+    double constantDouble = constant != null && !isLong ? (Double) constant : 0.0;
+
+    for ( int r = 0; r < active.length; r++ ) {
+      if ( !active[ r ] ) {
+        continue;
+      }
+      boolean leftNull = left.isNull( r );
+      boolean rightNull = right != null && right.isNull( r );
+
+      // Same ordering of nulls as ValueMetaBase.compare(): null is the smallest value
+      //
+      int cmp;
+      if ( leftNull || rightNull ) {
+        cmp = leftNull == rightNull ? 0 : ( leftNull ? -1 : 1 );
+      } else if ( isLong ) {
+        cmp = Long.compare( leftLongs[ r ], right != null ? rightLongs[ r ] : constantLong );
+      } else {
+        cmp = Double.compare( leftDoubles[ r ], right != null ? rightDoubles[ r ] : constantDouble );
+      }
+
+      boolean value;
+      switch ( function ) {
+        case Condition.FUNC_EQUAL:
+          value = cmp == 0;
+          break;
+        case Condition.FUNC_NOT_EQUAL:
+          value = cmp != 0;
+          break;
+        case Condition.FUNC_SMALLER:
+          value = !( treatNullsAsNotZero && leftNull ) && cmp < 0;
+          break;
+        case Condition.FUNC_SMALLER_EQUAL:
+          value = !( treatNullsAsNotZero && leftNull ) && cmp <= 0;
+          break;
+        case Condition.FUNC_LARGER:
+          value = cmp > 0;
+          break;
+        default: // FUNC_LARGER_EQUAL
+          value = cmp >= 0;
+          break;
+      }
+      result[ r ] = value != negate;
+    }
+    return true;
+  }
+
+  /**
+   * Only the plain integer and number value metadata compare the way we do here: no custom comparator, no sort order
+   * and no conversion of the storage type.
+   */
+  private static boolean isPlainNumeric( ValueMetaInterface valueMeta, ColumnVector vector ) {
+    if ( valueMeta.isSortedDescending() || !valueMeta.isStorageNormal() ) {
+      return false;
+    }
+    return ( valueMeta.getClass() == ValueMetaInteger.class && vector instanceof LongColumnVector )
+      || ( valueMeta.getClass() == ValueMetaNumber.class && vector instanceof DoubleColumnVector );
+  }
+
+  /**
+   * Evaluates a condition that only looks at a dictionary encoded string field (and possibly a constant) once for
+   * every distinct value in the batch.
+   *
+   * @return false if the condition can't be evaluated this way
+   */
+  private boolean evaluateDictionary( Condition c, int leftIndex, int rightIndex, boolean[] active,
+    boolean[] result ) {
+    ColumnVector left = batch.getColumn( leftIndex );
+    if ( !( left instanceof StringColumnVector ) || rightIndex >= 0 ) {
+      return false;
+    }
+    StringColumnVector strings = (StringColumnVector) left;
+
+    // A row with only the left field filled in is enough to evaluate the condition
+    //
+    Object[] scratch = RowDataUtil.allocateRowData( rowMeta.size() );
+    byte[] outcomes = new byte[ strings.getDictionarySize() ]; // 0 = unknown, 1 = false, 2 = true
+    byte nullOutcome = 0;
+
+    for ( int r = 0; r < active.length; r++ ) {
+      if ( !active[ r ] ) {
+        continue;
+      }
+      if ( strings.isNull( r ) ) {
+        if ( nullOutcome == 0 ) {
+          scratch[ leftIndex ] = null;
+          nullOutcome = c.evaluate( rowMeta, scratch ) ? (byte) 2 : (byte) 1;
+        }
+        result[ r ] = nullOutcome == 2;
+      } else {
+        int code = strings.getCode( r );
+        if ( outcomes[ code ] == 0 ) {
+          scratch[ leftIndex ] = strings.getDictionary()[ code ];
+          outcomes[ code ] = c.evaluate( rowMeta, scratch ) ? (byte) 2 : (byte) 1;
+        }
+        result[ r ] = outcomes[ code ] == 2;
+      }
+    }
+    return true;
+  }
+
+  private Object[] getRow( int r ) {
+    if ( rows == null ) {
+      rows = new Object[ batch.size() ][];
+    }
+    if ( rows[ r ] == null ) {
+      rows[ r ] = batch.getRow( r );
+    }
+    return rows[ r ];
+  }
+
+  private static void fill( boolean[] active, boolean[] result, boolean value ) {
+    for ( int r = 0; r < active.length; r++ ) {
+      if ( active[ r ] ) {
+        result[ r ] = value;
+      }
+    }
+  }
+}
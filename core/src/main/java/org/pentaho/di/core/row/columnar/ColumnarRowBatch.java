@@ -0,0 +1,187 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.row.columnar;
+import org.pentaho.di.core.row.RowDataUtil;
+import org.pentaho.di.core.row.RowMetaInterface;
+
+/**
+ * A batch of rows stored column by column: one {@link ColumnVector} per field of the row metadata. Integers, numbers
+ * and booleans are kept in primitive arrays and strings are dictionary encoded, so steps that work on a batch don't
+ * need a boxed object for every value. The row metadata itself is not part of the batch, it travels next to it just
+ * like with Object[] rows.
+ * <p>
+ * A batch is not thread-safe, it's owned by a single step at a time.
+ *
+ * @since 11.0
+ */
+public class ColumnarRowBatch {
+
+  private final int size;
+  private final ColumnVector[] columns;
+
+  /**
+   * @param size    the number of rows
+   * @param columns the column vectors, all with the given size
+   */
+  public ColumnarRowBatch( int size, ColumnVector[] columns ) {
+    this.size = size;
+    this.columns = columns;
+  }
+
+  /**
+   * Converts Object[] rows into a columnar batch.
+   *
+   * @param rowMeta the metadata of the rows
+   * @param rows    the rows
+   * @param n       the number of rows to take from the start of the rows array
+   * @return the new batch
+   */
+  public static ColumnarRowBatch fromRows( RowMetaInterface rowMeta, Object[][] rows, int n ) {
+    return fromRows( rowMeta, rows, 0, n );
+  }
+
+  /**
+   * Converts Object[] rows into a columnar batch.
+   *
+   * @param rowMeta the metadata of the rows
+   * @param rows    the rows
+   * @param offset  the index of the first row to take
+   * @param n       the number of rows to take
+   * @return the new batch
+   */
+  public static ColumnarRowBatch fromRows( RowMetaInterface rowMeta, Object[][] rows, int offset, int n ) {
+    ColumnVector[] columns = new ColumnVector[ rowMeta.size() ];
+    for ( int c = 0; c < columns.length; c++ ) {
+      columns[ c ] = ColumnVector.fromRows( rowMeta.getValueMeta( c ), c, rows, offset, n );
+    }
+    return new ColumnarRowBatch( n, columns );
+  }
+
+  /**
+   * @return the number of rows in the batch
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return the number of fields in the batch
+   */
+  public int getColumnCount() {
+    return columns.length;
+  }
+
+  /**
+   * @param index the field index
+   * @return the column vector of the field
+   */
+  public ColumnVector getColumn( int index ) {
+    return columns[ index ];
+  }
+
+  /**
+   * Converts a single row of the batch back into an Object[] row. The row is allocated with
+   * {@link RowDataUtil#allocateRowData(int)} so the usual extra room to add fields is there.
+   *
+   * @param i the row index
+   * @return the new row
+   */
+  public Object[] getRow( int i ) {
+    Object[] row = RowDataUtil.allocateRowData( columns.length );
+    for ( int c = 0; c < columns.length; c++ ) {
+      row[ c ] = columns[ c ].getObject( i );
+    }
+    return row;
+  }
+
+  /**
+   * @return all the rows of the batch as Object[] rows
+   */
+  public Object[][] toRows() {
+    Object[][] rows = new Object[ size ][];
+    for ( int i = 0; i < size; i++ ) {
+      rows[ i ] = getRow( i );
+    }
+    return rows;
+  }
+
+  /**
+   * Keeps the selected rows.
+   *
+   * @param selection the indexes of the rows to keep
+   * @param n         the number of selected rows
+   * @return a new batch with the selected rows, or this batch if all rows were selected in order
+   */
+  public ColumnarRowBatch select( int[] selection, int n ) {
+    if ( n == size && isIdentity( selection, n ) ) {
+      return this;
+    }
+    ColumnVector[] selected = new ColumnVector[ columns.length ];
+    for ( int c = 0; c < columns.length; c++ ) {
+      selected[ c ] = columns[ c ].select( selection, n );
+    }
+    return new ColumnarRowBatch( n, selected );
+  }
+
+  private static boolean isIdentity( int[] selection, int n ) {
+    for ( int i = 0; i < n; i++ ) {
+      if ( selection[ i ] != i ) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @param from the first row, inclusive
+   * @param to   the last row, exclusive
+   * @return a new batch with a range of the rows of this batch
+   */
+  public ColumnarRowBatch slice( int from, int to ) {
+    if ( from == 0 && to == size ) {
+      return this;
+    }
+    ColumnVector[] sliced = new ColumnVector[ columns.length ];
+    for ( int c = 0; c < columns.length; c++ ) {
+      sliced[ c ] = columns[ c ].slice( from, to );
+    }
+    return new ColumnarRowBatch( to - from, sliced );
+  }
+
+  /**
+   * Re-orders, duplicates or removes fields. The column vectors are not copied, a field that is selected more than
+   * once is backed by the same vector.
+   *
+   * @param indexes the indexes of the fields to keep, in their new order
+   * @return a new batch with the selected fields
+   */
+  public ColumnarRowBatch project( int[] indexes ) {
+    ColumnVector[] projected = new ColumnVector[ indexes.length ];
+    for ( int c = 0; c < indexes.length; c++ ) {
+      projected[ c ] = columns[ indexes[ c ] ];
+    }
+    return new ColumnarRowBatch( size, projected );
+  }
+
+  /**
+   * @param extra the column vectors to add at the end of the fields, all with the size of this batch
+   * @return a new batch with the extra fields added
+   */
+  public ColumnarRowBatch addColumns( ColumnVector... extra ) {
+    ColumnVector[] all = new ColumnVector[ columns.length + extra.length ];
+    System.arraycopy( columns, 0, all, 0, columns.length );
+    System.arraycopy( extra, 0, all, columns.length, extra.length );
+    return new ColumnarRowBatch( size, all );
+  }
+}
@@ -0,0 +1,74 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.row.columnar;
+
+/**
+ * A column of number values kept in a double[], see {@link ColumnVector}.
+ *
+ * @since 11.0
+ */
+public class DoubleColumnVector extends ColumnVector {
+
+  private final double[] values;
+
+  public DoubleColumnVector( int size ) {
+    super( size );
+    values = new double[ size ];
+  }
+
+  /**
+   * @return the values, the entries of the null rows are undefined
+   */
+  public double[] getValues() {
+    return values;
+  }
+
+  public double get( int i ) {
+    return values[ i ];
+  }
+
+  public void set( int i, double value ) {
+    values[ i ] = value;
+  }
+
+  @Override
+  public boolean accepts( Object value ) {
+    return value == null || value instanceof Double;
+  }
+
+  @Override
+  public Object getObject( int i ) {
+    return isNull( i ) ? null : Double.valueOf( values[ i ] );
+  }
+
+  @Override
+  public void setObject( int i, Object value ) {
+    if ( value == null ) {
+      setNull( i, true );
+    } else {
+      values[ i ] = (Double) value;
+      setNull( i, false );
+    }
+  }
+
+  @Override
+  protected ColumnVector newInstance( int size ) {
+    return new DoubleColumnVector( size );
+  }
+
+  @Override
+  protected void copyValue( int i, ColumnVector source, int sourceIndex ) {
+    values[ i ] = ( (DoubleColumnVector) source ).values[ sourceIndex ];
+  }
+}
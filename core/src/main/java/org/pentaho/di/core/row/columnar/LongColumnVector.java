@@ -0,0 +1,74 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.row.columnar;
+
+/**
+ * A column of integer values kept in a long[], see {@link ColumnVector}.
+ *
+ * @since 11.0
+ */
+public class LongColumnVector extends ColumnVector {
+
+  private final long[] values;
+
+  public LongColumnVector( int size ) {
+    super( size );
+    values = new long[ size ];
+  }
+
+  /**
+   * @return the values, the entries of the null rows are undefined
+   */
+  public long[] getValues() {
+    return values;
+  }
+
+  public long get( int i ) {
+    return values[ i ];
+  }
+
+  public void set( int i, long value ) {
+    values[ i ] = value;
+  }
+
+  @Override
+  public boolean accepts( Object value ) {
+    return value == null || value instanceof Long;
+  }
+
+  @Override
+  public Object getObject( int i ) {
+    return isNull( i ) ? null : Long.valueOf( values[ i ] );
+  }
+
+  @Override
+  public void setObject( int i, Object value ) {
+    if ( value == null ) {
+      setNull( i, true );
+    } else {
+      values[ i ] = (Long) value;
+      setNull( i, false );
+    }
+  }
+
+  @Override
+  protected ColumnVector newInstance( int size ) {
+    return new LongColumnVector( size );
+  }
+
+  @Override
+  protected void copyValue( int i, ColumnVector source, int sourceIndex ) {
+    values[ i ] = ( (LongColumnVector) source ).values[ sourceIndex ];
+  }
+}
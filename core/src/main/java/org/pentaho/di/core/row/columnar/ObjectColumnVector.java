@@ -0,0 +1,77 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.row.columnar;
+
+/**
+ * A column of values kept the way they are found in the rows. This is used for the data types and storage types
+ * that don't have a specialized vector.
+ *
+ * @since 11.0
+ */
+public class ObjectColumnVector extends ColumnVector {
+
+  private final Object[] values;
+
+  public ObjectColumnVector( int size ) {
+    super( size );
+    values = new Object[ size ];
+  }
+
+  @Override
+  public boolean isNull( int i ) {
+    return values[ i ] == null;
+  }
+
+  @Override
+  public boolean hasNulls() {
+    for ( Object value : values ) {
+      if ( value == null ) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public void setNull( int i, boolean isNull ) {
+    if ( isNull ) {
+      values[ i ] = null;
+    }
+  }
+
+  @Override
+  public boolean accepts( Object value ) {
+    return true;
+  }
+
+  @Override
+  public Object getObject( int i ) {
+    return values[ i ];
+  }
+
+  @Override
+  public void setObject( int i, Object value ) {
+    values[ i ] = value;
+  }
+
+  @Override
+  protected ColumnVector newInstance( int size ) {
+    return new ObjectColumnVector( size );
+  }
+
+  @Override
+  protected void copyValue( int i, ColumnVector source, int sourceIndex ) {
+    values[ i ] = ( (ObjectColumnVector) source ).values[ sourceIndex ];
+  }
+}
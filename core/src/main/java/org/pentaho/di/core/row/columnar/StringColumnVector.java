@@ -0,0 +1,130 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.row.columnar;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A dictionary encoded column of strings: every distinct string is stored once and each row refers to it with an
+ * int code. This keeps the memory footprint small for the typical low cardinality columns and allows operations to
+ * work once per distinct value instead of once per row. See {@link ColumnVector}.
+ * <p>
+ * Vectors created with {@link #select(int[], int)} or {@link #slice(int, int)} share the dictionary of their source.
+ * Adding a new string to a shared dictionary first takes a private copy of it, so vectors handed to different threads
+ * never modify the same dictionary.
+ *
+ * @since 11.0
+ */
+public class StringColumnVector extends ColumnVector {
+
+  private final int[] codes;
+
+  private String[] dictionary;
+  private int dictionarySize;
+  private Map<String, Integer> lookup;
+  private boolean sharedDictionary;
+
+  public StringColumnVector( int size ) {
+    super( size );
+    codes = new int[ size ];
+    dictionary = new String[ 16 ];
+    lookup = new HashMap<>();
+  }
+
+  private StringColumnVector( int size, StringColumnVector source ) {
+    super( size );
+    codes = new int[ size ];
+    dictionary = source.dictionary;
+    dictionarySize = source.dictionarySize;
+    lookup = source.lookup;
+    sharedDictionary = true;
+  }
+
+  /**
+   * @param i the row index
+   * @return the dictionary code of the row, undefined for null rows
+   */
+  public int getCode( int i ) {
+    return codes[ i ];
+  }
+
+  /**
+   * @return the distinct values, only the first {@link #getDictionarySize()} entries are used
+   */
+  public String[] getDictionary() {
+    return dictionary;
+  }
+
+  public int getDictionarySize() {
+    return dictionarySize;
+  }
+
+  public String get( int i ) {
+    return isNull( i ) ? null : dictionary[ codes[ i ] ];
+  }
+
+  @Override
+  public boolean accepts( Object value ) {
+    return value == null || value instanceof String;
+  }
+
+  @Override
+  public Object getObject( int i ) {
+    return get( i );
+  }
+
+  @Override
+  public void setObject( int i, Object value ) {
+    if ( value == null ) {
+      setNull( i, true );
+    } else {
+      codes[ i ] = encode( (String) value );
+      setNull( i, false );
+    }
+  }
+
+  private int encode( String value ) {
+    Integer code = lookup.get( value );
+    if ( code == null ) {
+      if ( sharedDictionary ) {
+        dictionary = Arrays.copyOf( dictionary, dictionary.length );
+        lookup = new HashMap<>( lookup );
+        sharedDictionary = false;
+      }
+      if ( dictionarySize == dictionary.length ) {
+        dictionary = Arrays.copyOf( dictionary, dictionarySize * 2 );
+      }
+      code = dictionarySize;
+      dictionary[ dictionarySize++ ] = value;
+      lookup.put( value, code );
+    }
+    return code;
+  }
+
+  @Override
+  protected ColumnVector newInstance( int size ) {
+    // From now on neither vector can add to the dictionary without copying it first
+    //
+    sharedDictionary = true;
+    return new StringColumnVector( size, this );
+  }
+
+  @Override
+  protected void copyValue( int i, ColumnVector source, int sourceIndex ) {
+    // The dictionary is shared with the source so the codes are the same
+    //
+    codes[ i ] = ( (StringColumnVector) source ).codes[ sourceIndex ];
+  }
+}
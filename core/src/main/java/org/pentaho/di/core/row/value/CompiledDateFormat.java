@@ -0,0 +1,374 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.row.value;
+
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/**
+ * An immutable, thread-safe copy of a {@link SimpleDateFormat} for the common masks that only consist of fixed width
+ * numeric fields and literals, like <code>yyyy-MM-dd</code>, <code>yyyyMMdd</code>,
+ * <code>yyyy/MM/dd HH:mm:ss.SSS</code> or <code>yyyy-MM-dd'T'HH:mm:ss</code>. Dates are parsed and formatted straight
+ * from and into the characters without a Calendar.<br>
+ * <br>
+ * Only values that are unambiguous are handled: complete, valid fields of years after the Gregorian cutover and local
+ * times that are not close to a time zone transition. For everything else {@link #parse(CharSequence)} and
+ * {@link #format(Date)} return null and the caller needs to use the SimpleDateFormat. That way the lenient, locale and
+ * time zone semantics stay exactly the same.
+ *
+ * @since 11.0
+ */
+final class CompiledDateFormat {
+
+  private static final long MILLIS_PER_DAY = 86400000L;
+
+  /** The first full year of the Gregorian calendar, before that SimpleDateFormat uses the Julian calendar. */
+  private static final int MIN_YEAR = 1583;
+
+  /** Larger years don't fit in 4 digits. */
+  private static final int MAX_YEAR = 9999;
+
+  /** The default Gregorian cutover of GregorianCalendar, October 15, 1582. */
+  private static final long GREGORIAN_CUTOVER = -12219292800000L;
+
+  /** The number of days from 0000-03-01 to 1970-01-01. */
+  private static final long DAYS_0000_TO_1970 = 719468L;
+
+  private final SimpleDateFormat source;
+
+  /** The field letter or the literal character for each position of the text, null if the mask isn't supported. */
+  private final char[] layout;
+
+  /** True for the positions of the text that hold a digit of a field. */
+  private final boolean[] numeric;
+
+  private final TimeZone timeZone;
+
+  private CompiledDateFormat( SimpleDateFormat source, char[] layout, boolean[] numeric, TimeZone timeZone ) {
+    this.source = source;
+    this.layout = layout;
+    this.numeric = numeric;
+    this.timeZone = timeZone;
+  }
+
+  /**
+   * Compiles the mask of a date format. The format should not be changed afterwards.
+   *
+   * @param format the format to compile, not null
+   * @return the compiled format, a format that doesn't handle any value if the mask isn't supported
+   */
+  static CompiledDateFormat compile( SimpleDateFormat format ) {
+    CompiledDateFormat unsupported = new CompiledDateFormat( format, null, null, null );
+    if ( format.getClass() != SimpleDateFormat.class || !isGregorianWithAsciiDigits( format ) ) {
+      return unsupported;
+    }
+
+    String pattern = format.toPattern();
+    char[] layout = new char[ pattern.length() ];
+    boolean[] numeric = new boolean[ pattern.length() ];
+    int length = 0;
+    String fields = "";
+
+    int i = 0;
+    while ( i < pattern.length() ) {
+      char c = pattern.charAt( i );
+      if ( c == '\'' ) {
+        // Quoted literal text, two quotes make a quote
+        //
+        i++;
+        if ( i < pattern.length() && pattern.charAt( i ) == '\'' ) {
+          layout[ length++ ] = '\'';
+          i++;
+          continue;
+        }
+        while ( true ) {
+          if ( i >= pattern.length() ) {
+            return unsupported;
+          }
+          c = pattern.charAt( i++ );
+          if ( c == '\'' ) {
+            if ( i < pattern.length() && pattern.charAt( i ) == '\'' ) {
+              i++;
+            } else {
+              break;
+            }
+          }
+          if ( c >= '0' && c <= '9' ) {
+            return unsupported;
+          }
+          layout[ length++ ] = c;
+        }
+      } else if ( ( c >= 'a' && c <= 'z' ) || ( c >= 'A' && c <= 'Z' ) ) {
+        int count = 1;
+        while ( i + count < pattern.length() && pattern.charAt( i + count ) == c ) {
+          count++;
+        }
+        if ( count != getFieldWidth( c ) || fields.indexOf( c ) >= 0 ) {
+          return unsupported;
+        }
+        fields += c;
+        for ( int k = 0; k < count; k++ ) {
+          numeric[ length ] = true;
+          layout[ length++ ] = c;
+        }
+        i += count;
+      } else {
+        if ( c >= '0' && c <= '9' ) {
+          return unsupported;
+        }
+        layout[ length++ ] = c;
+        i++;
+      }
+    }
+
+    // Without a year, month and day SimpleDateFormat picks defaults
+    //
+    if ( fields.indexOf( 'y' ) < 0 || fields.indexOf( 'M' ) < 0 || fields.indexOf( 'd' ) < 0 ) {
+      return unsupported;
+    }
+
+    return new CompiledDateFormat( format, Arrays.copyOf( layout, length ), Arrays.copyOf( numeric, length ),
+      (TimeZone) format.getTimeZone().clone() );
+  }
+
+  /**
+   * @return the width of a supported field, 0 for all the other pattern letters
+   */
+  private static int getFieldWidth( char letter ) {
+    switch ( letter ) {
+      case 'y':
+        return 4;
+      case 'M':
+      case 'd':
+      case 'H':
+      case 'm':
+      case 's':
+        return 2;
+      case 'S':
+        return 3;
+      default:
+        return 0;
+    }
+  }
+
+  private static boolean isGregorianWithAsciiDigits( SimpleDateFormat format ) {
+    Calendar calendar = format.getCalendar();
+    if ( calendar.getClass() != GregorianCalendar.class
+      || ( (GregorianCalendar) calendar ).getGregorianChange().getTime() > GREGORIAN_CUTOVER ) {
+      return false;
+    }
+    NumberFormat numberFormat = format.getNumberFormat();
+    return numberFormat instanceof DecimalFormat
+      && ( (DecimalFormat) numberFormat ).getDecimalFormatSymbols().getZeroDigit() == '0';
+  }
+
+  /**
+   * @param format a date format
+   * @return true if this was compiled from the given format
+   */
+  boolean isCompiledFrom( SimpleDateFormat format ) {
+    return source == format;
+  }
+
+  /**
+   * Parses a date the way the SimpleDateFormat would.
+   *
+   * @param text the text to parse
+   * @return the date or null if the text needs to be parsed by the SimpleDateFormat
+   */
+  Date parse( CharSequence text ) {
+    if ( layout == null || text.length() != layout.length ) {
+      return null;
+    }
+
+    int year = 0;
+    int month = 0;
+    int day = 0;
+    int hour = 0;
+    int minute = 0;
+    int second = 0;
+    int millis = 0;
+    for ( int i = 0; i < layout.length; i++ ) {
+      char c = text.charAt( i );
+      if ( !numeric[ i ] ) {
+        if ( c != layout[ i ] ) {
+          return null;
+        }
+        continue;
+      }
+      int digit = c - '0';
+      if ( digit < 0 || digit > 9 ) {
+        return null;
+      }
+      switch ( layout[ i ] ) {
+        case 'y':
+          year = year * 10 + digit;
+          break;
+        case 'M':
+          month = month * 10 + digit;
+          break;
+        case 'd':
+          day = day * 10 + digit;
+          break;
+        case 'H':
+          hour = hour * 10 + digit;
+          break;
+        case 'm':
+          minute = minute * 10 + digit;
+          break;
+        case 's':
+          second = second * 10 + digit;
+          break;
+        default:
+          millis = millis * 10 + digit;
+          break;
+      }
+    }
+
+    // Values out of range are an error or are rolled over by a lenient format, leave that to SimpleDateFormat
+    //
+    if ( year < MIN_YEAR || year > MAX_YEAR || month < 1 || month > 12 || day < 1 || day > lengthOfMonth( year, month )
+      || hour > 23 || minute > 59 || second > 59 ) {
+      return null;
+    }
+
+    long local = ( ( ( toEpochDay( year, month, day ) * 24 + hour ) * 60 + minute ) * 60 + second ) * 1000 + millis;
+    int offset = timeZone.getOffset( local - timeZone.getRawOffset() );
+    long time = local - offset;
+
+    // Local times in or close to a daylight saving gap or overlap are resolved by the Calendar
+    //
+    if ( timeZone.getOffset( time ) != offset || timeZone.getOffset( time - MILLIS_PER_DAY ) != offset
+      || timeZone.getOffset( time + MILLIS_PER_DAY ) != offset ) {
+      return null;
+    }
+    return new Date( time );
+  }
+
+  /**
+   * Formats a date the way the SimpleDateFormat would.
+   *
+   * @param date the date to format, not null
+   * @return the formatted date or null if the date needs to be formatted by the SimpleDateFormat
+   */
+  String format( Date date ) {
+    if ( layout == null ) {
+      return null;
+    }
+
+    long time = date.getTime();
+    long local = time + timeZone.getOffset( time );
+    long epochDay = Math.floorDiv( local, MILLIS_PER_DAY );
+    int millisOfDay = (int) Math.floorMod( local, MILLIS_PER_DAY );
+
+    // Convert the day to year, month and day using a year that starts in March
+    //
+    long days = epochDay + DAYS_0000_TO_1970;
+    long era = Math.floorDiv( days, 146097 );
+    int dayOfEra = (int) ( days - era * 146097 );
+    int yearOfEra = ( dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096 ) / 365;
+    int dayOfYear = dayOfEra - ( 365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100 );
+    int shiftedMonth = ( 5 * dayOfYear + 2 ) / 153;
+    int day = dayOfYear - ( 153 * shiftedMonth + 2 ) / 5 + 1;
+    int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+    long year = yearOfEra + era * 400 + ( month <= 2 ? 1 : 0 );
+    if ( year < MIN_YEAR || year > MAX_YEAR ) {
+      return null;
+    }
+
+    int millis = millisOfDay % 1000;
+    int second = millisOfDay / 1000 % 60;
+    int minute = millisOfDay / 60000 % 60;
+    int hour = millisOfDay / 3600000;
+    int yearValue = (int) year;
+
+    // Fill in the digits from right to left
+    //
+    char[] text = layout.clone();
+    for ( int i = text.length - 1; i >= 0; i-- ) {
+      if ( !numeric[ i ] ) {
+        continue;
+      }
+      switch ( layout[ i ] ) {
+        case 'y':
+          text[ i ] = (char) ( '0' + yearValue % 10 );
+          yearValue /= 10;
+          break;
+        case 'M':
+          text[ i ] = (char) ( '0' + month % 10 );
+          month /= 10;
+          break;
+        case 'd':
+          text[ i ] = (char) ( '0' + day % 10 );
+          day /= 10;
+          break;
+        case 'H':
+          text[ i ] = (char) ( '0' + hour % 10 );
+          hour /= 10;
+          break;
+        case 'm':
+          text[ i ] = (char) ( '0' + minute % 10 );
+          minute /= 10;
+          break;
+        case 's':
+          text[ i ] = (char) ( '0' + second % 10 );
+          second /= 10;
+          break;
+        default:
+          text[ i ] = (char) ( '0' + millis % 10 );
+          millis /= 10;
+          break;
+      }
+    }
+    return new String( text );
+  }
+
+  private static boolean isLeapYear( int year ) {
+    return ( year & 3 ) == 0 && ( year % 100 != 0 || year % 400 == 0 );
+  }
+
+  private static int lengthOfMonth( int year, int month ) {
+    switch ( month ) {
+      case 2:
+        return isLeapYear( year ) ? 29 : 28;
+      case 4:
+      case 6:
+      case 9:
+      case 11:
+        return 30;
+      default:
+        return 31;
+    }
+  }
+
+  /**
+   * @return the number of days since 1970-01-01 in the proleptic Gregorian calendar
+   */
+  private static long toEpochDay( int year, int month, int day ) {
+    // Count from a year that starts in March so that the leap day is the last day of the year
+    //
+    int y = month <= 2 ? year - 1 : year;
+    int era = y / 400;
+    int yearOfEra = y - era * 400;
+    int dayOfYear = ( 153 * ( month > 2 ? month - 3 : month + 9 ) + 2 ) / 5 + day - 1;
+    int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * 146097L + dayOfEra - DAYS_0000_TO_1970;
+  }
+}
@@ -0,0 +1,215 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.row.value;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+
+/**
+ * An immutable, thread-safe copy of a {@link DecimalFormat} for plain numbers. It parses integers and decimals that
+ * only consist of an optional minus sign, digits and a decimal symbol, and it formats integers without grouping or
+ * fraction digits. This covers the default masks of Kettle.<br>
+ * <br>
+ * Anything else (grouping symbols, exponents, currency symbols, very long numbers, ...) makes the methods return null
+ * and the caller needs to use the DecimalFormat, so results and errors stay exactly the same.
+ *
+ * @since 11.0
+ */
+final class CompiledDecimalFormat {
+
+  /** More digits might not fit in a long. */
+  private static final int MAX_DIGITS = 18;
+
+  /** Up to this mantissa a double division by a power of ten is correctly rounded. */
+  private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+  /** The number of digits of Long.MAX_VALUE. */
+  private static final int MAX_LONG_DIGITS = 19;
+
+  private static final double[] POWERS_OF_TEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, };
+
+  private final DecimalFormat source;
+
+  private final boolean parseSupported;
+  private final char minusSign;
+  private final char decimalSeparator;
+
+  private final boolean formatSupported;
+  private final String positivePrefix;
+  private final String positiveSuffix;
+  private final String negativePrefix;
+  private final String negativeSuffix;
+  private final int minimumIntegerDigits;
+
+  private CompiledDecimalFormat( DecimalFormat format ) {
+    this.source = format;
+
+    DecimalFormatSymbols symbols = format.getDecimalFormatSymbols();
+    boolean plain = format.getClass() == DecimalFormat.class && symbols.getZeroDigit() == '0'
+      && format.getMultiplier() == 1 && !hasExponent( format.toPattern() );
+
+    positivePrefix = format.getPositivePrefix();
+    positiveSuffix = format.getPositiveSuffix();
+    negativePrefix = format.getNegativePrefix();
+    negativeSuffix = format.getNegativeSuffix();
+    minimumIntegerDigits = format.getMinimumIntegerDigits();
+
+    minusSign = negativePrefix.length() == 1 ? negativePrefix.charAt( 0 ) : '0';
+    decimalSeparator = symbols.getDecimalSeparator();
+    parseSupported = plain && !format.isParseBigDecimal() && !format.isParseIntegerOnly()
+      && positivePrefix.isEmpty() && positiveSuffix.isEmpty() && negativeSuffix.isEmpty()
+      && !isDigit( minusSign ) && !isDigit( decimalSeparator ) && minusSign != decimalSeparator;
+
+    formatSupported = plain && format.getMinimumFractionDigits() == 0 && !format.isDecimalSeparatorAlwaysShown()
+      && ( !format.isGroupingUsed() || format.getGroupingSize() == 0 )
+      && format.getMaximumIntegerDigits() >= MAX_LONG_DIGITS && minimumIntegerDigits <= MAX_LONG_DIGITS;
+  }
+
+  /**
+   * Compiles a decimal format. The format should not be changed afterwards.
+   *
+   * @param format the format to compile, not null
+   * @return the compiled format
+   */
+  static CompiledDecimalFormat compile( DecimalFormat format ) {
+    return new CompiledDecimalFormat( format );
+  }
+
+  private static boolean hasExponent( String pattern ) {
+    boolean quoted = false;
+    for ( int i = 0; i < pattern.length(); i++ ) {
+      char c = pattern.charAt( i );
+      if ( c == '\'' ) {
+        quoted = !quoted;
+      } else if ( c == 'E' && !quoted ) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isDigit( char c ) {
+    return c >= '0' && c <= '9';
+  }
+
+  /**
+   * @param format a decimal format
+   * @return true if this was compiled from the given format
+   */
+  boolean isCompiledFrom( DecimalFormat format ) {
+    return source == format;
+  }
+
+  /**
+   * Parses an integer without a decimal part.
+   *
+   * @param text the text to parse
+   * @return the value or null if the text needs to be parsed by the DecimalFormat
+   */
+  Long parseLong( CharSequence text ) {
+    if ( !parseSupported ) {
+      return null;
+    }
+    int length = text.length();
+    int i = 0;
+    boolean negative = false;
+    if ( length > 0 && text.charAt( 0 ) == minusSign ) {
+      negative = true;
+      i++;
+    }
+    int digits = length - i;
+    if ( digits == 0 || digits > MAX_DIGITS ) {
+      return null;
+    }
+    long value = 0;
+    for ( ; i < length; i++ ) {
+      char c = text.charAt( i );
+      if ( !isDigit( c ) ) {
+        return null;
+      }
+      value = value * 10 + ( c - '0' );
+    }
+    return negative ? -value : value;
+  }
+
+  /**
+   * Parses a number with an optional decimal part.
+   *
+   * @param text the text to parse
+   * @return the value or null if the text needs to be parsed by the DecimalFormat
+   */
+  Double parseDouble( CharSequence text ) {
+    if ( !parseSupported ) {
+      return null;
+    }
+    int length = text.length();
+    int i = 0;
+    boolean negative = false;
+    if ( length > 0 && text.charAt( 0 ) == minusSign ) {
+      negative = true;
+      i++;
+    }
+
+    long mantissa = 0;
+    int digits = 0;
+    int fractionDigits = -1;
+    for ( ; i < length; i++ ) {
+      char c = text.charAt( i );
+      if ( isDigit( c ) ) {
+        if ( ++digits > MAX_DIGITS ) {
+          return null;
+        }
+        mantissa = mantissa * 10 + ( c - '0' );
+        if ( fractionDigits >= 0 ) {
+          fractionDigits++;
+        }
+      } else if ( c == decimalSeparator && fractionDigits < 0 && digits > 0 ) {
+        fractionDigits = 0;
+      } else {
+        return null;
+      }
+    }
+    if ( digits == 0 || fractionDigits == 0 || mantissa > MAX_EXACT_MANTISSA ) {
+      return null;
+    }
+
+    double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[ fractionDigits ] : mantissa;
+    return negative ? -value : value;
+  }
+
+  /**
+   * Formats an integer the way the DecimalFormat would.
+   *
+   * @param value the value to format
+   * @return the formatted value or null if the value needs to be formatted by the DecimalFormat
+   */
+  String format( long value ) {
+    if ( !formatSupported || value == Long.MIN_VALUE ) {
+      return null;
+    }
+    boolean negative = value < 0;
+    String digits = Long.toString( negative ? -value : value );
+    String prefix = negative ? negativePrefix : positivePrefix;
+    String suffix = negative ? negativeSuffix : positiveSuffix;
+    int padding = Math.max( minimumIntegerDigits - digits.length(), 0 );
+
+    StringBuilder builder = new StringBuilder( prefix.length() + padding + digits.length() + suffix.length() );
+    builder.append( prefix );
+    for ( int i = 0; i < padding; i++ ) {
+      builder.append( '0' );
+    }
+    return builder.append( digits ).append( suffix ).toString();
+  }
+}
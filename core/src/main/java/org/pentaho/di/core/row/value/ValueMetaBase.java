@@ -152,6 +152,13 @@ public class ValueMetaBase implements ValueMetaInterface {
   protected DecimalFormat decimalFormat;
   protected boolean decimalFormatChanged;
 
+  /**
+   * Thread-safe copies of dateFormat and decimalFormat for the common masks. Conversions that they can handle don't
+   * need to lock this value metadata.
+   */
+  private volatile CompiledDateFormat compiledDateFormat;
+  private volatile CompiledDecimalFormat compiledDecimalFormat;
+
   protected ValueMetaInterface storageMetadata;
   protected boolean identicalFormat;
 
@@ -432,6 +439,8 @@ public class ValueMetaBase implements ValueMetaInterface {
       ValueMetaBase valueMeta = (ValueMetaBase) super.clone();
       valueMeta.dateFormat = null;
       valueMeta.decimalFormat = null;
+      valueMeta.compiledDateFormat = null;
+      valueMeta.compiledDecimalFormat = null;
       if ( dateFormatLocale != null ) {
         valueMeta.dateFormatLocale = (Locale) dateFormatLocale.clone();
       }
@@ -780,6 +789,21 @@ public class ValueMetaBase implements ValueMetaInterface {
     }
   }
 
+  /**
+   * @return the collator used to compare strings when the collator isn't disabled. Like all collators it's not thread
+   *         safe.
+   */
+  public Collator getCollator() {
+    return collator;
+  }
+
+  /**
+   * @return the comparator given at construction time, null if the values are compared according to their type
+   */
+  public Comparator<Object> getComparator() {
+    return comparator;
+  }
+
   /**
    * @get the collatorStrength
    */
@@ -893,24 +917,55 @@ public class ValueMetaBase implements ValueMetaInterface {
 
   // DATE + STRING
 
-  protected synchronized String convertDateToString( Date date ) {
+  protected String convertDateToString( Date date ) {
     if ( date == null ) {
       return null;
     }
 
-    return getDateFormat().format( date );
+    CompiledDateFormat compiled = getCompiledDateFormat();
+    if ( compiled != null ) {
+      String string = compiled.format( date );
+      if ( string != null ) {
+        return string;
+      }
+    }
+
+    synchronized ( this ) {
+      SimpleDateFormat format = getDateFormat();
+      compileDateFormat( format );
+      return format.format( date );
+    }
   }
 
   protected static SimpleDateFormat compatibleDateFormat = new SimpleDateFormat( COMPATIBLE_DATE_FORMAT_PATTERN );
 
-  protected synchronized String convertDateToCompatibleString( Date date ) {
+  private static volatile CompiledDateFormat compiledCompatibleDateFormat;
+
+  protected String convertDateToCompatibleString( Date date ) {
     if ( date == null ) {
       return null;
     }
-    return compatibleDateFormat.format( date );
+
+    // The compatible format is shared by all value metadata
+    //
+    SimpleDateFormat format = compatibleDateFormat;
+    CompiledDateFormat compiled = compiledCompatibleDateFormat;
+    if ( compiled == null || !compiled.isCompiledFrom( format ) ) {
+      synchronized ( format ) {
+        compiled = CompiledDateFormat.compile( format );
+      }
+      compiledCompatibleDateFormat = compiled;
+    }
+    String string = compiled.format( date );
+    if ( string != null ) {
+      return string;
+    }
+    synchronized ( format ) {
+      return format.format( date );
+    }
   }
 
-  protected synchronized Date convertStringToDate( String string ) throws KettleValueException {
+  protected Date convertStringToDate( String string ) throws KettleValueException {
     string = Const.trimToType( string, getTrimType() ); // see if trimming needs
     // to be performed before
     // conversion
@@ -919,21 +974,81 @@ public class ValueMetaBase implements ValueMetaInterface {
       return null;
     }
 
-    try {
-      ParsePosition pp = new ParsePosition( 0 );
-      Date result = getDateFormat( TYPE_DATE ).parse( string, pp );
-      if ( pp.getErrorIndex() >= 0 ) {
-        // error happen
-        throw new ParseException( string, pp.getErrorIndex() );
+    CompiledDateFormat compiled = getCompiledDateFormat();
+    if ( compiled != null ) {
+      Date date = compiled.parse( string );
+      if ( date != null ) {
+        return date;
+      }
+    }
+
+    synchronized ( this ) {
+      try {
+        ParsePosition pp = new ParsePosition( 0 );
+        SimpleDateFormat format = getDateFormat( TYPE_DATE );
+        compileDateFormat( format );
+        Date result = format.parse( string, pp );
+        if ( pp.getErrorIndex() >= 0 ) {
+          // error happen
+          throw new ParseException( string, pp.getErrorIndex() );
+        }
+        // some chars can be after pp.getIndex(). That means, not full value was parsed. For example, for value
+        // "25-03-1918 11:54" and format "dd-MM-yyyy", value will be "25-03-1918 00:00" without any exception.
+        // If there are only spaces after pp.getIndex() - that means full values was parsed
+        return result;
+      } catch ( ParseException e ) {
+        String dateFormat = ( getDateFormat() != null ) ? getDateFormat().toPattern() : "null";
+        throw new KettleValueException( toString() + " : couldn't convert string [" + string
+            + "] to a date using format [" + dateFormat + "] on offset location " + e.getErrorOffset(), e );
+      }
+    }
+  }
+
+  /**
+   * @return the compiled copy of the current date format or null if the date format needs to be used.
+   */
+  private CompiledDateFormat getCompiledDateFormat() {
+    CompiledDateFormat compiled = compiledDateFormat;
+    if ( compiled != null && !dateFormatChanged && compiled.isCompiledFrom( dateFormat ) ) {
+      return compiled;
+    }
+    return null;
+  }
+
+  /**
+   * Compiles the date format that is used for the conversions, if that is the cached date format of this value
+   * metadata. Needs to be called while holding the lock.
+   */
+  private void compileDateFormat( SimpleDateFormat format ) {
+    if ( format != null && format == dateFormat ) {
+      CompiledDateFormat compiled = compiledDateFormat;
+      if ( compiled == null || !compiled.isCompiledFrom( format ) ) {
+        compiledDateFormat = CompiledDateFormat.compile( format );
+      }
+    }
+  }
+
+  /**
+   * @return the compiled copy of the current decimal format or null if the decimal format needs to be used.
+   */
+  private CompiledDecimalFormat getCompiledDecimalFormat() {
+    CompiledDecimalFormat compiled = compiledDecimalFormat;
+    if ( compiled != null && !decimalFormatChanged && compiled.isCompiledFrom( decimalFormat ) ) {
+      return compiled;
+    }
+    return null;
+  }
+
+  /**
+   * Compiles the decimal format that is used for the conversions, if that is the cached decimal format of this value
+   * metadata. Needs to be called while holding the lock.
+   */
+  private void compileDecimalFormat( DecimalFormat format ) {
+    if ( format != null && format == decimalFormat ) {
+      CompiledDecimalFormat compiled = compiledDecimalFormat;
+      if ( compiled == null || !compiled.isCompiledFrom( format ) ) {
+        compiledDecimalFormat = CompiledDecimalFormat.compile( format );
       }
-      // some chars can be after pp.getIndex(). That means, not full value was parsed. For example, for value
-      // "25-03-1918 11:54" and format "dd-MM-yyyy", value will be "25-03-1918 00:00" without any exception.
-      // If there are only spaces after pp.getIndex() - that means full values was parsed
-      return result;
-    } catch ( ParseException e ) {
-      String dateFormat = ( getDateFormat() != null ) ? getDateFormat().toPattern() : "null";
-      throw new KettleValueException( toString() + " : couldn't convert string [" + string
-          + "] to a date using format [" + dateFormat + "] on offset location " + e.getErrorOffset(), e );
     }
   }
 
@@ -999,14 +1114,14 @@ public class ValueMetaBase implements ValueMetaInterface {
     }
   }
 
-  protected synchronized String convertNumberToCompatibleString( Double number ) throws KettleValueException {
+  protected String convertNumberToCompatibleString( Double number ) throws KettleValueException {
     if ( number == null ) {
       return null;
     }
     return Double.toString( number );
   }
 
-  protected synchronized Double convertStringToNumber( String string ) throws KettleValueException {
+  protected Double convertStringToNumber( String string ) throws KettleValueException {
     string = Const.trimToType( string, getTrimType() ); // see if trimming needs
     // to be performed before
     // conversion
@@ -1015,8 +1130,23 @@ public class ValueMetaBase implements ValueMetaInterface {
       return null;
     }
 
+    CompiledDecimalFormat compiled = getCompiledDecimalFormat();
+    if ( compiled != null ) {
+      Double number = compiled.parseDouble( string );
+      if ( number != null ) {
+        return number;
+      }
+    }
+
+    synchronized ( this ) {
+      return convertStringToNumberUsingFormat( string );
+    }
+  }
+
+  private Double convertStringToNumberUsingFormat( String string ) throws KettleValueException {
     try {
       DecimalFormat format = getDecimalFormat( false );
+      compileDecimalFormat( format );
       Number number;
       if ( lenientStringToNumber ) {
         number = format.parse( string );
@@ -1287,7 +1417,7 @@ public class ValueMetaBase implements ValueMetaInterface {
     return numberPattern.toString();
   }
 
-  protected synchronized String convertIntegerToString( Long integer ) throws KettleValueException {
+  protected String convertIntegerToString( Long integer ) throws KettleValueException {
     if ( integer == null ) {
       if ( !outputPaddingEnabled || length < 1 ) {
         return null;
@@ -1305,21 +1435,33 @@ public class ValueMetaBase implements ValueMetaInterface {
       }
     }
 
-    try {
-      return getDecimalFormat( false ).format( integer );
-    } catch ( Exception e ) {
-      throw new KettleValueException( toString() + " : couldn't convert Long to String ", e );
+    CompiledDecimalFormat compiled = getCompiledDecimalFormat();
+    if ( compiled != null ) {
+      String string = compiled.format( integer );
+      if ( string != null ) {
+        return string;
+      }
+    }
+
+    synchronized ( this ) {
+      try {
+        DecimalFormat format = getDecimalFormat( false );
+        compileDecimalFormat( format );
+        return format.format( integer );
+      } catch ( Exception e ) {
+        throw new KettleValueException( toString() + " : couldn't convert Long to String ", e );
+      }
     }
   }
 
-  protected synchronized String convertIntegerToCompatibleString( Long integer ) throws KettleValueException {
+  protected String convertIntegerToCompatibleString( Long integer ) throws KettleValueException {
     if ( integer == null ) {
       return null;
     }
     return Long.toString( integer );
   }
 
-  protected synchronized Long convertStringToInteger( String string ) throws KettleValueException {
+  protected Long convertStringToInteger( String string ) throws KettleValueException {
     string = Const.trimToType( string, getTrimType() ); // see if trimming needs
     // to be performed before
     // conversion
@@ -1328,13 +1470,29 @@ public class ValueMetaBase implements ValueMetaInterface {
       return null;
     }
 
+    CompiledDecimalFormat compiled = getCompiledDecimalFormat();
+    if ( compiled != null ) {
+      Long number = compiled.parseLong( string );
+      if ( number != null ) {
+        return number;
+      }
+    }
+
+    synchronized ( this ) {
+      return convertStringToIntegerUsingFormat( string );
+    }
+  }
+
+  private Long convertStringToIntegerUsingFormat( String string ) throws KettleValueException {
     try {
+      DecimalFormat format = getDecimalFormat( false );
+      compileDecimalFormat( format );
       Number number;
       if ( lenientStringToNumber ) {
-        number = getDecimalFormat( false ).parse( string );
+        number = format.parse( string );
       } else {
         ParsePosition parsePosition = new ParsePosition( 0 );
-        number = getDecimalFormat( false ).parse( string, parsePosition );
+        number = format.parse( string, parsePosition );
 
         if ( parsePosition.getIndex() < string.length() ) {
           throw new KettleValueException( toString()
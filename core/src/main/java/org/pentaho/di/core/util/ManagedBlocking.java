@@ -0,0 +1,101 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.locks.Condition;
+
+/**
+ * Helps blocking code cooperate with a {@link ForkJoinPool}. A worker of such a pool that blocks would otherwise
+ * take a thread away from the pool, when all workers block that way nothing can make progress anymore. By running the
+ * wait as a {@link ForkJoinPool.ManagedBlocker} the pool can activate a spare worker for the time being.<br>
+ * <br>
+ * Outside of a fork/join pool the wait is simply executed in the calling thread.
+ */
+public class ManagedBlocking {
+
+  /**
+   * A wait that can block the current thread.
+   *
+   * @param <T> the result of the wait
+   */
+  @FunctionalInterface
+  public interface Wait<T> {
+    T await() throws InterruptedException;
+  }
+
+  private ManagedBlocking() {
+  }
+
+  /**
+   * @return true if the current thread is a worker of a fork/join pool and waits should be managed
+   */
+  public static boolean isManaged() {
+    return ForkJoinTask.inForkJoinPool();
+  }
+
+  /**
+   * Runs a wait, letting the fork/join pool compensate for the blocked worker if needed.
+   *
+   * @param wait the wait to run
+   * @return the result of the wait
+   * @throws InterruptedException if the thread was interrupted while waiting
+   */
+  public static <T> T await( Wait<T> wait ) throws InterruptedException {
+    if ( !isManaged() ) {
+      return wait.await();
+    }
+    Blocker<T> blocker = new Blocker<>( wait );
+    ForkJoinPool.managedBlock( blocker );
+    return blocker.result;
+  }
+
+  /**
+   * Same as {@link Condition#awaitNanos(long)}, timed condition waits are not managed by the pool by themselves.
+   *
+   * @param condition the condition to wait for, its lock needs to be held
+   * @param nanos     the maximum time to wait
+   * @return the estimate of the remaining time, zero or less if the time elapsed
+   * @throws InterruptedException if the thread was interrupted while waiting
+   */
+  public static long awaitNanos( Condition condition, long nanos ) throws InterruptedException {
+    if ( !isManaged() ) {
+      return condition.awaitNanos( nanos );
+    }
+    return await( () -> condition.awaitNanos( nanos ) );
+  }
+
+  private static class Blocker<T> implements ForkJoinPool.ManagedBlocker {
+    private final Wait<T> wait;
+    private boolean done;
+    private T result;
+
+    Blocker( Wait<T> wait ) {
+      this.wait = wait;
+    }
+
+    @Override
+    public boolean block() throws InterruptedException {
+      result = wait.await();
+      done = true;
+      return true;
+    }
+
+    @Override
+    public boolean isReleasable() {
+      return done;
+    }
+  }
+}
@@ -0,0 +1,99 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.util;
+
+import java.lang.reflect.Method;
+
+/**
+ * Access to virtual threads (JDK 21 and later) without requiring them at compile time. On older JVMs, or when the
+ * virtual threads are a preview feature that is not enabled, {@link #isSupported()} returns false and
+ * {@link #newThread(String, Runnable)} returns null.<br>
+ * <br>
+ * The number of carrier threads that run the virtual threads is bounded by the JVM, it can be tuned with the
+ * jdk.virtualThreadScheduler.parallelism and jdk.virtualThreadScheduler.maxPoolSize system properties.
+ */
+public class VirtualThreads {
+  private static final Method OF_VIRTUAL;
+  private static final Method BUILDER_NAME;
+  private static final Method BUILDER_UNSTARTED;
+  private static final Method IS_VIRTUAL;
+
+  static {
+    Method ofVirtual = null;
+    Method builderName = null;
+    Method builderUnstarted = null;
+    Method isVirtual = null;
+    try {
+      ofVirtual = Thread.class.getMethod( "ofVirtual" );
+      Class<?> builderClass = Class.forName( "java.lang.Thread$Builder" );
+      builderName = builderClass.getMethod( "name", String.class );
+      builderUnstarted = builderClass.getMethod( "unstarted", Runnable.class );
+      isVirtual = Thread.class.getMethod( "isVirtual" );
+
+      // Make sure we can actually create them (they are a preview feature in JDK 19 and 20)
+      //
+      builderUnstarted.invoke( ofVirtual.invoke( null ), (Runnable) () -> { } );
+    } catch ( Exception | LinkageError e ) {
+      ofVirtual = null;
+    }
+    OF_VIRTUAL = ofVirtual;
+    BUILDER_NAME = builderName;
+    BUILDER_UNSTARTED = builderUnstarted;
+    IS_VIRTUAL = isVirtual;
+  }
+
+  private VirtualThreads() {
+  }
+
+  /**
+   * @return true if this JVM can create virtual threads
+   */
+  public static boolean isSupported() {
+    return OF_VIRTUAL != null;
+  }
+
+  /**
+   * Creates a virtual thread that isn't started yet.
+   *
+   * @param name     the name of the thread
+   * @param runnable what the thread should do
+   * @return the new thread or null if virtual threads are not supported
+   */
+  public static Thread newThread( String name, Runnable runnable ) {
+    if ( OF_VIRTUAL == null ) {
+      return null;
+    }
+    try {
+      Object builder = BUILDER_NAME.invoke( OF_VIRTUAL.invoke( null ), name );
+      return (Thread) BUILDER_UNSTARTED.invoke( builder, runnable );
+    } catch ( Exception e ) {
+      return null;
+    }
+  }
+
+  /**
+   * @param thread a thread
+   * @return true if the thread is a virtual thread
+   */
+  public static boolean isVirtual( Thread thread ) {
+    if ( OF_VIRTUAL == null ) {
+      return false;
+    }
+    try {
+      return (Boolean) IS_VIRTUAL.invoke( thread );
+    } catch ( Exception e ) {
+      return false;
+    }
+  }
+}
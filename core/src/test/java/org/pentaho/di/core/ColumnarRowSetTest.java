@@ -0,0 +1,143 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core;
+
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.columnar.ColumnarRowBatch;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.junit.rules.RestorePDIEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ColumnarRowSetTest {
+  @ClassRule public static RestorePDIEnvironment env = new RestorePDIEnvironment();
+
+  RowMetaInterface rowMeta;
+  ColumnarRowSet rowSet;
+
+  @Before
+  public void setup() {
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaInteger( "id" ) );
+    rowSet = new ColumnarRowSet( 4 );
+  }
+
+  private ColumnarRowBatch createBatch( long from, int n ) {
+    Object[][] rows = new Object[ n ][];
+    for ( int i = 0; i < n; i++ ) {
+      rows[ i ] = new Object[] { from + i };
+    }
+    return ColumnarRowBatch.fromRows( rowMeta, rows, n );
+  }
+
+  @Test
+  public void testPutRowGetRow() throws Exception {
+    assertTrue( rowSet.putRow( rowMeta, new Object[] { 1L } ) );
+    assertEquals( 1, rowSet.size() );
+    assertEquals( 1L, rowSet.getRow()[0] );
+    assertSame( rowMeta, rowSet.getRowMeta() );
+    assertNull( rowSet.getRowImmediate() );
+  }
+
+  @Test
+  public void testNullRowIsRefused() throws Exception {
+    assertFalse( rowSet.putRow( rowMeta, null ) );
+    assertEquals( 0, rowSet.size() );
+  }
+
+  @Test
+  public void testBatchIsSplitOnRead() throws Exception {
+    ColumnarRowBatch batch = createBatch( 0, 3 );
+    assertTrue( rowSet.putBatch( rowMeta, batch ) );
+    assertEquals( 3, rowSet.size() );
+
+    ColumnarRowBatch first = rowSet.getBatch( 2 );
+    assertEquals( 2, first.size() );
+    assertEquals( 1L, first.getRow( 1 )[0] );
+    assertEquals( 1, rowSet.size() );
+
+    assertEquals( 2L, rowSet.getRow()[0] );
+    assertNull( rowSet.getBatchWait( 10, 1, TimeUnit.MILLISECONDS ) );
+  }
+
+  @Test
+  public void testWholeBatchIsReturnedAsIs() throws Exception {
+    ColumnarRowBatch batch = createBatch( 0, 3 );
+    rowSet.putBatch( rowMeta, batch );
+    assertSame( batch, rowSet.getBatch( 10 ) );
+  }
+
+  @Test
+  public void testCapacity() throws Exception {
+    assertTrue( rowSet.putBatchWait( rowMeta, createBatch( 0, 3 ), 0, TimeUnit.MILLISECONDS ) );
+    assertFalse( rowSet.putBatchWait( rowMeta, createBatch( 3, 2 ), 1, TimeUnit.MILLISECONDS ) );
+    assertTrue( rowSet.putBatchWait( rowMeta, createBatch( 3, 1 ), 0, TimeUnit.MILLISECONDS ) );
+    assertEquals( 4, rowSet.size() );
+
+    // A batch larger than the row set is accepted once the row set is empty
+    ColumnarRowSet small = new ColumnarRowSet( 2 );
+    assertTrue( small.putBatchWait( rowMeta, createBatch( 0, 5 ), 0, TimeUnit.MILLISECONDS ) );
+    assertEquals( 5, small.size() );
+  }
+
+  @Test
+  public void testPutRowsGetRows() throws Exception {
+    Object[][] rows = new Object[][] { { 0L }, { 1L }, null, { 3L } };
+
+    // The rows up to the first null are added as a single batch
+    assertEquals( 2, rowSet.putRows( rowMeta, rows, 0, 4 ) );
+    Object[][] result = rowSet.getRows( 10 );
+    assertEquals( 2, result.length );
+    assertEquals( 0L, result[0][0] );
+    assertEquals( 1L, result[1][0] );
+    assertNull( rowSet.getRows( 10 ) );
+  }
+
+  @Test
+  public void testSingleProducerSingleConsumer() throws Exception {
+    final int nrBatches = 1000;
+    final ColumnarRowSet set = new ColumnarRowSet( 64 );
+    Thread producer = new Thread( () -> {
+      for ( int i = 0; i < nrBatches; i++ ) {
+        while ( !set.putBatch( rowMeta, createBatch( i * 10L, 10 ) ) ) {
+          // retry
+        }
+      }
+      set.setDone();
+    } );
+    producer.start();
+
+    long expected = 0;
+    while ( !set.isDone() || set.size() > 0 ) {
+      ColumnarRowBatch batch = set.getBatchWait( 7, 10, TimeUnit.MILLISECONDS );
+      if ( batch != null ) {
+        for ( int i = 0; i < batch.size(); i++ ) {
+          assertEquals( expected++, batch.getRow( i )[0] );
+        }
+      }
+    }
+    producer.join();
+    assertEquals( nrBatches * 10L, expected );
+  }
+}
@@ -0,0 +1,153 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pentaho.di.core.row.RowMeta;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RingBufferRowSetTest {
+  Object[] row;
+  RingBufferRowSet rowSet;
+
+  @Before
+  public void setup() {
+    rowSet = new RingBufferRowSet( 3 );
+    row = new Object[]{};
+  }
+
+  @Test
+  public void testPutRow() throws Exception {
+    assertTrue( rowSet.putRow( new RowMeta(), row ) );
+    assertSame( row, rowSet.getRow() );
+  }
+
+  @Test
+  public void testPutRowWait() throws Exception {
+    rowSet.putRowWait( new RowMeta(), row, 1, TimeUnit.SECONDS );
+    assertSame( row, rowSet.getRowWait( 1, TimeUnit.SECONDS ) );
+  }
+
+  @Test
+  public void testGetRowImmediate() throws Exception {
+    assertNull( rowSet.getRowImmediate() );
+    rowSet.putRow( new RowMeta(), row );
+    assertSame( row, rowSet.getRowImmediate() );
+  }
+
+  @Test
+  public void testNullRowIsRefused() throws Exception {
+    assertFalse( rowSet.putRow( new RowMeta(), null ) );
+    assertEquals( 0, rowSet.size() );
+  }
+
+  @Test
+  public void testCapacityIsMaxSize() throws Exception {
+    // The ring itself is rounded up to 4 slots but the row set only accepts 3 rows
+    for ( int i = 0; i < 3; i++ ) {
+      assertTrue( rowSet.putRowWait( new RowMeta(), new Object[] { i }, 0, TimeUnit.MILLISECONDS ) );
+    }
+    assertFalse( rowSet.putRowWait( new RowMeta(), row, 1, TimeUnit.MILLISECONDS ) );
+    assertEquals( 3, rowSet.size() );
+
+    assertEquals( 0, rowSet.getRow()[0] );
+    assertTrue( rowSet.putRowWait( new RowMeta(), new Object[] { 3 }, 0, TimeUnit.MILLISECONDS ) );
+    assertEquals( 1, rowSet.getRow()[0] );
+    assertEquals( 2, rowSet.getRow()[0] );
+    assertEquals( 3, rowSet.getRow()[0] );
+    assertNull( rowSet.getRowWait( 1, TimeUnit.MILLISECONDS ) );
+  }
+
+  @Test
+  public void testSize() throws Exception {
+    assertEquals( 0, rowSet.size() );
+    rowSet.putRow( new RowMeta(), row );
+    assertEquals( 1, rowSet.size() );
+    rowSet.putRow( new RowMeta(), row );
+    assertEquals( 2, rowSet.size() );
+    rowSet.setDone();
+    rowSet.clear();
+    assertEquals( 0, rowSet.size() );
+    assertFalse( rowSet.isDone() );
+    assertNull( rowSet.getRowImmediate() );
+  }
+
+  @Test
+  public void testPutRowsGetRows() throws Exception {
+    Object[][] rows = new Object[][] { { 0 }, { 1 }, { 2 }, { 3 }, { 4 } };
+
+    // Only 3 rows fit in the row set
+    assertEquals( 3, rowSet.putRows( new RowMeta(), rows, 5 ) );
+    assertEquals( 3, rowSet.size() );
+
+    Object[][] batch = rowSet.getRows( 2 );
+    assertEquals( 2, batch.length );
+    assertSame( rows[0], batch[0] );
+    assertSame( rows[1], batch[1] );
+
+    assertEquals( 2, rowSet.putRows( new RowMeta(), rows, 3, 2 ) );
+    batch = rowSet.getRows( 10 );
+    assertEquals( 3, batch.length );
+    assertSame( rows[2], batch[0] );
+    assertSame( rows[3], batch[1] );
+    assertSame( rows[4], batch[2] );
+
+    assertNull( rowSet.getRows( 10 ) );
+  }
+
+  @Test
+  public void testSingleProducerSingleConsumer() throws Exception {
+    final int nrRows = 100000;
+    final RingBufferRowSet set = new RingBufferRowSet( 16, 10 );
+
+    Thread producer = new Thread( () -> {
+      RowMeta rowMeta = new RowMeta();
+      for ( int i = 0; i < nrRows; i++ ) {
+        Object[] r = new Object[] { (long) i };
+        while ( !set.putRow( rowMeta, r ) ) {
+          // retry, just like BaseStep does
+        }
+      }
+      set.setDone();
+    } );
+    producer.start();
+
+    long expected = 0;
+    while ( true ) {
+      Object[] r = set.getRowWait( 1, TimeUnit.MILLISECONDS );
+      if ( r == null ) {
+        if ( set.isDone() ) {
+          r = set.getRowImmediate();
+          if ( r == null ) {
+            break;
+          }
+        } else {
+          continue;
+        }
+      }
+      assertEquals( expected++, r[0] );
+    }
+    producer.join();
+
+    assertEquals( nrRows, expected );
+  }
+}
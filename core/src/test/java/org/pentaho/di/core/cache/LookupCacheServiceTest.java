@@ -0,0 +1,199 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.cache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+import org.pentaho.di.core.exception.KettleException;
+
+public class LookupCacheServiceTest {
+  private final LookupCacheService service = LookupCacheService.getInstance();
+
+  @After
+  public void tearDown() {
+    for ( LookupCache cache : service.getCaches() ) {
+      while ( cache.getReferences() > 0 ) {
+        service.release( cache );
+      }
+    }
+    service.invalidateAll();
+  }
+
+  @Test
+  public void testCachesAreSharedByName() {
+    LookupCache first = service.acquire( "customers", 10, 0 );
+    LookupCache second = service.acquire( "customers", 20, 0 );
+    LookupCache other = service.acquire( "products", 10, 0 );
+    assertSame( first, second );
+    assertNotSame( first, other );
+    assertEquals( 2, first.getReferences() );
+    assertEquals( 10, first.getMaxEntries() );
+
+    first.put( "key", new Object[] { "value" } );
+    assertArrayEquals( new Object[] { "value" }, second.get( "key" ) );
+
+    // Released caches keep their data for the next user
+    //
+    service.release( first );
+    service.release( second );
+    assertEquals( 0, first.getReferences() );
+    assertSame( first, service.acquire( "customers", 10, 0 ) );
+    assertArrayEquals( new Object[] { "value" }, first.get( "key" ) );
+  }
+
+  @Test
+  public void testLeastRecentlyUsedEviction() {
+    LookupCache cache = service.acquire( "lru", 2, 0 );
+    cache.put( "a", new Object[] { 1L } );
+    cache.put( "b", new Object[] { 2L } );
+    assertArrayEquals( new Object[] { 1L }, cache.get( "a" ) );
+    cache.put( "c", new Object[] { 3L } );
+
+    assertEquals( 2, cache.size() );
+    assertNull( cache.get( "b" ) );
+    assertArrayEquals( new Object[] { 1L }, cache.get( "a" ) );
+    assertArrayEquals( new Object[] { 3L }, cache.get( "c" ) );
+    assertEquals( 1, cache.getEvictions() );
+    assertEquals( 3, cache.getHits() );
+    assertEquals( 1, cache.getMisses() );
+  }
+
+  @Test
+  public void testFirstValueIsKept() {
+    LookupCache cache = service.acquire( "first", 0, 0 );
+    cache.put( "a", new Object[] { 1L } );
+    cache.put( "a", new Object[] { 2L } );
+    assertArrayEquals( new Object[] { 1L }, cache.get( "a" ) );
+  }
+
+  @Test
+  public void testTimeToLive() throws Exception {
+    LookupCache cache = service.acquire( "ttl", 0, 20 );
+    cache.put( "a", new Object[] { 1L } );
+    assertArrayEquals( new Object[] { 1L }, cache.get( "a" ) );
+    Thread.sleep( 50 );
+    assertNull( cache.get( "a" ) );
+    assertEquals( 1, cache.getExpirations() );
+
+    // An unused cache with expired data is removed
+    //
+    cache.put( "b", new Object[] { 2L } );
+    service.release( cache );
+    Thread.sleep( 50 );
+    assertNotSame( cache, service.acquire( "ttl", 0, 20 ) );
+  }
+
+  @Test
+  public void testLoadOnce() throws Exception {
+    AtomicInteger loads = new AtomicInteger();
+    LookupCache.Loader loader = cache -> {
+      loads.incrementAndGet();
+      try {
+        Thread.sleep( 20 );
+      } catch ( InterruptedException e ) {
+        throw new KettleException( e );
+      }
+      for ( long i = 0; i < 100; i++ ) {
+        cache.put( i, new Object[] { "value " + i } );
+      }
+    };
+
+    ExecutorService executor = Executors.newFixedThreadPool( 4 );
+    try {
+      List<Future<Object[]>> results = new ArrayList<>();
+      for ( int i = 0; i < 8; i++ ) {
+        results.add( executor.submit( () -> {
+          LookupCache cache = service.acquire( "all", 10, 0 );
+          try {
+            cache.load( loader );
+            return cache.get( 42L );
+          } finally {
+            service.release( cache );
+          }
+        } ) );
+      }
+      for ( Future<Object[]> result : results ) {
+        assertArrayEquals( new Object[] { "value 42" }, result.get( 10, TimeUnit.SECONDS ) );
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    // A complete cache isn't limited in size
+    //
+    LookupCache cache = service.getCache( "all" );
+    assertEquals( 1, loads.get() );
+    assertEquals( 100, cache.size() );
+    assertTrue( cache.isComplete() );
+  }
+
+  @Test
+  public void testFailedLoadLeavesTheCacheEmpty() {
+    LookupCache cache = service.acquire( "failing", 0, 0 );
+    try {
+      cache.load( c -> {
+        c.put( 1L, new Object[] { "one" } );
+        throw new KettleException( "Database is down" );
+      } );
+      fail( "The load error should be passed on" );
+    } catch ( KettleException e ) {
+      // expected
+    }
+    assertFalse( cache.isComplete() );
+    assertEquals( 0, cache.size() );
+  }
+
+  @Test
+  public void testInvalidation() throws Exception {
+    List<String> invalidated = new ArrayList<>();
+    LookupCacheListener listener = cache -> invalidated.add( cache.getName() );
+    service.addListener( listener );
+    try {
+      LookupCache used = service.acquire( "used", 0, 0 );
+      used.load( cache -> cache.put( 1L, new Object[] { "one" } ) );
+      LookupCache unused = service.acquire( "unused", 0, 0 );
+      unused.put( 1L, new Object[] { "one" } );
+      service.release( unused );
+
+      assertTrue( service.invalidate( "used" ) );
+      assertTrue( service.invalidate( "unused" ) );
+      assertFalse( service.invalidate( "unknown" ) );
+
+      assertEquals( 0, used.size() );
+      assertFalse( used.isComplete() );
+      assertSame( used, service.getCache( "used" ) );
+      assertNull( service.getCache( "unused" ) );
+      assertEquals( 2, invalidated.size() );
+    } finally {
+      service.removeListener( listener );
+    }
+  }
+}
@@ -82,6 +82,12 @@ public class BaseDatabaseMetaTest {
     assertEquals( "MIN", nativeMeta.getFunctionMinimum() );
     assertEquals( "MAX", nativeMeta.getFunctionMaximum() );
     assertEquals( "COUNT", nativeMeta.getFunctionCount() );
+    assertEquals( "MOD( a, 4 )", nativeMeta.getFunctionModulus( "a", "4" ) );
+    assertNull( nativeMeta.getSQLUpsert( "FOO", new String[] { "ID" }, new String[] { "ID", "BAR" },
+      new String[] { "BAR" } ) );
+    assertFalse( nativeMeta.isUpsertReturningInserted() );
+    assertTrue( nativeMeta.getUpsertConnectionOptions().isEmpty() );
+    assertNull( nativeMeta.getUpsertStagingTable( "UPSERT" ) );
     assertEquals( "\"", nativeMeta.getStartQuote() );
     assertEquals( "\"", nativeMeta.getEndQuote() );
     assertEquals( "FOO.BAR", nativeMeta.getSchemaTableCombination( "FOO", "BAR" ) );
@@ -16,6 +16,7 @@ package org.pentaho.di.core.database;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.sql.ResultSet;
@@ -63,6 +64,7 @@ public class MSSQLServerDatabaseMetaTest {
 
     assertEquals( "FOO.BAR", nativeMeta.getSchemaTableCombination( "FOO", "BAR" ) );
     assertFalse( nativeMeta.supportsBitmapIndex() );
+    assertEquals( "( a % 4 )", nativeMeta.getFunctionModulus( "a", "4" ) );
 
     assertArrayEquals( new String[] {
       /*
@@ -129,6 +131,18 @@ public class MSSQLServerDatabaseMetaTest {
       + lineSep + "SELECT top 0 * FROM BAR WITH (UPDLOCK, HOLDLOCK);" + lineSep,
       nativeMeta.getSQLLockTables(  new String[] { "FOO", "BAR" } ) );
 
+    assertNull(
+      nativeMeta.getSQLUpsert( "FOO", new String[] { "ID" }, new String[] { "ID", "BAR" }, new String[] { "BAR" } ) );
+    assertEquals( "#UPSERT", nativeMeta.getUpsertStagingTable( "UPSERT" ) );
+    assertEquals( "SELECT ID, BAR INTO #UPSERT FROM FOO WHERE 1 = 0",
+      nativeMeta.getSQLCreateUpsertStagingTable( "#UPSERT", "FOO", new String[] { "ID", "BAR" } ) );
+    assertEquals( "MERGE INTO FOO WITH (HOLDLOCK) AS t USING #UPSERT AS s ON ( t.ID = s.ID )"
+      + " WHEN MATCHED AND EXISTS ( SELECT s.BAR EXCEPT SELECT t.BAR ) THEN UPDATE SET BAR = s.BAR;",
+      nativeMeta.getSQLUpsertStagingUpdate( "FOO", "#UPSERT", new String[] { "ID" }, new String[] { "BAR" } ) );
+    assertEquals( "MERGE INTO FOO WITH (HOLDLOCK) AS t USING #UPSERT AS s ON ( t.ID = s.ID )"
+      + " WHEN NOT MATCHED THEN INSERT ( ID, BAR ) VALUES ( s.ID, s.BAR );",
+      nativeMeta.getSQLUpsertStagingInsert( "FOO", "#UPSERT", new String[] { "ID" }, new String[] { "ID", "BAR" } ) );
+
     assertEquals( "ALTER TABLE FOO ADD BAR DATETIME",
         nativeMeta.getAddColumnStatement( "FOO", new ValueMetaDate( "BAR" ), "", false, "", false ) );
     assertEquals( "ALTER TABLE FOO ADD BAR DATETIME",
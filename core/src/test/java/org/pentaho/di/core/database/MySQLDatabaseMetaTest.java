@@ -39,6 +39,7 @@ import org.pentaho.di.core.row.value.ValueMetaTimestamp;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.Map;
 
 public class MySQLDatabaseMetaTest {
@@ -207,6 +208,13 @@ public class MySQLDatabaseMetaTest {
 
     assertEquals( "UNLOCK TABLES", nativeMeta.getSQLUnlockTables( new String[] { } ) );
 
+    assertEquals( "INSERT INTO FOO ( ID, BAR ) VALUES ( ?, ? ) ON DUPLICATE KEY UPDATE BAR = VALUES( BAR )",
+        nativeMeta.getSQLUpsert( "FOO", new String[] { "ID" }, new String[] { "ID", "BAR" }, new String[] { "BAR" } ) );
+    assertEquals( "INSERT INTO FOO ( ID, BAR ) VALUES ( ?, ? ) ON DUPLICATE KEY UPDATE ID = ID",
+        nativeMeta.getSQLUpsert( "FOO", new String[] { "ID" }, new String[] { "ID", "BAR" }, new String[] { } ) );
+    assertFalse( nativeMeta.isUpsertReturningInserted() );
+    assertEquals( Collections.singletonMap( "useAffectedRows", "true" ), nativeMeta.getUpsertConnectionOptions() );
+
     assertEquals( "insert into FOO(FOOKEY, FOOVERSION) values (1, 1)", nativeMeta.getSQLInsertAutoIncUnknownDimensionRow( "FOO", "FOOKEY", "FOOVERSION" ) );
   }
 
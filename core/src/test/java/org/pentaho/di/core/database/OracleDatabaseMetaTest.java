@@ -211,6 +211,20 @@ public class OracleDatabaseMetaTest {
         "LOCK TABLE FOO IN EXCLUSIVE MODE;" + lineSep + "LOCK TABLE BAR IN EXCLUSIVE MODE;" + lineSep;
     assertEquals( expectedLockMultiItem, nativeMeta.getSQLLockTables( new String[] { "FOO", "BAR" } ) );
     assertNull( nativeMeta.getSQLUnlockTables( null ) ); // Commit unlocks tables
+    assertNull(
+        nativeMeta.getSQLUpsert( "FOO", new String[] { "ID" }, new String[] { "ID", "BAR" }, new String[] { "BAR" } ) );
+    assertEquals( "ORA$PTT_UPSERT", nativeMeta.getUpsertStagingTable( "UPSERT" ) );
+    assertEquals( "CREATE PRIVATE TEMPORARY TABLE ORA$PTT_UPSERT ON COMMIT PRESERVE DEFINITION"
+        + " AS SELECT ID, BAR FROM FOO WHERE 1 = 0",
+        nativeMeta.getSQLCreateUpsertStagingTable( "ORA$PTT_UPSERT", "FOO", new String[] { "ID", "BAR" } ) );
+    assertEquals( "MERGE INTO FOO t USING ORA$PTT_UPSERT s ON ( t.ID = s.ID )"
+        + " WHEN MATCHED THEN UPDATE SET t.BAR = s.BAR WHERE DECODE( t.BAR, s.BAR, 0, 1 ) = 1",
+        nativeMeta.getSQLUpsertStagingUpdate( "FOO", "ORA$PTT_UPSERT", new String[] { "ID" },
+          new String[] { "BAR" } ) );
+    assertEquals( "MERGE INTO FOO t USING ORA$PTT_UPSERT s ON ( t.ID = s.ID )"
+        + " WHEN NOT MATCHED THEN INSERT ( ID, BAR ) VALUES ( s.ID, s.BAR )",
+        nativeMeta.getSQLUpsertStagingInsert( "FOO", "ORA$PTT_UPSERT", new String[] { "ID" },
+          new String[] { "ID", "BAR" } ) );
     assertEquals( "SELECT SEQUENCE_NAME FROM all_sequences", nativeMeta.getSQLListOfSequences() );
     assertEquals(
         "BEGIN EXECUTE IMMEDIATE 'DROP TABLE FOO'; EXCEPTION WHEN OTHERS THEN IF SQLCODE != -942 THEN RAISE; END IF; END;",
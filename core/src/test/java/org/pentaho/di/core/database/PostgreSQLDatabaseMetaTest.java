@@ -230,6 +230,14 @@ public class PostgreSQLDatabaseMetaTest {
         nativeMeta.getSQLLockTables( new String[] { "FOO", "BAR" } ) );
 
     assertNull( nativeMeta.getSQLUnlockTables(  new String[] { "FOO" } ) );
+
+    assertEquals( "INSERT INTO FOO AS t ( ID, BAR ) VALUES ( ?, ? ) ON CONFLICT ( ID ) DO UPDATE SET BAR = EXCLUDED.BAR"
+        + " WHERE ROW( t.BAR ) IS DISTINCT FROM ROW( EXCLUDED.BAR ) RETURNING ( xmax = 0 )",
+        nativeMeta.getSQLUpsert( "FOO", new String[] { "ID" }, new String[] { "ID", "BAR" }, new String[] { "BAR" } ) );
+    assertEquals( "INSERT INTO FOO AS t ( ID, BAR ) VALUES ( ?, ? ) ON CONFLICT ( ID ) DO NOTHING"
+        + " RETURNING ( xmax = 0 )",
+        nativeMeta.getSQLUpsert( "FOO", new String[] { "ID" }, new String[] { "ID", "BAR" }, new String[] { } ) );
+    assertTrue( nativeMeta.isUpsertReturningInserted() );
   }
 
 }
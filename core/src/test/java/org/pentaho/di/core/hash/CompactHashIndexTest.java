@@ -0,0 +1,163 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.hash;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pentaho.di.core.KettleClientEnvironment;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaBigNumber;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaNumber;
+import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.di.junit.rules.RestorePDIEnvironment;
+
+public class CompactHashIndexTest {
+  @ClassRule public static RestorePDIEnvironment env = new RestorePDIEnvironment();
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws Exception {
+    KettleClientEnvironment.init();
+  }
+
+  private static RowMetaInterface valueMeta() {
+    RowMetaInterface valueMeta = new RowMeta();
+    valueMeta.addValueMeta( new ValueMetaString( "name" ) );
+    valueMeta.addValueMeta( new ValueMetaNumber( "amount" ) );
+    return valueMeta;
+  }
+
+  @Test
+  public void testCanIndex() {
+    RowMetaInterface keyMeta = new RowMeta();
+    keyMeta.addValueMeta( new ValueMetaString( "code" ) );
+    assertTrue( CompactHashIndex.canIndex( keyMeta ) );
+    keyMeta.addValueMeta( new ValueMetaBigNumber( "big" ) );
+    assertFalse( CompactHashIndex.canIndex( keyMeta ) );
+  }
+
+  @Test
+  public void testIntegerKeys() throws Exception {
+    RowMetaInterface keyMeta = new RowMeta();
+    keyMeta.addValueMeta( new ValueMetaInteger( "id" ) );
+    for ( ByteStore.Type type : ByteStore.Type.values() ) {
+      try ( CompactHashIndex index = new CompactHashIndex( keyMeta, valueMeta(), type ) ) {
+        for ( long i = -5000; i < 5000; i++ ) {
+          index.put( new Object[] { i * 7 }, new Object[] { "name " + i, (double) i } );
+        }
+        index.put( new Object[] { null }, new Object[] { "null key", null } );
+        assertEquals( 10001, index.getSize() );
+
+        for ( long i = -5000; i < 5000; i++ ) {
+          assertArrayEquals( new Object[] { "name " + i, (double) i }, index.get( new Object[] { i * 7 } ) );
+          assertNull( index.get( new Object[] { i * 7 + 1 } ) );
+        }
+        assertArrayEquals( new Object[] { "null key", null }, index.get( new Object[] { null } ) );
+
+        // Like a map, putting a key again replaces the value
+        //
+        index.put( new Object[] { 14L }, new Object[] { "replaced", 1.5 } );
+        assertEquals( 10001, index.getSize() );
+        assertArrayEquals( new Object[] { "replaced", 1.5 }, index.get( new Object[] { 14L } ) );
+        assertTrue( index.getMemoryUsage() > 0 );
+      }
+    }
+  }
+
+  @Test
+  public void testCompositeKeysMatchRowMetaAndData() throws Exception {
+    RowMetaInterface keyMeta = new RowMeta();
+    keyMeta.addValueMeta( new ValueMetaString( "code" ) );
+    keyMeta.addValueMeta( new ValueMetaInteger( "version" ) );
+    Map<RowMetaAndData, Object[]> expected = new HashMap<>();
+    Random random = new Random( 42 );
+
+    for ( ByteStore.Type type : ByteStore.Type.values() ) {
+      expected.clear();
+      try ( CompactHashIndex index = new CompactHashIndex( keyMeta, valueMeta(), type ) ) {
+        for ( int i = 0; i < 20000; i++ ) {
+          Object[] key = randomKey( random );
+          Object[] value = new Object[] { "value " + i, random.nextBoolean() ? null : random.nextDouble() };
+          index.put( key, value );
+          expected.put( new RowMetaAndData( keyMeta, key ), value );
+        }
+        assertEquals( expected.size(), index.getSize() );
+        for ( Map.Entry<RowMetaAndData, Object[]> entry : expected.entrySet() ) {
+          assertArrayEquals( entry.getValue(), index.get( entry.getKey().getData() ) );
+        }
+        for ( int i = 0; i < 1000; i++ ) {
+          Object[] key = randomKey( random );
+          Object[] value = expected.get( new RowMetaAndData( keyMeta, key ) );
+          if ( value == null ) {
+            assertNull( index.get( key ) );
+          } else {
+            assertArrayEquals( value, index.get( key ) );
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCaseInsensitiveKeys() throws Exception {
+    RowMetaInterface keyMeta = new RowMeta();
+    ValueMetaString code = new ValueMetaString( "code" );
+    code.setCaseInsensitive( true );
+    keyMeta.addValueMeta( code );
+    try ( CompactHashIndex index = new CompactHashIndex( keyMeta, valueMeta(), ByteStore.Type.HEAP ) ) {
+      index.put( new Object[] { "Abc" }, new Object[] { "first", 1.0 } );
+      index.put( new Object[] { "aBC" }, new Object[] { "second", 2.0 } );
+      assertEquals( 1, index.getSize() );
+      assertArrayEquals( new Object[] { "second", 2.0 }, index.get( new Object[] { "ABC" } ) );
+      assertNull( index.get( new Object[] { "ABD" } ) );
+    }
+  }
+
+  @Test
+  public void testMappedIndexFileIsDeletedOnClose() throws Exception {
+    File directory = temporaryFolder.newFolder();
+    RowMetaInterface keyMeta = new RowMeta();
+    keyMeta.addValueMeta( new ValueMetaInteger( "id" ) );
+    CompactHashIndex index = new CompactHashIndex( keyMeta, valueMeta(), ByteStore.Type.MAPPED, directory );
+    index.put( new Object[] { 1L }, new Object[] { "one", 1.0 } );
+    assertEquals( 1, directory.listFiles().length );
+    assertArrayEquals( new Object[] { "one", 1.0 }, index.get( new Object[] { 1L } ) );
+
+    index.close();
+    assertEquals( 0, directory.listFiles().length );
+  }
+
+  private static Object[] randomKey( Random random ) {
+    String code = random.nextInt( 10 ) == 0 ? null : "code-" + random.nextInt( 3000 );
+    Long version = random.nextInt( 10 ) == 0 ? null : (long) random.nextInt( 5 );
+    return new Object[] { code, version };
+  }
+}
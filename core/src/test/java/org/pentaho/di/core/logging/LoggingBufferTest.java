@@ -19,6 +19,8 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.pentaho.di.core.Const;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -179,4 +181,22 @@ public class LoggingBufferTest {
     Assert.assertEquals( 10, loggingBuffer.size() );
   }
 
+  @Test
+  public void testRemoveChannelsFromBuffer() {
+    LoggingBuffer loggingBuffer = new LoggingBuffer( 100 );
+    for ( int i = 0; i < 30; i++ ) {
+      KettleLoggingEvent event = new KettleLoggingEvent();
+      event.setMessage( new LogMessage( "line " + i, Integer.toString( i % 3 ), LogLevel.BASIC ) );
+      event.setTimeStamp( i );
+      loggingBuffer.addLogggingEvent( event );
+    }
+    loggingBuffer.removeChannelsFromBuffer( Arrays.asList( "0", "2", "unknown" ) );
+    Assert.assertEquals( 10, loggingBuffer.size() );
+    Assert.assertEquals( 10, loggingBuffer.getLogBufferFromTo( Collections.singletonList( "1" ), false, 0,
+      loggingBuffer.getLastBufferLineNr() ).size() );
+
+    loggingBuffer.removeChannelsFromBuffer( Collections.emptyList() );
+    Assert.assertEquals( 10, loggingBuffer.size() );
+  }
+
 }
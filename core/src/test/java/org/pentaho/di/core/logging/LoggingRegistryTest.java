@@ -276,6 +276,78 @@ public class LoggingRegistryTest {
 
   }
 
+  @Test
+  public void testFindOnlyInSameContainer() {
+    LoggingRegistry loggingRegistry = LoggingRegistry.getInstance();
+    loggingRegistry.reset();
+
+    SimpleLoggingObject first = new SimpleLoggingObject( "job", LoggingObjectType.JOB, null );
+    first.setContainerObjectId( UUID.randomUUID().toString() );
+    String firstId = loggingRegistry.registerLoggingSource( first );
+
+    SimpleLoggingObject second = new SimpleLoggingObject( "job", LoggingObjectType.JOB, null );
+    second.setContainerObjectId( UUID.randomUUID().toString() );
+    String secondId = loggingRegistry.registerLoggingSource( second );
+
+    assertNotEquals( firstId, secondId );
+    assertEquals( firstId,
+      loggingRegistry.findExistingLoggingSource( new LoggingObject( first ) ).getLogChannelId() );
+    assertEquals( secondId,
+      loggingRegistry.findExistingLoggingSource( new LoggingObject( second ) ).getLogChannelId() );
+
+    loggingRegistry.reset();
+  }
+
+  @Test
+  public void testRemoveIncludingChildren() {
+    LoggingRegistry loggingRegistry = LoggingRegistry.getInstance();
+    loggingRegistry.reset();
+
+    SimpleLoggingObject jobObj = new SimpleLoggingObject( "job", LoggingObjectType.JOB, null );
+    jobObj.setContainerObjectId( ROOT_ID );
+    String jobId = loggingRegistry.registerLoggingSource( jobObj );
+    jobObj.setLogChannelId( jobId );
+
+    SimpleLoggingObject transObj = new SimpleLoggingObject( "trans", LoggingObjectType.TRANS, jobObj );
+    String transId = loggingRegistry.registerLoggingSource( transObj );
+    transObj.setLogChannelId( transId );
+
+    SimpleLoggingObject stepObj = new SimpleLoggingObject( "step", LoggingObjectType.STEP, transObj );
+    String stepId = loggingRegistry.registerLoggingSource( stepObj );
+
+    assertEquals( Arrays.asList( stepId, transId, jobId ), loggingRegistry.getLogChannelChildren( jobId ) );
+
+    loggingRegistry.removeIncludingChildren( transId );
+
+    assertNotNull( loggingRegistry.getLoggingObject( jobId ) );
+    assertNull( loggingRegistry.getLoggingObject( transId ) );
+    assertNull( loggingRegistry.getLoggingObject( stepId ) );
+    assertEquals( Arrays.asList( jobId ), loggingRegistry.getLogChannelChildren( jobId ) );
+    assertNull( loggingRegistry.findExistingLoggingSource( new LoggingObject( stepObj ) ) );
+
+    loggingRegistry.reset();
+  }
+
+  @Test
+  public void testFileWriterBuffersVersion() {
+    LoggingRegistry loggingRegistry = LoggingRegistry.getInstance();
+    loggingRegistry.reset();
+
+    String id = loggingRegistry.registerLoggingSource(
+      new SimpleLoggingObject( UUID.randomUUID().toString(), LoggingObjectType.JOB, null ) );
+
+    int version = loggingRegistry.getLogChannelFileWriterBuffersVersion();
+    loggingRegistry.registerLogChannelFileWriterBuffer( new LogChannelFileWriterBuffer( id ) );
+    assertNotEquals( version, loggingRegistry.getLogChannelFileWriterBuffersVersion() );
+
+    version = loggingRegistry.getLogChannelFileWriterBuffersVersion();
+    loggingRegistry.removeLogChannelFileWriterBuffer( id );
+    assertNotEquals( version, loggingRegistry.getLogChannelFileWriterBuffersVersion() );
+    assertNull( loggingRegistry.getLogChannelFileWriterBuffer( id ) );
+
+    loggingRegistry.reset();
+  }
+
   private void populateLoggingRegistry( int parentCount, LoggingRegistry registry, boolean isPurgeable, boolean addBuffer ) {
 
     for ( int i = 0; i < parentCount; i++ ) {
@@ -0,0 +1,104 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.row;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RowArrayPoolTest {
+
+  @Test
+  public void testReleasedArraysAreReused() {
+    RowArrayPool pool = new RowArrayPool( 10, false );
+    Object[] row = pool.allocate( 3 );
+    assertEquals( 3 + RowDataUtil.OVER_ALLOCATE_SIZE, row.length );
+    row[ 0 ] = "value";
+
+    assertTrue( pool.release( row ) );
+    assertTrue( pool.isReleased( row ) );
+    assertNull( row[ 0 ] );
+
+    // Only arrays of the same length are handed out again
+    assertNotSame( row, pool.allocate( 5 ) );
+    assertSame( row, pool.allocate( 3 ) );
+    assertFalse( pool.isReleased( row ) );
+    assertEquals( 1, pool.getReusedCount() );
+  }
+
+  @Test
+  public void testForeignArraysAreNotTakenBack() {
+    RowArrayPool pool = new RowArrayPool( 10, false );
+    Object[] row = RowDataUtil.allocateRowData( 3 );
+    assertFalse( pool.release( row ) );
+    assertNotSame( row, pool.allocate( 3 ) );
+    assertFalse( pool.release( null ) );
+  }
+
+  @Test
+  public void testCapacityLimitsTheTrackedArrays() {
+    RowArrayPool pool = new RowArrayPool( 1, false );
+    Object[] first = pool.allocate( 1 );
+    Object[] second = pool.allocate( 1 );
+    assertTrue( pool.release( first ) );
+    assertFalse( pool.release( second ) );
+  }
+
+  @Test
+  public void testDoubleReleaseFails() {
+    RowArrayPool pool = new RowArrayPool( 10, false );
+    Object[] row = pool.allocate( 1 );
+    pool.release( row );
+    try {
+      pool.release( row );
+      fail( "Releasing a row twice should fail" );
+    } catch ( IllegalStateException e ) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testDebugModeNeverReusesArrays() {
+    RowArrayPool pool = new RowArrayPool( 10, true );
+    Object[] row = pool.allocate( 1 );
+    assertTrue( pool.release( row ) );
+    assertNotSame( row, pool.allocate( 1 ) );
+    assertTrue( pool.isReleased( row ) );
+    assertEquals( 0, pool.getReusedCount() );
+  }
+
+  @Test
+  public void testPooledRowDataUtil() {
+    RowArrayPool pool = new RowArrayPool( 10, false );
+    Object[] row = new Object[] { "a", "b", "c" };
+
+    assertSame( row, RowDataUtil.resizeArray( row, 2, pool ) );
+    Object[] resized = RowDataUtil.resizeArray( row, 4, pool );
+    assertEquals( 4 + RowDataUtil.OVER_ALLOCATE_SIZE, resized.length );
+    assertEquals( "c", resized[ 2 ] );
+
+    Object[] removed = RowDataUtil.removeItems( row, new int[] { 0, 2 }, pool );
+    assertEquals( "b", removed[ 0 ] );
+    assertNull( removed[ 1 ] );
+
+    assertArrayEquals( new Object[] { "b" }, RowDataUtil.removeItems( row, new int[] { 0, 2 }, null ) );
+  }
+}
@@ -0,0 +1,120 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.row;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.pentaho.di.core.KettleClientEnvironment;
+import org.pentaho.di.core.row.value.ValueMetaBigNumber;
+import org.pentaho.di.core.row.value.ValueMetaBoolean;
+import org.pentaho.di.core.row.value.ValueMetaDate;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaNumber;
+import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.di.junit.rules.RestorePDIEnvironment;
+
+public class RowKeyEncoderTest {
+  @ClassRule public static RestorePDIEnvironment env = new RestorePDIEnvironment();
+
+  private static final String[] STRINGS =
+    { null, "", "a", "A", "ab", "aB", "a\u0000", "a\u0000b", "b", "\u00e9", "E", "e", "\uD83D\uDE00", "\u03C3",
+      "\u03A3", "\u00DF", " a" };
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws Exception {
+    KettleClientEnvironment.init();
+  }
+
+  @Test
+  public void keysCompareLikeTheRows() throws Exception {
+    for ( int variant = 0; variant < 8; variant++ ) {
+      boolean descending = ( variant & 1 ) != 0;
+      boolean caseInsensitive = ( variant & 2 ) != 0;
+      boolean collator = ( variant & 4 ) != 0;
+
+      RowMetaInterface rowMeta = new RowMeta();
+      ValueMetaInterface string = new ValueMetaString( "string" );
+      string.setCaseInsensitive( caseInsensitive );
+      string.setCollatorDisabled( !collator );
+      string.setCollatorLocale( Locale.US );
+      string.setCollatorStrength( caseInsensitive ? Collator.SECONDARY : Collator.TERTIARY );
+      rowMeta.addValueMeta( string );
+      rowMeta.addValueMeta( new ValueMetaInteger( "integer" ) );
+      rowMeta.addValueMeta( new ValueMetaNumber( "number" ) );
+      rowMeta.addValueMeta( new ValueMetaDate( "date" ) );
+      rowMeta.addValueMeta( new ValueMetaBoolean( "boolean" ) );
+      for ( ValueMetaInterface valueMeta : rowMeta.getValueMetaList() ) {
+        valueMeta.setSortedDescending( descending );
+      }
+
+      int[] fieldnrs = { 0, 1, 2, 3, 4 };
+      RowKeyEncoder encoder = RowKeyEncoder.create( rowMeta, fieldnrs );
+      assertNotNull( encoder );
+
+      List<Object[]> rows = randomRows( 300 );
+      List<byte[]> keys = new ArrayList<>();
+      for ( Object[] row : rows ) {
+        keys.add( encoder.encode( row ) );
+      }
+      for ( int i = 0; i < rows.size(); i++ ) {
+        for ( int j = 0; j < rows.size(); j++ ) {
+          int expected = Integer.signum( rowMeta.compare( rows.get( i ), rows.get( j ), fieldnrs ) );
+          int actual = Integer.signum( RowKeyEncoder.compareKeys( keys.get( i ), keys.get( j ) ) );
+          assertEquals( "variant " + variant + ": " + rowMeta.getString( rows.get( i ) ) + " <> "
+            + rowMeta.getString( rows.get( j ) ), expected, actual );
+        }
+      }
+    }
+  }
+
+  @Test
+  public void unsupportedTypesAreNotEncoded() {
+    RowMetaInterface rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaInteger( "integer" ) );
+    rowMeta.addValueMeta( new ValueMetaBigNumber( "big" ) );
+    assertNotNull( RowKeyEncoder.create( rowMeta, new int[] { 0 } ) );
+    assertNull( RowKeyEncoder.create( rowMeta, new int[] { 0, 1 } ) );
+  }
+
+  private List<Object[]> randomRows( int n ) {
+    Random random = new Random( 42 );
+    Long[] integers = { null, Long.MIN_VALUE, -1L, 0L, 1L, Long.MAX_VALUE };
+    Double[] numbers = { null, Double.NEGATIVE_INFINITY, -1.5, -0.0, 0.0, 2.0, Double.NaN };
+    Date[] dates = { null, new Date( -1000L ), new Date( 0L ), new Date( 1000L ) };
+    Boolean[] booleans = { null, false, true };
+
+    List<Object[]> rows = new ArrayList<>();
+    for ( int i = 0; i < n; i++ ) {
+      rows.add( new Object[] {
+        STRINGS[ random.nextInt( STRINGS.length ) ],
+        integers[ random.nextInt( integers.length ) ],
+        numbers[ random.nextInt( numbers.length ) ],
+        dates[ random.nextInt( dates.length ) ],
+        booleans[ random.nextInt( booleans.length ) ] } );
+    }
+    return rows;
+  }
+}
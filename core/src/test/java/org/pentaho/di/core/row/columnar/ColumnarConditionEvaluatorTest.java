@@ -0,0 +1,120 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.row.columnar;
+
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.pentaho.di.core.Condition;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaAndData;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaNumber;
+import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.di.junit.rules.RestorePDIEnvironment;
+
+import static org.junit.Assert.assertEquals;
+
+public class ColumnarConditionEvaluatorTest {
+  @ClassRule public static RestorePDIEnvironment env = new RestorePDIEnvironment();
+
+  private final RowMetaInterface rowMeta = createRowMeta();
+  private final Object[][] rows = createRows();
+
+  private static RowMetaInterface createRowMeta() {
+    RowMetaInterface rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaInteger( "a" ) );
+    rowMeta.addValueMeta( new ValueMetaInteger( "b" ) );
+    rowMeta.addValueMeta( new ValueMetaNumber( "x" ) );
+    rowMeta.addValueMeta( new ValueMetaString( "s" ) );
+    return rowMeta;
+  }
+
+  private static Object[][] createRows() {
+    Object[][] rows = new Object[ 100 ][];
+    for ( int i = 0; i < rows.length; i++ ) {
+      rows[ i ] = new Object[] {
+        i % 7 == 0 ? null : (long) ( i % 10 ),
+        i % 11 == 0 ? null : (long) ( i % 4 ),
+        i % 13 == 0 ? null : i / 3.0,
+        i % 5 == 0 ? null : "value" + ( i % 3 ) };
+    }
+    return rows;
+  }
+
+  /**
+   * The columnar evaluation has to give exactly the same outcome as the row by row evaluation.
+   */
+  private void assertSameAsRows( Condition condition ) {
+    ColumnarRowBatch batch = ColumnarRowBatch.fromRows( rowMeta, rows, rows.length );
+    boolean[] result = new ColumnarConditionEvaluator( condition, rowMeta ).evaluate( batch );
+    assertEquals( rows.length, result.length );
+    for ( int i = 0; i < rows.length; i++ ) {
+      assertEquals( "row " + i + " of " + condition, condition.evaluate( rowMeta, rows[ i ] ), result[ i ] );
+    }
+  }
+
+  @Test
+  public void testIntegerComparisonsWithConstant() {
+    ValueMetaAndData five = new ValueMetaAndData( new ValueMetaInteger( "constant" ), 5L );
+    for ( int function = Condition.FUNC_EQUAL; function <= Condition.FUNC_LARGER_EQUAL; function++ ) {
+      assertSameAsRows( new Condition( "a", function, null, five ) );
+    }
+    assertSameAsRows( new Condition( "a", Condition.FUNC_NULL, null, null ) );
+    assertSameAsRows( new Condition( "a", Condition.FUNC_NOT_NULL, null, null ) );
+  }
+
+  @Test
+  public void testFieldComparisons() {
+    for ( int function = Condition.FUNC_EQUAL; function <= Condition.FUNC_LARGER_EQUAL; function++ ) {
+      assertSameAsRows( new Condition( "a", function, "b", null ) );
+    }
+  }
+
+  @Test
+  public void testNumberComparisonWithConstant() {
+    ValueMetaAndData ten = new ValueMetaAndData( new ValueMetaNumber( "constant" ), 10.0 );
+    assertSameAsRows( new Condition( "x", Condition.FUNC_SMALLER, null, ten ) );
+    assertSameAsRows( new Condition( "x", Condition.FUNC_LARGER_EQUAL, null, ten ) );
+  }
+
+  @Test
+  public void testStringConditions() {
+    ValueMetaAndData value = new ValueMetaAndData( new ValueMetaString( "constant" ), "value1" );
+    assertSameAsRows( new Condition( "s", Condition.FUNC_EQUAL, null, value ) );
+    assertSameAsRows( new Condition( "s", Condition.FUNC_NOT_EQUAL, null, value ) );
+    assertSameAsRows( new Condition( "s", Condition.FUNC_NULL, null, null ) );
+    assertSameAsRows( new Condition( "s", Condition.FUNC_ENDS_WITH, null,
+      new ValueMetaAndData( new ValueMetaString( "constant" ), "2" ) ) );
+  }
+
+  @Test
+  public void testCompositeConditions() {
+    ValueMetaAndData five = new ValueMetaAndData( new ValueMetaInteger( "constant" ), 5L );
+    ValueMetaAndData value = new ValueMetaAndData( new ValueMetaString( "constant" ), "value1" );
+
+    for ( int operator : new int[] {
+      Condition.OPERATOR_OR, Condition.OPERATOR_AND, Condition.OPERATOR_OR_NOT, Condition.OPERATOR_AND_NOT,
+      Condition.OPERATOR_XOR } ) {
+      Condition condition = new Condition();
+      condition.addCondition( new Condition( "a", Condition.FUNC_LARGER, null, five ) );
+      condition.addCondition( new Condition( operator, "s", Condition.FUNC_EQUAL, null, value ) );
+      condition.addCondition( new Condition( operator, "a", Condition.FUNC_SMALLER, "b", null ) );
+      assertSameAsRows( condition );
+
+      condition.setNegated( true );
+      assertSameAsRows( condition );
+    }
+  }
+}
@@ -0,0 +1,149 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.row.columnar;
+
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaDate;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaNumber;
+import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.di.junit.rules.RestorePDIEnvironment;
+
+import java.util.Date;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ColumnarRowBatchTest {
+  @ClassRule public static RestorePDIEnvironment env = new RestorePDIEnvironment();
+
+  private RowMetaInterface createRowMeta() {
+    RowMetaInterface rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaInteger( "id" ) );
+    rowMeta.addValueMeta( new ValueMetaNumber( "amount" ) );
+    rowMeta.addValueMeta( new ValueMetaString( "name" ) );
+    rowMeta.addValueMeta( new ValueMetaDate( "date" ) );
+    return rowMeta;
+  }
+
+  private Object[][] createRows() {
+    Date date = new Date( 0L );
+    return new Object[][] {
+      { 1L, 1.5, "a", date },
+      { 2L, null, "b", null },
+      { null, 3.5, "a", date },
+      { 4L, 4.5, null, date } };
+  }
+
+  @Test
+  public void testFromRowsUsesPrimitiveVectors() {
+    ColumnarRowBatch batch = ColumnarRowBatch.fromRows( createRowMeta(), createRows(), 4 );
+    assertEquals( 4, batch.size() );
+    assertEquals( 4, batch.getColumnCount() );
+    assertTrue( batch.getColumn( 0 ) instanceof LongColumnVector );
+    assertTrue( batch.getColumn( 1 ) instanceof DoubleColumnVector );
+    assertTrue( batch.getColumn( 2 ) instanceof StringColumnVector );
+    assertTrue( batch.getColumn( 3 ) instanceof ObjectColumnVector );
+
+    assertTrue( batch.getColumn( 0 ).isNull( 2 ) );
+    assertFalse( batch.getColumn( 0 ).isNull( 1 ) );
+    assertEquals( 2L, ( (LongColumnVector) batch.getColumn( 0 ) ).get( 1 ) );
+
+    StringColumnVector names = (StringColumnVector) batch.getColumn( 2 );
+    assertEquals( 2, names.getDictionarySize() );
+    assertEquals( names.getCode( 0 ), names.getCode( 2 ) );
+    assertTrue( names.isNull( 3 ) );
+  }
+
+  @Test
+  public void testRoundTrip() {
+    Object[][] rows = createRows();
+    ColumnarRowBatch batch = ColumnarRowBatch.fromRows( createRowMeta(), rows, 4 );
+    Object[][] result = batch.toRows();
+    assertEquals( 4, result.length );
+    for ( int i = 0; i < rows.length; i++ ) {
+      for ( int c = 0; c < rows[i].length; c++ ) {
+        assertEquals( rows[i][c], result[i][c] );
+      }
+    }
+  }
+
+  @Test
+  public void testUnexpectedValuesAreKeptAsIs() {
+    RowMetaInterface rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaInteger( "id" ) );
+    Object[][] rows = { { 1L }, { "not a number" } };
+
+    ColumnarRowBatch batch = ColumnarRowBatch.fromRows( rowMeta, rows, 2 );
+    assertTrue( batch.getColumn( 0 ) instanceof ObjectColumnVector );
+    assertEquals( 1L, batch.getRow( 0 )[0] );
+    assertEquals( "not a number", batch.getRow( 1 )[0] );
+  }
+
+  @Test
+  public void testSelectAndSlice() {
+    ColumnarRowBatch batch = ColumnarRowBatch.fromRows( createRowMeta(), createRows(), 4 );
+
+    ColumnarRowBatch selected = batch.select( new int[] { 3, 1 }, 2 );
+    assertEquals( 2, selected.size() );
+    assertEquals( 4L, selected.getRow( 0 )[0] );
+    assertNull( selected.getRow( 0 )[2] );
+    assertEquals( 2L, selected.getRow( 1 )[0] );
+    assertNull( selected.getRow( 1 )[1] );
+
+    ColumnarRowBatch slice = batch.slice( 1, 3 );
+    assertEquals( 2, slice.size() );
+    assertEquals( 2L, slice.getRow( 0 )[0] );
+    assertNull( slice.getRow( 1 )[0] );
+    assertEquals( "a", slice.getRow( 1 )[2] );
+
+    assertSame( batch, batch.slice( 0, 4 ) );
+  }
+
+  @Test
+  public void testProjectAndAddColumns() {
+    ColumnarRowBatch batch = ColumnarRowBatch.fromRows( createRowMeta(), createRows(), 4 );
+
+    ColumnarRowBatch projected = batch.project( new int[] { 2, 0 } );
+    assertEquals( 2, projected.getColumnCount() );
+    assertSame( batch.getColumn( 2 ), projected.getColumn( 0 ) );
+    assertSame( batch.getColumn( 0 ), projected.getColumn( 1 ) );
+
+    ColumnarRowBatch extended =
+      projected.addColumns( ColumnVector.constant( new ValueMetaString( "constant" ), "x", 4 ) );
+    assertArrayEquals( new Object[] { "b", 2L, "x" }, extended.getRow( 1 ) );
+  }
+
+  @Test
+  public void testSelectedStringsShareTheDictionary() {
+    ColumnarRowBatch batch = ColumnarRowBatch.fromRows( createRowMeta(), createRows(), 4 );
+    StringColumnVector names = (StringColumnVector) batch.getColumn( 2 );
+
+    StringColumnVector selected = (StringColumnVector) names.select( new int[] { 2 }, 1 );
+    assertSame( names.getDictionary(), selected.getDictionary() );
+
+    // Adding a new value doesn't change the original
+    selected.setObject( 0, "c" );
+    assertEquals( "c", selected.get( 0 ) );
+    assertEquals( 2, names.getDictionarySize() );
+    assertEquals( "a", names.get( 2 ) );
+  }
+}
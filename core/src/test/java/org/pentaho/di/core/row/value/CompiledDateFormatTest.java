@@ -0,0 +1,97 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.row.value;
+
+import org.junit.Test;
+
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class CompiledDateFormatTest {
+
+  private static final String[] ZONES = { "UTC", "America/New_York", "Europe/Berlin", "Australia/Lord_Howe" };
+
+  @Test
+  public void testFormatAndParseLikeSimpleDateFormat() {
+    String[] masks =
+      { "yyyy-MM-dd", "yyyyMMdd", "yyyy/MM/dd HH:mm:ss.SSS", "yyyy-MM-dd'T'HH:mm:ss", "dd.MM.yyyy HH:mm" };
+    Random random = new Random( 42 );
+    for ( String mask : masks ) {
+      for ( String zone : ZONES ) {
+        for ( boolean lenient : new boolean[] { false, true } ) {
+          SimpleDateFormat format = createFormat( mask, zone, lenient );
+          CompiledDateFormat compiled = CompiledDateFormat.compile( format );
+          for ( int i = 0; i < 2000; i++ ) {
+            // Whole hours between 1900 and 2100, often close to a daylight saving transition
+            long time = ( -2208988800000L + (long) ( random.nextDouble() * 6311433600000L ) ) / 3600000L * 3600000L;
+            assertSame( format, compiled, new Date( time ) );
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testUnsupportedValuesAreLeftToSimpleDateFormat() {
+    CompiledDateFormat compiled = CompiledDateFormat.compile( createFormat( "yyyy-MM-dd", "UTC", false ) );
+    assertNotNull( compiled.parse( "2024-02-29" ) );
+    assertNull( compiled.parse( "2023-02-29" ) );
+    assertNull( compiled.parse( "2024-2-29" ) );
+    assertNull( compiled.parse( "2024-02-29 " ) );
+    assertNull( compiled.parse( "1500-01-01" ) );
+    assertNull( compiled.format( new Date( -20000000000000L ) ) );
+
+    // The hour that is skipped when daylight saving time starts
+    compiled = CompiledDateFormat.compile( createFormat( "yyyy-MM-dd HH:mm", "Europe/Berlin", true ) );
+    assertNull( compiled.parse( "2024-03-31 02:30" ) );
+    assertNotNull( compiled.parse( "2024-04-30 02:30" ) );
+  }
+
+  @Test
+  public void testUnsupportedMasks() {
+    assertNull( CompiledDateFormat.compile( createFormat( "yy-MM-dd", "UTC", false ) ).parse( "24-02-29" ) );
+    assertNull( CompiledDateFormat.compile( createFormat( "HH:mm", "UTC", false ) ).parse( "12:30" ) );
+    assertNull( CompiledDateFormat.compile( createFormat( "dd MMM yyyy", "UTC", false ) ).parse( "29 Feb 2024" ) );
+
+    SimpleDateFormat buddhist = new SimpleDateFormat( "yyyy-MM-dd", new Locale( "th", "TH" ) );
+    assertNull( CompiledDateFormat.compile( buddhist ).format( new Date() ) );
+  }
+
+  private static SimpleDateFormat createFormat( String mask, String zone, boolean lenient ) {
+    SimpleDateFormat format = new SimpleDateFormat( mask, Locale.US );
+    format.setTimeZone( TimeZone.getTimeZone( zone ) );
+    format.setLenient( lenient );
+    return format;
+  }
+
+  private static void assertSame( SimpleDateFormat format, CompiledDateFormat compiled, Date date ) {
+    String expected = format.format( date );
+    String actual = compiled.format( date );
+    if ( actual != null ) {
+      assertEquals( expected, actual );
+    }
+    Date parsed = compiled.parse( expected );
+    if ( parsed != null ) {
+      assertEquals( format.parse( expected, new ParsePosition( 0 ) ), parsed );
+    }
+  }
+}
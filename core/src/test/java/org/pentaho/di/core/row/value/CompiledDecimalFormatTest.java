@@ -0,0 +1,74 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.row.value;
+
+import org.junit.Test;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.ParsePosition;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CompiledDecimalFormatTest {
+
+  @Test
+  public void testParseLikeDecimalFormat() {
+    DecimalFormat format = new DecimalFormat( "####0.0#########", DecimalFormatSymbols.getInstance( Locale.US ) );
+    CompiledDecimalFormat compiled = CompiledDecimalFormat.compile( format );
+
+    String[] values = { "0", "-0", "0.0", "12.75", "-12.75", "007", "123456789012345", "0.1", "3.14159265358979" };
+    for ( String value : values ) {
+      Number expected = format.parse( value, new ParsePosition( 0 ) );
+      assertEquals( value, Double.valueOf( expected.doubleValue() ), compiled.parseDouble( value ) );
+    }
+    assertEquals( Long.valueOf( -1234 ), compiled.parseLong( "-1234" ) );
+
+    assertNull( compiled.parseDouble( "1,234.5" ) );
+    assertNull( compiled.parseDouble( "1.5.5" ) );
+    assertNull( compiled.parseDouble( "1." ) );
+    assertNull( compiled.parseDouble( "1E5" ) );
+    assertNull( compiled.parseDouble( "123456789012345678" ) );
+    assertNull( compiled.parseDouble( "1234567890123456789" ) );
+    assertNull( compiled.parseLong( "12.5" ) );
+    assertNull( compiled.parseLong( "" ) );
+  }
+
+  @Test
+  public void testDecimalSymbol() {
+    DecimalFormat format = new DecimalFormat( "####0.0#########", DecimalFormatSymbols.getInstance( Locale.GERMANY ) );
+    CompiledDecimalFormat compiled = CompiledDecimalFormat.compile( format );
+
+    assertEquals( Double.valueOf( 12.75 ), compiled.parseDouble( "12,75" ) );
+    assertNull( compiled.parseDouble( "12.75" ) );
+  }
+
+  @Test
+  public void testFormatLikeDecimalFormat() {
+    String[] patterns = { "####0;-####0", " 0000;-0000", "#" };
+    long[] values = { 0, 7, -7, 12345, -12345, Long.MAX_VALUE, Long.MIN_VALUE + 1 };
+    for ( String pattern : patterns ) {
+      DecimalFormat format = new DecimalFormat( pattern, DecimalFormatSymbols.getInstance( Locale.US ) );
+      CompiledDecimalFormat compiled = CompiledDecimalFormat.compile( format );
+      for ( long value : values ) {
+        assertEquals( pattern, format.format( value ), compiled.format( value ) );
+      }
+    }
+
+    DecimalFormat grouped = new DecimalFormat( "#,##0.00", DecimalFormatSymbols.getInstance( Locale.US ) );
+    assertNull( CompiledDecimalFormat.compile( grouped ).format( 1234 ) );
+  }
+}
@@ -699,6 +699,44 @@ public class ValueMetaBaseTest {
     assertEquals( local( 1918, 3, 25, 0, 0, 0, 0 ), dateMeta.convertStringToDate( "1918-03-25  \n" ) );
   }
 
+  @Test
+  public void testConversionsFollowMaskChanges() throws Exception {
+    ValueMetaBase dateMeta = new ValueMetaBase( "date", ValueMetaInterface.TYPE_DATE );
+    dateMeta.setDateFormatLenient( false );
+
+    dateMeta.setConversionMask( "yyyy-MM-dd" );
+    assertEquals( local( 2024, 2, 29, 0, 0, 0, 0 ), dateMeta.convertStringToDate( "2024-02-29" ) );
+    assertEquals( local( 2024, 2, 29, 0, 0, 0, 0 ), dateMeta.convertStringToDate( "2024-02-29" ) );
+    assertEquals( "2024-02-29", dateMeta.convertDateToString( local( 2024, 2, 29, 13, 5, 0, 0 ) ) );
+
+    dateMeta.setConversionMask( "dd/MM/yyyy HH:mm" );
+    assertEquals( local( 2024, 2, 29, 13, 5, 0, 0 ), dateMeta.convertStringToDate( "29/02/2024 13:05" ) );
+    assertEquals( "29/02/2024 13:05", dateMeta.convertDateToString( local( 2024, 2, 29, 13, 5, 0, 0 ) ) );
+    try {
+      dateMeta.convertStringToDate( "30/02/2024 13:05" );
+      fail( "Invalid date should not be parsed by a strict format" );
+    } catch ( KettleValueException e ) {
+      // expected
+    }
+
+    dateMeta.setDateFormatLenient( true );
+    assertEquals( local( 2024, 3, 1, 13, 5, 0, 0 ), dateMeta.convertStringToDate( "30/02/2024 13:05" ) );
+
+    ValueMetaBase integerMeta = new ValueMetaBase( "integer", ValueMetaInterface.TYPE_INTEGER );
+    assertEquals( Long.valueOf( -1234 ), integerMeta.convertStringToInteger( "-1234" ) );
+    assertEquals( "-1234", integerMeta.convertIntegerToString( -1234L ) );
+    integerMeta.setConversionMask( "#,##0" );
+    integerMeta.setGroupingSymbol( "," );
+    assertEquals( Long.valueOf( 1234 ), integerMeta.convertStringToInteger( "1,234" ) );
+    assertEquals( "1,234", integerMeta.convertIntegerToString( 1234L ) );
+
+    ValueMetaBase numberMeta = new ValueMetaBase( "number", ValueMetaInterface.TYPE_NUMBER );
+    numberMeta.setDecimalSymbol( "." );
+    assertEquals( Double.valueOf( 12.75 ), numberMeta.convertStringToNumber( "12.75" ) );
+    numberMeta.setDecimalSymbol( "," );
+    assertEquals( Double.valueOf( 12.75 ), numberMeta.convertStringToNumber( "12,75" ) );
+  }
+
   @Test
   public void testDateToStringParse() throws Exception {
     ValueMetaBase dateMeta = new ValueMetaString( "date" );
@@ -0,0 +1,55 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class ManagedBlockingTest {
+
+  @Test
+  public void testOutsideOfPool() throws Exception {
+    assertFalse( ManagedBlocking.isManaged() );
+    assertEquals( "done", ManagedBlocking.await( () -> "done" ) );
+  }
+
+  @Test
+  public void testPoolCompensatesForBlockedWorker() throws Exception {
+    ForkJoinPool pool = new ForkJoinPool( 1 );
+    try {
+      CountDownLatch latch = new CountDownLatch( 1 );
+
+      // With a single worker the second task can only run if the pool compensates for the first one
+      //
+      ForkJoinTask<Boolean> waiter = pool.submit( () -> {
+        assertTrue( ManagedBlocking.isManaged() );
+        return ManagedBlocking.await( () -> latch.await( 10, TimeUnit.SECONDS ) );
+      } );
+      Thread.sleep( 50 );
+      pool.submit( latch::countDown );
+
+      assertTrue( waiter.get( 10, TimeUnit.SECONDS ) );
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,34 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.compress.bgzf;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.pentaho.di.core.compress.CompressionInputStream;
+import org.pentaho.di.core.compress.CompressionProvider;
+
+public class BGZFCompressionInputStream extends CompressionInputStream {
+
+  public BGZFCompressionInputStream( InputStream in, CompressionProvider provider ) throws IOException {
+    super( getDelegate( in ), provider );
+  }
+
+  protected static BGZFInputStream getDelegate( InputStream in ) throws IOException {
+    if ( in instanceof BGZFInputStream ) {
+      return (BGZFInputStream) in;
+    }
+    return new BGZFInputStream( in );
+  }
+}
@@ -0,0 +1,34 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.compress.bgzf;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.pentaho.di.core.compress.CompressionOutputStream;
+import org.pentaho.di.core.compress.CompressionProvider;
+
+public class BGZFCompressionOutputStream extends CompressionOutputStream {
+
+  public BGZFCompressionOutputStream( OutputStream out, CompressionProvider provider ) throws IOException {
+    super( getDelegate( out ), provider );
+  }
+
+  protected static BGZFOutputStream getDelegate( OutputStream out ) throws IOException {
+    if ( out instanceof BGZFOutputStream ) {
+      return (BGZFOutputStream) out;
+    }
+    return new BGZFOutputStream( out );
+  }
+}
@@ -0,0 +1,62 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.compress.bgzf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.pentaho.di.core.compress.CompressionProvider;
+
+/**
+ * Block gzip compression: gzip compatible output that can be decompressed in parallel, for example by the "GZIP CSV
+ * Input" step.
+ */
+public class BGZFCompressionProvider implements CompressionProvider {
+
+  @Override
+  public BGZFCompressionInputStream createInputStream( InputStream in ) throws IOException {
+    return new BGZFCompressionInputStream( in, this );
+  }
+
+  @Override
+  public boolean supportsInput() {
+    return true;
+  }
+
+  @Override
+  public BGZFCompressionOutputStream createOutputStream( OutputStream out ) throws IOException {
+    return new BGZFCompressionOutputStream( out, this );
+  }
+
+  @Override
+  public boolean supportsOutput() {
+    return true;
+  }
+
+  @Override
+  public String getDescription() {
+    return "Block GZIP (BGZF) compression";
+  }
+
+  @Override
+  public String getName() {
+    return "BGZF";
+  }
+
+  @Override
+  public String getDefaultExtension() {
+    return "gz";
+  }
+}
@@ -0,0 +1,175 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.compress.bgzf;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * The positions of the chunks in a BGZF file that can be decompressed independently. A chunk is a run of consecutive
+ * BGZF blocks with at least a minimum amount of uncompressed data, so that the index stays small even for very large
+ * files. For every chunk we keep the offset in the compressed file, where decompression can start, and the offset in
+ * the uncompressed data.
+ */
+public class BGZFIndex {
+
+  private long[] compressedOffsets = new long[ 16 ];
+  private long[] uncompressedOffsets = new long[ 16 ];
+  private int nrChunks;
+
+  private BGZFIndex() {
+  }
+
+  /**
+   * Builds the index by scanning the headers of all the blocks in the file. Only the headers and trailers are read,
+   * the compressed data itself is skipped.
+   *
+   * @param in
+   *          the compressed file, from the start
+   * @param chunkSize
+   *          the minimum number of uncompressed bytes in a chunk
+   * @return the index or null if the file doesn't start with a BGZF block (for example a regular gzip file)
+   * @throws IOException
+   *           in case of a read error or if the file is not BGZF compressed throughout
+   */
+  public static BGZFIndex scan( InputStream in, long chunkSize ) throws IOException {
+    byte[] header = new byte[ BGZFInputStream.FIXED_HEADER_LENGTH + 0xffff ];
+    byte[] size = new byte[ 4 ];
+
+    int blockSize;
+    try {
+      blockSize = BGZFInputStream.readBlockHeader( in, header );
+    } catch ( IOException e ) {
+      return null;
+    }
+
+    BGZFIndex index = new BGZFIndex();
+    index.add( 0L, 0L );
+    long compressedOffset = 0L;
+    long uncompressedOffset = 0L;
+    while ( blockSize >= 0 ) {
+      int dataLength = blockSize - BGZFInputStream.getHeaderLength( header );
+      if ( dataLength < BGZFInputStream.TRAILER_LENGTH ) {
+        throw new IOException( "Invalid BGZF block size: " + blockSize );
+      }
+      skipFully( in, dataLength - size.length );
+      BGZFInputStream.readFully( in, size, 0, size.length );
+      compressedOffset += blockSize;
+      uncompressedOffset += BGZFInputStream.getInt( size, 0 ) & 0xffffffffL;
+      if ( uncompressedOffset - index.uncompressedOffsets[ index.nrChunks - 1 ] >= chunkSize ) {
+        index.add( compressedOffset, uncompressedOffset );
+      }
+      blockSize = BGZFInputStream.readBlockHeader( in, header );
+    }
+
+    // Don't keep an empty chunk at the end of the file
+    //
+    if ( index.nrChunks > 1 && index.uncompressedOffsets[ index.nrChunks - 1 ] == uncompressedOffset ) {
+      index.nrChunks--;
+    }
+    return index;
+  }
+
+  /**
+   * Reads a ".gzi" index file as written by <code>bgzip -i</code>: the number of entries followed by the compressed
+   * and uncompressed offset of every block but the first one, all as little endian 64-bit integers.
+   *
+   * @param in
+   *          the index file
+   * @param chunkSize
+   *          the minimum number of uncompressed bytes in a chunk
+   * @return the index
+   * @throws IOException
+   *           in case of a read error
+   */
+  public static BGZFIndex readGzi( InputStream in, long chunkSize ) throws IOException {
+    byte[] value = new byte[ 8 ];
+    long nrEntries = readLong( in, value );
+    if ( nrEntries < 0 ) {
+      throw new IOException( "Invalid number of entries in BGZF index: " + nrEntries );
+    }
+
+    BGZFIndex index = new BGZFIndex();
+    index.add( 0L, 0L );
+    for ( long i = 0; i < nrEntries; i++ ) {
+      long compressedOffset = readLong( in, value );
+      long uncompressedOffset = readLong( in, value );
+      if ( uncompressedOffset - index.uncompressedOffsets[ index.nrChunks - 1 ] >= chunkSize ) {
+        index.add( compressedOffset, uncompressedOffset );
+      }
+    }
+    return index;
+  }
+
+  /**
+   * @return the number of chunks, at least 1
+   */
+  public int getNrChunks() {
+    return nrChunks;
+  }
+
+  /**
+   * @return the offset in the compressed file of the first block of the chunk
+   */
+  public long getCompressedOffset( int chunk ) {
+    return compressedOffsets[ chunk ];
+  }
+
+  /**
+   * @return the offset in the uncompressed data where the chunk starts
+   */
+  public long getUncompressedOffset( int chunk ) {
+    return uncompressedOffsets[ chunk ];
+  }
+
+  /**
+   * @return the offset in the uncompressed data where the chunk ends or Long.MAX_VALUE for the last chunk
+   */
+  public long getUncompressedEnd( int chunk ) {
+    return chunk + 1 < nrChunks ? uncompressedOffsets[ chunk + 1 ] : Long.MAX_VALUE;
+  }
+
+  private void add( long compressedOffset, long uncompressedOffset ) {
+    if ( nrChunks == compressedOffsets.length ) {
+      compressedOffsets = Arrays.copyOf( compressedOffsets, nrChunks * 2 );
+      uncompressedOffsets = Arrays.copyOf( uncompressedOffsets, nrChunks * 2 );
+    }
+    compressedOffsets[ nrChunks ] = compressedOffset;
+    uncompressedOffsets[ nrChunks ] = uncompressedOffset;
+    nrChunks++;
+  }
+
+  /**
+   * Skips exactly n bytes, {@link InputStream#skip(long)} is allowed to skip less.
+   */
+  public static void skipFully( InputStream in, long n ) throws IOException {
+    while ( n > 0 ) {
+      long skipped = in.skip( n );
+      if ( skipped <= 0 ) {
+        if ( in.read() < 0 ) {
+          throw new EOFException( "Unexpected end of BGZF file" );
+        }
+        skipped = 1;
+      }
+      n -= skipped;
+    }
+  }
+
+  private static long readLong( InputStream in, byte[] value ) throws IOException {
+    BGZFInputStream.readFully( in, value, 0, 8 );
+    return ( BGZFInputStream.getInt( value, 0 ) & 0xffffffffL ) | ( (long) BGZFInputStream.getInt( value, 4 ) << 32 );
+  }
+}
@@ -0,0 +1,231 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.compress.bgzf;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads BGZF (blocked gzip) data. BGZF is a series of small gzip members that each carry their compressed size in a
+ * "BC" extra field, see the SAM/BAM specification. This means that the stream can start at the beginning of any
+ * block, which is what makes it possible to decompress a single file in parallel.<br>
+ * <br>
+ * The blocks are inflated one at a time, independent of what {@link InputStream#available()} returns on the
+ * underlying stream.
+ */
+public class BGZFInputStream extends InputStream {
+
+  /** The maximum size of a block, both compressed and uncompressed */
+  public static final int MAX_BLOCK_SIZE = 65536;
+
+  /** The size of the fixed part of the gzip header, up to and including XLEN */
+  static final int FIXED_HEADER_LENGTH = 12;
+
+  /** The size of the gzip trailer: CRC32 and ISIZE */
+  static final int TRAILER_LENGTH = 8;
+
+  private final InputStream in;
+  private final Inflater inflater = new Inflater( true );
+  private final CRC32 crc = new CRC32();
+  private final byte[] header = new byte[ FIXED_HEADER_LENGTH + 0xffff ];
+  private final byte[] compressed = new byte[ MAX_BLOCK_SIZE ];
+  private final byte[] block = new byte[ MAX_BLOCK_SIZE ];
+  private int blockLength;
+  private int blockPosition;
+  private boolean eof;
+
+  /**
+   * @param in
+   *          the compressed data, positioned at the start of a block
+   */
+  public BGZFInputStream( InputStream in ) {
+    this.in = in;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if ( blockPosition >= blockLength && !readBlock() ) {
+      return -1;
+    }
+    return block[ blockPosition++ ] & 0xff;
+  }
+
+  @Override
+  public int read( byte[] b, int off, int len ) throws IOException {
+    if ( len == 0 ) {
+      return 0;
+    }
+    if ( blockPosition >= blockLength && !readBlock() ) {
+      return -1;
+    }
+    int n = Math.min( len, blockLength - blockPosition );
+    System.arraycopy( block, blockPosition, b, off, n );
+    blockPosition += n;
+    return n;
+  }
+
+  @Override
+  public long skip( long n ) throws IOException {
+    long skipped = 0;
+    while ( skipped < n && ( blockPosition < blockLength || readBlock() ) ) {
+      int step = (int) Math.min( n - skipped, blockLength - blockPosition );
+      blockPosition += step;
+      skipped += step;
+    }
+    return skipped;
+  }
+
+  @Override
+  public int available() {
+    return blockLength - blockPosition;
+  }
+
+  @Override
+  public void close() throws IOException {
+    inflater.end();
+    in.close();
+  }
+
+  /**
+   * Inflates the next block with data, empty blocks like the end of file marker are skipped.
+   *
+   * @return false if the end of the stream was reached
+   */
+  private boolean readBlock() throws IOException {
+    while ( !eof ) {
+      int blockSize = readBlockHeader( in, header );
+      if ( blockSize < 0 ) {
+        eof = true;
+        break;
+      }
+      int dataLength = blockSize - getHeaderLength( header );
+      if ( dataLength < TRAILER_LENGTH ) {
+        throw new IOException( "Invalid BGZF block size: " + blockSize );
+      }
+      readFully( in, compressed, 0, dataLength );
+      int compressedLength = dataLength - TRAILER_LENGTH;
+      long expectedCrc = getInt( compressed, compressedLength ) & 0xffffffffL;
+      int expectedLength = getInt( compressed, compressedLength + 4 );
+      if ( expectedLength < 0 || expectedLength > MAX_BLOCK_SIZE ) {
+        throw new IOException( "Invalid uncompressed BGZF block size: " + expectedLength );
+      }
+
+      inflater.reset();
+      inflater.setInput( compressed, 0, compressedLength );
+      int length = 0;
+      try {
+        while ( length < expectedLength && !inflater.finished() ) {
+          int n = inflater.inflate( block, length, expectedLength - length );
+          if ( n == 0 && ( inflater.needsInput() || inflater.needsDictionary() ) ) {
+            break;
+          }
+          length += n;
+        }
+      } catch ( DataFormatException e ) {
+        throw new IOException( "Corrupt BGZF block", e );
+      }
+      if ( length != expectedLength ) {
+        throw new IOException( "BGZF block inflated to " + length + " bytes instead of " + expectedLength );
+      }
+      crc.reset();
+      crc.update( block, 0, length );
+      if ( crc.getValue() != expectedCrc ) {
+        throw new IOException( "BGZF block CRC mismatch" );
+      }
+
+      blockLength = length;
+      blockPosition = 0;
+      if ( length > 0 ) {
+        return true;
+      }
+    }
+    blockLength = 0;
+    blockPosition = 0;
+    return false;
+  }
+
+  /**
+   * Reads the gzip header of a BGZF block, including the extra field.
+   *
+   * @param in
+   *          the stream, positioned at the start of a block
+   * @param header
+   *          receives the header, needs room for {@link #FIXED_HEADER_LENGTH} + 65535 bytes
+   * @return the total size of the block, including the header or -1 if the stream is at its end
+   * @throws IOException
+   *           in case the data is not a BGZF block
+   */
+  static int readBlockHeader( InputStream in, byte[] header ) throws IOException {
+    int n = 0;
+    while ( n < FIXED_HEADER_LENGTH ) {
+      int r = in.read( header, n, FIXED_HEADER_LENGTH - n );
+      if ( r < 0 ) {
+        if ( n == 0 ) {
+          return -1;
+        }
+        throw new EOFException( "Truncated BGZF block header" );
+      }
+      n += r;
+    }
+    if ( ( header[ 0 ] & 0xff ) != 0x1f || ( header[ 1 ] & 0xff ) != 0x8b || header[ 2 ] != 8
+      || ( header[ 3 ] & 0x04 ) == 0 ) {
+      throw new IOException( "Not a BGZF block" );
+    }
+    int extraLength = getShort( header, 10 );
+    readFully( in, header, FIXED_HEADER_LENGTH, extraLength );
+
+    // Look for the BC sub field that contains the block size
+    //
+    int offset = FIXED_HEADER_LENGTH;
+    int end = FIXED_HEADER_LENGTH + extraLength;
+    while ( offset + 4 <= end ) {
+      int subFieldLength = getShort( header, offset + 2 );
+      if ( header[ offset ] == 'B' && header[ offset + 1 ] == 'C' && subFieldLength == 2 && offset + 6 <= end ) {
+        return getShort( header, offset + 4 ) + 1;
+      }
+      offset += 4 + subFieldLength;
+    }
+    throw new IOException( "Gzip member without a BGZF block size" );
+  }
+
+  /**
+   * @return the length of the header that was read by {@link #readBlockHeader(InputStream, byte[])}
+   */
+  static int getHeaderLength( byte[] header ) {
+    return FIXED_HEADER_LENGTH + getShort( header, 10 );
+  }
+
+  static void readFully( InputStream in, byte[] buffer, int offset, int length ) throws IOException {
+    while ( length > 0 ) {
+      int n = in.read( buffer, offset, length );
+      if ( n < 0 ) {
+        throw new EOFException( "Truncated BGZF block" );
+      }
+      offset += n;
+      length -= n;
+    }
+  }
+
+  static int getShort( byte[] buffer, int offset ) {
+    return ( buffer[ offset ] & 0xff ) | ( buffer[ offset + 1 ] & 0xff ) << 8;
+  }
+
+  static int getInt( byte[] buffer, int offset ) {
+    return getShort( buffer, offset ) | getShort( buffer, offset + 2 ) << 16;
+  }
+}
@@ -0,0 +1,146 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.compress.bgzf;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes BGZF (blocked gzip) data: a series of gzip members of at most 64KB each, followed by the standard empty end
+ * of file block. The output can be read by any gzip reader, but it can also be split on block boundaries to
+ * decompress it in parallel.
+ */
+public class BGZFOutputStream extends OutputStream {
+
+  /** The maximum amount of uncompressed data in a block, leaves room for incompressible data */
+  public static final int MAX_INPUT_SIZE = 0xff00;
+
+  /** The empty block that marks the end of a BGZF file */
+  static final byte[] EOF_BLOCK = {
+    0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff, 6, 0, 'B', 'C', 2, 0, 0x1b, 0, 3, 0, 0, 0, 0, 0, 0, 0, 0, 0, };
+
+  /** The header up to the block size, which is the same for every block we write */
+  private static final byte[] HEADER = {
+    0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff, 6, 0, 'B', 'C', 2, 0, };
+
+  private final OutputStream out;
+  private final Deflater deflater;
+  private final CRC32 crc = new CRC32();
+  private final byte[] buffer = new byte[ MAX_INPUT_SIZE ];
+  private final byte[] compressed = new byte[ BGZFInputStream.MAX_BLOCK_SIZE ];
+  private int length;
+  private boolean closed;
+
+  public BGZFOutputStream( OutputStream out ) {
+    this( out, Deflater.DEFAULT_COMPRESSION );
+  }
+
+  public BGZFOutputStream( OutputStream out, int level ) {
+    this.out = out;
+    this.deflater = new Deflater( level, true );
+  }
+
+  @Override
+  public void write( int b ) throws IOException {
+    if ( length == buffer.length ) {
+      writeBlock();
+    }
+    buffer[ length++ ] = (byte) b;
+  }
+
+  @Override
+  public void write( byte[] b, int off, int len ) throws IOException {
+    while ( len > 0 ) {
+      if ( length == buffer.length ) {
+        writeBlock();
+      }
+      int n = Math.min( len, buffer.length - length );
+      System.arraycopy( b, off, buffer, length, n );
+      length += n;
+      off += n;
+      len -= n;
+    }
+  }
+
+  /**
+   * Writes the buffered data as a block. Blocks are only written when they are full or when the stream is closed,
+   * flushing just flushes the underlying stream so the block size stays large.
+   */
+  @Override
+  public void flush() throws IOException {
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if ( closed ) {
+      return;
+    }
+    closed = true;
+    try {
+      if ( length > 0 ) {
+        writeBlock();
+      }
+      out.write( EOF_BLOCK );
+      out.flush();
+    } finally {
+      deflater.end();
+      out.close();
+    }
+  }
+
+  private void writeBlock() throws IOException {
+    deflater.reset();
+    deflater.setInput( buffer, 0, length );
+    deflater.finish();
+    int compressedLength = 0;
+    while ( !deflater.finished() ) {
+      if ( compressedLength == compressed.length ) {
+        throw new IOException( "BGZF block of " + length + " bytes doesn't fit after compression" );
+      }
+      compressedLength += deflater.deflate( compressed, compressedLength, compressed.length - compressedLength );
+    }
+    crc.reset();
+    crc.update( buffer, 0, length );
+
+    int blockSize = HEADER.length + 2 + compressedLength + BGZFInputStream.TRAILER_LENGTH;
+    if ( blockSize > BGZFInputStream.MAX_BLOCK_SIZE ) {
+      throw new IOException( "BGZF block of " + length + " bytes doesn't fit after compression" );
+    }
+    byte[] size = new byte[ 2 ];
+    putShort( size, 0, blockSize - 1 );
+    byte[] trailer = new byte[ BGZFInputStream.TRAILER_LENGTH ];
+    putInt( trailer, 0, (int) crc.getValue() );
+    putInt( trailer, 4, length );
+
+    out.write( HEADER );
+    out.write( size );
+    out.write( compressed, 0, compressedLength );
+    out.write( trailer );
+
+    length = 0;
+  }
+
+  private static void putShort( byte[] buffer, int offset, int value ) {
+    buffer[ offset ] = (byte) value;
+    buffer[ offset + 1 ] = (byte) ( value >>> 8 );
+  }
+
+  private static void putInt( byte[] buffer, int offset, int value ) {
+    putShort( buffer, offset, value );
+    putShort( buffer, offset + 2, value >>> 16 );
+  }
+}
@@ -0,0 +1,437 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.pentaho.di.core.Const;
+import org.pentaho.di.core.RowSet;
+import org.pentaho.di.core.database.DatabaseMeta;
+import org.pentaho.di.i18n.BaseMessages;
+import org.pentaho.di.trans.step.RunThread;
+import org.pentaho.di.trans.step.StepInterface;
+import org.pentaho.di.trans.step.StepMetaDataCombi;
+
+/**
+ * Runs the step copies of a transformation without a thread per step copy. All transformations share a work-stealing
+ * {@link ForkJoinPool} with one worker per processor. A step copy is scheduled on the pool when it can make progress:
+ * it has input rows (or all its input is done, or it has no input at all) and all its output row sets have room.
+ * It then calls processRow() until that is no longer the case or until its time slice is used up, after which it
+ * wakes up the steps before and after it and goes to the back of the queue.<br>
+ * <br>
+ * A step that still has to wait, for example for the rows of a specific input or the info stream of a lookup, waits
+ * in the row set as a managed blocker: the pool temporarily adds a worker so that the other steps keep running. A
+ * timer checks the idle steps regularly, this picks up the steps that wait for something else than a row set (a
+ * remote socket, a paused step being resumed, a stopped transformation), as well as the steps next to a step copy that
+ * runs in a thread of its own because it blocks, see {@link #isBlocking(StepMetaDataCombi)}.<br>
+ * <br>
+ * The CPU time used by each step copy is measured per time slice and logged when the step copy is finished.
+ */
+public class StepScheduler {
+  private static final Class<?> PKG = Trans.class; // for i18n purposes, needed by Translator2!!
+
+  /** The default length of a time slice in milliseconds */
+  public static final int DEFAULT_SLICE_MILLIS = 2;
+
+  /** The idle steps are checked this often (ms) */
+  private static final long TICK_MILLIS = 10L;
+
+  private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+  private static class Pool {
+    private static volatile ForkJoinPool pool = createPool( getParallelism() );
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor( runnable -> {
+      Thread thread = new Thread( runnable, "Kettle step scheduler timer" );
+      thread.setDaemon( true );
+      return thread;
+    } );
+  }
+
+  private static final int IDLE = 0;
+  private static final int SCHEDULED = 1;
+  private static final int RUNNING = 2;
+  private static final int FINISHED = 3;
+
+  private final Trans trans;
+  private final ForkJoinPool pool;
+  private final int rowSetSize;
+  private final long sliceNanos;
+  private final boolean measureCpuTime;
+  private final List<ScheduledStep> scheduledSteps = new ArrayList<>();
+  private final AtomicInteger nrActive = new AtomicInteger();
+  private volatile ScheduledFuture<?> ticker;
+
+  public StepScheduler( Trans trans ) {
+    this.trans = trans;
+    this.pool = Pool.pool;
+    this.rowSetSize = Math.max( 1, trans.getTransMeta().getSizeRowset() );
+    int sliceMillis =
+      Const.toInt( System.getProperty( Const.KETTLE_STEP_SCHEDULER_SLICE_MILLIS ), DEFAULT_SLICE_MILLIS );
+    this.sliceNanos = TimeUnit.MILLISECONDS.toNanos( Math.max( 1, sliceMillis ) );
+    this.measureCpuTime = THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() && THREAD_MX_BEAN.isThreadCpuTimeEnabled();
+  }
+
+  /**
+   * @return the number of workers of the pool shared by all transformations
+   */
+  public static int getParallelism() {
+    int processors = Runtime.getRuntime().availableProcessors();
+    return Math.max( 1, Const.toInt( System.getProperty( Const.KETTLE_STEP_SCHEDULER_THREADS ), processors ) );
+  }
+
+  static ForkJoinPool createPool( int parallelism ) {
+    return new ForkJoinPool( parallelism, pool -> {
+      ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread( pool );
+      thread.setName( "Kettle step scheduler-" + thread.getPoolIndex() );
+      thread.setDaemon( true );
+      return thread;
+    }, null, true );
+  }
+
+  /**
+   * Replaces the pool the schedulers created from now on use.
+   *
+   * @return the previous pool
+   */
+  @VisibleForTesting
+  static ForkJoinPool setPool( ForkJoinPool pool ) {
+    ForkJoinPool previous = Pool.pool;
+    Pool.pool = pool;
+    return previous;
+  }
+
+  /**
+   * A step copy that blocks while processing rows would hold on to a worker of the pool shared by all
+   * transformations. A transformation executor for example waits for its sub-transformation, whose steps need the
+   * same workers. Such step copies run in a thread of their own instead: all the steps that don't declare that they
+   * never block (see {@link org.pentaho.di.trans.step.StepMetaInterface#isBlocking()}) and the steps that use a
+   * database connection.
+   *
+   * @param combi the step copy
+   * @return true if the step copy should not run on the pool
+   */
+  public static boolean isBlocking( StepMetaDataCombi combi ) {
+    if ( combi.meta == null || combi.meta.isBlocking() ) {
+      return true;
+    }
+    DatabaseMeta[] databases = combi.meta.getUsedDatabaseConnections();
+    return databases != null && databases.length > 0;
+  }
+
+  /**
+   * Adds a step copy to run, this needs to be done for all step copies before {@link #start()} is called.
+   *
+   * @param combi the initialized step copy
+   */
+  public void addStep( StepMetaDataCombi combi ) {
+    scheduledSteps.add( new ScheduledStep( combi ) );
+  }
+
+  /**
+   * Starts running all the step copies.
+   */
+  public void start() {
+    // Find out which steps to wake up when a step has produced or consumed rows
+    //
+    Map<RowSet, ScheduledStep> producers = new IdentityHashMap<>();
+    Map<RowSet, ScheduledStep> consumers = new IdentityHashMap<>();
+    for ( ScheduledStep scheduledStep : scheduledSteps ) {
+      for ( RowSet rowSet : scheduledStep.outputRowSets ) {
+        producers.put( rowSet, scheduledStep );
+      }
+      for ( RowSet rowSet : scheduledStep.inputRowSets ) {
+        consumers.put( rowSet, scheduledStep );
+      }
+    }
+    for ( ScheduledStep scheduledStep : scheduledSteps ) {
+      Set<ScheduledStep> neighbours = new LinkedHashSet<>();
+      for ( RowSet rowSet : scheduledStep.outputRowSets ) {
+        addIfNotNull( neighbours, consumers.get( rowSet ) );
+      }
+      for ( RowSet rowSet : scheduledStep.inputRowSets ) {
+        addIfNotNull( neighbours, producers.get( rowSet ) );
+      }
+      neighbours.remove( scheduledStep );
+      scheduledStep.neighbours = neighbours.toArray( new ScheduledStep[ neighbours.size() ] );
+    }
+
+    nrActive.set( scheduledSteps.size() );
+    if ( scheduledSteps.isEmpty() ) {
+      return;
+    }
+    ticker = Pool.TIMER.scheduleWithFixedDelay( this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS );
+    for ( ScheduledStep scheduledStep : scheduledSteps ) {
+      scheduledStep.schedule();
+    }
+  }
+
+  private static void addIfNotNull( Set<ScheduledStep> set, ScheduledStep scheduledStep ) {
+    if ( scheduledStep != null ) {
+      set.add( scheduledStep );
+    }
+  }
+
+  private void tick() {
+    for ( ScheduledStep scheduledStep : scheduledSteps ) {
+      scheduledStep.wake();
+    }
+  }
+
+  /**
+   * @param step a step copy of the transformation
+   * @return the CPU time in nanoseconds the step copy used so far or -1 if it isn't known
+   */
+  public long getCpuTime( StepInterface step ) {
+    ScheduledStep scheduledStep = findScheduledStep( step );
+    return scheduledStep != null && measureCpuTime ? scheduledStep.cpuTime : -1L;
+  }
+
+  /**
+   * @param step a step copy of the transformation
+   * @return the number of time slices the step copy ran in so far
+   */
+  public long getNrSlices( StepInterface step ) {
+    ScheduledStep scheduledStep = findScheduledStep( step );
+    return scheduledStep != null ? scheduledStep.nrSlices : 0L;
+  }
+
+  private ScheduledStep findScheduledStep( StepInterface step ) {
+    for ( ScheduledStep scheduledStep : scheduledSteps ) {
+      if ( scheduledStep.step == step ) {
+        return scheduledStep;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return the number of step copies that are not finished yet
+   */
+  public int getNrActiveSteps() {
+    return nrActive.get();
+  }
+
+  private void stepFinished() {
+    if ( nrActive.decrementAndGet() == 0 ) {
+      ScheduledFuture<?> future = ticker;
+      if ( future != null ) {
+        future.cancel( false );
+      }
+    }
+  }
+
+  private long currentThreadCpuTime() {
+    return measureCpuTime ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : 0L;
+  }
+
+  /**
+   * The scheduling state of a step copy. It is only ever run by one worker at a time: it is submitted to the pool
+   * when its state goes from idle to scheduled and it only goes back to idle at the end of the time slice.
+   */
+  private class ScheduledStep implements Runnable {
+    private final StepMetaDataCombi combi;
+    private final StepInterface step;
+    private final RunThread runThread;
+    private final RowSet[] inputRowSets;
+    private final RowSet[] outputRowSets;
+    private final AtomicInteger state = new AtomicInteger( IDLE );
+    private ScheduledStep[] neighbours = new ScheduledStep[ 0 ];
+
+    /** Set when somebody tried to schedule the step while it was running */
+    private volatile boolean wakeUp;
+
+    private boolean started;
+    private volatile long cpuTime;
+    private volatile long nrSlices;
+
+    ScheduledStep( StepMetaDataCombi combi ) {
+      this.combi = combi;
+      this.step = combi.step;
+      this.runThread = new RunThread( combi );
+
+      // Thread priority management makes steps sleep: that would block the workers.
+      //
+      step.setUsingThreadPriorityManagment( false );
+
+      List<RowSet> inputs = step.getInputRowSets();
+      List<RowSet> outputs = step.getOutputRowSets();
+      this.inputRowSets = inputs.toArray( new RowSet[ inputs.size() ] );
+      this.outputRowSets = outputs.toArray( new RowSet[ outputs.size() ] );
+    }
+
+    /**
+     * Schedules the step if it is idle, asks it to run again if it is running.
+     */
+    void schedule() {
+      while ( true ) {
+        int current = state.get();
+        if ( current == IDLE ) {
+          if ( state.compareAndSet( IDLE, SCHEDULED ) ) {
+            submit();
+            return;
+          }
+        } else if ( current == RUNNING ) {
+          wakeUp = true;
+          // If the step went idle in the meantime it might not have seen the flag
+          //
+          if ( state.get() != IDLE ) {
+            return;
+          }
+        } else {
+          return;
+        }
+      }
+    }
+
+    /**
+     * Schedules the step if it could make progress.
+     */
+    void wake() {
+      int current = state.get();
+      if ( current == RUNNING || current == IDLE && isReady() ) {
+        schedule();
+      }
+    }
+
+    private void submit() {
+      // From a worker, fork to the local queue so that idle workers can steal the task
+      //
+      if ( ForkJoinTask.inForkJoinPool() && ForkJoinTask.getPool() == pool ) {
+        ForkJoinTask.adapt( this ).fork();
+      } else {
+        pool.execute( this );
+      }
+    }
+
+    /**
+     * @return true if processRow() can be called without having to wait for input rows or room for output rows
+     */
+    boolean isReady() {
+      if ( step.isStopped() ) {
+        return true;
+      }
+      if ( step.isPaused() ) {
+        return false;
+      }
+      for ( RowSet rowSet : outputRowSets ) {
+        if ( rowSet.size() >= rowSetSize ) {
+          return false;
+        }
+      }
+      if ( inputRowSets.length == 0 ) {
+        return true;
+      }
+      boolean allDone = true;
+      for ( RowSet rowSet : inputRowSets ) {
+        if ( rowSet.size() > 0 ) {
+          return true;
+        }
+        allDone &= rowSet.isDone();
+      }
+      return allDone;
+    }
+
+    @Override
+    public void run() {
+      state.set( RUNNING );
+      wakeUp = false;
+
+      Thread thread = Thread.currentThread();
+      String workerName = thread.getName();
+      thread.setName( workerName + " (" + trans.getName() + " - " + combi.stepname + "." + combi.copy + ")" );
+      long cpuStart = currentThreadCpuTime();
+      boolean finished;
+      try {
+        finished = runSlice();
+      } finally {
+        cpuTime += currentThreadCpuTime() - cpuStart;
+        nrSlices++;
+        thread.setName( workerName );
+      }
+
+      if ( finished ) {
+        state.set( FINISHED );
+        finish();
+        wakeNeighbours();
+        stepFinished();
+        return;
+      }
+
+      wakeNeighbours();
+      state.set( IDLE );
+      if ( wakeUp || isReady() ) {
+        schedule();
+      }
+    }
+
+    /**
+     * @return true if the step is done processing rows
+     */
+    private boolean runSlice() {
+      try {
+        if ( !started ) {
+          started = true;
+          runThread.startProcessing();
+        }
+        if ( step.isStopped() ) {
+          return true;
+        }
+        if ( !isReady() ) {
+          return false;
+        }
+        long end = System.nanoTime() + sliceNanos;
+        do {
+          if ( !step.processRow( combi.meta, combi.data ) || step.isStopped() ) {
+            return true;
+          }
+        } while ( isReady() && System.nanoTime() - end < 0 );
+        return false;
+      } catch ( Throwable t ) {
+        runThread.handleError( t );
+        return true;
+      }
+    }
+
+    private void finish() {
+      runThread.finishProcessing();
+      if ( measureCpuTime && step.getLogChannel().isDetailed() ) {
+        step.getLogChannel().logDetailed( BaseMessages.getString( PKG, "StepScheduler.Log.CpuTime",
+          String.valueOf( TimeUnit.NANOSECONDS.toMillis( cpuTime ) ), String.valueOf( nrSlices ) ) );
+      }
+    }
+
+    private void wakeNeighbours() {
+      for ( ScheduledStep neighbour : neighbours ) {
+        neighbour.wake();
+      }
+    }
+  }
+}
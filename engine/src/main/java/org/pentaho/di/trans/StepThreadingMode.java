@@ -0,0 +1,129 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.pentaho.di.core.util.VirtualThreads;
+import org.pentaho.di.i18n.BaseMessages;
+
+/**
+ * The kind of threads a transformation uses to initialize and run its step copies.
+ */
+public enum StepThreadingMode {
+
+  /** A new platform thread for each step copy, the classic behavior. */
+  PLATFORM( "Platform" ),
+
+  /** A new virtual thread for each step copy, platform threads if the JVM doesn't support virtual threads. */
+  VIRTUAL( "Virtual" ),
+
+  /** Platform threads that are kept for reuse once a step copy is done, avoids creating threads for small runs. */
+  POOLED( "Pooled" ),
+
+  /**
+   * The step copies don't get a thread of their own: a {@link StepScheduler} runs them in short time slices on a
+   * work-stealing pool shared by all transformations, whenever they have input rows and room for output rows. Other
+   * work, like the initialization of the steps, is done in pooled threads, just like running the step copies that
+   * block (see {@link StepScheduler#isBlocking(org.pentaho.di.trans.step.StepMetaDataCombi)}).
+   */
+  SCHEDULED( "Scheduled" );
+
+  private static final Class<?> PKG = Trans.class; // for i18n purposes, needed by Translator2!!
+
+  /** Idle pooled threads are stopped after this many seconds */
+  private static final long POOL_KEEP_ALIVE_SECONDS = 60L;
+
+  private static class Pool {
+    // The pool can't have an upper bound: all the step copies of a transformation need to run at the same time.
+    //
+    private static final ExecutorService EXECUTOR = new ThreadPoolExecutor( 0, Integer.MAX_VALUE,
+      POOL_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+        Thread thread = new Thread( runnable );
+        thread.setDaemon( true );
+        return thread;
+      } );
+  }
+
+  private final String code;
+
+  StepThreadingMode( String code ) {
+    this.code = code;
+  }
+
+  public String getCode() {
+    return code;
+  }
+
+  public String getDescription() {
+    return BaseMessages.getString( PKG, "Trans.StepThreadingMode." + code );
+  }
+
+  /**
+   * @param code the code of a threading mode, case insensitive
+   * @return the threading mode or null if the code is empty or unknown
+   */
+  public static StepThreadingMode getStepThreadingModeByCode( String code ) {
+    if ( code != null ) {
+      for ( StepThreadingMode mode : values() ) {
+        if ( mode.code.equalsIgnoreCase( code.trim() ) ) {
+          return mode;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Runs something in a thread of this kind.
+   *
+   * @param name     the name of the thread
+   * @param runnable the work to do
+   * @return a future to wait for the work to finish
+   */
+  public Future<?> start( String name, Runnable runnable ) {
+    FutureTask<Void> task = new FutureTask<>( runnable, null );
+    Thread thread = null;
+    switch ( this ) {
+      case POOLED:
+      case SCHEDULED:
+        Pool.EXECUTOR.execute( () -> {
+          Thread current = Thread.currentThread();
+          String poolName = current.getName();
+          current.setName( name );
+          try {
+            task.run();
+          } finally {
+            current.setName( poolName );
+          }
+        } );
+        return task;
+      case VIRTUAL:
+        thread = VirtualThreads.newThread( name, task );
+        break;
+      default:
+        break;
+    }
+    if ( thread == null ) {
+      thread = new Thread( task, name );
+    }
+    thread.start();
+    return task;
+  }
+}
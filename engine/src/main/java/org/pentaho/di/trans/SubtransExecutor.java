@@ -51,6 +51,7 @@ public class SubtransExecutor {
   Set<Trans> running;
   private Semaphore semaphore;
   private final int prefetchCount;
+  private final SubtransPool pool;
 
   public SubtransExecutor( String subTransName, Trans parentTrans, TransMeta subtransMeta, boolean shareVariables,
                            TransExecutorParameters parameters, String subStep, int prefetchCount ) {
@@ -64,6 +65,9 @@ public class SubtransExecutor {
     this.running = ConcurrentHashMap.newKeySet();
     this.prefetchCount = prefetchCount;
     this.semaphore = new Semaphore( prefetchCount );
+    int poolSize =
+      parentTrans != null ? Const.toInt( parentTrans.getVariable( Const.KETTLE_SUBTRANS_POOL_SIZE ), 0 ) : 0;
+    this.pool = poolSize > 0 ? new SubtransPool( this::createSubtrans, this::initializeVariables, poolSize ) : null;
   }
 
   public Optional<Result> execute( List<RowMetaAndData> rows ) throws KettleException {
@@ -71,7 +75,7 @@ public class SubtransExecutor {
       return Optional.empty();
     }
 
-    Trans subtrans = this.createSubtrans();
+    Trans subtrans = pool != null ? pool.take() : this.createSubtrans();
     running.add( subtrans );
     parentTrans.addActiveSubTransformation( subTransName, subtrans );
 
@@ -126,15 +130,25 @@ public class SubtransExecutor {
     subTrans.setRepository( this.parentTrans.getRepository() );
     subTrans.setLogLevel( this.parentTrans.getLogLevel() );
     subTrans.setArguments( this.parentTrans.getArguments() );
+    initializeVariables( subTrans );
+    subTrans.copyParametersFrom( this.subtransMeta );
+    subTrans.setPreview( this.parentTrans.isPreview() );
+    TransStepUtil.initServletConfig( this.parentTrans, subTrans );
+    return subTrans;
+  }
+
+  /**
+   * Initializes the variables of a new sub-transformation. One created ahead of time by the {@link SubtransPool} gets
+   * them again when it's taken, the variables could have changed in the meantime.
+   */
+  private void initializeVariables( Trans subTrans ) {
     if ( this.shareVariables ) {
       subTrans.shareVariablesWith( this.parentTrans );
+    } else {
+      subTrans.initializeVariablesFrom( this.subtransMeta );
     }
 
     subTrans.setInternalKettleVariables( this.parentTrans );
-    subTrans.copyParametersFrom( this.subtransMeta );
-    subTrans.setPreview( this.parentTrans.isPreview() );
-    TransStepUtil.initServletConfig( this.parentTrans, subTrans );
-    return subTrans;
   }
 
   private void passParametersToTrans( Trans internalTrans, RowMetaAndData rowMetaAndData ) throws KettleException {
@@ -170,6 +184,9 @@ public class SubtransExecutor {
 
   public void stop() {
     stopped = true;
+    if ( pool != null ) {
+      pool.close();
+    }
     for ( Trans subTrans : running ) {
       subTrans.stopAll();
     }
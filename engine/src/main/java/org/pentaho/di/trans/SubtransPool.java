@@ -0,0 +1,165 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.pentaho.di.core.Const;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.logging.KettleLogStore;
+import org.pentaho.di.core.logging.LogChannel;
+import org.pentaho.di.core.logging.LogChannelInterface;
+import org.pentaho.di.core.logging.LoggingRegistry;
+import org.pentaho.di.core.util.ExecutorUtil;
+
+/**
+ * Keeps a number of sub-transformations created and configured ahead of time, so that a step executing a
+ * sub-transformation over and over doesn't wait for the metadata, variables, parameters and logging channel of the
+ * next one to be set up. The pool is filled in the background each time a sub-transformation is taken from it.
+ * <p>
+ * Only freshly created sub-transformations are handed out: they are prepared and their steps are initialized by the
+ * caller for every execution, since step initialization depends on the parameters and the previous result of that
+ * execution. Their variables are initialized again when they're taken from the pool: a sub-transformation is created
+ * while the previous one is still running, which can change the variables of the parent.
+ *
+ * @since 11.0
+ */
+public class SubtransPool {
+
+  /**
+   * Creates a sub-transformation configured the way the executing step wants it.
+   */
+  public interface SubtransFactory {
+    Trans createSubtrans() throws KettleException;
+  }
+
+  /**
+   * Initializes the variables of a sub-transformation the same way the factory does when it creates one.
+   */
+  public interface VariablesInitializer {
+    void initializeVariables( Trans trans );
+  }
+
+  private static final LogChannelInterface log = new LogChannel( SubtransPool.class.getName() );
+
+  private final SubtransFactory factory;
+  private final VariablesInitializer variablesInitializer;
+  private final int size;
+  private final Executor executor;
+
+  private final Queue<Trans> idle = new ConcurrentLinkedQueue<>();
+
+  /** The number of idle sub-transformations plus the ones being created */
+  private final AtomicInteger pending = new AtomicInteger();
+
+  private volatile boolean closed;
+
+  public SubtransPool( SubtransFactory factory, VariablesInitializer variablesInitializer, int size ) {
+    this( factory, variablesInitializer, size, ExecutorUtil.getExecutor() );
+  }
+
+  @VisibleForTesting
+  SubtransPool( SubtransFactory factory, VariablesInitializer variablesInitializer, int size, Executor executor ) {
+    this.factory = factory;
+    this.variablesInitializer = variablesInitializer;
+    this.size = size;
+    this.executor = executor;
+  }
+
+  /**
+   * Takes a sub-transformation from the pool, or creates one if none is ready yet, and starts creating the next ones.
+   *
+   * @return a sub-transformation that was never prepared or executed
+   * @throws KettleException in case the sub-transformation can't be created
+   */
+  public Trans take() throws KettleException {
+    Trans trans = idle.poll();
+    if ( trans != null ) {
+      pending.decrementAndGet();
+      variablesInitializer.initializeVariables( trans );
+    } else {
+      trans = factory.createSubtrans();
+    }
+    fill();
+    return trans;
+  }
+
+  /**
+   * Stops filling the pool and discards the sub-transformations that were never taken.
+   */
+  public void close() {
+    closed = true;
+    discardIdle();
+  }
+
+  public boolean isClosed() {
+    return closed;
+  }
+
+  @VisibleForTesting
+  int getIdleCount() {
+    return idle.size();
+  }
+
+  private void fill() {
+    while ( !closed ) {
+      int count = pending.get();
+      if ( count >= size ) {
+        return;
+      }
+      if ( pending.compareAndSet( count, count + 1 ) ) {
+        executor.execute( this::createIdle );
+      }
+    }
+  }
+
+  private void createIdle() {
+    Trans trans = null;
+    try {
+      if ( !closed ) {
+        trans = factory.createSubtrans();
+      }
+    } catch ( KettleException | RuntimeException e ) {
+      // The next take() creates the sub-transformation itself and reports the error to the step
+      //
+      if ( log.isDebug() ) {
+        log.logDebug( "Unable to create a sub-transformation ahead of time: " + Const.getStackTracker( e ) );
+      }
+    }
+    if ( trans == null ) {
+      pending.decrementAndGet();
+      return;
+    }
+    idle.add( trans );
+
+    // We might have missed a close() while creating it
+    //
+    if ( closed ) {
+      discardIdle();
+    }
+  }
+
+  private void discardIdle() {
+    Trans trans;
+    while ( ( trans = idle.poll() ) != null ) {
+      pending.decrementAndGet();
+      KettleLogStore.discardLines( trans.getLogChannelId(), false );
+      LoggingRegistry.getInstance().removeIncludingChildren( trans.getLogChannelId() );
+    }
+  }
+}
@@ -17,6 +17,7 @@ package org.pentaho.di.trans;
 import org.pentaho.di.base.IMetaFileCache;
 import org.pentaho.di.cluster.SlaveServer;
 import org.pentaho.di.core.BlockingBatchingRowSet;
+import org.pentaho.di.core.ColumnarRowSet;
 import org.pentaho.di.core.BlockingRowSet;
 import org.pentaho.di.core.Const;
 import org.pentaho.di.core.Counter;
@@ -27,6 +28,7 @@ import org.pentaho.di.core.QueueRowSet;
 import org.pentaho.di.core.Result;
 import org.pentaho.di.core.ResultFile;
 import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.RingBufferRowSet;
 import org.pentaho.di.core.RowSet;
 import org.pentaho.di.core.SingleRowRowSet;
 import org.pentaho.di.core.bowl.Bowl;
@@ -67,10 +69,12 @@ import org.pentaho.di.core.parameters.DuplicateParamException;
 import org.pentaho.di.core.parameters.NamedParams;
 import org.pentaho.di.core.parameters.NamedParamsDefault;
 import org.pentaho.di.core.parameters.UnknownParamException;
+import org.pentaho.di.core.row.RowArrayPool;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.core.row.value.ValueMetaString;
 import org.pentaho.di.core.util.ConnectionUtil;
 import org.pentaho.di.core.util.EnvUtil;
+import org.pentaho.di.core.util.ManagedBlocking;
 import org.pentaho.di.core.util.Utils;
 import org.pentaho.di.core.variables.VariableSpace;
 import org.pentaho.di.core.variables.Variables;
@@ -93,6 +97,7 @@ import org.pentaho.di.trans.step.BaseStepData.StepExecutionStatus;
 import org.pentaho.di.trans.step.RunThread;
 import org.pentaho.di.trans.step.StepAdapter;
 import org.pentaho.di.trans.step.StepDataInterface;
+import org.pentaho.di.trans.step.StepErrorMeta;
 import org.pentaho.di.trans.step.StepInitThread;
 import org.pentaho.di.trans.step.StepInterface;
 import org.pentaho.di.trans.step.StepListener;
@@ -135,10 +140,12 @@ import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.vfs2.FileName;
 import org.apache.commons.vfs2.FileObject;
@@ -457,6 +464,12 @@ public class Trans implements VariableSpace, NamedParams, HasLogChannelInterface
    */
   private int nrOfFinishedSteps;
 
+  /**
+   * Guards the end of the transformation when steps finish. Not a synchronized block: the finished listeners can do I/O
+   * (logging tables) which would pin the carrier thread of a virtual step thread.
+   */
+  private final ReentrantLock stepFinishedLock = new ReentrantLock();
+
   /**
    * The number of active steps.
    */
@@ -551,6 +564,12 @@ public class Trans implements VariableSpace, NamedParams, HasLogChannelInterface
 
   private ExecutorService heartbeat = null; // this transformations's heartbeat scheduled executor
 
+  /** The kind of threads to run the steps in, null to inherit it or to use the variable */
+  private StepThreadingMode stepThreadingMode;
+
+  /** Runs the step copies when the steps are started in the Scheduled threading mode. */
+  private StepScheduler stepScheduler;
+
   private boolean executingClustered;
 
   private static final int TRANS_FINISHED_BLOCKING_QUEUE_SIZE =
@@ -980,9 +999,23 @@ public class Trans implements VariableSpace, NamedParams, HasLogChannelInterface
                   ValueMetaString.convertStringToBoolean( System.getProperty( Const.KETTLE_BATCHING_ROWSET ) );
                 if ( batchingRowSet != null && batchingRowSet.booleanValue() ) {
                   rowSet = new BlockingBatchingRowSet( transMeta.getSizeRowset() );
+                } else if ( dispatchType == TYPE_DISP_1_1 && isColumnarRowSetEnabled()
+                  && isColumnarHop( thisStep, nextStep ) ) {
+                  // Both steps work on columnar batches: don't convert to rows in between
+                  //
+                  rowSet = new ColumnarRowSet( transMeta.getSizeRowset() );
+                } else if ( dispatchType == TYPE_DISP_1_1 && isRingBufferRowSetEnabled() ) {
+                  // Exactly one writing and one reading thread: we don't need any locking
+                  //
+                  rowSet = new RingBufferRowSet( transMeta.getSizeRowset() );
                 } else {
                   rowSet = new BlockingRowSet( transMeta.getSizeRowset() );
                 }
+                if ( dispatchType == TYPE_DISP_1_1 && isRowArrayPoolEnabled()
+                  && !( rowSet instanceof ColumnarRowSet ) && isRowArrayPoolHop( thisStep ) ) {
+                  rowSet.setRowArrayPool( new RowArrayPool( transMeta.getSizeRowset() + 2 * BaseStep.ROW_BATCH_SIZE,
+                    isRowArrayPoolDebugEnabled() ) );
+                }
                 break;
 
               case SerialSingleThreaded:
@@ -1233,7 +1266,8 @@ public class Trans implements VariableSpace, NamedParams, HasLogChannelInterface
     }
 
     StepInitThread[] initThreads = new StepInitThread[ steps.size() ];
-    Thread[] threads = new Thread[ steps.size() ];
+    Future<?>[] threads = new Future<?>[ steps.size() ];
+    StepThreadingMode threadingMode = getStepThreadingMode();
 
     // Initialize all the threads...
     //
@@ -1247,20 +1281,18 @@ public class Trans implements VariableSpace, NamedParams, HasLogChannelInterface
         //
         initThreads[ i ] = new StepInitThread( sid, log );
 
+        ExtensionPointHandler.callExtensionPoint( log, KettleExtensionPoint.StepBeforeInitialize.id, initThreads[ i ] );
+
         // Put it in a separate thread!
         //
-        threads[ i ] = new Thread( initThreads[ i ] );
-        threads[ i ].setName( "init of " + sid.stepname + "." + sid.copy + " (" + threads[ i ].getName() + ")" );
-
-        ExtensionPointHandler.callExtensionPoint( log, KettleExtensionPoint.StepBeforeInitialize.id, initThreads[ i ] );
-        threads[ i ].start();
+        threads[ i ] = threadingMode.start( "init of " + sid.stepname + "." + sid.copy, initThreads[ i ] );
       }
     }
 
     if ( !skipInit ) {
       for ( int i = 0; i < threads.length; i++ ) {
         try {
-          threads[ i ].join();
+          threads[ i ].get();
           ExtensionPointHandler.callExtensionPoint( log, KettleExtensionPoint.StepAfterInitialize.id, initThreads[ i ] );
         } catch ( Exception ex ) {
           log.logError( "Error with init thread: " + ex.getMessage(), ex.getMessage() );
@@ -1347,6 +1379,61 @@ public class Trans implements VariableSpace, NamedParams, HasLogChannelInterface
     setReadyToStart( true );
   }
 
+  /**
+   * The lock-free ring buffer row set is used for single producer, single consumer hops unless it was switched off with
+   * the KETTLE_RINGBUFFER_ROWSET variable.
+   */
+  private static boolean isRingBufferRowSetEnabled() {
+    Boolean ringBufferRowSet =
+      ValueMetaString.convertStringToBoolean( System.getProperty( Const.KETTLE_RINGBUFFER_ROWSET ) );
+    return ringBufferRowSet == null || ringBufferRowSet.booleanValue();
+  }
+
+  /**
+   * Columnar row sets are only used when asked for with the KETTLE_COLUMNAR_ROWSET variable.
+   */
+  private static boolean isColumnarRowSetEnabled() {
+    Boolean columnarRowSet =
+      ValueMetaString.convertStringToBoolean( System.getProperty( Const.KETTLE_COLUMNAR_ROWSET ) );
+    return columnarRowSet != null && columnarRowSet.booleanValue();
+  }
+
+  /**
+   * A hop can carry columnar batches if both steps support them. Error rows are sent one at a time so the error
+   * handling hop keeps using rows.
+   */
+  private static boolean isColumnarHop( StepMeta thisStep, StepMeta nextStep ) {
+    if ( !thisStep.getStepMetaInterface().supportsColumnarBatches()
+      || !nextStep.getStepMetaInterface().supportsColumnarBatches() ) {
+      return false;
+    }
+    StepErrorMeta stepErrorMeta = thisStep.getStepErrorMeta();
+    return !thisStep.isDoingErrorHandling() || stepErrorMeta == null
+      || !nextStep.equals( stepErrorMeta.getTargetStep() );
+  }
+
+  /**
+   * Row arrays are only recycled when asked for with the KETTLE_ROW_ARRAY_POOL variable.
+   */
+  private static boolean isRowArrayPoolEnabled() {
+    Boolean rowArrayPool =
+      ValueMetaString.convertStringToBoolean( System.getProperty( Const.KETTLE_ROW_ARRAY_POOL ) );
+    return rowArrayPool != null && rowArrayPool.booleanValue();
+  }
+
+  private static boolean isRowArrayPoolDebugEnabled() {
+    Boolean debug = ValueMetaString.convertStringToBoolean( System.getProperty( Const.KETTLE_ROW_ARRAY_POOL_DEBUG ) );
+    return debug != null && debug.booleanValue();
+  }
+
+  /**
+   * A row can only be recycled by its consumer if nobody else got it: the producing step has to send all its rows over
+   * this single hop, not copy them to other hops or send them to an error handling hop as well.
+   */
+  private boolean isRowArrayPoolHop( StepMeta thisStep ) {
+    return transMeta.findNrNextSteps( thisStep ) == 1 && !thisStep.isDoingErrorHandling();
+  }
+
   @SuppressWarnings ( "deprecation" )
   private void checkCompatibility() {
     // If we don't have a previous result and transMeta does have one, someone has been using a deprecated method.
@@ -1401,7 +1488,8 @@ public class Trans implements VariableSpace, NamedParams, HasLogChannelInterface
 
         @Override
         public void stepFinished( Trans trans, StepMeta stepMeta, StepInterface step ) {
-          synchronized ( Trans.this ) {
+          stepFinishedLock.lock();
+          try {
             nrOfFinishedSteps++;
 
             // This check for isFinished() is a hack to prevent the transformation from finishing more than once.
@@ -1435,6 +1523,8 @@ public class Trans implements VariableSpace, NamedParams, HasLogChannelInterface
 
               killAllNoWait();
             }
+          } finally {
+            stepFinishedLock.unlock();
           }
         }
       };
@@ -1549,11 +1639,10 @@ public class Trans implements VariableSpace, NamedParams, HasLogChannelInterface
 
         // Now start all the threads...
         //
+        StepThreadingMode threadingMode = getStepThreadingMode();
+        stepScheduler = threadingMode == StepThreadingMode.SCHEDULED ? new StepScheduler( this ) : null;
         for ( int i = 0; i < steps.size(); i++ ) {
           final StepMetaDataCombi combi = steps.get( i );
-          RunThread runThread = new RunThread( combi );
-          Thread thread = new Thread( runThread );
-          thread.setName( getName() + " - " + combi.stepname );
           ExtensionPointHandler.callExtensionPoint( log, KettleExtensionPoint.StepBeforeStart.id, combi );
           // Call an extension point at the end of the step
           //
@@ -1570,7 +1659,18 @@ public class Trans implements VariableSpace, NamedParams, HasLogChannelInterface
 
           } );
 
-          thread.start();
+          if ( stepScheduler != null && !StepScheduler.isBlocking( combi ) ) {
+            stepScheduler.addStep( combi );
+          } else if ( stepScheduler != null ) {
+            // A step that blocks would hold on to a worker that the other transformations need
+            //
+            StepThreadingMode.POOLED.start( getName() + " - " + combi.stepname, new RunThread( combi ) );
+          } else {
+            threadingMode.start( getName() + " - " + combi.stepname, new RunThread( combi ) );
+          }
+        }
+        if ( stepScheduler != null ) {
+          stepScheduler.start();
         }
         break;
 
@@ -1796,7 +1896,10 @@ public class Trans implements VariableSpace, NamedParams, HasLogChannelInterface
       }
       boolean wait = true;
       while ( wait ) {
-        wait = transFinishedBlockingQueue.poll( 1, TimeUnit.DAYS ) == null;
+        // A step running on the pool of the step scheduler (a transformation executor for example) mustn't keep the
+        // workers from running the steps of this transformation
+        //
+        wait = ManagedBlocking.await( () -> transFinishedBlockingQueue.poll( 1, TimeUnit.DAYS ) ) == null;
         if ( wait ) {
           // poll returns immediately - this was hammering the CPU with poll checks. Added
           // a sleep to let the CPU breathe
@@ -5454,6 +5557,39 @@ public class Trans implements VariableSpace, NamedParams, HasLogChannelInterface
     this.executingUser = executingUser;
   }
 
+  /**
+   * Gets the kind of threads the steps are initialized and run in. Unless it was set explicitly this is the mode of
+   * the parent transformation or the mode set with the {@link Const#KETTLE_STEP_THREADING_MODE} variable.
+   *
+   * @return the step threading mode, never null
+   */
+  public StepThreadingMode getStepThreadingMode() {
+    if ( stepThreadingMode != null ) {
+      return stepThreadingMode;
+    }
+    if ( parentTrans != null ) {
+      return parentTrans.getStepThreadingMode();
+    }
+    StepThreadingMode mode =
+      StepThreadingMode.getStepThreadingModeByCode( getVariable( Const.KETTLE_STEP_THREADING_MODE ) );
+    return mode != null ? mode : StepThreadingMode.PLATFORM;
+  }
+
+  /**
+   * @param stepThreadingMode the kind of threads to initialize and run the steps in, null for the default
+   */
+  public void setStepThreadingMode( StepThreadingMode stepThreadingMode ) {
+    this.stepThreadingMode = stepThreadingMode;
+  }
+
+  /**
+   * @return the scheduler that runs the step copies, null if the steps were not started in the Scheduled threading
+   *         mode
+   */
+  public StepScheduler getStepScheduler() {
+    return stepScheduler;
+  }
+
   @Override
   public boolean isGatheringMetrics() {
     return log != null && log.isGatheringMetrics();
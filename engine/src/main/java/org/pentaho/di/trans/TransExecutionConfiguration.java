@@ -78,6 +78,7 @@ public class TransExecutionConfiguration implements ExecutionConfiguration {
   private Repository repository;
 
   private boolean gatheringMetrics;
+  private StepThreadingMode stepThreadingMode;
   private boolean showingSubComponents;
   private boolean setLogfile;
   private boolean setAppendLogfile;
@@ -481,6 +482,9 @@ public class TransExecutionConfiguration implements ExecutionConfiguration {
     xml.append( "    " ).append( XMLHandler.addTagValue( "create_parent_folder", createParentFolder ) );
     xml.append( "    " ).append( XMLHandler.addTagValue( "clear_log", clearingLog ) );
     xml.append( "    " ).append( XMLHandler.addTagValue( "gather_metrics", gatheringMetrics ) );
+    if ( stepThreadingMode != null ) {
+      xml.append( "    " ).append( XMLHandler.addTagValue( "step_threading_mode", stepThreadingMode.getCode() ) );
+    }
     xml.append( "    " ).append( XMLHandler.addTagValue( "show_subcomponents", showingSubComponents ) );
     if ( passedBatchId != null ) {
       xml.append( "    " ).append( XMLHandler.addTagValue( "passedBatchId", passedBatchId ) );
@@ -580,6 +584,8 @@ public class TransExecutionConfiguration implements ExecutionConfiguration {
     createParentFolder = "Y".equalsIgnoreCase( XMLHandler.getTagValue( trecNode, "create_parent_folder" ) );
     clearingLog = "Y".equalsIgnoreCase( XMLHandler.getTagValue( trecNode, "clear_log" ) );
     gatheringMetrics = "Y".equalsIgnoreCase( XMLHandler.getTagValue( trecNode, "gather_metrics" ) );
+    stepThreadingMode =
+      StepThreadingMode.getStepThreadingModeByCode( XMLHandler.getTagValue( trecNode, "step_threading_mode" ) );
     showingSubComponents = "Y".equalsIgnoreCase( XMLHandler.getTagValue( trecNode, "show_subcomponents" ) );
     String sPassedBatchId = XMLHandler.getTagValue( trecNode, "passedBatchId" );
     if ( !StringUtils.isEmpty( sPassedBatchId ) ) {
@@ -809,6 +815,20 @@ public class TransExecutionConfiguration implements ExecutionConfiguration {
     this.runConfiguration = runConfiguration;
   }
 
+  /**
+   * @return the kind of threads to run the steps in, null to use the default
+   */
+  public StepThreadingMode getStepThreadingMode() {
+    return stepThreadingMode;
+  }
+
+  /**
+   * @param stepThreadingMode the kind of threads to run the steps in, null to use the default
+   */
+  public void setStepThreadingMode( StepThreadingMode stepThreadingMode ) {
+    this.stepThreadingMode = stepThreadingMode;
+  }
+
   public boolean isLogRemoteExecutionLocally() {
     return logRemoteExecutionLocally;
   }
@@ -81,6 +81,7 @@ public class TransSplitter {
     new SlaveStepCopyPartitionDistribution();
   private int socketsBufferSize;
   private boolean compressingSocketStreams;
+  private String socketsFrameCodec;
 
   private Map<String, Integer> portCache;
 
@@ -187,6 +188,7 @@ public class TransSplitter {
           Const.toInt(
             originalTransformation.environmentSubstitute( clusterSchema.getSocketsBufferSize() ), 50000 );
         compressingSocketStreams = clusterSchema.isSocketsCompressed();
+        socketsFrameCodec = clusterSchema.getSocketsCodec();
 
         // Validate the number of slaves. We need at least one to have a valid cluster
         //
@@ -600,6 +602,7 @@ public class TransSplitter {
                           .getStepFields( previousStep ) );
                     remoteMasterStep.setEncryptingStreams( encrypt );
                     remoteMasterStep.setKey( transformationKey );
+                    remoteMasterStep.setFrameCodec( socketsFrameCodec );
                     masterStep.getRemoteInputSteps().add( remoteMasterStep );
 
                     RemoteStep remoteSlaveStep =
@@ -611,6 +614,7 @@ public class TransSplitter {
                           .getStepFields( previousStep ) );
                     remoteSlaveStep.setEncryptingStreams( encrypt );
                     remoteSlaveStep.setKey( transformationKey );
+                    remoteSlaveStep.setFrameCodec( socketsFrameCodec );
                     slaveStep.getRemoteOutputSteps().add( remoteSlaveStep );
 
                     // OK, create a partition number for the target step in the partition distribution...
@@ -746,6 +750,7 @@ public class TransSplitter {
                           .getStepFields( previousStep ) );
                     remoteMasterStep.setEncryptingStreams( encrypt );
                     remoteMasterStep.setKey( transformationKey );
+                    remoteMasterStep.setFrameCodec( socketsFrameCodec );
                     sourceStep.getRemoteOutputSteps().add( remoteMasterStep );
 
                     RemoteStep remoteSlaveStep =
@@ -757,6 +762,7 @@ public class TransSplitter {
                           .getStepFields( previousStep ) );
                     remoteSlaveStep.setEncryptingStreams( encrypt );
                     remoteSlaveStep.setKey( transformationKey );
+                    remoteSlaveStep.setFrameCodec( socketsFrameCodec );
                     targetStep.getRemoteInputSteps().add( remoteSlaveStep );
 
                     // OK, create a partition number for the target step in the partition distribution...
@@ -960,6 +966,7 @@ public class TransSplitter {
                                   originalTransformation.getStepFields( previousStep ) );
                               remoteOutputStep.setEncryptingStreams( encrypt );
                               remoteOutputStep.setKey( transformationKey );
+                              remoteOutputStep.setFrameCodec( socketsFrameCodec );
                               sourceStep.getRemoteOutputSteps().add( remoteOutputStep );
 
                               // OK, so the source step is sending rows out on the reserved ports
@@ -978,6 +985,7 @@ public class TransSplitter {
                                   originalTransformation.getStepFields( previousStep ) );
                               remoteInputStep.setEncryptingStreams( encrypt );
                               remoteInputStep.setKey( transformationKey );
+                              remoteInputStep.setFrameCodec( socketsFrameCodec );
                               targetStep.getRemoteInputSteps().add( remoteInputStep );
                             }
                             // OK, save the partition number for the target step in the partition distribution...
@@ -32,6 +32,7 @@ import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -40,6 +41,7 @@ import com.google.common.base.Preconditions;
 import org.apache.commons.lang.StringUtils;
 import org.json.simple.JSONObject;
 import org.pentaho.di.core.BlockingRowSet;
+import org.pentaho.di.core.ColumnarRowSet;
 import org.pentaho.di.core.Const;
 import org.pentaho.di.core.ExtensionDataInterface;
 import org.pentaho.di.core.ResultFile;
@@ -54,10 +56,12 @@ import org.pentaho.di.core.logging.LogChannelInterface;
 import org.pentaho.di.core.logging.LogLevel;
 import org.pentaho.di.core.logging.LoggingObjectInterface;
 import org.pentaho.di.core.logging.LoggingObjectType;
+import org.pentaho.di.core.row.RowArrayPool;
 import org.pentaho.di.core.row.RowDataUtil;
 import org.pentaho.di.core.row.RowMeta;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.columnar.ColumnarRowBatch;
 import org.pentaho.di.core.row.value.ValueMetaDate;
 import org.pentaho.di.core.row.value.ValueMetaNumber;
 import org.pentaho.di.core.row.value.ValueMetaString;
@@ -158,7 +162,10 @@ public class BaseStep implements VariableSpace, StepInterface, LoggingObjectInte
 
   private Trans trans;
 
-  private final Object statusCountersLock = new Object();
+  /**
+   * The number of rows that steps handling rows in batches ask for with {@link #getRows(int)}
+   */
+  public static final int ROW_BATCH_SIZE = 512;
 
   /**
    * nr of lines read from previous step(s)
@@ -209,13 +216,26 @@ public class BaseStep implements VariableSpace, StepInterface, LoggingObjectInte
   public long linesSkipped;
 
   /**
-   * total sleep time in ns caused by an empty input buffer (previous step is slow)
+   * nr of lines rejected to an error handling step
    *
    * @deprecated use {@link #getLinesRejected()} or {@link #incrementLinesRejected()}
    */
   @Deprecated
   public long linesRejected;
 
+  /**
+   * The status counters behind the accessors. Updates don't block, which matters as they happen for every row while
+   * Carte and Spoon poll them from other threads. Direct updates of the deprecated public fields are still added to
+   * the values the accessors return, but these fields don't reflect updates made through the accessors.
+   */
+  private final LongAdder linesReadCounter = new LongAdder();
+  private final LongAdder linesWrittenCounter = new LongAdder();
+  private final LongAdder linesInputCounter = new LongAdder();
+  private final LongAdder linesOutputCounter = new LongAdder();
+  private final LongAdder linesUpdatedCounter = new LongAdder();
+  private final LongAdder linesSkippedCounter = new LongAdder();
+  private final LongAdder linesRejectedCounter = new LongAdder();
+
   private boolean distributed;
 
   private String rowDistributionCode;
@@ -345,6 +365,14 @@ public class BaseStep implements VariableSpace, StepInterface, LoggingObjectInte
 
   private boolean checkTransRunning;
 
+  /** Set on first use, see {@link #isColumnarExecution()} */
+  private Boolean columnarExecution;
+
+  /** The row array pools of the single input and output hop, resolved on first use */
+  private RowArrayPool inputRowArrayPool;
+  private RowArrayPool outputRowArrayPool;
+  private boolean rowArrayPoolsResolved;
+
   private int slaveNr;
 
   private int clusterSize;
@@ -479,15 +507,13 @@ public class BaseStep implements VariableSpace, StepInterface, LoggingObjectInte
 
     init = false;
 
-    synchronized ( statusCountersLock ) {
-      linesRead = 0L; // new AtomicLong(0L); // Keep some statistics!
-      linesWritten = 0L; // new AtomicLong(0L);
-      linesUpdated = 0L; // new AtomicLong(0L);
-      linesSkipped = 0L; // new AtomicLong(0L);
-      linesRejected = 0L; // new AtomicLong(0L);
-      linesInput = 0L; // new AtomicLong(0L);
-      linesOutput = 0L; // new AtomicLong(0L);
-    }
+    linesRead = 0L; // Keep some statistics!
+    linesWritten = 0L;
+    linesUpdated = 0L;
+    linesSkipped = 0L;
+    linesRejected = 0L;
+    linesInput = 0L;
+    linesOutput = 0L;
 
     inputRowSets = null;
     outputRowSets = null;
@@ -905,40 +931,46 @@ public class BaseStep implements VariableSpace, StepInterface, LoggingObjectInte
    */
   @Override
   public long getLinesRead() {
-    synchronized ( statusCountersLock ) {
-      return linesRead;
-    }
+    return linesReadCounter.sum() + linesRead;
   }
 
   /**
    * Increments the number of lines read from previous steps by one
    *
-   * @return Returns the new value
+   * @return -1, the new value isn't summed up for every row: use {@link #getLinesRead()}
    */
   public long incrementLinesRead() {
-    synchronized ( statusCountersLock ) {
-      return ++linesRead;
-    }
+    linesReadCounter.increment();
+    return -1L;
+  }
+
+  /**
+   * Increments the number of lines read from previous steps by the given number of lines
+   *
+   * @param nrLines the number of lines read
+   * @return -1, the new value isn't summed up for every row: use {@link #getLinesRead()}
+   */
+  public long addLinesRead( long nrLines ) {
+    linesReadCounter.add( nrLines );
+    return -1L;
   }
 
   /**
    * Decrements the number of lines read from previous steps by one
    *
-   * @return Returns the new value
+   * @return -1, the new value isn't summed up for every row: use {@link #getLinesRead()}
    */
   public long decrementLinesRead() {
-    synchronized ( statusCountersLock ) {
-      return --linesRead;
-    }
+    linesReadCounter.decrement();
+    return -1L;
   }
 
   /**
    * @param newLinesReadValue the new number of lines read from previous steps
    */
   public void setLinesRead( long newLinesReadValue ) {
-    synchronized ( statusCountersLock ) {
-      linesRead = newLinesReadValue;
-    }
+    setCounter( linesReadCounter, newLinesReadValue );
+    linesRead = 0L;
   }
 
   /**
@@ -946,29 +978,25 @@ public class BaseStep implements VariableSpace, StepInterface, LoggingObjectInte
    */
   @Override
   public long getLinesInput() {
-    synchronized ( statusCountersLock ) {
-      return linesInput;
-    }
+    return linesInputCounter.sum() + linesInput;
   }
 
   /**
    * Increments the number of lines read from an input source: database, file, socket, etc.
    *
-   * @return the new incremented value
+   * @return -1, the new value isn't summed up for every row: use {@link #getLinesInput()}
    */
   public long incrementLinesInput() {
-    synchronized ( statusCountersLock ) {
-      return ++linesInput;
-    }
+    linesInputCounter.increment();
+    return -1L;
   }
 
   /**
    * @param newLinesInputValue the new number of lines read from an input source: database, file, socket, etc.
    */
   public void setLinesInput( long newLinesInputValue ) {
-    synchronized ( statusCountersLock ) {
-      linesInput = newLinesInputValue;
-    }
+    setCounter( linesInputCounter, newLinesInputValue );
+    linesInput = 0L;
   }
 
   /**
@@ -976,29 +1004,25 @@ public class BaseStep implements VariableSpace, StepInterface, LoggingObjectInte
    */
   @Override
   public long getLinesOutput() {
-    synchronized ( statusCountersLock ) {
-      return linesOutput;
-    }
+    return linesOutputCounter.sum() + linesOutput;
   }
 
   /**
    * Increments the number of lines written to an output target: database, file, socket, etc.
    *
-   * @return the new incremented value
+   * @return -1, the new value isn't summed up for every row: use {@link #getLinesOutput()}
    */
   public long incrementLinesOutput() {
-    synchronized ( statusCountersLock ) {
-      return ++linesOutput;
-    }
+    linesOutputCounter.increment();
+    return -1L;
   }
 
   /**
    * @param newLinesOutputValue the new number of lines written to an output target: database, file, socket, etc.
    */
   public void setLinesOutput( long newLinesOutputValue ) {
-    synchronized ( statusCountersLock ) {
-      linesOutput = newLinesOutputValue;
-    }
+    setCounter( linesOutputCounter, newLinesOutputValue );
+    linesOutput = 0L;
   }
 
   /**
@@ -1006,40 +1030,46 @@ public class BaseStep implements VariableSpace, StepInterface, LoggingObjectInte
    */
   @Override
   public long getLinesWritten() {
-    synchronized ( statusCountersLock ) {
-      return linesWritten;
-    }
+    return linesWrittenCounter.sum() + linesWritten;
   }
 
   /**
    * Increments the number of lines written to next steps by one
    *
-   * @return Returns the new value
+   * @return -1, the new value isn't summed up for every row: use {@link #getLinesWritten()}
    */
   public long incrementLinesWritten() {
-    synchronized ( statusCountersLock ) {
-      return ++linesWritten;
-    }
+    linesWrittenCounter.increment();
+    return -1L;
+  }
+
+  /**
+   * Increments the number of lines written to next steps by the given number of lines
+   *
+   * @param nrLines the number of lines written
+   * @return -1, the new value isn't summed up for every row: use {@link #getLinesWritten()}
+   */
+  public long addLinesWritten( long nrLines ) {
+    linesWrittenCounter.add( nrLines );
+    return -1L;
   }
 
   /**
    * Decrements the number of lines written to next steps by one
    *
-   * @return Returns the new value
+   * @return -1, the new value isn't summed up for every row: use {@link #getLinesWritten()}
    */
   public long decrementLinesWritten() {
-    synchronized ( statusCountersLock ) {
-      return --linesWritten;
-    }
+    linesWrittenCounter.decrement();
+    return -1L;
   }
 
   /**
    * @param newLinesWrittenValue the new number of lines written to next steps
    */
   public void setLinesWritten( long newLinesWrittenValue ) {
-    synchronized ( statusCountersLock ) {
-      linesWritten = newLinesWrittenValue;
-    }
+    setCounter( linesWrittenCounter, newLinesWrittenValue );
+    linesWritten = 0L;
   }
 
   /**
@@ -1047,29 +1077,25 @@ public class BaseStep implements VariableSpace, StepInterface, LoggingObjectInte
    */
   @Override
   public long getLinesUpdated() {
-    synchronized ( statusCountersLock ) {
-      return linesUpdated;
-    }
+    return linesUpdatedCounter.sum() + linesUpdated;
   }
 
   /**
    * Increments the number of lines updated in an output target: database, file, socket, etc.
    *
-   * @return the new incremented value
+   * @return -1, the new value isn't summed up for every row: use {@link #getLinesUpdated()}
    */
   public long incrementLinesUpdated() {
-    synchronized ( statusCountersLock ) {
-      return ++linesUpdated;
-    }
+    linesUpdatedCounter.increment();
+    return -1L;
   }
 
   /**
    * @param newLinesUpdatedValue the new number of lines updated in an output target: database, file, socket, etc.
    */
   public void setLinesUpdated( long newLinesUpdatedValue ) {
-    synchronized ( statusCountersLock ) {
-      linesUpdated = newLinesUpdatedValue;
-    }
+    setCounter( linesUpdatedCounter, newLinesUpdatedValue );
+    linesUpdated = 0L;
   }
 
   /**
@@ -1077,20 +1103,17 @@ public class BaseStep implements VariableSpace, StepInterface, LoggingObjectInte
    */
   @Override
   public long getLinesRejected() {
-    synchronized ( statusCountersLock ) {
-      return linesRejected;
-    }
+    return linesRejectedCounter.sum() + linesRejected;
   }
 
   /**
    * Increments the number of lines rejected to an error handling step
    *
-   * @return the new incremented value
+   * @return -1, the new value isn't summed up for every row: use {@link #getLinesRejected()}
    */
   public long incrementLinesRejected() {
-    synchronized ( statusCountersLock ) {
-      return ++linesRejected;
-    }
+    linesRejectedCounter.increment();
+    return -1L;
   }
 
   /**
@@ -1098,38 +1121,42 @@ public class BaseStep implements VariableSpace, StepInterface, LoggingObjectInte
    */
   @Override
   public void setLinesRejected( long newLinesRejectedValue ) {
-    synchronized ( statusCountersLock ) {
-      linesRejected = newLinesRejectedValue;
-    }
+    setCounter( linesRejectedCounter, newLinesRejectedValue );
+    linesRejected = 0L;
   }
 
   /**
    * @return the number of lines skipped
    */
   public long getLinesSkipped() {
-    synchronized ( statusCountersLock ) {
-      return linesSkipped;
-    }
+    return linesSkippedCounter.sum() + linesSkipped;
   }
 
   /**
    * Increments the number of lines skipped
    *
-   * @return the new incremented value
+   * @return -1, the new value isn't summed up for every row: use {@link #getLinesSkipped()}
    */
   public long incrementLinesSkipped() {
-    synchronized ( statusCountersLock ) {
-      return ++linesSkipped;
-    }
+    linesSkippedCounter.increment();
+    return -1L;
   }
 
   /**
    * @param newLinesSkippedValue lines number of lines skipped
    */
   public void setLinesSkipped( long newLinesSkippedValue ) {
-    synchronized ( statusCountersLock ) {
-      linesSkipped = newLinesSkippedValue;
-    }
+    setCounter( linesSkippedCounter, newLinesSkippedValue );
+    linesSkipped = 0L;
+  }
+
+  /**
+   * Sets a status counter to the given value. The counters are only meant to be set when no other thread is updating
+   * them, for example when (re-)initializing a step; concurrent increments might otherwise get lost.
+   */
+  private static void setCounter( LongAdder counter, long value ) {
+    counter.reset();
+    counter.add( value );
   }
 
   /*
@@ -1245,6 +1272,35 @@ public class BaseStep implements VariableSpace, StepInterface, LoggingObjectInte
    */
   @Override
   public void putRow( RowMetaInterface rowMeta, Object[] row ) throws KettleStepException {
+    verifyFieldNamesAndTypes( rowMeta );
+    getRowHandler().putRow( rowMeta, row );
+  }
+
+  /**
+   * putRows is used to copy a batch of rows to the output rowset(s) in one go. The rows are distributed or copied the
+   * same way as with {@link #putRow(RowMetaInterface, Object[])} but the row set locking, listener loops and status
+   * counter updates happen once per batch instead of once per row.
+   *
+   * @param rowMeta The metadata of all the rows in the batch.
+   * @param rows    The rows to put to the destination rowset(s).
+   * @param n       The number of rows to take from the start of the rows array.
+   * @throws KettleStepException
+   */
+  @Override
+  public void putRows( RowMetaInterface rowMeta, Object[][] rows, int n ) throws KettleStepException {
+    if ( n <= 0 ) {
+      return;
+    }
+    if ( n == 1 ) {
+      // Nothing to gain, keep the single row code path
+      putRow( rowMeta, rows[ 0 ] );
+      return;
+    }
+    verifyFieldNamesAndTypes( rowMeta );
+    getRowHandler().putRows( rowMeta, rows, n );
+  }
+
+  private void verifyFieldNamesAndTypes( RowMetaInterface rowMeta ) throws KettleStepException {
     if ( rowMeta != null ) {
       if ( !allowEmptyFieldNamesAndTypes ) {
         // check row meta for empty field name (BACKLOG-18004)
@@ -1258,12 +1314,12 @@ public class BaseStep implements VariableSpace, StepInterface, LoggingObjectInte
         }
       }
     }
-    getRowHandler().putRow( rowMeta, row );
   }
 
-  private void handlePutRow( RowMetaInterface rowMeta, Object[] row ) throws KettleStepException {
-    // Are we pausing the step? If so, stall forever...
-    //
+  /**
+   * Are we pausing the step? If so, stall forever...
+   */
+  private void waitWhilePaused() throws KettleStepException {
     while ( paused.get() && !stopped.get() ) {
       try {
         Thread.sleep( 1 );
@@ -1271,6 +1327,33 @@ public class BaseStep implements VariableSpace, StepInterface, LoggingObjectInte
         throw new KettleStepException( e );
       }
     }
+  }
+
+  /**
+   * Calls all the row listeners and keeps adding to the terminator rows buffer for a row that's about to be put. This
+   * is done per row by the single row as well as the batch variants of putRow() and putRowTo().
+   */
+  private void fireRowWritten( RowMetaInterface rowMeta, Object[] row ) throws KettleStepException {
+    for ( RowListener listener : rowListeners ) {
+      listener.rowWrittenEvent( rowMeta, row );
+    }
+
+    if ( terminator && terminator_rows != null ) {
+      try {
+        terminator_rows.add( rowMeta.cloneRow( row ) );
+      } catch ( KettleValueException e ) {
+        throw new KettleStepException( "Unable to clone row while adding rows to the terminator rows.", e );
+      }
+    }
+  }
+
+  /**
+   * Waits while the step is paused and until the transformation is running.
+   *
+   * @return false if the step was stopped and nothing should be put anymore.
+   */
+  private boolean waitUntilReadyToPut() throws KettleStepException {
+    waitWhilePaused();
 
     // Right after the pause loop we have to check if this thread is stopped or
     // not.
@@ -1280,7 +1363,7 @@ public class BaseStep implements VariableSpace, StepInterface, LoggingObjectInte
         logDebug( BaseMessages.getString( PKG, "BaseStep.Log.StopPuttingARow" ) );
       }
       stopAll();
-      return;
+      return false;
     }
 
     // Have all threads started?
@@ -1297,23 +1380,19 @@ public class BaseStep implements VariableSpace, StepInterface, LoggingObjectInte
       }
       this.checkTransRunning = true;
     }
+    return true;
+  }
 
-    // call all row listeners...
-    //
-    for ( RowListener listener : rowListeners ) {
-      listener.rowWrittenEvent( rowMeta, row );
+  private void handlePutRow( RowMetaInterface rowMeta, Object[] row ) throws KettleStepException {
+    if ( !waitUntilReadyToPut() ) {
+      return;
     }
-
-    // Keep adding to terminator_rows buffer...
-    //
-    if ( terminator && terminator_rows != null ) {
-      try {
-        terminator_rows.add( rowMeta.cloneRow( row ) );
-      } catch ( KettleValueException e ) {
-        throw new KettleStepException( "Unable to clone row while adding rows to the terminator rows.", e );
-      }
+    if ( rowArrayPoolsResolved ) {
+      checkRowNotReleased( row );
     }
 
+    fireRowWritten( rowMeta, row );
+
     outputRowSetsLock.readLock().lock();
     try {
       if ( outputRowSets.isEmpty() ) {
@@ -1325,29 +1404,86 @@ public class BaseStep implements VariableSpace, StepInterface, LoggingObjectInte
         return; // we're done here!
       }
 
-      // Repartitioning happens when the current step is not partitioned, but the next one is.
-      // That means we need to look up the partitioning information in the next step..
-      // If there are multiple steps, we need to look at the first (they should be all the same)
-      //
-      switch ( repartitioning ) {
-        case StepPartitioningMeta.PARTITIONING_METHOD_NONE:
-          noPartitioning( rowMeta, row );
-          break;
+      dispatchRow( rowMeta, row );
+    } finally {
+      outputRowSetsLock.readLock().unlock();
+    }
+  }
 
-        case StepPartitioningMeta.PARTITIONING_METHOD_SPECIAL:
-          specialPartitioning( rowMeta, row );
-          break;
-        case StepPartitioningMeta.PARTITIONING_METHOD_MIRROR:
-          mirrorPartitioning( rowMeta, row );
-          break;
-        default:
-          throw new KettleStepException( "Internal error: invalid repartitioning type: " + repartitioning );
+  private void handlePutRows( RowMetaInterface rowMeta, Object[][] rows, int n ) throws KettleStepException {
+    if ( !waitUntilReadyToPut() ) {
+      return;
+    }
+    for ( int i = 0; i < n; i++ ) {
+      if ( rowArrayPoolsResolved ) {
+        checkRowNotReleased( rows[ i ] );
+      }
+      fireRowWritten( rowMeta, rows[ i ] );
+    }
+
+    outputRowSetsLock.readLock().lock();
+    try {
+      if ( outputRowSets.isEmpty() ) {
+        // No more output rowsets!
+        // Still update the nr of lines written.
+        //
+        addLinesWritten( n );
+
+        return; // we're done here!
+      }
+
+      if ( repartitioning == StepPartitioningMeta.PARTITIONING_METHOD_NONE && !distributed ) {
+        // Copy the whole batch to all output rowsets, the first one gets the original rows
+        //
+        for ( int i = 1; i < outputRowSets.size(); i++ ) { // start at 1
+          Object[][] copies = new Object[ n ][];
+          try {
+            for ( int r = 0; r < n; r++ ) {
+              copies[ r ] = rowMeta.cloneRow( rows[ r ] );
+            }
+          } catch ( KettleValueException e ) {
+            throw new KettleStepException( "Unable to clone row while copying rows to multiple target steps", e );
+          }
+          putRowsToRowSet( outputRowSets.get( i ), rowMeta, copies, n );
+        }
+        putRowsToRowSet( outputRowSets.get( 0 ), rowMeta, rows, n );
+        addLinesWritten( (long) n * outputRowSets.size() );
+      } else {
+        // Distribution and partitioning decide per row where it goes
+        //
+        for ( int i = 0; i < n; i++ ) {
+          dispatchRow( rowMeta, rows[ i ] );
+        }
       }
     } finally {
       outputRowSetsLock.readLock().unlock();
     }
   }
 
+  /**
+   * Sends a single row to the output row set(s). The output row sets read lock needs to be held by the caller.
+   */
+  private void dispatchRow( RowMetaInterface rowMeta, Object[] row ) throws KettleStepException {
+    // Repartitioning happens when the current step is not partitioned, but the next one is.
+    // That means we need to look up the partitioning information in the next step..
+    // If there are multiple steps, we need to look at the first (they should be all the same)
+    //
+    switch ( repartitioning ) {
+      case StepPartitioningMeta.PARTITIONING_METHOD_NONE:
+        noPartitioning( rowMeta, row );
+        break;
+
+      case StepPartitioningMeta.PARTITIONING_METHOD_SPECIAL:
+        specialPartitioning( rowMeta, row );
+        break;
+      case StepPartitioningMeta.PARTITIONING_METHOD_MIRROR:
+        mirrorPartitioning( rowMeta, row );
+        break;
+      default:
+        throw new KettleStepException( "Internal error: invalid repartitioning type: " + repartitioning );
+    }
+  }
+
   /**
    * Copy always to all target steps/copies
    */
@@ -1580,15 +1716,7 @@ public class BaseStep implements VariableSpace, StepInterface, LoggingObjectInte
   }
 
   private void putRowToRowSet( RowSet rs, RowMetaInterface rowMeta, Object[] row ) {
-    RowMetaInterface toBeSent;
-    RowMetaInterface metaFromRs = rs.getRowMeta();
-    if ( metaFromRs == null ) {
-      // RowSet is not initialised so far
-      toBeSent = rowMeta.clone();
-    } else {
-      // use the existing
-      toBeSent = metaFromRs;
-    }
+    RowMetaInterface toBeSent = getRowMetaToSend( rs, rowMeta );
 
     while ( !rs.putRow( toBeSent, row ) ) {
       if ( isStopped() && !safeStopped.get() ) {
@@ -1597,6 +1725,29 @@ public class BaseStep implements VariableSpace, StepInterface, LoggingObjectInte
     }
   }
 
+  private void putRowsToRowSet( RowSet rs, RowMetaInterface rowMeta, Object[][] rows, int n ) {
+    RowMetaInterface toBeSent = getRowMetaToSend( rs, rowMeta );
+
+    int offset = 0;
+    while ( offset < n ) {
+      offset += rs.putRows( toBeSent, rows, offset, n - offset );
+      if ( offset < n && isStopped() && !safeStopped.get() ) {
+        return;
+      }
+    }
+  }
+
+  private RowMetaInterface getRowMetaToSend( RowSet rs, RowMetaInterface rowMeta ) {
+    RowMetaInterface metaFromRs = rs.getRowMeta();
+    if ( metaFromRs == null ) {
+      // RowSet is not initialised so far
+      return rowMeta.clone();
+    } else {
+      // use the existing
+      return metaFromRs;
+    }
+  }
+
   /**
    * putRowTo is used to put a row in a certain specific RowSet.
    *
@@ -1610,48 +1761,79 @@ public class BaseStep implements VariableSpace, StepInterface, LoggingObjectInte
   }
 
   public void handlePutRowTo( RowMetaInterface rowMeta, Object[] row, RowSet rowSet ) throws KettleStepException {
-
-    // Are we pausing the step? If so, stall forever...
-    //
-    while ( paused.get() && !stopped.get() ) {
-      try {
-        Thread.sleep( 1 );
-      } catch ( InterruptedException e ) {
-        throw new KettleStepException( e );
-      }
+    waitWhilePaused();
+    fireRowWritten( rowMeta, row );
+    if ( isStoppedPuttingTo() ) {
+      return;
     }
 
-    // call all row listeners...
+    // Don't distribute or anything, only go to this rowset!
     //
-    for ( RowListener listener : rowListeners ) {
-      listener.rowWrittenEvent( rowMeta, row );
-    }
-
-    // Keep adding to terminator_rows buffer...
-    if ( terminator && terminator_rows != null ) {
-      try {
-        terminator_rows.add( rowMeta.cloneRow( row ) );
-      } catch ( KettleValueException e ) {
-        throw new KettleStepException( "Unable to clone row while adding rows to the terminator buffer", e );
+    while ( !rowSet.putRow( rowMeta, row ) ) {
+      if ( isStopped() ) {
+        break;
       }
     }
+    incrementLinesWritten();
+  }
 
+  /**
+   * Unlike putRow(), putRowTo() stops as soon as the step is stopped, also when it's stopped safely.
+   *
+   * @return true if the step was stopped and the row(s) shouldn't be put anymore.
+   */
+  private boolean isStoppedPuttingTo() {
     if ( stopped.get() ) {
       if ( log.isDebug() ) {
         logDebug( BaseMessages.getString( PKG, "BaseStep.Log.StopPuttingARow" ) );
       }
       stopAll();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * putRowsTo is used to put a batch of rows in a certain specific RowSet.
+   *
+   * @param rowMeta The row meta-data of the rows to put to the destination RowSet.
+   * @param rows    the rows to put in the RowSet
+   * @param n       the number of rows to take from the start of the rows array
+   * @param rowSet  the RowSet to put the rows into.
+   * @throws KettleStepException In case something unexpected goes wrong
+   */
+  public void putRowsTo( RowMetaInterface rowMeta, Object[][] rows, int n, RowSet rowSet ) throws KettleStepException {
+    if ( n <= 0 ) {
+      return;
+    }
+    if ( n == 1 ) {
+      // Nothing to gain, keep the single row code path
+      putRowTo( rowMeta, rows[ 0 ], rowSet );
+      return;
+    }
+    getRowHandler().putRowsTo( rowMeta, rows, n, rowSet );
+  }
+
+  private void handlePutRowsTo( RowMetaInterface rowMeta, Object[][] rows, int n, RowSet rowSet )
+    throws KettleStepException {
+    waitWhilePaused();
+    for ( int i = 0; i < n; i++ ) {
+      fireRowWritten( rowMeta, rows[ i ] );
+    }
+    if ( isStoppedPuttingTo() ) {
       return;
     }
 
     // Don't distribute or anything, only go to this rowset!
     //
-    while ( !rowSet.putRow( rowMeta, row ) ) {
-      if ( isStopped() ) {
+    int offset = 0;
+    while ( offset < n ) {
+      offset += rowSet.putRows( rowMeta, rows, offset, n - offset );
+      if ( offset < n && isStopped() ) {
         break;
       }
     }
-    incrementLinesWritten();
+    addLinesWritten( n );
   }
 
   /**
@@ -1819,6 +2001,413 @@ public class BaseStep implements VariableSpace, StepInterface, LoggingObjectInte
   }
 
 
+  /**
+   * In case of a single local input row set this returns all the rows that are available at once (up to max) with a
+   * single update of the status counters. Otherwise, the rows are read one at a time like with {@link #getRow()}.
+   *
+   * @param max the maximum number of rows to return
+   * @return at least one row or null if there are no more rows to be had.
+   * @throws KettleException
+   */
+  @Override
+  public Object[][] getRows( int max ) throws KettleException {
+    return getRowHandler().getRows( max );
+  }
+
+  private Object[][] handleGetRows( int max ) throws KettleException {
+    // Batches are only taken from a single local input row set, other situations need the row by row logic
+    // to alternate between the input streams.
+    //
+    RowSet inputRowSet = null;
+    if ( max > 1 ) {
+      inputRowSetsLock.readLock().lock();
+      try {
+        if ( inputRowSets != null && inputRowSets.size() == 1 ) {
+          inputRowSet = inputRowSets.get( 0 );
+        }
+      } finally {
+        inputRowSetsLock.readLock().unlock();
+      }
+    }
+    if ( inputRowSet == null || ( remoteInputSteps != null && !remoteInputSteps.isEmpty() )
+      || trans.isSafeModeEnabled() ) {
+      return singleRowBatch( getRow() );
+    }
+
+    if ( !waitUntilReadyToGet() ) {
+      return null;
+    }
+
+    Object[][] rows = null;
+    while ( rows == null && !isStopped() ) {
+      rows = inputRowSet.getRows( max );
+      if ( rows == null && inputRowSet.isDone() ) {
+        // Try once more to avoid a race-condition between the get and the isDone()
+        //
+        rows = inputRowSet.getRows( max );
+        if ( rows == null ) {
+          inputRowSetsLock.writeLock().lock();
+          try {
+            inputRowSets.remove( inputRowSet );
+          } finally {
+            inputRowSetsLock.writeLock().unlock();
+          }
+          return null; // We're completely done.
+        }
+      }
+    }
+
+    if ( rows == null ) {
+      // stopped
+      return null;
+    }
+    addLinesRead( rows.length );
+
+    // Also set the meta data on the first occurrence.
+    //
+    if ( inputRowMeta == null ) {
+      inputRowMeta = inputRowSet.getRowMeta();
+    }
+
+    for ( RowListener listener : rowListeners ) {
+      for ( Object[] row : rows ) {
+        listener.rowReadEvent( inputRowMeta, row );
+      }
+    }
+
+    // Check the rejection rates etc. as well.
+    verifyRejectionRates();
+
+    return rows;
+  }
+
+  private static Object[][] singleRowBatch( Object[] row ) {
+    return row == null ? null : new Object[][] { row };
+  }
+
+  /**
+   * Waits while the step is paused and until the transformation is running.
+   *
+   * @return false if the step was stopped and no more rows should be read.
+   */
+  private boolean waitUntilReadyToGet() throws KettleStepException {
+    // Are we pausing the step? If so, stall forever...
+    //
+    while ( paused.get() && !stopped.get() ) {
+      try {
+        Thread.sleep( 100 );
+      } catch ( InterruptedException e ) {
+        throw new KettleStepException( e );
+      }
+    }
+
+    if ( stopped.get() ) {
+      if ( log.isDebug() ) {
+        logDebug( BaseMessages.getString( PKG, "BaseStep.Log.StopLookingForMoreRows" ) );
+      }
+      stopAll();
+      return false;
+    }
+
+    // Small startup check
+    //
+    waitUntilTransformationIsStarted();
+    return true;
+  }
+
+  /**
+   * Steps that can process columnar batches use them when at least one of their input or output row sets carries
+   * columnar batches, see {@link StepMetaInterface#supportsColumnarBatches()}.
+   *
+   * @return true if the step should read its input with {@link #getBatch(int)} and write its output with
+   *         {@link #putBatch(RowMetaInterface, ColumnarRowBatch)}.
+   */
+  public boolean isColumnarExecution() {
+    if ( columnarExecution == null ) {
+      boolean columnar = false;
+      inputRowSetsLock.readLock().lock();
+      try {
+        columnar = inputRowSets != null && inputRowSets.stream().anyMatch( rs -> rs instanceof ColumnarRowSet );
+      } finally {
+        inputRowSetsLock.readLock().unlock();
+      }
+      outputRowSetsLock.readLock().lock();
+      try {
+        columnar |= outputRowSets != null && outputRowSets.stream().anyMatch( rs -> rs instanceof ColumnarRowSet );
+      } finally {
+        outputRowSetsLock.readLock().unlock();
+      }
+      columnarExecution = columnar;
+    }
+    return columnarExecution;
+  }
+
+  /**
+   * Reads the next rows as a columnar batch. When the input comes from a single columnar row set the batch is taken
+   * as is, otherwise the rows are read with {@link #getRows(int)} and converted.
+   *
+   * @param max the maximum number of rows to return
+   * @return a batch with at least one row or null if there are no more rows to be had.
+   * @throws KettleException
+   */
+  public ColumnarRowBatch getBatch( int max ) throws KettleException {
+    ColumnarRowSet inputRowSet = null;
+    inputRowSetsLock.readLock().lock();
+    try {
+      if ( inputRowSets != null && inputRowSets.size() == 1 && inputRowSets.get( 0 ) instanceof ColumnarRowSet ) {
+        inputRowSet = (ColumnarRowSet) inputRowSets.get( 0 );
+      }
+    } finally {
+      inputRowSetsLock.readLock().unlock();
+    }
+    if ( inputRowSet == null || ( remoteInputSteps != null && !remoteInputSteps.isEmpty() )
+      || trans.isSafeModeEnabled() ) {
+      Object[][] rows = getRows( max );
+      return rows == null ? null : ColumnarRowBatch.fromRows( getInputRowMeta(), rows, rows.length );
+    }
+
+    if ( !waitUntilReadyToGet() ) {
+      return null;
+    }
+
+    ColumnarRowBatch batch = null;
+    while ( batch == null && !isStopped() ) {
+      batch = inputRowSet.getBatch( max );
+      if ( batch == null && inputRowSet.isDone() ) {
+        // Try once more to avoid a race-condition between the get and the isDone()
+        //
+        batch = inputRowSet.getBatchWait( max, 0, TimeUnit.MILLISECONDS );
+        if ( batch == null ) {
+          inputRowSetsLock.writeLock().lock();
+          try {
+            inputRowSets.remove( inputRowSet );
+          } finally {
+            inputRowSetsLock.writeLock().unlock();
+          }
+          return null; // We're completely done.
+        }
+      }
+    }
+
+    if ( batch == null ) {
+      // stopped
+      return null;
+    }
+    addLinesRead( batch.size() );
+
+    // Also set the meta data on the first occurrence.
+    //
+    if ( inputRowMeta == null ) {
+      inputRowMeta = inputRowSet.getRowMeta();
+    }
+
+    if ( !rowListeners.isEmpty() ) {
+      for ( int i = 0; i < batch.size(); i++ ) {
+        Object[] row = batch.getRow( i );
+        for ( RowListener listener : rowListeners ) {
+          listener.rowReadEvent( inputRowMeta, row );
+        }
+      }
+    }
+
+    // Check the rejection rates etc. as well.
+    verifyRejectionRates();
+
+    return batch;
+  }
+
+  /**
+   * Writes a columnar batch to the output. It's passed on as is to a single columnar output row set, in all other
+   * cases the batch is converted to rows and written with {@link #putRows(RowMetaInterface, Object[][], int)}.
+   *
+   * @param rowMeta the metadata of the rows in the batch
+   * @param batch   the rows
+   * @throws KettleStepException
+   */
+  public void putBatch( RowMetaInterface rowMeta, ColumnarRowBatch batch ) throws KettleStepException {
+    int n = batch.size();
+    if ( n == 0 ) {
+      return;
+    }
+
+    ColumnarRowSet outputRowSet = null;
+    outputRowSetsLock.readLock().lock();
+    try {
+      if ( outputRowSets.size() == 1 && outputRowSets.get( 0 ) instanceof ColumnarRowSet ) {
+        outputRowSet = (ColumnarRowSet) outputRowSets.get( 0 );
+      }
+    } finally {
+      outputRowSetsLock.readLock().unlock();
+    }
+    if ( outputRowSet == null || repartitioning != StepPartitioningMeta.PARTITIONING_METHOD_NONE
+      || !rowListeners.isEmpty() || ( terminator && terminator_rows != null ) ) {
+      putRows( rowMeta, batch.toRows(), n );
+      return;
+    }
+
+    verifyFieldNamesAndTypes( rowMeta );
+    if ( !waitUntilReadyToPut() ) {
+      return;
+    }
+
+    RowMetaInterface toBeSent = getRowMetaToSend( outputRowSet, rowMeta );
+    while ( !outputRowSet.putBatch( toBeSent, batch ) ) {
+      if ( isStopped() && !safeStopped.get() ) {
+        return;
+      }
+    }
+    addLinesWritten( n );
+  }
+
+  /**
+   * Writes a columnar batch to a specific row set, converting it to rows if that row set doesn't carry batches.
+   *
+   * @param rowMeta the metadata of the rows in the batch
+   * @param batch   the rows
+   * @param rowSet  the row set to put the rows into
+   * @throws KettleStepException
+   */
+  public void putBatchTo( RowMetaInterface rowMeta, ColumnarRowBatch batch, RowSet rowSet )
+    throws KettleStepException {
+    int n = batch.size();
+    if ( n == 0 ) {
+      return;
+    }
+    if ( !( rowSet instanceof ColumnarRowSet ) || !rowListeners.isEmpty()
+      || ( terminator && terminator_rows != null ) ) {
+      putRowsTo( rowMeta, batch.toRows(), n, rowSet );
+      return;
+    }
+
+    // Are we pausing the step? If so, stall forever...
+    //
+    while ( paused.get() && !stopped.get() ) {
+      try {
+        Thread.sleep( 1 );
+      } catch ( InterruptedException e ) {
+        throw new KettleStepException( e );
+      }
+    }
+
+    if ( stopped.get() ) {
+      if ( log.isDebug() ) {
+        logDebug( BaseMessages.getString( PKG, "BaseStep.Log.StopPuttingARow" ) );
+      }
+      stopAll();
+      return;
+    }
+
+    // Don't distribute or anything, only go to this rowset!
+    //
+    while ( !( (ColumnarRowSet) rowSet ).putBatch( rowMeta, batch ) ) {
+      if ( isStopped() ) {
+        break;
+      }
+    }
+    addLinesWritten( n );
+  }
+
+  /**
+   * Rows are only recycled over a hop that has a {@link RowArrayPool}, see the KETTLE_ROW_ARRAY_POOL variable. A step
+   * with row listeners doesn't recycle anything since the listeners might keep the rows around.
+   */
+  private void resolveRowArrayPools() {
+    if ( rowArrayPoolsResolved ) {
+      return;
+    }
+    rowArrayPoolsResolved = true;
+    if ( !rowListeners.isEmpty() || trans == null || trans.isSafeModeEnabled() ) {
+      return;
+    }
+    inputRowSetsLock.readLock().lock();
+    try {
+      if ( inputRowSets != null && inputRowSets.size() == 1 ) {
+        inputRowArrayPool = inputRowSets.get( 0 ).getRowArrayPool();
+      }
+    } finally {
+      inputRowSetsLock.readLock().unlock();
+    }
+    outputRowSetsLock.readLock().lock();
+    try {
+      if ( outputRowSets != null && outputRowSets.size() == 1 ) {
+        outputRowArrayPool = outputRowSets.get( 0 ).getRowArrayPool();
+      }
+    } finally {
+      outputRowSetsLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Allocates a new output row, recycling an array of the output hop if possible. Use this instead of
+   * {@link RowDataUtil#allocateRowData(int)} in steps that don't keep a reference to the rows they send on their way.
+   *
+   * @param size the minimum size of the row
+   * @return the new row
+   */
+  public Object[] allocateRowData( int size ) {
+    resolveRowArrayPools();
+    return RowDataUtil.allocateRowData( size, outputRowArrayPool );
+  }
+
+  /**
+   * Makes room for extra fields in an input row. If the row has to be copied into a larger array the original row is
+   * released, so it shouldn't be used anymore after calling this method.
+   *
+   * @param row     the input row
+   * @param newSize the number of fields needed
+   * @return the row itself if there was enough room, otherwise a larger copy
+   */
+  public Object[] resizeRowData( Object[] row, int newSize ) {
+    resolveRowArrayPools();
+    Object[] resized = RowDataUtil.resizeArray( row, newSize, outputRowArrayPool );
+    if ( resized != row ) {
+      releaseRow( row );
+    }
+    return resized;
+  }
+
+  /**
+   * Removes fields from a row. The original row is released, so it shouldn't be used anymore after calling this
+   * method.
+   *
+   * @param row     the row to remove fields from
+   * @param indexes the sorted indexes of the fields to remove
+   * @return a new row without the removed fields
+   */
+  public Object[] removeRowData( Object[] row, int[] indexes ) {
+    resolveRowArrayPools();
+    Object[] result = RowDataUtil.removeItems( row, indexes, outputRowArrayPool );
+    releaseRow( row );
+    return result;
+  }
+
+  /**
+   * Hands a row that this step no longer uses and didn't send on its way back to the hop it came from, so that the
+   * previous step can recycle it. Nothing happens when the rows of the input hop are not recycled.
+   *
+   * @param row the row to release
+   */
+  public void releaseRow( Object[] row ) {
+    resolveRowArrayPools();
+    if ( inputRowArrayPool != null ) {
+      inputRowArrayPool.release( row );
+    } else if ( outputRowArrayPool != null ) {
+      // A row we created ourselves
+      outputRowArrayPool.release( row );
+    }
+  }
+
+  /**
+   * In debug mode the row array pools keep the released rows aside, sending one of those on its way is an error.
+   */
+  private void checkRowNotReleased( Object[] row ) throws KettleStepException {
+    if ( ( inputRowArrayPool != null && inputRowArrayPool.isDebug() && inputRowArrayPool.isReleased( row ) )
+      || ( outputRowArrayPool != null && outputRowArrayPool.isDebug() && outputRowArrayPool.isReleased( row ) ) ) {
+      throw new KettleStepException( BaseMessages.getString( PKG, "BaseStep.Exception.RowUsedAfterRelease",
+        getStepname() ) );
+    }
+  }
+
   private Object[] handleGetRow() throws KettleException {
 
     // Are we pausing the step? If so, stall forever...
@@ -3380,22 +3969,20 @@ public class BaseStep implements VariableSpace, StepInterface, LoggingObjectInte
    * Log summary.
    */
   public void logSummary() {
-    synchronized ( statusCountersLock ) {
-      long li = getLinesInput();
-      long lo = getLinesOutput();
-      long lr = getLinesRead();
-      long lw = getLinesWritten();
-      long lu = getLinesUpdated();
-      long lj = getLinesRejected();
-      if ( li > 0 || lo > 0 || lr > 0 || lw > 0 || lu > 0 || lj > 0 || errors > 0 ) {
-        logBasic( BaseMessages.getString( PKG, "BaseStep.Log.SummaryInfo", String.valueOf( li ), String
-          .valueOf( lo ), String.valueOf( lr ), String.valueOf( lw ), String.valueOf( lw ), String
-          .valueOf( errors + lj ) ) );
-      } else {
-        logDetailed( BaseMessages.getString( PKG, "BaseStep.Log.SummaryInfo", String.valueOf( li ), String
-          .valueOf( lo ), String.valueOf( lr ), String.valueOf( lw ), String.valueOf( lw ), String
-          .valueOf( errors + lj ) ) );
-      }
+    long li = getLinesInput();
+    long lo = getLinesOutput();
+    long lr = getLinesRead();
+    long lw = getLinesWritten();
+    long lu = getLinesUpdated();
+    long lj = getLinesRejected();
+    if ( li > 0 || lo > 0 || lr > 0 || lw > 0 || lu > 0 || lj > 0 || errors > 0 ) {
+      logBasic( BaseMessages.getString( PKG, "BaseStep.Log.SummaryInfo", String.valueOf( li ), String
+        .valueOf( lo ), String.valueOf( lr ), String.valueOf( lw ), String.valueOf( lw ), String
+        .valueOf( errors + lj ) ) );
+    } else {
+      logDetailed( BaseMessages.getString( PKG, "BaseStep.Log.SummaryInfo", String.valueOf( li ), String
+        .valueOf( lo ), String.valueOf( lr ), String.valueOf( lw ), String.valueOf( lw ), String
+        .valueOf( errors + lj ) ) );
     }
   }
 
@@ -3730,6 +4317,20 @@ public class BaseStep implements VariableSpace, StepInterface, LoggingObjectInte
       && ( lines % getTransMeta().getFeedbackSize() ) == 0;
   }
 
+  /**
+   * Feedback check for steps that handle rows in batches: the line counter can jump over the exact feedback multiple.
+   *
+   * @param previousLines the number of lines before the batch was handled
+   * @param lines         the number of lines after the batch was handled
+   * @return true if a feedback multiple was passed while handling the batch
+   */
+  protected boolean checkFeedback( long previousLines, long lines ) {
+    int feedbackSize = getTransMeta().getFeedbackSize();
+    return getTransMeta().isFeedbackShown()
+      && ( lines > 0 ) && ( feedbackSize > 0 )
+      && ( lines / feedbackSize ) > ( previousLines / feedbackSize );
+  }
+
   /**
    * @return the rowMeta
    */
@@ -4398,6 +4999,19 @@ public class BaseStep implements VariableSpace, StepInterface, LoggingObjectInte
       handlePutRow( rowMeta, row );
     }
 
+    @Override public Object[][] getRows( int max ) throws KettleException {
+      return handleGetRows( max );
+    }
+
+    @Override public void putRows( RowMetaInterface rowMeta, Object[][] rows, int n ) throws KettleStepException {
+      handlePutRows( rowMeta, rows, n );
+    }
+
+    @Override public void putRowsTo( RowMetaInterface rowMeta, Object[][] rows, int n, RowSet rowSet )
+      throws KettleStepException {
+      handlePutRowsTo( rowMeta, rows, n, rowSet );
+    }
+
     @Override public void putError( RowMetaInterface rowMeta, Object[] row, long nrErrors, String errorDescriptions,
                                     String fieldNames, String errorCodes ) throws KettleStepException {
       handlePutError( rowMeta, row, nrErrors, errorDescriptions, fieldNames, errorCodes );
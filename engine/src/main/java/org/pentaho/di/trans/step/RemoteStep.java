@@ -41,6 +41,7 @@ import org.pentaho.di.core.encryption.CertificateGenEncryptUtil;
 import org.pentaho.di.core.exception.KettleEOFException;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.exception.KettleFileException;
+import org.pentaho.di.core.logging.Metrics;
 import org.pentaho.di.core.row.RowMeta;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.core.xml.XMLHandler;
@@ -62,6 +63,9 @@ public class RemoteStep implements Cloneable, XMLInterface, Comparable<RemoteSte
 
   private static final long TIMEOUT_IN_SECONDS = 30;
 
+  /** The number of milliseconds the rows of a partial frame wait for more rows before they're sent anyway */
+  private static final long FRAME_FLUSH_DELAY = 100L;
+
   /** The target or source slave server with which we're exchanging data */
   private String targetSlaveServerName;
 
@@ -96,6 +100,9 @@ public class RemoteStep implements Cloneable, XMLInterface, Comparable<RemoteSte
   private int bufferSize;
   private boolean compressingStreams;
 
+  /** The codec of the framed rows protocol, the rows are streamed one by one when this is empty */
+  private String frameCodec;
+
   private boolean encryptingStreams;
   private byte[] key;
   private CipherInputStream cipherInputStream;
@@ -171,6 +178,7 @@ public class RemoteStep implements Cloneable, XMLInterface, Comparable<RemoteSte
     xml.append( XMLHandler.addTagValue( "port", port, false ) );
     xml.append( XMLHandler.addTagValue( "buffer_size", bufferSize, false ) );
     xml.append( XMLHandler.addTagValue( "compressed_streams", compressingStreams, false ) );
+    xml.append( XMLHandler.addTagValue( "frame_codec", frameCodec, false ) );
 
     xml.append( XMLHandler.addTagValue( "source_step_name", sourceStep, false ) );
     xml.append( XMLHandler.addTagValue( "source_step_copy", sourceStepCopyNr, false ) );
@@ -204,6 +212,7 @@ public class RemoteStep implements Cloneable, XMLInterface, Comparable<RemoteSte
     port = XMLHandler.getTagValue( node, "port" );
     bufferSize = Integer.parseInt( XMLHandler.getTagValue( node, "buffer_size" ) );
     compressingStreams = "Y".equalsIgnoreCase( XMLHandler.getTagValue( node, "compressed_streams" ) );
+    frameCodec = XMLHandler.getTagValue( node, "frame_codec" );
 
     sourceStep = XMLHandler.getTagValue( node, "source_step_name" );
     sourceStepCopyNr = Integer.parseInt( XMLHandler.getTagValue( node, "source_step_copy" ) );
@@ -347,7 +356,12 @@ public class RemoteStep implements Cloneable, XMLInterface, Comparable<RemoteSte
           // Create the output stream...
           OutputStream socketOut = socket.getOutputStream();
 
-          if ( compressingStreams ) {
+          // The framed protocol compresses the frames itself
+          //
+          RowFrameCodec codec = RowFrameCodec.findCodec( frameCodec );
+          if ( codec != null ) {
+            bufferedOutputStream = new BufferedOutputStream( socketOut, bufferSize );
+          } else if ( compressingStreams ) {
             gzipOutputStream = new GZIPOutputStream( socketOut, 50000 );
             bufferedOutputStream = new BufferedOutputStream( gzipOutputStream, bufferSize );
           } else {
@@ -382,6 +396,11 @@ public class RemoteStep implements Cloneable, XMLInterface, Comparable<RemoteSte
           baseStep.logBasic( "Server socket accepted for port ["
             + port + "], reading from server " + targetSlaveServerName );
 
+          if ( codec != null ) {
+            writeFrames( rowSet, codec );
+            return;
+          }
+
           // get a row of data...
           Object[] rowData = baseStep.getRowFrom( rowSet );
           if ( rowData != null ) {
@@ -535,6 +554,102 @@ public class RemoteStep implements Cloneable, XMLInterface, Comparable<RemoteSte
     return rowData;
   }
 
+  /**
+   * Sends the rows of the row set to the remote step in frames, see {@link RowFrameWriter}.
+   */
+  private void writeFrames( BlockingRowSet rowSet, RowFrameCodec codec ) throws KettleException, IOException {
+    long startTime = System.currentTimeMillis();
+
+    // Like the streamed protocol nothing is sent without rows, the reader simply sees the end of the stream
+    //
+    Object[] rowData = baseStep.getRowFrom( rowSet );
+    if ( rowData == null ) {
+      return;
+    }
+
+    try ( RowFrameWriter writer =
+      new RowFrameWriter( outputStream, codec, Math.max( bufferSize, RowFrameWriter.DEFAULT_FRAME_SIZE ) ) ) {
+      writer.writeMeta( rowSet.getRowMeta() );
+
+      while ( rowData != null && !baseStep.isStopped() ) {
+        // It's too confusing to count these twice, so decrement
+        baseStep.decrementLinesRead();
+        baseStep.decrementLinesWritten();
+
+        writer.writeRow( rowData );
+        baseStep.incrementLinesOutput();
+
+        if ( baseStep.log.isDebug() ) {
+          baseStep.logDebug( "Sent row to port " + port + " : " + rowSet.getRowMeta().getString( rowData ) );
+        }
+        waitForRowsOrFlush( rowSet, writer );
+        rowData = baseStep.getRowFrom( rowSet );
+      }
+      writer.finish();
+
+      baseStep.log.snap( Metrics.METRIC_REMOTE_STEP_BYTES_SENT, toString(), writer.getBytesWritten() );
+      baseStep.logBasic( "Sent " + getThroughput( writer.getRowsWritten(), writer.getFramesWritten(),
+        writer.getRawBytes(), writer.getBytesWritten(), codec, startTime ) + " to port " + port );
+    }
+  }
+
+  /**
+   * A frame is only sent once it's full. When the input runs dry the rows of a partial frame would sit in the buffer
+   * until more rows arrive, so they're sent after waiting for FRAME_FLUSH_DELAY milliseconds.
+   */
+  private void waitForRowsOrFlush( BlockingRowSet rowSet, RowFrameWriter writer ) throws IOException {
+    while ( writer.getPendingRows() > 0 && rowSet.size() == 0 && !rowSet.isDone() && !baseStep.isStopped() ) {
+      if ( writer.flushIfOlderThan( FRAME_FLUSH_DELAY ) ) {
+        return;
+      }
+      try {
+        Thread.sleep( 1 );
+      } catch ( InterruptedException e ) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Reads the frames sent by the remote step and hands the rows over to the row set, see {@link RowFrameReader}.
+   */
+  private void readFrames( BlockingRowSet rowSet ) throws KettleException, IOException {
+    long startTime = System.currentTimeMillis();
+    RowFrameReader reader = new RowFrameReader( inputStream );
+    try {
+      RowMetaInterface rowMeta = reader.readMeta();
+
+      Object[] rowData = reader.readRow();
+      while ( rowData != null && !baseStep.isStopped() ) {
+        baseStep.incrementLinesInput();
+        baseStep.decrementLinesRead();
+
+        if ( baseStep.log.isDebug() ) {
+          baseStep.logDebug( "Received row from remote step: " + rowMeta.getString( rowData ) );
+        }
+
+        baseStep.putRowTo( rowMeta, rowData, rowSet );
+        baseStep.decrementLinesWritten();
+        rowData = reader.readRow();
+      }
+    } finally {
+      reader.close();
+      baseStep.log.snap( Metrics.METRIC_REMOTE_STEP_BYTES_RECEIVED, toString(), reader.getBytesRead() );
+      baseStep.logBasic( "Received " + getThroughput( reader.getRowsRead(), reader.getFramesRead(),
+        reader.getRawBytes(), reader.getBytesRead(), reader.getCodec(), startTime ) + " from port " + port );
+    }
+  }
+
+  private static String getThroughput( long rows, long frames, long rawBytes, long bytes, RowFrameCodec codec,
+    long startTime ) {
+    long millis = Math.max( 1L, System.currentTimeMillis() - startTime );
+    double megaBytes = rawBytes / ( 1024.0 * 1024.0 );
+    return rows + " rows in " + frames + " frames (" + rawBytes + " bytes, " + bytes + " bytes "
+      + ( codec == null ? "" : codec.name() + " " ) + "on the wire) in " + millis + "ms, "
+      + String.format( "%.1f MB/s", megaBytes * 1000.0 / millis );
+  }
+
   public synchronized BlockingRowSet openReaderSocket( final BaseStep baseStep ) throws IOException,
     KettleException {
     this.baseStep = baseStep;
@@ -574,7 +689,9 @@ public class RemoteStep implements Cloneable, XMLInterface, Comparable<RemoteSte
         connected = true;
 
         InputStream socketStream = socket.getInputStream();
-        if ( compressingStreams ) {
+        if ( isFramed() ) {
+          bufferedInputStream = new BufferedInputStream( socketStream, bufferSize );
+        } else if ( compressingStreams ) {
           gzipInputStream = new GZIPInputStream( socketStream );
           bufferedInputStream = new BufferedInputStream( gzipInputStream, bufferSize );
         } else {
@@ -661,6 +778,10 @@ public class RemoteStep implements Cloneable, XMLInterface, Comparable<RemoteSte
     Runnable runnable = new Runnable() {
       public void run() {
         try {
+          if ( isFramed() ) {
+            readFrames( rowSet );
+            return;
+          }
 
           // First read the row meta data from the socket...
           //
@@ -950,6 +1071,29 @@ public class RemoteStep implements Cloneable, XMLInterface, Comparable<RemoteSte
     return key;
   }
 
+  /**
+   * @return the name of the {@link RowFrameCodec} used to send the rows in frames, empty if the rows are streamed one
+   *         by one
+   */
+  public String getFrameCodec() {
+    return frameCodec;
+  }
+
+  /**
+   * @param frameCodec
+   *          the name of the {@link RowFrameCodec} used to send the rows in frames, empty to stream the rows one by one
+   */
+  public void setFrameCodec( String frameCodec ) {
+    this.frameCodec = frameCodec;
+  }
+
+  /**
+   * @return true if the rows are sent in frames, see {@link RowFrameWriter}
+   */
+  public boolean isFramed() {
+    return RowFrameCodec.findCodec( frameCodec ) != null;
+  }
+
   public void setKey( byte[] key ) {
     this.key = key;
   }
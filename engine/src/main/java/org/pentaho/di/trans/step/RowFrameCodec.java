@@ -0,0 +1,223 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.step;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.pentaho.di.core.util.Utils;
+import org.xerial.snappy.Snappy;
+
+/**
+ * The block compression applied to the frames of rows sent between remote steps, see {@link RowFrameWriter}. Each
+ * frame is compressed on its own so that the receiving side can decode a frame as soon as it arrives. DEFLATE gives
+ * the smallest frames, SNAPPY costs a lot less CPU on both sides of the socket.
+ *
+ * @since 11.0
+ */
+public enum RowFrameCodec {
+  NONE {
+    @Override
+    int maxCompressedLength( int length ) {
+      return length;
+    }
+
+    @Override
+    Compressor createCompressor() {
+      return ( data, length, target ) -> {
+        System.arraycopy( data, 0, target, 0, length );
+        return length;
+      };
+    }
+
+    @Override
+    Decompressor createDecompressor() {
+      return ( data, length, target, targetLength ) -> System.arraycopy( data, 0, target, 0, length );
+    }
+  },
+
+  DEFLATE {
+    @Override
+    int maxCompressedLength( int length ) {
+      // The deflate bound of zlib plus a safety margin for the stream header
+      //
+      return length + ( length >> 12 ) + ( length >> 14 ) + ( length >> 25 ) + 64;
+    }
+
+    @Override
+    Compressor createCompressor() {
+      return new DeflateCompressor();
+    }
+
+    @Override
+    Decompressor createDecompressor() {
+      return new InflateDecompressor();
+    }
+  },
+
+  SNAPPY {
+    @Override
+    int maxCompressedLength( int length ) {
+      return Snappy.maxCompressedLength( length );
+    }
+
+    @Override
+    Compressor createCompressor() {
+      return ( data, length, target ) -> Snappy.compress( data, 0, length, target, 0 );
+    }
+
+    @Override
+    Decompressor createDecompressor() {
+      return ( data, length, target, targetLength ) -> {
+        int size = Snappy.uncompress( data, 0, length, target, 0 );
+        if ( size != targetLength ) {
+          throw new IOException( "Corrupt frame: expected " + targetLength + " bytes, uncompressed " + size );
+        }
+      };
+    }
+  };
+
+  /**
+   * @param length the number of bytes to compress
+   * @return the size of the target buffer needed to compress that many bytes
+   */
+  abstract int maxCompressedLength( int length );
+
+  /**
+   * @return a compressor for the frames of one stream, it needs to be closed once the stream is done
+   */
+  abstract Compressor createCompressor();
+
+  /**
+   * @return a decompressor for the frames of one stream, it needs to be closed once the stream is done
+   */
+  abstract Decompressor createDecompressor();
+
+  /**
+   * @param name the name of a codec
+   * @return the codec with the given name or null if the name is empty or unknown
+   */
+  public static RowFrameCodec findCodec( String name ) {
+    if ( !Utils.isEmpty( name ) ) {
+      for ( RowFrameCodec codec : values() ) {
+        if ( codec.name().equalsIgnoreCase( name ) ) {
+          return codec;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Compresses the frames of one stream. A compressor isn't thread safe, it can keep native resources between frames.
+   */
+  interface Compressor extends Closeable {
+    /**
+     * Compresses a block of data.
+     *
+     * @param data   the data to compress
+     * @param length the number of bytes to compress
+     * @param target the buffer to compress into, at least
+     *               {@link RowFrameCodec#maxCompressedLength(int)} bytes long
+     * @return the compressed size
+     */
+    int compress( byte[] data, int length, byte[] target ) throws IOException;
+
+    @Override
+    default void close() {
+      // Nothing to release
+    }
+  }
+
+  /**
+   * Decompresses the frames of one stream. A decompressor isn't thread safe, it can keep native resources between
+   * frames.
+   */
+  interface Decompressor extends Closeable {
+    /**
+     * Decompresses a block of data created with {@link Compressor#compress(byte[], int, byte[])}.
+     *
+     * @param data         the compressed data
+     * @param length       the number of compressed bytes
+     * @param target       the buffer to decompress into
+     * @param targetLength the size of the original data
+     */
+    void decompress( byte[] data, int length, byte[] target, int targetLength ) throws IOException;
+
+    @Override
+    default void close() {
+      // Nothing to release
+    }
+  }
+
+  /**
+   * Keeps one native deflater for all the frames of a stream, it's reset between frames and ended on close.
+   */
+  private static class DeflateCompressor implements Compressor {
+    private final Deflater deflater = new Deflater( Deflater.BEST_SPEED );
+
+    @Override
+    public int compress( byte[] data, int length, byte[] target ) {
+      deflater.reset();
+      deflater.setInput( data, 0, length );
+      deflater.finish();
+      int size = 0;
+      while ( !deflater.finished() && size < target.length ) {
+        size += deflater.deflate( target, size, target.length - size );
+      }
+      return size;
+    }
+
+    @Override
+    public void close() {
+      deflater.end();
+    }
+  }
+
+  /**
+   * Keeps one native inflater for all the frames of a stream, it's reset between frames and ended on close.
+   */
+  private static class InflateDecompressor implements Decompressor {
+    private final Inflater inflater = new Inflater();
+
+    @Override
+    public void decompress( byte[] data, int length, byte[] target, int targetLength ) throws IOException {
+      inflater.reset();
+      inflater.setInput( data, 0, length );
+      try {
+        int size = 0;
+        while ( size < targetLength ) {
+          int n = inflater.inflate( target, size, targetLength - size );
+          if ( n == 0 && ( inflater.finished() || inflater.needsInput() ) ) {
+            break;
+          }
+          size += n;
+        }
+        if ( size != targetLength ) {
+          throw new IOException( "Corrupt frame: expected " + targetLength + " bytes, inflated " + size );
+        }
+      } catch ( DataFormatException e ) {
+        throw new IOException( "Corrupt frame", e );
+      }
+    }
+
+    @Override
+    public void close() {
+      inflater.end();
+    }
+  }
+}
@@ -0,0 +1,191 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.step;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+
+import org.pentaho.di.core.exception.KettleEOFException;
+import org.pentaho.di.core.exception.KettleFileException;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+
+/**
+ * Reads the rows sent by a {@link RowFrameWriter}. A frame is read and decompressed in one go after which its rows are
+ * deserialized from memory.
+ *
+ * @since 11.0
+ */
+public class RowFrameReader implements Closeable {
+
+  private final DataInputStream inputStream;
+
+  private RowFrameCodec codec;
+  private RowFrameCodec.Decompressor decompressor;
+  private RowMetaInterface rowMeta;
+
+  private byte[] raw = new byte[ 0 ];
+  private byte[] compressed = new byte[ 0 ];
+  private DataInputStream frameInputStream;
+  private int frameRows;
+  private boolean finished;
+
+  private long rowsRead;
+  private long framesRead;
+  private long rawBytes;
+  private long bytesRead;
+
+  public RowFrameReader( InputStream inputStream ) {
+    this.inputStream = new DataInputStream( inputStream );
+  }
+
+  /**
+   * Reads the stream header.
+   *
+   * @return the metadata of the rows in the stream
+   * @throws KettleEOFException  when the stream ended before the header was received
+   * @throws KettleFileException when the stream wasn't written by a {@link RowFrameWriter}
+   */
+  public RowMetaInterface readMeta() throws KettleFileException, SocketTimeoutException, IOException {
+    int magic;
+    try {
+      magic = inputStream.readInt();
+    } catch ( EOFException e ) {
+      throw new KettleEOFException( e );
+    }
+    if ( magic != RowFrameWriter.MAGIC ) {
+      throw new KettleFileException( "The remote step didn't send framed rows (magic number "
+        + Integer.toHexString( magic ) + ")" );
+    }
+    byte version = inputStream.readByte();
+    if ( version != RowFrameWriter.VERSION ) {
+      throw new KettleFileException( "Unsupported version " + version + " of the framed rows protocol" );
+    }
+    String codecName = inputStream.readUTF();
+    codec = RowFrameCodec.findCodec( codecName );
+    if ( codec == null ) {
+      throw new KettleFileException( "Unknown codec '" + codecName + "' used by the remote step" );
+    }
+    decompressor = codec.createDecompressor();
+    rowMeta = new RowMeta( inputStream );
+    return rowMeta;
+  }
+
+  /**
+   * @return the next row or null once the end of the stream has been reached
+   * @throws KettleEOFException when the connection was closed without an end of stream marker
+   */
+  public Object[] readRow() throws KettleFileException, SocketTimeoutException, IOException {
+    while ( frameRows == 0 ) {
+      if ( finished || !readFrame() ) {
+        return null;
+      }
+    }
+    Object[] row = rowMeta.readData( frameInputStream );
+    frameRows--;
+    rowsRead++;
+    return row;
+  }
+
+  private boolean readFrame() throws KettleEOFException, IOException {
+    int nrRows;
+    try {
+      nrRows = inputStream.readInt();
+    } catch ( EOFException e ) {
+      throw new KettleEOFException( e );
+    }
+    bytesRead += 4;
+    if ( nrRows == 0 ) {
+      finished = true;
+      return false;
+    }
+    int rawLength = inputStream.readInt();
+    int storedLength = inputStream.readInt();
+    if ( nrRows < 0 || rawLength < 0 || storedLength < 0 || storedLength > rawLength ) {
+      throw new IOException( "Corrupt frame header: " + nrRows + " rows, " + rawLength + "/" + storedLength
+        + " bytes" );
+    }
+    if ( raw.length < rawLength ) {
+      raw = new byte[ rawLength ];
+    }
+    if ( storedLength == rawLength ) {
+      inputStream.readFully( raw, 0, rawLength );
+    } else {
+      if ( compressed.length < storedLength ) {
+        compressed = new byte[ storedLength ];
+      }
+      inputStream.readFully( compressed, 0, storedLength );
+      decompressor.decompress( compressed, storedLength, raw, rawLength );
+    }
+    frameInputStream = new DataInputStream( new ByteArrayInputStream( raw, 0, rawLength ) );
+    frameRows = nrRows;
+
+    framesRead++;
+    rawBytes += rawLength;
+    bytesRead += 8 + storedLength;
+    return true;
+  }
+
+  /**
+   * Releases the decompression resources, the underlying stream is left open.
+   */
+  @Override
+  public void close() {
+    if ( decompressor != null ) {
+      decompressor.close();
+      decompressor = null;
+    }
+  }
+
+  public RowFrameCodec getCodec() {
+    return codec;
+  }
+
+  public RowMetaInterface getRowMeta() {
+    return rowMeta;
+  }
+
+  /**
+   * @return the number of rows received so far
+   */
+  public long getRowsRead() {
+    return rowsRead;
+  }
+
+  /**
+   * @return the number of frames received so far
+   */
+  public long getFramesRead() {
+    return framesRead;
+  }
+
+  /**
+   * @return the serialized size of the rows received so far, after decompression
+   */
+  public long getRawBytes() {
+    return rawBytes;
+  }
+
+  /**
+   * @return the number of bytes read from the stream so far, excluding the stream header
+   */
+  public long getBytesRead() {
+    return bytesRead;
+  }
+}
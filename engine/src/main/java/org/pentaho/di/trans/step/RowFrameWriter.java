@@ -0,0 +1,229 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.step;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.pentaho.di.core.exception.KettleFileException;
+import org.pentaho.di.core.row.RowMetaInterface;
+
+/**
+ * Writes rows to a remote step in frames. Rows are serialized into a buffer and once that buffer holds frameSize bytes
+ * it is compressed as one block and sent with a small header:
+ *
+ * <pre>
+ * stream : magic version codec-name row-metadata frame* end
+ * frame  : nr-of-rows(int) raw-length(int) stored-length(int) data
+ * end    : 0(int)
+ * </pre>
+ *
+ * When the compressed block isn't smaller than the serialized rows, the rows are stored as they are and the stored
+ * length equals the raw length. Compared to compressing the whole stream this keeps the (de)compression out of the
+ * per-row path and lets the reader decode a frame as soon as it arrives.
+ *
+ * @see RowFrameReader
+ * @since 11.0
+ */
+public class RowFrameWriter implements Closeable {
+
+  public static final int MAGIC = 0x4b524f57; // "KROW"
+  public static final byte VERSION = 1;
+
+  public static final int DEFAULT_FRAME_SIZE = 65536;
+
+  private final DataOutputStream outputStream;
+  private final RowFrameCodec codec;
+  private final RowFrameCodec.Compressor compressor;
+  private final int frameSize;
+
+  private final FrameBuffer frame;
+  private final DataOutputStream frameOutputStream;
+  private byte[] compressed;
+
+  private RowMetaInterface rowMeta;
+  private int frameRows;
+  private long frameStartTime;
+
+  private long rowsWritten;
+  private long framesWritten;
+  private long rawBytes;
+  private long bytesWritten;
+
+  /**
+   * @param outputStream the stream to write to, typically the (buffered) socket output stream
+   * @param codec        the compression to apply to the frames
+   * @param frameSize    the number of serialized bytes that triggers sending a frame
+   */
+  public RowFrameWriter( OutputStream outputStream, RowFrameCodec codec, int frameSize ) {
+    this.outputStream = new DataOutputStream( outputStream );
+    this.codec = codec;
+    this.compressor = codec.createCompressor();
+    this.frameSize = frameSize > 0 ? frameSize : DEFAULT_FRAME_SIZE;
+    this.frame = new FrameBuffer( this.frameSize + this.frameSize / 4 );
+    this.frameOutputStream = new DataOutputStream( frame );
+  }
+
+  /**
+   * Writes the stream header including the row metadata. This needs to be called before the first row is written.
+   */
+  public void writeMeta( RowMetaInterface rowMeta ) throws KettleFileException, IOException {
+    this.rowMeta = rowMeta;
+    outputStream.writeInt( MAGIC );
+    outputStream.writeByte( VERSION );
+    outputStream.writeUTF( codec.name() );
+    rowMeta.writeMeta( outputStream );
+  }
+
+  public void writeRow( Object[] row ) throws KettleFileException, IOException {
+    if ( frameRows == 0 ) {
+      frameStartTime = System.currentTimeMillis();
+    }
+    rowMeta.writeData( frameOutputStream, row );
+    frameRows++;
+    if ( frame.size() >= frameSize ) {
+      writeFrame();
+    }
+  }
+
+  /**
+   * Sends the rows that are buffered in the current frame and flushes the underlying stream.
+   */
+  public void flush() throws IOException {
+    writeFrame();
+    outputStream.flush();
+  }
+
+  /**
+   * Sends the rows that are buffered in the current frame once the oldest of them has been waiting for the given time.
+   * This keeps a slow trickle of rows from being held back until a full frame has been collected.
+   *
+   * @param maxDelay the number of milliseconds a row can wait in a partial frame
+   * @return true if the partial frame was sent
+   */
+  public boolean flushIfOlderThan( long maxDelay ) throws IOException {
+    if ( frameRows == 0 || System.currentTimeMillis() - frameStartTime < maxDelay ) {
+      return false;
+    }
+    flush();
+    return true;
+  }
+
+  /**
+   * Sends the remaining rows followed by the end of stream marker.
+   */
+  public void finish() throws IOException {
+    writeFrame();
+    outputStream.writeInt( 0 );
+    bytesWritten += 4;
+    outputStream.flush();
+  }
+
+  private void writeFrame() throws IOException {
+    if ( frameRows == 0 ) {
+      return;
+    }
+    int rawLength = frame.size();
+    byte[] data = frame.buffer();
+    int storedLength = rawLength;
+    if ( codec != RowFrameCodec.NONE ) {
+      int maxLength = codec.maxCompressedLength( rawLength );
+      if ( compressed == null || compressed.length < maxLength ) {
+        compressed = new byte[ maxLength ];
+      }
+      int compressedLength = compressor.compress( data, rawLength, compressed );
+      if ( compressedLength < rawLength ) {
+        data = compressed;
+        storedLength = compressedLength;
+      }
+    }
+
+    outputStream.writeInt( frameRows );
+    outputStream.writeInt( rawLength );
+    outputStream.writeInt( storedLength );
+    outputStream.write( data, 0, storedLength );
+
+    rowsWritten += frameRows;
+    framesWritten++;
+    rawBytes += rawLength;
+    bytesWritten += 12 + storedLength;
+
+    frame.reset();
+    frameRows = 0;
+  }
+
+  /**
+   * Releases the compression resources. The underlying stream is left open, {@link #finish()} needs to be called
+   * first to send the remaining rows.
+   */
+  @Override
+  public void close() {
+    compressor.close();
+  }
+
+  public RowFrameCodec getCodec() {
+    return codec;
+  }
+
+  /**
+   * @return the number of rows buffered in the current frame that haven't been sent yet
+   */
+  public int getPendingRows() {
+    return frameRows;
+  }
+
+  /**
+   * @return the number of rows sent so far
+   */
+  public long getRowsWritten() {
+    return rowsWritten;
+  }
+
+  /**
+   * @return the number of frames sent so far
+   */
+  public long getFramesWritten() {
+    return framesWritten;
+  }
+
+  /**
+   * @return the serialized size of the rows sent so far, before compression
+   */
+  public long getRawBytes() {
+    return rawBytes;
+  }
+
+  /**
+   * @return the number of bytes written to the stream so far, excluding the stream header
+   */
+  public long getBytesWritten() {
+    return bytesWritten;
+  }
+
+  /**
+   * Gives access to the internal buffer so that a frame can be compressed without copying it first.
+   */
+  private static class FrameBuffer extends ByteArrayOutputStream {
+    FrameBuffer( int size ) {
+      super( size );
+    }
+
+    byte[] buffer() {
+      return buf;
+    }
+  }
+}
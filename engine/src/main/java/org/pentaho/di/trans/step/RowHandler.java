@@ -41,6 +41,25 @@ public interface RowHandler {
   void putError( RowMetaInterface rowMeta, Object[] row, long nrErrors, String errorDescriptions,
                  String fieldNames, String errorCodes ) throws KettleStepException;
 
+  /**
+   * Gets up to max rows in one go. By default a batch only ever holds the single row returned by {@link #getRow()}.
+   *
+   * @return at least one row or null if there are no more rows.
+   */
+  default Object[][] getRows( int max ) throws KettleException {
+    Object[] row = getRow();
+    return row == null ? null : new Object[][] { row };
+  }
+
+  /**
+   * Puts the first n rows of a batch. By default the rows are passed one by one to {@link #putRow}.
+   */
+  default void putRows( RowMetaInterface rowMeta, Object[][] rows, int n ) throws KettleStepException {
+    for ( int i = 0; i < n; i++ ) {
+      putRow( rowMeta, rows[ i ] );
+    }
+  }
+
   default void putRowTo( RowMetaInterface rowMeta, Object[] row, RowSet rowSet )
     throws KettleStepException {
     throw new UnsupportedOperationException(
@@ -48,6 +67,17 @@ public interface RowHandler {
         this.getClass().getName() ) );
   }
 
+  /**
+   * Puts the first n rows of a batch in a specific row set. By default the rows are passed one by one to
+   * {@link #putRowTo}.
+   */
+  default void putRowsTo( RowMetaInterface rowMeta, Object[][] rows, int n, RowSet rowSet )
+    throws KettleStepException {
+    for ( int i = 0; i < n; i++ ) {
+      putRowTo( rowMeta, rows[ i ], rowSet );
+    }
+  }
+
   default Object[] getRowFrom( RowSet rowSet ) throws KettleStepException {
     throw new UnsupportedOperationException(
       BaseMessages.getString( PKG, "BaseStep.RowHandler.GetRowFromNotSupported",
@@ -292,6 +292,35 @@ public interface StepInterface extends VariableSpace, HasLogChannelInterface {
    */
   Object[] getRow() throws KettleException;
 
+  /**
+   * Put a batch of rows on the destination rowsets. By default the rows are passed one by one to {@link #putRow}.
+   *
+   * @param rowMeta
+   *          The metadata of all the rows in the batch
+   * @param rows
+   *          The rows to send to the destinations steps
+   * @param n
+   *          The number of rows to take from the start of the rows array
+   */
+  default void putRows( RowMetaInterface rowMeta, Object[][] rows, int n ) throws KettleException {
+    for ( int i = 0; i < n; i++ ) {
+      putRow( rowMeta, rows[ i ] );
+    }
+  }
+
+  /**
+   * Get a batch of rows from the source step(s). By default a batch only holds the single row returned by
+   * {@link #getRow()}.
+   *
+   * @param max
+   *          The maximum number of rows to return
+   * @return at least one row or null if there are no more rows.
+   */
+  default Object[][] getRows( int max ) throws KettleException {
+    Object[] row = getRow();
+    return row == null ? null : new Object[][] { row };
+  }
+
   /**
    * Signal output done to destination steps
    */
@@ -612,6 +612,25 @@ public interface StepMetaInterface {
    */
   boolean supportsErrorHandling();
 
+  /**
+   * @return true if the step can read and write columnar row batches (see {@link BaseStep#getBatch(int)} and
+   *         {@link BaseStep#putBatch(RowMetaInterface, org.pentaho.di.core.row.columnar.ColumnarRowBatch)}). Hops
+   *         between two such steps can then carry columnar batches instead of rows.
+   */
+  default boolean supportsColumnarBatches() {
+    return false;
+  }
+
+  /**
+   * @return true if the step can block its thread while processing rows: it waits for a sub-transformation or job,
+   *         sleeps or calls a remote service. In the Scheduled threading mode such a step runs in a thread of its own
+   *         instead of on the workers shared by all transformations (see {@link org.pentaho.di.trans.StepScheduler}).
+   *         Steps that only work on the rows they read and write return false.
+   */
+  default boolean isBlocking() {
+    return true;
+  }
+
   /**
    * Get a list of all the resource dependencies that the step is depending on.
    *
@@ -14,15 +14,19 @@
 package org.pentaho.di.trans.steps.calculator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.exception.KettleFileNotFoundException;
 import org.pentaho.di.core.exception.KettleStepException;
 import org.pentaho.di.core.exception.KettleValueException;
-import org.pentaho.di.core.row.RowDataUtil;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.core.row.ValueDataUtil;
 import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.columnar.ColumnVector;
+import org.pentaho.di.core.row.columnar.ColumnarRowBatch;
+import org.pentaho.di.core.row.columnar.DoubleColumnVector;
+import org.pentaho.di.core.row.columnar.LongColumnVector;
 import org.pentaho.di.core.util.Utils;
 import org.pentaho.di.i18n.BaseMessages;
 import org.pentaho.di.trans.Trans;
@@ -62,8 +66,15 @@ public class Calculator extends BaseStep implements StepInterface {
     meta = (CalculatorMeta) smi;
     data = (CalculatorData) sdi;
 
-    Object[] r = getRow(); // get row, set busy!
-    if ( r == null ) { // no more input to be expected...
+    // get rows, set busy!
+    ColumnarRowBatch batch = null;
+    Object[][] rows = null;
+    if ( isColumnarExecution() ) {
+      batch = getBatch( ROW_BATCH_SIZE );
+    } else {
+      rows = getRows( ROW_BATCH_SIZE );
+    }
+    if ( batch == null && rows == null ) { // no more input to be expected...
       setOutputDone();
       data.clearValuesMetaMapping();
       return false;
@@ -144,31 +155,62 @@ public class Calculator extends BaseStep implements StepInterface {
       for ( int i = 0; i < data.getTempIndexes().length; i++ ) {
         data.getTempIndexes()[i] = tempIndexes.get( i );
       }
+
+      data.setColumnarCalculation( isColumnarCalculation() );
     }
 
-    if ( log.isRowLevel() ) {
-      logRowlevel( BaseMessages.getString( PKG, "Calculator.Log.ReadRow" )
-        + getLinesRead() + " : " + getInputRowMeta().getString( r ) );
+    if ( batch != null ) {
+      ColumnarRowBatch result = null;
+      if ( data.isColumnarCalculation() && !log.isRowLevel() ) {
+        result = calcBatch( batch );
+      }
+      if ( result != null ) {
+        putBatch( data.getOutputRowMeta(), result );
+        long linesRead = getLinesRead();
+        if ( checkFeedback( linesRead - batch.size(), linesRead ) ) {
+          if ( log.isBasic() ) {
+            logBasic( BaseMessages.getString( PKG, "Calculator.Log.Linenr", "" + linesRead ) );
+          }
+        }
+        return true;
+      }
+      rows = batch.toRows();
     }
 
+    Object[][] outputRows = new Object[ rows.length ][];
+    int nrOutputRows = 0;
+
     try {
-      Object[] row = calcFields( getInputRowMeta(), r );
-      putRow( data.getOutputRowMeta(), row ); // copy row to possible alternate rowset(s).
+      for ( Object[] r : rows ) {
+        if ( log.isRowLevel() ) {
+          logRowlevel( BaseMessages.getString( PKG, "Calculator.Log.ReadRow" )
+            + getLinesRead() + " : " + getInputRowMeta().getString( r ) );
+        }
+
+        try {
+          Object[] row = calcFields( getInputRowMeta(), r );
+          outputRows[ nrOutputRows++ ] = row;
+        } catch ( KettleFileNotFoundException e ) {
+          if ( meta.isFailIfNoFile() ) {
+            // The rows calculated before this one still go through
+            putRows( data.getOutputRowMeta(), outputRows, nrOutputRows );
+            logError( BaseMessages.getString( PKG, "Calculator.Log.NoFile" ) + " : " + e.getFilepath() );
+            setErrors( getErrors() + 1 );
+            return false;
+          }
+        }
+      }
+      putRows( data.getOutputRowMeta(), outputRows, nrOutputRows ); // copy rows to possible alternate rowset(s).
 
       if ( log.isRowLevel() ) {
-        logRowlevel( "Wrote row #" + getLinesWritten() + " : " + getInputRowMeta().getString( r ) );
+        logRowlevel( "Wrote " + nrOutputRows + " rows, last row #" + getLinesWritten() );
       }
-      if ( checkFeedback( getLinesRead() ) ) {
+      long linesRead = getLinesRead();
+      if ( checkFeedback( linesRead - rows.length, linesRead ) ) {
         if ( log.isBasic() ) {
-          logBasic( BaseMessages.getString( PKG, "Calculator.Log.Linenr", "" + getLinesRead() ) );
+          logBasic( BaseMessages.getString( PKG, "Calculator.Log.Linenr", "" + linesRead ) );
         }
       }
-    } catch ( KettleFileNotFoundException e ) {
-      if ( meta.isFailIfNoFile() ) {
-        logError( BaseMessages.getString( PKG, "Calculator.Log.NoFile" ) + " : " + e.getFilepath() );
-        setErrors( getErrors() + 1 );
-        return false;
-      }
     } catch ( KettleException e ) {
       logError( BaseMessages.getString( PKG, "Calculator.ErrorInStepRunning" + " : " + e.getMessage() ) );
       throw new KettleStepException( BaseMessages.getString( PKG, "Calculator.ErrorInStepRunning" ), e );
@@ -176,6 +218,139 @@ public class Calculator extends BaseStep implements StepInterface {
     return true;
   }
 
+  /**
+   * The calculations can be done on the primitive columns of a batch if they are all additions, subtractions,
+   * multiplications or copies of integer or number fields of the same type, without any conversion of the result.
+   */
+  private boolean isColumnarCalculation() {
+    RowMetaInterface calcRowMeta = data.getCalcRowMeta();
+    int inputSize = getInputRowMeta().size();
+    for ( int i = 0; i < meta.getCalculation().length; i++ ) {
+      CalculatorMetaFunction fn = meta.getCalculation()[i];
+      FieldIndexes indexes = data.getFieldIndexes()[i];
+      ValueMetaInterface targetMeta = calcRowMeta.getValueMeta( inputSize + i );
+      if ( indexes.indexA < 0 || !isPlainNumeric( calcRowMeta.getValueMeta( indexes.indexA ), targetMeta ) ) {
+        return false;
+      }
+      switch ( fn.getCalcType() ) {
+        case CalculatorMetaFunction.CALC_COPY_OF_FIELD:
+          break;
+        case CalculatorMetaFunction.CALC_ADD:
+        case CalculatorMetaFunction.CALC_SUBTRACT:
+        case CalculatorMetaFunction.CALC_MULTIPLY:
+          if ( indexes.indexB < 0 || !isPlainNumeric( calcRowMeta.getValueMeta( indexes.indexB ), targetMeta ) ) {
+            return false;
+          }
+          break;
+        default:
+          return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isPlainNumeric( ValueMetaInterface valueMeta, ValueMetaInterface targetMeta ) {
+    return valueMeta.isStorageNormal() && valueMeta.getType() == targetMeta.getType()
+      && ( valueMeta.isInteger() || valueMeta.getType() == ValueMetaInterface.TYPE_NUMBER );
+  }
+
+  /**
+   * Does all the calculations on the primitive columns of the batch.
+   *
+   * @param batch the input rows
+   * @return the output rows, or null if the data in the batch doesn't allow for a columnar calculation
+   */
+  private ColumnarRowBatch calcBatch( ColumnarRowBatch batch ) {
+    int inputSize = getInputRowMeta().size();
+    int nrCalculations = meta.getCalculation().length;
+    int n = batch.size();
+
+    ColumnVector[] calcColumns = new ColumnVector[ inputSize + nrCalculations ];
+    for ( int c = 0; c < inputSize; c++ ) {
+      calcColumns[ c ] = batch.getColumn( c );
+    }
+
+    for ( int i = 0; i < nrCalculations; i++ ) {
+      FieldIndexes indexes = data.getFieldIndexes()[i];
+      ColumnVector a = calcColumns[ indexes.indexA ];
+      int calcType = meta.getCalculation()[i].getCalcType();
+      if ( calcType == CalculatorMetaFunction.CALC_COPY_OF_FIELD ) {
+        // The values are immutable, the copy can use the same vector
+        calcColumns[ inputSize + i ] = a;
+        continue;
+      }
+
+      ColumnVector b = calcColumns[ indexes.indexB ];
+      if ( a instanceof LongColumnVector && b instanceof LongColumnVector ) {
+        long[] va = ( (LongColumnVector) a ).getValues();
+        long[] vb = ( (LongColumnVector) b ).getValues();
+        LongColumnVector result = new LongColumnVector( n );
+        long[] values = result.getValues();
+        for ( int r = 0; r < n; r++ ) {
+          switch ( calcType ) {
+            case CalculatorMetaFunction.CALC_ADD:
+              values[ r ] = va[ r ] + vb[ r ];
+              break;
+            case CalculatorMetaFunction.CALC_SUBTRACT:
+              values[ r ] = va[ r ] - vb[ r ];
+              break;
+            default:
+              values[ r ] = va[ r ] * vb[ r ];
+              break;
+          }
+        }
+        copyNulls( a, b, result );
+        calcColumns[ inputSize + i ] = result;
+      } else if ( a instanceof DoubleColumnVector && b instanceof DoubleColumnVector ) {
+        double[] va = ( (DoubleColumnVector) a ).getValues();
+        double[] vb = ( (DoubleColumnVector) b ).getValues();
+        DoubleColumnVector result = new DoubleColumnVector( n );
+        double[] values = result.getValues();
+        for ( int r = 0; r < n; r++ ) {
+          switch ( calcType ) {
+            case CalculatorMetaFunction.CALC_ADD:
+              values[ r ] = va[ r ] + vb[ r ];
+              break;
+            case CalculatorMetaFunction.CALC_SUBTRACT:
+              values[ r ] = va[ r ] - vb[ r ];
+              break;
+            default:
+              values[ r ] = va[ r ] * vb[ r ];
+              break;
+          }
+        }
+        copyNulls( a, b, result );
+        calcColumns[ inputSize + i ] = result;
+      } else {
+        // Values that don't match their metadata: let the row based calculation deal with them
+        return null;
+      }
+    }
+
+    // Leave out the temporary fields
+    //
+    ColumnVector[] outputColumns = new ColumnVector[ calcColumns.length - data.getTempIndexes().length ];
+    for ( int c = 0, o = 0; c < calcColumns.length; c++ ) {
+      if ( Arrays.binarySearch( data.getTempIndexes(), c ) < 0 ) {
+        outputColumns[ o++ ] = calcColumns[ c ];
+      }
+    }
+    return new ColumnarRowBatch( n, outputColumns );
+  }
+
+  /**
+   * Like the row based calculations: the result is null if one of the arguments is null.
+   */
+  private static void copyNulls( ColumnVector a, ColumnVector b, ColumnVector result ) {
+    if ( a.hasNulls() || b.hasNulls() ) {
+      for ( int r = 0; r < result.size(); r++ ) {
+        if ( a.isNull( r ) || b.isNull( r ) ) {
+          result.setNull( r, true );
+        }
+      }
+    }
+  }
+
   /**
    * @param inputRowMeta
    *          the input row metadata
@@ -188,7 +363,7 @@ public class Calculator extends BaseStep implements StepInterface {
   private Object[] calcFields( RowMetaInterface inputRowMeta, Object[] r ) throws KettleValueException,
           KettleFileNotFoundException {
     // First copy the input data to the new result...
-    Object[] calcData = RowDataUtil.resizeArray( r, data.getCalcRowMeta().size() );
+    Object[] calcData = resizeRowData( r, data.getCalcRowMeta().size() );
 
     for ( int i = 0, index = inputRowMeta.size() + i; i < meta.getCalculation().length; i++, index++ ) {
       CalculatorMetaFunction fn = meta.getCalculation()[i];
@@ -649,7 +824,7 @@ public class Calculator extends BaseStep implements StepInterface {
     // OK, now we should refrain from adding the temporary fields to the result.
     // So we remove them.
     //
-    return RowDataUtil.removeItems( calcData, data.getTempIndexes() );
+    return removeRowData( calcData, data.getTempIndexes() );
   }
 
   @Override
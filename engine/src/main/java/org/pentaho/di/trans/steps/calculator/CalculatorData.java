@@ -35,6 +35,8 @@ public class CalculatorData extends BaseStepData implements StepDataInterface {
 
   private int[] tempIndexes;
 
+  private boolean columnarCalculation;
+
   private final Map<Integer, ValueMetaInterface> resultMetaMapping;
 
   public CalculatorData() {
@@ -74,6 +76,17 @@ public class CalculatorData extends BaseStepData implements StepDataInterface {
     this.tempIndexes = tempIndexes;
   }
 
+  /**
+   * @return true if all the calculations can be done directly on columnar batches
+   */
+  public boolean isColumnarCalculation() {
+    return columnarCalculation;
+  }
+
+  public void setColumnarCalculation( boolean columnarCalculation ) {
+    this.columnarCalculation = columnarCalculation;
+  }
+
   public ValueMetaInterface getValueMetaFor( int resultType, String name ) throws KettlePluginException {
     // don't need any synchronization as data instance belongs only to one step instance
     ValueMetaInterface meta = resultMetaMapping.get( resultType );
@@ -257,4 +257,14 @@ public class CalculatorMeta extends BaseStepMeta implements StepMetaInterface {
   public StepHelperInterface getStepHelperInterface() {
     return new CalculatorHelper();
   }
+
+  @Override
+  public boolean supportsColumnarBatches() {
+    return true;
+  }
+
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
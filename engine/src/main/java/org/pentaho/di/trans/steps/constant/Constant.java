@@ -23,10 +23,11 @@ import org.pentaho.di.core.CheckResult;
 import org.pentaho.di.core.CheckResultInterface;
 import org.pentaho.di.core.RowMetaAndData;
 import org.pentaho.di.core.exception.KettleException;
-import org.pentaho.di.core.row.RowDataUtil;
 import org.pentaho.di.core.row.RowMeta;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.columnar.ColumnVector;
+import org.pentaho.di.core.row.columnar.ColumnarRowBatch;
 import org.pentaho.di.core.row.value.ValueMetaFactory;
 import org.pentaho.di.core.util.StringUtil;
 import org.pentaho.di.i18n.BaseMessages;
@@ -224,10 +225,15 @@ public class Constant extends BaseStep implements StepInterface {
 
   @Override
   public boolean processRow( StepMetaInterface smi, StepDataInterface sdi ) throws KettleException {
-    Object[] r = null;
-    r = getRow();
+    ColumnarRowBatch batch = null;
+    Object[][] rows = null;
+    if ( isColumnarExecution() ) {
+      batch = getBatch( ROW_BATCH_SIZE );
+    } else {
+      rows = getRows( ROW_BATCH_SIZE );
+    }
 
-    if ( r == null ) { // no more rows to be expected from the previous step(s)
+    if ( batch == null && rows == null ) { // no more rows to be expected from the previous step(s)
       setOutputDone();
       return false;
     }
@@ -242,17 +248,46 @@ public class Constant extends BaseStep implements StepInterface {
         metaStore );
     }
 
-    // Add the constant data to the end of the row.
-    r = RowDataUtil.addRowData( r, getInputRowMeta().size(), data.getConstants().getData() );
+    if ( batch != null ) {
+      if ( !log.isRowLevel() ) {
+        // Add the constants as extra columns, each with the same value in every row.
+        RowMetaInterface constantsMeta = data.getConstants().getRowMeta();
+        Object[] constants = data.getConstants().getData();
+        ColumnVector[] columns = new ColumnVector[ constantsMeta.size() ];
+        for ( int i = 0; i < columns.length; i++ ) {
+          columns[ i ] = ColumnVector.constant( constantsMeta.getValueMeta( i ), constants[ i ], batch.size() );
+        }
+        putBatch( data.outputMeta, batch.addColumns( columns ) );
 
-    putRow( data.outputMeta, r );
+        if ( checkFeedback( getLinesWritten() - batch.size(), getLinesWritten() ) ) {
+          if ( log.isBasic() ) {
+            logBasic( BaseMessages.getString( PKG, "Constant.Log.LineNr", Long.toString( getLinesWritten() ) ) );
+          }
+        }
+        return true;
+      }
+      rows = batch.toRows();
+    }
+
+    // Add the constant data to the end of the rows.
+    int inputSize = getInputRowMeta().size();
+    Object[] constants = data.getConstants().getData();
+    for ( int i = 0; i < rows.length; i++ ) {
+      rows[ i ] = resizeRowData( rows[ i ], inputSize + constants.length );
+      System.arraycopy( constants, 0, rows[ i ], inputSize, constants.length );
+    }
+
+    long linesWritten = getLinesWritten();
+    putRows( data.outputMeta, rows, rows.length );
 
     if ( log.isRowLevel() ) {
-      logRowlevel( BaseMessages.getString(
-        PKG, "Constant.Log.Wrote.Row", Long.toString( getLinesWritten() ), getInputRowMeta().getString( r ) ) );
+      for ( Object[] r : rows ) {
+        logRowlevel( BaseMessages.getString(
+          PKG, "Constant.Log.Wrote.Row", Long.toString( ++linesWritten ), getInputRowMeta().getString( r ) ) );
+      }
     }
 
-    if ( checkFeedback( getLinesWritten() ) ) {
+    if ( checkFeedback( getLinesWritten() - rows.length, getLinesWritten() ) ) {
       if ( log.isBasic() ) {
         logBasic( BaseMessages.getString( PKG, "Constant.Log.LineNr", Long.toString( getLinesWritten() ) ) );
       }
@@ -438,4 +438,14 @@ public class ConstantMeta extends BaseStepMeta implements StepMetaInterface {
   public StepDataInterface getStepData() {
     return new ConstantData();
   }
+
+  @Override
+  public boolean supportsColumnarBatches() {
+    return true;
+  }
+
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
@@ -110,6 +110,15 @@ public class CsvInput extends BaseStep implements StepInterface, CsvInputAwareSt
         valueMeta.setStorageType( ValueMetaInterface.STORAGE_TYPE_BINARY_STRING );
       }
 
+      // Plain integers and numbers can be parsed straight from the read buffer when we're not lazy.
+      //
+      if ( !meta.isLazyConversionActive() ) {
+        data.numberFieldParsers = new NumberFieldParser[ data.convertRowMeta.size() ];
+        for ( int i = 0; i < data.numberFieldParsers.length; i++ ) {
+          data.numberFieldParsers[ i ] = NumberFieldParser.create( data.convertRowMeta.getValueMeta( i ) );
+        }
+      }
+
       // Calculate the indexes for the filename and row number fields
       //
       data.filenameFieldIndex = -1;
@@ -356,7 +365,9 @@ public class CsvInput extends BaseStep implements StepInterface, CsvInputAwareSt
       }
 
       data.fc = data.fis.getChannel();
-      data.bb = ByteBuffer.allocateDirect( data.preferredBufferSize );
+      if ( !data.memoryMapped ) {
+        data.bb = ByteBuffer.allocateDirect( data.preferredBufferSize );
+      }
 
       // If we are running in parallel and we need to skip bytes in the first file, let's do so here.
       //
@@ -724,47 +735,62 @@ public class CsvInput extends BaseStep implements StepInterface, CsvInputAwareSt
         // data.byteBuffer[data.startBuffer]
         //
 
-        byte[] field = data.getField( delimiterFound, enclosureFound, newLineFound, endOfBuffer );
+        final int currentFieldIndex = outputIndex++;
+        final int actualFieldIndex = data.fieldsMapping.fieldMetaIndex( currentFieldIndex );
 
-        // Did we have any escaped characters in there?
+        // Plain numbers are converted straight from the buffer, without copying the field first.
         //
-        if ( escapedEnclosureFound > 0 ) {
-          if ( log.isRowLevel() ) {
-            logRowlevel( "Escaped enclosures found in " + new String( field ) );
+        Object number = null;
+        if ( !skipRow && escapedEnclosureFound == 0 && actualFieldIndex != FieldsMapping.FIELD_DOES_NOT_EXIST ) {
+          NumberFieldParser numberFieldParser = data.getNumberFieldParser( actualFieldIndex );
+          if ( numberFieldParser != null ) {
+            number = data.parseField( numberFieldParser, enclosureFound, newLineFound, endOfBuffer );
           }
-          field = data.removeEscapedEnclosures( field, escapedEnclosureFound );
         }
 
-        final int currentFieldIndex = outputIndex++;
-        final int actualFieldIndex = data.fieldsMapping.fieldMetaIndex( currentFieldIndex );
-        if ( actualFieldIndex != FieldsMapping.FIELD_DOES_NOT_EXIST ) {
-          if ( !skipRow ) {
-            if ( meta.isLazyConversionActive() ) {
-              outputRowData[actualFieldIndex] = field;
-            } else {
-              // We're not lazy so we convert the data right here and now.
-              // The convert object uses binary storage as such we just have to ask the native type from it.
-              // That will do the actual conversion.
-              //
-              ValueMetaInterface sourceValueMeta = data.convertRowMeta.getValueMeta( actualFieldIndex );
-              try {
-                outputRowData[actualFieldIndex] = sourceValueMeta.convertBinaryStringToNativeType( field );
-              } catch ( KettleValueException e ) {
-                // There was a conversion error,
+        if ( number != null ) {
+          outputRowData[actualFieldIndex] = number;
+        } else {
+          byte[] field = data.getField( delimiterFound, enclosureFound, newLineFound, endOfBuffer );
+
+          // Did we have any escaped characters in there?
+          //
+          if ( escapedEnclosureFound > 0 ) {
+            if ( log.isRowLevel() ) {
+              logRowlevel( "Escaped enclosures found in " + new String( field ) );
+            }
+            field = data.removeEscapedEnclosures( field, escapedEnclosureFound );
+          }
+
+          if ( actualFieldIndex != FieldsMapping.FIELD_DOES_NOT_EXIST ) {
+            if ( !skipRow ) {
+              if ( meta.isLazyConversionActive() ) {
+                outputRowData[actualFieldIndex] = field;
+              } else {
+                // We're not lazy so we convert the data right here and now.
+                // The convert object uses binary storage as such we just have to ask the native type from it.
+                // That will do the actual conversion.
                 //
-                outputRowData[actualFieldIndex] = null;
+                ValueMetaInterface sourceValueMeta = data.convertRowMeta.getValueMeta( actualFieldIndex );
+                try {
+                  outputRowData[actualFieldIndex] = sourceValueMeta.convertBinaryStringToNativeType( field );
+                } catch ( KettleValueException e ) {
+                  // There was a conversion error,
+                  //
+                  outputRowData[actualFieldIndex] = null;
 
-                if ( conversionExceptions == null ) {
-                  conversionExceptions = new ArrayList<Exception>();
-                  exceptionFields = new ArrayList<ValueMetaInterface>();
-                }
+                  if ( conversionExceptions == null ) {
+                    conversionExceptions = new ArrayList<Exception>();
+                    exceptionFields = new ArrayList<ValueMetaInterface>();
+                  }
 
-                conversionExceptions.add( e );
-                exceptionFields.add( sourceValueMeta );
+                  conversionExceptions.add( e );
+                  exceptionFields.add( sourceValueMeta );
+                }
               }
+            } else {
+              outputRowData[actualFieldIndex] = null; // nothing for the header, no conversions here.
             }
-          } else {
-            outputRowData[actualFieldIndex] = null; // nothing for the header, no conversions here.
           }
         }
 
@@ -878,6 +904,7 @@ public class CsvInput extends BaseStep implements StepInterface, CsvInputAwareSt
       // PDI-10242 see if a variable is used as encoding value
       String realEncoding = environmentSubstitute( meta.getEncoding() );
       data.preferredBufferSize = Integer.parseInt( environmentSubstitute( meta.getBufferSize() ) );
+      data.memoryMapped = meta.isMemoryMapped();
 
       // If the step doesn't have any previous steps, we just get the filename.
       // Otherwise, we'll grab the list of file names later...
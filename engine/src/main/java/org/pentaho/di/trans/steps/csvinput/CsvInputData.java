@@ -16,6 +16,7 @@ package org.pentaho.di.trans.steps.csvinput;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.List;
 
@@ -30,8 +31,22 @@ import org.pentaho.di.trans.steps.textfileinput.EncodingType;
  * @since 24-jan-2005
  */
 public class CsvInputData extends BaseStepData implements StepDataInterface {
+  /** The size of the file regions that are mapped into memory at once in memory mapped mode */
+  static final long MAPPED_REGION_SIZE = 64L * 1024 * 1024;
+
   public FileChannel fc;
   public ByteBuffer bb;
+
+  /**
+   * When true the file is read through a memory mapped region of the file channel instead of reading blocks into
+   * the direct byte buffer first.
+   */
+  public boolean memoryMapped;
+  private MappedByteBuffer mappedBuffer;
+  private long mappedEnd;
+
+  /** The parsers to convert numeric fields directly from the buffer, per output field index. Null if not lazy */
+  public NumberFieldParser[] numberFieldParsers;
   public RowMetaInterface convertRowMeta;
   public RowMetaInterface outputRowMeta;
 
@@ -110,6 +125,10 @@ public class CsvInputData extends BaseStepData implements StepDataInterface {
   }
 
   private int readBufferFromFile() throws IOException {
+    if ( memoryMapped ) {
+      return readBufferFromMappedFile();
+    }
+
     // See if the line is not longer than the buffer.
     // In that case we need to increase the size of the byte buffer.
     // Since this method doesn't get called every other character, I'm sure we can spend a bit of time here without
@@ -144,6 +163,34 @@ public class CsvInputData extends BaseStepData implements StepDataInterface {
     return n;
   }
 
+  /**
+   * Copies the next block of data straight from the memory mapped file into the byte array. The file is mapped in
+   * regions of {@link #MAPPED_REGION_SIZE} bytes. The first region starts at the position of the file channel,
+   * after that we keep track of the file offset ourselves.
+   */
+  private int readBufferFromMappedFile() throws IOException {
+    if ( mappedBuffer == null || !mappedBuffer.hasRemaining() ) {
+      long position = mappedBuffer == null ? fc.position() : mappedEnd;
+      long size = Math.min( MAPPED_REGION_SIZE, fc.size() - position );
+      if ( size <= 0 ) {
+        return -1;
+      }
+      mappedBuffer = fc.map( FileChannel.MapMode.READ_ONLY, position, size );
+      mappedEnd = position + size;
+    }
+
+    int n = Math.min( Math.max( preferredBufferSize, byteBuffer.length - endBuffer ), mappedBuffer.remaining() );
+    bufferSize = endBuffer + n;
+    if ( byteBuffer.length < bufferSize ) {
+      byte[] newByteBuffer = new byte[bufferSize];
+      System.arraycopy( byteBuffer, 0, newByteBuffer, 0, byteBuffer.length );
+      byteBuffer = newByteBuffer;
+    }
+    mappedBuffer.get( byteBuffer, endBuffer, n );
+
+    return n;
+  }
+
   private void resizeByteBuffer( int newSize ) {
     ByteBuffer newBuffer = ByteBuffer.allocateDirect( newSize ); // Increase by 50%
     newBuffer.position( 0 );
@@ -233,7 +280,39 @@ public class CsvInputData extends BaseStepData implements StepDataInterface {
   }
 
   byte[] getField( boolean delimiterFound, boolean enclosureFound, boolean newLineFound, boolean endOfBuffer ) {
-    int fieldStart = startBuffer;
+    int fieldStart = getFieldStart( enclosureFound );
+    int length = getFieldLength( fieldStart, enclosureFound, newLineFound, endOfBuffer );
+
+    byte[] field = new byte[length];
+    System.arraycopy( byteBuffer, fieldStart, field, 0, length );
+
+    return field;
+  }
+
+  /**
+   * Converts the current field straight from the byte buffer, without copying it into a separate byte array first.
+   *
+   * @return the Long or Double value or null if the field needs to be converted the regular way.
+   */
+  Object parseField( NumberFieldParser parser, boolean enclosureFound, boolean newLineFound, boolean endOfBuffer ) {
+    int fieldStart = getFieldStart( enclosureFound );
+    int length = getFieldLength( fieldStart, enclosureFound, newLineFound, endOfBuffer );
+
+    return parser.parse( byteBuffer, fieldStart, length );
+  }
+
+  NumberFieldParser getNumberFieldParser( int fieldIndex ) {
+    if ( numberFieldParsers == null || fieldIndex >= numberFieldParsers.length ) {
+      return null;
+    }
+    return numberFieldParsers[fieldIndex];
+  }
+
+  private int getFieldStart( boolean enclosureFound ) {
+    return enclosureFound ? startBuffer + enclosure.length : startBuffer;
+  }
+
+  private int getFieldLength( int fieldStart, boolean enclosureFound, boolean newLineFound, boolean endOfBuffer ) {
     int fieldEnd = endBuffer;
 
     if ( newLineFound && !endOfBuffer ) {
@@ -241,23 +320,15 @@ public class CsvInputData extends BaseStepData implements StepDataInterface {
     }
 
     if ( enclosureFound ) {
-      fieldStart += enclosure.length;
       fieldEnd -= enclosure.length;
     }
 
-    int length = fieldEnd - fieldStart;
-
-    if ( length <= 0 ) {
-      length = 0;
-    }
-
-    byte[] field = new byte[length];
-    System.arraycopy( byteBuffer, fieldStart, field, 0, length );
-
-    return field;
+    return Math.max( fieldEnd - fieldStart, 0 );
   }
 
   void closeFile() throws KettleException {
+    mappedBuffer = null;
+    mappedEnd = 0L;
     try {
       if ( fc != null ) {
         fc.close();
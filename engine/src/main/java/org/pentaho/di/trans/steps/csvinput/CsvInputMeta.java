@@ -100,6 +100,8 @@ public class CsvInputMeta extends BaseStepMeta implements StepMetaInterface, Inp
 
   private boolean newlinePossibleInFields;
 
+  private boolean memoryMapped;
+
   public CsvInputMeta() {
     super(); // allocate BaseStepMeta
     allocate( 0 );
@@ -156,6 +158,7 @@ public class CsvInputMeta extends BaseStepMeta implements StepMetaInterface, Inp
       } else {
         newlinePossibleInFields = "Y".equalsIgnoreCase( nlp );
       }
+      memoryMapped = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, getXmlCode( "MEMORY_MAPPED" ) ) );
       fileFormat = XMLHandler.getTagValue( stepnode, getXmlCode( "FORMAT" ) );
       encoding = XMLHandler.getTagValue( stepnode, getXmlCode( "ENCODING" ) );
 
@@ -210,6 +213,7 @@ public class CsvInputMeta extends BaseStepMeta implements StepMetaInterface, Inp
     retval.append( "    " ).append( XMLHandler.addTagValue( getXmlCode( "PARALLEL" ), runningInParallel ) );
     retval.append( "    " ).append(
       XMLHandler.addTagValue( getXmlCode( "NEWLINE_POSSIBLE" ), newlinePossibleInFields ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( getXmlCode( "MEMORY_MAPPED" ), memoryMapped ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( getXmlCode( "FORMAT" ), fileFormat ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( getXmlCode( "ENCODING" ), encoding ) );
 
@@ -259,6 +263,7 @@ public class CsvInputMeta extends BaseStepMeta implements StepMetaInterface, Inp
       runningInParallel = rep.getStepAttributeBoolean( id_step, getRepCode( "PARALLEL" ) );
       newlinePossibleInFields =
         rep.getStepAttributeBoolean( id_step, 0, getRepCode( "NEWLINE_POSSIBLE" ), !runningInParallel );
+      memoryMapped = rep.getStepAttributeBoolean( id_step, getRepCode( "MEMORY_MAPPED" ) );
       fileFormat = rep.getStepAttributeString( id_step, getRepCode( "FORMAT" ) );
       encoding = rep.getStepAttributeString( id_step, getRepCode( "ENCODING" ) );
 
@@ -305,6 +310,7 @@ public class CsvInputMeta extends BaseStepMeta implements StepMetaInterface, Inp
       rep
         .saveStepAttribute(
           id_transformation, id_step, getRepCode( "NEWLINE_POSSIBLE" ), newlinePossibleInFields );
+      rep.saveStepAttribute( id_transformation, id_step, getRepCode( "MEMORY_MAPPED" ), memoryMapped );
       rep.saveStepAttribute( id_transformation, id_step, getRepCode( "FORMAT" ), fileFormat );
       rep.saveStepAttribute( id_transformation, id_step, getRepCode( "ENCODING" ), encoding );
 
@@ -845,6 +851,8 @@ public class CsvInputMeta extends BaseStepMeta implements StepMetaInterface, Inp
           runningInParallel = (Boolean) entry.getValue();
         } else if ( attr.getKey().equals( "NEWLINE_POSSIBLE" ) ) {
           newlinePossibleInFields = (Boolean) entry.getValue();
+        } else if ( attr.getKey().equals( "MEMORY_MAPPED" ) ) {
+          memoryMapped = (Boolean) entry.getValue();
         } else if ( attr.getKey().equals( "ADD_FILENAME_RESULT" ) ) {
           isaddresult = (Boolean) entry.getValue();
         } else if ( attr.getKey().equals( "FORMAT" ) ) {
@@ -933,6 +941,21 @@ public class CsvInputMeta extends BaseStepMeta implements StepMetaInterface, Inp
     this.newlinePossibleInFields = newlinePossibleInFields;
   }
 
+  /**
+   * @return true if the file should be read through a memory mapped file region instead of NIO buffer reads
+   */
+  public boolean isMemoryMapped() {
+    return memoryMapped;
+  }
+
+  /**
+   * @param memoryMapped
+   *          true if the file should be read through a memory mapped file region instead of NIO buffer reads
+   */
+  public void setMemoryMapped( boolean memoryMapped ) {
+    this.memoryMapped = memoryMapped;
+  }
+
   @Override
   public FileObject getHeaderFileObject( final TransMeta transMeta ) {
     final String filename = transMeta.environmentSubstitute( getFilename() );
@@ -0,0 +1,152 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.csvinput;
+
+import java.nio.charset.Charset;
+import java.text.DecimalFormatSymbols;
+import java.util.Arrays;
+
+import org.pentaho.di.core.Const;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.util.Utils;
+
+/**
+ * Parses plain Integer and Number fields straight from the bytes in the read buffer of the CSV Input step. This
+ * avoids decoding the field into a String and parsing it with a DecimalFormat for the very common case where the
+ * field only holds digits, an optional leading minus sign and a decimal symbol.<br>
+ * <br>
+ * Anything that the parser doesn't understand (grouping symbols, white space, exponents, currency symbols, very long
+ * numbers, empty fields, ...) makes {@link #parse(byte[], int, int)} return null. The caller then falls back to the
+ * regular conversion so the result and the error handling stay exactly the same.
+ */
+class NumberFieldParser {
+
+  /** The format mask characters that don't change how a plain number is parsed. */
+  private static final String SIMPLE_MASK_CHARACTERS = "#0,.";
+
+  /** More digits might not fit in a long. */
+  private static final int MAX_DIGITS = 18;
+
+  /** Up to this mantissa a double division by a power of ten is correctly rounded. */
+  private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+  private static final double[] POWERS_OF_TEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, };
+
+  private final boolean integer;
+  private final byte decimalSymbol;
+
+  NumberFieldParser( boolean integer, byte decimalSymbol ) {
+    this.integer = integer;
+    this.decimalSymbol = decimalSymbol;
+  }
+
+  /**
+   * Creates a parser for the given field if its values can be parsed directly.
+   *
+   * @param valueMeta
+   *          the binary string value metadata of the field, with the String storage metadata
+   * @return the parser or null if the field needs the regular conversion
+   */
+  static NumberFieldParser create( ValueMetaInterface valueMeta ) {
+    if ( valueMeta == null ) {
+      return null;
+    }
+    boolean integer = valueMeta.getType() == ValueMetaInterface.TYPE_INTEGER;
+    if ( !integer && valueMeta.getType() != ValueMetaInterface.TYPE_NUMBER ) {
+      return null;
+    }
+    ValueMetaInterface storageMeta = valueMeta.getStorageMetadata();
+    if ( storageMeta == null || storageMeta.getConversionMetadata() != null
+      || storageMeta.isLenientStringToNumber() ) {
+      return null;
+    }
+    String mask = storageMeta.getFormatMask();
+    if ( !Utils.isEmpty( mask ) ) {
+      for ( int i = 0; i < mask.length(); i++ ) {
+        if ( SIMPLE_MASK_CHARACTERS.indexOf( mask.charAt( i ) ) < 0 ) {
+          return null;
+        }
+      }
+    }
+
+    char decimal = Utils.isEmpty( storageMeta.getDecimalSymbol() )
+      ? DecimalFormatSymbols.getInstance().getDecimalSeparator() : storageMeta.getDecimalSymbol().charAt( 0 );
+    if ( decimal > 127 || ( decimal >= '0' && decimal <= '9' ) || decimal == '-' ) {
+      return null;
+    }
+
+    // The digits, the minus sign and the decimal symbol need to be single ASCII bytes in the file encoding
+    //
+    String sample = "0123456789-" + decimal;
+    try {
+      String encoding = storageMeta.getStringEncoding();
+      Charset charset = Utils.isEmpty( encoding ) ? Charset.defaultCharset() : Charset.forName( encoding );
+      if ( !Arrays.equals( sample.getBytes( charset ), sample.getBytes( Const.XML_ENCODING ) ) ) {
+        return null;
+      }
+    } catch ( Exception e ) {
+      return null;
+    }
+
+    return new NumberFieldParser( integer, (byte) decimal );
+  }
+
+  /**
+   * @return a Long or Double value or null if the bytes need to be converted the regular way.
+   */
+  Object parse( byte[] buffer, int offset, int length ) {
+    int end = offset + length;
+    int i = offset;
+    boolean negative = false;
+    if ( i < end && buffer[ i ] == '-' ) {
+      negative = true;
+      i++;
+    }
+
+    long mantissa = 0;
+    int digits = 0;
+    int fractionDigits = -1;
+    for ( ; i < end; i++ ) {
+      byte b = buffer[ i ];
+      if ( b >= '0' && b <= '9' ) {
+        if ( ++digits > MAX_DIGITS ) {
+          return null;
+        }
+        mantissa = mantissa * 10 + ( b - '0' );
+        if ( fractionDigits >= 0 ) {
+          fractionDigits++;
+        }
+      } else if ( b == decimalSymbol && !integer && fractionDigits < 0 && digits > 0 ) {
+        fractionDigits = 0;
+      } else {
+        return null;
+      }
+    }
+
+    if ( digits == 0 || fractionDigits == 0 ) {
+      return null;
+    }
+
+    if ( integer ) {
+      return negative ? -mantissa : mantissa;
+    }
+
+    if ( mantissa > MAX_EXACT_MANTISSA ) {
+      return null;
+    }
+    double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[ fractionDigits ] : mantissa;
+    return negative ? -value : value;
+  }
+}
@@ -21,6 +21,7 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import com.google.common.annotations.VisibleForTesting;
 import org.pentaho.di.core.Const;
+import org.pentaho.di.core.cache.LookupCacheService;
 import org.pentaho.di.core.database.Database;
 import org.pentaho.di.core.database.DatabaseMeta;
 import org.pentaho.di.core.exception.KettleDatabaseException;
@@ -118,6 +119,9 @@ public class DatabaseLookup extends BaseStep implements StepInterface {
     // First, check if we looked up before
     if ( meta.isCached() ) {
       add = data.cache.getRowFromCache( data.lookupMeta, lookupRow );
+      if ( add == null && reloadSharedCache() ) {
+        add = data.cache.getRowFromCache( data.lookupMeta, lookupRow );
+      }
       if ( add != null ) {
         cacheHit = true;
       }
@@ -404,7 +408,15 @@ public class DatabaseLookup extends BaseStep implements StepInterface {
       }
 
       if ( meta.isCached() ) {
-        data.cache = DefaultCache.newCache( data, meta.getCacheSize() );
+        if ( data.allEquals
+          && ValueMetaString.convertStringToBoolean( getVariable( Const.KETTLE_SHARED_LOOKUP_CACHE, "N" ) ) ) {
+          long timeToLive = Const.toLong( getVariable( Const.KETTLE_SHARED_LOOKUP_CACHE_TTL, "0" ), 0L ) * 1000L;
+          int maxEntries = meta.isLoadingAllDataInCache() ? 0 : meta.getCacheSize();
+          data.sharedCache = LookupCacheService.getInstance().acquire( getSharedCacheName(), maxEntries, timeToLive );
+          data.cache = new SharedCache( data, data.sharedCache );
+        } else {
+          data.cache = DefaultCache.newCache( data, meta.getCacheSize() );
+        }
       }
 
       determineFieldsTypesQueryingDb();
@@ -418,7 +430,13 @@ public class DatabaseLookup extends BaseStep implements StepInterface {
       // If the user selected to load all data into the cache at startup, that's what we do now...
       //
       if ( meta.isCached() && meta.isLoadingAllDataInCache() ) {
-        loadAllTableDataIntoTheCache();
+        if ( data.sharedCache != null ) {
+          // Only the first copy or transformation reads the table, the others wait for it
+          //
+          loadSharedCache();
+        } else {
+          loadAllTableDataIntoTheCache();
+        }
       }
     }
 
@@ -507,6 +525,60 @@ public class DatabaseLookup extends BaseStep implements StepInterface {
     }
   }
 
+  private void loadSharedCache() throws KettleException {
+    data.sharedCache.load( cache -> loadAllTableDataIntoTheCache() );
+  }
+
+  /**
+   * A shared cache with all the data of the table can be invalidated or expire while the step runs. As the table is
+   * no longer read for a cache miss in that case, the cache is loaded again instead of reporting rows as not found.
+   *
+   * @return true if the cache was loaded again, by this step or by another user of the cache
+   */
+  private boolean reloadSharedCache() throws KettleException {
+    if ( data.sharedCache == null || !meta.isLoadingAllDataInCache() || data.sharedCache.isComplete() ) {
+      return false;
+    }
+    if ( log.isDetailed() ) {
+      logDetailed(
+        BaseMessages.getString( PKG, "DatabaseLookup.Log.ReloadingSharedCache", data.sharedCache.getName() ) );
+    }
+    loadSharedCache();
+    return true;
+  }
+
+  /**
+   * The name of the shared cache describes the data in it: the connection with its user and server, the table, the keys
+   * with their conditions, the returned fields with their types and whether or not all the data is loaded.
+   */
+  private String getSharedCacheName() {
+    DatabaseMeta dbMeta = meta.getDatabaseMeta();
+    StringBuilder name = new StringBuilder( "DatabaseLookup:" );
+    name.append( dbMeta.getName() ).append( ':' );
+    name.append( environmentSubstitute( dbMeta.getUsername() ) ).append( '@' );
+    name.append( environmentSubstitute( dbMeta.getHostname() ) ).append( ':' );
+    name.append( environmentSubstitute( dbMeta.getDatabasePortNumberString() ) ).append( ':' );
+    name.append( environmentSubstitute( dbMeta.getDatabaseName() ) ).append( ':' );
+    name.append( dbMeta.getQuotedSchemaTableCombination( environmentSubstitute( meta.getSchemaName() ),
+      environmentSubstitute( meta.getTablename() ) ) );
+    for ( int i = 0; i < meta.getTableKeyField().length; i++ ) {
+      name.append( i == 0 ? " WHERE " : " AND " ).append( meta.getTableKeyField()[ i ] ).append( ' ' )
+        .append( meta.getKeyCondition()[ i ] );
+    }
+    name.append( " RETURN" );
+    for ( int i = 0; i < meta.getReturnValueField().length; i++ ) {
+      name.append( ' ' ).append( meta.getReturnValueField()[ i ] ).append( '(' )
+        .append( meta.getReturnValueDefaultType()[ i ] ).append( ')' );
+    }
+    if ( !Utils.isEmpty( meta.getOrderByClause() ) ) {
+      name.append( " ORDER BY " ).append( meta.getOrderByClause() );
+    }
+    if ( meta.isLoadingAllDataInCache() ) {
+      name.append( " (all)" );
+    }
+    return name.toString();
+  }
+
   private void putToDefaultCache( Database db, String sql ) throws KettleDatabaseException {
     final int keysAmount = meta.getStreamKeyField1().length;
     AtomicReference<RowMetaInterface> prototype = new AtomicReference<>();
@@ -648,6 +720,13 @@ public class DatabaseLookup extends BaseStep implements StepInterface {
     // Recover memory immediately, allow in-memory data to be garbage collected
     //
     data.cache = null;
+    if ( data.sharedCache != null ) {
+      if ( log.isDetailed() ) {
+        logDetailed( BaseMessages.getString( PKG, "DatabaseLookup.Log.SharedCacheStatistics", data.sharedCache ) );
+      }
+      LookupCacheService.getInstance().release( data.sharedCache );
+      data.sharedCache = null;
+    }
 
     super.dispose( smi, sdi );
   }
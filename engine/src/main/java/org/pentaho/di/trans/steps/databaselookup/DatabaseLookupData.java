@@ -13,6 +13,7 @@
 
 package org.pentaho.di.trans.steps.databaselookup;
 
+import org.pentaho.di.core.cache.LookupCache;
 import org.pentaho.di.core.database.Database;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.row.RowMetaInterface;
@@ -25,6 +26,8 @@ import org.pentaho.di.trans.step.StepDataInterface;
  */
 public class DatabaseLookupData extends BaseStepData implements StepDataInterface {
   public Cache cache;
+  /** The cache shared through the lookup cache service, if any */
+  public LookupCache sharedCache;
   public Database db;
 
   public Object[] nullif; // Not found: default values...
@@ -0,0 +1,49 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.databaselookup;
+
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.cache.LookupCache;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.row.RowMetaInterface;
+
+/**
+ * Stores the looked up rows in a {@link LookupCache} that is shared with the other copies of the step and with other
+ * transformations doing the same lookup. Only used when all the lookup conditions are equalities.
+ */
+public class SharedCache implements DatabaseLookupData.Cache {
+
+  private final DatabaseLookupData data;
+  private final LookupCache cache;
+
+  SharedCache( DatabaseLookupData data, LookupCache cache ) {
+    this.data = data;
+    this.cache = cache;
+  }
+
+  public LookupCache getLookupCache() {
+    return cache;
+  }
+
+  @Override
+  public Object[] getRowFromCache( RowMetaInterface lookupMeta, Object[] lookupRow ) throws KettleException {
+    return cache.get( new RowMetaAndData( data.lookupMeta, lookupRow ) );
+  }
+
+  @Override
+  public void storeRowInCache( DatabaseLookupMeta meta, RowMetaInterface lookupMeta, Object[] lookupRow,
+                               Object[] add ) {
+    cache.put( new RowMetaAndData( lookupMeta, lookupRow ), add );
+  }
+}
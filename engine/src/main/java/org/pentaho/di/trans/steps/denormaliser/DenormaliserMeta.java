@@ -392,4 +392,9 @@ public class DenormaliserMeta extends BaseStepMeta implements StepMetaInterface
   public StepMetaInjectionInterface getStepMetaInjectionInterface() {
     return new DenormaliserMetaInjection( this );
   }
+
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
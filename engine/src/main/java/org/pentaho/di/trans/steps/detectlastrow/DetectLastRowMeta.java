@@ -168,4 +168,9 @@ public class DetectLastRowMeta extends BaseStepMeta implements StepMetaInterface
   public TransformationType[] getSupportedTransformationTypes() {
     return new TransformationType[] { TransformationType.Normal, };
   }
+
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
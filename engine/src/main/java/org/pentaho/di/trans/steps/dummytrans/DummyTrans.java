@@ -14,6 +14,7 @@
 package org.pentaho.di.trans.steps.dummytrans;
 
 import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.row.columnar.ColumnarRowBatch;
 import org.pentaho.di.i18n.BaseMessages;
 import org.pentaho.di.trans.Trans;
 import org.pentaho.di.trans.TransMeta;
@@ -39,18 +40,31 @@ public class DummyTrans extends BaseStep implements StepInterface {
 
   @Override
   public boolean processRow( StepMetaInterface smi, StepDataInterface sdi ) throws KettleException {
-    Object[] r = getRow(); // get row, set busy!
-    // no more input to be expected...
-    if ( r == null ) {
-      setOutputDone();
-      return false;
+    int nrRows;
+    if ( isColumnarExecution() ) {
+      ColumnarRowBatch batch = getBatch( ROW_BATCH_SIZE ); // get rows, set busy!
+      // no more input to be expected...
+      if ( batch == null ) {
+        setOutputDone();
+        return false;
+      }
+      putBatch( getInputRowMeta(), batch ); // pass the batch on as is.
+      nrRows = batch.size();
+    } else {
+      Object[][] rows = getRows( ROW_BATCH_SIZE ); // get rows, set busy!
+      // no more input to be expected...
+      if ( rows == null ) {
+        setOutputDone();
+        return false;
+      }
+      putRows( getInputRowMeta(), rows, rows.length ); // copy rows to possible alternate rowset(s).
+      nrRows = rows.length;
     }
 
-    putRow( getInputRowMeta(), r ); // copy row to possible alternate rowset(s).
-
-    if ( checkFeedback( getLinesRead() ) ) {
+    long linesRead = getLinesRead();
+    if ( checkFeedback( linesRead - nrRows, linesRead ) ) {
       if ( log.isBasic() ) {
-        logBasic( BaseMessages.getString( PKG, "DummyTrans.Log.LineNumber" ) + getLinesRead() );
+        logBasic( BaseMessages.getString( PKG, "DummyTrans.Log.LineNumber" ) + linesRead );
       }
     }
 
@@ -115,4 +115,13 @@ public class DummyTransMeta extends BaseStepMeta implements StepMetaInterface {
     return new DummyTransData();
   }
 
+  @Override
+  public boolean supportsColumnarBatches() {
+    return true;
+  }
+
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
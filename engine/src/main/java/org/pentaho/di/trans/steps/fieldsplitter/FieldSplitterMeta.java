@@ -639,4 +639,9 @@ public class FieldSplitterMeta extends BaseStepMeta implements StepMetaInterface
     fieldTrimType = normalizedIntArrays[ 3 ];
 
   }
+
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
@@ -268,6 +268,13 @@ public abstract class BaseFileInputStep<M extends BaseFileInputMeta<?, ?, ?>, D
    * TODO: should we set charset for error files from content meta ? What about case for automatic charset ?
    */
   private void initErrorHandling() {
+    data.dataErrorLineHandler = createErrorLineHandler();
+  }
+
+  /**
+   * Create the handler for the error and line number files configured in the error handling of the step.
+   */
+  protected FileErrorHandler createErrorLineHandler() {
     List<FileErrorHandler> dataErrorLineHandlers = new ArrayList<>( 2 );
     if ( meta.errorHandling.lineNumberFilesDestinationDirectory != null ) {
       dataErrorLineHandlers.add( new FileErrorHandlerContentLineNumber( getTrans().getCurrentDate(),
@@ -279,7 +286,7 @@ public abstract class BaseFileInputStep<M extends BaseFileInputMeta<?, ?, ?>, D
           meta.errorHandling.errorFilesDestinationDirectory ), meta.errorHandling.errorFilesExtension, meta
               .getEncoding(), this ) );
     }
-    data.dataErrorLineHandler = new CompositeFileErrorHandler( dataErrorLineHandlers );
+    return new CompositeFileErrorHandler( dataErrorLineHandlers );
   }
 
   /**
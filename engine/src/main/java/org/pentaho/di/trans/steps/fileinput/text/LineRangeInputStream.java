@@ -0,0 +1,168 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.fileinput.text;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Gives access to the lines of a byte range of a file. A line belongs to the range in which it starts: the partial line
+ * at the start of the range is skipped and the last line is read past the end of the range up to and including its
+ * line feed. This way the ranges of a file can be read independently without losing or duplicating lines, as long as a
+ * line feed byte always ends a line (no line breaks in enclosed fields, no multi-byte line feeds).
+ */
+public class LineRangeInputStream extends FilterInputStream {
+  private static final int LF = '\n';
+
+  private final long start;
+  private final long end;
+
+  /** The position in the file of the next byte to read */
+  private long position;
+
+  /** A line starts at the current position */
+  private boolean atLineStart;
+
+  private boolean positioned;
+  private boolean done;
+
+  /**
+   * @param in    the content of the complete file, positioned at the start of the file
+   * @param start the first byte of the range
+   * @param end   the end of the range (exclusive)
+   */
+  public LineRangeInputStream( InputStream in, long start, long end ) {
+    super( in );
+    this.start = start;
+    this.end = end;
+  }
+
+  @Override
+  public int read() throws IOException {
+    byte[] b = new byte[ 1 ];
+    int n = read( b, 0, 1 );
+    return n < 0 ? -1 : b[ 0 ] & 0xff;
+  }
+
+  @Override
+  public int read( byte[] b, int off, int len ) throws IOException {
+    if ( !positioned ) {
+      skipToFirstLine();
+    }
+    if ( done ) {
+      return -1;
+    }
+    if ( len == 0 ) {
+      return 0;
+    }
+    if ( position < end ) {
+      int n = in.read( b, off, (int) Math.min( len, end - position ) );
+      if ( n < 0 ) {
+        done = true;
+        return -1;
+      }
+      position += n;
+      atLineStart = b[ off + n - 1 ] == LF;
+      return n;
+    }
+    if ( atLineStart ) {
+      // The next line starts in the following range
+      //
+      done = true;
+      return -1;
+    }
+
+    // Finish the last line of the range one byte at a time, so we don't read into the next line
+    //
+    int n = 0;
+    while ( n < len && !atLineStart ) {
+      int c = in.read();
+      if ( c < 0 ) {
+        done = true;
+        break;
+      }
+      b[ off + n++ ] = (byte) c;
+      position++;
+      atLineStart = c == LF;
+    }
+    return n == 0 ? -1 : n;
+  }
+
+  @Override
+  public long skip( long n ) throws IOException {
+    byte[] buffer = new byte[ (int) Math.min( n, 8192 ) ];
+    long skipped = 0;
+    while ( skipped < n ) {
+      int r = read( buffer, 0, (int) Math.min( buffer.length, n - skipped ) );
+      if ( r < 0 ) {
+        break;
+      }
+      skipped += r;
+    }
+    return skipped;
+  }
+
+  @Override
+  public int available() throws IOException {
+    return done || !positioned ? 0 : in.available();
+  }
+
+  @Override
+  public boolean markSupported() {
+    return false;
+  }
+
+  @Override
+  public synchronized void mark( int readlimit ) {
+    // not supported
+  }
+
+  @Override
+  public synchronized void reset() throws IOException {
+    throw new IOException( "mark/reset not supported" );
+  }
+
+  /**
+   * Positions the stream on the first line that starts in the range: the byte before the start of the range is
+   * either a line feed, or the rest of that line is skipped.
+   */
+  private void skipToFirstLine() throws IOException {
+    positioned = true;
+    atLineStart = true;
+    if ( start <= 0 ) {
+      return;
+    }
+    while ( position < start - 1 ) {
+      long skipped = in.skip( start - 1 - position );
+      if ( skipped <= 0 ) {
+        if ( in.read() < 0 ) {
+          done = true;
+          return;
+        }
+        skipped = 1;
+      }
+      position += skipped;
+    }
+    int c;
+    do {
+      c = in.read();
+      if ( c < 0 ) {
+        done = true;
+        return;
+      }
+      position++;
+    } while ( c != LF );
+  }
+}
@@ -0,0 +1,509 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.fileinput.text;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.vfs2.FileObject;
+import org.pentaho.di.core.ResultFile;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.logging.LogChannelInterface;
+import org.pentaho.di.core.playlist.FilePlayListAll;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.util.Utils;
+import org.pentaho.di.core.vfs.KettleVFS;
+import org.pentaho.di.trans.step.BaseStep;
+import org.pentaho.di.trans.steps.file.IBaseFileInputStepControl;
+
+/**
+ * Reads the files of a Text File Input step copy with a pool of worker threads. Every file is read by one worker, a
+ * large uncompressed file can also be split in byte ranges that are read by different workers (see
+ * {@link LineRangeInputStream}). Each worker parses the lines with its own copy of the step data and hands the rows
+ * over to the step thread in chunks. The step thread passes the rows on, either in the order of the files and lines
+ * or in the order in which the chunks become available.
+ *
+ * @since 11.0
+ */
+public class ParallelTextFileReader implements Closeable {
+
+  /** The smallest byte range a file is split into */
+  static final long MIN_SPLIT_SIZE = 16L * 1024 * 1024;
+
+  /** The number of rows a worker hands over to the step thread at once */
+  static final int CHUNK_SIZE = 1000;
+
+  /** The number of chunks a worker can read ahead of the step thread */
+  private static final int CHUNKS_AHEAD = 4;
+
+  private static final long POLL_MILLIS = 100L;
+
+  private final TextFileInput step;
+  private final TextFileInputMeta meta;
+  private final TextFileInputData data;
+  private final LogChannelInterface log;
+  private final int nrReaders;
+  private final boolean preserveOrder;
+
+  /** The index of the row number field that is renumbered in the step thread, -1 if there is none */
+  private final int rowNumberIndex;
+
+  private final List<Part> parts = new ArrayList<>();
+
+  /** The number of parts of each file that are not finished yet, the file is closed when this reaches 0 */
+  private final int[] remainingParts;
+
+  /** The chunks of all the parts when the order doesn't need to be preserved */
+  private final BlockingQueue<Chunk> sharedQueue;
+
+  private ExecutorService executor;
+  private int nextPart;
+  private int finishedParts;
+  private volatile boolean closed;
+
+  public ParallelTextFileReader( TextFileInput step, TextFileInputMeta meta, TextFileInputData data,
+                                 LogChannelInterface log ) {
+    this.step = step;
+    this.meta = meta;
+    this.data = data;
+    this.log = log;
+    this.nrReaders = Math.max( 1, meta.content.parallelReaders );
+    this.preserveOrder = meta.content.parallelPreserveOrder;
+    this.rowNumberIndex = meta.content.includeRowNumber && !meta.content.rowNumberByFile
+      ? data.outputRowMeta.indexOfValue( meta.content.rowNumberField ) : -1;
+    this.remainingParts = new int[ data.files.nrOfFiles() ];
+    this.sharedQueue = preserveOrder ? null : new ArrayBlockingQueue<>( nrReaders * CHUNKS_AHEAD );
+  }
+
+  /**
+   * @return true if the rows that are read by the step can be read in parallel: repeated fields depend on the previous
+   *         row and a row limit needs to stop reading at the exact row.
+   */
+  public static boolean isSupported( TextFileInputMeta meta, TextFileInputData data ) {
+    return data.nr_repeats == 0 && meta.content.rowLimit <= 0;
+  }
+
+  /**
+   * @return true if a file can be split in byte ranges: each line feed byte needs to end a line and each line needs
+   *         to be processed independently of the other lines of the file.
+   */
+  static boolean isSplittable( TextFileInputMeta meta, TextFileInputData data ) {
+    if ( !Utils.isEmpty( meta.content.fileCompression ) && !"None".equalsIgnoreCase( meta.content.fileCompression ) ) {
+      return false;
+    }
+    if ( meta.content.breakInEnclosureAllowed || meta.content.layoutPaged || meta.content.lineWrapped
+      || meta.content.footer || ( meta.content.includeRowNumber && meta.content.rowNumberByFile ) ) {
+      return false;
+    }
+    for ( TextFileFilter filter : meta.getFilter() ) {
+      if ( filter.isFilterLastLine() ) {
+        return false;
+      }
+    }
+    // The error and line number files refer to the line numbers in the file
+    //
+    if ( meta.errorHandling.errorFilesDestinationDirectory != null
+      || meta.errorHandling.lineNumberFilesDestinationDirectory != null
+      || meta.errorHandling.warningFilesDestinationDirectory != null ) {
+      return false;
+    }
+    return data.filePlayList instanceof FilePlayListAll && hasSingleByteLineFeed( meta.getEncoding() );
+  }
+
+  static boolean hasSingleByteLineFeed( String encoding ) {
+    try {
+      Charset charset = Utils.isEmpty( encoding ) ? Charset.defaultCharset() : Charset.forName( encoding );
+      return Arrays.equals( "\n".getBytes( charset ), new byte[] { '\n' } );
+    } catch ( Exception e ) {
+      return false;
+    }
+  }
+
+  /**
+   * Calculates the byte ranges of a file that are read in parallel.
+   *
+   * @param size      the size of the file
+   * @param nrReaders the number of workers
+   * @return the start of each range, the range ends at the start of the next one
+   */
+  static long[] getSplits( long size, int nrReaders ) {
+    int nrSplits = (int) Math.max( 1, Math.min( nrReaders, size / MIN_SPLIT_SIZE ) );
+    long[] starts = new long[ nrSplits ];
+    for ( int i = 0; i < nrSplits; i++ ) {
+      starts[ i ] = size * i / nrSplits;
+    }
+    return starts;
+  }
+
+  /**
+   * Divides the files in parts and starts reading them.
+   */
+  public void start() {
+    boolean splittable = nrReaders > 1 && isSplittable( meta, data );
+    for ( int fileIndex = 0; fileIndex < data.files.nrOfFiles(); fileIndex++ ) {
+      FileObject file = data.files.getFile( fileIndex );
+      long[] starts = splittable ? getSplits( file ) : new long[] { 0L };
+      for ( int i = 0; i < starts.length; i++ ) {
+        long end = i < starts.length - 1 ? starts[ i + 1 ] : Long.MAX_VALUE;
+        parts.add( new Part( fileIndex, file, i, starts[ i ], end ) );
+      }
+      remainingParts[ fileIndex ] = starts.length;
+
+      if ( meta.inputFiles.isaddresult ) {
+        ResultFile resultFile =
+          new ResultFile( ResultFile.FILE_TYPE_GENERAL, file, step.getTransMeta().getName(), step.toString() );
+        resultFile.setComment( "File was read by an Text File input step" );
+        step.addResultFile( resultFile );
+      }
+    }
+
+    if ( parts.isEmpty() ) {
+      return;
+    }
+    AtomicInteger threadNr = new AtomicInteger();
+    String threadName = step.getStepname() + "." + step.getCopy() + " - reader ";
+    executor = Executors.newFixedThreadPool( Math.min( nrReaders, parts.size() ), runnable -> {
+      Thread thread = new Thread( runnable, threadName + threadNr.incrementAndGet() );
+      thread.setDaemon( true );
+      return thread;
+    } );
+    for ( Part part : parts ) {
+      executor.execute( () -> read( part ) );
+    }
+  }
+
+  private long[] getSplits( FileObject file ) {
+    try {
+      long[] starts = getSplits( file.getContent().getSize(), nrReaders );
+      if ( starts.length > 1 && hasByteOrderMark( file ) ) {
+        return new long[] { 0L };
+      }
+      return starts;
+    } catch ( Exception e ) {
+      // The problem is reported when the file is opened
+      //
+      return new long[] { 0L };
+    }
+  }
+
+  private static boolean hasByteOrderMark( FileObject file ) throws Exception {
+    try ( BufferedInputStream in = new BufferedInputStream( KettleVFS.getInputStream( file ) ) ) {
+      return new BOMDetector( in ).bomExist();
+    }
+  }
+
+  /**
+   * Passes the rows of the next chunk on to the next steps.
+   *
+   * @return false if all the files are read or if the step should stop
+   */
+  public boolean putNextRows() throws KettleException {
+    while ( finishedParts < parts.size() ) {
+      Chunk chunk = takeChunk();
+      if ( chunk == null ) {
+        return false;
+      }
+      for ( Object[] row : chunk.rows ) {
+        if ( rowNumberIndex >= 0 ) {
+          row[ rowNumberIndex ] = step.getLinesWritten() + 1;
+        }
+        step.putRow( data.outputRowMeta, row );
+      }
+      if ( chunk.last && !finishPart( chunk.part ) ) {
+        return false;
+      }
+      if ( !chunk.rows.isEmpty() ) {
+        if ( step.checkFeedback( step.getLinesInput() ) && log.isBasic() ) {
+          log.logBasic( "linenr " + step.getLinesInput() );
+        }
+        return true;
+      }
+    }
+    if ( executor != null ) {
+      executor.shutdown();
+    }
+    return false;
+  }
+
+  private Chunk takeChunk() throws KettleException {
+    BlockingQueue<Chunk> queue = preserveOrder ? parts.get( nextPart ).queue : sharedQueue;
+    try {
+      Chunk chunk = null;
+      while ( chunk == null && !step.isStopped() ) {
+        chunk = queue.poll( POLL_MILLIS, TimeUnit.MILLISECONDS );
+      }
+      return chunk;
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new KettleException( e );
+    }
+  }
+
+  /**
+   * Handles the problems of a part that is read completely in the step thread, the way the sequential reader would.
+   *
+   * @return false if the step should stop
+   */
+  private boolean finishPart( Part part ) throws KettleException {
+    finishedParts++;
+    nextPart++;
+
+    for ( String message : part.badFileMessages ) {
+      failAfterBadFile( part, message );
+    }
+    boolean proceed = part.openException == null
+      || step.handleOpenFileException( part.fileIndex, part.file, part.openException );
+
+    if ( --remainingParts[ part.fileIndex ] == 0 ) {
+      try {
+        part.file.close();
+      } catch ( Exception e ) {
+        failAfterBadFile( part, "Error close file" );
+      }
+    }
+    if ( part.error instanceof KettleException ) {
+      throw (KettleException) part.error;
+    } else if ( part.error != null ) {
+      throw new KettleException( part.error );
+    }
+    return proceed;
+  }
+
+  private void failAfterBadFile( Part part, String message ) {
+    data.filename = part.filename;
+    try {
+      step.failAfterBadFile( message );
+    } finally {
+      data.filename = null;
+    }
+  }
+
+  /**
+   * Reads a part in a worker thread.
+   */
+  private void read( Part part ) {
+    PartControl control = new PartControl( part );
+    try {
+      TextFileInputData partData;
+      TextFileInputReader reader;
+      InputStream in = null;
+      try {
+        partData = step.createPartData( part.fileIndex, part.file );
+        in = KettleVFS.getInputStream( part.file );
+        if ( part.start > 0 || part.end < Long.MAX_VALUE ) {
+          in = new LineRangeInputStream( in, part.start, part.end );
+        }
+        reader = new TextFileInputReader( control, getPartMeta( part ), partData, in, log );
+      } catch ( Exception e ) {
+        BaseStep.closeQuietly( in );
+        part.openException = e;
+        return;
+      }
+      try {
+        while ( !isStopped() && reader.readRow() ) {
+          // The rows are handed over by the control
+        }
+      } finally {
+        // The file is closed by the step thread once all of its parts are read
+        //
+        partData.file = null;
+        reader.close();
+      }
+    } catch ( Throwable t ) {
+      part.error = t;
+    } finally {
+      control.finish();
+    }
+  }
+
+  /**
+   * Only the first part of a file can have header lines.
+   */
+  private TextFileInputMeta getPartMeta( Part part ) {
+    if ( part.index == 0 || !meta.content.header ) {
+      return meta;
+    }
+    TextFileInputMeta partMeta = (TextFileInputMeta) meta.clone();
+    partMeta.content = meta.content.clone();
+    partMeta.content.header = false;
+    return partMeta;
+  }
+
+  private boolean isStopped() {
+    return closed || step.isStopped();
+  }
+
+  private void handOver( Chunk chunk ) {
+    BlockingQueue<Chunk> queue = preserveOrder ? chunk.part.queue : sharedQueue;
+    try {
+      while ( !closed && !queue.offer( chunk, POLL_MILLIS, TimeUnit.MILLISECONDS ) ) {
+        // Wait for the step thread to catch up
+      }
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Stops the workers.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    if ( executor != null ) {
+      executor.shutdownNow();
+      try {
+        executor.awaitTermination( POLL_MILLIS * 10, TimeUnit.MILLISECONDS );
+      } catch ( InterruptedException e ) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    for ( Part part : parts ) {
+      if ( remainingParts[ part.fileIndex ] > 0 ) {
+        remainingParts[ part.fileIndex ] = 0;
+        try {
+          part.file.close();
+        } catch ( Exception e ) {
+          log.logError( "Error closing file", e );
+        }
+      }
+    }
+  }
+
+  /**
+   * A file or a byte range of a file.
+   */
+  private final class Part {
+    private final int fileIndex;
+    private final FileObject file;
+    private final String filename;
+    private final int index;
+    private final long start;
+    private final long end;
+    private final BlockingQueue<Chunk> queue;
+
+    // Set by the worker, read by the step thread after the last chunk of the part.
+    //
+    private final List<String> badFileMessages = new ArrayList<>();
+    private Exception openException;
+    private Throwable error;
+
+    private Part( int fileIndex, FileObject file, int index, long start, long end ) {
+      this.fileIndex = fileIndex;
+      this.file = file;
+      this.filename = KettleVFS.getFilename( file );
+      this.index = index;
+      this.start = start;
+      this.end = end;
+      this.queue = preserveOrder ? new ArrayBlockingQueue<>( CHUNKS_AHEAD ) : null;
+    }
+  }
+
+  private static final class Chunk {
+    private final Part part;
+    private final List<Object[]> rows;
+    private final boolean last;
+
+    private Chunk( Part part, List<Object[]> rows, boolean last ) {
+      this.part = part;
+      this.rows = rows;
+      this.last = last;
+    }
+  }
+
+  /**
+   * The step as seen by the reader of a part: rows are collected in chunks for the step thread, progress is reported
+   * by the step thread.
+   */
+  private final class PartControl implements IBaseFileInputStepControl {
+    private final Part part;
+    private List<Object[]> rows = new ArrayList<>( CHUNK_SIZE );
+
+    private PartControl( Part part ) {
+      this.part = part;
+    }
+
+    @Override
+    public long incrementLinesInput() {
+      return step.incrementLinesInput();
+    }
+
+    @Override
+    public long getLinesWritten() {
+      return step.getLinesWritten();
+    }
+
+    @Override
+    public void putRow( RowMetaInterface rowMeta, Object[] row ) {
+      rows.add( row );
+      if ( rows.size() >= CHUNK_SIZE ) {
+        handOver( new Chunk( part, rows, false ) );
+        rows = new ArrayList<>( CHUNK_SIZE );
+      }
+    }
+
+    private void finish() {
+      handOver( new Chunk( part, rows, true ) );
+    }
+
+    @Override
+    public long getLinesInput() {
+      return step.getLinesInput();
+    }
+
+    @Override
+    public boolean checkFeedback( long lines ) {
+      return false;
+    }
+
+    @Override
+    public long incrementLinesUpdated() {
+      // Count the file once, not once per part
+      //
+      return part.index == 0 ? step.incrementLinesUpdated() : step.getLinesUpdated();
+    }
+
+    @Override
+    public boolean failAfterBadFile( String errorMsg ) {
+      part.badFileMessages.add( errorMsg );
+      return !meta.errorHandling.errorIgnored || !meta.errorHandling.skipBadFiles;
+    }
+
+    @Override
+    public void stopAll() {
+      step.stopAll();
+    }
+
+    @Override
+    public long getErrors() {
+      return step.getErrors();
+    }
+
+    @Override
+    public void setErrors( long e ) {
+      step.setErrors( e );
+    }
+  }
+}
@@ -49,6 +49,7 @@ import org.pentaho.di.trans.TransMeta;
 import org.pentaho.di.trans.step.StepDataInterface;
 import org.pentaho.di.trans.step.StepInterface;
 import org.pentaho.di.trans.step.StepMeta;
+import org.pentaho.di.trans.step.StepMetaInterface;
 import org.pentaho.di.trans.steps.common.CsvInputAwareMeta;
 import org.pentaho.di.trans.steps.common.CsvInputAwareStep;
 import org.pentaho.di.trans.steps.file.BaseFileField;
@@ -76,6 +77,96 @@ public class TextFileInput extends BaseFileInputStep<TextFileInputMeta, TextFile
     return new TextFileInputReader( this, meta, data, file, log );
   }
 
+  /**
+   * Reads the files with a number of worker threads if the step is configured to do so, otherwise one after the other.
+   */
+  @Override
+  public boolean processRow( StepMetaInterface smi, StepDataInterface sdi ) throws KettleException {
+    meta = (TextFileInputMeta) smi;
+    data = (TextFileInputData) sdi;
+
+    if ( first && meta.content.parallelReaders > 1 ) {
+      first = false;
+      prepareToRowProcessing();
+
+      if ( ParallelTextFileReader.isSupported( meta, data ) ) {
+        data.parallelReader = new ParallelTextFileReader( this, meta, data, log );
+        data.parallelReader.start();
+      } else if ( log.isDetailed() ) {
+        logDetailed( BaseMessages.getString( PKG, "TextFileInput.Log.ParallelReadNotSupported" ) );
+      }
+    }
+
+    if ( data.parallelReader == null ) {
+      return super.processRow( smi, sdi );
+    }
+    if ( data.parallelReader.putNextRows() ) {
+      return true;
+    }
+    setOutputDone(); // signal end to receiver(s)
+    return false;
+  }
+
+  /**
+   * Creates the data a worker of the parallel reader uses to read (a part of) a file.
+   */
+  TextFileInputData createPartData( int fileIndex, FileObject file ) throws Exception {
+    TextFileInputData partData = new TextFileInputData();
+    partData.files = data.files;
+    partData.currentFileIndex = fileIndex;
+    partData.file = file;
+    partData.filename = KettleVFS.getFilename( file );
+    fillFileAdditionalFields( partData, file );
+    if ( meta.inputFiles.passingThruFields ) {
+      partData.currentPassThruFieldsRow = data.passThruFields.get( fileIndex + "_" + file );
+    }
+    partData.nrPassThruFields = data.nrPassThruFields;
+
+    // The value metadata caches its formatters, these can't be shared between the workers
+    //
+    partData.outputRowMeta = data.outputRowMeta.clone();
+    partData.convertRowMeta = data.convertRowMeta.clone();
+
+    partData.filePlayList = data.filePlayList;
+    partData.filterProcessor = new TextFileFilterProcessor( meta.getFilter(), this );
+    partData.fileFormatType = data.fileFormatType;
+    partData.fileType = data.fileType;
+    partData.separator = data.separator;
+    partData.enclosure = data.enclosure;
+    partData.escapeCharacter = data.escapeCharacter;
+
+    if ( log.isBasic() ) {
+      logBasic( "Opening file: " + file.getName().getFriendlyURI() );
+    }
+    partData.dataErrorLineHandler = createErrorLineHandler();
+    partData.dataErrorLineHandler.handleFile( file );
+    return partData;
+  }
+
+  /**
+   * Handles a file the parallel reader couldn't open, the way it's done when reading the files one after the other.
+   */
+  boolean handleOpenFileException( int fileIndex, FileObject file, Exception e ) {
+    data.currentFileIndex = fileIndex;
+    data.file = file;
+    data.filename = KettleVFS.getFilename( file );
+    try {
+      return handleOpenFileException( e );
+    } finally {
+      data.file = null;
+      data.filename = null;
+    }
+  }
+
+  @Override
+  public void dispose( StepMetaInterface smi, StepDataInterface sdi ) {
+    if ( data != null && data.parallelReader != null ) {
+      data.parallelReader.close();
+      data.parallelReader = null;
+    }
+    super.dispose( smi, sdi );
+  }
+
   @Override
   public boolean init() {
     Date replayDate = getTrans().getReplayDate();
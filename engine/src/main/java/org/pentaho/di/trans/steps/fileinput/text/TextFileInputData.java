@@ -62,6 +62,9 @@ public class TextFileInputData extends BaseFileInputStepData {
 
   public EncodingType encodingType;
 
+  /** Reads the files with a number of worker threads, null if the files are read one after the other */
+  public ParallelTextFileReader parallelReader;
+
   public TextFileInputData() {
     // linked list is better, as usually .remove(0) is applied to this list
     lineBuffer = new LinkedList<TextFileLine>();
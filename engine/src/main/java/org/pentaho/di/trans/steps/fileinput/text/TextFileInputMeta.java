@@ -198,6 +198,23 @@ public class TextFileInputMeta extends BaseFileInputMeta<BaseFileInputAdditional
     @Injection( name = "LENGTH" )
     public String length;
 
+    /** The number of threads that read the files of a step copy, 1 or less reads the files one after the other */
+    @Injection( name = "PARALLEL_READERS" )
+    public int parallelReaders = 1;
+
+    /** Flag indicating that rows read in parallel are passed on in the order of the files and lines */
+    @Injection( name = "PARALLEL_PRESERVE_ORDER" )
+    public boolean parallelPreserveOrder = true;
+
+    @Override
+    public Content clone() {
+      try {
+        return (Content) super.clone();
+      } catch ( CloneNotSupportedException ex ) {
+        throw new IllegalArgumentException( "Clone not supported for " + this.getClass().getName() );
+      }
+    }
+
   }
 
   /** The filters to use... */
@@ -384,6 +401,9 @@ public class TextFileInputMeta extends BaseFileInputMeta<BaseFileInputAdditional
 
       // Is there a limit on the number of rows we process?
       content.rowLimit = Const.toLong( XMLHandler.getTagValue( stepnode, "limit" ), 0L );
+      content.parallelReaders = Const.toInt( XMLHandler.getTagValue( stepnode, "parallel_readers" ), 1 );
+      content.parallelPreserveOrder =
+          !NO.equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "parallel_preserve_order" ) );
 
       errorHandling.errorIgnored = YES.equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "error_ignored" ) );
       errorHandling.skipBadFiles = YES.equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "skip_bad_files" ) );
@@ -524,6 +544,8 @@ public class TextFileInputMeta extends BaseFileInputMeta<BaseFileInputAdditional
     content.dateFormatLocale = Locale.getDefault();
 
     content.rowLimit = 0L;
+    content.parallelReaders = 1;
+    content.parallelPreserveOrder = true;
   }
 
   /**
@@ -778,6 +800,9 @@ public class TextFileInputMeta extends BaseFileInputMeta<BaseFileInputAdditional
     }
     retval.append( "    </fields>" ).append( Const.CR );
     retval.append( "    " ).append( XMLHandler.addTagValue( "limit", content.rowLimit ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( "parallel_readers", content.parallelReaders ) );
+    retval.append( "    " ).append(
+        XMLHandler.addTagValue( "parallel_preserve_order", content.parallelPreserveOrder ) );
 
     // ERROR HANDLING
     retval.append( "    " ).append( XMLHandler.addTagValue( "error_ignored", errorHandling.errorIgnored ) );
@@ -888,6 +913,8 @@ public class TextFileInputMeta extends BaseFileInputMeta<BaseFileInputAdditional
       }
 
       content.rowLimit = rep.getStepAttributeInteger( id_step, "limit" );
+      content.parallelReaders = (int) rep.getStepAttributeInteger( id_step, "parallel_readers" );
+      content.parallelPreserveOrder = rep.getStepAttributeBoolean( id_step, 0, "parallel_preserve_order", true );
 
       int nrfiles = rep.countNrStepAttributes( id_step, "file_name" );
       int nrfields = rep.countNrStepAttributes( id_step, "field_name" );
@@ -1023,6 +1050,8 @@ public class TextFileInputMeta extends BaseFileInputMeta<BaseFileInputAdditional
       rep.saveStepAttribute( id_transformation, id_step, "add_to_result_filenames", inputFiles.isaddresult );
 
       rep.saveStepAttribute( id_transformation, id_step, "limit", content.rowLimit );
+      rep.saveStepAttribute( id_transformation, id_step, "parallel_readers", content.parallelReaders );
+      rep.saveStepAttribute( id_transformation, id_step, "parallel_preserve_order", content.parallelPreserveOrder );
 
       //we need the equals by size arrays for inputFiles.fileName[i], inputFiles.fileMask[i], inputFiles.fileRequired[i], inputFiles.includeSubFolders[i]
       //to prevent the ArrayIndexOutOfBoundsException
@@ -14,6 +14,7 @@
 package org.pentaho.di.trans.steps.fileinput.text;
 
 import java.io.BufferedInputStream;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 
 import org.apache.commons.vfs2.FileObject;
@@ -56,6 +57,15 @@ public class TextFileInputReader implements IBaseFileInputReader {
 
   public TextFileInputReader( IBaseFileInputStepControl step, TextFileInputMeta meta, TextFileInputData data,
       FileObject file, LogChannelInterface log ) throws Exception {
+    this( step, meta, data, KettleVFS.getInputStream( file ), log );
+  }
+
+  /**
+   * Create a reader for the content of a file that is already opened, like a byte range of a file that is read in
+   * parallel.
+   */
+  public TextFileInputReader( IBaseFileInputStepControl step, TextFileInputMeta meta, TextFileInputData data,
+      InputStream inputStream, LogChannelInterface log ) throws Exception {
     this.step = step;
     this.meta = meta;
     this.data = data;
@@ -69,7 +79,7 @@ public class TextFileInputReader implements IBaseFileInputReader {
       log.logDetailed( "This is a compressed file being handled by the " + provider.getName() + " provider" );
     }
 
-    in = provider.createInputStream( KettleVFS.getInputStream( file ) );
+    in = provider.createInputStream( inputStream );
 
     in.nextEntry();
 
@@ -19,6 +19,8 @@ import org.pentaho.di.core.Const;
 import org.pentaho.di.core.util.Utils;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.columnar.ColumnarConditionEvaluator;
+import org.pentaho.di.core.row.columnar.ColumnarRowBatch;
 import org.pentaho.di.i18n.BaseMessages;
 import org.pentaho.di.trans.Trans;
 import org.pentaho.di.trans.TransMeta;
@@ -63,10 +65,15 @@ public class FilterRows extends BaseStep implements StepInterface {
     meta = (FilterRowsMeta) smi;
     data = (FilterRowsData) sdi;
 
-    boolean keep;
-
-    Object[] r = getRow(); // Get next usable row from input rowset(s)!
-    if ( r == null ) { // no more input to be expected...
+    // Get next usable rows from input rowset(s)!
+    ColumnarRowBatch batch = null;
+    Object[][] rows = null;
+    if ( isColumnarExecution() ) {
+      batch = getBatch( ROW_BATCH_SIZE );
+    } else {
+      rows = getRows( ROW_BATCH_SIZE );
+    }
+    if ( batch == null && rows == null ) { // no more input to be expected...
 
       setOutputDone();
       return false;
@@ -108,38 +115,117 @@ public class FilterRows extends BaseStep implements StepInterface {
       }
     }
 
-    keep = keepRow( getInputRowMeta(), r ); // Keep this row?
-    if ( !data.chosesTargetSteps ) {
-      if ( keep ) {
-        putRow( data.outputRowMeta, r ); // copy row to output rowset(s);
+    if ( batch != null ) {
+      if ( !log.isRowLevel() ) {
+        filterBatch( batch );
+        long linesRead = getLinesRead();
+        if ( checkFeedback( linesRead - batch.size(), linesRead ) ) {
+          if ( log.isBasic() ) {
+            logBasic( BaseMessages.getString( PKG, "FilterRows.Log.LineNumber" ) + linesRead );
+          }
+        }
+        return true;
       }
-    } else {
-      if ( keep ) {
-        if ( data.trueRowSet != null ) {
-          if ( log.isRowLevel() ) {
+      rows = batch.toRows();
+    }
+
+    if ( data.trueRows == null || data.trueRows.length < rows.length ) {
+      data.trueRows = new Object[ rows.length ][];
+      data.falseRows = new Object[ rows.length ][];
+    }
+    int nrTrue = 0;
+    int nrFalse = 0;
+
+    for ( Object[] r : rows ) {
+      if ( keepRow( getInputRowMeta(), r ) ) { // Keep this row?
+        if ( !data.chosesTargetSteps || data.trueRowSet != null ) {
+          if ( data.chosesTargetSteps && log.isRowLevel() ) {
             logRowlevel( "Sending row to true  :" + data.trueStepname + " : " + getInputRowMeta().getString( r ) );
           }
-          putRowTo( data.outputRowMeta, r, data.trueRowSet );
+          data.trueRows[ nrTrue++ ] = r;
         }
       } else {
-        if ( data.falseRowSet != null ) {
+        if ( data.chosesTargetSteps && data.falseRowSet != null ) {
           if ( log.isRowLevel() ) {
             logRowlevel( "Sending row to false :" + data.falseStepname + " : " + getInputRowMeta().getString( r ) );
           }
-          putRowTo( data.outputRowMeta, r, data.falseRowSet );
+          data.falseRows[ nrFalse++ ] = r;
         }
       }
     }
 
-    if ( checkFeedback( getLinesRead() ) ) {
+    if ( !data.chosesTargetSteps ) {
+      putRows( data.outputRowMeta, data.trueRows, nrTrue ); // copy rows to output rowset(s);
+    } else {
+      putRowsTo( data.outputRowMeta, data.trueRows, nrTrue, data.trueRowSet );
+      putRowsTo( data.outputRowMeta, data.falseRows, nrFalse, data.falseRowSet );
+    }
+    clearBatch( data.trueRows, nrTrue );
+    clearBatch( data.falseRows, nrFalse );
+
+    long linesRead = getLinesRead();
+    if ( checkFeedback( linesRead - rows.length, linesRead ) ) {
       if ( log.isBasic() ) {
-        logBasic( BaseMessages.getString( PKG, "FilterRows.Log.LineNumber" ) + getLinesRead() );
+        logBasic( BaseMessages.getString( PKG, "FilterRows.Log.LineNumber" ) + linesRead );
       }
     }
 
     return true;
   }
 
+  /**
+   * Evaluates the condition on a complete batch and sends the selected rows on their way as batches.
+   */
+  private void filterBatch( ColumnarRowBatch batch ) throws KettleException {
+    if ( data.conditionEvaluator == null ) {
+      data.conditionEvaluator = new ColumnarConditionEvaluator( meta.getCondition(), getInputRowMeta() );
+    }
+
+    boolean[] keep;
+    try {
+      keep = data.conditionEvaluator.evaluate( batch );
+    } catch ( Exception e ) {
+      String message =
+        BaseMessages.getString( PKG, "FilterRows.Exception.UnexpectedErrorFoundInEvaluationFuction" );
+      logError( message );
+      logError( Const.getStackTracker( e ) );
+      throw new KettleException( message, e );
+    }
+
+    int n = batch.size();
+    int[] trueSelection = new int[ n ];
+    int[] falseSelection = new int[ n ];
+    int nrTrue = 0;
+    int nrFalse = 0;
+    for ( int i = 0; i < n; i++ ) {
+      if ( keep[ i ] ) {
+        trueSelection[ nrTrue++ ] = i;
+      } else {
+        falseSelection[ nrFalse++ ] = i;
+      }
+    }
+
+    if ( !data.chosesTargetSteps ) {
+      putBatch( data.outputRowMeta, batch.select( trueSelection, nrTrue ) );
+    } else {
+      if ( data.trueRowSet != null ) {
+        putBatchTo( data.outputRowMeta, batch.select( trueSelection, nrTrue ), data.trueRowSet );
+      }
+      if ( data.falseRowSet != null ) {
+        putBatchTo( data.outputRowMeta, batch.select( falseSelection, nrFalse ), data.falseRowSet );
+      }
+    }
+  }
+
+  /**
+   * Don't hold on to rows that were already sent to the next steps.
+   */
+  private static void clearBatch( Object[][] batch, int n ) {
+    for ( int i = 0; i < n; i++ ) {
+      batch[ i ] = null;
+    }
+  }
+
   /**
    * @see StepInterface#init(org.pentaho.di.trans.step.StepMetaInterface , org.pentaho.di.trans.step.StepDataInterface)
    */
@@ -15,6 +15,7 @@ package org.pentaho.di.trans.steps.filterrows;
 
 import org.pentaho.di.core.RowSet;
 import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.columnar.ColumnarConditionEvaluator;
 import org.pentaho.di.trans.step.BaseStepData;
 import org.pentaho.di.trans.step.StepDataInterface;
 
@@ -32,6 +33,13 @@ public class FilterRowsData extends BaseStepData implements StepDataInterface {
   public String trueStepname;
   public String falseStepname;
 
+  /** Re-used buffers to send the rows of a batch on their way */
+  public Object[][] trueRows;
+  public Object[][] falseRows;
+
+  /** Evaluates the condition on columnar batches, created on the first batch */
+  public ColumnarConditionEvaluator conditionEvaluator;
+
   public FilterRowsData() {
     super();
   }
@@ -457,4 +457,14 @@ public class FilterRowsMeta extends BaseStepMeta implements StepMetaInterface {
       log.logError( e.getMessage() );
     }
   }
+
+  @Override
+  public boolean supportsColumnarBatches() {
+    return true;
+  }
+
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
@@ -780,4 +780,9 @@ public class GroupByMeta extends BaseStepMeta implements StepMetaInterface {
   public TransMeta.TransformationType[] getSupportedTransformationTypes() {
     return new TransMeta.TransformationType[] { TransMeta.TransformationType.Normal };
   }
+
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
@@ -0,0 +1,601 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.hashjoin;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystemException;
+import org.pentaho.di.core.Const;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.exception.KettleFileException;
+import org.pentaho.di.core.exception.KettleStepException;
+import org.pentaho.di.core.exception.KettleValueException;
+import org.pentaho.di.core.row.RowDataUtil;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.vfs.KettleVFS;
+import org.pentaho.di.i18n.BaseMessages;
+import org.pentaho.di.trans.Trans;
+import org.pentaho.di.trans.TransMeta;
+import org.pentaho.di.trans.step.BaseStep;
+import org.pentaho.di.trans.step.StepDataInterface;
+import org.pentaho.di.trans.step.StepInterface;
+import org.pentaho.di.trans.step.StepMeta;
+import org.pentaho.di.trans.step.StepMetaInterface;
+import org.pentaho.di.trans.step.errorhandling.StreamInterface;
+import org.pentaho.di.trans.steps.sort.SortSpillCompression;
+import org.pentaho.di.trans.steps.sort.SortSpillReader;
+import org.pentaho.di.trans.steps.sort.SortSpillWriter;
+
+/**
+ * Joins two streams on equal keys without sorting them. All rows of the build stream are read into a hash table
+ * first, then the rows of the probe stream are looked up one by one. Like with Stream lookup, the build stream has to
+ * be read completely before the first probe row, so it shouldn't be fed by the same step as the probe stream.
+ * <p>
+ * When the build stream has more rows than the cache size, both streams are spilled to disk in partitions by the hash
+ * of their keys (a grace hash join). Each partition is then joined in memory, after splitting it again on the next bits
+ * of the hash if it still has more build rows than the cache size. A bloom filter of the build keys allows probe rows
+ * that can't have a match to be handled right away instead of being spilled.
+ *
+ * @since 11.0
+ */
+public class HashJoin extends BaseStep implements StepInterface {
+  private static Class<?> PKG = HashJoinMeta.class; // for i18n purposes, needed by Translator2!!
+
+  /** The number of partitions to spill to, a power of 2 */
+  static final int NR_PARTITIONS = 32;
+  private static final int PARTITION_BITS = Integer.numberOfTrailingZeros( NR_PARTITIONS );
+  private static final int PARTITION_SHIFT = 32 - PARTITION_BITS;
+  /** Each level of partitions uses the next bits of the hash */
+  private static final int MAX_PARTITION_LEVEL = 32 / PARTITION_BITS - 1;
+
+  /** The bloom filter is sized for this many times the cache size */
+  private static final int BLOOM_FILTER_CACHE_FACTOR = 8;
+
+  private HashJoinMeta meta;
+  private HashJoinData data;
+
+  public HashJoin( StepMeta stepMeta, StepDataInterface stepDataInterface, int copyNr, TransMeta transMeta,
+    Trans trans ) {
+    super( stepMeta, stepDataInterface, copyNr, transMeta, trans );
+  }
+
+  public boolean processRow( StepMetaInterface smi, StepDataInterface sdi ) throws KettleException {
+    meta = (HashJoinMeta) smi;
+    data = (HashJoinData) sdi;
+
+    Object[] probeRow;
+    if ( first ) {
+      first = false;
+
+      List<StreamInterface> infoStreams = meta.getStepIOMeta().getInfoStreams();
+      String buildStepname = infoStreams.get( meta.isBuildFirst() ? 0 : 1 ).getStepname();
+      String probeStepname = infoStreams.get( meta.isBuildFirst() ? 1 : 0 ).getStepname();
+
+      data.buildRowSet = findInputRowSet( buildStepname );
+      if ( data.buildRowSet == null ) {
+        throw new KettleException( BaseMessages.getString(
+          PKG, "HashJoin.Exception.UnableToFindSpecifiedStep", buildStepname ) );
+      }
+      data.probeRowSet = findInputRowSet( probeStepname );
+      if ( data.probeRowSet == null ) {
+        throw new KettleException( BaseMessages.getString(
+          PKG, "HashJoin.Exception.UnableToFindSpecifiedStep", probeStepname ) );
+      }
+
+      readBuildStream( buildStepname );
+
+      probeRow = getRowFrom( data.probeRowSet );
+      if ( probeRow != null ) {
+        data.probeMeta = data.probeRowSet.getRowMeta();
+      } else {
+        data.probeMeta = getTransMeta().getStepFields( probeStepname );
+      }
+      initProbeKeys();
+
+      data.oneMeta = meta.isBuildFirst() ? data.buildMeta : data.probeMeta;
+      data.twoMeta = meta.isBuildFirst() ? data.probeMeta : data.buildMeta;
+      data.outputRowMeta = new RowMeta();
+      data.outputRowMeta.mergeRowMeta( data.oneMeta.clone() );
+      if ( !data.semiJoin && !data.antiJoin ) {
+        data.outputRowMeta.mergeRowMeta( data.twoMeta.clone() );
+      }
+
+      if ( data.spilling ) {
+        closeWriters( data.buildWriters, data.buildFileRows );
+        data.probeWriters = new SortSpillWriter[ NR_PARTITIONS ];
+        data.probeFileRows = new long[ NR_PARTITIONS ];
+        data.probeFiles = new FileObject[ NR_PARTITIONS ];
+        for ( int p = 0; p < NR_PARTITIONS; p++ ) {
+          data.probeFiles[ p ] = createTempFile();
+          data.probeWriters[ p ] = openWriter( data.probeMeta, data.probeFiles[ p ] );
+        }
+      }
+    } else {
+      probeRow = getRowFrom( data.probeRowSet );
+    }
+
+    if ( probeRow == null ) {
+      if ( data.spilling ) {
+        joinPartitions();
+      } else {
+        passBuildRows();
+      }
+      data.table.clear();
+
+      setOutputDone();
+      return false;
+    }
+
+    HashJoinKey key = createKey( probeRow, data.probeKeyNrs, data.probeKeyMetas, data.convertProbeKeys );
+    if ( !data.spilling ) {
+      joinProbeRow( key, probeRow );
+    } else if ( data.bloomFilter != null && !data.bloomFilter.mightContain( key.hashCode() ) ) {
+      passUnmatchedProbeRow( probeRow );
+    } else {
+      data.probeWriters[ getPartition( key.hashCode(), 0 ) ].writeRow( probeRow );
+    }
+
+    if ( checkFeedback( getLinesRead() ) && log.isBasic() ) {
+      logBasic( BaseMessages.getString( PKG, "HashJoin.LineNumber" ) + getLinesRead() );
+    }
+    return true;
+  }
+
+  /**
+   * Reads all the rows of the build stream into the hash table, or into the partitions once the table is full.
+   */
+  private void readBuildStream( String buildStepname ) throws KettleException {
+    Object[] row = getRowFrom( data.buildRowSet );
+    if ( row != null ) {
+      data.buildMeta = data.buildRowSet.getRowMeta();
+    } else {
+      data.buildMeta = getTransMeta().getStepFields( buildStepname );
+    }
+
+    String[] keyFields = meta.isBuildFirst() ? meta.getKeyFields1() : meta.getKeyFields2();
+    data.buildKeyNrs = getKeyNrs( data.buildMeta, keyFields );
+    data.keyMetas = new ValueMetaInterface[ keyFields.length ];
+    data.convertBuildKeys = new boolean[ keyFields.length ];
+    for ( int i = 0; i < keyFields.length; i++ ) {
+      ValueMetaInterface valueMeta = data.buildMeta.getValueMeta( data.buildKeyNrs[ i ] );
+      ValueMetaInterface keyMeta = valueMeta.clone();
+      keyMeta.setStorageType( ValueMetaInterface.STORAGE_TYPE_NORMAL );
+      keyMeta.setStorageMetadata( null );
+      keyMeta.setCollatorDisabled( true ); // keep the comparison in line with the hash code
+      data.keyMetas[ i ] = keyMeta;
+      data.convertBuildKeys[ i ] = !valueMeta.isStorageNormal();
+    }
+    ValueMetaInterface[] buildKeyMetas = getKeyMetas( data.buildMeta, data.buildKeyNrs );
+
+    while ( row != null && !isStopped() ) {
+      HashJoinKey key = createKey( row, data.buildKeyNrs, buildKeyMetas, data.convertBuildKeys );
+      if ( data.spilling ) {
+        spillBuildRow( key, row );
+      } else {
+        data.table.add( key, row );
+        if ( data.cacheSize > 0 && data.table.getNrRows() > data.cacheSize ) {
+          startSpilling();
+        }
+      }
+      row = getRowFrom( data.buildRowSet );
+    }
+
+    if ( log.isDetailed() ) {
+      logDetailed( BaseMessages.getString( PKG, "HashJoin.Log.ReadBuildStream", getLinesRead() ) );
+    }
+  }
+
+  private void initProbeKeys() throws KettleStepException {
+    String[] keyFields = meta.isBuildFirst() ? meta.getKeyFields2() : meta.getKeyFields1();
+    data.probeKeyNrs = getKeyNrs( data.probeMeta, keyFields );
+    data.probeKeyMetas = getKeyMetas( data.probeMeta, data.probeKeyNrs );
+    data.convertProbeKeys = new boolean[ keyFields.length ];
+    for ( int i = 0; i < keyFields.length; i++ ) {
+      ValueMetaInterface valueMeta = data.probeKeyMetas[ i ];
+      data.convertProbeKeys[ i ] = valueMeta.getType() != data.keyMetas[ i ].getType() || !valueMeta.isStorageNormal();
+    }
+  }
+
+  private int[] getKeyNrs( RowMetaInterface rowMeta, String[] keyFields ) throws KettleStepException {
+    int[] keyNrs = new int[ keyFields.length ];
+    for ( int i = 0; i < keyFields.length; i++ ) {
+      keyNrs[ i ] = rowMeta.indexOfValue( keyFields[ i ] );
+      if ( keyNrs[ i ] < 0 ) {
+        String message =
+          BaseMessages.getString( PKG, "HashJoin.Exception.UnableToFindFieldInReferenceStream", keyFields[ i ] );
+        logError( message );
+        throw new KettleStepException( message );
+      }
+    }
+    return keyNrs;
+  }
+
+  private ValueMetaInterface[] getKeyMetas( RowMetaInterface rowMeta, int[] keyNrs ) {
+    ValueMetaInterface[] keyMetas = new ValueMetaInterface[ keyNrs.length ];
+    for ( int i = 0; i < keyNrs.length; i++ ) {
+      keyMetas[ i ] = rowMeta.getValueMeta( keyNrs[ i ] );
+    }
+    return keyMetas;
+  }
+
+  /**
+   * Creates the key of a row of either stream, converted to the key types of the build stream where needed.
+   */
+  private HashJoinKey createKey( Object[] row, int[] keyNrs, ValueMetaInterface[] valueMetas, boolean[] convert )
+    throws KettleValueException {
+    Object[] values = new Object[ keyNrs.length ];
+    for ( int i = 0; i < keyNrs.length; i++ ) {
+      Object value = row[ keyNrs[ i ] ];
+      values[ i ] = convert[ i ] ? data.keyMetas[ i ].convertData( valueMetas[ i ], value ) : value;
+    }
+    return new HashJoinKey( data.keyMetas, values );
+  }
+
+  private static int getPartition( int hash, int level ) {
+    // Use the high bits of a multiplicative hash, the next ones at each level. The hash table of a partition uses the
+    // low ones.
+    //
+    return ( ( hash * 0x9E3779B9 ) << ( level * PARTITION_BITS ) ) >>> PARTITION_SHIFT;
+  }
+
+  /**
+   * Moves the rows of the hash table to the build partitions. From now on all build rows are spilled.
+   */
+  private void startSpilling() throws KettleException {
+    data.spilling = true;
+    if ( log.isBasic() ) {
+      logBasic( BaseMessages.getString( PKG, "HashJoin.Log.StartSpilling", data.cacheSize, NR_PARTITIONS ) );
+    }
+
+    data.buildWriters = new SortSpillWriter[ NR_PARTITIONS ];
+    data.buildFileRows = new long[ NR_PARTITIONS ];
+    data.buildFiles = new FileObject[ NR_PARTITIONS ];
+    for ( int p = 0; p < NR_PARTITIONS; p++ ) {
+      data.buildFiles[ p ] = createTempFile();
+      data.buildWriters[ p ] = openWriter( data.buildMeta, data.buildFiles[ p ] );
+    }
+    if ( meta.isBloomFilter() ) {
+      data.bloomFilter = new HashJoinBloomFilter( (long) data.cacheSize * BLOOM_FILTER_CACHE_FACTOR );
+    }
+
+    for ( Map.Entry<HashJoinKey, HashJoinTable.Bucket> entry : data.table.getBuckets().entrySet() ) {
+      for ( Object[] row : entry.getValue().getRows() ) {
+        spillBuildRow( entry.getKey(), row );
+      }
+    }
+    data.table.clear();
+  }
+
+  private void spillBuildRow( HashJoinKey key, Object[] row ) throws KettleException {
+    data.buildWriters[ getPartition( key.hashCode(), 0 ) ].writeRow( row );
+    if ( data.bloomFilter != null ) {
+      data.bloomFilter.add( key.hashCode() );
+    }
+  }
+
+  private void joinPartitions() throws KettleException {
+    closeWriters( data.probeWriters, data.probeFileRows );
+    joinPartitions( data.buildFiles, data.buildFileRows, data.probeFiles, data.probeFileRows, 0 );
+  }
+
+  /**
+   * Joins the partitions one at a time: the build rows of a partition are read into the hash table and the probe rows
+   * of the same partition are looked up. A partition with more build rows than the cache size is split first.
+   */
+  private void joinPartitions( FileObject[] buildFiles, long[] buildFileRows, FileObject[] probeFiles,
+    long[] probeFileRows, int level ) throws KettleException {
+    for ( int p = 0; p < NR_PARTITIONS && !isStopped(); p++ ) {
+      if ( data.cacheSize > 0 && buildFileRows[ p ] > data.cacheSize ) {
+        splitPartition( buildFiles[ p ], buildFileRows[ p ], probeFiles[ p ], probeFileRows[ p ], p, level );
+      } else {
+        joinPartition( buildFiles[ p ], buildFileRows[ p ], probeFiles[ p ], probeFileRows[ p ], p );
+      }
+
+      deleteFile( buildFiles[ p ] );
+      deleteFile( probeFiles[ p ] );
+      buildFiles[ p ] = null;
+      probeFiles[ p ] = null;
+    }
+  }
+
+  private void joinPartition( FileObject buildFile, long buildFileRows, FileObject probeFile, long probeFileRows,
+    int p ) throws KettleException {
+    ValueMetaInterface[] buildKeyMetas = getKeyMetas( data.buildMeta, data.buildKeyNrs );
+    boolean unmatchedProbeRowsPassed = data.outerProbe || ( data.antiJoin && !meta.isBuildFirst() );
+
+    data.table.clear();
+    try ( SortSpillReader reader = openReader( data.buildMeta, buildFile, buildFileRows ) ) {
+      for ( Object[] row = reader.readRow(); row != null; row = reader.readRow() ) {
+        data.table.add( createKey( row, data.buildKeyNrs, buildKeyMetas, data.convertBuildKeys ), row );
+      }
+    } catch ( IOException e ) {
+      throw new KettleFileException( e );
+    }
+    if ( log.isDetailed() ) {
+      logDetailed( BaseMessages.getString( PKG, "HashJoin.Log.JoiningPartition", p, data.table.getNrRows(),
+        probeFileRows ) );
+    }
+
+    if ( data.table.getNrRows() > 0 || unmatchedProbeRowsPassed ) {
+      try ( SortSpillReader reader = openReader( data.probeMeta, probeFile, probeFileRows ) ) {
+        for ( Object[] row = reader.readRow(); row != null && !isStopped(); row = reader.readRow() ) {
+          joinProbeRow( createKey( row, data.probeKeyNrs, data.probeKeyMetas, data.convertProbeKeys ), row );
+        }
+      } catch ( IOException e ) {
+        throw new KettleFileException( e );
+      }
+    }
+    passBuildRows();
+    data.table.clear();
+  }
+
+  /**
+   * Splits a partition with too many build rows on the bits of the hash of the next level and joins the new
+   * partitions. The rows of a partition in which all keys have the same hash can't be split.
+   */
+  private void splitPartition( FileObject buildFile, long buildFileRows, FileObject probeFile, long probeFileRows,
+    int p, int level ) throws KettleException {
+    if ( log.isDetailed() ) {
+      logDetailed( BaseMessages.getString( PKG, "HashJoin.Log.SplittingPartition", p, buildFileRows, NR_PARTITIONS ) );
+    }
+
+    FileObject[] buildFiles = new FileObject[ NR_PARTITIONS ];
+    long[] buildRows = new long[ NR_PARTITIONS ];
+    FileObject[] probeFiles = new FileObject[ NR_PARTITIONS ];
+    long[] probeRows = new long[ NR_PARTITIONS ];
+    try {
+      boolean split = level < MAX_PARTITION_LEVEL
+        && splitFile( data.buildMeta, buildFile, buildFileRows, data.buildKeyNrs,
+          getKeyMetas( data.buildMeta, data.buildKeyNrs ), data.convertBuildKeys, level + 1, buildFiles, buildRows );
+      if ( !split ) {
+        throw new KettleStepException(
+          BaseMessages.getString( PKG, "HashJoin.Exception.UnableToSplitPartition", buildFileRows, data.cacheSize ) );
+      }
+      splitFile( data.probeMeta, probeFile, probeFileRows, data.probeKeyNrs, data.probeKeyMetas,
+        data.convertProbeKeys, level + 1, probeFiles, probeRows );
+      deleteFile( buildFile );
+      deleteFile( probeFile );
+
+      joinPartitions( buildFiles, buildRows, probeFiles, probeRows, level + 1 );
+    } finally {
+      for ( int q = 0; q < NR_PARTITIONS; q++ ) {
+        deleteFile( buildFiles[ q ] );
+        deleteFile( probeFiles[ q ] );
+      }
+    }
+  }
+
+  /**
+   * Writes the rows of a file to a new file per partition of the given level.
+   *
+   * @return false if all rows have the same key hash and so end up in the same partition at every level
+   */
+  private boolean splitFile( RowMetaInterface rowMeta, FileObject fileObject, long nrRows, int[] keyNrs,
+    ValueMetaInterface[] valueMetas, boolean[] convert, int level, FileObject[] files, long[] fileRows )
+    throws KettleException {
+    SortSpillWriter[] writers = new SortSpillWriter[ NR_PARTITIONS ];
+    boolean differentHashes = false;
+    try ( SortSpillReader reader = openReader( rowMeta, fileObject, nrRows ) ) {
+      for ( int q = 0; q < NR_PARTITIONS; q++ ) {
+        files[ q ] = createTempFile();
+        writers[ q ] = openWriter( rowMeta, files[ q ] );
+      }
+      Object[] row = reader.readRow();
+      int firstHash = row != null ? createKey( row, keyNrs, valueMetas, convert ).hashCode() : 0;
+      for ( ; row != null && !isStopped(); row = reader.readRow() ) {
+        int hash = createKey( row, keyNrs, valueMetas, convert ).hashCode();
+        differentHashes |= hash != firstHash;
+        writers[ getPartition( hash, level ) ].writeRow( row );
+      }
+      closeWriters( writers, fileRows );
+    } catch ( IOException e ) {
+      throw new KettleFileException( e );
+    } finally {
+      // The writers that are still open after a failure
+      //
+      for ( SortSpillWriter writer : writers ) {
+        BaseStep.closeQuietly( writer );
+      }
+    }
+    return differentHashes;
+  }
+
+  private void joinProbeRow( HashJoinKey key, Object[] probeRow ) throws KettleStepException {
+    HashJoinTable.Bucket bucket = data.table.get( key );
+    if ( bucket == null ) {
+      passUnmatchedProbeRow( probeRow );
+      return;
+    }
+    bucket.setMatched( true );
+
+    if ( data.semiJoin || data.antiJoin ) {
+      // Only the rows of the first stream are passed on. If the first stream is the build stream, they are passed
+      // once all probe rows are read.
+      //
+      if ( data.semiJoin && !meta.isBuildFirst() ) {
+        putRow( data.outputRowMeta, probeRow );
+      }
+      return;
+    }
+    for ( Object[] buildRow : bucket.getRows() ) {
+      putRow( data.outputRowMeta, joinRows( probeRow, buildRow ) );
+    }
+  }
+
+  private void passUnmatchedProbeRow( Object[] probeRow ) throws KettleStepException {
+    if ( data.antiJoin && !meta.isBuildFirst() ) {
+      putRow( data.outputRowMeta, probeRow );
+    } else if ( data.outerProbe ) {
+      putRow( data.outputRowMeta, joinRows( probeRow, null ) );
+    }
+  }
+
+  /**
+   * Passes on the build rows of the hash table that are part of the result once all probe rows are looked up: the
+   * unmatched rows of an outer join, or the first stream rows of a semi or anti join.
+   */
+  private void passBuildRows() throws KettleStepException {
+    boolean semiJoin = data.semiJoin && meta.isBuildFirst();
+    boolean antiJoin = data.antiJoin && meta.isBuildFirst();
+    if ( !data.outerBuild && !semiJoin && !antiJoin ) {
+      return;
+    }
+
+    for ( HashJoinTable.Bucket bucket : data.table.getBuckets().values() ) {
+      if ( isStopped() ) {
+        return;
+      }
+      if ( bucket.isMatched() ? !semiJoin : !data.outerBuild && !antiJoin ) {
+        continue;
+      }
+      for ( Object[] buildRow : bucket.getRows() ) {
+        putRow( data.outputRowMeta, semiJoin || antiJoin ? buildRow : joinRows( null, buildRow ) );
+      }
+    }
+  }
+
+  /**
+   * @return the fields of the first stream followed by those of the second stream, null values if a row is missing
+   */
+  private Object[] joinRows( Object[] probeRow, Object[] buildRow ) {
+    Object[] one = meta.isBuildFirst() ? buildRow : probeRow;
+    Object[] two = meta.isBuildFirst() ? probeRow : buildRow;
+    int oneSize = data.oneMeta.size();
+
+    Object[] outputRow = RowDataUtil.allocateRowData( data.outputRowMeta.size() );
+    if ( one != null ) {
+      System.arraycopy( one, 0, outputRow, 0, oneSize );
+    }
+    if ( two != null ) {
+      System.arraycopy( two, 0, outputRow, oneSize, data.twoMeta.size() );
+    }
+    return outputRow;
+  }
+
+  private FileObject createTempFile() throws KettleException {
+    return KettleVFS.getInstance( getTransMeta().getBowl() )
+      .createTempFile( "hashjoin", ".tmp", environmentSubstitute( meta.getDirectory() ), getTransMeta() );
+  }
+
+  private SortSpillWriter openWriter( RowMetaInterface rowMeta, FileObject fileObject ) throws KettleException {
+    try {
+      return new SortSpillWriter( rowMeta,
+        KettleVFS.getInstance( getTransMeta().getBowl() ).getOutputStream( fileObject, false ), data.spillCompression );
+    } catch ( IOException e ) {
+      throw new KettleFileException( e );
+    }
+  }
+
+  private SortSpillReader openReader( RowMetaInterface rowMeta, FileObject fileObject, long nrRows )
+    throws IOException {
+    return new SortSpillReader( rowMeta, KettleVFS.getInputStream( fileObject ), data.spillCompression, nrRows );
+  }
+
+  private void closeWriters( SortSpillWriter[] writers, long[] nrRows ) throws KettleException {
+    for ( int p = 0; p < writers.length; p++ ) {
+      if ( writers[ p ] != null ) {
+        nrRows[ p ] = writers[ p ].getNrRows();
+        try {
+          writers[ p ].close();
+        } catch ( IOException e ) {
+          throw new KettleFileException( e );
+        } finally {
+          writers[ p ] = null;
+        }
+      }
+    }
+  }
+
+  private void deleteFile( FileObject fileObject ) {
+    try {
+      if ( fileObject != null && fileObject.exists() ) {
+        fileObject.delete();
+      }
+    } catch ( FileSystemException e ) {
+      logError( e.getLocalizedMessage(), e );
+    }
+  }
+
+  /**
+   * @see StepInterface#init(org.pentaho.di.trans.step.StepMetaInterface , org.pentaho.di.trans.step.StepDataInterface)
+   */
+  public boolean init( StepMetaInterface smi, StepDataInterface sdi ) {
+    meta = (HashJoinMeta) smi;
+    data = (HashJoinData) sdi;
+
+    if ( !super.init( smi, sdi ) ) {
+      return false;
+    }
+
+    List<StreamInterface> infoStreams = meta.getStepIOMeta().getInfoStreams();
+    if ( infoStreams.get( 0 ).getStepMeta() == null || infoStreams.get( 1 ).getStepMeta() == null ) {
+      logError( BaseMessages.getString( PKG, "HashJoin.Log.BothStreamsNeeded" ) );
+      return false;
+    }
+    if ( meta.getKeyFields1().length == 0 || meta.getKeyFields1().length != meta.getKeyFields2().length ) {
+      logError( BaseMessages.getString( PKG, "HashJoinMeta.CheckResult.KeysDontMatch",
+        meta.getKeyFields1().length, meta.getKeyFields2().length ) );
+      return false;
+    }
+
+    int joinType = meta.getJoinTypeIndex();
+    if ( joinType < 0 ) {
+      logError( BaseMessages.getString( PKG, "HashJoin.Log.InvalidJoinType", meta.getJoinType() ) );
+      return false;
+    }
+    boolean outerOne = joinType == HashJoinMeta.JOIN_TYPE_LEFT_OUTER || joinType == HashJoinMeta.JOIN_TYPE_FULL_OUTER;
+    boolean outerTwo = joinType == HashJoinMeta.JOIN_TYPE_RIGHT_OUTER || joinType == HashJoinMeta.JOIN_TYPE_FULL_OUTER;
+    data.outerProbe = meta.isBuildFirst() ? outerTwo : outerOne;
+    data.outerBuild = meta.isBuildFirst() ? outerOne : outerTwo;
+    data.semiJoin = joinType == HashJoinMeta.JOIN_TYPE_LEFT_SEMI;
+    data.antiJoin = joinType == HashJoinMeta.JOIN_TYPE_LEFT_ANTI;
+
+    data.table = new HashJoinTable();
+    data.cacheSize = Const.toInt( environmentSubstitute( meta.getCacheSize() ), -1 );
+    data.spillCompression = SortSpillCompression.getCompression( meta.isCompressFiles(),
+      getVariable( Const.KETTLE_SORT_SPILL_COMPRESSION, SortSpillCompression.GZIP.name() ) );
+    return true;
+  }
+
+  public void dispose( StepMetaInterface smi, StepDataInterface sdi ) {
+    meta = (HashJoinMeta) smi;
+    data = (HashJoinData) sdi;
+
+    for ( SortSpillWriter[] writers : new SortSpillWriter[][] { data.buildWriters, data.probeWriters } ) {
+      if ( writers != null ) {
+        for ( SortSpillWriter writer : writers ) {
+          BaseStep.closeQuietly( writer );
+        }
+      }
+    }
+    for ( FileObject[] files : new FileObject[][] { data.buildFiles, data.probeFiles } ) {
+      if ( files != null ) {
+        for ( FileObject fileObject : files ) {
+          deleteFile( fileObject );
+        }
+      }
+    }
+    if ( data.table != null ) {
+      data.table.clear();
+    }
+    data.bloomFilter = null;
+
+    super.dispose( smi, sdi );
+  }
+}
@@ -0,0 +1,80 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.hashjoin;
+
+/**
+ * A bloom filter of the hash codes of the build keys. When the Hash join step spills to disk, probe rows whose key is
+ * certainly not in the build stream are handled right away instead of being written to a partition.
+ *
+ * @since 11.0
+ */
+public class HashJoinBloomFilter {
+  /** Gives a false positive rate of about 1% at the expected number of keys */
+  private static final int BITS_PER_KEY = 10;
+  private static final int NR_HASHES = 7;
+  private static final long MAX_BITS = 1L << 30;
+
+  private final long[] words;
+  private final int mask;
+
+  /**
+   * @param expectedKeys the expected number of keys, more keys only raise the false positive rate
+   */
+  public HashJoinBloomFilter( long expectedKeys ) {
+    long nrBits = Math.min( MAX_BITS, Math.max( 64L, expectedKeys * BITS_PER_KEY ) );
+    nrBits = Long.highestOneBit( nrBits - 1 ) << 1; // a power of 2
+    words = new long[ (int) ( nrBits >>> 6 ) ];
+    mask = (int) ( nrBits - 1 );
+  }
+
+  public void add( int hash ) {
+    long h = mix( hash );
+    int h1 = (int) h;
+    int h2 = (int) ( h >>> 32 ) | 1;
+    for ( int i = 0; i < NR_HASHES; i++ ) {
+      int bit = ( h1 + i * h2 ) & mask;
+      words[ bit >>> 6 ] |= 1L << bit;
+    }
+  }
+
+  /**
+   * @return false if the hash code was certainly never added, true if it probably was
+   */
+  public boolean mightContain( int hash ) {
+    long h = mix( hash );
+    int h1 = (int) h;
+    int h2 = (int) ( h >>> 32 ) | 1;
+    for ( int i = 0; i < NR_HASHES; i++ ) {
+      int bit = ( h1 + i * h2 ) & mask;
+      if ( ( words[ bit >>> 6 ] & ( 1L << bit ) ) == 0 ) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the size of the filter in bits
+   */
+  public long getNrBits() {
+    return (long) mask + 1;
+  }
+
+  private static long mix( int hash ) {
+    long h = hash * 0x9E3779B97F4A7C15L;
+    h ^= h >>> 32;
+    h *= 0xBF58476D1CE4E5B9L;
+    return h ^ ( h >>> 29 );
+  }
+}
@@ -0,0 +1,59 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.hashjoin;
+
+import org.apache.commons.vfs2.FileObject;
+import org.pentaho.di.core.RowSet;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.trans.step.BaseStepData;
+import org.pentaho.di.trans.step.StepDataInterface;
+import org.pentaho.di.trans.steps.sort.SortSpillCompression;
+import org.pentaho.di.trans.steps.sort.SortSpillWriter;
+
+/**
+ * @since 11.0
+ */
+public class HashJoinData extends BaseStepData implements StepDataInterface {
+  public RowSet buildRowSet, probeRowSet;
+  public RowMetaInterface oneMeta, twoMeta;
+  public RowMetaInterface buildMeta, probeMeta;
+  public RowMetaInterface outputRowMeta;
+
+  public int[] buildKeyNrs, probeKeyNrs;
+  /** The key metadata of the build stream with normal storage */
+  public ValueMetaInterface[] keyMetas;
+  /** The probe key metadata, for the probe key values to convert to the key types of the build stream */
+  public ValueMetaInterface[] probeKeyMetas;
+  public boolean[] convertBuildKeys, convertProbeKeys;
+
+  /** Pass on the rows of the probe or build stream without a match, with empty fields for the other stream */
+  public boolean outerProbe, outerBuild;
+  /** Pass on the rows of the first stream with a match or without one, and no fields of the second stream */
+  public boolean semiJoin, antiJoin;
+
+  public HashJoinTable table;
+  public int cacheSize;
+
+  public boolean spilling;
+  public SortSpillCompression spillCompression;
+  public HashJoinBloomFilter bloomFilter;
+  public FileObject[] buildFiles, probeFiles;
+  public SortSpillWriter[] buildWriters, probeWriters;
+  public long[] buildFileRows, probeFileRows;
+
+  public HashJoinData() {
+    super();
+  }
+}
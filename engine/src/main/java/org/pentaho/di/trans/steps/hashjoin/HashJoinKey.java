@@ -0,0 +1,124 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.hashjoin;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Date;
+
+import org.pentaho.di.core.exception.KettleValueException;
+import org.pentaho.di.core.row.ValueMetaInterface;
+
+/**
+ * The key of a row in the hash table of the Hash join step. The values are converted to the key types of the build
+ * stream, so the keys of both streams compare the same way. The hash code agrees with the comparison of the key
+ * metadata: numbers compare by value, strings can be trimmed or case insensitive and null keys match each other like
+ * they do in Merge join.
+ *
+ * @since 11.0
+ */
+public class HashJoinKey {
+  private final ValueMetaInterface[] keyMetas;
+  private final Object[] values;
+  private final int hash;
+
+  /**
+   * @param keyMetas the metadata of the key values, all with normal storage
+   * @param values   the key values in the types of the metadata
+   */
+  public HashJoinKey( ValueMetaInterface[] keyMetas, Object[] values ) {
+    this.keyMetas = keyMetas;
+    this.values = values;
+
+    int h = 1;
+    for ( int i = 0; i < values.length; i++ ) {
+      h = 31 * h + hashValue( keyMetas[ i ], values[ i ] );
+    }
+    this.hash = h;
+  }
+
+  static int hashValue( ValueMetaInterface keyMeta, Object value ) {
+    if ( keyMeta.isNull( value ) ) {
+      return 0;
+    }
+    switch ( keyMeta.getType() ) {
+      case ValueMetaInterface.TYPE_STRING:
+        String string = (String) value;
+        if ( keyMeta.isIgnoreWhitespace() ) {
+          string = string.trim();
+        }
+        if ( !keyMeta.isCaseInsensitive() ) {
+          return string.hashCode();
+        }
+        // The same folding as String.compareToIgnoreCase(), after the trimming like in the comparison
+        //
+        int h = 0;
+        for ( int i = 0; i < string.length(); ) {
+          int codePoint = string.codePointAt( i );
+          i += Character.charCount( codePoint );
+          h = 31 * h + Character.toLowerCase( Character.toUpperCase( codePoint ) );
+        }
+        return h;
+      case ValueMetaInterface.TYPE_NUMBER:
+        double number = (Double) value;
+        return number == 0.0 ? 0 : Double.hashCode( number );
+      case ValueMetaInterface.TYPE_BIGNUMBER:
+        BigDecimal bigNumber = (BigDecimal) value;
+        return bigNumber.signum() == 0 ? 0 : bigNumber.stripTrailingZeros().hashCode();
+      case ValueMetaInterface.TYPE_DATE:
+      case ValueMetaInterface.TYPE_TIMESTAMP:
+        return Long.hashCode( ( (Date) value ).getTime() );
+      case ValueMetaInterface.TYPE_BINARY:
+        return Arrays.hashCode( (byte[]) value );
+      default:
+        return value.hashCode();
+    }
+  }
+
+  /**
+   * @return the key values
+   */
+  public Object[] getValues() {
+    return values;
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public boolean equals( Object obj ) {
+    if ( this == obj ) {
+      return true;
+    }
+    if ( !( obj instanceof HashJoinKey ) ) {
+      return false;
+    }
+    HashJoinKey other = (HashJoinKey) obj;
+    if ( hash != other.hash || values.length != other.values.length ) {
+      return false;
+    }
+    try {
+      for ( int i = 0; i < values.length; i++ ) {
+        if ( keyMetas[ i ].compare( values[ i ], other.values[ i ] ) != 0 ) {
+          return false;
+        }
+      }
+      return true;
+    } catch ( KettleValueException e ) {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,498 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.hashjoin;
+
+import java.util.List;
+
+import org.pentaho.di.core.CheckResult;
+import org.pentaho.di.core.CheckResultInterface;
+import org.pentaho.di.core.Const;
+import org.pentaho.di.core.bowl.Bowl;
+import org.pentaho.di.core.database.DatabaseMeta;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.exception.KettleStepException;
+import org.pentaho.di.core.exception.KettleXMLException;
+import org.pentaho.di.core.injection.Injection;
+import org.pentaho.di.core.injection.InjectionSupported;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.util.Utils;
+import org.pentaho.di.core.variables.VariableSpace;
+import org.pentaho.di.core.xml.XMLHandler;
+import org.pentaho.di.i18n.BaseMessages;
+import org.pentaho.di.repository.ObjectId;
+import org.pentaho.di.repository.Repository;
+import org.pentaho.di.trans.Trans;
+import org.pentaho.di.trans.TransMeta;
+import org.pentaho.di.trans.TransMeta.TransformationType;
+import org.pentaho.di.trans.step.BaseStepMeta;
+import org.pentaho.di.trans.step.StepDataInterface;
+import org.pentaho.di.trans.step.StepIOMeta;
+import org.pentaho.di.trans.step.StepIOMetaInterface;
+import org.pentaho.di.trans.step.StepInterface;
+import org.pentaho.di.trans.step.StepMeta;
+import org.pentaho.di.trans.step.StepMetaInterface;
+import org.pentaho.di.trans.step.errorhandling.Stream;
+import org.pentaho.di.trans.step.errorhandling.StreamIcon;
+import org.pentaho.di.trans.step.errorhandling.StreamInterface;
+import org.pentaho.di.trans.step.errorhandling.StreamInterface.StreamType;
+import org.pentaho.metastore.api.IMetaStore;
+import org.w3c.dom.Node;
+
+/**
+ * Joins two streams on equal keys by building a hash table of one of them, so unlike Merge join the streams don't
+ * need to be sorted. The build stream is spilled to disk in partitions when it doesn't fit in memory.
+ *
+ * @since 11.0
+ */
+@InjectionSupported( localizationPrefix = "HashJoin.Injection." )
+public class HashJoinMeta extends BaseStepMeta implements StepMetaInterface {
+  private static Class<?> PKG = HashJoinMeta.class; // for i18n purposes, needed by Translator2!!
+
+  public static final String[] JOIN_TYPES =
+    { "INNER", "LEFT OUTER", "RIGHT OUTER", "FULL OUTER", "LEFT SEMI", "LEFT ANTI" };
+
+  public static final int JOIN_TYPE_INNER = 0;
+  public static final int JOIN_TYPE_LEFT_OUTER = 1;
+  public static final int JOIN_TYPE_RIGHT_OUTER = 2;
+  public static final int JOIN_TYPE_FULL_OUTER = 3;
+  public static final int JOIN_TYPE_LEFT_SEMI = 4;
+  public static final int JOIN_TYPE_LEFT_ANTI = 5;
+
+  @Injection( name = "JOIN_TYPE" )
+  private String joinType;
+
+  @Injection( name = "KEY_FIELD1" )
+  private String[] keyFields1;
+  @Injection( name = "KEY_FIELD2" )
+  private String[] keyFields2;
+
+  /** Build the hash table from the first stream instead of the second one */
+  @Injection( name = "BUILD_FIRST" )
+  private boolean buildFirst;
+
+  /** The maximum number of rows of the build stream to keep in memory */
+  @Injection( name = "CACHE_SIZE" )
+  private String cacheSize;
+
+  /** The directory to spill the partitions to */
+  @Injection( name = "SPILL_DIRECTORY" )
+  private String directory;
+
+  @Injection( name = "COMPRESS_FILES" )
+  private boolean compressFiles;
+
+  /** Skip spilling the rows of the probe stream that can't have a match */
+  @Injection( name = "BLOOM_FILTER" )
+  private boolean bloomFilter;
+
+  public HashJoinMeta() {
+    super(); // allocate BaseStepMeta
+  }
+
+  /**
+   * The supported join types are INNER, LEFT OUTER, RIGHT OUTER, FULL OUTER, LEFT SEMI and LEFT ANTI. The semi and anti
+   * joins only pass the rows of the first stream that have a match or don't have one.
+   *
+   * @return The type of join
+   */
+  public String getJoinType() {
+    return joinType;
+  }
+
+  /**
+   * @param joinType The type of join, e.g. INNER/LEFT SEMI
+   */
+  public void setJoinType( String joinType ) {
+    this.joinType = joinType;
+  }
+
+  /**
+   * @return the index of the join type in {@link #JOIN_TYPES} or -1 if it's not supported
+   */
+  public int getJoinTypeIndex() {
+    return joinType == null ? -1 : Const.indexOfString( joinType, JOIN_TYPES );
+  }
+
+  /**
+   * @return true if only the fields of the first stream are passed on
+   */
+  public boolean isSemiOrAntiJoin() {
+    int index = getJoinTypeIndex();
+    return index == JOIN_TYPE_LEFT_SEMI || index == JOIN_TYPE_LEFT_ANTI;
+  }
+
+  /**
+   * @return Returns the keyFields1.
+   */
+  public String[] getKeyFields1() {
+    return keyFields1;
+  }
+
+  /**
+   * @param keyFields1 The keyFields1 to set.
+   */
+  public void setKeyFields1( String[] keyFields1 ) {
+    this.keyFields1 = keyFields1;
+  }
+
+  /**
+   * @return Returns the keyFields2.
+   */
+  public String[] getKeyFields2() {
+    return keyFields2;
+  }
+
+  /**
+   * @param keyFields2 The keyFields2 to set.
+   */
+  public void setKeyFields2( String[] keyFields2 ) {
+    this.keyFields2 = keyFields2;
+  }
+
+  /**
+   * @return true if the hash table is built from the first stream, false if it's built from the second one
+   */
+  public boolean isBuildFirst() {
+    return buildFirst;
+  }
+
+  /**
+   * @param buildFirst true to build the hash table from the first stream, the smaller one works best
+   */
+  public void setBuildFirst( boolean buildFirst ) {
+    this.buildFirst = buildFirst;
+  }
+
+  /**
+   * @return The maximum number of rows of the build stream to keep in memory, empty or 0 to never spill to disk
+   */
+  public String getCacheSize() {
+    return cacheSize;
+  }
+
+  /**
+   * @param cacheSize The maximum number of rows of the build stream to keep in memory
+   */
+  public void setCacheSize( String cacheSize ) {
+    this.cacheSize = cacheSize;
+  }
+
+  /**
+   * @return The directory to spill the partitions to
+   */
+  public String getDirectory() {
+    return directory;
+  }
+
+  /**
+   * @param directory The directory to spill the partitions to
+   */
+  public void setDirectory( String directory ) {
+    this.directory = directory;
+  }
+
+  /**
+   * @return true if the spilled partitions are compressed
+   */
+  public boolean isCompressFiles() {
+    return compressFiles;
+  }
+
+  /**
+   * @param compressFiles true to compress the spilled partitions
+   */
+  public void setCompressFiles( boolean compressFiles ) {
+    this.compressFiles = compressFiles;
+  }
+
+  /**
+   * @return true if a bloom filter of the build keys is used to skip spilling probe rows without a match
+   */
+  public boolean isBloomFilter() {
+    return bloomFilter;
+  }
+
+  /**
+   * @param bloomFilter true to use a bloom filter of the build keys when spilling
+   */
+  public void setBloomFilter( boolean bloomFilter ) {
+    this.bloomFilter = bloomFilter;
+  }
+
+  public boolean excludeFromRowLayoutVerification() {
+    return true;
+  }
+
+  public void loadXML( Node stepnode, List<DatabaseMeta> databases, IMetaStore metaStore ) throws KettleXMLException {
+    readData( stepnode );
+  }
+
+  public void allocate( int nrKeys1, int nrKeys2 ) {
+    keyFields1 = new String[nrKeys1];
+    keyFields2 = new String[nrKeys2];
+  }
+
+  public Object clone() {
+    HashJoinMeta retval = (HashJoinMeta) super.clone();
+    int nrKeys1 = keyFields1.length;
+    int nrKeys2 = keyFields2.length;
+    retval.allocate( nrKeys1, nrKeys2 );
+    System.arraycopy( keyFields1, 0, retval.keyFields1, 0, nrKeys1 );
+    System.arraycopy( keyFields2, 0, retval.keyFields2, 0, nrKeys2 );
+
+    StepIOMetaInterface stepIOMeta = new StepIOMeta( true, true, false, false, false, false );
+    List<StreamInterface> infoStreams = getStepIOMeta().getInfoStreams();
+
+    for ( StreamInterface infoStream : infoStreams ) {
+      stepIOMeta.addStream( new Stream( infoStream ) );
+    }
+    retval.setStepIOMeta( stepIOMeta );
+
+    return retval;
+  }
+
+  public String getXML() {
+    StringBuilder retval = new StringBuilder();
+
+    List<StreamInterface> infoStreams = getStepIOMeta().getInfoStreams();
+
+    retval.append( "    " ).append( XMLHandler.addTagValue( "join_type", joinType ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( "step1", infoStreams.get( 0 ).getStepname() ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( "step2", infoStreams.get( 1 ).getStepname() ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( "build_first", buildFirst ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( "cache_size", cacheSize ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( "directory", directory ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( "compress", compressFiles ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( "bloom_filter", bloomFilter ) );
+
+    retval.append( "    <keys_1>" + Const.CR );
+    for ( int i = 0; i < keyFields1.length; i++ ) {
+      retval.append( "      " + XMLHandler.addTagValue( "key", keyFields1[i] ) );
+    }
+    retval.append( "    </keys_1>" + Const.CR );
+
+    retval.append( "    <keys_2>" + Const.CR );
+    for ( int i = 0; i < keyFields2.length; i++ ) {
+      retval.append( "      " + XMLHandler.addTagValue( "key", keyFields2[i] ) );
+    }
+    retval.append( "    </keys_2>" + Const.CR );
+
+    return retval.toString();
+  }
+
+  private void readData( Node stepnode ) throws KettleXMLException {
+    try {
+      Node keysNode1 = XMLHandler.getSubNode( stepnode, "keys_1" );
+      Node keysNode2 = XMLHandler.getSubNode( stepnode, "keys_2" );
+
+      int nrKeys1 = XMLHandler.countNodes( keysNode1, "key" );
+      int nrKeys2 = XMLHandler.countNodes( keysNode2, "key" );
+
+      allocate( nrKeys1, nrKeys2 );
+
+      for ( int i = 0; i < nrKeys1; i++ ) {
+        Node keynode = XMLHandler.getSubNodeByNr( keysNode1, "key", i );
+        keyFields1[i] = XMLHandler.getNodeValue( keynode );
+      }
+
+      for ( int i = 0; i < nrKeys2; i++ ) {
+        Node keynode = XMLHandler.getSubNodeByNr( keysNode2, "key", i );
+        keyFields2[i] = XMLHandler.getNodeValue( keynode );
+      }
+
+      List<StreamInterface> infoStreams = getStepIOMeta().getInfoStreams();
+      infoStreams.get( 0 ).setSubject( XMLHandler.getTagValue( stepnode, "step1" ) );
+      infoStreams.get( 1 ).setSubject( XMLHandler.getTagValue( stepnode, "step2" ) );
+      joinType = XMLHandler.getTagValue( stepnode, "join_type" );
+      buildFirst = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "build_first" ) );
+      cacheSize = XMLHandler.getTagValue( stepnode, "cache_size" );
+      directory = XMLHandler.getTagValue( stepnode, "directory" );
+      compressFiles = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "compress" ) );
+      bloomFilter = !"N".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "bloom_filter" ) );
+    } catch ( Exception e ) {
+      throw new KettleXMLException( BaseMessages.getString( PKG, "HashJoinMeta.Exception.UnableToLoadStepInfo" ), e );
+    }
+  }
+
+  public void setDefault() {
+    joinType = JOIN_TYPES[JOIN_TYPE_INNER];
+    buildFirst = false;
+    cacheSize = "1000000";
+    directory = "%%java.io.tmpdir%%";
+    compressFiles = false;
+    bloomFilter = true;
+    allocate( 0, 0 );
+  }
+
+  public void readRep( Repository rep, IMetaStore metaStore, ObjectId id_step, List<DatabaseMeta> databases )
+    throws KettleException {
+    try {
+      int nrKeys1 = rep.countNrStepAttributes( id_step, "keys_1" );
+      int nrKeys2 = rep.countNrStepAttributes( id_step, "keys_2" );
+
+      allocate( nrKeys1, nrKeys2 );
+
+      for ( int i = 0; i < nrKeys1; i++ ) {
+        keyFields1[i] = rep.getStepAttributeString( id_step, i, "keys_1" );
+      }
+      for ( int i = 0; i < nrKeys2; i++ ) {
+        keyFields2[i] = rep.getStepAttributeString( id_step, i, "keys_2" );
+      }
+
+      List<StreamInterface> infoStreams = getStepIOMeta().getInfoStreams();
+      infoStreams.get( 0 ).setSubject( rep.getStepAttributeString( id_step, "step1" ) );
+      infoStreams.get( 1 ).setSubject( rep.getStepAttributeString( id_step, "step2" ) );
+      joinType = rep.getStepAttributeString( id_step, "join_type" );
+      buildFirst = rep.getStepAttributeBoolean( id_step, "build_first" );
+      cacheSize = rep.getStepAttributeString( id_step, "cache_size" );
+      directory = rep.getStepAttributeString( id_step, "directory" );
+      compressFiles = rep.getStepAttributeBoolean( id_step, "compress" );
+      bloomFilter = rep.getStepAttributeBoolean( id_step, 0, "bloom_filter", true );
+    } catch ( Exception e ) {
+      throw new KettleException( BaseMessages.getString(
+        PKG, "HashJoinMeta.Exception.UnexpectedErrorReadingStepInfo" ), e );
+    }
+  }
+
+  @Override
+  public void searchInfoAndTargetSteps( List<StepMeta> steps ) {
+    List<StreamInterface> infoStreams = getStepIOMeta().getInfoStreams();
+    for ( StreamInterface stream : infoStreams ) {
+      stream.setStepMeta( StepMeta.findStep( steps, (String) stream.getSubject() ) );
+    }
+  }
+
+  public void saveRep( Repository rep, IMetaStore metaStore, ObjectId id_transformation, ObjectId id_step )
+    throws KettleException {
+    try {
+      for ( int i = 0; i < keyFields1.length; i++ ) {
+        rep.saveStepAttribute( id_transformation, id_step, i, "keys_1", keyFields1[i] );
+      }
+
+      for ( int i = 0; i < keyFields2.length; i++ ) {
+        rep.saveStepAttribute( id_transformation, id_step, i, "keys_2", keyFields2[i] );
+      }
+
+      List<StreamInterface> infoStreams = getStepIOMeta().getInfoStreams();
+
+      rep.saveStepAttribute( id_transformation, id_step, "step1", infoStreams.get( 0 ).getStepname() );
+      rep.saveStepAttribute( id_transformation, id_step, "step2", infoStreams.get( 1 ).getStepname() );
+      rep.saveStepAttribute( id_transformation, id_step, "join_type", joinType );
+      rep.saveStepAttribute( id_transformation, id_step, "build_first", buildFirst );
+      rep.saveStepAttribute( id_transformation, id_step, "cache_size", cacheSize );
+      rep.saveStepAttribute( id_transformation, id_step, "directory", directory );
+      rep.saveStepAttribute( id_transformation, id_step, "compress", compressFiles );
+      rep.saveStepAttribute( id_transformation, id_step, "bloom_filter", bloomFilter );
+    } catch ( Exception e ) {
+      throw new KettleException( BaseMessages.getString( PKG, "HashJoinMeta.Exception.UnableToSaveStepInfo" )
+        + id_step, e );
+    }
+  }
+
+  public void check( List<CheckResultInterface> remarks, TransMeta transMeta, StepMeta stepMeta,
+                     RowMetaInterface prev, String[] input, String[] output, RowMetaInterface info, VariableSpace space,
+                     Repository repository, IMetaStore metaStore ) {
+    CheckResult cr;
+
+    List<StreamInterface> infoStreams = getStepIOMeta().getInfoStreams();
+    if ( infoStreams.get( 0 ).getStepMeta() == null || infoStreams.get( 1 ).getStepMeta() == null ) {
+      cr = new CheckResult( CheckResultInterface.TYPE_RESULT_ERROR, BaseMessages.getString(
+        PKG, "HashJoinMeta.CheckResult.BothStreamsNeeded" ), stepMeta );
+    } else {
+      cr = new CheckResult( CheckResultInterface.TYPE_RESULT_OK, BaseMessages.getString(
+        PKG, "HashJoinMeta.CheckResult.BothStreamsFound" ), stepMeta );
+    }
+    remarks.add( cr );
+
+    if ( getJoinTypeIndex() < 0 ) {
+      cr = new CheckResult( CheckResultInterface.TYPE_RESULT_ERROR, BaseMessages.getString(
+        PKG, "HashJoin.Log.InvalidJoinType", joinType ), stepMeta );
+      remarks.add( cr );
+    }
+
+    if ( keyFields1.length == 0 || keyFields1.length != keyFields2.length ) {
+      cr = new CheckResult( CheckResultInterface.TYPE_RESULT_ERROR, BaseMessages.getString(
+        PKG, "HashJoinMeta.CheckResult.KeysDontMatch", keyFields1.length, keyFields2.length ), stepMeta );
+    } else {
+      cr = new CheckResult( CheckResultInterface.TYPE_RESULT_OK, BaseMessages.getString(
+        PKG, "HashJoinMeta.CheckResult.KeysMatch" ), stepMeta );
+    }
+    remarks.add( cr );
+  }
+
+  @Override
+  public void getFields( Bowl bowl, RowMetaInterface r, String name, RowMetaInterface[] info, StepMeta nextStep,
+                         VariableSpace space, Repository repository, IMetaStore metaStore ) throws KettleStepException {
+    // We don't have any input fields here in "r" as they are all info fields.
+    // The semi and anti joins only pass on the fields of the first stream.
+    //
+    if ( info != null ) {
+      int nrStreams = isSemiOrAntiJoin() ? 1 : info.length;
+      for ( int i = 0; i < nrStreams && i < info.length; i++ ) {
+        if ( info[i] != null ) {
+          r.mergeRowMeta( info[i], name );
+        }
+      }
+    }
+
+    for ( int i = 0; i < r.size(); i++ ) {
+      ValueMetaInterface vmi = r.getValueMeta( i );
+      if ( vmi != null && Utils.isEmpty( vmi.getName() ) ) {
+        vmi.setOrigin( name );
+      }
+    }
+  }
+
+  public StepInterface getStep( StepMeta stepMeta, StepDataInterface stepDataInterface, int cnr, TransMeta tr,
+                                Trans trans ) {
+    return new HashJoin( stepMeta, stepDataInterface, cnr, tr, trans );
+  }
+
+  public StepDataInterface getStepData() {
+    return new HashJoinData();
+  }
+
+  /**
+   * Returns the Input/Output metadata for this step: the two streams to join are info streams.
+   */
+  public StepIOMetaInterface getStepIOMeta() {
+    StepIOMetaInterface ioMeta = super.getStepIOMeta( false );
+    if ( ioMeta == null ) {
+
+      ioMeta = new StepIOMeta( true, true, false, false, false, false );
+
+      ioMeta.addStream( new Stream( StreamType.INFO, null, BaseMessages.getString(
+        PKG, "HashJoinMeta.InfoStream.FirstStream.Description" ), StreamIcon.INFO, null ) );
+      ioMeta.addStream( new Stream( StreamType.INFO, null, BaseMessages.getString(
+        PKG, "HashJoinMeta.InfoStream.SecondStream.Description" ), StreamIcon.INFO, null ) );
+      setStepIOMeta( ioMeta );
+    }
+
+    return ioMeta;
+  }
+
+  public void resetStepIoMeta() {
+    // Don't reset!
+  }
+
+  public TransformationType[] getSupportedTransformationTypes() {
+    return new TransformationType[]{ TransformationType.Normal, };
+  }
+
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
+}
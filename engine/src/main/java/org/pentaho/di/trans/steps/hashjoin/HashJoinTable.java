@@ -0,0 +1,81 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.hashjoin;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The in-memory hash table of the build stream of the Hash join step. The rows with the same key share a bucket, which
+ * remembers whether any probe row matched the key.
+ *
+ * @since 11.0
+ */
+public class HashJoinTable {
+
+  public static class Bucket {
+    private final List<Object[]> rows = new ArrayList<Object[]>( 1 );
+    private boolean matched;
+
+    public List<Object[]> getRows() {
+      return rows;
+    }
+
+    public boolean isMatched() {
+      return matched;
+    }
+
+    public void setMatched( boolean matched ) {
+      this.matched = matched;
+    }
+  }
+
+  private final Map<HashJoinKey, Bucket> buckets = new HashMap<HashJoinKey, Bucket>();
+  private long nrRows;
+
+  public void add( HashJoinKey key, Object[] row ) {
+    Bucket bucket = buckets.get( key );
+    if ( bucket == null ) {
+      bucket = new Bucket();
+      buckets.put( key, bucket );
+    }
+    bucket.rows.add( row );
+    nrRows++;
+  }
+
+  /**
+   * @return the bucket of the key or null if the build stream doesn't have the key
+   */
+  public Bucket get( HashJoinKey key ) {
+    return buckets.get( key );
+  }
+
+  public Map<HashJoinKey, Bucket> getBuckets() {
+    return buckets;
+  }
+
+  /**
+   * @return the number of rows in the table
+   */
+  public long getNrRows() {
+    return nrRows;
+  }
+
+  public void clear() {
+    buckets.clear();
+    nrRows = 0;
+  }
+}
@@ -518,4 +518,8 @@ public class IfNullMeta extends BaseStepMeta implements StepMetaInterface {
     return true;
   }
 
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
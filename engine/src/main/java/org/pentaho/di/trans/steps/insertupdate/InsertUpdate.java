@@ -13,9 +13,15 @@
 
 package org.pentaho.di.trans.steps.insertupdate;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.commons.lang.ArrayUtils;
 import org.pentaho.di.core.Const;
 import org.pentaho.di.core.database.DatabaseMeta;
@@ -44,6 +50,12 @@ import org.pentaho.di.trans.step.BaseDatabaseStep;
 public class InsertUpdate extends BaseDatabaseStep implements StepInterface {
   private static Class<?> PKG = InsertUpdateMeta.class; // for i18n purposes, needed by Translator2!!
 
+  /** The number of rows per upsert batch when the commit size is not set */
+  private static final int DEFAULT_UPSERT_BATCH_SIZE = 1000;
+
+  /** Numbers the upsert staging tables, so that steps sharing a connection don't use the same table */
+  private static final AtomicInteger upsertStagingTableNr = new AtomicInteger();
+
   private InsertUpdateMeta meta;
   private InsertUpdateData data;
 
@@ -163,6 +175,132 @@ public class InsertUpdate extends BaseDatabaseStep implements StepInterface {
     }
   }
 
+  /**
+   * Adds a row to the current upsert batch. The batch is written once it is full, or before a row with a key that is
+   * already in the batch: each row of a batch has to be inserted, updated or left alone on its own, while a staging
+   * table merges all the rows of a key at once.
+   */
+  protected void upsertValues( RowMetaInterface rowMeta, Object[] row ) throws KettleException {
+    Object[] insertRow = new Object[ data.valuenrs.length ];
+    for ( int i = 0; i < data.valuenrs.length; i++ ) {
+      insertRow[ i ] = row[ data.valuenrs[ i ] ];
+    }
+    List<Object> key = new ArrayList<Object>( data.upsertKeyIndexes.length );
+    for ( int keyIndex : data.upsertKeyIndexes ) {
+      key.add( insertRow[ keyIndex ] );
+    }
+    if ( !data.upsertKeys.add( key ) ) {
+      writeUpsertBatch();
+      data.upsertKeys.add( key );
+    }
+
+    if ( log.isRowLevel() ) {
+      logRowlevel( BaseMessages.getString( PKG, "InsertUpdate.Log.UpsertRow" ) + rowMeta.getString( row ) );
+    }
+    data.db.setValues( data.insertRowMeta, insertRow, data.prepStatementUpsert );
+    if ( data.upsertBatchSize > 1 ) {
+      try {
+        data.prepStatementUpsert.addBatch();
+      } catch ( SQLException ex ) {
+        throw new KettleDatabaseException( "Unable to add a row to the upsert batch", ex );
+      }
+    }
+    data.upsertRows.add( row );
+
+    if ( data.upsertRows.size() >= data.upsertBatchSize ) {
+      writeUpsertBatch();
+    }
+  }
+
+  /**
+   * Writes the rows in the current batch and passes them on. Inserted rows count as output, updated rows as updated
+   * and rows that didn't change as skipped, like they do without bulk upsert. How the database reports them depends on
+   * the dialect:
+   * <ul>
+   * <li>The upsert statement returns whether it inserted each row it wrote (PostgreSQL).</li>
+   * <li>The affected row count of each row is 0 when it didn't change, 1 for an insert and 2 for an update (MySQL).
+   * A driver that rewrites the batch doesn't report the counts per row, those rows all count as output.</li>
+   * <li>The rows are staged in a temporary table, then updated and inserted with separate statements that report the
+   * number of rows they wrote (Oracle, SQL Server).</li>
+   * </ul>
+   * If the batch fails, it is rolled back and all of its rows are sent to the error stream when error handling is
+   * enabled.
+   */
+  protected void writeUpsertBatch() throws KettleException {
+    if ( data.upsertRows.isEmpty() ) {
+      return;
+    }
+
+    int nrRows = data.upsertRows.size();
+    int inserted = 0;
+    int updated = 0;
+    try {
+      int[] counts;
+      if ( data.upsertBatchSize > 1 ) {
+        counts = data.prepStatementUpsert.executeBatch();
+      } else {
+        counts = new int[] { data.prepStatementUpsert.executeUpdate() };
+      }
+      if ( data.upsertStagingTable != null ) {
+        if ( data.prepStatementUpsertUpdate != null ) {
+          updated = data.prepStatementUpsertUpdate.executeUpdate();
+        }
+        inserted = data.prepStatementUpsertInsert.executeUpdate();
+        data.prepStatementUpsertClear.executeUpdate();
+      } else if ( data.upsertReturning ) {
+        try ( ResultSet inserts = data.prepStatementUpsert.getGeneratedKeys() ) {
+          while ( inserts.next() ) {
+            if ( inserts.getBoolean( 1 ) ) {
+              inserted++;
+            } else {
+              updated++;
+            }
+          }
+        }
+      } else if ( counts.length == nrRows ) {
+        for ( int count : counts ) {
+          if ( count == 2 ) {
+            updated++;
+          } else if ( count != 0 ) {
+            inserted++;
+          }
+        }
+      } else {
+        inserted = nrRows;
+      }
+      if ( !data.db.isAutoCommit() ) {
+        data.db.commit();
+      }
+    } catch ( SQLException ex ) {
+      if ( !data.db.isAutoCommit() ) {
+        data.db.rollback();
+      }
+      data.upsertKeys.clear();
+      if ( !getStepMeta().isDoingErrorHandling() ) {
+        data.upsertRows.clear();
+        throw new KettleDatabaseException( "Unable to write a batch of " + nrRows + " rows", ex );
+      }
+      for ( Object[] row : data.upsertRows ) {
+        putError( getInputRowMeta(), row, 1, ex.toString(), null, "ISU001" );
+      }
+      data.upsertRows.clear();
+      return;
+    }
+
+    for ( int i = 0; i < nrRows; i++ ) {
+      if ( i < inserted ) {
+        incrementLinesOutput();
+      } else if ( i < inserted + updated ) {
+        incrementLinesUpdated();
+      } else {
+        incrementLinesSkipped();
+      }
+      putRow( data.outputRowMeta, data.upsertRows.get( i ) );
+    }
+    data.upsertKeys.clear();
+    data.upsertRows.clear();
+  }
+
   public boolean processRow( StepMetaInterface smi, StepDataInterface sdi ) throws KettleException {
     meta = (InsertUpdateMeta) smi;
     data = (InsertUpdateData) sdi;
@@ -174,6 +312,15 @@ public class InsertUpdate extends BaseDatabaseStep implements StepInterface {
     if ( r == null ) {
       // no more input to be expected...
 
+      if ( data.upsertRows != null ) {
+        try {
+          writeUpsertBatch();
+        } catch ( KettleException e ) {
+          logError( BaseMessages.getString( PKG, "InsertUpdate.Log.ErrorInStep" ), e );
+          setErrors( 1 );
+          stopAll();
+        }
+      }
       setOutputDone();
       return false;
     }
@@ -252,7 +399,9 @@ public class InsertUpdate extends BaseDatabaseStep implements StepInterface {
         }
       }
 
-      setLookup( getInputRowMeta() );
+      if ( !meta.isBulkUpsert() ) {
+        setLookup( getInputRowMeta() );
+      }
 
       data.insertRowMeta = new RowMeta();
 
@@ -273,11 +422,15 @@ public class InsertUpdate extends BaseDatabaseStep implements StepInterface {
             + insValue.getName() ); // TODO i18n
         }
       }
-      data.db.prepareInsert(
-        data.insertRowMeta, environmentSubstitute( meta.getSchemaName() ), environmentSubstitute( meta
-          .getTableName() ) );
+      if ( meta.isBulkUpsert() ) {
+        prepareUpsert();
+      } else {
+        data.db.prepareInsert(
+          data.insertRowMeta, environmentSubstitute( meta.getSchemaName() ), environmentSubstitute( meta
+            .getTableName() ) );
+      }
 
-      if ( !meta.isUpdateBypassed() ) {
+      if ( !meta.isUpdateBypassed() && !meta.isBulkUpsert() ) {
         List<String> updateColumns = new ArrayList<String>();
         for ( int i = 0; i < meta.getUpdateFields().length; i++ ) {
           if ( meta.getUpdateFields()[ i ].getUpdate().booleanValue() ) {
@@ -289,9 +442,13 @@ public class InsertUpdate extends BaseDatabaseStep implements StepInterface {
     }
 
     try {
-      lookupValues( getInputRowMeta(), r ); // add new values to the row in rowset[0].
-      putRow( data.outputRowMeta, r ); // Nothing changed to the input, return the same row, pass a "cloned" metadata
-      // row.
+      if ( meta.isBulkUpsert() ) {
+        upsertValues( getInputRowMeta(), r ); // the row is passed on once its batch is written
+      } else {
+        lookupValues( getInputRowMeta(), r ); // add new values to the row in rowset[0].
+        putRow( data.outputRowMeta, r ); // Nothing changed to the input, return the same row, pass a "cloned"
+        // metadata row.
+      }
 
       if ( checkFeedback( getLinesRead() ) ) {
         if ( log.isBasic() ) {
@@ -466,6 +623,135 @@ public class InsertUpdate extends BaseDatabaseStep implements StepInterface {
     }
   }
 
+  /**
+   * Prepares the single statement of the bulk upsert mode. The statement inserts the row or updates the existing row
+   * with the same keys, so every key has to use the = condition on a column that is also inserted. The keys need a
+   * unique constraint in the database.
+   */
+  public void prepareUpsert() throws KettleException {
+    DatabaseMeta databaseMeta = meta.getDatabaseMeta();
+
+    if ( meta.getKeyFields().length == 0 ) {
+      throw new KettleStepException( BaseMessages.getString( PKG, "InsertUpdate.Exception.BulkUpsertNoKeys" ) );
+    }
+
+    String[] insertColumns = new String[ meta.getUpdateFields().length ];
+    for ( int i = 0; i < meta.getUpdateFields().length; i++ ) {
+      insertColumns[ i ] = databaseMeta.quoteField( meta.getUpdateFields()[ i ].getUpdateLookup() );
+    }
+
+    List<String> keyLookups = new ArrayList<String>();
+    String[] keyColumns = new String[ meta.getKeyFields().length ];
+    data.upsertKeyIndexes = new int[ meta.getKeyFields().length ];
+    for ( int i = 0; i < meta.getKeyFields().length; i++ ) {
+      String keyLookup = meta.getKeyFields()[ i ].getKeyLookup();
+      data.upsertKeyIndexes[ i ] = data.insertRowMeta.indexOfValue( keyLookup );
+      if ( !"=".equals( meta.getKeyFields()[ i ].getKeyCondition() ) || data.upsertKeyIndexes[ i ] < 0 ) {
+        throw new KettleStepException(
+          BaseMessages.getString( PKG, "InsertUpdate.Exception.BulkUpsertKey", keyLookup ) );
+      }
+      keyLookups.add( keyLookup );
+      keyColumns[ i ] = databaseMeta.quoteField( keyLookup );
+    }
+
+    List<String> updateColumnList = new ArrayList<String>();
+    if ( !meta.isUpdateBypassed() ) {
+      for ( int i = 0; i < meta.getUpdateFields().length; i++ ) {
+        String updateLookup = meta.getUpdateFields()[ i ].getUpdateLookup();
+        if ( meta.getUpdateFields()[ i ].getUpdate().booleanValue()
+          && Const.indexOfString( updateLookup, keyLookups ) < 0 ) {
+          updateColumnList.add( databaseMeta.quoteField( updateLookup ) );
+        }
+      }
+    }
+    String[] updateColumns = updateColumnList.toArray( new String[ 0 ] );
+
+    String stagingTable =
+      databaseMeta.getUpsertStagingTable( "KETTLE_UPSERT_" + upsertStagingTableNr.incrementAndGet() );
+    if ( stagingTable != null ) {
+      prepareUpsertStaging( stagingTable, keyColumns, insertColumns, updateColumns );
+    } else {
+      String sql = databaseMeta.getSQLUpsert( data.schemaTable, keyColumns, insertColumns, updateColumns );
+      if ( sql == null ) {
+        throw new KettleStepException( BaseMessages.getString( PKG, "InsertUpdate.Exception.BulkUpsertNotSupported",
+          databaseMeta.getPluginId() ) );
+      }
+      checkUpsertConnectionOptions();
+      data.upsertReturning = databaseMeta.isUpsertReturningInserted();
+      data.prepStatementUpsert = prepareUpsertStatement( sql, data.upsertReturning );
+    }
+
+    int commitSize = meta.getCommitSize( this );
+    data.upsertBatchSize =
+      databaseMeta.supportsBatchUpdates() ? ( commitSize > 0 ? commitSize : DEFAULT_UPSERT_BATCH_SIZE ) : 1;
+    data.upsertRows = new ArrayList<Object[]>( data.upsertBatchSize );
+    data.upsertKeys = new HashSet<List<Object>>();
+  }
+
+  /**
+   * Creates the temporary table to stage the rows of an upsert batch in and prepares the statements that fill it,
+   * update and insert the staged rows and empty it again. The table is created in a transaction of its own, so that
+   * rolling back a batch doesn't drop it.
+   */
+  private void prepareUpsertStaging( String stagingTable, String[] keyColumns, String[] insertColumns,
+    String[] updateColumns ) throws KettleException {
+    DatabaseMeta databaseMeta = meta.getDatabaseMeta();
+
+    data.db.execStatement(
+      databaseMeta.getSQLCreateUpsertStagingTable( stagingTable, data.schemaTable, insertColumns ) );
+    data.upsertStagingTable = stagingTable;
+    if ( !data.db.isAutoCommit() ) {
+      data.db.commit();
+    }
+
+    StringBuilder fill = new StringBuilder( "INSERT INTO " ).append( stagingTable ).append( " ( " )
+      .append( String.join( ", ", insertColumns ) ).append( " ) VALUES ( " );
+    for ( int i = 0; i < insertColumns.length; i++ ) {
+      fill.append( i > 0 ? ", ?" : "?" );
+    }
+    data.prepStatementUpsert = prepareUpsertStatement( fill.append( " )" ).toString(), false );
+    if ( updateColumns.length > 0 ) {
+      data.prepStatementUpsertUpdate = prepareUpsertStatement(
+        databaseMeta.getSQLUpsertStagingUpdate( data.schemaTable, stagingTable, keyColumns, updateColumns ), false );
+    }
+    data.prepStatementUpsertInsert = prepareUpsertStatement(
+      databaseMeta.getSQLUpsertStagingInsert( data.schemaTable, stagingTable, keyColumns, insertColumns ), false );
+    data.prepStatementUpsertClear = prepareUpsertStatement( "DELETE FROM " + stagingTable, false );
+  }
+
+  /**
+   * Checks that the connection has the options the upsert statement needs to report what it did with a row. The
+   * options of a JNDI connection are set in the data source.
+   */
+  private void checkUpsertConnectionOptions() throws KettleStepException {
+    DatabaseMeta databaseMeta = meta.getDatabaseMeta();
+    if ( databaseMeta.getAccessType() == DatabaseMeta.TYPE_ACCESS_JNDI ) {
+      return;
+    }
+    Map<String, String> extraOptions = databaseMeta.getExtraOptions();
+    for ( Map.Entry<String, String> option : databaseMeta.getUpsertConnectionOptions().entrySet() ) {
+      String value = environmentSubstitute( extraOptions.get( databaseMeta.getPluginId() + "." + option.getKey() ) );
+      if ( !option.getValue().equalsIgnoreCase( value ) ) {
+        throw new KettleStepException( BaseMessages.getString( PKG,
+          "InsertUpdate.Exception.BulkUpsertConnectionOption", option.getKey(), option.getValue() ) );
+      }
+    }
+  }
+
+  private PreparedStatement prepareUpsertStatement( String sql, boolean returning ) throws KettleDatabaseException {
+    try {
+      if ( log.isDetailed() ) {
+        logDetailed( "Setting upsert preparedStatement to [" + sql + "]" );
+      }
+      String strippedSql = meta.getDatabaseMeta().stripCR( sql );
+      return returning
+        ? data.db.getConnection().prepareStatement( strippedSql, Statement.RETURN_GENERATED_KEYS )
+        : data.db.getConnection().prepareStatement( strippedSql );
+    } catch ( SQLException ex ) {
+      throw new KettleDatabaseException( "Unable to prepare statement for SQL statement [" + sql + "]", ex );
+    }
+  }
+
   public boolean init( StepMetaInterface smi, StepDataInterface sdi ) {
     meta = (InsertUpdateMeta) smi;
     data = (InsertUpdateData) sdi;
@@ -497,6 +783,21 @@ public class InsertUpdate extends BaseDatabaseStep implements StepInterface {
         }
         data.db.closeUpdate();
         data.db.closeInsert();
+        for ( PreparedStatement upsertStatement : new PreparedStatement[] { data.prepStatementUpsert,
+          data.prepStatementUpsertUpdate, data.prepStatementUpsertInsert, data.prepStatementUpsertClear } ) {
+          if ( upsertStatement != null ) {
+            data.db.closePreparedStatement( upsertStatement );
+          }
+        }
+        if ( data.upsertStagingTable != null ) {
+          try {
+            data.db.execStatement( meta.getDatabaseMeta().getDropTableIfExistsStatement( data.upsertStagingTable ) );
+          } catch ( KettleDatabaseException e ) {
+            // The temporary table goes away with the session anyway
+            logError( BaseMessages.getString( PKG, "InsertUpdate.Log.UnableToDropUpsertStagingTable",
+              data.upsertStagingTable ) + e.toString() );
+          }
+        }
       } catch ( KettleDatabaseException e ) {
         logError( BaseMessages.getString( PKG, "InsertUpdate.Log.UnableToCommitConnection" ) + e.toString() );
         setErrors( 1 );
@@ -18,6 +18,8 @@ import org.pentaho.di.trans.step.BaseDatabaseStepData;
 import org.pentaho.di.trans.step.StepDataInterface;
 
 import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Stores data for the Insert/Update step.
@@ -37,12 +39,28 @@ public class InsertUpdateData extends BaseDatabaseStepData implements StepDataIn
 
   public PreparedStatement prepStatementLookup;
   public PreparedStatement prepStatementUpdate;
+  public PreparedStatement prepStatementUpsert;
+  public PreparedStatement prepStatementUpsertUpdate;
+  public PreparedStatement prepStatementUpsertInsert;
+  public PreparedStatement prepStatementUpsertClear;
 
   public RowMetaInterface updateParameterRowMeta;
   public RowMetaInterface lookupParameterRowMeta;
   public RowMetaInterface lookupReturnRowMeta;
   public RowMetaInterface insertRowMeta;
 
+  /** The rows in the current upsert batch, passed on once the batch is written */
+  public List<Object[]> upsertRows;
+  public int upsertBatchSize;
+  /** The keys of the rows in the current upsert batch, a batch can only write a key once */
+  public Set<List<Object>> upsertKeys;
+  /** The indexes of the keys in the inserted rows */
+  public int[] upsertKeyIndexes;
+  /** The temporary table the rows of an upsert batch are merged from, null if the upsert is a single statement */
+  public String upsertStagingTable;
+  /** True if the upsert statement returns whether it inserted each row */
+  public boolean upsertReturning;
+
   /**
    * Default constructor.
    */
@@ -100,6 +100,12 @@ public class InsertUpdateMeta extends BaseDatabaseStepMeta implements StepMetaIn
   @Injection( name = "DO_NOT" )
   private boolean updateBypassed;
 
+  /**
+   * Insert or update the rows a batch at a time with the upsert statement of the database, without looking them up
+   */
+  @Injection( name = "BULK_UPSERT" )
+  private boolean bulkUpsert;
+
   @Injection( name = "CONNECTIONNAME", required = true )
   public void setConnection( String connectionName ) {
     databaseMeta = DatabaseMeta.findDatabase( databases, connectionName );
@@ -239,6 +245,7 @@ public class InsertUpdateMeta extends BaseDatabaseStepMeta implements StepMetaIn
       schemaName = XMLHandler.getTagValue( stepnode, "lookup", "schema" );
       tableName = XMLHandler.getTagValue( stepnode, "lookup", "table" );
       updateBypassed = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "update_bypassed" ) );
+      bulkUpsert = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "bulk_upsert" ) );
 
       Node lookup = XMLHandler.getSubNode( stepnode, "lookup" );
       nrkeys = XMLHandler.countNodes( lookup, "key" );
@@ -318,6 +325,7 @@ public class InsertUpdateMeta extends BaseDatabaseStepMeta implements StepMetaIn
         XMLHandler.addTagValue( "connection", databaseMeta == null ? "" : databaseMeta.getName() ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( "commit", commitSize ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( "update_bypassed", updateBypassed ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( "bulk_upsert", bulkUpsert ) );
     retval.append( "    <lookup>" ).append( Const.CR );
     retval.append( "      " ).append( XMLHandler.addTagValue( "schema", schemaName ) );
     retval.append( "      " ).append( XMLHandler.addTagValue( "table", tableName ) );
@@ -366,6 +374,7 @@ public class InsertUpdateMeta extends BaseDatabaseStepMeta implements StepMetaIn
       schemaName = rep.getStepAttributeString( id_step, "schema" );
       tableName = rep.getStepAttributeString( id_step, "table" );
       updateBypassed = rep.getStepAttributeBoolean( id_step, "update_bypassed" );
+      bulkUpsert = rep.getStepAttributeBoolean( id_step, "bulk_upsert" );
 
       int nrkeys = rep.countNrStepAttributes( id_step, "key_field" );
       int nrvalues = rep.countNrStepAttributes( id_step, "value_name" );
@@ -399,6 +408,7 @@ public class InsertUpdateMeta extends BaseDatabaseStepMeta implements StepMetaIn
       rep.saveStepAttribute( id_transformation, id_step, "schema", schemaName );
       rep.saveStepAttribute( id_transformation, id_step, "table", tableName );
       rep.saveStepAttribute( id_transformation, id_step, "update_bypassed", updateBypassed );
+      rep.saveStepAttribute( id_transformation, id_step, "bulk_upsert", bulkUpsert );
 
       for ( int i = 0; i < keyFields.length; i++ ) {
         rep.saveStepAttribute( id_transformation, id_step, i, "key_name", keyFields[ i ].getKeyStream() );
@@ -794,6 +804,20 @@ public class InsertUpdateMeta extends BaseDatabaseStepMeta implements StepMetaIn
     this.updateBypassed = updateBypassed;
   }
 
+  /**
+   * @return true if the rows are inserted or updated a batch at a time with the upsert statement of the database
+   */
+  public boolean isBulkUpsert() {
+    return bulkUpsert;
+  }
+
+  /**
+   * @param bulkUpsert true to insert or update the rows a batch at a time with the upsert statement of the database
+   */
+  public void setBulkUpsert( boolean bulkUpsert ) {
+    this.bulkUpsert = bulkUpsert;
+  }
+
   public RowMetaInterface getRequiredFields( VariableSpace space ) throws KettleException {
     String realSchemaName = space.environmentSubstitute( schemaName );
     String realTableName = space.environmentSubstitute( tableName );
@@ -268,4 +268,9 @@ public class JavaFilterMeta extends BaseStepMeta implements StepMetaInterface {
   public boolean excludeFromCopyDistributeVerification() {
     return true;
   }
+
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
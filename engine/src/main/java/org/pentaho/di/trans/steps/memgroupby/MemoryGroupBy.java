@@ -27,6 +27,7 @@ import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.exception.KettleValueException;
 import org.pentaho.di.core.row.RowDataUtil;
 import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowKeyEncoder;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.core.row.ValueDataUtil;
 import org.pentaho.di.core.row.ValueMetaInterface;
@@ -34,6 +35,7 @@ import org.pentaho.di.core.row.value.ValueMetaBase;
 import org.pentaho.di.core.row.value.ValueMetaInteger;
 import org.pentaho.di.core.row.value.ValueMetaNumber;
 import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.di.core.vfs.KettleVFS;
 import org.pentaho.di.i18n.BaseMessages;
 import org.pentaho.di.trans.Trans;
 import org.pentaho.di.trans.TransMeta;
@@ -149,6 +151,7 @@ public class MemoryGroupBy extends BaseStep implements StepInterface {
       // Initialize the group metadata
       //
       initGroupMeta( data.inputRowMeta );
+      initHybridAggregation();
 
     }
 
@@ -195,24 +198,18 @@ public class MemoryGroupBy extends BaseStep implements StepInterface {
     // Dump the content of the map...
     //
     for ( HashEntry entry : data.map.keySet() ) {
-      Aggregate aggregate = data.map.get( entry );
-      Object[] aggregateResult = getAggregateResult( aggregate );
-
-      Object[] outputRowData = RowDataUtil.allocateRowData( data.outputRowMeta.size() );
-      int index = 0;
-      for ( int i = 0; i < data.groupMeta.size(); i++ ) {
-        outputRowData[index++] = data.groupMeta.getValueMeta( i ).convertToNormalStorageType( entry.getGroupData()[i] );
-      }
-      for ( int i = 0; i < data.aggMeta.size(); i++ ) {
-        outputRowData[index++] = data.aggMeta.getValueMeta( i ).convertToNormalStorageType( aggregateResult[i] );
-      }
-      putRow( data.outputRowMeta, outputRowData );
+      putGroup( entry.getGroupData(), data.map.get( entry ) );
+    }
+    long nrGroups = data.map.size();
+    if ( data.table != null ) {
+      nrGroups += putTable();
+      nrGroups += aggregateSpillFiles();
     }
 
     // What if we always need to give back one row?
     // This means we give back 0 for count all, count distinct, null for everything else
     //
-    if ( data.map.isEmpty() && meta.isAlwaysGivingBackOneRow() ) {
+    if ( nrGroups == 0 && meta.isAlwaysGivingBackOneRow() ) {
       Object[] outputRowData = RowDataUtil.allocateRowData( data.outputRowMeta.size() );
       int index = 0;
       for ( int i = 0; i < data.groupMeta.size(); i++ ) {
@@ -231,6 +228,139 @@ public class MemoryGroupBy extends BaseStep implements StepInterface {
     }
   }
 
+  private void putGroup( Object[] groupData, Aggregate aggregate ) throws KettleException {
+    Object[] aggregateResult = getAggregateResult( aggregate );
+
+    Object[] outputRowData = RowDataUtil.allocateRowData( data.outputRowMeta.size() );
+    int index = 0;
+    for ( int i = 0; i < data.groupMeta.size(); i++ ) {
+      outputRowData[index++] = data.groupMeta.getValueMeta( i ).convertToNormalStorageType( groupData[i] );
+    }
+    for ( int i = 0; i < data.aggMeta.size(); i++ ) {
+      outputRowData[index++] = data.aggMeta.getValueMeta( i ).convertToNormalStorageType( aggregateResult[i] );
+    }
+    putRow( data.outputRowMeta, outputRowData );
+  }
+
+  /**
+   * Sets up hybrid hash aggregation when a maximum number of groups to keep in memory is set and the group keys can be
+   * serialized.
+   */
+  private void initHybridAggregation() {
+    data.maxGroups = Const.toInt( getVariable( Const.KETTLE_MEMORY_GROUP_BY_MAX_GROUPS, "0" ), 0 );
+    if ( data.maxGroups <= 0 ) {
+      return;
+    }
+    int[] keyIndexes = new int[data.entryMeta.size()];
+    for ( int i = 0; i < keyIndexes.length; i++ ) {
+      keyIndexes[i] = i;
+    }
+    data.keyEncoder = RowKeyEncoder.create( data.entryMeta, keyIndexes );
+    if ( data.keyEncoder == null ) {
+      logBasic( BaseMessages.getString( PKG, "MemoryGroupBy.Log.SpillNotSupported" ) );
+      return;
+    }
+    data.table = new MemoryGroupByTable( Math.min( data.maxGroups, 5000 ) );
+  }
+
+  /**
+   * Looks up the aggregate of a group in the hybrid hash table, creating it if there's room left. Otherwise the row is
+   * written to a spill file.
+   *
+   * @return the aggregate or null if the row was spilled to disk
+   */
+  private Aggregate getTableAggregate( Object[] r, Object[] groupData ) throws KettleException {
+    Object[] keyData = new Object[groupData.length];
+    for ( int i = 0; i < groupData.length; i++ ) {
+      keyData[i] = data.groupMeta.getValueMeta( i ).convertToNormalStorageType( groupData[i] );
+    }
+    byte[] key = data.keyEncoder.encode( keyData );
+    int hash = MemoryGroupByTable.hash( key );
+
+    Aggregate aggregate = data.table.get( key, hash );
+    if ( aggregate == null ) {
+      if ( data.table.size() >= data.maxGroups ) {
+        spillRow( r, MemoryGroupByTable.partition( hash, data.spillLevel ) );
+        return null;
+      }
+      aggregate = new Aggregate();
+      newAggregate( r, aggregate );
+      data.table.put( key, hash, groupData, aggregate );
+    }
+    return aggregate;
+  }
+
+  private void spillRow( Object[] r, int partition ) throws KettleException {
+    if ( data.spillFiles == null ) {
+      data.spillFiles = new MemoryGroupBySpillFile[MemoryGroupByTable.NR_PARTITIONS];
+    }
+    MemoryGroupBySpillFile file = data.spillFiles[partition];
+    if ( file == null ) {
+      if ( log.isDetailed() ) {
+        logDetailed( BaseMessages.getString( PKG, "MemoryGroupBy.Log.SpillingPartition", partition, data.spillLevel ) );
+      }
+      file = new MemoryGroupBySpillFile( KettleVFS.getInstance( getTransMeta().getBowl() ).createTempFile( "memgroupby",
+        ".tmp", System.getProperty( "java.io.tmpdir" ), this ), data.inputRowMeta );
+      data.spillFiles[partition] = file;
+    }
+    file.writeRow( r );
+  }
+
+  /**
+   * Passes on all the groups in the hash table and empties it.
+   *
+   * @return the number of groups passed on
+   */
+  private long putTable() throws KettleException {
+    long nrGroups = data.table.size();
+    for ( int slot = 0; slot < data.table.capacity(); slot++ ) {
+      Object[] groupData = data.table.getGroupData( slot );
+      if ( groupData != null ) {
+        putGroup( groupData, data.table.getAggregate( slot ) );
+      }
+    }
+    data.table.clear();
+    return nrGroups;
+  }
+
+  /**
+   * Aggregates the rows of each spill file in turn. The groups of a file that don't fit in memory are spilled again
+   * over new files using other bits of the hash, and so on.
+   *
+   * @return the number of groups passed on
+   */
+  private long aggregateSpillFiles() throws KettleException {
+    MemoryGroupBySpillFile[] files = data.spillFiles;
+    data.spillFiles = null;
+    if ( files == null ) {
+      return 0L;
+    }
+
+    long nrGroups = 0L;
+    int level = data.spillLevel;
+    try {
+      for ( int i = 0; i < files.length && !isStopped(); i++ ) {
+        if ( files[i] == null ) {
+          continue;
+        }
+        data.spillLevel = level + 1;
+        files[i].startReading();
+        for ( Object[] r = files[i].readRow(); r != null; r = files[i].readRow() ) {
+          addToAggregate( r );
+        }
+        files[i].delete();
+        files[i] = null;
+
+        nrGroups += putTable();
+        nrGroups += aggregateSpillFiles();
+      }
+    } finally {
+      data.spillLevel = level;
+      MemoryGroupByData.deleteSpillFiles( files );
+    }
+    return nrGroups;
+  }
+
   @VisibleForTesting
   void updateValueMeta() throws KettleException {
 
@@ -258,18 +388,26 @@ public class MemoryGroupBy extends BaseStep implements StepInterface {
     for ( int i = 0; i < data.groupnrs.length; i++ ) {
       groupData[i] = r[data.groupnrs[i]];
     }
-    HashEntry entry = data.getHashEntry( groupData );
-
-    Aggregate aggregate = data.map.get( entry );
-    if ( aggregate == null ) {
-      // Create a new value...
-      //
-      aggregate = new Aggregate();
-      newAggregate( r, aggregate );
+    Aggregate aggregate;
+    if ( data.table != null ) {
+      aggregate = getTableAggregate( r, groupData );
+      if ( aggregate == null ) {
+        return; // spilled to disk, we'll aggregate it later
+      }
+    } else {
+      HashEntry entry = data.getHashEntry( groupData );
 
-      // Store it in the map!
-      //
-      data.map.put( entry, aggregate );
+      aggregate = data.map.get( entry );
+      if ( aggregate == null ) {
+        // Create a new value...
+        //
+        aggregate = new Aggregate();
+        newAggregate( r, aggregate );
+
+        // Store it in the map!
+        //
+        data.map.put( entry, aggregate );
+      }
     }
 
     for ( int i = 0; i < data.subjectnrs.length; i++ ) {
@@ -494,6 +632,7 @@ public class MemoryGroupBy extends BaseStep implements StepInterface {
 
       ValueMetaInterface normalMeta = valueMeta.clone();
       normalMeta.setStorageType( ValueMetaInterface.STORAGE_TYPE_NORMAL );
+      data.entryMeta.addValueMeta( normalMeta );
     }
 
     return;
@@ -16,6 +16,7 @@ package org.pentaho.di.trans.steps.memgroupby;
 import java.util.HashMap;
 
 import org.pentaho.di.core.exception.KettleValueException;
+import org.pentaho.di.core.row.RowKeyEncoder;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.core.row.ValueMetaInterface;
 import org.pentaho.di.trans.step.BaseStepData;
@@ -90,6 +91,16 @@ public class MemoryGroupByData extends BaseStepData implements StepDataInterface
 
   public boolean newBatch;
 
+  /*
+   * Hybrid hash aggregation: at most maxGroups groups are kept in the table, the rows of the other groups are written
+   * to one of the spill files depending on the hash of their key and aggregated later on.
+   */
+  public int maxGroups;
+  RowKeyEncoder keyEncoder;
+  MemoryGroupByTable table;
+  MemoryGroupBySpillFile[] spillFiles;
+  int spillLevel;
+
   public MemoryGroupByData() {
     super();
 
@@ -104,5 +115,20 @@ public class MemoryGroupByData extends BaseStepData implements StepDataInterface
    */
   public void clear() {
     map = new HashMap<MemoryGroupByData.HashEntry, Aggregate>();
+    if ( table != null ) {
+      table.clear();
+    }
+    deleteSpillFiles( spillFiles );
+    spillFiles = null;
+  }
+
+  static void deleteSpillFiles( MemoryGroupBySpillFile[] files ) {
+    if ( files != null ) {
+      for ( MemoryGroupBySpillFile file : files ) {
+        if ( file != null ) {
+          file.delete();
+        }
+      }
+    }
   }
 }
@@ -576,4 +576,9 @@ public class MemoryGroupByMeta extends BaseStepMeta implements StepMetaInterface
     int[][] normalizedIntArrays = Utils.normalizeArrays( nrFields, aggregateType );
     aggregateType = normalizedIntArrays[ 0 ];
   }
+
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
@@ -0,0 +1,97 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.memgroupby;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.apache.commons.vfs2.FileObject;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.exception.KettleFileException;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.vfs.KettleVFS;
+import org.pentaho.di.trans.step.BaseStep;
+
+/**
+ * A temporary file with the input rows of the groups that didn't fit in memory for one hash partition.
+ */
+class MemoryGroupBySpillFile {
+  private final FileObject file;
+  private final RowMetaInterface rowMeta;
+  private DataOutputStream outputStream;
+  private DataInputStream inputStream;
+  private long nrRows;
+
+  MemoryGroupBySpillFile( FileObject file, RowMetaInterface rowMeta ) throws KettleException {
+    this.file = file;
+    this.rowMeta = rowMeta;
+    try {
+      outputStream =
+        new DataOutputStream( new BufferedOutputStream( KettleVFS.getOutputStream( file, false ), 65536 ) );
+    } catch ( IOException e ) {
+      throw new KettleFileException( e );
+    }
+  }
+
+  void writeRow( Object[] row ) throws KettleFileException {
+    rowMeta.writeData( outputStream, row );
+    nrRows++;
+  }
+
+  /**
+   * Closes the file for writing, after this the rows can be read back in the order in which they were written.
+   */
+  void startReading() throws KettleException {
+    try {
+      outputStream.close();
+      outputStream = null;
+      inputStream = new DataInputStream( new BufferedInputStream( KettleVFS.getInputStream( file ), 65536 ) );
+    } catch ( IOException e ) {
+      throw new KettleFileException( e );
+    }
+  }
+
+  /**
+   * @return the next row or null if all the rows were read
+   */
+  Object[] readRow() throws KettleException {
+    if ( nrRows <= 0 ) {
+      return null;
+    }
+    nrRows--;
+    try {
+      return rowMeta.readData( inputStream );
+    } catch ( IOException e ) {
+      throw new KettleFileException( e );
+    }
+  }
+
+  /**
+   * Closes and removes the file.
+   */
+  void delete() {
+    BaseStep.closeQuietly( outputStream );
+    BaseStep.closeQuietly( inputStream );
+    outputStream = null;
+    inputStream = null;
+    try {
+      file.delete();
+    } catch ( IOException e ) {
+      // ignore: a temporary file we can't remove is no reason to fail the transformation
+    }
+  }
+}
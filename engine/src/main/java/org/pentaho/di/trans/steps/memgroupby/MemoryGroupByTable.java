@@ -0,0 +1,154 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.memgroupby;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing (linear probing) hash table from serialized group keys to their aggregates. Compared to a
+ * HashMap with HashEntry keys this avoids an entry and a key object per group and compares keys as byte arrays.
+ */
+class MemoryGroupByTable {
+  private static final int PARTITION_BITS = 4;
+
+  /** The number of spill partitions used per level */
+  static final int NR_PARTITIONS = 1 << PARTITION_BITS;
+
+  private byte[][] keys;
+  private int[] hashes;
+  private Object[][] groups;
+  private Aggregate[] aggregates;
+  private int size;
+
+  MemoryGroupByTable( int expectedSize ) {
+    int capacity = 16;
+    while ( capacity < expectedSize * 2 ) {
+      capacity <<= 1;
+    }
+    allocate( capacity );
+  }
+
+  private void allocate( int capacity ) {
+    keys = new byte[ capacity ][];
+    hashes = new int[ capacity ];
+    groups = new Object[ capacity ][];
+    aggregates = new Aggregate[ capacity ];
+  }
+
+  /**
+   * @return a well spread hash code of a key
+   */
+  static int hash( byte[] key ) {
+    return mix( Arrays.hashCode( key ) );
+  }
+
+  /**
+   * Rows that end up in the same partition at one level are spread over all the partitions of the next level.
+   *
+   * @param hash  the hash of the key
+   * @param level the spill level, 0 for the rows from the input
+   * @return the partition of the key for the level, between 0 and {@link #NR_PARTITIONS}
+   */
+  static int partition( int hash, int level ) {
+    return mix( hash + ( level + 1 ) * 0x9E3779B9 ) >>> ( 32 - PARTITION_BITS );
+  }
+
+  private static int mix( int h ) {
+    h ^= h >>> 16;
+    h *= 0x85EBCA6B;
+    h ^= h >>> 13;
+    h *= 0xC2B2AE35;
+    h ^= h >>> 16;
+    return h;
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * @return the aggregate of the group or null if the group isn't in the table
+   */
+  Aggregate get( byte[] key, int hash ) {
+    int mask = keys.length - 1;
+    for ( int slot = hash & mask; keys[ slot ] != null; slot = ( slot + 1 ) & mask ) {
+      if ( hashes[ slot ] == hash && Arrays.equals( keys[ slot ], key ) ) {
+        return aggregates[ slot ];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Adds a group that isn't in the table yet.
+   */
+  void put( byte[] key, int hash, Object[] groupData, Aggregate aggregate ) {
+    if ( ( size + 1 ) * 4 > keys.length * 3 ) {
+      grow();
+    }
+    insert( key, hash, groupData, aggregate );
+    size++;
+  }
+
+  private void insert( byte[] key, int hash, Object[] groupData, Aggregate aggregate ) {
+    int mask = keys.length - 1;
+    int slot = hash & mask;
+    while ( keys[ slot ] != null ) {
+      slot = ( slot + 1 ) & mask;
+    }
+    keys[ slot ] = key;
+    hashes[ slot ] = hash;
+    groups[ slot ] = groupData;
+    aggregates[ slot ] = aggregate;
+  }
+
+  private void grow() {
+    byte[][] oldKeys = keys;
+    int[] oldHashes = hashes;
+    Object[][] oldGroups = groups;
+    Aggregate[] oldAggregates = aggregates;
+    allocate( oldKeys.length * 2 );
+    for ( int i = 0; i < oldKeys.length; i++ ) {
+      if ( oldKeys[ i ] != null ) {
+        insert( oldKeys[ i ], oldHashes[ i ], oldGroups[ i ], oldAggregates[ i ] );
+      }
+    }
+  }
+
+  /**
+   * @return the number of slots, use with {@link #getGroupData(int)} and {@link #getAggregate(int)} to visit all the
+   *         groups
+   */
+  int capacity() {
+    return keys.length;
+  }
+
+  /**
+   * @return the group data in a slot or null if the slot is empty
+   */
+  Object[] getGroupData( int slot ) {
+    return groups[ slot ];
+  }
+
+  Aggregate getAggregate( int slot ) {
+    return aggregates[ slot ];
+  }
+
+  void clear() {
+    Arrays.fill( keys, null );
+    Arrays.fill( groups, null );
+    Arrays.fill( aggregates, null );
+    size = 0;
+  }
+}
@@ -341,4 +341,9 @@ public class MergeJoinMeta extends BaseStepMeta implements StepMetaInterface {
   public TransformationType[] getSupportedTransformationTypes() {
     return new TransformationType[]{ TransformationType.Normal, };
   }
+
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
@@ -402,4 +402,9 @@ public class MergeRowsMeta extends BaseStepMeta implements StepMetaInterface {
   public StepHelperInterface getStepHelperInterface() {
     return new MergeRowsHelper( this );
   }
+
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
@@ -488,4 +488,9 @@ public class NormaliserMeta extends BaseStepMeta implements StepMetaInterface {
       }
     }
   }
+
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
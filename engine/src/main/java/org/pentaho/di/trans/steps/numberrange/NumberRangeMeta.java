@@ -280,4 +280,9 @@ public class NumberRangeMeta extends BaseStepMeta implements StepMetaInterface {
   public boolean supportsErrorHandling() {
     return true;
   }
+
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
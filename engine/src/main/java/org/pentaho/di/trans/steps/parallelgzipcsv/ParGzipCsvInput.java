@@ -14,17 +14,26 @@
 package org.pentaho.di.trans.steps.parallelgzipcsv;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.zip.GZIPInputStream;
 
+import com.google.common.annotations.VisibleForTesting;
 import org.apache.commons.vfs2.FileObject;
 import org.pentaho.di.core.ResultFile;
+import org.pentaho.di.core.compress.bgzf.BGZFIndex;
+import org.pentaho.di.core.compress.bgzf.BGZFInputStream;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.exception.KettleFileException;
 import org.pentaho.di.core.row.RowDataUtil;
 import org.pentaho.di.core.row.RowMeta;
 import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.util.ManagedBlocking;
 import org.pentaho.di.core.util.Utils;
 import org.pentaho.di.core.vfs.KettleVFS;
 import org.pentaho.di.i18n.BaseMessages;
@@ -45,6 +54,19 @@ import org.pentaho.di.trans.step.StepMetaInterface;
 public class ParGzipCsvInput extends BaseStep implements StepInterface {
   private static Class<?> PKG = ParGzipCsvInputMeta.class; // for i18n purposes, needed by Translator2!!
 
+  /**
+   * The minimum amount of uncompressed data in the chunks of a BGZF file that are handed out to the step copies.
+   */
+  static final long BGZF_CHUNK_SIZE = 8L * 1024 * 1024;
+
+  /**
+   * The key of the BGZF indexes shared by the copies of a step in the extension data of the transformation.
+   */
+  private static final String BGZF_INDEXES_KEY = "ParGzipCsvInput.BGZFIndexes:";
+
+  @VisibleForTesting
+  long bgzfChunkSize = BGZF_CHUNK_SIZE;
+
   private ParGzipCsvInputMeta meta;
   private ParGzipCsvInputData data;
 
@@ -158,6 +180,14 @@ public class ParGzipCsvInput extends BaseStep implements StepInterface {
     if ( data.eofReached ) {
       return true; // next file please!
     }
+
+    // With a block gzip file we can start decompressing right at our next chunk.
+    //
+    if ( data.bgzfIndex != null ) {
+      data.bgzfChunkNr += data.totalNumberOfSteps;
+      return !openBgzfChunk();
+    }
+
     // Reset the bytes read in the current block of data
     //
     data.totalBytesRead = 0L;
@@ -279,7 +309,19 @@ public class ParGzipCsvInput extends BaseStep implements StepInterface {
         data.binaryFilename = data.filenames[data.filenr].getBytes();
       }
 
-      data.gzis = new GZIPInputStream( data.fis, data.bufferSize );
+      // A block gzip (BGZF) file can be split: every step copy only decompresses the chunks it's going to read.
+      //
+      data.bgzfIndex = null;
+      if ( data.parallel ) {
+        data.bgzfIndex = getBgzfIndex( fileObject );
+      }
+      data.bgzfFile = fileObject;
+
+      if ( data.bgzfIndex == null ) {
+        data.gzis = new GZIPInputStream( data.fis, data.bufferSize );
+      } else {
+        data.gzis = null; // the chunks are opened one at a time, see openBgzfChunk()
+      }
 
       clearBuffer();
       data.fileReadPosition = 0L;
@@ -292,7 +334,14 @@ public class ParGzipCsvInput extends BaseStep implements StepInterface {
 
       // If we are running in parallel and we need to skip bytes in the first file, let's do so here.
       //
-      if ( data.parallel ) {
+      if ( data.bgzfIndex != null ) {
+        data.bgzfChunkNr = data.stepNumber;
+        if ( !openBgzfChunk() ) {
+          // There is no chunk in this file for this step copy
+          data.eofReached = true;
+          return false;
+        }
+      } else if ( data.parallel ) {
         // Calculate the first block of data to read from the file
         // If the buffer size is 500, we read 0-499 for the first file,
         // 500-999 for the second, 1000-1499 for the third, etc.
@@ -384,6 +433,123 @@ public class ParGzipCsvInput extends BaseStep implements StepInterface {
     }
   }
 
+  /**
+   * Gets the BGZF index of the file, shared by all the copies of this step. The first copy to open the file reads the
+   * index, the other copies wait for it. Without a ".gzi" file the whole file needs to be scanned, which we only want
+   * to do once and not once per step copy.
+   *
+   * @return the index or null if the file is not block gzip compressed.
+   */
+  private BGZFIndex getBgzfIndex( FileObject fileObject ) throws KettleException {
+    CompletableFuture<BGZFIndex> index = new CompletableFuture<>();
+    CompletableFuture<BGZFIndex> sharedIndex =
+      getSharedBgzfIndexes().putIfAbsent( KettleVFS.getFilename( fileObject ), index );
+    if ( sharedIndex == null ) {
+      try {
+        index.complete( readBgzfIndex( fileObject ) );
+      } catch ( KettleException | RuntimeException e ) {
+        index.completeExceptionally( e );
+        throw e;
+      }
+      return index.join();
+    }
+
+    try {
+      return ManagedBlocking.await( sharedIndex::join );
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new KettleException( e );
+    } catch ( CompletionException e ) {
+      if ( e.getCause() instanceof KettleException ) {
+        throw (KettleException) e.getCause();
+      }
+      throw new KettleException( e.getCause() );
+    }
+  }
+
+  @SuppressWarnings( "unchecked" )
+  private Map<String, CompletableFuture<BGZFIndex>> getSharedBgzfIndexes() {
+    Map<String, Object> extensionData = getTrans().getExtensionDataMap();
+    synchronized ( extensionData ) {
+      return (Map<String, CompletableFuture<BGZFIndex>>) extensionData.computeIfAbsent( BGZF_INDEXES_KEY
+        + getStepname(), key -> new ConcurrentHashMap<String, CompletableFuture<BGZFIndex>>() );
+    }
+  }
+
+  /**
+   * Reads the BGZF index of the file: the companion ".gzi" file if there is one, otherwise we scan the block headers.
+   *
+   * @return the index or null if the file is not block gzip compressed.
+   */
+  @VisibleForTesting
+  BGZFIndex readBgzfIndex( FileObject fileObject ) throws KettleException {
+    try {
+      BGZFIndex index;
+      FileObject gziFile = KettleVFS.getInstance( getTransMeta().getBowl() )
+        .getFileObject( KettleVFS.getFilename( fileObject ) + ".gzi", getTransMeta() );
+      if ( gziFile.exists() ) {
+        try ( InputStream in = KettleVFS.getInputStream( gziFile ) ) {
+          index = BGZFIndex.readGzi( in, bgzfChunkSize );
+        }
+      } else {
+        try ( InputStream in = KettleVFS.getInputStream( fileObject ) ) {
+          index = BGZFIndex.scan( in, bgzfChunkSize );
+        }
+      }
+      if ( index != null && log.isBasic() ) {
+        logBasic( BaseMessages.getString( PKG, "ParGzipCsvInput.Log.BGZFIndexRead", fileObject.getName()
+          .getBaseName(), Integer.toString( index.getNrChunks() ) ) );
+      }
+      return index;
+    } catch ( Exception e ) {
+      throw new KettleException( BaseMessages.getString(
+        PKG, "ParGzipCsvInput.Exception.ErrorReadingBGZFIndex", fileObject.getName().getBaseName() ), e );
+    }
+  }
+
+  /**
+   * Starts decompressing the current BGZF chunk (data.bgzfChunkNr). The chunk is read from its first block until the
+   * first row that starts after the end of the chunk. As with the other blocks, the first partial row of a chunk is
+   * skipped since it's read by the step copy that handles the previous chunk.
+   *
+   * @return false if the chunk is past the end of the file
+   */
+  private boolean openBgzfChunk() throws KettleException {
+    try {
+      // Close the stream of the previous chunk, or the stream opened to check the file
+      //
+      if ( data.gzis != null ) {
+        data.gzis.close();
+        data.gzis = null;
+      } else if ( data.fis != null ) {
+        data.fis.close();
+      }
+      if ( data.bgzfChunkNr >= data.bgzfIndex.getNrChunks() ) {
+        data.eofReached = true;
+        return false;
+      }
+
+      data.fis = KettleVFS.getInputStream( data.bgzfFile );
+      BGZFIndex.skipFully( data.fis, data.bgzfIndex.getCompressedOffset( data.bgzfChunkNr ) );
+      data.gzis = new BGZFInputStream( data.fis );
+
+      long start = data.bgzfIndex.getUncompressedOffset( data.bgzfChunkNr );
+      clearBuffer();
+      data.eofReached = false;
+      data.fileReadPosition = start;
+      data.blockSize = data.bgzfIndex.getUncompressedEnd( data.bgzfChunkNr ) - start;
+      data.totalBytesRead = 0L;
+
+      if ( start > 0 || meta.isHeaderPresent() ) {
+        // Skip the partial first row or the header
+        readOneRow( false );
+      }
+      return true;
+    } catch ( IOException e ) {
+      throw new KettleException( "Error opening chunk " + data.bgzfChunkNr + " of a block gzip file", e );
+    }
+  }
+
   private void clearBuffer() {
     data.startBuffer = 0;
     data.endBuffer = 0;
@@ -15,8 +15,9 @@ package org.pentaho.di.trans.steps.parallelgzipcsv;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.zip.GZIPInputStream;
 
+import org.apache.commons.vfs2.FileObject;
+import org.pentaho.di.core.compress.bgzf.BGZFIndex;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.trans.step.BaseStepData;
@@ -46,7 +47,7 @@ public class ParGzipCsvInputData extends BaseStepData implements StepDataInterfa
   public boolean parallel;
   public int filenameFieldIndex;
   public int rownumFieldIndex;
-  public GZIPInputStream gzis;
+  public InputStream gzis;
   public int bufferSize;
   public byte[] delimiter;
   public byte[] enclosure;
@@ -66,6 +67,11 @@ public class ParGzipCsvInputData extends BaseStepData implements StepDataInterfa
   public long fileReadPosition;
   public int blockNr;
 
+  /** The chunks of the current file if it's block gzip compressed and we're reading in parallel, null otherwise */
+  public BGZFIndex bgzfIndex;
+  public FileObject bgzfFile;
+  public int bgzfChunkNr;
+
   public ParGzipCsvInputData() {
     super();
     startBuffer = 0;
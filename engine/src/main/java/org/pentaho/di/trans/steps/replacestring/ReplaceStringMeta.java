@@ -529,4 +529,8 @@ public class ReplaceStringMeta extends BaseStepMeta implements StepMetaInterface
     isUnicode = rtnBooleanArrays[ 4 ];
   }
 
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
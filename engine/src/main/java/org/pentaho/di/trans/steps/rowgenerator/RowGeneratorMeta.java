@@ -568,4 +568,10 @@ public class RowGeneratorMeta extends BaseStepMeta implements StepMetaInterface
     this.value = value;
   }
 
+  @Override
+  public boolean isBlocking() {
+    // Sleeps between the rows
+    //
+    return isNeverEnding();
+  }
 }
@@ -189,4 +189,8 @@ public class SampleRowsMeta extends BaseStepMeta implements StepMetaInterface {
     return new SampleRowsData();
   }
 
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
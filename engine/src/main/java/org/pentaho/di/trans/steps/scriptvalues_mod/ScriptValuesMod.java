@@ -232,14 +232,7 @@ public class ScriptValuesMod extends BaseStep implements StepInterface {
             Scriptable jsarg = Context.toObject( data.values_used[ i ], data.scope );
             data.scope.put( valueMeta.getName(), data.scope, jsarg );
           } else {
-            Object normalStorageValueData = valueMeta.convertToNormalStorageType( valueData );
-            Scriptable jsarg;
-            if ( normalStorageValueData != null ) {
-              jsarg = Context.toObject( normalStorageValueData, data.scope );
-            } else {
-              jsarg = null;
-            }
-            data.scope.put( valueMeta.getName(), data.scope, jsarg );
+            putFieldValue( valueMeta, valueData );
           }
         }
 
@@ -247,6 +240,7 @@ public class ScriptValuesMod extends BaseStep implements StepInterface {
         //
         Scriptable jsrowMeta = Context.toObject( rowMeta, data.scope );
         data.scope.put( "rowMeta", data.scope, jsrowMeta );
+        data.jsRowMeta = jsrowMeta;
 
         // Modification for Additional Script parsing
         //
@@ -358,19 +352,12 @@ public class ScriptValuesMod extends BaseStep implements StepInterface {
             Scriptable jsarg = Context.toObject( data.values_used[ i ], data.scope );
             data.scope.put( valueMeta.getName(), data.scope, jsarg );
           } else {
-            Object normalStorageValueData = valueMeta.convertToNormalStorageType( valueData );
-            Scriptable jsarg;
-            if ( normalStorageValueData != null ) {
-              jsarg = Context.toObject( normalStorageValueData, data.scope );
-            } else {
-              jsarg = null;
-            }
-            data.scope.put( valueMeta.getName(), data.scope, jsarg );
+            putFieldValue( valueMeta, valueData );
           }
         }
 
         // also add the meta information for the hole row
-        Scriptable jsrowMeta = Context.toObject( rowMeta, data.scope );
+        Scriptable jsrowMeta = isPrimitiveValues() ? data.jsRowMeta : Context.toObject( rowMeta, data.scope );
         data.scope.put( "rowMeta", data.scope, jsrowMeta );
       } catch ( Exception e ) {
         throw new KettleValueException( BaseMessages.getString( PKG, "ScriptValuesMod.Log.UnexpectedeError" ), e );
@@ -470,6 +457,27 @@ public class ScriptValuesMod extends BaseStep implements StepInterface {
     return bRC;
   }
 
+  private boolean isPrimitiveValues() {
+    return meta.isPrimitiveValues() && !meta.isCompatible();
+  }
+
+  /**
+   * Puts the value of a used field in the scope. Strings, numbers and booleans are wrapped in a new JavaScript object
+   * for every row, unless the step passes them as primitives. Other values are wrapped as Java objects either way.
+   */
+  private void putFieldValue( ValueMetaInterface valueMeta, Object valueData ) throws KettleValueException {
+    Object normalStorageValueData = valueMeta.convertToNormalStorageType( valueData );
+    Object jsarg;
+    if ( normalStorageValueData == null ) {
+      jsarg = null;
+    } else if ( isPrimitiveValues() ) {
+      jsarg = Context.javaToJS( normalStorageValueData, data.scope );
+    } else {
+      jsarg = Context.toObject( normalStorageValueData, data.scope );
+    }
+    data.scope.put( valueMeta.getName(), data.scope, jsarg );
+  }
+
   public Object getValueFromJScript( Object result, int i ) throws KettleValueException {
     String fieldName = meta.getFieldname()[ i ];
     if ( !Utils.isEmpty( fieldName ) ) {
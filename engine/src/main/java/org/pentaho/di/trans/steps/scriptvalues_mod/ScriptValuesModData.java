@@ -34,6 +34,9 @@ public class ScriptValuesModData extends BaseStepData implements StepDataInterfa
   public int[] fields_used;
   public Value[] values_used;
 
+  /** The wrapped row metadata, reused for every row when the field values are passed as primitives */
+  public Scriptable jsRowMeta;
+
   public RowMetaInterface outputRowMeta;
   public int[] replaceIndex;
 
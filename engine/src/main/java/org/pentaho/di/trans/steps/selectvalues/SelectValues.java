@@ -23,9 +23,10 @@ import org.pentaho.di.core.Const;
 import org.pentaho.di.core.exception.KettleConversionException;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.exception.KettleValueException;
-import org.pentaho.di.core.row.RowDataUtil;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.columnar.ColumnarRowBatch;
+import org.pentaho.di.core.row.columnar.ObjectColumnVector;
 import org.pentaho.di.core.util.EnvUtil;
 import org.pentaho.di.core.util.Utils;
 import org.pentaho.di.i18n.BaseMessages;
@@ -138,7 +139,7 @@ public class SelectValues extends BaseStep implements StepInterface {
     }
 
     // Create a new output row
-    Object[] outputData = new Object[ data.selectRowMeta.size() ];
+    Object[] outputData = allocateRowData( data.selectRowMeta.size() );
     int outputIndex = 0;
 
     // Get the field values
@@ -222,7 +223,7 @@ public class SelectValues extends BaseStep implements StepInterface {
      * Remove the field values Take into account that field indexes change once you remove them!!! Therefore removenrs
      * is sorted in reverse on index...
      */
-    return RowDataUtil.removeItems( rowData, data.removenrs );
+    return removeRowData( rowData, data.removenrs );
   }
 
   /**
@@ -331,23 +332,20 @@ public class SelectValues extends BaseStep implements StepInterface {
     meta = (SelectValuesMeta) smi;
     data = (SelectValuesData) sdi;
 
-    Object[] rowData = getRow(); // get row from rowset, wait for our turn, indicate busy!
-    if ( rowData == null ) { // no more input to be expected...
+    // get rows from rowset, wait for our turn, indicate busy!
+    ColumnarRowBatch batch = null;
+    Object[][] rows = null;
+    if ( isColumnarExecution() ) {
+      batch = getBatch( ROW_BATCH_SIZE );
+    } else {
+      rows = getRows( ROW_BATCH_SIZE );
+    }
+    if ( batch == null && rows == null ) { // no more input to be expected...
 
       setOutputDone();
       return false;
     }
 
-    Object[] rowCopy = null;
-    if ( getStepMeta().isDoingErrorHandling() ) {
-      rowCopy = getInputRowMeta().cloneRow( rowData );
-    }
-
-    if ( log.isRowLevel() ) {
-      logRowlevel( BaseMessages.getString( PKG, "SelectValues.Log.GotRowFromPreviousStep" )
-        + getInputRowMeta().getString( rowData ) );
-    }
-
     if ( first ) {
       first = false;
 
@@ -359,11 +357,74 @@ public class SelectValues extends BaseStep implements StepInterface {
       meta.getMetadataFields( data.metadataRowMeta, getStepname(), this );
     }
 
+    if ( batch != null ) {
+      ColumnarRowBatch projected = projectBatch( batch );
+      if ( projected != null ) {
+        putBatch( data.metadataRowMeta, projected );
+        long linesRead = getLinesRead();
+        if ( checkFeedback( linesRead - batch.size(), linesRead ) ) {
+          logBasic( BaseMessages.getString( PKG, "SelectValues.Log.LineNumber" ) + linesRead );
+        }
+        return true;
+      }
+      rows = batch.toRows();
+    }
+
+    if ( data.outputRows == null || data.outputRows.length < rows.length ) {
+      data.outputRows = new Object[ rows.length ][];
+    }
+    data.nrOutputRows = 0;
+
+    try {
+      for ( Object[] rowData : rows ) {
+        if ( !processSingleRow( rowData ) ) {
+          // Still send the rows we already have on their way
+          putRows( data.metadataRowMeta, data.outputRows, data.nrOutputRows );
+          setOutputDone(); // signal end to receiver(s)
+          return false;
+        }
+      }
+
+      // Send the rows on their way
+      //
+      putRows( data.metadataRowMeta, data.outputRows, data.nrOutputRows );
+    } finally {
+      Arrays.fill( data.outputRows, 0, data.nrOutputRows, null );
+    }
+
+    long linesRead = getLinesRead();
+    if ( checkFeedback( linesRead - rows.length, linesRead ) ) {
+      logBasic( BaseMessages.getString( PKG, "SelectValues.Log.LineNumber" ) + linesRead );
+    }
+
+    return true;
+  }
+
+  /**
+   * Applies the selection, removal and metadata changes to a single row and adds the result to the output batch.
+   *
+   * @return false if no more rows can be processed.
+   */
+  private boolean processSingleRow( Object[] rowData ) throws KettleException {
+    Object[] rowCopy = null;
+    if ( getStepMeta().isDoingErrorHandling() ) {
+      rowCopy = getInputRowMeta().cloneRow( rowData );
+    }
+
+    if ( log.isRowLevel() ) {
+      logRowlevel( BaseMessages.getString( PKG, "SelectValues.Log.GotRowFromPreviousStep" )
+        + getInputRowMeta().getString( rowData ) );
+    }
+
     try {
       Object[] outputData = rowData;
 
       if ( data.select ) {
         outputData = selectValues( getInputRowMeta(), outputData );
+        if ( outputData != null ) {
+          // The selected values were copied into a new row
+          releaseRow( rowData );
+        }
       }
       if ( data.deselect ) {
         outputData = removeValues( data.selectRowMeta, outputData );
@@ -373,13 +434,12 @@ public class SelectValues extends BaseStep implements StepInterface {
       }
 
       if ( outputData == null ) {
-        setOutputDone(); // signal end to receiver(s)
         return false;
       }
 
-      // Send the row on its way
+      // Send the row on its way with the rest of the batch
       //
-      putRow( data.metadataRowMeta, outputData );
+      data.outputRows[ data.nrOutputRows++ ] = outputData;
       if ( log.isRowLevel() ) {
         logRowlevel( BaseMessages.getString( PKG, "SelectValues.Log.WroteRowToNextStep" )
           + data.metadataRowMeta.getString( outputData ) );
@@ -400,11 +460,63 @@ public class SelectValues extends BaseStep implements StepInterface {
       }
     }
 
-    if ( checkFeedback( getLinesRead() ) ) {
-      logBasic( BaseMessages.getString( PKG, "SelectValues.Log.LineNumber" ) + getLinesRead() );
+    return true;
+  }
+
+  /**
+   * Selecting and removing fields only moves values around, on a columnar batch that is a projection of the column
+   * vectors. The field indexes are only known after the first row went through the row based code, metadata changes
+   * and row level logging always go row by row.
+   *
+   * @return the projected batch or null if the batch needs to be processed row by row
+   */
+  private ColumnarRowBatch projectBatch( ColumnarRowBatch batch ) {
+    if ( data.metadata || log.isRowLevel() || ( data.select && data.firstselect )
+      || ( data.deselect && data.firstdeselect ) ) {
+      return null;
     }
 
-    return true;
+    if ( data.columnarProjection == null ) {
+      int[] projection;
+      if ( data.select ) {
+        projection = new int[ data.fieldnrs.length + data.extraFieldnrs.length ];
+        System.arraycopy( data.fieldnrs, 0, projection, 0, data.fieldnrs.length );
+        System.arraycopy( data.extraFieldnrs, 0, projection, data.fieldnrs.length, data.extraFieldnrs.length );
+      } else {
+        projection = new int[ getInputRowMeta().size() ];
+        for ( int i = 0; i < projection.length; i++ ) {
+          projection[ i ] = i;
+        }
+      }
+      if ( data.deselect ) {
+        // removenrs is sorted and refers to positions in the selected fields
+        //
+        int[] kept = new int[ projection.length ];
+        int nrKept = 0;
+        for ( int i = 0; i < projection.length; i++ ) {
+          if ( Arrays.binarySearch( data.removenrs, i ) < 0 ) {
+            kept[ nrKept++ ] = projection[ i ];
+          }
+        }
+        projection = Arrays.copyOf( kept, nrKept );
+      }
+      data.columnarProjection = projection;
+    }
+
+    // The row version clones the values of the selected fields. The primitive and string vectors hold immutable
+    // values, other values are only safe to share if the field appears once.
+    //
+    boolean[] used = new boolean[ batch.getColumnCount() ];
+    for ( int index : data.columnarProjection ) {
+      if ( index >= used.length ) {
+        return null;
+      }
+      if ( used[ index ] && batch.getColumn( index ) instanceof ObjectColumnVector ) {
+        return null;
+      }
+      used[ index ] = true;
+    }
+    return batch.project( data.columnarProjection );
   }
 
   public boolean init( StepMetaInterface smi, StepDataInterface sdi ) {
@@ -37,6 +37,13 @@ public class SelectValuesData extends BaseStepData implements StepDataInterface
 
   public RowMetaInterface outputRowMeta;
 
+  /** The output rows of the batch being processed */
+  public Object[][] outputRows;
+  public int nrOutputRows;
+
+  /** The input fields to keep, in their output order, when selecting and removing fields of a columnar batch */
+  public int[] columnarProjection;
+
   // The MODE, default = select...
   public boolean select; // "normal" selection of fields.
   public boolean deselect; // de-select mode
@@ -845,6 +845,11 @@ public class SelectValuesMeta extends BaseStepMeta implements StepMetaInterface
     return true;
   }
 
+  @Override
+  public boolean supportsColumnarBatches() {
+    return true;
+  }
+
   public SelectField[] getSelectFields() {
     return selectFields;
   }
@@ -969,4 +974,9 @@ public class SelectValuesMeta extends BaseStepMeta implements StepMetaInterface
       }
     }
   }
+
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
@@ -285,4 +285,9 @@ public class SetValueConstantMeta extends BaseStepMeta implements StepMetaInterf
               && setEmptyString == ((Field) obj).isEmptyString();
     }
   }
+
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
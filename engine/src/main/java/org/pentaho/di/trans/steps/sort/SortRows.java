@@ -13,29 +13,23 @@
 
 package org.pentaho.di.trans.steps.sort;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
-import java.net.SocketTimeoutException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystemException;
 import org.pentaho.di.core.Const;
 import org.pentaho.di.core.exception.KettleException;
-import org.pentaho.di.core.exception.KettleFileException;
 import org.pentaho.di.core.exception.KettleValueException;
+import org.pentaho.di.core.row.RowKeyEncoder;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaString;
 import org.pentaho.di.core.vfs.KettleVFS;
 import org.pentaho.di.i18n.BaseMessages;
 import org.pentaho.di.trans.Trans;
@@ -123,25 +117,11 @@ public class SortRows extends BaseStep implements StepInterface {
     quickSort( data.buffer );
 
     // Then write them to disk...
-    DataOutputStream dos;
-    GZIPOutputStream gzos;
+    SortSpillWriter writer = null;
     int p;
 
     try {
-      FileObject fileObject =
-          KettleVFS.getInstance( getTransMeta().getBowl() )
-            .createTempFile( meta.getPrefix(), ".tmp", environmentSubstitute( meta.getDirectory() ), getTransMeta() );
-
-      data.files.add( fileObject ); // Remember the files!
-      OutputStream outputStream = KettleVFS.getInstance( getTransMeta().getBowl() )
-        .getOutputStream( fileObject, false );
-      if ( data.compressFiles ) {
-        gzos = new GZIPOutputStream( new BufferedOutputStream( outputStream ) );
-        dos = new DataOutputStream( gzos );
-      } else {
-        dos = new DataOutputStream( new BufferedOutputStream( outputStream, 500000 ) );
-        gzos = null;
-      }
+      writer = new SortSpillWriter( data.outputRowMeta, createTempFile(), data.spillCompression );
 
       // Just write the data, nothing else
       List<Integer> duplicates = new ArrayList<Integer>();
@@ -178,7 +158,7 @@ public class SortRows extends BaseStep implements StepInterface {
           }
         }
         if ( !skip ) {
-          data.outputRowMeta.writeData( dos, data.buffer.get( p ) );
+          writer.writeRow( data.buffer.get( p ) );
         }
       }
 
@@ -199,11 +179,8 @@ public class SortRows extends BaseStep implements StepInterface {
       data.buffer.clear();
 
       // Close temp-file
-      dos.close(); // close data stream
-      if ( gzos != null ) {
-        gzos.close(); // close gzip stream
-      }
-      outputStream.close(); // close file stream
+      writer.close();
+      writer = null;
 
       // How much memory do we have left?
       //
@@ -217,151 +194,117 @@ public class SortRows extends BaseStep implements StepInterface {
 
     } catch ( Exception e ) {
       throw new KettleException( "Error processing temp-file!", e );
+    } finally {
+      BaseStep.closeQuietly( writer );
     }
 
     data.getBufferIndex = 0;
   }
 
-  private DataInputStream getDataInputStream( GZIPInputStream gzipInputStream ) {
-    DataInputStream result = new DataInputStream( gzipInputStream );
-    data.gzis.add( gzipInputStream );
-    return result;
+  /**
+   * Creates a new temporary file and remembers it.
+   *
+   * @return the stream to write to the new file
+   */
+  private OutputStream createTempFile() throws KettleException {
+    FileObject fileObject =
+        KettleVFS.getInstance( getTransMeta().getBowl() )
+          .createTempFile( meta.getPrefix(), ".tmp", environmentSubstitute( meta.getDirectory() ), getTransMeta() );
+
+    data.files.add( fileObject ); // Remember the files!
+    return KettleVFS.getInstance( getTransMeta().getBowl() ).getOutputStream( fileObject, false );
   }
 
   // get sorted rows from available files in iterative manner.
   // that means call to this method will continue to return rows
   // till all temp files will not be read to the end.
-  Object[] getBuffer() throws KettleValueException {
-    Object[] retval;
-
-    // Open all files at once and read one row from each file...
-    if ( data.files.size() > 0 && ( data.dis.size() == 0 || data.fis.size() == 0 ) ) {
-      if ( log.isBasic() ) {
-        logBasic( BaseMessages.getString( PKG, "SortRows.Basic.OpeningTempFiles", data.files.size() ) );
-      }
-
-      try {
-        for ( int f = 0; f < data.files.size() && !isStopped(); f++ ) {
-          FileObject fileObject = data.files.get( f );
-          String filename = KettleVFS.getFilename( fileObject );
-          if ( log.isDetailed() ) {
-            logDetailed( BaseMessages.getString( PKG, "SortRows.Detailed.OpeningTempFile", filename ) );
-          }
-          InputStream fi = KettleVFS.getInputStream( fileObject );
-          DataInputStream di;
-          data.fis.add( fi );
-          if ( data.compressFiles ) {
-            di = getDataInputStream( new GZIPInputStream( new BufferedInputStream( fi ) ) );
-          } else {
-            di = new DataInputStream( new BufferedInputStream( fi, 50000 ) );
-          }
-          data.dis.add( di );
-
-          // How long is the buffer?
-          int buffersize = data.bufferSizes.get( f );
-
-          if ( log.isDetailed() ) {
-            logDetailed( BaseMessages.getString( PKG, "SortRows.Detailed.FromFileExpectingRows",
-                filename, buffersize ) );
-          }
-
-          if ( buffersize > 0 ) {
-            Object[] row = data.outputRowMeta.readData( di );
-            data.rowbuffer.add( row ); // new row from input stream
-            data.tempRows.add( new RowTempFile( row, f ) );
-          }
-        }
-
-        // Sort the data row buffer
-        Collections.sort( data.tempRows, data.comparator );
-      } catch ( Exception e ) {
-        logError( BaseMessages.getString( PKG, "SortRows.Error.ErrorReadingBackTempFiles" ), e );
-      }
-    }
-
+  Object[] getBuffer() throws KettleException {
     if ( data.files.size() == 0 ) {
       // read from in-memory processing
 
       if ( data.getBufferIndex < data.buffer.size() ) {
-        retval = data.buffer.get( data.getBufferIndex );
-        data.getBufferIndex++;
-      } else {
-        retval = null;
+        return data.buffer.get( data.getBufferIndex++ );
       }
-    } else {
-      // read from disk processing
-
-      if ( data.rowbuffer.size() == 0 ) {
-        retval = null;
-      } else {
-        // We now have "filenr" rows waiting: which one is the smallest?
-        //
-        if ( log.isRowLevel() ) {
-          for ( int i = 0; i < data.rowbuffer.size() && !isStopped(); i++ ) {
-            Object[] b = data.rowbuffer.get( i );
-            logRowlevel( BaseMessages
-                .getString( PKG, "SortRows.RowLevel.PrintRow", i, data.outputRowMeta.getString( b ) ) );
-          }
-        }
-
-        RowTempFile rowTempFile = data.tempRows.remove( 0 );
-        retval = rowTempFile.row;
-        int smallest = rowTempFile.fileNumber;
+      return null;
+    }
 
-        // now get another Row for position smallest
+    // read from disk processing
+    //
+    try {
+      if ( data.merger == null ) {
+        openTempFiles();
+      }
+      return data.merger.next();
+    } catch ( Exception e ) {
+      throw new KettleException( BaseMessages.getString( PKG, "SortRows.Error.ErrorReadingBackTempFiles" ), e );
+    }
+  }
 
-        FileObject file = data.files.get( smallest );
-        DataInputStream di = data.dis.get( smallest );
-        InputStream fi = data.fis.get( smallest );
+  /**
+   * Opens all the temporary files and starts a k-way merge over them. When there are more files than we're allowed to
+   * keep open at once, groups of files are merged into larger files first.
+   */
+  private void openTempFiles() throws KettleException, IOException {
+    if ( log.isBasic() ) {
+      logBasic( BaseMessages.getString( PKG, "SortRows.Basic.OpeningTempFiles", data.files.size() ) );
+    }
 
+    while ( data.files.size() > data.maxOpenFiles && !isStopped() ) {
+      if ( log.isDetailed() ) {
+        logDetailed( BaseMessages.getString( PKG, "SortRows.Detailed.MergingTempFiles", data.files.size(),
+          data.maxOpenFiles ) );
+      }
+      List<FileObject> files = new ArrayList<FileObject>( data.files );
+      List<Integer> bufferSizes = new ArrayList<Integer>( data.bufferSizes );
+      data.files.clear();
+      data.bufferSizes.clear();
+
+      for ( int start = 0; start < files.size(); start += data.maxOpenFiles ) {
+        int end = Math.min( start + data.maxOpenFiles, files.size() );
+        SortSpillMerger merger = openMerger( files.subList( start, end ), bufferSizes.subList( start, end ) );
+        SortSpillWriter writer = null;
         try {
-          Object[] row2 = data.outputRowMeta.readData( di );
-          RowTempFile extra = new RowTempFile( row2, smallest );
-
-          int index = Collections.binarySearch( data.tempRows, extra, data.comparator );
-          if ( index < 0 ) {
-            data.tempRows.add( index * ( -1 ) - 1, extra );
-          } else {
-            data.tempRows.add( index, extra );
-          }
-        } catch ( KettleFileException fe ) { // empty file or EOF mostly
-          GZIPInputStream gzfi = ( data.compressFiles ) ? data.gzis.get( smallest ) : null;
-          try {
-            di.close();
-            fi.close();
-            if ( gzfi != null ) {
-              gzfi.close();
-            }
-            file.delete();
-          } catch ( IOException e ) {
-            logError( BaseMessages.getString( PKG, "SortRows.Error.UnableToCloseFile", smallest, file.toString() ) );
-            setErrors( 1 );
-            stopAll();
-            return null;
+          writer = new SortSpillWriter( data.outputRowMeta, createTempFile(), data.spillCompression );
+          for ( Object[] row = merger.next(); row != null; row = merger.next() ) {
+            writer.writeRow( row );
           }
+          writer.close();
+          data.bufferSizes.add( (int) writer.getNrRows() );
+        } finally {
+          BaseStep.closeQuietly( writer );
+          BaseStep.closeQuietly( merger );
+        }
+        for ( FileObject fileObject : files.subList( start, end ) ) {
+          fileObject.delete();
+        }
+      }
+    }
 
-          data.files.remove( smallest );
-          data.dis.remove( smallest );
-          data.fis.remove( smallest );
-
-          if ( gzfi != null ) {
-            data.gzis.remove( smallest );
-          }
+    data.merger = openMerger( data.files, data.bufferSizes );
+  }
 
-          // Also update all file numbers in in data.tempRows if they are larger
-          // than smallest.
-          //
-          for ( RowTempFile rtf : data.tempRows ) {
-            if ( rtf.fileNumber > smallest ) {
-              rtf.fileNumber--;
-            }
-          }
-        } catch ( SocketTimeoutException e ) {
-          throw new KettleValueException( e ); // should never happen on local files
+  private SortSpillMerger openMerger( List<FileObject> files, List<Integer> bufferSizes )
+    throws KettleException, IOException {
+    List<SortSpillReader> readers = new ArrayList<SortSpillReader>( files.size() );
+    try {
+      for ( int f = 0; f < files.size(); f++ ) {
+        FileObject fileObject = files.get( f );
+        String filename = KettleVFS.getFilename( fileObject );
+        if ( log.isDetailed() ) {
+          logDetailed( BaseMessages.getString( PKG, "SortRows.Detailed.OpeningTempFile", filename ) );
+          logDetailed( BaseMessages.getString( PKG, "SortRows.Detailed.FromFileExpectingRows",
+              filename, bufferSizes.get( f ) ) );
         }
+        readers.add( new SortSpillReader( data.outputRowMeta, KettleVFS.getInputStream( fileObject ),
+          data.spillCompression, bufferSizes.get( f ) ) );
+      }
+      return new SortSpillMerger( readers, data.rowComparator );
+    } catch ( KettleException | IOException e ) {
+      for ( SortSpillReader reader : readers ) {
+        BaseStep.closeQuietly( reader );
       }
+      throw e;
     }
-    return retval;
   }
 
   @Override
@@ -411,7 +354,6 @@ public class SortRows extends BaseStep implements StepInterface {
       data.outputRowMeta = inputRowMeta.clone();
       meta.getFields( getTransMeta().getBowl(), data.outputRowMeta, getStepname(), null, null, this, repository,
         metaStore );
-      data.comparator = new RowTemapFileComparator( data.outputRowMeta, data.fieldnrs );
 
       for ( int i = 0; i < fieldNames.length; i++ ) {
         data.fieldnrs[i] = inputRowMeta.indexOfValue( fieldNames[i] );
@@ -431,6 +373,9 @@ public class SortRows extends BaseStep implements StepInterface {
         i++;
       }
       data.rowComparator = new RowObjectArrayComparator( data.outputRowMeta, data.fieldnrs );
+      if ( ValueMetaString.convertStringToBoolean( getVariable( Const.KETTLE_SORT_NORMALIZED_KEYS, "Y" ) ) ) {
+        data.sortKeyEncoder = RowKeyEncoder.create( data.outputRowMeta, data.fieldnrs );
+      }
     } // end if first
 
     // it is not first row and it is null
@@ -563,13 +508,10 @@ public class SortRows extends BaseStep implements StepInterface {
     //
     data.buffer = new ArrayList<Object[]>( 5000 );
 
-    // Buffer for reading from disk
-    //
-    data.rowbuffer = new ArrayList<Object[]>( 5000 );
-
     data.compressFiles = getBooleanValueOfVariable( meta.getCompressFilesVariable(), meta.getCompressFiles() );
-
-    data.tempRows = new ArrayList<RowTempFile>();
+    data.spillCompression = SortSpillCompression.getCompression( data.compressFiles,
+      getVariable( Const.KETTLE_SORT_SPILL_COMPRESSION, SortSpillCompression.GZIP.name() ) );
+    data.maxOpenFiles = Math.max( 2, Const.toInt( getVariable( Const.KETTLE_SORT_MAX_OPEN_FILES ), 100 ) );
 
     data.minSortSize = 5000;
 
@@ -587,20 +529,11 @@ public class SortRows extends BaseStep implements StepInterface {
     // Clean out the sort buffer
     data.buffer.clear();
     data.getBufferIndex = 0;
-    data.rowbuffer.clear();
 
-    // close any open DataInputStream objects
-    if ( ( data.dis != null ) && ( data.dis.size() > 0 ) ) {
-      for ( DataInputStream dis : data.dis ) {
-        BaseStep.closeQuietly( dis );
-      }
-    }
-    // close any open InputStream objects
-    if ( ( data.fis != null ) && ( data.fis.size() > 0 ) ) {
-      for ( InputStream is : data.fis ) {
-        BaseStep.closeQuietly( is );
-      }
-    }
+    // close the temporary files we're reading from
+    BaseStep.closeQuietly( data.merger );
+    data.merger = null;
+
     // remove temp files
     for ( int f = 0; f < data.files.size(); f++ ) {
       FileObject fileToDelete = data.files.get( f );
@@ -612,6 +545,8 @@ public class SortRows extends BaseStep implements StepInterface {
         logError( e.getLocalizedMessage(), e );
       }
     }
+    data.files.clear();
+    data.bufferSizes.clear();
   }
 
   /**
@@ -619,7 +554,11 @@ public class SortRows extends BaseStep implements StepInterface {
    */
   void quickSort( List<Object[]> elements ) throws KettleException {
     if ( elements.size() > 0 ) {
-      Collections.sort( elements, data.rowComparator );
+      if ( data.sortKeyEncoder != null ) {
+        sortOnKeys( elements );
+      } else {
+        Collections.sort( elements, data.rowComparator );
+      }
 
       long nrConversions = 0L;
       for ( ValueMetaInterface valueMeta : data.outputRowMeta.getValueMetaList() ) {
@@ -632,6 +571,25 @@ public class SortRows extends BaseStep implements StepInterface {
     }
   }
 
+  /**
+   * Sorts the rows on their normalized keys. The keys are built once per row, after that the rows are sorted with a
+   * parallel (fork/join) merge sort which only compares byte arrays. Like {@link Collections#sort(List)} the sort is
+   * stable.
+   */
+  private void sortOnKeys( List<Object[]> elements ) throws KettleException {
+    KeyedRow[] keyedRows = new KeyedRow[ elements.size() ];
+    for ( int i = 0; i < keyedRows.length; i++ ) {
+      Object[] row = elements.get( i );
+      keyedRows[ i ] = new KeyedRow( data.sortKeyEncoder.encode( row ), row );
+    }
+
+    Arrays.parallelSort( keyedRows, KEYED_ROW_COMPARATOR );
+
+    for ( int i = 0; i < keyedRows.length; i++ ) {
+      elements.set( i, keyedRows[ i ].row );
+    }
+  }
+
   /**
    * Calling this method will alert the step that we finished passing records to the step. Specifically for steps like
    * "Sort Rows" it means that the buffered rows can be sorted and passed on.
@@ -670,6 +628,23 @@ public class SortRows extends BaseStep implements StepInterface {
     }
   }
 
+  private static final Comparator<KeyedRow> KEYED_ROW_COMPARATOR = new Comparator<KeyedRow>() {
+    @Override
+    public int compare( KeyedRow o1, KeyedRow o2 ) {
+      return RowKeyEncoder.compareKeys( o1.key, o2.key );
+    }
+  };
+
+  private static class KeyedRow {
+    final byte[] key;
+    final Object[] row;
+
+    KeyedRow( byte[] key, Object[] row ) {
+      this.key = key;
+      this.row = row;
+    }
+  }
+
   private class SortRowsComparator {
     protected RowMetaInterface rowMeta;
     protected int[] fieldNrs;
@@ -680,22 +655,6 @@ public class SortRows extends BaseStep implements StepInterface {
     }
   }
 
-  private class RowTemapFileComparator extends SortRowsComparator implements Comparator<RowTempFile> {
-    RowTemapFileComparator( RowMetaInterface rowMeta, int[] fieldNrs ) {
-      super( rowMeta, fieldNrs );
-    }
-
-    @Override
-    public int compare( RowTempFile o1, RowTempFile o2 ) {
-      try {
-        return rowMeta.compare( o1.row, o2.row, fieldNrs );
-      } catch ( KettleValueException e ) {
-        logError( "Error comparing rows: " + e.toString() );
-        return 0;
-      }
-    }
-  }
-
   private class RowObjectArrayComparator extends SortRowsComparator implements Comparator<Object[]> {
     RowObjectArrayComparator( RowMetaInterface rowMeta, int[] fieldNrs ) {
       super( rowMeta, fieldNrs );
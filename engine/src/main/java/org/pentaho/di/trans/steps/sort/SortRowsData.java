@@ -13,14 +13,12 @@
 
 package org.pentaho.di.trans.steps.sort;
 
-import java.io.DataInputStream;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
 
 import org.apache.commons.vfs2.FileObject;
+import org.pentaho.di.core.row.RowKeyEncoder;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.trans.step.BaseStepData;
 import org.pentaho.di.trans.step.StepDataInterface;
@@ -34,14 +32,12 @@ public class SortRowsData extends BaseStepData implements StepDataInterface {
   public List<Object[]> buffer;
   public int getBufferIndex;
 
-  public List<InputStream> fis;
-  public List<GZIPInputStream> gzis;
-  public List<DataInputStream> dis;
-  public List<Object[]> rowbuffer;
   public List<Integer> bufferSizes;
 
-  // To store rows and file references
-  public List<RowTempFile> tempRows;
+  // The compression of the temporary files and the merge reading them back
+  public SortSpillCompression spillCompression;
+  public SortSpillMerger merger;
+  public int maxOpenFiles;
 
   public int[] fieldnrs; // the corresponding field numbers;
   public FileObject fil;
@@ -51,8 +47,8 @@ public class SortRowsData extends BaseStepData implements StepDataInterface {
   public int[] convertKeysToNative;
   public boolean convertAnyKeysToNative;
 
-  Comparator<RowTempFile> comparator;
   Comparator<Object[]> rowComparator;
+  RowKeyEncoder sortKeyEncoder;
 
   public int freeCounter;
   public int freeMemoryPct;
@@ -71,9 +67,6 @@ public class SortRowsData extends BaseStepData implements StepDataInterface {
     super();
 
     files = new ArrayList<FileObject>();
-    fis = new ArrayList<InputStream>();
-    gzis = new ArrayList<GZIPInputStream>();
-    dis = new ArrayList<DataInputStream>();
     bufferSizes = new ArrayList<Integer>();
 
     previous = null; // Heroic
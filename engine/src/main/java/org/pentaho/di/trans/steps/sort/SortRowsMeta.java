@@ -688,4 +688,8 @@ public class SortRowsMeta extends BaseStepMeta implements StepMetaInterface, Ser
 
   }
 
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
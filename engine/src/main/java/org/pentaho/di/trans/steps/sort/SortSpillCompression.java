@@ -0,0 +1,88 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.sort;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.xerial.snappy.SnappyInputStream;
+import org.xerial.snappy.SnappyOutputStream;
+
+/**
+ * The compression applied to the temporary files of the Sort rows step. GZIP gives the smallest files, SNAPPY is a lot
+ * faster to write and read back.
+ */
+public enum SortSpillCompression {
+  NONE {
+    @Override
+    OutputStream wrap( OutputStream outputStream ) {
+      return outputStream;
+    }
+
+    @Override
+    InputStream wrap( InputStream inputStream ) {
+      return inputStream;
+    }
+  },
+
+  GZIP {
+    @Override
+    OutputStream wrap( OutputStream outputStream ) throws IOException {
+      return new GZIPOutputStream( outputStream, BUFFER_SIZE );
+    }
+
+    @Override
+    InputStream wrap( InputStream inputStream ) throws IOException {
+      return new GZIPInputStream( inputStream, BUFFER_SIZE );
+    }
+  },
+
+  SNAPPY {
+    @Override
+    OutputStream wrap( OutputStream outputStream ) {
+      return new SnappyOutputStream( outputStream );
+    }
+
+    @Override
+    InputStream wrap( InputStream inputStream ) throws IOException {
+      return new SnappyInputStream( inputStream );
+    }
+  };
+
+  private static final int BUFFER_SIZE = 65536;
+
+  abstract OutputStream wrap( OutputStream outputStream ) throws IOException;
+
+  abstract InputStream wrap( InputStream inputStream ) throws IOException;
+
+  /**
+   * @param compressFiles true if the temporary files need to be compressed
+   * @param name          the name of the compression to use, GZIP if it's empty or unknown
+   * @return the compression to use
+   */
+  public static SortSpillCompression getCompression( boolean compressFiles, String name ) {
+    if ( !compressFiles ) {
+      return NONE;
+    }
+    for ( SortSpillCompression compression : values() ) {
+      if ( compression != NONE && compression.name().equalsIgnoreCase( name ) ) {
+        return compression;
+      }
+    }
+    return GZIP;
+  }
+}
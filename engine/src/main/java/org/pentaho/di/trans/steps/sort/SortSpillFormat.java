@@ -0,0 +1,141 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.sort;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+
+/**
+ * The compact binary row format of the Sort rows temporary files. A row starts with a bitmap of the null fields,
+ * followed by the non-null values:
+ * <ul>
+ * <li>integers and dates as zig-zag encoded variable length longs,</li>
+ * <li>numbers as 8 bytes, booleans as a single byte,</li>
+ * <li>strings as the length of the prefix shared with the same field of the previous row, followed by the length of
+ * the UTF-8 encoded rest and the bytes themselves. Sorted rows tend to share long prefixes.</li>
+ * </ul>
+ * All other types and storage types are written with {@link ValueMetaInterface#writeData(java.io.DataOutputStream,
+ * Object)}.
+ */
+final class SortSpillFormat {
+  static final int KIND_OTHER = 0;
+  static final int KIND_INTEGER = 1;
+  static final int KIND_NUMBER = 2;
+  static final int KIND_STRING = 3;
+  static final int KIND_BOOLEAN = 4;
+  static final int KIND_DATE = 5;
+
+  private SortSpillFormat() {
+  }
+
+  /**
+   * @return how each field of the row is encoded
+   */
+  static int[] getFieldKinds( RowMetaInterface rowMeta ) {
+    int[] kinds = new int[ rowMeta.size() ];
+    for ( int i = 0; i < kinds.length; i++ ) {
+      ValueMetaInterface valueMeta = rowMeta.getValueMeta( i );
+      if ( !valueMeta.isStorageNormal() ) {
+        kinds[ i ] = KIND_OTHER;
+        continue;
+      }
+      switch ( valueMeta.getType() ) {
+        case ValueMetaInterface.TYPE_INTEGER:
+          kinds[ i ] = KIND_INTEGER;
+          break;
+        case ValueMetaInterface.TYPE_NUMBER:
+          kinds[ i ] = KIND_NUMBER;
+          break;
+        case ValueMetaInterface.TYPE_STRING:
+          kinds[ i ] = KIND_STRING;
+          break;
+        case ValueMetaInterface.TYPE_BOOLEAN:
+          kinds[ i ] = KIND_BOOLEAN;
+          break;
+        case ValueMetaInterface.TYPE_DATE:
+          kinds[ i ] = KIND_DATE;
+          break;
+        default:
+          kinds[ i ] = KIND_OTHER;
+          break;
+      }
+    }
+    return kinds;
+  }
+
+  static void writeVarLong( DataOutput out, long value ) throws IOException {
+    // zig-zag: small negative numbers get small codes as well
+    long v = ( value << 1 ) ^ ( value >> 63 );
+    while ( ( v & ~0x7FL ) != 0 ) {
+      out.writeByte( (int) ( ( v & 0x7F ) | 0x80 ) );
+      v >>>= 7;
+    }
+    out.writeByte( (int) v );
+  }
+
+  static long readVarLong( DataInput in ) throws IOException {
+    long v = 0;
+    int shift = 0;
+    int b;
+    do {
+      b = in.readUnsignedByte();
+      v |= (long) ( b & 0x7F ) << shift;
+      shift += 7;
+    } while ( ( b & 0x80 ) != 0 );
+    return ( v >>> 1 ) ^ -( v & 1 );
+  }
+
+  static void writeVarInt( DataOutput out, int value ) throws IOException {
+    int v = value;
+    while ( ( v & ~0x7F ) != 0 ) {
+      out.writeByte( ( v & 0x7F ) | 0x80 );
+      v >>>= 7;
+    }
+    out.writeByte( v );
+  }
+
+  static int readVarInt( DataInput in ) throws IOException {
+    int v = 0;
+    int shift = 0;
+    int b;
+    do {
+      b = in.readUnsignedByte();
+      v |= ( b & 0x7F ) << shift;
+      shift += 7;
+    } while ( ( b & 0x80 ) != 0 );
+    return v;
+  }
+
+  /**
+   * @return the number of characters both strings start with, never splitting a surrogate pair
+   */
+  static int sharedPrefixLength( String previous, String value ) {
+    if ( previous == null ) {
+      return 0;
+    }
+    int max = Math.min( previous.length(), value.length() );
+    int shared = 0;
+    while ( shared < max && previous.charAt( shared ) == value.charAt( shared ) ) {
+      shared++;
+    }
+    if ( shared > 0 && Character.isHighSurrogate( value.charAt( shared - 1 ) ) ) {
+      shared--;
+    }
+    return shared;
+  }
+}
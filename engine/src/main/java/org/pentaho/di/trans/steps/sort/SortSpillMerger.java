@@ -0,0 +1,128 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.sort;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+
+import org.pentaho.di.core.exception.KettleFileException;
+
+/**
+ * Merges the sorted rows of a number of temporary files using a tournament (loser) tree. Each row costs about
+ * log2(k) comparisons for k files. When two rows compare equal the one from the file with the lowest index is
+ * returned first so that the merge is stable.
+ */
+public class SortSpillMerger implements Closeable {
+  private final List<SortSpillReader> readers;
+  private final Comparator<Object[]> comparator;
+  private final int k;
+
+  /** The current row of each reader, null once a reader is exhausted. */
+  private final Object[][] current;
+
+  /** tree[0] holds the index of the winner, the other nodes hold the loser of the match played there. */
+  private final int[] tree;
+
+  public SortSpillMerger( List<SortSpillReader> readers, Comparator<Object[]> comparator )
+    throws KettleFileException {
+    this.readers = readers;
+    this.comparator = comparator;
+    this.k = readers.size();
+    this.current = new Object[ k ][];
+    this.tree = new int[ Math.max( k, 1 ) ];
+
+    for ( int i = 0; i < k; i++ ) {
+      current[ i ] = readers.get( i ).readRow();
+    }
+    if ( k > 0 ) {
+      tree[ 0 ] = build( 1 );
+    }
+  }
+
+  private int build( int node ) {
+    if ( node >= k ) {
+      return node - k;
+    }
+    int left = build( 2 * node );
+    int right = build( 2 * node + 1 );
+    if ( beats( left, right ) ) {
+      tree[ node ] = right;
+      return left;
+    } else {
+      tree[ node ] = left;
+      return right;
+    }
+  }
+
+  /**
+   * @return true if the current row of source a should come out before the one of source b
+   */
+  private boolean beats( int a, int b ) {
+    Object[] rowA = current[ a ];
+    Object[] rowB = current[ b ];
+    if ( rowA == null ) {
+      return false;
+    }
+    if ( rowB == null ) {
+      return true;
+    }
+    int cmp = comparator.compare( rowA, rowB );
+    return cmp < 0 || ( cmp == 0 && a < b );
+  }
+
+  /**
+   * @return the next row in sort order or null if all the files were read
+   * @throws KettleFileException
+   */
+  public Object[] next() throws KettleFileException {
+    if ( k == 0 ) {
+      return null;
+    }
+    int winner = tree[ 0 ];
+    Object[] row = current[ winner ];
+    if ( row == null ) {
+      return null;
+    }
+    current[ winner ] = readers.get( winner ).readRow();
+
+    // Replay the matches on the path from the leaf of the winner up to the root
+    //
+    for ( int node = ( winner + k ) >> 1; node > 0; node >>= 1 ) {
+      if ( beats( tree[ node ], winner ) ) {
+        int loser = winner;
+        winner = tree[ node ];
+        tree[ node ] = loser;
+      }
+    }
+    tree[ 0 ] = winner;
+    return row;
+  }
+
+  @Override
+  public void close() throws IOException {
+    IOException exception = null;
+    for ( SortSpillReader reader : readers ) {
+      try {
+        reader.close();
+      } catch ( IOException e ) {
+        exception = e;
+      }
+    }
+    if ( exception != null ) {
+      throw exception;
+    }
+  }
+}
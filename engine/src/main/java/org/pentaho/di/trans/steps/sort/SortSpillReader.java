@@ -0,0 +1,119 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.sort;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import org.pentaho.di.core.exception.KettleFileException;
+import org.pentaho.di.core.row.RowDataUtil;
+import org.pentaho.di.core.row.RowMetaInterface;
+
+/**
+ * Reads back the rows of a temporary file written by a {@link SortSpillWriter}.
+ */
+public class SortSpillReader implements Closeable {
+  private final RowMetaInterface rowMeta;
+  private final int[] kinds;
+  private final String[] previousStrings;
+  private final byte[] nullBitmap;
+  private final DataInputStream in;
+
+  private long nrRowsLeft;
+
+  /**
+   * @param rowMeta     the metadata of the rows in the file
+   * @param inputStream the file to read, closed when this reader is closed
+   * @param compression the compression used to write the file
+   * @param nrRows      the number of rows in the file
+   * @throws IOException
+   */
+  public SortSpillReader( RowMetaInterface rowMeta, InputStream inputStream, SortSpillCompression compression,
+    long nrRows ) throws IOException {
+    this.rowMeta = rowMeta;
+    this.kinds = SortSpillFormat.getFieldKinds( rowMeta );
+    this.previousStrings = new String[ kinds.length ];
+    this.nullBitmap = new byte[ ( kinds.length + 7 ) / 8 ];
+    this.in = new DataInputStream(
+      new BufferedInputStream( compression.wrap( new BufferedInputStream( inputStream, 65536 ) ), 65536 ) );
+    this.nrRowsLeft = nrRows;
+  }
+
+  /**
+   * @return the next row or null if all the rows were read
+   * @throws KettleFileException in case the file can't be read or ends too soon
+   */
+  public Object[] readRow() throws KettleFileException {
+    if ( nrRowsLeft <= 0 ) {
+      return null;
+    }
+    try {
+      in.readFully( nullBitmap );
+      Object[] row = RowDataUtil.allocateRowData( kinds.length );
+      for ( int i = 0; i < kinds.length; i++ ) {
+        if ( ( nullBitmap[ i >> 3 ] & ( 1 << ( i & 7 ) ) ) != 0 ) {
+          continue;
+        }
+        switch ( kinds[ i ] ) {
+          case SortSpillFormat.KIND_INTEGER:
+            row[ i ] = SortSpillFormat.readVarLong( in );
+            break;
+          case SortSpillFormat.KIND_NUMBER:
+            row[ i ] = in.readDouble();
+            break;
+          case SortSpillFormat.KIND_STRING:
+            row[ i ] = readString( i );
+            break;
+          case SortSpillFormat.KIND_BOOLEAN:
+            row[ i ] = in.readBoolean();
+            break;
+          case SortSpillFormat.KIND_DATE:
+            row[ i ] = new Date( SortSpillFormat.readVarLong( in ) );
+            break;
+          default:
+            row[ i ] = rowMeta.getValueMeta( i ).readData( in );
+            break;
+        }
+      }
+      nrRowsLeft--;
+      return row;
+    } catch ( KettleFileException e ) {
+      throw e;
+    } catch ( IOException e ) {
+      throw new KettleFileException( "Unable to read row from temporary sort file", e );
+    }
+  }
+
+  private String readString( int index ) throws IOException {
+    int shared = SortSpillFormat.readVarInt( in );
+    byte[] rest = new byte[ SortSpillFormat.readVarInt( in ) ];
+    in.readFully( rest );
+    String value = new String( rest, StandardCharsets.UTF_8 );
+    if ( shared > 0 ) {
+      value = previousStrings[ index ].substring( 0, shared ).concat( value );
+    }
+    previousStrings[ index ] = value;
+    return value;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
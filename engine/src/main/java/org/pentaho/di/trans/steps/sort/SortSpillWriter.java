@@ -0,0 +1,121 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.sort;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import org.pentaho.di.core.exception.KettleFileException;
+import org.pentaho.di.core.exception.KettleValueException;
+import org.pentaho.di.core.row.RowMetaInterface;
+
+/**
+ * Writes sorted rows to a temporary file in the {@link SortSpillFormat}.
+ */
+public class SortSpillWriter implements Closeable {
+  private final RowMetaInterface rowMeta;
+  private final int[] kinds;
+  private final String[] previousStrings;
+  private final byte[] nullBitmap;
+  private final DataOutputStream out;
+
+  private long nrRows;
+
+  /**
+   * @param rowMeta      the metadata of the rows to write
+   * @param outputStream the file to write to, closed when this writer is closed
+   * @param compression  the compression to apply
+   * @throws IOException
+   */
+  public SortSpillWriter( RowMetaInterface rowMeta, OutputStream outputStream, SortSpillCompression compression )
+    throws IOException {
+    this.rowMeta = rowMeta;
+    this.kinds = SortSpillFormat.getFieldKinds( rowMeta );
+    this.previousStrings = new String[ kinds.length ];
+    this.nullBitmap = new byte[ ( kinds.length + 7 ) / 8 ];
+    this.out = new DataOutputStream(
+      new BufferedOutputStream( compression.wrap( new BufferedOutputStream( outputStream, 65536 ) ), 65536 ) );
+  }
+
+  public void writeRow( Object[] row ) throws KettleFileException {
+    try {
+      for ( int b = 0; b < nullBitmap.length; b++ ) {
+        int bits = 0;
+        for ( int i = b * 8, j = 0; j < 8 && i < kinds.length; i++, j++ ) {
+          if ( row[ i ] == null ) {
+            bits |= 1 << j;
+          }
+        }
+        nullBitmap[ b ] = (byte) bits;
+      }
+      out.write( nullBitmap );
+
+      for ( int i = 0; i < kinds.length; i++ ) {
+        Object value = row[ i ];
+        if ( value == null ) {
+          continue;
+        }
+        switch ( kinds[ i ] ) {
+          case SortSpillFormat.KIND_INTEGER:
+            SortSpillFormat.writeVarLong( out, (Long) value );
+            break;
+          case SortSpillFormat.KIND_NUMBER:
+            out.writeDouble( (Double) value );
+            break;
+          case SortSpillFormat.KIND_STRING:
+            writeString( i, (String) value );
+            break;
+          case SortSpillFormat.KIND_BOOLEAN:
+            out.writeBoolean( (Boolean) value );
+            break;
+          case SortSpillFormat.KIND_DATE:
+            SortSpillFormat.writeVarLong( out, ( (Date) value ).getTime() );
+            break;
+          default:
+            rowMeta.getValueMeta( i ).writeData( out, value );
+            break;
+        }
+      }
+      nrRows++;
+    } catch ( IOException | KettleValueException e ) {
+      throw new KettleFileException( "Unable to write row to temporary sort file", e );
+    }
+  }
+
+  private void writeString( int index, String value ) throws IOException {
+    int shared = SortSpillFormat.sharedPrefixLength( previousStrings[ index ], value );
+    byte[] rest = value.substring( shared ).getBytes( StandardCharsets.UTF_8 );
+    SortSpillFormat.writeVarInt( out, shared );
+    SortSpillFormat.writeVarInt( out, rest.length );
+    out.write( rest );
+    previousStrings[ index ] = value;
+  }
+
+  /**
+   * @return the number of rows written so far
+   */
+  public long getNrRows() {
+    return nrRows;
+  }
+
+  @Override
+  public void close() throws IOException {
+    out.close();
+  }
+}
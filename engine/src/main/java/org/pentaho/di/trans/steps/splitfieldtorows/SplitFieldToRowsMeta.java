@@ -347,4 +347,9 @@ public class SplitFieldToRowsMeta extends BaseStepMeta implements StepMetaInterf
   public boolean includeRowNumber() {
     return includeRowNumber;
   }
+
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
@@ -13,12 +13,16 @@
 
 package org.pentaho.di.trans.steps.streamlookup;
 
+import org.pentaho.di.core.Const;
 import org.pentaho.di.core.RowMetaAndData;
 import org.pentaho.di.core.RowSet;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.exception.KettleStepException;
 import org.pentaho.di.core.exception.KettleValueException;
 import org.pentaho.di.core.hash.ByteArrayHashIndex;
+import org.pentaho.di.core.hash.ByteStore;
+import org.pentaho.di.core.hash.CompactHashIndex;
+import org.pentaho.di.core.logging.Metrics;
 import org.pentaho.di.core.row.RowDataUtil;
 import org.pentaho.di.core.row.RowMeta;
 import org.pentaho.di.core.row.RowMetaInterface;
@@ -34,6 +38,8 @@ import org.pentaho.di.trans.step.StepInterface;
 import org.pentaho.di.trans.step.StepMeta;
 import org.pentaho.di.trans.step.StepMetaInterface;
 
+import java.io.File;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.text.DateFormat;
 import java.util.Collections;
@@ -209,6 +215,15 @@ public class StreamLookup extends BaseStep implements StepInterface {
       rowData = getRowFrom( rowSet );
     }
 
+    if ( data.compactIndex != null ) {
+      long memoryUsage = data.compactIndex.getMemoryUsage();
+      log.snap( Metrics.METRIC_STEP_LOOKUP_INDEX_MEMORY, memoryUsage );
+      if ( log.isDetailed() ) {
+        logDetailed( BaseMessages.getString( PKG, "StreamLookup.Log.CompactIndexMemory",
+          data.compactIndex.getStoreType(), data.compactIndex.getSize(), memoryUsage ) );
+      }
+    }
+
     return true;
   }
 
@@ -285,7 +300,13 @@ public class StreamLookup extends BaseStep implements StepInterface {
 
   private void addToCache( RowMetaInterface keyMeta, Object[] keyData, RowMetaInterface valueMeta,
     Object[] valueData ) throws KettleValueException {
-    if ( meta.isMemoryPreservationActive() ) {
+    if ( !data.compactIndexVerified ) {
+      data.compactIndexVerified = true;
+      data.compactIndex = createCompactIndex( keyMeta, valueMeta );
+    }
+    if ( data.compactIndex != null ) {
+      data.compactIndex.put( keyData, valueData );
+    } else if ( meta.isMemoryPreservationActive() ) {
       if ( meta.isUsingSortedList() ) {
         KeyValue keyValue = new KeyValue( keyData, valueData );
         int idx = Collections.binarySearch( data.list, keyValue, data.comparator );
@@ -326,8 +347,34 @@ public class StreamLookup extends BaseStep implements StepInterface {
     }
   }
 
+  /**
+   * Creates the compact hash index requested with {@link Const#KETTLE_STREAM_LOOKUP_INDEX}, if any.
+   *
+   * @return the new index or null if the lookup algorithm of the step is to be used
+   */
+  private CompactHashIndex createCompactIndex( RowMetaInterface keyMeta, RowMetaInterface valueMeta ) {
+    String typeName = getVariable( Const.KETTLE_STREAM_LOOKUP_INDEX, "" );
+    if ( Utils.isEmpty( typeName ) ) {
+      return null;
+    }
+    ByteStore.Type type = ByteStore.Type.getType( typeName.trim() );
+    if ( type == null ) {
+      logBasic( BaseMessages.getString( PKG, "StreamLookup.Log.UnknownCompactIndexType", typeName ) );
+      return null;
+    }
+    if ( !CompactHashIndex.canIndex( keyMeta ) ) {
+      logBasic( BaseMessages.getString( PKG, "StreamLookup.Log.CompactIndexNotSupported" ) );
+      return null;
+    }
+    String directory = getVariable( Const.KETTLE_STREAM_LOOKUP_INDEX_DIRECTORY, "" );
+    return new CompactHashIndex( keyMeta, valueMeta, type,
+      Utils.isEmpty( directory ) ? null : new File( environmentSubstitute( directory.trim() ) ) );
+  }
+
   private Object[] getFromCache( RowMetaInterface keyMeta, Object[] keyData ) throws KettleValueException {
-    if ( meta.isMemoryPreservationActive() ) {
+    if ( data.compactIndex != null ) {
+      return data.compactIndex.get( keyData );
+    } else if ( meta.isMemoryPreservationActive() ) {
       if ( meta.isUsingSortedList() ) {
         KeyValue keyValue = new KeyValue( keyData, null );
         int idx = Collections.binarySearch( data.list, keyValue, data.comparator );
@@ -474,6 +521,14 @@ public class StreamLookup extends BaseStep implements StepInterface {
     data.list = null;
     data.hashIndex = null;
     data.longIndex = null;
+    if ( data.compactIndex != null ) {
+      try {
+        data.compactIndex.close();
+      } catch ( IOException e ) {
+        logError( e.getMessage(), e );
+      }
+      data.compactIndex = null;
+    }
 
     super.dispose( smi, sdi );
   }
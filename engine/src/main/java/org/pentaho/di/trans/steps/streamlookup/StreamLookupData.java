@@ -22,6 +22,7 @@ import java.util.Map;
 import org.pentaho.di.core.RowMetaAndData;
 import org.pentaho.di.core.exception.KettleValueException;
 import org.pentaho.di.core.hash.ByteArrayHashIndex;
+import org.pentaho.di.core.hash.CompactHashIndex;
 import org.pentaho.di.core.hash.LongHashIndex;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.trans.step.BaseStepData;
@@ -65,6 +66,12 @@ public class StreamLookupData extends BaseStepData implements StepDataInterface
   public ByteArrayHashIndex hashIndex;
   public LongHashIndex longIndex;
 
+  /** Used instead of all the other lookup structures when a compact index is requested with a variable */
+  public CompactHashIndex compactIndex;
+
+  /** Set once we checked whether or not a compact index should be used */
+  public boolean compactIndexVerified;
+
   public RowMetaInterface lookupMeta;
 
   public RowMetaInterface infoMeta;
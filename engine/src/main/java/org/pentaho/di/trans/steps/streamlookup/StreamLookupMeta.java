@@ -697,4 +697,9 @@ public class StreamLookupMeta extends BaseStepMeta implements StepMetaInterface
   public StepHelperInterface getStepHelperInterface() {
     return new StreamLookupStepHelper( this );
   }
+
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
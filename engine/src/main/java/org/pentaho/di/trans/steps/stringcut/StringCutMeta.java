@@ -338,4 +338,8 @@ public class StringCutMeta extends BaseStepMeta implements StepMetaInterface {
     return true;
   }
 
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
@@ -958,4 +958,9 @@ public class StringOperationsMeta extends BaseStepMeta implements StepMetaInterf
     // If this fails, try to match using the code.
     return getPaddingByCode( tt );
   }
+
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
@@ -525,4 +525,8 @@ public class SwitchCaseMeta extends BaseStepMeta implements StepMetaInterface {
     return true;
   }
 
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
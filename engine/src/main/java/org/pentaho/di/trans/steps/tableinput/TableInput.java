@@ -15,6 +15,8 @@ package org.pentaho.di.trans.steps.tableinput;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -138,10 +140,17 @@ public class TableInput extends BaseDatabaseStep implements StepInterface {
           return false; // stop immediately, nothing to do here.
         }
 
+        if ( data.partitionedRead ) {
+          startPartitionedRead( parametersMeta, parameters );
+          return processPartitionedRow();
+        }
+
         boolean success = doQuery( parametersMeta, parameters );
         if ( !success ) {
           return false;
         }
+      } else if ( data.partitionReader != null ) {
+        return processPartitionedRow();
       } else {
         if ( data.thisrow != null ) { // We can expect more rows
 
@@ -216,6 +225,92 @@ public class TableInput extends BaseDatabaseStep implements StepInterface {
     }
   }
 
+  /**
+   * Splits the query in partitions on the partition column and starts reading the partitions of this step copy. The
+   * partitions are divided over the step copies (across slave servers): a copy reads every n-th partition.
+   */
+  private void startPartitionedRead( RowMetaInterface parametersMeta, Object[] parameters ) throws KettleException {
+    String sql = getSQL();
+    DatabaseMeta databaseMeta = meta.getDatabaseMeta();
+    String column = databaseMeta.quoteField( environmentSubstitute( meta.getPartitionColumn() ) );
+
+    List<TableInputPartition> partitions;
+    if ( TableInputMeta.PARTITION_METHOD_MODULUS.equals( meta.getPartitionMethod() ) ) {
+      partitions = TableInputPartition.createModulusPartitions( databaseMeta, column, data.nrPartitions );
+    } else {
+      String minMaxSQL = TableInputPartition.getMinMaxSQL( databaseMeta, sql, column );
+      if ( log.isDetailed() ) {
+        logDetailed( BaseMessages.getString( PKG, "TableInput.Log.SqlQuery", minMaxSQL ) );
+      }
+      RowMetaAndData minMax = parametersMeta.isEmpty()
+        ? data.db.getOneRow( minMaxSQL ) : data.db.getOneRow( minMaxSQL, parametersMeta, parameters );
+      if ( minMax == null || minMax.getData() == null ) {
+        throw new KettleException( BaseMessages.getString( PKG, "TableInput.Log.CanNotOpenQuery", minMaxSQL ) );
+      }
+      partitions = TableInputPartition.createRangePartitions( column, minMax.getRowMeta().getValueMeta( 0 ),
+        minMax.getData()[ 0 ], minMax.getData()[ 1 ], data.nrPartitions );
+    }
+
+    int nrCopies = getUniqueStepCountAcrossSlaves();
+    int copyNr = getUniqueStepNrAcrossSlaves();
+    List<TableInputPartition> copyPartitions = new ArrayList<>();
+    for ( TableInputPartition partition : partitions ) {
+      if ( nrCopies <= 1 || partition.getIndex() % nrCopies == copyNr ) {
+        copyPartitions.add( partition );
+      }
+    }
+    if ( log.isBasic() ) {
+      logBasic( BaseMessages.getString( PKG, "TableInput.Log.PartitionedReadStarted", copyPartitions.size(),
+        partitions.size(), column ) );
+    }
+
+    data.partitionReader = createPartitionReader( sql, copyPartitions, parametersMeta, parameters );
+    data.partitionReader.start();
+  }
+
+  TableInputPartitionReader createPartitionReader( String sql, List<TableInputPartition> partitions,
+                                                   RowMetaInterface parametersMeta, Object[] parameters ) {
+    return new TableInputPartitionReader( this, meta.getDatabaseMeta(), sql, partitions, parametersMeta, parameters,
+      data.rowLimit, data.fetchSize, meta.isLazyConversionActive() );
+  }
+
+  /**
+   * Passes on a row of the partitions. The row limit of the step applies to the total of the partitions.
+   */
+  private boolean processPartitionedRow() throws KettleException {
+    Object[] row = null;
+    if ( data.rowLimit <= 0 || getLinesInput() < data.rowLimit ) {
+      row = data.partitionReader.getRow();
+    }
+    if ( row == null ) {
+      setOutputDone();
+      return false;
+    }
+    if ( data.rowMeta == null ) {
+      data.rowMeta = data.partitionReader.getRowMeta();
+      for ( ValueMetaInterface valueMeta : data.rowMeta.getValueMetaList() ) {
+        valueMeta.setOrigin( getStepname() );
+      }
+    }
+
+    incrementLinesInput();
+    putRow( data.rowMeta, row );
+
+    if ( checkFeedback( getLinesInput() ) ) {
+      if ( log.isBasic() ) {
+        logBasic( BaseMessages.getString( PKG, "TableInput.Log.LineNumber", String.valueOf( getLinesInput() ) ) );
+      }
+    }
+    return true;
+  }
+
+  private String getSQL() {
+    if ( meta.isVariableReplacementActive() ) {
+      return environmentSubstitute( meta.getSQL() );
+    }
+    return meta.getSQL();
+  }
+
   private void closePreviousQuery() throws KettleDatabaseException {
     if ( data.db != null ) {
       data.db.closeQuery( data.rs );
@@ -226,12 +321,7 @@ public class TableInput extends BaseDatabaseStep implements StepInterface {
     boolean success = true;
 
     // Open the query with the optional parameters received from the source steps.
-    String sql = null;
-    if ( meta.isVariableReplacementActive() ) {
-      sql = environmentSubstitute( meta.getSQL() );
-    } else {
-      sql = meta.getSQL();
-    }
+    String sql = getSQL();
 
     if ( log.isDetailed() ) {
       logDetailed( BaseMessages.getString( PKG, "TableInput.Log.SqlQuery", sql ) );
@@ -278,6 +368,10 @@ public class TableInput extends BaseDatabaseStep implements StepInterface {
       if ( log.isBasic() ) {
         logBasic( BaseMessages.getString( PKG, "TableInput.Log.FinishedReadingQuery" ) );
       }
+      if ( data.partitionReader != null ) {
+        data.partitionReader.close();
+        data.partitionReader = null;
+      }
       try {
         closePreviousQuery();
       } catch ( KettleException e ) {
@@ -309,6 +403,9 @@ public class TableInput extends BaseDatabaseStep implements StepInterface {
         data.db.cancelQuery();
         data.isCanceled = true;
       }
+      if ( data.partitionReader != null ) {
+        data.partitionReader.cancel();
+      }
     } finally {
       dbLock.unlock();
     }
@@ -327,7 +424,19 @@ public class TableInput extends BaseDatabaseStep implements StepInterface {
           return false;
         }
         data.infoStream = meta.getStepIOMeta().getInfoStreams().get( 0 );
-        data.db.setQueryLimit( Const.toInt( environmentSubstitute( meta.getRowLimit() ), 0 ) );
+        data.rowLimit = Const.toInt( environmentSubstitute( meta.getRowLimit() ), 0 );
+        data.db.setQueryLimit( data.rowLimit );
+        data.fetchSize = Const.toInt( environmentSubstitute( meta.getFetchSize() ), 0 );
+        data.db.setFetchSize( data.fetchSize );
+
+        if ( !Utils.isEmpty( environmentSubstitute( meta.getPartitionColumn() ) ) ) {
+          data.nrPartitions = Const.toInt( environmentSubstitute( meta.getNrPartitions() ), 1 );
+          data.partitionedRead = data.nrPartitions > 1 && !meta.isExecuteEachInputRow()
+            && !getTransMeta().isUsingUniqueConnections();
+          if ( !data.partitionedRead ) {
+            logBasic( BaseMessages.getString( PKG, "TableInput.Log.PartitionedReadDisabled" ) );
+          }
+        }
 
         if ( meta.getDatabaseMeta().isRequiringTransactionsOnQueries() ) {
           data.db.setCommitSize( 100 ); // needed for PGSQL it seems...
@@ -36,6 +36,13 @@ public class TableInputData extends BaseDatabaseStepData implements StepDataInte
   public boolean isCanceled;
   public StreamInterface infoStream;
 
+  /** True if the query is split in partitions on the partition column */
+  public boolean partitionedRead;
+  public int nrPartitions;
+  public int rowLimit;
+  public int fetchSize;
+  public TableInputPartitionReader partitionReader;
+
   public TableInputData() {
     super();
 
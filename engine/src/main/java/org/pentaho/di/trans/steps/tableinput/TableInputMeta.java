@@ -62,6 +62,12 @@ import java.util.List;
 public class TableInputMeta extends BaseDatabaseStepMeta implements StepMetaInterface {
   private static Class<?> PKG = TableInputMeta.class; // for i18n purposes, needed by Translator2!!
 
+  /** The partitions are ranges between the minimum and maximum value of the partition column */
+  public static final String PARTITION_METHOD_RANGE = "RANGE";
+
+  /** The partitions are the remainders of the (integer) partition column divided by the number of partitions */
+  public static final String PARTITION_METHOD_MODULUS = "MODULUS";
+
   private List<DatabaseMeta> databases;
 
   private DatabaseMeta databaseMeta;
@@ -87,6 +93,20 @@ public class TableInputMeta extends BaseDatabaseStepMeta implements StepMetaInte
 
   private RowMetaInterface cachedRowMeta;
 
+  /** The column of the query used to split the read in partitions, empty to read with a single query */
+  @Injection( name = "PARTITION_COLUMN" )
+  private String partitionColumn;
+
+  @Injection( name = "PARTITION_METHOD" )
+  private String partitionMethod;
+
+  @Injection( name = "NR_PARTITIONS" )
+  private String nrPartitions;
+
+  /** The number of rows the JDBC driver fetches at a time, 0 for the default */
+  @Injection( name = "FETCH_SIZE" )
+  private String fetchSize;
+
   public TableInputMeta() {
     super();
   }
@@ -182,6 +202,10 @@ public class TableInputMeta extends BaseDatabaseStepMeta implements StepMetaInte
       lazyConversionActive = "Y".equals( XMLHandler.getTagValue( stepnode, "lazy_conversion_active" ) );
       cachedRowMetaActive = "Y".equals( XMLHandler.getTagValue( stepnode, "cached_row_meta_active" ) );
       cachedRowMeta = new RowMeta( XMLHandler.getSubNode( stepnode, RowMeta.XML_META_TAG ) );
+      partitionColumn = XMLHandler.getTagValue( stepnode, "partition_column" );
+      partitionMethod = Const.NVL( XMLHandler.getTagValue( stepnode, "partition_method" ), PARTITION_METHOD_RANGE );
+      nrPartitions = Const.NVL( XMLHandler.getTagValue( stepnode, "partitions" ), "4" );
+      fetchSize = Const.NVL( XMLHandler.getTagValue( stepnode, "fetch_size" ), "0" );
 
     } catch ( Exception e ) {
       throw new KettleXMLException( "Unable to load step info from XML", e );
@@ -192,6 +216,10 @@ public class TableInputMeta extends BaseDatabaseStepMeta implements StepMetaInte
     databaseMeta = null;
     sql = "SELECT <values> FROM <table name> WHERE <conditions>";
     rowLimit = "0";
+    partitionColumn = null;
+    partitionMethod = PARTITION_METHOD_RANGE;
+    nrPartitions = "4";
+    fetchSize = "0";
   }
 
   protected Database getDatabase() {
@@ -301,6 +329,10 @@ public class TableInputMeta extends BaseDatabaseStepMeta implements StepMetaInte
     retval.append( "    " + XMLHandler.addTagValue( "variables_active", variableReplacementActive ) );
     retval.append( "    " + XMLHandler.addTagValue( "lazy_conversion_active", lazyConversionActive ) );
     retval.append( "    " + XMLHandler.addTagValue( "cached_row_meta_active", cachedRowMetaActive ) );
+    retval.append( "    " + XMLHandler.addTagValue( "partition_column", partitionColumn ) );
+    retval.append( "    " + XMLHandler.addTagValue( "partition_method", partitionMethod ) );
+    retval.append( "    " + XMLHandler.addTagValue( "partitions", nrPartitions ) );
+    retval.append( "    " + XMLHandler.addTagValue( "fetch_size", fetchSize ) );
     storeCachedRowMeta( retval );
     return retval.toString();
   }
@@ -354,6 +386,11 @@ public class TableInputMeta extends BaseDatabaseStepMeta implements StepMetaInte
       variableReplacementActive = rep.getStepAttributeBoolean( id_step, "variables_active" );
       lazyConversionActive = rep.getStepAttributeBoolean( id_step, "lazy_conversion_active" );
       cachedRowMetaActive = rep.getStepAttributeBoolean( id_step, "cached_row_meta_active" );
+      partitionColumn = rep.getStepAttributeString( id_step, "partition_column" );
+      partitionMethod =
+        Const.NVL( rep.getStepAttributeString( id_step, "partition_method" ), PARTITION_METHOD_RANGE );
+      nrPartitions = Const.NVL( rep.getStepAttributeString( id_step, "partitions" ), "4" );
+      fetchSize = Const.NVL( rep.getStepAttributeString( id_step, "fetch_size" ), "0" );
 
       String sRowMeta = rep.getStepAttributeString( id_step, RowMeta.XML_META_TAG );
       if ( sRowMeta != null ) {
@@ -380,6 +417,10 @@ public class TableInputMeta extends BaseDatabaseStepMeta implements StepMetaInte
       rep.saveStepAttribute( id_transformation, id_step, "variables_active", variableReplacementActive );
       rep.saveStepAttribute( id_transformation, id_step, "lazy_conversion_active", lazyConversionActive );
       rep.saveStepAttribute( id_transformation, id_step, "cached_row_meta_active", cachedRowMetaActive );
+      rep.saveStepAttribute( id_transformation, id_step, "partition_column", partitionColumn );
+      rep.saveStepAttribute( id_transformation, id_step, "partition_method", partitionMethod );
+      rep.saveStepAttribute( id_transformation, id_step, "partitions", nrPartitions );
+      rep.saveStepAttribute( id_transformation, id_step, "fetch_size", fetchSize );
       if ( cachedRowMeta != null ) {
         rep.saveStepAttribute( id_transformation, id_step, RowMeta.XML_META_TAG, cachedRowMeta.getMetaXML() );
       }
@@ -620,6 +661,62 @@ public class TableInputMeta extends BaseDatabaseStepMeta implements StepMetaInte
     this.cachedRowMeta = cachedRowMeta;
   }
 
+  /**
+   * @return the column of the query used to split the read in partitions, empty to read with a single query
+   */
+  public String getPartitionColumn() {
+    return partitionColumn;
+  }
+
+  /**
+   * @param partitionColumn the column of the query used to split the read in partitions
+   */
+  public void setPartitionColumn( String partitionColumn ) {
+    this.partitionColumn = partitionColumn;
+  }
+
+  /**
+   * @return {@link #PARTITION_METHOD_RANGE} or {@link #PARTITION_METHOD_MODULUS}
+   */
+  public String getPartitionMethod() {
+    return partitionMethod;
+  }
+
+  /**
+   * @param partitionMethod {@link #PARTITION_METHOD_RANGE} or {@link #PARTITION_METHOD_MODULUS}
+   */
+  public void setPartitionMethod( String partitionMethod ) {
+    this.partitionMethod = partitionMethod;
+  }
+
+  /**
+   * @return the number of partitions, divided over the step copies
+   */
+  public String getNrPartitions() {
+    return nrPartitions;
+  }
+
+  /**
+   * @param nrPartitions the number of partitions, divided over the step copies
+   */
+  public void setNrPartitions( String nrPartitions ) {
+    this.nrPartitions = nrPartitions;
+  }
+
+  /**
+   * @return the number of rows the JDBC driver fetches at a time, 0 for the default
+   */
+  public String getFetchSize() {
+    return fetchSize;
+  }
+
+  /**
+   * @param fetchSize the number of rows the JDBC driver fetches at a time, 0 for the default
+   */
+  public void setFetchSize( String fetchSize ) {
+    this.fetchSize = fetchSize;
+  }
+
   /**
    * Returns the Input/Output metadata for this step. The generator step only produces output, does not accept input!
    */
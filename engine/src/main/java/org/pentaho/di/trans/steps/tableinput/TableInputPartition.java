@@ -0,0 +1,273 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.tableinput;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.pentaho.di.core.Const;
+import org.pentaho.di.core.database.DatabaseMeta;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaFactory;
+import org.pentaho.di.i18n.BaseMessages;
+
+/**
+ * A part of the rows of a Table Input query, selected with a condition on a partition column. The query of the step
+ * is wrapped as a sub-query so that the condition can refer to the columns it returns:<br>
+ * <code>SELECT * FROM ( query ) kettle_partition WHERE condition</code><br>
+ * Together the partitions of a query return all of its rows exactly once, including the rows where the partition
+ * column is null.
+ *
+ * @since 11.0
+ */
+public class TableInputPartition {
+  private static Class<?> PKG = TableInputMeta.class; // for i18n purposes, needed by Translator2!!
+
+  private static final String ALIAS = "kettle_partition";
+
+  private final int index;
+  private final String condition;
+  private final ValueMetaInterface boundMeta;
+  private final Object[] bounds;
+
+  /**
+   * @param index     the index of the partition
+   * @param condition the condition on the partition column, with a question mark for each bound, null for all rows
+   * @param boundMeta the metadata of the bounds
+   * @param bounds    the values of the question marks in the condition
+   */
+  TableInputPartition( int index, String condition, ValueMetaInterface boundMeta, Object... bounds ) {
+    this.index = index;
+    this.condition = condition;
+    this.boundMeta = boundMeta;
+    this.bounds = bounds;
+  }
+
+  /**
+   * @param databaseMeta the database
+   * @param sql          the query of the step
+   * @param column       the quoted partition column
+   * @return the query that returns the minimum and the maximum value of the partition column
+   */
+  public static String getMinMaxSQL( DatabaseMeta databaseMeta, String sql, String column ) {
+    return "SELECT " + databaseMeta.getFunctionMinimum() + "( " + column + " ), "
+      + databaseMeta.getFunctionMaximum() + "( " + column + " )" + Const.CR
+      + "FROM (" + Const.CR + stripSQL( sql ) + Const.CR + ") " + ALIAS;
+  }
+
+  /**
+   * Splits the range between the minimum and the maximum value of the partition column in equal parts. The first
+   * partition also takes the values below the minimum and the nulls, the last one the values above the maximum.
+   *
+   * @param column       the quoted partition column
+   * @param valueMeta    the metadata of the partition column: an integer, number, big number, date or timestamp
+   * @param min          the minimum value, null if there are no rows
+   * @param max          the maximum value, null if there are no rows
+   * @param nrPartitions the number of partitions, fewer are returned when there aren't enough distinct values
+   * @return the partitions
+   * @throws KettleException in case the partition column has an unsupported type
+   */
+  public static List<TableInputPartition> createRangePartitions( String column, ValueMetaInterface valueMeta,
+                                                                 Object min, Object max, int nrPartitions )
+    throws KettleException {
+    int type = valueMeta.getType();
+    switch ( type ) {
+      case ValueMetaInterface.TYPE_INTEGER:
+      case ValueMetaInterface.TYPE_NUMBER:
+      case ValueMetaInterface.TYPE_BIGNUMBER:
+      case ValueMetaInterface.TYPE_DATE:
+      case ValueMetaInterface.TYPE_TIMESTAMP:
+        break;
+      default:
+        throw new KettleException( BaseMessages.getString( PKG, "TableInput.Exception.PartitionColumnType",
+          valueMeta.getName(), valueMeta.getTypeDesc() ) );
+    }
+
+    List<TableInputPartition> partitions = new ArrayList<>();
+    if ( min == null || max == null ) {
+      partitions.add( new TableInputPartition( 0, null, null ) );
+      return partitions;
+    }
+
+    // The bounds between the partitions, skipping the ones that don't fall between the previous bound and the maximum
+    //
+    BigDecimal low = toDecimal( valueMeta, min );
+    BigDecimal high = toDecimal( valueMeta, max );
+    List<Object> bounds = new ArrayList<>();
+    BigDecimal previous = low;
+    for ( int i = 1; i < nrPartitions; i++ ) {
+      BigDecimal bound = high.subtract( low ).multiply( BigDecimal.valueOf( i ) )
+        .divide( BigDecimal.valueOf( nrPartitions ), MathContext.DECIMAL64 ).add( low );
+      if ( type != ValueMetaInterface.TYPE_NUMBER && type != ValueMetaInterface.TYPE_BIGNUMBER ) {
+        bound = bound.setScale( 0, RoundingMode.CEILING );
+      }
+      if ( bound.compareTo( previous ) > 0 && bound.compareTo( high ) <= 0 ) {
+        bounds.add( fromDecimal( type, bound ) );
+        previous = bound;
+      }
+    }
+    if ( bounds.isEmpty() ) {
+      partitions.add( new TableInputPartition( 0, null, null ) );
+      return partitions;
+    }
+
+    ValueMetaInterface boundMeta = createBoundMeta( type );
+    partitions.add( new TableInputPartition( 0, "( " + column + " < ? OR " + column + " IS NULL )", boundMeta,
+      bounds.get( 0 ) ) );
+    for ( int i = 1; i < bounds.size(); i++ ) {
+      partitions.add( new TableInputPartition( i, column + " >= ? AND " + column + " < ?", boundMeta,
+        bounds.get( i - 1 ), bounds.get( i ) ) );
+    }
+    partitions.add( new TableInputPartition( bounds.size(), column + " >= ?", boundMeta,
+      bounds.get( bounds.size() - 1 ) ) );
+    return partitions;
+  }
+
+  /**
+   * Splits the rows on the remainder of the division of an integer partition column by the number of partitions. The
+   * first partition also takes the nulls.
+   *
+   * @param databaseMeta the database, for the modulus function
+   * @param column       the quoted partition column
+   * @param nrPartitions the number of partitions
+   * @return the partitions
+   */
+  public static List<TableInputPartition> createModulusPartitions( DatabaseMeta databaseMeta, String column,
+                                                                   int nrPartitions ) {
+    List<TableInputPartition> partitions = new ArrayList<>();
+    if ( nrPartitions < 2 ) {
+      partitions.add( new TableInputPartition( 0, null, null ) );
+      return partitions;
+    }
+    // ABS: the remainder of a negative value is negative in most databases
+    //
+    String remainder = "ABS( " + databaseMeta.getFunctionModulus( column, Integer.toString( nrPartitions ) ) + " )";
+    for ( int i = 0; i < nrPartitions; i++ ) {
+      String condition = remainder + " = " + i;
+      if ( i == 0 ) {
+        condition = "( " + condition + " OR " + column + " IS NULL )";
+      }
+      partitions.add( new TableInputPartition( i, condition, null ) );
+    }
+    return partitions;
+  }
+
+  /**
+   * @return the index of the partition
+   */
+  public int getIndex() {
+    return index;
+  }
+
+  /**
+   * @return the condition on the partition column, null if the partition contains all rows
+   */
+  public String getCondition() {
+    return condition;
+  }
+
+  /**
+   * @param sql the query of the step
+   * @return the query that returns the rows of this partition
+   */
+  public String getSQL( String sql ) {
+    if ( condition == null ) {
+      return sql;
+    }
+    return "SELECT * FROM (" + Const.CR + stripSQL( sql ) + Const.CR + ") " + ALIAS + " WHERE " + condition;
+  }
+
+  /**
+   * @param parametersMeta the metadata of the parameters of the query of the step, can be empty
+   * @return the metadata of the parameters of the query of this partition: those of the step followed by the bounds
+   */
+  public RowMetaInterface getParametersMeta( RowMetaInterface parametersMeta ) {
+    RowMetaInterface rowMeta = new RowMeta();
+    rowMeta.addRowMeta( parametersMeta );
+    for ( int i = 0; i < bounds.length; i++ ) {
+      rowMeta.addValueMeta( boundMeta );
+    }
+    return rowMeta;
+  }
+
+  /**
+   * @param parametersMeta the metadata of the parameters of the query of the step, can be empty
+   * @param parameters     the parameters of the query of the step
+   * @return the parameters of the query of this partition: those of the step followed by the bounds
+   */
+  public Object[] getParameters( RowMetaInterface parametersMeta, Object[] parameters ) {
+    // A new array: the parameters row is shared by the partitions and can be over-allocated
+    //
+    int nrParameters = parametersMeta.size();
+    Object[] result = new Object[ nrParameters + bounds.length ];
+    if ( parameters != null ) {
+      System.arraycopy( parameters, 0, result, 0, Math.min( nrParameters, parameters.length ) );
+    }
+    System.arraycopy( bounds, 0, result, nrParameters, bounds.length );
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return condition == null ? "all rows" : condition;
+  }
+
+  /**
+   * Removes the trailing semicolon and white space that can't appear in a sub-query.
+   */
+  private static String stripSQL( String sql ) {
+    String stripped = Const.rtrim( sql );
+    while ( stripped.endsWith( ";" ) ) {
+      stripped = Const.rtrim( stripped.substring( 0, stripped.length() - 1 ) );
+    }
+    return stripped;
+  }
+
+  private static BigDecimal toDecimal( ValueMetaInterface valueMeta, Object value ) throws KettleException {
+    switch ( valueMeta.getType() ) {
+      case ValueMetaInterface.TYPE_DATE:
+      case ValueMetaInterface.TYPE_TIMESTAMP:
+        return BigDecimal.valueOf( valueMeta.getDate( value ).getTime() );
+      default:
+        return valueMeta.getBigNumber( value );
+    }
+  }
+
+  private static Object fromDecimal( int type, BigDecimal value ) {
+    switch ( type ) {
+      case ValueMetaInterface.TYPE_INTEGER:
+        return value.longValue();
+      case ValueMetaInterface.TYPE_NUMBER:
+        return value.doubleValue();
+      case ValueMetaInterface.TYPE_DATE:
+        return new Date( value.longValue() );
+      case ValueMetaInterface.TYPE_TIMESTAMP:
+        return new Timestamp( value.longValue() );
+      default:
+        return value;
+    }
+  }
+
+  private static ValueMetaInterface createBoundMeta( int type ) throws KettleException {
+    return ValueMetaFactory.createValueMeta( "partition_bound", type );
+  }
+}
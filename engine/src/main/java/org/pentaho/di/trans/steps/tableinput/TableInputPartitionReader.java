@@ -0,0 +1,299 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.tableinput;
+
+import java.io.Closeable;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.pentaho.di.core.database.Database;
+import org.pentaho.di.core.database.DatabaseMeta;
+import org.pentaho.di.core.exception.KettleDatabaseException;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.logging.LogChannelInterface;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.i18n.BaseMessages;
+
+/**
+ * Reads the partitions of a Table Input query concurrently, each partition with its own connection and thread. The
+ * rows are handed to the step thread in chunks through a bounded queue, in no particular order.
+ *
+ * @since 11.0
+ */
+public class TableInputPartitionReader implements Closeable {
+  private static Class<?> PKG = TableInputMeta.class; // for i18n purposes, needed by Translator2!!
+
+  /** The number of rows that are handed over to the step thread at once */
+  static final int CHUNK_SIZE = 500;
+
+  /** The number of chunks per partition that can be waiting for the step thread */
+  private static final int CHUNKS_PER_PARTITION = 4;
+
+  /** Marks the end of the rows of a partition */
+  private static final List<Object[]> END = Collections.emptyList();
+
+  private final TableInput step;
+  private final DatabaseMeta databaseMeta;
+  private final String sql;
+  private final List<TableInputPartition> partitions;
+  private final RowMetaInterface parametersMeta;
+  private final Object[] parameters;
+  private final int rowLimit;
+  private final int fetchSize;
+  private final boolean lazyConversion;
+  private final LogChannelInterface log;
+
+  private final BlockingQueue<List<Object[]>> queue;
+  private final List<Database> databases = new ArrayList<>();
+
+  private ExecutorService executor;
+
+  /** The metadata of the rows, set by the first partition that opened its query */
+  private volatile RowMetaInterface rowMeta;
+
+  /** The first error of a partition */
+  private volatile KettleException error;
+
+  private volatile boolean closed;
+
+  /** The rows of the current chunk and the position in it, only used by the step thread */
+  private List<Object[]> chunk = END;
+  private int chunkIndex;
+  private int nrFinished;
+
+  /**
+   * @param step           the step, also used as parent and variable space of the connections
+   * @param databaseMeta   the database to read from
+   * @param sql            the query of the step, variables already replaced
+   * @param partitions     the partitions to read
+   * @param parametersMeta the metadata of the parameters of the query, can be empty
+   * @param parameters     the parameters of the query
+   * @param rowLimit       the maximum number of rows to read per partition, 0 for no limit
+   * @param fetchSize      the number of rows the driver fetches at a time, 0 for the default
+   * @param lazyConversion true if the rows are read with lazy conversion
+   */
+  public TableInputPartitionReader( TableInput step, DatabaseMeta databaseMeta, String sql,
+                                    List<TableInputPartition> partitions, RowMetaInterface parametersMeta,
+                                    Object[] parameters, int rowLimit, int fetchSize, boolean lazyConversion ) {
+    this.step = step;
+    this.databaseMeta = databaseMeta;
+    this.sql = sql;
+    this.partitions = partitions;
+    this.parametersMeta = parametersMeta;
+    this.parameters = parameters;
+    this.rowLimit = rowLimit;
+    this.fetchSize = fetchSize;
+    this.lazyConversion = lazyConversion;
+    this.log = step.getLogChannel();
+    this.queue = new ArrayBlockingQueue<>( Math.max( 1, partitions.size() ) * CHUNKS_PER_PARTITION );
+  }
+
+  /**
+   * Opens a connection per partition and starts reading them.
+   *
+   * @throws KettleException in case a connection can't be opened
+   */
+  public void start() throws KettleException {
+    for ( int i = 0; i < partitions.size(); i++ ) {
+      databases.add( connect() );
+    }
+
+    String threadName = step.getStepname() + "." + step.getCopy() + " partition ";
+    AtomicInteger threadNr = new AtomicInteger();
+    executor = Executors.newFixedThreadPool( Math.max( 1, partitions.size() ), runnable -> {
+      Thread thread = new Thread( runnable, threadName + threadNr.incrementAndGet() );
+      thread.setDaemon( true );
+      return thread;
+    } );
+    for ( int i = 0; i < partitions.size(); i++ ) {
+      Database db = databases.get( i );
+      TableInputPartition partition = partitions.get( i );
+      executor.submit( () -> read( db, partition ) );
+    }
+  }
+
+  /**
+   * Opens a connection with the settings of the step.
+   */
+  Database connect() throws KettleDatabaseException {
+    Database db = new Database( step, databaseMeta );
+    db.shareVariablesWith( step );
+    db.connect( step.getPartitionID() );
+    db.setQueryLimit( rowLimit );
+    db.setFetchSize( fetchSize );
+    if ( databaseMeta.isRequiringTransactionsOnQueries() ) {
+      db.setCommit( 100 ); // needed for PGSQL it seems...
+    }
+    return db;
+  }
+
+  /**
+   * Gets the next row of any of the partitions, waiting for one if needed.
+   *
+   * @return the row or null when all partitions are read or the step is stopped
+   * @throws KettleException in case reading one of the partitions failed
+   */
+  public Object[] getRow() throws KettleException {
+    while ( chunkIndex >= chunk.size() ) {
+      if ( nrFinished >= partitions.size() ) {
+        checkError();
+        return null;
+      }
+      List<Object[]> next;
+      try {
+        next = queue.poll( 100, TimeUnit.MILLISECONDS );
+      } catch ( InterruptedException e ) {
+        Thread.currentThread().interrupt();
+        throw new KettleException( "Interrupted while waiting for rows", e );
+      }
+      if ( step.isStopped() ) {
+        return null; // a query that was canceled fails, that is expected
+      }
+      checkError();
+      if ( next == null ) {
+        continue;
+      }
+      if ( next == END ) {
+        nrFinished++;
+      }
+      chunk = next;
+      chunkIndex = 0;
+    }
+    return chunk.get( chunkIndex++ );
+  }
+
+  /**
+   * @return the metadata of the rows, available once a row is returned
+   */
+  public RowMetaInterface getRowMeta() {
+    return rowMeta;
+  }
+
+  /**
+   * Asks the database to cancel the running queries.
+   */
+  public void cancel() {
+    for ( Database db : databases ) {
+      try {
+        if ( db.getConnection() != null ) {
+          db.cancelQuery();
+        }
+      } catch ( KettleDatabaseException e ) {
+        log.logDebug( e.getMessage() );
+      }
+    }
+  }
+
+  /**
+   * Stops reading and closes the connections.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    queue.clear();
+    if ( executor != null ) {
+      executor.shutdownNow();
+      try {
+        executor.awaitTermination( 10, TimeUnit.SECONDS );
+      } catch ( InterruptedException e ) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    for ( Database db : databases ) {
+      db.disconnect();
+    }
+    databases.clear();
+  }
+
+  private void checkError() throws KettleException {
+    if ( error != null ) {
+      throw error;
+    }
+  }
+
+  /**
+   * Reads all rows of a partition and hands them over to the step thread.
+   */
+  private void read( Database db, TableInputPartition partition ) {
+    String partitionSQL = partition.getSQL( sql );
+    RowMetaInterface partitionParametersMeta = partition.getParametersMeta( parametersMeta );
+    if ( log.isDetailed() ) {
+      log.logDetailed( BaseMessages.getString( PKG, "TableInput.Log.ReadingPartition", partition.getIndex(),
+        partition ) );
+    }
+    try {
+      ResultSet rs;
+      if ( partitionParametersMeta.isEmpty() ) {
+        rs = db.openQuery( partitionSQL, null, null, ResultSet.FETCH_FORWARD, lazyConversion );
+      } else {
+        rs = db.openQuery( partitionSQL, partitionParametersMeta,
+          partition.getParameters( parametersMeta, parameters ), ResultSet.FETCH_FORWARD, lazyConversion );
+      }
+      synchronized ( this ) {
+        if ( rowMeta == null ) {
+          rowMeta = db.getReturnRowMeta();
+        }
+      }
+
+      List<Object[]> rows = new ArrayList<>( CHUNK_SIZE );
+      Object[] row;
+      while ( !closed && ( row = db.getRow( rs, lazyConversion ) ) != null ) {
+        rows.add( row );
+        if ( rows.size() >= CHUNK_SIZE ) {
+          if ( !put( rows ) ) {
+            return;
+          }
+          rows = new ArrayList<>( CHUNK_SIZE );
+        }
+      }
+      db.closeQuery( rs );
+      if ( !rows.isEmpty() && !put( rows ) ) {
+        return;
+      }
+    } catch ( Throwable t ) {
+      if ( !closed && error == null ) {
+        error = new KettleException( BaseMessages.getString( PKG, "TableInput.Exception.PartitionFailed",
+          partition.getIndex(), partition ), t );
+      }
+    }
+    put( END );
+  }
+
+  /**
+   * Waits until there is room in the queue for a chunk.
+   *
+   * @return false if the reader was closed while waiting
+   */
+  private boolean put( List<Object[]> rows ) {
+    try {
+      while ( !queue.offer( rows, 100, TimeUnit.MILLISECONDS ) ) {
+        if ( closed ) {
+          return false;
+        }
+      }
+      return true;
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
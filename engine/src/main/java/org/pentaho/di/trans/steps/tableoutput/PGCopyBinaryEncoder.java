@@ -0,0 +1,299 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.tableoutput;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.Locale;
+
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.exception.KettleValueException;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.i18n.BaseMessages;
+
+/**
+ * Encodes rows in the binary format of COPY. The binary representation of a value depends on the exact type of the
+ * target column so the types of the columns need to be known up front. Only the common built-in types are supported.
+ *
+ * @since 11.0
+ */
+public class PGCopyBinaryEncoder extends PGCopyEncoder {
+  private static Class<?> PKG = TableOutputMeta.class; // for i18n purposes, needed by Translator2!!
+
+  private static final byte[] SIGNATURE = { 'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0 };
+
+  /** The PostgreSQL epoch, 2000-01-01, in days and microseconds since the Java epoch */
+  private static final long PG_EPOCH_DAYS = LocalDate.of( 2000, 1, 1 ).toEpochDay();
+  private static final long PG_EPOCH_MICROS = PG_EPOCH_DAYS * 86400L * 1000000L;
+
+  private static final int NUMERIC_POS = 0x0000;
+  private static final int NUMERIC_NEG = 0x4000;
+  private static final BigInteger TEN_THOUSAND = BigInteger.valueOf( 10000 );
+
+  private static final int INT2 = 1;
+  private static final int INT4 = 2;
+  private static final int INT8 = 3;
+  private static final int FLOAT4 = 4;
+  private static final int FLOAT8 = 5;
+  private static final int NUMERIC = 6;
+  private static final int BOOL = 7;
+  private static final int TEXT = 8;
+  private static final int JSONB = 9;
+  private static final int BYTEA = 10;
+  private static final int DATE = 11;
+  private static final int TIMESTAMP = 12;
+  private static final int TIMESTAMPTZ = 13;
+
+  private final int[] columnKinds;
+  private final ZoneId zone = ZoneId.systemDefault();
+
+  /**
+   * @param rowMeta         the metadata of the values to write
+   * @param columnTypes     the type names of the target columns, as reported by the database
+   * @param initialCapacity the initial size of the buffer
+   * @throws KettleException in case a column type can't be written in the binary format
+   */
+  public PGCopyBinaryEncoder( RowMetaInterface rowMeta, String[] columnTypes, int initialCapacity )
+    throws KettleException {
+    super( rowMeta, initialCapacity );
+    columnKinds = new int[ rowMeta.size() ];
+    for ( int i = 0; i < columnKinds.length; i++ ) {
+      columnKinds[ i ] = getColumnKind( columnTypes[ i ] );
+      if ( columnKinds[ i ] < 0 ) {
+        throw new KettleException( BaseMessages.getString( PKG, "TableOutput.Exception.UnsupportedBinaryCopyType",
+          rowMeta.getValueMeta( i ).getName(), columnTypes[ i ] ) );
+      }
+    }
+  }
+
+  private static int getColumnKind( String typeName ) {
+    if ( typeName == null ) {
+      return -1;
+    }
+    switch ( typeName.toLowerCase( Locale.ROOT ) ) {
+      case "int2":
+        return INT2;
+      case "int4":
+      case "serial":
+        return INT4;
+      case "int8":
+      case "bigserial":
+        return INT8;
+      case "float4":
+        return FLOAT4;
+      case "float8":
+        return FLOAT8;
+      case "numeric":
+        return NUMERIC;
+      case "bool":
+        return BOOL;
+      case "text":
+      case "varchar":
+      case "bpchar":
+      case "name":
+      case "json":
+      case "xml":
+        return TEXT;
+      case "jsonb":
+        return JSONB;
+      case "bytea":
+        return BYTEA;
+      case "date":
+        return DATE;
+      case "timestamp":
+        return TIMESTAMP;
+      case "timestamptz":
+        return TIMESTAMPTZ;
+      default:
+        return -1;
+    }
+  }
+
+  @Override
+  public String getCopyOptions() {
+    return " WITH (FORMAT binary)";
+  }
+
+  @Override
+  public void writeHeader() {
+    writeBytes( SIGNATURE );
+    writeInt( 0 ); // flags
+    writeInt( 0 ); // header extension length
+  }
+
+  @Override
+  public void writeRow( Object[] row ) throws KettleValueException {
+    int nrFields = rowMeta.size();
+    writeShort( nrFields );
+    for ( int i = 0; i < nrFields; i++ ) {
+      ValueMetaInterface valueMeta = rowMeta.getValueMeta( i );
+      Object value = i < row.length ? row[ i ] : null;
+      if ( valueMeta.isNull( value ) ) {
+        writeInt( -1 );
+        continue;
+      }
+      switch ( columnKinds[ i ] ) {
+        case INT2:
+          writeInt( 2 );
+          writeShort( (int) getInteger( valueMeta, value, Short.MIN_VALUE, Short.MAX_VALUE ) );
+          break;
+        case INT4:
+          writeInt( 4 );
+          writeInt( (int) getInteger( valueMeta, value, Integer.MIN_VALUE, Integer.MAX_VALUE ) );
+          break;
+        case INT8:
+          writeInt( 8 );
+          writeLong( valueMeta.getInteger( value ) );
+          break;
+        case FLOAT4:
+          writeInt( 4 );
+          writeInt( Float.floatToIntBits( valueMeta.getNumber( value ).floatValue() ) );
+          break;
+        case FLOAT8:
+          writeInt( 8 );
+          writeLong( Double.doubleToLongBits( valueMeta.getNumber( value ) ) );
+          break;
+        case NUMERIC:
+          writeNumeric( valueMeta.getBigNumber( value ) );
+          break;
+        case BOOL:
+          writeInt( 1 );
+          writeByte( valueMeta.getBoolean( value ) ? 1 : 0 );
+          break;
+        case TEXT:
+        case JSONB:
+          int start = length();
+          writeInt( 0 ); // the length is filled in afterwards
+          if ( columnKinds[ i ] == JSONB ) {
+            writeByte( 1 ); // jsonb version
+          }
+          writeUtf8( valueMeta.getString( value ), false );
+          setInt( start, length() - start - 4 );
+          break;
+        case BYTEA:
+          byte[] bytes = valueMeta.getBinary( value );
+          writeInt( bytes.length );
+          writeBytes( bytes );
+          break;
+        case DATE:
+          LocalDate date = LocalDateTime.ofInstant( toInstant( valueMeta.getDate( value ) ), zone ).toLocalDate();
+          writeInt( 4 );
+          writeInt( (int) ( date.toEpochDay() - PG_EPOCH_DAYS ) );
+          break;
+        case TIMESTAMP:
+          LocalDateTime dateTime = LocalDateTime.ofInstant( toInstant( valueMeta.getDate( value ) ), zone );
+          writeInt( 8 );
+          writeLong( toMicros( dateTime.toEpochSecond( ZoneOffset.UTC ), dateTime.getNano() ) - PG_EPOCH_MICROS );
+          break;
+        case TIMESTAMPTZ:
+          Instant instant = toInstant( valueMeta.getDate( value ) );
+          writeInt( 8 );
+          writeLong( toMicros( instant.getEpochSecond(), instant.getNano() ) - PG_EPOCH_MICROS );
+          break;
+        default:
+          throw new KettleValueException( "Unexpected column kind " + columnKinds[ i ] );
+      }
+    }
+  }
+
+  @Override
+  public void writeTrailer() {
+    writeShort( -1 );
+  }
+
+  private static long getInteger( ValueMetaInterface valueMeta, Object value, long min, long max )
+    throws KettleValueException {
+    long l = valueMeta.getInteger( value );
+    if ( l < min || l > max ) {
+      throw new KettleValueException( BaseMessages.getString( PKG, "TableOutput.Exception.IntegerOutOfRange",
+        valueMeta.getName(), l ) );
+    }
+    return l;
+  }
+
+  private static Instant toInstant( Date date ) {
+    return date instanceof Timestamp ? ( (Timestamp) date ).toInstant() : Instant.ofEpochMilli( date.getTime() );
+  }
+
+  private static long toMicros( long epochSecond, int nanos ) {
+    return epochSecond * 1000000L + nanos / 1000;
+  }
+
+  /**
+   * Writes a numeric as base 10000 digits: the number of digits, the weight of the first digit, the sign, the display
+   * scale and the digits themselves.
+   */
+  void writeNumeric( BigDecimal value ) {
+    int displayScale = Math.max( value.scale(), 0 );
+    int sign = value.signum() < 0 ? NUMERIC_NEG : NUMERIC_POS;
+
+    // Align the fraction on a base 10000 digit
+    //
+    BigInteger unscaled = value.unscaledValue().abs();
+    int scale = value.scale();
+    if ( scale < 0 ) {
+      unscaled = unscaled.multiply( BigInteger.TEN.pow( -scale ) );
+      scale = 0;
+    } else if ( scale % 4 != 0 ) {
+      unscaled = unscaled.multiply( BigInteger.TEN.pow( 4 - scale % 4 ) );
+      scale += 4 - scale % 4;
+    }
+
+    // The digits from the least significant one up
+    //
+    short[] digits = new short[ unscaled.bitLength() / 13 + 1 ];
+    int nrDigits = 0;
+    if ( unscaled.bitLength() < 63 ) {
+      for ( long l = unscaled.longValue(); l != 0; l /= 10000 ) {
+        digits[ nrDigits++ ] = (short) ( l % 10000 );
+      }
+    } else {
+      while ( unscaled.signum() != 0 ) {
+        BigInteger[] qr = unscaled.divideAndRemainder( TEN_THOUSAND );
+        digits[ nrDigits++ ] = qr[ 1 ].shortValue();
+        unscaled = qr[ 0 ];
+      }
+    }
+    int weight = nrDigits - scale / 4 - 1;
+
+    // Trailing zero digits are not stored
+    //
+    int first = 0;
+    while ( first < nrDigits && digits[ first ] == 0 ) {
+      first++;
+    }
+    if ( first == nrDigits ) {
+      weight = 0;
+      sign = NUMERIC_POS;
+    }
+
+    int n = nrDigits - first;
+    writeInt( 8 + 2 * n );
+    writeShort( n );
+    writeShort( weight );
+    writeShort( sign );
+    writeShort( displayScale );
+    for ( int i = nrDigits - 1; i >= first; i-- ) {
+      writeShort( digits[ i ] );
+    }
+  }
+}
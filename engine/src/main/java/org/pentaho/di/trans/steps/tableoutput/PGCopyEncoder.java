@@ -0,0 +1,248 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.tableoutput;
+
+import java.util.Arrays;
+
+import org.pentaho.di.core.exception.KettleValueException;
+import org.pentaho.di.core.row.RowMetaInterface;
+
+/**
+ * Encodes rows in one of the formats of the PostgreSQL COPY command. The rows are written to a growing byte buffer
+ * that is handed over to the COPY stream by {@link PGCopyWriter}.
+ *
+ * @since 11.0
+ */
+public abstract class PGCopyEncoder {
+
+  /** The COPY text format */
+  public static final String FORMAT_TEXT = "TEXT";
+
+  /** The COPY binary format */
+  public static final String FORMAT_BINARY = "BINARY";
+
+  protected final RowMetaInterface rowMeta;
+
+  private byte[] buffer;
+  private int length;
+
+  protected PGCopyEncoder( RowMetaInterface rowMeta, int initialCapacity ) {
+    this.rowMeta = rowMeta;
+    this.buffer = new byte[ Math.max( 16, initialCapacity ) ];
+  }
+
+  /**
+   * @return the options of the COPY command for this format, an empty string for the default text format
+   */
+  public abstract String getCopyOptions();
+
+  /**
+   * Writes what needs to come before the first row of a COPY command.
+   */
+  public abstract void writeHeader();
+
+  /**
+   * Writes one row.
+   *
+   * @param row the row data, described by the row metadata of this encoder
+   * @throws KettleValueException in case a value can't be encoded
+   */
+  public abstract void writeRow( Object[] row ) throws KettleValueException;
+
+  /**
+   * Writes what needs to come after the last row of a COPY command.
+   */
+  public abstract void writeTrailer();
+
+  /**
+   * @return the buffer with the encoded data, only the first {@link #length()} bytes are used
+   */
+  public byte[] getBuffer() {
+    return buffer;
+  }
+
+  /**
+   * @return the number of encoded bytes in the buffer
+   */
+  public int length() {
+    return length;
+  }
+
+  /**
+   * Empties the buffer, after its content has been written.
+   */
+  public void clear() {
+    length = 0;
+  }
+
+  /**
+   * Drops the bytes after the given length, for instance of a row that couldn't be encoded completely.
+   *
+   * @param length the new length, not larger than the current length
+   */
+  public void truncate( int length ) {
+    this.length = Math.min( length, this.length );
+  }
+
+  /**
+   * @return a copy of the encoded bytes
+   */
+  public byte[] toByteArray() {
+    return Arrays.copyOf( buffer, length );
+  }
+
+  protected final void ensureCapacity( int extra ) {
+    if ( length + extra > buffer.length ) {
+      buffer = Arrays.copyOf( buffer, Math.max( buffer.length * 2, length + extra ) );
+    }
+  }
+
+  protected final void writeByte( int b ) {
+    ensureCapacity( 1 );
+    buffer[ length++ ] = (byte) b;
+  }
+
+  protected final void writeBytes( byte[] bytes ) {
+    ensureCapacity( bytes.length );
+    System.arraycopy( bytes, 0, buffer, length, bytes.length );
+    length += bytes.length;
+  }
+
+  protected final void writeShort( int value ) {
+    ensureCapacity( 2 );
+    buffer[ length++ ] = (byte) ( value >>> 8 );
+    buffer[ length++ ] = (byte) value;
+  }
+
+  protected final void writeInt( int value ) {
+    ensureCapacity( 4 );
+    buffer[ length++ ] = (byte) ( value >>> 24 );
+    buffer[ length++ ] = (byte) ( value >>> 16 );
+    buffer[ length++ ] = (byte) ( value >>> 8 );
+    buffer[ length++ ] = (byte) value;
+  }
+
+  protected final void writeLong( long value ) {
+    writeInt( (int) ( value >>> 32 ) );
+    writeInt( (int) value );
+  }
+
+  /**
+   * Overwrites 4 bytes that were written before, used to fill in a length once it is known.
+   */
+  protected final void setInt( int position, int value ) {
+    buffer[ position ] = (byte) ( value >>> 24 );
+    buffer[ position + 1 ] = (byte) ( value >>> 16 );
+    buffer[ position + 2 ] = (byte) ( value >>> 8 );
+    buffer[ position + 3 ] = (byte) value;
+  }
+
+  /**
+   * Writes the decimal digits of a number without creating a String.
+   */
+  protected final void writeDecimal( long value ) {
+    if ( value == Long.MIN_VALUE ) {
+      // Can't be negated
+      //
+      writeDecimal( value / 10 );
+      writeByte( '8' );
+      return;
+    }
+    if ( value < 0 ) {
+      writeByte( '-' );
+      value = -value;
+    }
+    int digits = 1;
+    for ( long v = value; v >= 10; v /= 10 ) {
+      digits++;
+    }
+    ensureCapacity( digits );
+    for ( int i = length + digits - 1; i >= length; i-- ) {
+      buffer[ i ] = (byte) ( '0' + value % 10 );
+      value /= 10;
+    }
+    length += digits;
+  }
+
+  /**
+   * Writes the decimal digits of a number, padded with zeros to the given width.
+   */
+  protected final void writeDecimal( int value, int width ) {
+    ensureCapacity( width );
+    for ( int i = length + width - 1; i >= length; i-- ) {
+      buffer[ i ] = (byte) ( '0' + value % 10 );
+      value /= 10;
+    }
+    length += width;
+  }
+
+  /**
+   * Writes characters as UTF-8, the client encoding of the PostgreSQL JDBC driver.
+   *
+   * @param s       the characters
+   * @param escaped true if the special characters of the COPY text format need to be escaped
+   */
+  protected final void writeUtf8( CharSequence s, boolean escaped ) {
+    int n = s.length();
+    ensureCapacity( n );
+    for ( int i = 0; i < n; i++ ) {
+      char c = s.charAt( i );
+      if ( c < 0x80 ) {
+        if ( escaped ) {
+          switch ( c ) {
+            case '\\':
+              writeByte( '\\' );
+              writeByte( '\\' );
+              continue;
+            case '\t':
+              writeByte( '\\' );
+              writeByte( 't' );
+              continue;
+            case '\n':
+              writeByte( '\\' );
+              writeByte( 'n' );
+              continue;
+            case '\r':
+              writeByte( '\\' );
+              writeByte( 'r' );
+              continue;
+            default:
+              break;
+          }
+        }
+        writeByte( c );
+      } else if ( c < 0x800 ) {
+        ensureCapacity( 2 );
+        buffer[ length++ ] = (byte) ( 0xc0 | ( c >> 6 ) );
+        buffer[ length++ ] = (byte) ( 0x80 | ( c & 0x3f ) );
+      } else if ( Character.isHighSurrogate( c ) && i + 1 < n && Character.isLowSurrogate( s.charAt( i + 1 ) ) ) {
+        int cp = Character.toCodePoint( c, s.charAt( ++i ) );
+        ensureCapacity( 4 );
+        buffer[ length++ ] = (byte) ( 0xf0 | ( cp >> 18 ) );
+        buffer[ length++ ] = (byte) ( 0x80 | ( ( cp >> 12 ) & 0x3f ) );
+        buffer[ length++ ] = (byte) ( 0x80 | ( ( cp >> 6 ) & 0x3f ) );
+        buffer[ length++ ] = (byte) ( 0x80 | ( cp & 0x3f ) );
+      } else if ( Character.isSurrogate( c ) ) {
+        // An unpaired surrogate can't be encoded, the same replacement as String.getBytes()
+        //
+        writeByte( '?' );
+      } else {
+        ensureCapacity( 3 );
+        buffer[ length++ ] = (byte) ( 0xe0 | ( c >> 12 ) );
+        buffer[ length++ ] = (byte) ( 0x80 | ( ( c >> 6 ) & 0x3f ) );
+        buffer[ length++ ] = (byte) ( 0x80 | ( c & 0x3f ) );
+      }
+    }
+  }
+}
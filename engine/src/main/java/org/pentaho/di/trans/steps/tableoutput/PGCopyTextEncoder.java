@@ -0,0 +1,177 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.tableoutput;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+import org.pentaho.di.core.exception.KettleValueException;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+
+/**
+ * Encodes rows in the default text format of COPY: tab separated values, \N for null values and backslash escapes for
+ * the special characters. Numbers, dates and booleans are written straight into the buffer.
+ *
+ * @since 11.0
+ */
+public class PGCopyTextEncoder extends PGCopyEncoder {
+
+  private static final byte[] NULL = { '\\', 'N' };
+  private static final byte[] NAN = { 'N', 'a', 'N' };
+  private static final byte[] INFINITY = { 'I', 'n', 'f', 'i', 'n', 'i', 't', 'y' };
+  private static final byte[] BC = { ' ', 'B', 'C' };
+
+  /** Doubles with an integral value below this limit are written like a long */
+  private static final double MAX_INTEGRAL_DOUBLE = 1e15;
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private final ZoneId zone = ZoneId.systemDefault();
+
+  public PGCopyTextEncoder( RowMetaInterface rowMeta, int initialCapacity ) {
+    super( rowMeta, initialCapacity );
+  }
+
+  @Override
+  public String getCopyOptions() {
+    return "";
+  }
+
+  @Override
+  public void writeHeader() {
+    // The text format has no header
+  }
+
+  @Override
+  public void writeRow( Object[] row ) throws KettleValueException {
+    int nrFields = rowMeta.size();
+    for ( int i = 0; i < nrFields; i++ ) {
+      if ( i > 0 ) {
+        writeByte( '\t' );
+      }
+      ValueMetaInterface valueMeta = rowMeta.getValueMeta( i );
+      Object value = i < row.length ? row[ i ] : null;
+      if ( valueMeta.isNull( value ) ) {
+        writeBytes( NULL );
+        continue;
+      }
+      switch ( valueMeta.getType() ) {
+        case ValueMetaInterface.TYPE_INTEGER:
+          writeDecimal( valueMeta.getInteger( value ) );
+          break;
+        case ValueMetaInterface.TYPE_NUMBER:
+          writeDouble( valueMeta.getNumber( value ) );
+          break;
+        case ValueMetaInterface.TYPE_BIGNUMBER:
+          writeUtf8( valueMeta.getBigNumber( value ).toString(), false );
+          break;
+        case ValueMetaInterface.TYPE_BOOLEAN:
+          writeByte( valueMeta.getBoolean( value ) ? 't' : 'f' );
+          break;
+        case ValueMetaInterface.TYPE_DATE:
+        case ValueMetaInterface.TYPE_TIMESTAMP:
+          writeTimestamp( valueMeta.getDate( value ) );
+          break;
+        case ValueMetaInterface.TYPE_BINARY:
+          writeBytea( valueMeta.getBinary( value ) );
+          break;
+        default:
+          writeUtf8( valueMeta.getString( value ), true );
+          break;
+      }
+    }
+    writeByte( '\n' );
+  }
+
+  @Override
+  public void writeTrailer() {
+    // The end of the data is signaled by ending the COPY
+  }
+
+  private void writeDouble( double d ) {
+    if ( Double.isNaN( d ) ) {
+      writeBytes( NAN );
+    } else if ( Double.isInfinite( d ) ) {
+      if ( d < 0 ) {
+        writeByte( '-' );
+      }
+      writeBytes( INFINITY );
+    } else if ( d == Math.rint( d ) && Math.abs( d ) < MAX_INTEGRAL_DOUBLE ) {
+      writeDecimal( (long) d );
+    } else {
+      writeUtf8( Double.toString( d ), false );
+    }
+  }
+
+  /**
+   * Writes a date as yyyy-MM-dd HH:mm:ss[.fraction] in the time zone of the JVM, the way the JDBC driver sends a
+   * timestamp parameter.
+   */
+  private void writeTimestamp( Date date ) {
+    Instant instant = date instanceof Timestamp
+      ? ( (Timestamp) date ).toInstant() : Instant.ofEpochMilli( date.getTime() );
+    LocalDateTime dateTime = LocalDateTime.ofInstant( instant, zone );
+    int year = dateTime.getYear();
+    boolean bc = year <= 0;
+    if ( bc ) {
+      year = 1 - year;
+    }
+    if ( year < 10000 ) {
+      writeDecimal( year, 4 );
+    } else {
+      writeDecimal( year );
+    }
+    writeByte( '-' );
+    writeDecimal( dateTime.getMonthValue(), 2 );
+    writeByte( '-' );
+    writeDecimal( dateTime.getDayOfMonth(), 2 );
+    writeByte( ' ' );
+    writeDecimal( dateTime.getHour(), 2 );
+    writeByte( ':' );
+    writeDecimal( dateTime.getMinute(), 2 );
+    writeByte( ':' );
+    writeDecimal( dateTime.getSecond(), 2 );
+    int nanos = dateTime.getNano();
+    if ( nanos > 0 ) {
+      int width = 9;
+      while ( nanos % 10 == 0 ) {
+        nanos /= 10;
+        width--;
+      }
+      writeByte( '.' );
+      writeDecimal( nanos, width );
+    }
+    if ( bc ) {
+      writeBytes( BC );
+    }
+  }
+
+  /**
+   * Writes binary data in the hex format of bytea. The backslash of the format is escaped for COPY.
+   */
+  private void writeBytea( byte[] bytes ) {
+    ensureCapacity( 3 + bytes.length * 2 );
+    writeByte( '\\' );
+    writeByte( '\\' );
+    writeByte( 'x' );
+    for ( byte b : bytes ) {
+      writeByte( HEX[ ( b >> 4 ) & 0xf ] );
+      writeByte( HEX[ b & 0xf ] );
+    }
+  }
+}
@@ -0,0 +1,224 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.tableoutput;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.pentaho.di.core.database.DatabaseMeta;
+import org.pentaho.di.core.exception.KettleDatabaseException;
+import org.pentaho.di.core.exception.KettleValueException;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+/**
+ * Streams rows into a PostgreSQL table with COPY ... FROM STDIN through the copy API of the PostgreSQL JDBC driver.
+ * The rows are encoded by a {@link PGCopyEncoder} and sent to the server each time the buffer fills up. A COPY is
+ * started with the first row and ended with {@link #endCopy()}, after which the transaction can be committed.
+ *
+ * @since 11.0
+ */
+public class PGCopyWriter {
+
+  private final CopyManager copyManager;
+  private final String copySql;
+  private final PGCopyEncoder encoder;
+  private final int bufferSize;
+
+  private CopyIn copyIn;
+  private long nrRows;
+
+  /**
+   * @param copyManager the copy API of the connection
+   * @param copySql     the COPY statement
+   * @param encoder     encodes the rows in the format of the COPY statement
+   * @param bufferSize  the number of bytes that are collected before they are sent to the server
+   */
+  public PGCopyWriter( CopyManager copyManager, String copySql, PGCopyEncoder encoder, int bufferSize ) {
+    this.copyManager = copyManager;
+    this.copySql = copySql;
+    this.encoder = encoder;
+    this.bufferSize = Math.max( 1, bufferSize );
+  }
+
+  /**
+   * @param connection a database connection, possibly wrapped by a connection pool
+   * @return the copy API of the connection or null if it isn't a connection of the PostgreSQL JDBC driver
+   */
+  public static CopyManager getCopyManager( Connection connection ) throws KettleDatabaseException {
+    try {
+      if ( connection == null || !connection.isWrapperFor( PGConnection.class ) ) {
+        return null;
+      }
+      return connection.unwrap( PGConnection.class ).getCopyAPI();
+    } catch ( SQLException e ) {
+      throw new KettleDatabaseException( "Unable to get the copy API of the connection", e );
+    } catch ( LinkageError e ) {
+      // The PostgreSQL driver is not available
+      //
+      return null;
+    }
+  }
+
+  /**
+   * Builds the COPY statement for the fields to insert.
+   */
+  public static String getCopyStatement( DatabaseMeta databaseMeta, String schemaName, String tableName,
+                                         RowMetaInterface fields, PGCopyEncoder encoder ) {
+    StringBuilder sql = new StringBuilder( 128 );
+    sql.append( "COPY " ).append( databaseMeta.getQuotedSchemaTableCombination( schemaName, tableName ) );
+    sql.append( " (" ).append( getColumnList( databaseMeta, fields ) ).append( ") FROM STDIN" );
+    sql.append( encoder.getCopyOptions() );
+    return sql.toString();
+  }
+
+  /**
+   * Looks up the type names of the target columns, the binary format depends on them.
+   *
+   * @return the type name of the column of each field to insert
+   */
+  public static String[] getColumnTypes( Connection connection, DatabaseMeta databaseMeta, String schemaName,
+                                         String tableName, RowMetaInterface fields ) throws KettleDatabaseException {
+    String sql = "SELECT " + getColumnList( databaseMeta, fields ) + " FROM "
+      + databaseMeta.getQuotedSchemaTableCombination( schemaName, tableName ) + " WHERE 1=0";
+    try ( Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery( sql ) ) {
+      ResultSetMetaData metaData = resultSet.getMetaData();
+      String[] types = new String[ fields.size() ];
+      for ( int i = 0; i < types.length; i++ ) {
+        types[ i ] = metaData.getColumnTypeName( i + 1 );
+      }
+      return types;
+    } catch ( SQLException e ) {
+      throw new KettleDatabaseException( "Unable to determine the column types of table " + tableName, e );
+    }
+  }
+
+  private static String getColumnList( DatabaseMeta databaseMeta, RowMetaInterface fields ) {
+    StringBuilder columns = new StringBuilder();
+    for ( int i = 0; i < fields.size(); i++ ) {
+      if ( i > 0 ) {
+        columns.append( ", " );
+      }
+      columns.append( databaseMeta.quoteField( fields.getValueMeta( i ).getName() ) );
+    }
+    return columns.toString();
+  }
+
+  /**
+   * @return the COPY statement
+   */
+  public String getCopySql() {
+    return copySql;
+  }
+
+  /**
+   * Adds a row to the current COPY, starting one if needed.
+   *
+   * @param row the values to insert
+   * @throws KettleValueException    in case a value of the row can't be encoded, the row is not added
+   * @throws KettleDatabaseException in case the data can't be sent, the COPY failed
+   */
+  public void writeRow( Object[] row ) throws KettleValueException, KettleDatabaseException {
+    if ( copyIn == null ) {
+      try {
+        copyIn = copyManager.copyIn( copySql );
+      } catch ( SQLException e ) {
+        throw new KettleDatabaseException( "Unable to start " + copySql, e );
+      }
+      encoder.clear();
+      encoder.writeHeader();
+    }
+
+    int mark = encoder.length();
+    try {
+      encoder.writeRow( row );
+    } catch ( KettleValueException | RuntimeException e ) {
+      encoder.truncate( mark );
+      throw e;
+    }
+    nrRows++;
+
+    if ( encoder.length() >= bufferSize ) {
+      flush();
+    }
+  }
+
+  private void flush() throws KettleDatabaseException {
+    try {
+      copyIn.writeToCopy( encoder.getBuffer(), 0, encoder.length() );
+    } catch ( SQLException e ) {
+      throw new KettleDatabaseException( "Error sending data for " + copySql, e );
+    }
+    encoder.clear();
+  }
+
+  /**
+   * @return the number of rows in the current COPY
+   */
+  public long getNrRows() {
+    return nrRows;
+  }
+
+  /**
+   * @return true if a COPY is in progress
+   */
+  public boolean isActive() {
+    return copyIn != null;
+  }
+
+  /**
+   * Ends the current COPY, if there is one. The rows are only visible to others once the transaction is committed.
+   *
+   * @return the number of rows that were copied
+   * @throws KettleDatabaseException in case the COPY failed
+   */
+  public long endCopy() throws KettleDatabaseException {
+    if ( copyIn == null ) {
+      return 0L;
+    }
+    try {
+      encoder.writeTrailer();
+      flush();
+      long copied = copyIn.endCopy();
+      copyIn = null;
+      nrRows = 0L;
+      return copied;
+    } catch ( SQLException e ) {
+      throw new KettleDatabaseException( "Error ending " + copySql, e );
+    }
+  }
+
+  /**
+   * Cancels the current COPY, if there is one. The transaction needs to be rolled back afterwards.
+   */
+  public void cancel() {
+    if ( copyIn != null ) {
+      try {
+        if ( copyIn.isActive() ) {
+          copyIn.cancelCopy();
+        }
+      } catch ( SQLException e ) {
+        // The COPY already failed, that is what the caller is dealing with
+      }
+      copyIn = null;
+    }
+    nrRows = 0L;
+    encoder.clear();
+  }
+}
@@ -19,10 +19,13 @@ import org.pentaho.di.core.RowMetaAndData;
 import org.pentaho.di.core.SQLStatement;
 import org.pentaho.di.core.database.Database;
 import org.pentaho.di.core.database.DatabaseInterface;
+import org.pentaho.di.core.database.PostgreSQLDatabaseMeta;
 import org.pentaho.di.core.exception.KettleDatabaseBatchException;
 import org.pentaho.di.core.exception.KettleDatabaseException;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.exception.KettleStepException;
+import org.pentaho.di.core.exception.KettleValueException;
+import org.pentaho.di.core.logging.Metrics;
 import org.pentaho.di.core.row.RowDataUtil;
 import org.pentaho.di.core.row.RowMeta;
 import org.pentaho.di.core.row.RowMetaInterface;
@@ -33,6 +36,7 @@ import org.pentaho.di.i18n.BaseMessages;
 import org.pentaho.di.trans.Trans;
 import org.pentaho.di.trans.TransMeta;
 import org.pentaho.di.trans.step.*;
+import org.postgresql.copy.CopyManager;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
@@ -41,6 +45,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Writes rows to a database table.
@@ -73,6 +78,19 @@ public class TableOutput extends BaseDatabaseStep implements StepInterface {
       if ( first && meta.truncateTable() ) {
         truncateTable();
       }
+      if ( data.batchWriter != null || data.copyWriter != null ) {
+        try {
+          if ( data.copyWriter != null ) {
+            finishCopyWriter();
+          } else {
+            finishBatchWriter();
+          }
+        } catch ( KettleException e ) {
+          logError( "Because of an error, this step can't continue: ", e );
+          setErrors( 1 );
+          stopAll();
+        }
+      }
       return false;
     }
 
@@ -116,10 +134,24 @@ public class TableOutput extends BaseDatabaseStep implements StepInterface {
           }
         }
       }
+
+      if ( data.bulkCopy ) {
+        startCopyWriter();
+      }
+      if ( data.asyncBatchWrites && data.copyWriter == null ) {
+        startBatchWriter();
+      }
     }
 
     try {
-      Object[] outputRowData = writeToTable( getInputRowMeta(), r );
+      Object[] outputRowData;
+      if ( data.copyWriter != null ) {
+        outputRowData = writeToCopy( r );
+      } else if ( data.batchWriter != null ) {
+        outputRowData = addToBatch( r );
+      } else {
+        outputRowData = writeToTable( getInputRowMeta(), r );
+      }
       if ( outputRowData != null ) {
         putRow( data.outputRowMeta, outputRowData ); // in case we want it go further...
         incrementLinesOutput();
@@ -334,14 +366,7 @@ public class TableOutput extends BaseDatabaseStep implements StepInterface {
         data.db.clearBatch( insertStatement );
         data.db.rollback();
         StringBuilder msg = new StringBuilder( "Error batch inserting rows into table [" + tableName + "]." );
-        msg.append( Const.CR );
-        msg.append( "Errors encountered (first 10):" ).append( Const.CR );
-        for ( int x = 0; x < be.getExceptionsList().size() && x < 10; x++ ) {
-          Exception exception = be.getExceptionsList().get( x );
-          if ( exception.getMessage() != null ) {
-            msg.append( exception.getMessage() ).append( Const.CR );
-          }
-        }
+        appendBatchErrors( msg, be );
         throw new KettleException( msg.toString(), be );
       }
     } catch ( KettleDatabaseException dbe ) {
@@ -362,18 +387,7 @@ public class TableOutput extends BaseDatabaseStep implements StepInterface {
         errorMessage = dbe.toString();
       } else {
         if ( meta.ignoreErrors() ) {
-          if ( data.warnings < 20 ) {
-            if ( log.isBasic() ) {
-              logBasic( "WARNING: Couldn't insert row into table: "
-                + rowMeta.getString( r ) + Const.CR + dbe.getMessage() );
-            }
-          } else if ( data.warnings == 20 ) {
-            if ( log.isBasic() ) {
-              logBasic( "FINAL WARNING (no more then 20 displayed): Couldn't insert row into table: "
-                + rowMeta.getString( r ) + Const.CR + dbe.getMessage() );
-            }
-          }
-          data.warnings++;
+          warnIgnoredRow( rowMeta, r, dbe );
         } else {
           setErrors( getErrors() + 1 );
           data.db.rollback();
@@ -428,14 +442,292 @@ public class TableOutput extends BaseDatabaseStep implements StepInterface {
     return log.isRowLevel();
   }
 
+  private void appendBatchErrors( StringBuilder msg, KettleDatabaseBatchException be ) {
+    msg.append( Const.CR );
+    msg.append( "Errors encountered (first 10):" ).append( Const.CR );
+    for ( int x = 0; x < be.getExceptionsList().size() && x < 10; x++ ) {
+      Exception exception = be.getExceptionsList().get( x );
+      if ( exception.getMessage() != null ) {
+        msg.append( exception.getMessage() ).append( Const.CR );
+      }
+    }
+  }
+
+  private void warnIgnoredRow( RowMetaInterface rowMeta, Object[] r, KettleDatabaseException dbe )
+    throws KettleValueException {
+    if ( data.warnings < 20 ) {
+      if ( log.isBasic() ) {
+        logBasic( "WARNING: Couldn't insert row into table: "
+          + rowMeta.getString( r ) + Const.CR + dbe.getMessage() );
+      }
+    } else if ( data.warnings == 20 ) {
+      if ( log.isBasic() ) {
+        logBasic( "FINAL WARNING (no more then 20 displayed): Couldn't insert row into table: "
+          + rowMeta.getString( r ) + Const.CR + dbe.getMessage() );
+      }
+    }
+    data.warnings++;
+  }
+
+  /**
+   * Opens the writer connections that execute the batches while the step thread fills the next batch. Falls back to
+   * executing the batches in the step thread if the database doesn't support batch inserts.
+   */
+  private void startBatchWriter() throws KettleException {
+    if ( !data.db.getUseBatchInsert( data.batchMode ) ) {
+      logBasic( BaseMessages.getString( PKG, "TableOutput.Log.AsyncBatchWritesNotSupported" ) );
+      return;
+    }
+    if ( Utils.isEmpty( data.tableName ) ) {
+      throw new KettleStepException( "The tablename is not defined (empty)" );
+    }
+
+    // The writer connections don't see the uncommitted work of the step connection, like a truncate.
+    //
+    data.db.commit();
+
+    String sql =
+      data.db.getInsertStatement( environmentSubstitute( meta.getSchemaName() ), data.tableName, data.insertRowMeta );
+    if ( log.isDetailed() ) {
+      logDetailed( "Prepared statement : " + sql );
+    }
+    data.batchWriter = createBatchWriter( sql );
+    data.batchWriter.start();
+  }
+
+  TableOutputBatchWriter createBatchWriter( String sql ) {
+    boolean errorHandling = getStepMeta().isDoingErrorHandling();
+    return new TableOutputBatchWriter( this, data.databaseMeta, sql, data.insertRowMeta, data.commitSize,
+      data.nrWriterConnections, data.maxPendingBatches, errorHandling || meta.ignoreErrors(), errorHandling );
+  }
+
+  /**
+   * Adds a row to the batch that is being filled and hands the batch over to the batch writer once it holds commit
+   * size rows. The row is passed on when its batch is committed.
+   */
+  private Object[] addToBatch( Object[] r ) throws KettleException {
+    Object[] insertRowData = getInsertRowData( r );
+
+    if ( data.batch == null ) {
+      data.batch = new TableOutputBatchWriter.Batch( data.commitSize );
+    }
+    data.batch.add( insertRowData, r );
+
+    if ( data.batch.size() >= data.commitSize ) {
+      data.batchWriter.submit( data.batch, this::batchCompleted );
+      data.batch = null;
+    } else {
+      data.batchWriter.handleCompleted( this::batchCompleted );
+    }
+    return null;
+  }
+
+  /**
+   * @return the values to insert for a row of a single target table
+   */
+  private Object[] getInsertRowData( Object[] r ) {
+    if ( !meta.specifyFields() ) {
+      return r;
+    }
+    Object[] insertRowData = new Object[data.valuenrs.length];
+    for ( int idx = 0; idx < data.valuenrs.length; idx++ ) {
+      insertRowData[idx] = r[data.valuenrs[idx]];
+    }
+    return insertRowData;
+  }
+
+  /**
+   * Prepares loading the rows with COPY. Falls back to inserts if the connection doesn't come from the PostgreSQL JDBC
+   * driver.
+   */
+  private void startCopyWriter() throws KettleException {
+    CopyManager copyManager = PGCopyWriter.getCopyManager( data.db.getConnection() );
+    if ( copyManager == null ) {
+      logBasic( BaseMessages.getString( PKG, "TableOutput.Log.BulkCopyNotSupported" ) );
+      return;
+    }
+    if ( Utils.isEmpty( data.tableName ) ) {
+      throw new KettleStepException( "The tablename is not defined (empty)" );
+    }
+    String schemaName = environmentSubstitute( meta.getSchemaName() );
+
+    PGCopyEncoder encoder;
+    if ( PGCopyEncoder.FORMAT_BINARY.equalsIgnoreCase( environmentSubstitute( meta.getCopyFormat() ) ) ) {
+      String[] columnTypes = PGCopyWriter.getColumnTypes( data.db.getConnection(), data.databaseMeta, schemaName,
+        data.tableName, data.insertRowMeta );
+      encoder = new PGCopyBinaryEncoder( data.insertRowMeta, columnTypes, data.copyBufferSize );
+    } else {
+      encoder = new PGCopyTextEncoder( data.insertRowMeta, data.copyBufferSize );
+    }
+
+    // A failed COPY is rolled back, that shouldn't undo a truncate.
+    //
+    data.db.commit();
+
+    String sql = PGCopyWriter.getCopyStatement( data.databaseMeta, schemaName, data.tableName, data.insertRowMeta,
+      encoder );
+    if ( log.isDetailed() ) {
+      logDetailed( BaseMessages.getString( PKG, "TableOutput.Log.BulkCopyStarted", sql ) );
+    }
+    data.copyWriter = new PGCopyWriter( copyManager, sql, encoder, data.copyBufferSize );
+  }
+
+  /**
+   * Adds a row to the running COPY. The rows are passed on once they are committed, every commit size rows.
+   */
+  private Object[] writeToCopy( Object[] r ) throws KettleException {
+    try {
+      data.copyWriter.writeRow( getInsertRowData( r ) );
+    } catch ( KettleValueException ve ) {
+      // The row isn't part of the COPY, the other rows can still be loaded
+      //
+      if ( getStepMeta().isDoingErrorHandling() ) {
+        putError( getInputRowMeta(), r, 1L, ve.toString(), null, "TOP001" );
+      } else if ( meta.ignoreErrors() ) {
+        warnIgnoredRow( getInputRowMeta(), r, new KettleDatabaseException( ve ) );
+      } else {
+        throw new KettleException( "Error copying row into table ["
+          + data.tableName + "] with values: " + getInputRowMeta().getString( r ), ve );
+      }
+      return null;
+    } catch ( KettleDatabaseException dbe ) {
+      data.batchBuffer.add( r );
+      copyFailed( dbe );
+      return null;
+    }
+    data.batchBuffer.add( r );
+
+    if ( data.copyWriter.getNrRows() >= data.commitSize ) {
+      commitCopy();
+    }
+    return null;
+  }
+
+  /**
+   * Ends the running COPY, commits it and passes on its rows.
+   */
+  private void commitCopy() throws KettleException {
+    try {
+      long copied = data.copyWriter.endCopy();
+      data.db.commit();
+      if ( log.isDetailed() ) {
+        logDetailed( BaseMessages.getString( PKG, "TableOutput.Log.RowsCopied", copied ) );
+      }
+    } catch ( KettleDatabaseException dbe ) {
+      copyFailed( dbe );
+      return;
+    }
+
+    for ( Object[] row : data.batchBuffer ) {
+      putRow( data.outputRowMeta, row );
+      incrementLinesOutput();
+    }
+    data.batchBuffer.clear();
+  }
+
+  /**
+   * A COPY is all or nothing: with error handling all its rows become error rows and loading continues with the next
+   * COPY, otherwise the step fails.
+   */
+  private void copyFailed( KettleDatabaseException dbe ) throws KettleException {
+    data.copyWriter.cancel();
+    data.db.rollback();
+
+    if ( !getStepMeta().isDoingErrorHandling() ) {
+      data.batchBuffer.clear();
+      throw new KettleException( "Error copying rows into table [" + data.tableName + "]", dbe );
+    }
+    for ( Object[] row : data.batchBuffer ) {
+      putError( data.outputRowMeta, row, 1L, dbe.toString(), null, "TOP0003" );
+    }
+    data.batchBuffer.clear();
+  }
+
+  /**
+   * Commits the last COPY.
+   */
+  private void finishCopyWriter() throws KettleException {
+    commitCopy();
+    data.copyWriter = null;
+  }
+
+  /**
+   * Writes the last batch, waits for all the batches and closes the writer connections.
+   */
+  private void finishBatchWriter() throws KettleException {
+    if ( data.batch != null && data.batch.size() > 0 ) {
+      data.batchWriter.submit( data.batch, this::batchCompleted );
+    }
+    data.batch = null;
+    data.batchWriter.finish( this::batchCompleted );
+    data.batchWriter.close( false );
+    data.batchWriter = null;
+  }
+
+  /**
+   * Passes on the rows of a batch that was written by the batch writer, or sends them to error handling.
+   */
+  private void batchCompleted( TableOutputBatchWriter.Batch batch ) throws KettleException {
+    if ( batch.getError() != null ) {
+      throw batch.getError();
+    }
+    if ( batch.isSkipped() ) {
+      return;
+    }
+
+    long executeTime = TimeUnit.NANOSECONDS.toMillis( batch.getExecuteNanos() );
+    log.snap( Metrics.METRIC_STEP_BATCH_EXECUTE_TIME, executeTime );
+    log.snap( Metrics.METRIC_STEP_BATCH_EXECUTE_MAX_TIME, executeTime );
+    log.snap( Metrics.METRIC_STEP_BATCH_EXECUTE_COUNT );
+    if ( log.isDetailed() ) {
+      logDetailed( BaseMessages.getString( PKG, "TableOutput.Log.BatchWritten", batch.size(), executeTime ) );
+    }
+
+    List<Object[]> rows = batch.getOutputRows();
+    for ( int i = 0; i < rows.size(); i++ ) {
+      KettleDatabaseException rowError = batch.getRowError( i );
+      if ( rowError != null ) {
+        if ( getStepMeta().isDoingErrorHandling() ) {
+          putError( data.outputRowMeta, rows.get( i ), 1L, rowError.toString(), null, "TOP001" );
+        } else {
+          warnIgnoredRow( data.outputRowMeta, rows.get( i ), rowError );
+        }
+      }
+    }
+
+    KettleDatabaseBatchException be = batch.getBatchException();
+    if ( be != null ) {
+      if ( getStepMeta().isDoingErrorHandling() ) {
+        processBatchException( be.toString(), be.getUpdateCounts(), be.getExceptionsList(), batch.getWrittenRows() );
+      } else {
+        StringBuilder msg = new StringBuilder( "Error batch inserting rows into table [" + data.tableName + "]." );
+        appendBatchErrors( msg, be );
+        throw new KettleException( msg.toString(), be );
+      }
+    } else {
+      for ( Object[] row : batch.getWrittenRows() ) {
+        putRow( data.outputRowMeta, row );
+        incrementLinesOutput();
+      }
+    }
+  }
+
   private void processBatchException( String errorMessage, int[] updateCounts, List<Exception> exceptionsList ) throws KettleException {
+    processBatchException( errorMessage, updateCounts, exceptionsList, data.batchBuffer );
+
+    // Clear the buffer afterwards...
+    data.batchBuffer.clear();
+  }
+
+  private void processBatchException( String errorMessage, int[] updateCounts, List<Exception> exceptionsList,
+                                      List<Object[]> batchRows ) throws KettleException {
     // There was an error with the commit
     // We should put all the failing rows out there...
     //
     if ( updateCounts != null ) {
       int errNr = 0;
       for ( int i = 0; i < updateCounts.length; i++ ) {
-        Object[] row = data.batchBuffer.get( i );
+        Object[] row = batchRows.get( i );
         if ( updateCounts[i] > 0 ) {
           // send the error foward
           putRow( data.outputRowMeta, row );
@@ -454,14 +746,11 @@ public class TableOutput extends BaseDatabaseStep implements StepInterface {
       // If we don't have update counts, it probably means the DB doesn't support it.
       // In this case we don't have a choice but to consider all inserted rows to be error rows.
       //
-      for ( int i = 0; i < data.batchBuffer.size(); i++ ) {
-        Object[] row = data.batchBuffer.get( i );
+      for ( int i = 0; i < batchRows.size(); i++ ) {
+        Object[] row = batchRows.get( i );
         putError( data.outputRowMeta, row, 1L, errorMessage, null, "TOP0003" );
       }
     }
-
-    // Clear the buffer afterwards...
-    data.batchBuffer.clear();
   }
 
   public boolean init( StepMetaInterface smi, StepDataInterface sdi ) {
@@ -495,6 +784,29 @@ public class TableOutput extends BaseDatabaseStep implements StepInterface {
             && data.commitSize > 0 && !meta.isReturningGeneratedKeys()
             && !getTransMeta().isUsingUniqueConnections() && !data.useSafePoints;
 
+        // Execute the batches on separate writer connections. This needs a single target table.
+        //
+        data.asyncBatchWrites =
+          data.batchMode && meta.isAsyncBatchWrites() && !meta.isPartitioningEnabled() && !meta.isTableNameInField();
+
+        // Load with COPY on PostgreSQL (and look-a-likes), this needs a single target table.
+        // The step connection can't be shared while a COPY is running.
+        //
+        data.bulkCopy =
+          meta.isBulkCopy() && dbInterface instanceof PostgreSQLDatabaseMeta && !meta.isReturningGeneratedKeys()
+            && !meta.isPartitioningEnabled() && !meta.isTableNameInField()
+            && !getTransMeta().isUsingUniqueConnections();
+        if ( meta.isBulkCopy() && !data.bulkCopy ) {
+          logBasic( BaseMessages.getString( PKG, "TableOutput.Log.BulkCopyDisabled" ) );
+        }
+        data.copyBufferSize = Math.max( 1, Const.toInt( environmentSubstitute( meta.getCopyBufferSize() ), 65536 ) );
+        if ( meta.isAsyncBatchWrites() && !data.asyncBatchWrites ) {
+          logBasic( BaseMessages.getString( PKG, "TableOutput.Log.AsyncBatchWritesDisabled" ) );
+        }
+        data.maxPendingBatches = Math.max( 1, Const.toInt( environmentSubstitute( meta.getMaxPendingBatches() ), 2 ) );
+        data.nrWriterConnections =
+          Math.max( 1, Const.toInt( environmentSubstitute( meta.getNrWriterConnections() ), 1 ) );
+
         // Per PDI-6211 : give a warning that batch mode operation in combination with step error handling can lead to
         // incorrectly processed rows.
         if ( getStepMeta().isDoingErrorHandling() && !dbInterface.supportsErrorHandlingOnBatchUpdates() ) {
@@ -554,6 +866,22 @@ public class TableOutput extends BaseDatabaseStep implements StepInterface {
 
     if ( data.db != null ) {
       try {
+        if ( data.batchWriter != null && getErrors() == 0 ) {
+          // The step was stopped before the end of the input: write the rows that are collected
+          //
+          finishBatchWriter();
+        }
+        if ( data.copyWriter != null ) {
+          if ( getErrors() == 0 ) {
+            finishCopyWriter();
+          } else {
+            // The rows of the running COPY are rolled back
+            //
+            data.copyWriter.cancel();
+            data.copyWriter = null;
+            data.batchBuffer.clear();
+          }
+        }
         for ( String schemaTable : data.preparedStatements.keySet() ) {
           // Get a commit counter per prepared statement to keep track of separate tables, etc.
           //
@@ -597,6 +925,14 @@ public class TableOutput extends BaseDatabaseStep implements StepInterface {
       } finally {
         setOutputDone();
 
+        if ( data.batchWriter != null ) {
+          data.batchWriter.close( true );
+          data.batchWriter = null;
+        }
+        if ( data.copyWriter != null ) {
+          data.copyWriter.cancel();
+          data.copyWriter = null;
+        }
         if ( getErrors() > 0 ) {
           try {
             data.db.rollback();
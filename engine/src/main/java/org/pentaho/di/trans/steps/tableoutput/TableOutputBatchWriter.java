@@ -0,0 +1,458 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.tableoutput;
+
+import java.io.Closeable;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.pentaho.di.core.database.Database;
+import org.pentaho.di.core.database.DatabaseMeta;
+import org.pentaho.di.core.exception.KettleDatabaseBatchException;
+import org.pentaho.di.core.exception.KettleDatabaseException;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.logging.LogChannelInterface;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.i18n.BaseMessages;
+
+/**
+ * Executes the insert batches of a Table Output step copy on one or more writer connections, each with its own
+ * thread. The step thread fills the next batch while the previous ones are executed. The number of batches that are
+ * waiting for or being executed by a writer is limited: {@link #submit(Batch, BatchHandler)} handles completed batches
+ * until there is room for a new one.
+ * <p>
+ * Every batch is committed on its own by the connection that executed it. With more than one writer connection the
+ * batches are committed independently and in no particular order, so that is only suited for append-only loads.
+ *
+ * @since 11.0
+ */
+public class TableOutputBatchWriter implements Closeable {
+  private static Class<?> PKG = TableOutputMeta.class; // for i18n purposes, needed by Translator2!!
+
+  private static final long CLOSE_TIMEOUT_MILLIS = 10000L;
+
+  /** Tells a writer thread to stop */
+  private static final Batch END = new Batch( 0 );
+
+  /**
+   * Handles a completed batch in the step thread.
+   */
+  public interface BatchHandler {
+    void batchCompleted( Batch batch ) throws KettleException;
+  }
+
+  private final TableOutput step;
+  private final DatabaseMeta databaseMeta;
+  private final String sql;
+  private final RowMetaInterface insertRowMeta;
+  private final int commitSize;
+  private final int nrConnections;
+  private final int maxPendingBatches;
+  private final boolean continueOnRowError;
+  private final boolean continueOnBatchError;
+  private final LogChannelInterface log;
+
+  private final BlockingQueue<Batch> workQueue = new LinkedBlockingQueue<>();
+  private final BlockingQueue<Batch> completedQueue = new LinkedBlockingQueue<>();
+  private final List<Database> databases = new ArrayList<>();
+  private final List<PreparedStatement> statements = new ArrayList<>();
+
+  private ExecutorService executor;
+
+  /** The number of batches that are submitted and not handled yet, only used by the step thread */
+  private int nrPending;
+
+  /** Set when a batch failed and the transaction is going to be rolled back: the remaining batches are skipped */
+  private volatile boolean failed;
+
+  /**
+   * @param step                 the step, also used as parent and variable space of the writer connections
+   * @param databaseMeta         the target database
+   * @param sql                  the insert statement
+   * @param insertRowMeta        the metadata of the inserted values
+   * @param commitSize           the commit size of the writer connections
+   * @param nrConnections        the number of writer connections
+   * @param maxPendingBatches    the maximum number of batches that are submitted and not handled yet
+   * @param continueOnRowError   true if a row that can't be added to a batch is reported in the batch and the other
+   *                             rows are still written (error handling or ignore errors)
+   * @param continueOnBatchError true if the rows of a batch that fails are reported in the batch and the transaction
+   *                             continues (error handling)
+   */
+  public TableOutputBatchWriter( TableOutput step, DatabaseMeta databaseMeta, String sql,
+                                 RowMetaInterface insertRowMeta, int commitSize, int nrConnections,
+                                 int maxPendingBatches, boolean continueOnRowError, boolean continueOnBatchError ) {
+    this.step = step;
+    this.databaseMeta = databaseMeta;
+    this.sql = sql;
+    this.insertRowMeta = insertRowMeta;
+    this.commitSize = commitSize;
+    this.nrConnections = Math.max( 1, nrConnections );
+    this.maxPendingBatches = Math.max( 1, maxPendingBatches );
+    this.continueOnRowError = continueOnRowError;
+    this.continueOnBatchError = continueOnBatchError;
+    this.log = step.getLogChannel();
+  }
+
+  /**
+   * Opens the writer connections, prepares the insert statement on each of them and starts the writer threads.
+   *
+   * @throws KettleException in case a connection can't be opened or the statement can't be prepared
+   */
+  public void start() throws KettleException {
+    for ( int i = 0; i < nrConnections; i++ ) {
+      Database db = connect();
+      databases.add( db );
+      statements.add( db.prepareSQL( sql ) );
+    }
+
+    String threadName = step.getStepname() + "." + step.getCopy() + " writer ";
+    AtomicInteger threadNr = new AtomicInteger();
+    executor = Executors.newFixedThreadPool( nrConnections, runnable -> {
+      Thread thread = new Thread( runnable, threadName + threadNr.incrementAndGet() );
+      thread.setDaemon( true );
+      return thread;
+    } );
+    for ( int i = 0; i < nrConnections; i++ ) {
+      Database db = databases.get( i );
+      PreparedStatement ps = statements.get( i );
+      executor.submit( () -> write( db, ps ) );
+    }
+
+    if ( log.isDetailed() ) {
+      log.logDetailed( BaseMessages.getString( PKG, "TableOutput.Log.AsyncBatchWritesStarted", nrConnections,
+        maxPendingBatches ) );
+    }
+  }
+
+  /**
+   * Opens a writer connection with the commit size of the step.
+   */
+  Database connect() throws KettleDatabaseException {
+    Database db = new Database( step, databaseMeta );
+    db.shareVariablesWith( step );
+    db.connect( step.getPartitionID() );
+    db.setCommit( commitSize );
+    return db;
+  }
+
+  /**
+   * Hands a batch over to the writer connections. When the maximum number of pending batches is reached the completed
+   * batches are handled first, waiting for them if needed.
+   *
+   * @param batch   the batch to write
+   * @param handler handles the completed batches
+   * @throws KettleException in case the handler fails
+   */
+  public void submit( Batch batch, BatchHandler handler ) throws KettleException {
+    while ( nrPending >= maxPendingBatches ) {
+      handler.batchCompleted( take() );
+    }
+    handleCompleted( handler );
+
+    workQueue.add( batch );
+    nrPending++;
+  }
+
+  /**
+   * Handles the batches that are completed without waiting for the others.
+   *
+   * @param handler handles the completed batches
+   * @throws KettleException in case the handler fails
+   */
+  public void handleCompleted( BatchHandler handler ) throws KettleException {
+    Batch batch;
+    while ( ( batch = completedQueue.poll() ) != null ) {
+      nrPending--;
+      handler.batchCompleted( batch );
+    }
+  }
+
+  /**
+   * Waits for all the submitted batches and handles them.
+   *
+   * @param handler handles the completed batches
+   * @throws KettleException in case the handler fails
+   */
+  public void finish( BatchHandler handler ) throws KettleException {
+    while ( nrPending > 0 ) {
+      handler.batchCompleted( take() );
+    }
+  }
+
+  private Batch take() throws KettleException {
+    try {
+      Batch batch = completedQueue.take();
+      nrPending--;
+      return batch;
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new KettleException( "Interrupted while waiting for a batch to be written", e );
+    }
+  }
+
+  /**
+   * @return the number of batches that are submitted and not handled yet
+   */
+  public int getNrPending() {
+    return nrPending;
+  }
+
+  /**
+   * The loop of a writer thread: executes and commits batches until it is told to stop.
+   */
+  private void write( Database db, PreparedStatement ps ) {
+    while ( true ) {
+      Batch batch;
+      try {
+        batch = workQueue.take();
+      } catch ( InterruptedException e ) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      if ( batch == END ) {
+        return;
+      }
+      try {
+        if ( failed ) {
+          batch.skipped = true;
+        } else {
+          execute( db, ps, batch );
+        }
+      } catch ( Throwable t ) {
+        batch.error = new KettleException( "Unexpected error writing a batch", t );
+        failed = true;
+      }
+      completedQueue.add( batch );
+    }
+  }
+
+  /**
+   * Adds the rows of a batch to the statement, executes the batch and commits it.
+   */
+  void execute( Database db, PreparedStatement ps, Batch batch ) {
+    long start = System.nanoTime();
+    try {
+      int nrAdded = 0;
+      for ( int i = 0; i < batch.size(); i++ ) {
+        try {
+          db.setValues( insertRowMeta, batch.insertRows.get( i ), ps );
+          db.insertRow( ps, true, false ); // false: the commit is done after the batch
+          nrAdded++;
+        } catch ( KettleDatabaseBatchException be ) {
+          throw be;
+        } catch ( KettleDatabaseException dbe ) {
+          if ( !continueOnRowError ) {
+            throw dbe;
+          }
+          batch.setRowError( i, dbe );
+        }
+      }
+      if ( nrAdded > 0 ) {
+        ps.executeBatch();
+      }
+      db.commit();
+      ps.clearBatch();
+    } catch ( SQLException ex ) {
+      batchFailed( db, ps, batch, Database.createKettleDatabaseBatchException( "Error updating batch", ex ) );
+    } catch ( KettleDatabaseBatchException be ) {
+      batchFailed( db, ps, batch, be );
+    } catch ( KettleException e ) {
+      batch.error = e;
+      failed = true;
+      rollback( db, ps );
+    } finally {
+      batch.executeNanos = System.nanoTime() - start;
+    }
+  }
+
+  private void batchFailed( Database db, PreparedStatement ps, Batch batch, KettleDatabaseBatchException be ) {
+    batch.batchException = be;
+    if ( continueOnBatchError ) {
+      try {
+        db.clearBatch( ps );
+        db.commit( true );
+      } catch ( KettleDatabaseException e ) {
+        batch.error = e;
+        failed = true;
+      }
+    } else {
+      failed = true;
+      rollback( db, ps );
+    }
+  }
+
+  private void rollback( Database db, PreparedStatement ps ) {
+    try {
+      db.clearBatch( ps );
+      db.rollback();
+    } catch ( KettleDatabaseException e ) {
+      log.logError( "Unexpected error rolling back the writer connection.", e );
+    }
+  }
+
+  /**
+   * Stops the writer threads and closes the writer connections.
+   *
+   * @param rollback true if the work of the connections that is not committed yet needs to be rolled back and the
+   *                 batches that are not executed yet need to be skipped
+   */
+  public void close( boolean rollback ) {
+    if ( rollback ) {
+      failed = true;
+      workQueue.clear();
+    }
+    if ( executor != null ) {
+      for ( int i = 0; i < nrConnections; i++ ) {
+        workQueue.add( END );
+      }
+      executor.shutdown();
+      try {
+        if ( !executor.awaitTermination( CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS ) ) {
+          executor.shutdownNow();
+        }
+      } catch ( InterruptedException e ) {
+        executor.shutdownNow();
+        Thread.currentThread().interrupt();
+      }
+      executor = null;
+    }
+    for ( int i = 0; i < databases.size(); i++ ) {
+      Database db = databases.get( i );
+      try {
+        if ( rollback ) {
+          db.rollback();
+        }
+        if ( i < statements.size() ) {
+          db.closePreparedStatement( statements.get( i ) );
+        }
+      } catch ( KettleDatabaseException e ) {
+        log.logError( "Unexpected error closing the writer connection.", e );
+      } finally {
+        db.disconnect();
+      }
+    }
+    databases.clear();
+    statements.clear();
+  }
+
+  @Override
+  public void close() {
+    close( false );
+  }
+
+  /**
+   * The rows that are executed and committed together on one of the writer connections.
+   */
+  public static class Batch {
+    private final List<Object[]> insertRows;
+    private final List<Object[]> outputRows;
+
+    // Set by the writer thread, read by the step thread once the batch is completed.
+    //
+    private KettleDatabaseException[] rowErrors;
+    private KettleDatabaseBatchException batchException;
+    private KettleException error;
+    private boolean skipped;
+    private long executeNanos;
+
+    public Batch( int capacity ) {
+      insertRows = new ArrayList<>( capacity );
+      outputRows = new ArrayList<>( capacity );
+    }
+
+    /**
+     * @param insertRow the values to insert
+     * @param outputRow the row that is passed on once the insert is committed
+     */
+    public void add( Object[] insertRow, Object[] outputRow ) {
+      insertRows.add( insertRow );
+      outputRows.add( outputRow );
+    }
+
+    public int size() {
+      return insertRows.size();
+    }
+
+    public List<Object[]> getOutputRows() {
+      return outputRows;
+    }
+
+    private void setRowError( int index, KettleDatabaseException error ) {
+      if ( rowErrors == null ) {
+        rowErrors = new KettleDatabaseException[ size() ];
+      }
+      rowErrors[ index ] = error;
+    }
+
+    /**
+     * @param index the index of a row in the batch
+     * @return the error that kept the row out of the executed batch or null if the row was added to it
+     */
+    public KettleDatabaseException getRowError( int index ) {
+      return rowErrors == null ? null : rowErrors[ index ];
+    }
+
+    /**
+     * @return the output rows of the rows that were added to the executed batch, in the order of the update counts
+     */
+    public List<Object[]> getWrittenRows() {
+      if ( rowErrors == null ) {
+        return outputRows;
+      }
+      List<Object[]> rows = new ArrayList<>( outputRows.size() );
+      for ( int i = 0; i < outputRows.size(); i++ ) {
+        if ( rowErrors[ i ] == null ) {
+          rows.add( outputRows.get( i ) );
+        }
+      }
+      return rows;
+    }
+
+    /**
+     * @return the exception of the batch execution or commit, null if the batch was written
+     */
+    public KettleDatabaseBatchException getBatchException() {
+      return batchException;
+    }
+
+    /**
+     * @return the error that needs to stop the step, null if there is none
+     */
+    public KettleException getError() {
+      return error;
+    }
+
+    /**
+     * @return true if the batch was not executed because a previous batch failed
+     */
+    public boolean isSkipped() {
+      return skipped;
+    }
+
+    /**
+     * @return the time it took to add, execute and commit the batch in nanoseconds
+     */
+    public long getExecuteNanos() {
+      return executeNanos;
+    }
+  }
+}
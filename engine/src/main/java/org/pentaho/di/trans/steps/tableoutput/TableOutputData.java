@@ -69,6 +69,24 @@ public class TableOutputData extends BaseDatabaseStepData implements StepDataInt
 
   public int commitSize;
 
+  /** Execute the batches on separate writer connections? */
+  public boolean asyncBatchWrites;
+  public int maxPendingBatches;
+  public int nrWriterConnections;
+
+  /** Executes the batches when writing asynchronously, null when the step thread executes them */
+  public TableOutputBatchWriter batchWriter;
+
+  /** The batch that is being filled for the batch writer */
+  public TableOutputBatchWriter.Batch batch;
+
+  /** Load with the COPY command? */
+  public boolean bulkCopy;
+  public int copyBufferSize;
+
+  /** Streams the rows with COPY, null when the rows are inserted */
+  public PGCopyWriter copyWriter;
+
   public TableOutputData() {
     super();
 
@@ -99,6 +99,35 @@ public class TableOutputMeta extends BaseDatabaseStepMeta implements StepMetaInt
   }
   private boolean useBatchUpdate;
 
+  /**
+   * Execute the batches on separate writer connections while the step fills the next batch
+   */
+  @Injection( name = "ASYNC_BATCH_WRITES" )
+  public void metaSetAsyncBatchWrites( String value ) {
+    setAsyncBatchWrites( "Y".equalsIgnoreCase( value ) );
+  }
+  private boolean asyncBatchWrites;
+
+  @Injection( name = "MAX_PENDING_BATCHES" )
+  private String maxPendingBatches;
+
+  @Injection( name = "NR_WRITER_CONNECTIONS" )
+  private String nrWriterConnections;
+
+  /**
+   * Load with the COPY command on PostgreSQL connections
+   */
+  @Injection( name = "USE_BULK_COPY" )
+  public void metaSetBulkCopy( String value ) {
+    setBulkCopy( "Y".equalsIgnoreCase( value ) );
+  }
+  private boolean bulkCopy;
+
+  @Injection( name = "COPY_FORMAT" )
+  private String copyFormat;
+
+  @Injection( name = "COPY_BUFFER_SIZE" )
+  private String copyBufferSize;
 
   @Injection( name = "PARTITION_OVER_TABLES" )
   public void metaSetPartitionOverTables( String value ) {
@@ -287,6 +316,10 @@ public class TableOutputMeta extends BaseDatabaseStepMeta implements StepMetaInt
     super(); // allocate BaseStepMeta
     useBatchUpdate = true;
     commitSize = "1000";
+    maxPendingBatches = "2";
+    nrWriterConnections = "1";
+    copyFormat = PGCopyEncoder.FORMAT_TEXT;
+    copyBufferSize = "65536";
 
     fieldStream = new String[ 0 ];
     fieldDatabase = new String[ 0 ];
@@ -438,6 +471,92 @@ public class TableOutputMeta extends BaseDatabaseStepMeta implements StepMetaInt
     return useBatchUpdate;
   }
 
+  /**
+   * @return true if the batches are executed asynchronously on separate writer connections
+   */
+  public boolean isAsyncBatchWrites() {
+    return asyncBatchWrites;
+  }
+
+  /**
+   * @param asyncBatchWrites true if the batches should be executed asynchronously on separate writer connections
+   */
+  public void setAsyncBatchWrites( boolean asyncBatchWrites ) {
+    this.asyncBatchWrites = asyncBatchWrites;
+  }
+
+  /**
+   * @return the maximum number of batches that are waiting for or being executed by the writer connections
+   */
+  public String getMaxPendingBatches() {
+    return maxPendingBatches;
+  }
+
+  /**
+   * @param maxPendingBatches the maximum number of batches that are waiting for or being executed by the writer
+   *                          connections
+   */
+  public void setMaxPendingBatches( String maxPendingBatches ) {
+    this.maxPendingBatches = maxPendingBatches;
+  }
+
+  /**
+   * @return the number of writer connections. More than one connection commits the batches independently so this is
+   *         only suited for append-only loads.
+   */
+  public String getNrWriterConnections() {
+    return nrWriterConnections;
+  }
+
+  /**
+   * @param nrWriterConnections the number of writer connections
+   */
+  public void setNrWriterConnections( String nrWriterConnections ) {
+    this.nrWriterConnections = nrWriterConnections;
+  }
+
+  /**
+   * @return true if the rows are loaded with the COPY command when the connection is a PostgreSQL connection
+   */
+  public boolean isBulkCopy() {
+    return bulkCopy;
+  }
+
+  /**
+   * @param bulkCopy true if the rows need to be loaded with the COPY command on PostgreSQL connections
+   */
+  public void setBulkCopy( boolean bulkCopy ) {
+    this.bulkCopy = bulkCopy;
+  }
+
+  /**
+   * @return the format of the COPY command: TEXT or BINARY
+   */
+  public String getCopyFormat() {
+    return copyFormat;
+  }
+
+  /**
+   * @param copyFormat the format of the COPY command: TEXT or BINARY
+   */
+  public void setCopyFormat( String copyFormat ) {
+    this.copyFormat = copyFormat;
+  }
+
+  /**
+   * @return the number of bytes that are collected before they are sent to the COPY command
+   */
+  public String getCopyBufferSize() {
+    return copyBufferSize;
+  }
+
+  /**
+   * @param copyBufferSize the number of bytes that are collected before they are sent to the COPY command
+   */
+  public void setCopyBufferSize( String copyBufferSize ) {
+    this.copyBufferSize = copyBufferSize;
+  }
+
   private void readData( Node stepnode, List<DatabaseMeta> databases ) throws KettleXMLException {
     try {
       String con = XMLHandler.getTagValue( stepnode, "connection" );
@@ -448,6 +567,12 @@ public class TableOutputMeta extends BaseDatabaseStepMeta implements StepMetaInt
       truncateTable = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "truncate" ) );
       ignoreErrors = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "ignore_errors" ) );
       useBatchUpdate = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "use_batch" ) );
+      asyncBatchWrites = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "async_batch" ) );
+      maxPendingBatches = Const.NVL( XMLHandler.getTagValue( stepnode, "max_pending_batches" ), "2" );
+      nrWriterConnections = Const.NVL( XMLHandler.getTagValue( stepnode, "writer_connections" ), "1" );
+      bulkCopy = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "use_copy" ) );
+      copyFormat = Const.NVL( XMLHandler.getTagValue( stepnode, "copy_format" ), PGCopyEncoder.FORMAT_TEXT );
+      copyBufferSize = Const.NVL( XMLHandler.getTagValue( stepnode, "copy_buffer_size" ), "65536" );
 
       // If not present it will be false to be compatible with pre-v3.2
       specifyFields = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "specify_fields" ) );
@@ -484,6 +609,12 @@ public class TableOutputMeta extends BaseDatabaseStepMeta implements StepMetaInt
     databaseMeta = null;
     tableName = "";
     commitSize = "1000";
+    asyncBatchWrites = false;
+    maxPendingBatches = "2";
+    nrWriterConnections = "1";
+    bulkCopy = false;
+    copyFormat = PGCopyEncoder.FORMAT_TEXT;
+    copyBufferSize = "65536";
 
     partitioningEnabled = false;
     partitioningMonthly = true;
@@ -506,6 +637,12 @@ public class TableOutputMeta extends BaseDatabaseStepMeta implements StepMetaInt
     retval.append( "    " + XMLHandler.addTagValue( "truncate", truncateTable ) );
     retval.append( "    " + XMLHandler.addTagValue( "ignore_errors", ignoreErrors ) );
     retval.append( "    " + XMLHandler.addTagValue( "use_batch", useBatchUpdate ) );
+    retval.append( "    " + XMLHandler.addTagValue( "async_batch", asyncBatchWrites ) );
+    retval.append( "    " + XMLHandler.addTagValue( "max_pending_batches", maxPendingBatches ) );
+    retval.append( "    " + XMLHandler.addTagValue( "writer_connections", nrWriterConnections ) );
+    retval.append( "    " + XMLHandler.addTagValue( "use_copy", bulkCopy ) );
+    retval.append( "    " + XMLHandler.addTagValue( "copy_format", copyFormat ) );
+    retval.append( "    " + XMLHandler.addTagValue( "copy_buffer_size", copyBufferSize ) );
     retval.append( "    " + XMLHandler.addTagValue( "specify_fields", specifyFields ) );
 
     retval.append( "    " + XMLHandler.addTagValue( "partitioning_enabled", partitioningEnabled ) );
@@ -543,6 +680,12 @@ public class TableOutputMeta extends BaseDatabaseStepMeta implements StepMetaInt
       truncateTable = rep.getStepAttributeBoolean( id_step, "truncate" );
       ignoreErrors = rep.getStepAttributeBoolean( id_step, "ignore_errors" );
       useBatchUpdate = rep.getStepAttributeBoolean( id_step, "use_batch" );
+      asyncBatchWrites = rep.getStepAttributeBoolean( id_step, "async_batch" );
+      maxPendingBatches = Const.NVL( rep.getStepAttributeString( id_step, "max_pending_batches" ), "2" );
+      nrWriterConnections = Const.NVL( rep.getStepAttributeString( id_step, "writer_connections" ), "1" );
+      bulkCopy = rep.getStepAttributeBoolean( id_step, "use_copy" );
+      copyFormat = Const.NVL( rep.getStepAttributeString( id_step, "copy_format" ), PGCopyEncoder.FORMAT_TEXT );
+      copyBufferSize = Const.NVL( rep.getStepAttributeString( id_step, "copy_buffer_size" ), "65536" );
       specifyFields = rep.getStepAttributeBoolean( id_step, "specify_fields" );
 
       partitioningEnabled = rep.getStepAttributeBoolean( id_step, "partitioning_enabled" );
@@ -582,6 +725,12 @@ public class TableOutputMeta extends BaseDatabaseStepMeta implements StepMetaInt
       rep.saveStepAttribute( id_transformation, id_step, "truncate", truncateTable );
       rep.saveStepAttribute( id_transformation, id_step, "ignore_errors", ignoreErrors );
       rep.saveStepAttribute( id_transformation, id_step, "use_batch", useBatchUpdate );
+      rep.saveStepAttribute( id_transformation, id_step, "async_batch", asyncBatchWrites );
+      rep.saveStepAttribute( id_transformation, id_step, "max_pending_batches", maxPendingBatches );
+      rep.saveStepAttribute( id_transformation, id_step, "writer_connections", nrWriterConnections );
+      rep.saveStepAttribute( id_transformation, id_step, "use_copy", bulkCopy );
+      rep.saveStepAttribute( id_transformation, id_step, "copy_format", copyFormat );
+      rep.saveStepAttribute( id_transformation, id_step, "copy_buffer_size", copyBufferSize );
       rep.saveStepAttribute( id_transformation, id_step, "specify_fields", specifyFields );
 
       rep.saveStepAttribute( id_transformation, id_step, "partitioning_enabled", partitioningEnabled );
@@ -34,6 +34,7 @@ import org.pentaho.di.core.util.Utils;
 import org.pentaho.di.i18n.BaseMessages;
 import org.pentaho.di.job.DelegationListener;
 import org.pentaho.di.trans.StepWithMappingMeta;
+import org.pentaho.di.trans.SubtransPool;
 import org.pentaho.di.trans.Trans;
 import org.pentaho.di.trans.TransExecutionConfiguration;
 import org.pentaho.di.trans.TransMeta;
@@ -197,7 +198,8 @@ public class TransExecutor extends BaseStep implements StepInterface {
       discardLogLines( transExecutorData );
     }
 
-    Trans executorTrans = createInternalTrans();
+    SubtransPool executorTransPool = transExecutorData.getExecutorTransPool();
+    Trans executorTrans = executorTransPool != null ? executorTransPool.take() : createInternalTrans();
     transExecutorData.setExecutorTrans( executorTrans );
     if ( incomingFieldValues != null ) {
       // Pass parameter values
@@ -270,7 +272,7 @@ public class TransExecutor extends BaseStep implements StepInterface {
     executorTrans.setLogLevel( getLogLevel() );
     executorTrans.setArguments( getTrans().getArguments() );
 
-    executorTrans.setInternalKettleVariables( this );
+    initializeInternalTransVariables( executorTrans );
 
     executorTrans.setPreview( getTrans().isPreview() );
 
@@ -279,6 +281,15 @@ public class TransExecutor extends BaseStep implements StepInterface {
     return executorTrans;
   }
 
+  /**
+   * Initializes the variables of a new transformation to execute. A transformation created ahead of time by the
+   * {@link SubtransPool} gets them again when it's taken, the variables could have changed in the meantime.
+   */
+  void initializeInternalTransVariables( Trans executorTrans ) {
+    executorTrans.initializeVariablesFrom( getData().getExecutorTransMeta() );
+    executorTrans.setInternalKettleVariables( this );
+  }
+
   @VisibleForTesting
   void passParametersToTrans( List<String> incomingFieldValues ) throws KettleException {
     //The values of the incoming fields from the previous step.
@@ -510,6 +521,13 @@ public class TransExecutor extends BaseStep implements StepInterface {
           if ( !Utils.isEmpty( meta.getGroupField() ) ) {
             transExecutorData.groupField = environmentSubstitute( meta.getGroupField() );
           }
+
+          // Create the next transformations while the current one runs?
+          int poolSize = Const.toInt( getVariable( Const.KETTLE_SUBTRANS_POOL_SIZE ), 0 );
+          if ( poolSize > 0 ) {
+            transExecutorData.setExecutorTransPool( new SubtransPool( this::createInternalTrans,
+              this::initializeInternalTransVariables, poolSize ) );
+          }
           // That's all for now...
           return true;
         } else {
@@ -533,6 +551,10 @@ public class TransExecutor extends BaseStep implements StepInterface {
   public void dispose( StepMetaInterface smi, StepDataInterface sdi ) {
     TransExecutorData transExecutorData = getData();
     transExecutorData.groupBuffer = null;
+    if ( transExecutorData.getExecutorTransPool() != null ) {
+      transExecutorData.getExecutorTransPool().close();
+      transExecutorData.setExecutorTransPool( null );
+    }
     super.dispose( smi, sdi );
   }
 
@@ -19,6 +19,7 @@ import org.pentaho.di.core.RowMetaAndData;
 import org.pentaho.di.core.RowSet;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.trans.SubtransPool;
 import org.pentaho.di.trans.Trans;
 import org.pentaho.di.trans.TransMeta;
 import org.pentaho.di.trans.step.BaseStepData;
@@ -32,6 +33,7 @@ import org.pentaho.di.trans.step.StepDataInterface;
 public class TransExecutorData extends BaseStepData implements StepDataInterface {
   private Trans executorTrans;
   private TransMeta executorTransMeta;
+  private SubtransPool executorTransPool;
 
   private RowMetaInterface inputRowMeta;
 
@@ -75,6 +77,14 @@ public class TransExecutorData extends BaseStepData implements StepDataInterface
     this.executorTransMeta = executorTransMeta;
   }
 
+  public SubtransPool getExecutorTransPool() {
+    return executorTransPool;
+  }
+
+  public void setExecutorTransPool( SubtransPool executorTransPool ) {
+    this.executorTransPool = executorTransPool;
+  }
+
   public RowMetaInterface getInputRowMeta() {
     return inputRowMeta;
   }
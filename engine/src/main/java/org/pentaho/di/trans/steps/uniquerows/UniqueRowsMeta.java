@@ -334,4 +334,9 @@ public class UniqueRowsMeta extends BaseStepMeta implements StepMetaInterface {
   public boolean supportsErrorHandling() {
     return isRejectDuplicateRow();
   }
+
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
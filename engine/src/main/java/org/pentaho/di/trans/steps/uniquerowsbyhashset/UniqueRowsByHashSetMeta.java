@@ -245,4 +245,9 @@ public class UniqueRowsByHashSetMeta extends BaseStepMeta implements StepMetaInt
   public boolean supportsErrorHandling() {
     return isRejectDuplicateRow();
   }
+
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
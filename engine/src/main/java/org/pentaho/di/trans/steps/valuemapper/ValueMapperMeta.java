@@ -362,4 +362,8 @@ public class ValueMapperMeta extends BaseStepMeta implements StepMetaInterface {
     targetValue = rtn[ 0 ];
   }
 
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
@@ -0,0 +1,248 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.www;
+
+import java.io.IOException;
+import java.io.PrintStream;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.owasp.encoder.Encode;
+import org.pentaho.di.core.Const;
+import org.pentaho.di.core.cache.LookupCache;
+import org.pentaho.di.core.cache.LookupCacheService;
+import org.pentaho.di.core.util.Utils;
+import org.pentaho.di.core.xml.XMLHandler;
+
+/**
+ * Lists the shared lookup caches of the server with their statistics and allows them to be invalidated.
+ */
+public class GetLookupCachesServlet extends BaseHttpServlet implements CartePluginInterface {
+  private static final long serialVersionUID = -2287516358117464923L;
+
+  public static final String CONTEXT_PATH = "/kettle/lookupCaches";
+
+  public static final String PARAM_INVALIDATE = "invalidate";
+  public static final String PARAM_INVALIDATE_ALL = "invalidateAll";
+
+  public static final String XML_TAG_LOOKUP_CACHES = "lookup_caches";
+  public static final String XML_TAG_LOOKUP_CACHE = "lookup_cache";
+
+  public GetLookupCachesServlet() {
+  }
+
+  /**
+<div id="mindtouch">
+    <h1>/kettle/lookupCaches</h1>
+    <a name="GET"></a>
+    <h2>GET</h2>
+    <p>Lists the shared lookup caches of the server: the number of entries, the number of step copies using the cache,
+    the hits, misses, loads, evictions, expirations and invalidations.</p>
+
+    <p><b>Example Request:</b><br />
+    <pre function="syntax.xml">
+    GET /kettle/lookupCaches/?xml=Y
+    </pre>
+    </p>
+    <h3>Parameters</h3>
+    <table class="pentaho-table">
+    <tbody>
+    <tr>
+      <th>name</th>
+      <th>description</th>
+      <th>type</th>
+    </tr>
+    <tr>
+    <td>xml</td>
+    <td>Set it to <code>Y</code> to get the list as XML instead of HTML.</td>
+    <td>boolean, optional</td>
+    </tr>
+    </tbody>
+    </table>
+
+    <h3>Status Codes</h3>
+    <table class="pentaho-table">
+  <tbody>
+    <tr>
+      <th>code</th>
+      <th>description</th>
+    </tr>
+    <tr>
+      <td>200</td>
+      <td>Request was processed.</td>
+    </tr>
+    <tr>
+      <td>500</td>
+      <td>Internal server error occurs during request processing.</td>
+    </tr>
+  </tbody>
+</table>
+
+    <a name="POST"></a>
+    <h2>POST</h2>
+    <p>Invalidates one or all of the caches, then lists them like GET does. A cache loaded with all the data of a table
+    is read again by the next lookup that misses. Invalidating a cache through GET isn't allowed.</p>
+
+    <p><b>Example Request:</b><br />
+    <pre function="syntax.xml">
+    POST /kettle/lookupCaches/?xml=Y&invalidateAll=Y
+    </pre>
+    </p>
+    <h3>Parameters</h3>
+    <table class="pentaho-table">
+    <tbody>
+    <tr>
+      <th>name</th>
+      <th>description</th>
+      <th>type</th>
+    </tr>
+    <tr>
+    <td>invalidate</td>
+    <td>The name of a cache to invalidate before listing the caches.</td>
+    <td>query, optional</td>
+    </tr>
+    <tr>
+    <td>invalidateAll</td>
+    <td>Set it to <code>Y</code> to invalidate all the caches before listing them.</td>
+    <td>boolean, optional</td>
+    </tr>
+    <tr>
+    <td>xml</td>
+    <td>Set it to <code>Y</code> to get the list as XML instead of HTML.</td>
+    <td>boolean, optional</td>
+    </tr>
+    </tbody>
+    </table>
+
+    <h3>Status Codes</h3>
+    <table class="pentaho-table">
+  <tbody>
+    <tr>
+      <th>code</th>
+      <th>description</th>
+    </tr>
+    <tr>
+      <td>200</td>
+      <td>Request was processed.</td>
+    </tr>
+    <tr>
+      <td>405</td>
+      <td>A cache was to be invalidated with a method other than POST.</td>
+    </tr>
+    <tr>
+      <td>500</td>
+      <td>Internal server error occurs during request processing.</td>
+    </tr>
+  </tbody>
+</table>
+</div>
+  */
+  public void doGet( HttpServletRequest request, HttpServletResponse response ) throws ServletException,
+    IOException {
+    if ( isJettyMode() && !request.getContextPath().startsWith( CONTEXT_PATH ) ) {
+      return;
+    }
+
+    if ( log.isDebug() ) {
+      logDebug( "List of lookup caches requested" );
+    }
+
+    LookupCacheService service = LookupCacheService.getInstance();
+    boolean invalidateAll = "Y".equalsIgnoreCase( request.getParameter( PARAM_INVALIDATE_ALL ) );
+    String invalidate = request.getParameter( PARAM_INVALIDATE );
+    if ( invalidateAll || !Utils.isEmpty( invalidate ) ) {
+      // Changing state through GET would let a crawler or a prefetching browser empty the caches
+      //
+      if ( !"POST".equalsIgnoreCase( request.getMethod() ) ) {
+        response.sendError( HttpServletResponse.SC_METHOD_NOT_ALLOWED );
+        return;
+      }
+      if ( invalidateAll ) {
+        service.invalidateAll();
+      } else {
+        service.invalidate( invalidate );
+      }
+    }
+    response.setStatus( HttpServletResponse.SC_OK );
+
+    boolean useXML = "Y".equalsIgnoreCase( request.getParameter( "xml" ) );
+    if ( useXML ) {
+      response.setContentType( "text/xml" );
+      response.setCharacterEncoding( Const.XML_ENCODING );
+    } else {
+      response.setContentType( "text/html;charset=UTF-8" );
+    }
+    PrintStream out = new PrintStream( response.getOutputStream() );
+
+    if ( useXML ) {
+      out.print( XMLHandler.getXMLHeader( Const.XML_ENCODING ) );
+      out.println( XMLHandler.openTag( XML_TAG_LOOKUP_CACHES ) );
+      for ( LookupCache cache : service.getCaches() ) {
+        out.println( getXML( cache ) );
+      }
+      out.println( XMLHandler.closeTag( XML_TAG_LOOKUP_CACHES ) );
+    } else {
+      out.println( "<HTML>" );
+      out.println( "<HEAD><TITLE>Lookup caches</TITLE></HEAD>" );
+      out.println( "<BODY>" );
+      out.println( "<H1>Lookup caches</H1>" );
+      out.println( "<table border=\"1\">" );
+      out.println( "<tr><th>Name</th><th>Entries</th><th>References</th><th>Hits</th><th>Misses</th><th>Loads</th>"
+        + "<th>Evictions</th><th>Expirations</th><th>Invalidations</th></tr>" );
+      for ( LookupCache cache : service.getCaches() ) {
+        out.println( "<tr><td>" + Encode.forHtml( cache.getName() ) + "</td><td>" + cache.size() + "</td><td>"
+          + cache.getReferences() + "</td><td>" + cache.getHits() + "</td><td>" + cache.getMisses() + "</td><td>"
+          + cache.getLoads() + "</td><td>" + cache.getEvictions() + "</td><td>" + cache.getExpirations()
+          + "</td><td>" + cache.getInvalidations() + "</td></tr>" );
+      }
+      out.println( "</table>" );
+      out.println( "<p>" );
+      out.println( "</BODY>" );
+      out.println( "</HTML>" );
+    }
+    out.flush();
+  }
+
+  static String getXML( LookupCache cache ) {
+    StringBuilder xml = new StringBuilder();
+    xml.append( "  " ).append( XMLHandler.openTag( XML_TAG_LOOKUP_CACHE ) ).append( Const.CR );
+    xml.append( "    " ).append( XMLHandler.addTagValue( "name", cache.getName() ) );
+    xml.append( "    " ).append( XMLHandler.addTagValue( "entries", cache.size() ) );
+    xml.append( "    " ).append( XMLHandler.addTagValue( "max_entries", cache.getMaxEntries() ) );
+    xml.append( "    " ).append( XMLHandler.addTagValue( "time_to_live", cache.getTimeToLive() ) );
+    xml.append( "    " ).append( XMLHandler.addTagValue( "references", cache.getReferences() ) );
+    xml.append( "    " ).append( XMLHandler.addTagValue( "hits", cache.getHits() ) );
+    xml.append( "    " ).append( XMLHandler.addTagValue( "misses", cache.getMisses() ) );
+    xml.append( "    " ).append( XMLHandler.addTagValue( "loads", cache.getLoads() ) );
+    xml.append( "    " ).append( XMLHandler.addTagValue( "evictions", cache.getEvictions() ) );
+    xml.append( "    " ).append( XMLHandler.addTagValue( "expirations", cache.getExpirations() ) );
+    xml.append( "    " ).append( XMLHandler.addTagValue( "invalidations", cache.getInvalidations() ) );
+    xml.append( "  " ).append( XMLHandler.closeTag( XML_TAG_LOOKUP_CACHE ) );
+    return xml.toString();
+  }
+
+  public String toString() {
+    return "Lookup caches";
+  }
+
+  public String getService() {
+    return CONTEXT_PATH + " (" + toString() + ")";
+  }
+
+  public String getContextPath() {
+    return CONTEXT_PATH;
+  }
+}
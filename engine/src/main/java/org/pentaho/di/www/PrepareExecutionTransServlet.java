@@ -202,6 +202,7 @@ public class PrepareExecutionTransServlet extends BaseHttpServlet implements Car
         trans.setReplayDate( executionConfiguration.getReplayDate() );
         trans.setSafeModeEnabled( executionConfiguration.isSafeModeEnabled() );
         trans.setGatheringMetrics( executionConfiguration.isGatheringMetrics() );
+        trans.setStepThreadingMode( executionConfiguration.getStepThreadingMode() );
         trans.injectVariables( executionConfiguration.getVariables() );
         trans.setPreviousResult( executionConfiguration.getPreviousResult() );
         trans.setExecutingClustered( executionConfiguration.isExecutingClustered() );
@@ -131,6 +131,7 @@ public class TransformationResource {
       trans.setReplayDate( executionConfiguration.getReplayDate() );
       trans.setSafeModeEnabled( executionConfiguration.isSafeModeEnabled() );
       trans.setGatheringMetrics( executionConfiguration.isGatheringMetrics() );
+      trans.setStepThreadingMode( executionConfiguration.getStepThreadingMode() );
       trans.injectVariables( executionConfiguration.getVariables() );
       trans.setPreviousResult( executionConfiguration.getPreviousResult() );
 
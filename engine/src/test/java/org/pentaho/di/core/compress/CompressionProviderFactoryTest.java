@@ -27,6 +27,7 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.ClassRule;
 import org.junit.Test;
+import org.pentaho.di.core.compress.bgzf.BGZFCompressionProvider;
 import org.pentaho.di.core.compress.gzip.GZIPCompressionProvider;
 import org.pentaho.di.core.compress.hadoopsnappy.HadoopSnappyCompressionProvider;
 import org.pentaho.di.core.compress.snappy.SnappyCompressionProvider;
@@ -94,6 +95,12 @@ public class CompressionProviderFactoryTest {
     assertTrue( provider.getClass().isAssignableFrom( HadoopSnappyCompressionProvider.class ) );
     assertEquals( "Hadoop-snappy", provider.getName() );
     assertEquals( "Hadoop Snappy compression", provider.getDescription() );
+
+    provider = factory.createCompressionProviderInstance( "BGZF" );
+    assertNotNull( provider );
+    assertTrue( provider.getClass().isAssignableFrom( BGZFCompressionProvider.class ) );
+    assertEquals( "BGZF", provider.getName() );
+    assertEquals( "Block GZIP (BGZF) compression", provider.getDescription() );
   }
 
   /**
@@ -109,6 +116,7 @@ public class CompressionProviderFactoryTest {
         put( "GZip", false );
         put( "Snappy", false );
         put( "Hadoop-snappy", false );
+        put( "BGZF", false );
       }
     };
 
@@ -140,6 +148,7 @@ public class CompressionProviderFactoryTest {
         put( "GZip", false );
         put( "Snappy", false );
         put( "Hadoop-snappy", false );
+        put( "BGZF", false );
       }
     };
 
@@ -0,0 +1,155 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.compress.bgzf;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.pentaho.di.core.compress.CompressionOutputStream;
+import org.pentaho.di.core.compress.CompressionPluginType;
+import org.pentaho.di.core.compress.CompressionProviderFactory;
+import org.pentaho.di.core.plugins.PluginRegistry;
+import org.pentaho.di.junit.rules.RestorePDIEngineEnvironment;
+
+public class BGZFCompressionProviderTest {
+  @ClassRule public static RestorePDIEngineEnvironment env = new RestorePDIEngineEnvironment();
+
+  public static final String PROVIDER_NAME = "BGZF";
+
+  public CompressionProviderFactory factory = null;
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws Exception {
+    PluginRegistry.addPluginType( CompressionPluginType.getInstance() );
+    PluginRegistry.init( false );
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    factory = CompressionProviderFactory.getInstance();
+  }
+
+  @Test
+  public void testGetProviderAttributes() {
+    BGZFCompressionProvider provider = (BGZFCompressionProvider) factory.getCompressionProviderByName( PROVIDER_NAME );
+    assertNotNull( provider );
+    assertEquals( PROVIDER_NAME, provider.getName() );
+    assertTrue( provider.supportsInput() );
+    assertTrue( provider.supportsOutput() );
+    assertEquals( "gz", provider.getDefaultExtension() );
+  }
+
+  @Test
+  public void testOutputIsReadableAsGzip() throws IOException {
+    byte[] data = createData( 200000 );
+    byte[] compressed = compress( data );
+
+    assertArrayEquals( data, IOUtils.toByteArray( new GZIPInputStream( new ByteArrayInputStream( compressed ) ) ) );
+
+    BGZFCompressionProvider provider = (BGZFCompressionProvider) factory.getCompressionProviderByName( PROVIDER_NAME );
+    try ( InputStream in = provider.createInputStream( new ByteArrayInputStream( compressed ) ) ) {
+      assertArrayEquals( data, IOUtils.toByteArray( in ) );
+    }
+  }
+
+  @Test
+  public void testChunksCanBeReadIndependently() throws IOException {
+    byte[] data = createData( 100000 );
+    byte[] compressed = compress( data );
+
+    BGZFIndex index = BGZFIndex.scan( new ByteArrayInputStream( compressed ), 500000 );
+    assertTrue( index.getNrChunks() > 1 );
+
+    ByteArrayOutputStream all = new ByteArrayOutputStream();
+    for ( int chunk = 0; chunk < index.getNrChunks(); chunk++ ) {
+      long start = index.getUncompressedOffset( chunk );
+      long end = Math.min( index.getUncompressedEnd( chunk ), data.length );
+      assertEquals( all.size(), start );
+
+      InputStream in = new ByteArrayInputStream( compressed );
+      BGZFIndex.skipFully( in, index.getCompressedOffset( chunk ) );
+      byte[] part = new byte[ (int) ( end - start ) ];
+      IOUtils.readFully( new BGZFInputStream( in ), part );
+      all.write( part );
+    }
+    assertArrayEquals( data, all.toByteArray() );
+  }
+
+  @Test
+  public void testRegularGzipIsNotIndexed() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try ( GZIPOutputStream gzip = new GZIPOutputStream( out ) ) {
+      gzip.write( createData( 1000 ) );
+    }
+    assertNull( BGZFIndex.scan( new ByteArrayInputStream( out.toByteArray() ), 1000 ) );
+  }
+
+  @Test
+  public void testReadGziIndex() throws IOException {
+    ByteArrayOutputStream gzi = new ByteArrayOutputStream();
+    writeLong( gzi, 3 );
+    writeLong( gzi, 100 );
+    writeLong( gzi, 65280 );
+    writeLong( gzi, 200 );
+    writeLong( gzi, 130560 );
+    writeLong( gzi, 300 );
+    writeLong( gzi, 195840 );
+
+    BGZFIndex index = BGZFIndex.readGzi( new ByteArrayInputStream( gzi.toByteArray() ), 100000 );
+    assertEquals( 2, index.getNrChunks() );
+    assertEquals( 0L, index.getCompressedOffset( 0 ) );
+    assertEquals( 200L, index.getCompressedOffset( 1 ) );
+    assertEquals( 130560L, index.getUncompressedOffset( 1 ) );
+    assertEquals( 130560L, index.getUncompressedEnd( 0 ) );
+    assertEquals( Long.MAX_VALUE, index.getUncompressedEnd( 1 ) );
+  }
+
+  private static byte[] createData( int nrLines ) {
+    StringBuilder data = new StringBuilder();
+    for ( int i = 0; i < nrLines; i++ ) {
+      data.append( i ).append( ";line " ).append( i * 31 % 977 ).append( '\n' );
+    }
+    return data.toString().getBytes();
+  }
+
+  private byte[] compress( byte[] data ) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try ( CompressionOutputStream bgzf = factory.getCompressionProviderByName( PROVIDER_NAME )
+      .createOutputStream( out ) ) {
+      bgzf.write( data );
+    }
+    return out.toByteArray();
+  }
+
+  private static void writeLong( ByteArrayOutputStream out, long value ) {
+    for ( int i = 0; i < 8; i++ ) {
+      out.write( (int) ( value >>> ( 8 * i ) ) );
+    }
+  }
+}
@@ -0,0 +1,227 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pentaho.di.core.BlockingRowSet;
+import org.pentaho.di.core.ObjectLocationSpecificationMethod;
+import org.pentaho.di.core.RowSet;
+import org.pentaho.di.core.database.DatabaseMeta;
+import org.pentaho.di.core.logging.LogChannelInterface;
+import org.pentaho.di.core.plugins.PluginRegistry;
+import org.pentaho.di.core.plugins.StepPluginType;
+import org.pentaho.di.junit.rules.RestorePDIEngineEnvironment;
+import org.pentaho.di.trans.step.StepDataInterface;
+import org.pentaho.di.trans.step.StepInterface;
+import org.pentaho.di.trans.step.StepMeta;
+import org.pentaho.di.trans.step.StepMetaDataCombi;
+import org.pentaho.di.trans.step.StepMetaInterface;
+import org.pentaho.di.trans.steps.dummytrans.DummyTransMeta;
+import org.pentaho.di.trans.steps.rowgenerator.RowGeneratorMeta;
+import org.pentaho.di.trans.steps.transexecutor.TransExecutorMeta;
+
+public class StepSchedulerTest {
+  @ClassRule public static RestorePDIEngineEnvironment env = new RestorePDIEngineEnvironment();
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private static final int ROWSET_SIZE = 10;
+  private static final int NR_ROWS = 10000;
+
+  @Test
+  public void testRunsAllRowsThroughTheSteps() throws Exception {
+    Trans trans = mock( Trans.class );
+    TransMeta transMeta = mock( TransMeta.class );
+    when( trans.getTransMeta() ).thenReturn( transMeta );
+    when( trans.getName() ).thenReturn( "test" );
+    when( transMeta.getSizeRowset() ).thenReturn( ROWSET_SIZE );
+
+    RowSet rowSet = new BlockingRowSet( ROWSET_SIZE );
+
+    // The producer puts one row per call, the consumer takes one row per call
+    //
+    AtomicInteger produced = new AtomicInteger();
+    StepMetaDataCombi producer =
+      createCombi( "producer", Collections.emptyList(), Collections.singletonList( rowSet ) );
+    when( producer.step.processRow( any(), any() ) ).thenAnswer( invocation -> {
+      if ( produced.get() >= NR_ROWS ) {
+        rowSet.setDone();
+        return false;
+      }
+      rowSet.putRow( null, new Object[] { produced.incrementAndGet() } );
+      return true;
+    } );
+
+    AtomicInteger consumed = new AtomicInteger();
+    StepMetaDataCombi consumer =
+      createCombi( "consumer", Collections.singletonList( rowSet ), Collections.emptyList() );
+    when( consumer.step.processRow( any(), any() ) ).thenAnswer( invocation -> {
+      Object[] row = rowSet.getRowWait( 1, TimeUnit.MILLISECONDS );
+      if ( row == null && rowSet.isDone() ) {
+        row = rowSet.getRowImmediate();
+        if ( row == null ) {
+          return false;
+        }
+      }
+      if ( row != null ) {
+        consumed.incrementAndGet();
+      }
+      return true;
+    } );
+
+    StepScheduler scheduler = new StepScheduler( trans );
+    scheduler.addStep( producer );
+    scheduler.addStep( consumer );
+    scheduler.start();
+
+    long deadline = System.currentTimeMillis() + 30000L;
+    while ( scheduler.getNrActiveSteps() > 0 && System.currentTimeMillis() < deadline ) {
+      Thread.sleep( 10 );
+    }
+
+    assertEquals( 0, scheduler.getNrActiveSteps() );
+    assertEquals( NR_ROWS, consumed.get() );
+
+    // The producer can't have run in one slice: the row set only holds a few rows
+    //
+    assertTrue( scheduler.getNrSlices( producer.step ) > 1 );
+    for ( StepMetaDataCombi combi : new StepMetaDataCombi[] { producer, consumer } ) {
+      verify( combi.step, times( 1 ) ).dispose( combi.meta, combi.data );
+      verify( combi.step, times( 1 ) ).markStop();
+    }
+  }
+
+  @Test
+  public void testTransExecutorDoesNotStarveItsSubTransformation() throws Exception {
+    // The sub-transformation inherits the Scheduled mode and so needs the only worker of the pool while the
+    // transformation executor waits for it to finish
+    //
+    TransMeta subTransMeta = new TransMeta();
+    StepMeta subGenerator = createStepMeta( "generator", createRowGeneratorMeta( "3" ) );
+    StepMeta subDummy = createStepMeta( "dummy", new DummyTransMeta() );
+    subTransMeta.addStep( subGenerator );
+    subTransMeta.addStep( subDummy );
+    subTransMeta.addTransHop( new TransHopMeta( subGenerator, subDummy ) );
+    File subTransFile = tempFolder.newFile( "sub.ktr" );
+    Files.write( subTransFile.toPath(), subTransMeta.getXML().getBytes( StandardCharsets.UTF_8 ) );
+
+    TransExecutorMeta executorMeta = new TransExecutorMeta();
+    executorMeta.setDefault();
+    executorMeta.setSpecificationMethod( ObjectLocationSpecificationMethod.FILENAME );
+    executorMeta.setFileName( subTransFile.getAbsolutePath() );
+
+    TransMeta transMeta = new TransMeta();
+    StepMeta generator = createStepMeta( "generator", createRowGeneratorMeta( "5" ) );
+    StepMeta executor = createStepMeta( "executor", executorMeta );
+    transMeta.addStep( generator );
+    transMeta.addStep( executor );
+    transMeta.addTransHop( new TransHopMeta( generator, executor ) );
+
+    ForkJoinPool previous = StepScheduler.setPool( StepScheduler.createPool( 1 ) );
+    try {
+      Trans trans = new Trans( transMeta );
+      trans.setStepThreadingMode( StepThreadingMode.SCHEDULED );
+      trans.prepareExecution( null );
+      assertTrue( StepScheduler.isBlocking( findCombi( trans, "executor" ) ) );
+      assertFalse( StepScheduler.isBlocking( findCombi( trans, "generator" ) ) );
+      trans.startThreads();
+
+      long deadline = System.currentTimeMillis() + 30000L;
+      while ( !trans.isFinished() && System.currentTimeMillis() < deadline ) {
+        Thread.sleep( 10 );
+      }
+
+      assertTrue( trans.isFinished() );
+      assertEquals( 0, trans.getErrors() );
+      assertEquals( 5, trans.findRunThread( "executor" ).getLinesRead() );
+    } finally {
+      StepScheduler.setPool( previous ).shutdownNow();
+    }
+  }
+
+  @Test
+  public void testStepsRunOnThePoolOnlyIfTheyNeverBlock() {
+    assertFalse( StepScheduler.isBlocking( createCombi( new DummyTransMeta() ) ) );
+    assertTrue( StepScheduler.isBlocking( createCombi( new TransExecutorMeta() ) ) );
+
+    // Steps that don't say anything, like most plugins, block
+    //
+    assertTrue( StepScheduler.isBlocking( createCombi( mock( StepMetaInterface.class, CALLS_REAL_METHODS ) ) ) );
+
+    // So does a step that never blocks by itself but uses a database connection
+    //
+    assertTrue( StepScheduler.isBlocking( createCombi( new DummyTransMeta() {
+      @Override
+      public DatabaseMeta[] getUsedDatabaseConnections() {
+        return new DatabaseMeta[] { new DatabaseMeta() };
+      }
+    } ) ) );
+  }
+
+  private static StepMetaDataCombi findCombi( Trans trans, String stepname ) {
+    return trans.getSteps().stream().filter( combi -> combi.stepname.equals( stepname ) ).findFirst().orElse( null );
+  }
+
+  private static RowGeneratorMeta createRowGeneratorMeta( String rowLimit ) {
+    RowGeneratorMeta meta = new RowGeneratorMeta();
+    meta.allocate( 0 );
+    meta.setRowLimit( rowLimit );
+    return meta;
+  }
+
+  private static StepMeta createStepMeta( String name, StepMetaInterface meta ) {
+    String id = PluginRegistry.getInstance().getPluginId( StepPluginType.class, meta );
+    return new StepMeta( id, name, meta );
+  }
+
+  private static StepMetaDataCombi createCombi( StepMetaInterface meta ) {
+    StepMetaDataCombi combi = new StepMetaDataCombi();
+    combi.meta = meta;
+    return combi;
+  }
+
+  private static StepMetaDataCombi createCombi( String name, List<RowSet> inputs, List<RowSet> outputs ) {
+    StepMetaDataCombi combi = new StepMetaDataCombi();
+    combi.stepname = name;
+    combi.step = mock( StepInterface.class );
+    combi.meta = mock( StepMetaInterface.class );
+    combi.data = mock( StepDataInterface.class );
+    when( combi.step.getLogChannel() ).thenReturn( mock( LogChannelInterface.class ) );
+    when( combi.step.getInputRowSets() ).thenReturn( inputs );
+    when( combi.step.getOutputRowSets() ).thenReturn( outputs );
+    return combi;
+  }
+}
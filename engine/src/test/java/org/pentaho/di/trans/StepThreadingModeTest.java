@@ -0,0 +1,80 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.pentaho.di.core.Const;
+import org.pentaho.di.core.util.VirtualThreads;
+import org.pentaho.di.junit.rules.RestorePDIEngineEnvironment;
+
+public class StepThreadingModeTest {
+  @ClassRule public static RestorePDIEngineEnvironment env = new RestorePDIEngineEnvironment();
+
+  @Test
+  public void testGetByCode() {
+    assertSame( StepThreadingMode.VIRTUAL, StepThreadingMode.getStepThreadingModeByCode( "virtual" ) );
+    assertSame( StepThreadingMode.POOLED, StepThreadingMode.getStepThreadingModeByCode( " Pooled " ) );
+    assertNull( StepThreadingMode.getStepThreadingModeByCode( "" ) );
+    assertNull( StepThreadingMode.getStepThreadingModeByCode( null ) );
+  }
+
+  @Test
+  public void testStartRunsInNamedThread() throws Exception {
+    for ( StepThreadingMode mode : StepThreadingMode.values() ) {
+      AtomicReference<Thread> thread = new AtomicReference<>();
+      AtomicReference<String> name = new AtomicReference<>();
+      Future<?> future = mode.start( "step " + mode, () -> {
+        thread.set( Thread.currentThread() );
+        name.set( Thread.currentThread().getName() );
+      } );
+      future.get( 10, TimeUnit.SECONDS );
+
+      assertEquals( "step " + mode, name.get() );
+      assertEquals( mode == StepThreadingMode.VIRTUAL && VirtualThreads.isSupported(),
+        VirtualThreads.isVirtual( thread.get() ) );
+    }
+  }
+
+  @Test
+  public void testPooledThreadsDoNotKeepTheJvmAlive() throws Exception {
+    AtomicReference<Thread> thread = new AtomicReference<>();
+    StepThreadingMode.POOLED.start( "pooled", () -> thread.set( Thread.currentThread() ) ).get( 10, TimeUnit.SECONDS );
+
+    assertTrue( thread.get().isDaemon() );
+  }
+
+  @Test
+  public void testTransThreadingModeDefaults() {
+    Trans parent = new Trans();
+    assertSame( StepThreadingMode.PLATFORM, parent.getStepThreadingMode() );
+    parent.setVariable( Const.KETTLE_STEP_THREADING_MODE, "Pooled" );
+    assertSame( StepThreadingMode.POOLED, parent.getStepThreadingMode() );
+    parent.setStepThreadingMode( StepThreadingMode.VIRTUAL );
+    assertSame( StepThreadingMode.VIRTUAL, parent.getStepThreadingMode() );
+
+    Trans child = new Trans();
+    child.setParentTrans( parent );
+    assertSame( StepThreadingMode.VIRTUAL, child.getStepThreadingMode() );
+  }
+}
@@ -0,0 +1,170 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.logging.KettleLogStore;
+import org.pentaho.di.core.logging.LoggingObjectType;
+import org.pentaho.di.core.logging.LoggingRegistry;
+import org.pentaho.di.core.logging.SimpleLoggingObject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SubtransPoolTest {
+
+  private final List<Trans> created = new ArrayList<>();
+  private final List<Trans> initialized = new ArrayList<>();
+  private final List<Runnable> tasks = new ArrayList<>();
+  private final Executor executor = tasks::add;
+  private boolean failing;
+
+  @BeforeClass
+  public static void initLogStore() {
+    KettleLogStore.init();
+  }
+
+  private Trans createSubtrans() throws KettleException {
+    if ( failing ) {
+      throw new KettleException( "unable to create" );
+    }
+    Trans trans = mock( Trans.class );
+    String logChannelId = LoggingRegistry.getInstance().registerLoggingSource(
+      new SimpleLoggingObject( "subtrans " + created.size(), LoggingObjectType.TRANS, null ) );
+    when( trans.getLogChannelId() ).thenReturn( logChannelId );
+    created.add( trans );
+    return trans;
+  }
+
+  private void initializeVariables( Trans trans ) {
+    initialized.add( trans );
+  }
+
+  private void runTasks() {
+    List<Runnable> toRun = new ArrayList<>( tasks );
+    tasks.clear();
+    toRun.forEach( Runnable::run );
+  }
+
+  @Test
+  public void testTakeCreatesTheFirstOneAndFillsThePool() throws Exception {
+    SubtransPool pool = new SubtransPool( this::createSubtrans, this::initializeVariables, 2, executor );
+    assertEquals( 0, created.size() );
+
+    Trans first = pool.take();
+    assertEquals( 1, created.size() );
+    assertSame( created.get( 0 ), first );
+    assertEquals( 2, tasks.size() );
+
+    runTasks();
+    assertEquals( 3, created.size() );
+    assertEquals( 2, pool.getIdleCount() );
+
+    Trans second = pool.take();
+    assertSame( created.get( 1 ), second );
+    assertEquals( 1, tasks.size() );
+    runTasks();
+    assertEquals( 4, created.size() );
+    assertEquals( 2, pool.getIdleCount() );
+  }
+
+  @Test
+  public void testVariablesAreInitializedAgainWhenTaken() throws Exception {
+    SubtransPool pool = new SubtransPool( this::createSubtrans, this::initializeVariables, 1, executor );
+
+    // Created by take() itself, the factory initialized the variables
+    pool.take();
+    assertTrue( initialized.isEmpty() );
+
+    // Created while the previous one was running
+    runTasks();
+    Trans second = pool.take();
+    assertSame( created.get( 1 ), second );
+    assertEquals( 1, initialized.size() );
+    assertSame( second, initialized.get( 0 ) );
+  }
+
+  @Test
+  public void testNoMoreThanThePoolSizeIsCreatedAhead() throws Exception {
+    SubtransPool pool = new SubtransPool( this::createSubtrans, this::initializeVariables, 1, executor );
+    Trans first = pool.take();
+    Trans second = pool.take();
+    assertNotSame( first, second );
+
+    // The first take() started the only background creation, it wasn't done yet for the second
+    //
+    assertEquals( 1, tasks.size() );
+    runTasks();
+    assertEquals( 1, pool.getIdleCount() );
+  }
+
+  @Test
+  public void testCloseDiscardsIdleAndStopsFilling() throws Exception {
+    SubtransPool pool = new SubtransPool( this::createSubtrans, this::initializeVariables, 2, executor );
+    pool.take();
+    runTasks();
+    assertEquals( 2, pool.getIdleCount() );
+
+    pool.close();
+    assertTrue( pool.isClosed() );
+    assertEquals( 0, pool.getIdleCount() );
+    assertNull( LoggingRegistry.getInstance().getLoggingObject( created.get( 1 ).getLogChannelId() ) );
+    assertNull( LoggingRegistry.getInstance().getLoggingObject( created.get( 2 ).getLogChannelId() ) );
+
+    pool.take();
+    assertEquals( 0, tasks.size() );
+    assertEquals( 4, created.size() );
+  }
+
+  @Test
+  public void testCreatedAfterCloseIsDiscarded() throws Exception {
+    SubtransPool pool = new SubtransPool( this::createSubtrans, this::initializeVariables, 1, executor );
+    pool.take();
+    pool.close();
+    runTasks();
+    assertEquals( 0, pool.getIdleCount() );
+  }
+
+  @Test
+  public void testFailedBackgroundCreationIsRetriedOnTake() throws Exception {
+    SubtransPool pool = new SubtransPool( this::createSubtrans, this::initializeVariables, 1, executor );
+    pool.take();
+    failing = true;
+    runTasks();
+    assertEquals( 0, pool.getIdleCount() );
+
+    failing = false;
+    pool.take();
+    assertEquals( 1, tasks.size() );
+    runTasks();
+    assertEquals( 1, pool.getIdleCount() );
+  }
+
+  @Test( expected = KettleException.class )
+  public void testTakeReportsCreationErrors() throws Exception {
+    failing = true;
+    new SubtransPool( this::createSubtrans, this::initializeVariables, 1, executor ).take();
+  }
+}
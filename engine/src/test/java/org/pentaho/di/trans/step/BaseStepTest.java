@@ -32,6 +32,7 @@ import org.pentaho.di.core.exception.KettleValueException;
 import org.pentaho.di.core.fileinput.NonAccessibleFileObject;
 import org.pentaho.di.core.logging.LogChannelInterface;
 import org.pentaho.di.core.logging.LoggingObjectInterface;
+import org.pentaho.di.core.row.RowArrayPool;
 import org.pentaho.di.core.row.RowMeta;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.core.row.ValueMetaInterface;
@@ -59,6 +60,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -509,4 +511,182 @@ public class BaseStepTest {
     baseStepSpy.getRow();
     verify( mockHelper.transMeta, times( 1 ) ).checkRowMixingStatically( any( StepMeta.class ), any() );
   }
+
+  @Test
+  public void putRowsAndGetRowsMoveWholeBatches() throws KettleException {
+    when( mockHelper.trans.isRunning() ).thenReturn( true );
+    BaseStep producer =
+      new BaseStep( mockHelper.stepMeta, mockHelper.stepDataInterface, 0, mockHelper.transMeta, mockHelper.trans );
+    BaseStep consumer =
+      new BaseStep( mockHelper.stepMeta, mockHelper.stepDataInterface, 0, mockHelper.transMeta, mockHelper.trans );
+
+    RowSet rowSet = new BlockingRowSet( 10 );
+    producer.addRowSetToOutputRowSets( rowSet );
+    consumer.addRowSetToInputRowSets( rowSet );
+
+    RowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaInteger( "id" ) );
+    Object[][] rows = new Object[][] { { 1L }, { 2L }, { 3L }, { 4L } };
+
+    producer.putRows( rowMeta, rows, 3 );
+    rowSet.setDone();
+    assertEquals( 3, producer.getLinesWritten() );
+
+    Object[][] batch = consumer.getRows( 10 );
+    assertEquals( 3, batch.length );
+    for ( int i = 0; i < batch.length; i++ ) {
+      assertSame( rows[ i ], batch[ i ] );
+    }
+    assertEquals( 3, consumer.getLinesRead() );
+    assertEquals( "id", consumer.getInputRowMeta().getValueMeta( 0 ).getName() );
+
+    assertNull( consumer.getRows( 10 ) );
+    assertTrue( consumer.getInputRowSets().isEmpty() );
+  }
+
+  @Test
+  public void putRowToAndPutRowsToCallTheRowListenersForEveryRow() throws KettleException {
+    BaseStep step =
+      new BaseStep( mockHelper.stepMeta, mockHelper.stepDataInterface, 0, mockHelper.transMeta, mockHelper.trans );
+    List<Object[]> written = new ArrayList<>();
+    step.addRowListener( new RowAdapter() {
+      @Override
+      public void rowWrittenEvent( RowMetaInterface rowMeta, Object[] row ) {
+        written.add( row );
+      }
+    } );
+
+    RowSet rowSet = new QueueRowSet();
+    RowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaInteger( "id" ) );
+    Object[][] rows = new Object[][] { { 1L }, { 2L }, { 3L } };
+
+    step.putRowTo( rowMeta, rows[ 0 ], rowSet );
+    step.putRowsTo( rowMeta, new Object[][] { rows[ 1 ], rows[ 2 ] }, 2, rowSet );
+    assertEquals( 3, step.getLinesWritten() );
+    assertEquals( 3, written.size() );
+    for ( int i = 0; i < rows.length; i++ ) {
+      assertSame( rows[ i ], written.get( i ) );
+      assertSame( rows[ i ], rowSet.getRow() );
+    }
+
+    step.stopAll();
+    step.putRowsTo( rowMeta, rows, 3, rowSet );
+    assertEquals( 3, step.getLinesWritten() );
+    assertNull( rowSet.getRow() );
+  }
+
+  @Test
+  public void rowArraysAreRecycledOverAHopWithAPool() throws KettleException {
+    when( mockHelper.trans.isRunning() ).thenReturn( true );
+    BaseStep producer =
+      new BaseStep( mockHelper.stepMeta, mockHelper.stepDataInterface, 0, mockHelper.transMeta, mockHelper.trans );
+    BaseStep consumer =
+      new BaseStep( mockHelper.stepMeta, mockHelper.stepDataInterface, 0, mockHelper.transMeta, mockHelper.trans );
+
+    RowSet rowSet = new BlockingRowSet( 10 );
+    rowSet.setRowArrayPool( new RowArrayPool( 10, false ) );
+    producer.addRowSetToOutputRowSets( rowSet );
+    consumer.addRowSetToInputRowSets( rowSet );
+
+    RowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaInteger( "id" ) );
+
+    Object[] row = producer.allocateRowData( 1 );
+    row[ 0 ] = 1L;
+    producer.putRow( rowMeta, row );
+
+    Object[] input = consumer.getRow();
+    assertSame( row, input );
+    Object[] output = consumer.resizeRowData( input, input.length + 1 );
+    assertNotSame( input, output );
+    assertEquals( 1L, output[ 0 ] );
+
+    // The consumer copied the row so the producer can use the array again
+    Object[] next = producer.allocateRowData( 1 );
+    assertSame( row, next );
+    assertNull( next[ 0 ] );
+  }
+
+  @Test
+  public void sendingAReleasedRowFailsInDebugMode() throws KettleException {
+    when( mockHelper.trans.isRunning() ).thenReturn( true );
+    BaseStep producer =
+      new BaseStep( mockHelper.stepMeta, mockHelper.stepDataInterface, 0, mockHelper.transMeta, mockHelper.trans );
+    BaseStep consumer =
+      new BaseStep( mockHelper.stepMeta, mockHelper.stepDataInterface, 0, mockHelper.transMeta, mockHelper.trans );
+
+    RowSet rowSet = new BlockingRowSet( 10 );
+    rowSet.setRowArrayPool( new RowArrayPool( 10, true ) );
+    producer.addRowSetToOutputRowSets( rowSet );
+    consumer.addRowSetToInputRowSets( rowSet );
+
+    RowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaInteger( "id" ) );
+
+    Object[] row = producer.allocateRowData( 1 );
+    producer.putRow( rowMeta, row );
+    consumer.releaseRow( consumer.getRow() );
+
+    try {
+      producer.putRow( rowMeta, row );
+      fail( "A released row was sent on its way" );
+    } catch ( KettleStepException e ) {
+      // expected
+    }
+    assertNotSame( row, producer.allocateRowData( 1 ) );
+  }
+
+  @Test
+  public void statusCountersAreExactUnderConcurrentUpdates() throws Exception {
+    final BaseStep step =
+      new BaseStep( mockHelper.stepMeta, mockHelper.stepDataInterface, 0, mockHelper.transMeta, mockHelper.trans );
+    final int nrThreads = 4;
+    final int nrIncrements = 10000;
+
+    Thread[] threads = new Thread[ nrThreads ];
+    for ( int i = 0; i < nrThreads; i++ ) {
+      threads[ i ] = new Thread( () -> {
+        for ( int j = 0; j < nrIncrements; j++ ) {
+          step.incrementLinesRead();
+          step.addLinesWritten( 2 );
+          step.incrementLinesOutput();
+        }
+      } );
+      threads[ i ].start();
+    }
+    for ( Thread thread : threads ) {
+      thread.join();
+    }
+
+    assertEquals( nrThreads * nrIncrements, step.getLinesRead() );
+    assertEquals( 2L * nrThreads * nrIncrements, step.getLinesWritten() );
+    assertEquals( nrThreads * nrIncrements, step.getLinesOutput() );
+
+    step.decrementLinesRead();
+    assertEquals( nrThreads * nrIncrements - 1, step.getLinesRead() );
+    step.setLinesWritten( 5 );
+    step.incrementLinesWritten();
+    assertEquals( 6, step.getLinesWritten() );
+    assertEquals( 0, step.getLinesSkipped() );
+  }
+
+  @Test
+  @SuppressWarnings( "deprecation" )
+  public void statusCountersIncludeDeprecatedFields() {
+    BaseStep step =
+      new BaseStep( mockHelper.stepMeta, mockHelper.stepDataInterface, 0, mockHelper.transMeta, mockHelper.trans );
+    step.incrementLinesInput();
+    step.linesInput += 2; // the way older step plugins update the counters
+    step.linesRejected++;
+
+    assertEquals( 3, step.getLinesInput() );
+    step.incrementLinesInput();
+    assertEquals( 4, step.getLinesInput() );
+    assertEquals( 1, step.getLinesRejected() );
+
+    step.setLinesInput( 10 );
+    assertEquals( 10, step.getLinesInput() );
+    assertEquals( 0, step.linesInput );
+  }
 }
@@ -0,0 +1,210 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.step;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.util.Date;
+import java.util.Random;
+
+import org.junit.Test;
+import org.pentaho.di.core.exception.KettleEOFException;
+import org.pentaho.di.core.exception.KettleFileException;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaBinary;
+import org.pentaho.di.core.row.value.ValueMetaDate;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaString;
+
+public class RowFrameWriterTest {
+
+  private static RowMetaInterface createRowMeta() {
+    RowMetaInterface rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaInteger( "id" ) );
+    rowMeta.addValueMeta( new ValueMetaString( "name" ) );
+    rowMeta.addValueMeta( new ValueMetaDate( "date" ) );
+    return rowMeta;
+  }
+
+  private static Object[] createRow( long i ) {
+    return new Object[] { i, i % 7 == 0 ? null : "name " + ( i % 100 ), new Date( 1000000L * i ) };
+  }
+
+  private static byte[] write( RowMetaInterface rowMeta, RowFrameCodec codec, int frameSize, int nrRows )
+    throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    RowFrameWriter writer = new RowFrameWriter( out, codec, frameSize );
+    writer.writeMeta( rowMeta );
+    for ( int i = 0; i < nrRows; i++ ) {
+      writer.writeRow( createRow( i ) );
+    }
+    writer.finish();
+    writer.close();
+    assertEquals( nrRows, writer.getRowsWritten() );
+    return out.toByteArray();
+  }
+
+  private static void assertRoundTrip( RowFrameCodec codec ) throws Exception {
+    RowMetaInterface rowMeta = createRowMeta();
+    byte[] data = write( rowMeta, codec, 4096, 5000 );
+
+    RowFrameReader reader = new RowFrameReader( new ByteArrayInputStream( data ) );
+    RowMetaInterface readMeta = reader.readMeta();
+    assertEquals( codec, reader.getCodec() );
+    assertArrayEquals( rowMeta.getFieldNames(), readMeta.getFieldNames() );
+    for ( int i = 0; i < 5000; i++ ) {
+      Object[] row = reader.readRow();
+      assertEquals( 0, readMeta.compare( createRow( i ), row ) );
+    }
+    assertNull( reader.readRow() );
+    assertNull( reader.readRow() );
+    assertEquals( 5000, reader.getRowsRead() );
+    assertTrue( reader.getFramesRead() > 1 );
+    reader.close();
+  }
+
+  @Test
+  public void testRoundTripNone() throws Exception {
+    assertRoundTrip( RowFrameCodec.NONE );
+  }
+
+  @Test
+  public void testRoundTripDeflate() throws Exception {
+    assertRoundTrip( RowFrameCodec.DEFLATE );
+  }
+
+  @Test
+  public void testRoundTripSnappy() throws Exception {
+    assertRoundTrip( RowFrameCodec.SNAPPY );
+  }
+
+  @Test
+  public void testCompressedFramesAreSmaller() throws Exception {
+    RowMetaInterface rowMeta = createRowMeta();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    RowFrameWriter writer = new RowFrameWriter( out, RowFrameCodec.SNAPPY, 65536 );
+    writer.writeMeta( rowMeta );
+    for ( int i = 0; i < 10000; i++ ) {
+      writer.writeRow( createRow( i ) );
+    }
+    writer.finish();
+    assertTrue( writer.getBytesWritten() < writer.getRawBytes() / 2 );
+  }
+
+  @Test
+  public void testIncompressibleFramesAreStored() throws Exception {
+    RowMetaInterface rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaBinary( "data" ) );
+    Random random = new Random( 42 );
+    byte[][] values = new byte[ 20 ][];
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    RowFrameWriter writer = new RowFrameWriter( out, RowFrameCodec.DEFLATE, 8192 );
+    writer.writeMeta( rowMeta );
+    for ( int i = 0; i < values.length; i++ ) {
+      values[ i ] = new byte[ 1000 ];
+      random.nextBytes( values[ i ] );
+      writer.writeRow( new Object[] { values[ i ] } );
+    }
+    writer.finish();
+    // 12 bytes per frame header and the end of stream marker
+    assertEquals( writer.getRawBytes() + 12 * writer.getFramesWritten() + 4, writer.getBytesWritten() );
+
+    RowFrameReader reader = new RowFrameReader( new ByteArrayInputStream( out.toByteArray() ) );
+    reader.readMeta();
+    for ( byte[] value : values ) {
+      assertArrayEquals( value, (byte[]) reader.readRow()[ 0 ] );
+    }
+    assertNull( reader.readRow() );
+  }
+
+  @Test
+  public void testFlushSendsPendingRows() throws Exception {
+    RowMetaInterface rowMeta = createRowMeta();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    RowFrameWriter writer = new RowFrameWriter( out, RowFrameCodec.SNAPPY, 65536 );
+    writer.writeMeta( rowMeta );
+    writer.writeRow( createRow( 1 ) );
+    writer.flush();
+    assertEquals( 1, writer.getFramesWritten() );
+
+    RowFrameReader reader = new RowFrameReader( new ByteArrayInputStream( out.toByteArray() ) );
+    reader.readMeta();
+    assertEquals( 0, rowMeta.compare( createRow( 1 ), reader.readRow() ) );
+    try {
+      reader.readRow();
+      fail( "The stream has no end of stream marker" );
+    } catch ( KettleEOFException e ) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testFlushIfOlderThan() throws Exception {
+    RowMetaInterface rowMeta = createRowMeta();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    RowFrameWriter writer = new RowFrameWriter( out, RowFrameCodec.DEFLATE, 65536 );
+    writer.writeMeta( rowMeta );
+    assertFalse( writer.flushIfOlderThan( 0L ) );
+
+    writer.writeRow( createRow( 1 ) );
+    assertFalse( writer.flushIfOlderThan( 60000L ) );
+    assertEquals( 1, writer.getPendingRows() );
+    assertTrue( writer.flushIfOlderThan( 0L ) );
+    assertEquals( 0, writer.getPendingRows() );
+
+    writer.writeRow( createRow( 2 ) );
+    assertTrue( writer.flushIfOlderThan( 0L ) );
+    writer.finish();
+    writer.close();
+    assertEquals( 2, writer.getFramesWritten() );
+
+    RowFrameReader reader = new RowFrameReader( new ByteArrayInputStream( out.toByteArray() ) );
+    reader.readMeta();
+    assertEquals( 0, rowMeta.compare( createRow( 1 ), reader.readRow() ) );
+    assertEquals( 0, rowMeta.compare( createRow( 2 ), reader.readRow() ) );
+    assertNull( reader.readRow() );
+    reader.close();
+  }
+
+  @Test( expected = KettleEOFException.class )
+  public void testEmptyStream() throws Exception {
+    new RowFrameReader( new ByteArrayInputStream( new byte[ 0 ] ) ).readMeta();
+  }
+
+  @Test( expected = KettleFileException.class )
+  public void testStreamedRowsAreRejected() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    createRowMeta().writeMeta( new DataOutputStream( out ) );
+    new RowFrameReader( new ByteArrayInputStream( out.toByteArray() ) ).readMeta();
+  }
+
+  @Test
+  public void testFindCodec() {
+    assertEquals( RowFrameCodec.SNAPPY, RowFrameCodec.findCodec( "snappy" ) );
+    assertEquals( RowFrameCodec.NONE, RowFrameCodec.findCodec( "NONE" ) );
+    assertNull( RowFrameCodec.findCodec( "" ) );
+    assertNull( RowFrameCodec.findCodec( null ) );
+    assertNull( RowFrameCodec.findCodec( "LZ4" ) );
+  }
+}
@@ -38,6 +38,19 @@ public class CsvInputContentParsingTest extends BaseCsvParsingTest {
     check( new Object[][] { { "first", "1", "1.1" }, { "second", "2", "2.2" }, { "third", "3", "3.3" } } );
   }
 
+  @Test
+  public void testMemoryMapped() throws Exception {
+    meta.setMemoryMapped( true );
+    init( "default.csv" );
+
+    setFields( new TextFileInputField( "Field 1", -1, -1 ), new TextFileInputField( "Field 2", -1, -1 ),
+        new TextFileInputField( "Field 3", -1, -1 ) );
+
+    process();
+
+    check( new Object[][] { { "first", "1", "1.1" }, { "second", "2", "2.2" }, { "third", "3", "3.3" } } );
+  }
+
   @Test
   public void testColumnNameWithSpaces() throws Exception {
     init( "column_name_with_spaces.csv" );
@@ -0,0 +1,119 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.csvinput;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaDate;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaNumber;
+import org.pentaho.di.core.row.value.ValueMetaString;
+
+public class NumberFieldParserTest {
+
+  @Test
+  public void parsesIntegers() {
+    NumberFieldParser parser = new NumberFieldParser( true, (byte) '.' );
+
+    assertEquals( 0L, parse( parser, "0" ) );
+    assertEquals( 123L, parse( parser, "123" ) );
+    assertEquals( -42L, parse( parser, "-42" ) );
+    assertEquals( 7L, parse( parser, "007" ) );
+    assertEquals( 999999999999999999L, parse( parser, "999999999999999999" ) );
+  }
+
+  @Test
+  public void leavesUnusualIntegersToTheRegularConversion() {
+    NumberFieldParser parser = new NumberFieldParser( true, (byte) '.' );
+
+    assertNull( parse( parser, "" ) );
+    assertNull( parse( parser, "-" ) );
+    assertNull( parse( parser, " 1" ) );
+    assertNull( parse( parser, "+1" ) );
+    assertNull( parse( parser, "1.5" ) );
+    assertNull( parse( parser, "1,000" ) );
+    assertNull( parse( parser, "1234567890123456789" ) );
+  }
+
+  @Test
+  public void parsesNumbers() {
+    NumberFieldParser parser = new NumberFieldParser( false, (byte) '.' );
+
+    assertEquals( 1.1, parse( parser, "1.1" ) );
+    assertEquals( -2.25, parse( parser, "-2.25" ) );
+    assertEquals( 42.0, parse( parser, "42" ) );
+    assertEquals( 0.1, parse( parser, "0.1" ) );
+    assertEquals( 123456.789012, parse( parser, "123456.789012" ) );
+    assertEquals( -0.0, parse( parser, "-0" ) );
+  }
+
+  @Test
+  public void leavesUnusualNumbersToTheRegularConversion() {
+    NumberFieldParser parser = new NumberFieldParser( false, (byte) ',' );
+
+    assertEquals( 3.5, parse( parser, "3,5" ) );
+    assertNull( parse( parser, "3.5" ) );
+    assertNull( parse( parser, "1,2,3" ) );
+    assertNull( parse( parser, ",5" ) );
+    assertNull( parse( parser, "5," ) );
+    assertNull( parse( parser, "1e5" ) );
+    assertNull( parse( parser, "12345678901234567,8" ) );
+  }
+
+  @Test
+  public void parsesPartOfTheBuffer() {
+    NumberFieldParser parser = new NumberFieldParser( true, (byte) '.' );
+    byte[] buffer = "a;123;b".getBytes( StandardCharsets.US_ASCII );
+
+    assertEquals( 123L, parser.parse( buffer, 2, 3 ) );
+  }
+
+  @Test
+  public void createsParsersForPlainNumericFieldsOnly() {
+    assertNotNull( NumberFieldParser.create( binaryString( new ValueMetaInteger( "i" ), null ) ) );
+    assertNotNull( NumberFieldParser.create( binaryString( new ValueMetaNumber( "n" ), "#.##" ) ) );
+    assertNull( NumberFieldParser.create( binaryString( new ValueMetaNumber( "n" ), "0.00%" ) ) );
+    assertNull( NumberFieldParser.create( binaryString( new ValueMetaNumber( "n" ), "$#.##" ) ) );
+    assertNull( NumberFieldParser.create( binaryString( new ValueMetaDate( "d" ), null ) ) );
+    assertNull( NumberFieldParser.create( binaryString( new ValueMetaString( "s" ), null ) ) );
+  }
+
+  @Test
+  public void doesNotCreateParsersForWideEncodings() {
+    ValueMetaInterface valueMeta = binaryString( new ValueMetaInteger( "i" ), null );
+    valueMeta.getStorageMetadata().setStringEncoding( "UTF-16" );
+
+    assertNull( NumberFieldParser.create( valueMeta ) );
+  }
+
+  private static Object parse( NumberFieldParser parser, String value ) {
+    byte[] bytes = value.getBytes( StandardCharsets.US_ASCII );
+    return parser.parse( bytes, 0, bytes.length );
+  }
+
+  private static ValueMetaInterface binaryString( ValueMetaInterface valueMeta, String mask ) {
+    ValueMetaInterface storageMeta = new ValueMetaString( valueMeta.getName() );
+    storageMeta.setConversionMask( mask );
+    storageMeta.setDecimalSymbol( "." );
+    valueMeta.setStorageMetadata( storageMeta );
+    valueMeta.setStorageType( ValueMetaInterface.STORAGE_TYPE_BINARY_STRING );
+    return valueMeta;
+  }
+}
@@ -23,6 +23,7 @@ import org.mockito.ArgumentMatchers;
 import org.pentaho.di.core.Const;
 import org.pentaho.di.core.KettleEnvironment;
 import org.pentaho.di.core.RowSet;
+import org.pentaho.di.core.cache.LookupCacheService;
 import org.pentaho.di.core.bowl.Bowl;
 import org.pentaho.di.core.database.Database;
 import org.pentaho.di.core.database.DatabaseMeta;
@@ -61,6 +62,7 @@ import java.util.function.Consumer;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
@@ -436,6 +438,57 @@ public class DatabaseLookupUTest {
     assertNotNull( data.cache.getRowFromCache( data.lookupMeta, new Object[] { 3L } ) );
   }
 
+  @Test
+  public void reloadsSharedCache_WhenInvalidatedWhileRunning() throws Exception {
+    Database db = mock( Database.class );
+
+    doCallRealMethod().when( db ).forEachRow( anyString(), anyInt(), any( Consumer.class ) );
+    ResultSet resultSetMock = mock( ResultSet.class );
+    doReturn( resultSetMock ).when( db ).openQuery( anyString() );
+    Object[] row1 = new Object[] { 1L };
+    Object[] row2 = new Object[] { 2L };
+    doReturn( row1, row2, null, row1, row2, null ).when( db ).getRow( resultSetMock );
+
+    RowMeta returnRowMeta = new RowMeta();
+    returnRowMeta.addValueMeta( new ValueMetaInteger( "i1" ) );
+    when( db.getReturnRowMeta() ).thenReturn( returnRowMeta );
+
+    DatabaseLookupMeta meta = createTestMeta();
+    meta.setEatingRowOnLookupFailure( true );
+    DatabaseLookupData data = new DatabaseLookupData();
+
+    DatabaseLookup step = createSpiedStep( db, mockHelper, meta );
+    doCallRealMethod().when( step ).lookupValues( any(), any() );
+    step.setVariable( Const.KETTLE_SHARED_LOOKUP_CACHE, "Y" );
+    step.init( meta, data );
+
+    data.db = db;
+    data.keytypes = new int[] { ValueMetaInterface.TYPE_INTEGER };
+    data.allEquals = true;
+    data.conditions = new int[] { DatabaseLookupMeta.CONDITION_EQ };
+
+    try {
+      step.processRow( meta, data );
+      assertNotNull( data.sharedCache );
+      assertEquals( 1, data.sharedCache.getLoads() );
+
+      // Invalidating the cache of a running step makes it read the table again instead of not finding anything
+      //
+      RowMeta input = new RowMeta();
+      input.addValueMeta( new ValueMetaInteger( "Test" ) );
+      data.sharedCache.invalidate();
+      assertNotNull( step.lookupValues( input, new Object[] { 2L } ) );
+      assertEquals( 2, data.sharedCache.getLoads() );
+      assertNull( step.lookupValues( input, new Object[] { 3L } ) );
+      assertEquals( 2, data.sharedCache.getLoads() );
+    } finally {
+      if ( data.sharedCache != null ) {
+        LookupCacheService.getInstance().release( data.sharedCache );
+        data.sharedCache.invalidate();
+      }
+    }
+  }
+
   private void testIncrementLinesClusteredVariations( boolean isClustered, Boolean isExecutingClustered,
                                                       int wantedNumberOfInvocations ) {
 
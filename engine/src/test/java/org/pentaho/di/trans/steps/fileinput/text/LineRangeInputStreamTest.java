@@ -0,0 +1,83 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.fileinput.text;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+public class LineRangeInputStreamTest {
+
+  private static final String CONTENT = "a,1\nbb,22\nccc,333\ndddd,4444\n";
+
+  private static String read( String content, long start, long end ) throws Exception {
+    InputStream in =
+      new LineRangeInputStream( new ByteArrayInputStream( content.getBytes( StandardCharsets.UTF_8 ) ), start, end );
+    return IOUtils.toString( in, StandardCharsets.UTF_8 );
+  }
+
+  @Test
+  public void testLineBelongsToTheRangeItStartsIn() throws Exception {
+    assertEquals( "a,1\nbb,22\n", read( CONTENT, 0, 5 ) );
+    assertEquals( "ccc,333\n", read( CONTENT, 5, 12 ) );
+    assertEquals( "dddd,4444\n", read( CONTENT, 12, Long.MAX_VALUE ) );
+  }
+
+  @Test
+  public void testRangeStartingAtLineStart() throws Exception {
+    assertEquals( "a,1\n", read( CONTENT, 0, 4 ) );
+    assertEquals( "bb,22\n", read( CONTENT, 4, 10 ) );
+  }
+
+  @Test
+  public void testRangeWithoutLineStart() throws Exception {
+    assertEquals( "", read( CONTENT, 11, 13 ) );
+  }
+
+  @Test
+  public void testLastLineWithoutLineFeed() throws Exception {
+    assertEquals( "bb,22", read( "a,1\nbb,22", 2, Long.MAX_VALUE ) );
+  }
+
+  @Test
+  public void testRangesAddUpToTheContent() throws Exception {
+    StringBuilder content = new StringBuilder();
+    for ( int i = 0; i < 1000; i++ ) {
+      content.append( i ).append( ",\"value " ).append( i * 31 ).append( "\"\r\n" );
+    }
+    for ( int nrRanges = 1; nrRanges <= 7; nrRanges++ ) {
+      StringBuilder read = new StringBuilder();
+      for ( int i = 0; i < nrRanges; i++ ) {
+        long start = (long) content.length() * i / nrRanges;
+        long end = i < nrRanges - 1 ? (long) content.length() * ( i + 1 ) / nrRanges : Long.MAX_VALUE;
+        read.append( read( content.toString(), start, end ) );
+      }
+      assertEquals( content.toString(), read.toString() );
+    }
+  }
+
+  @Test
+  public void testSplits() {
+    assertArrayEquals( new long[] { 0L }, ParallelTextFileReader.getSplits( 1000L, 4 ) );
+    long size = ParallelTextFileReader.MIN_SPLIT_SIZE * 3;
+    assertArrayEquals( new long[] { 0L, size / 3, size * 2 / 3 }, ParallelTextFileReader.getSplits( size, 4 ) );
+    assertEquals( 2, ParallelTextFileReader.getSplits( size, 2 ).length );
+  }
+}
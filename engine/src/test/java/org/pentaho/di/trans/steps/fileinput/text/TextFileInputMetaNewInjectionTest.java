@@ -182,6 +182,18 @@ public class TextFileInputMetaNewInjectionTest extends BaseMetadataInjectionTest
       }
     } );
 
+    check( "PARALLEL_READERS", new IntGetter() {
+      public int get() {
+        return meta.content.parallelReaders;
+      }
+    } );
+
+    check( "PARALLEL_PRESERVE_ORDER", new BooleanGetter() {
+      public boolean get() {
+        return meta.content.parallelPreserveOrder;
+      }
+    } );
+
     check( "DATE_FORMAT_LENIENT", new BooleanGetter() {
       public boolean get() {
         return meta.content.dateFormatLenient;
@@ -20,9 +20,12 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.vfs2.FileContent;
@@ -36,6 +39,7 @@ import org.mockito.MockedConstruction;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.stubbing.Answer;
+import org.pentaho.di.core.BlockingRowSet;
 import org.pentaho.di.core.KettleEnvironment;
 import org.pentaho.di.core.RowSet;
 import org.pentaho.di.core.bowl.DefaultBowl;
@@ -81,6 +85,8 @@ import org.pentaho.metastore.api.IMetaStore;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -300,6 +306,79 @@ public class TextFileInputTest {
     assertEquals( 0, textFileInput.getErrors() );
   }
 
+  @Test
+  public void readFilesInParallelPreservingOrder() throws Exception {
+    String[] files = createParallelFiles( 5 );
+    TextFileInputMeta meta = createMetaObject( field( "col1" ), field( "col2" ) );
+    meta.content.parallelReaders = 3;
+    meta.content.includeRowNumber = true;
+    meta.content.rowNumberField = "rownr";
+    TextFileInputData data = createParallelDataObject( files );
+
+    RowSet output = readAll( meta, data );
+
+    long rowNr = 1;
+    for ( int i = 0; i < files.length; i++ ) {
+      for ( String value : new String[] { "a", "b", "c" } ) {
+        TransTestingUtil.assertResult( new Object[] { "" + i, value, rowNr++ }, output.getRowImmediate() );
+      }
+    }
+    assertNull( output.getRowImmediate() );
+    assertTrue( output.isDone() );
+
+    for ( String file : files ) {
+      deleteVfsFile( file );
+    }
+  }
+
+  @Test
+  public void readFilesInParallel() throws Exception {
+    String[] files = createParallelFiles( 5 );
+    TextFileInputMeta meta = createMetaObject( field( "col1" ), field( "col2" ) );
+    meta.content.parallelReaders = 3;
+    meta.content.parallelPreserveOrder = false;
+    TextFileInputData data = createParallelDataObject( files );
+
+    RowSet output = readAll( meta, data );
+
+    Set<String> rows = new HashSet<>();
+    for ( Object[] row = output.getRowImmediate(); row != null; row = output.getRowImmediate() ) {
+      rows.add( row[ 0 ] + "," + row[ 1 ] );
+    }
+    assertEquals( files.length * 3, rows.size() );
+    assertTrue( rows.contains( "4,c" ) );
+
+    for ( String file : files ) {
+      deleteVfsFile( file );
+    }
+  }
+
+  private static String[] createParallelFiles( int nrFiles ) throws Exception {
+    String[] files = new String[ nrFiles ];
+    for ( int i = 0; i < nrFiles; i++ ) {
+      files[ i ] = createVirtualFile( "parallel-" + i + ".txt", i + ",a\n", i + ",b\n", i + ",c\n" );
+    }
+    return files;
+  }
+
+  private TextFileInputData createParallelDataObject( String[] files ) throws Exception {
+    TextFileInputData data = createDataObject( files[ 0 ], ",", "col1", "col2" );
+    for ( int i = 1; i < files.length; i++ ) {
+      data.files.addFile( KettleVFS.getInstance( DefaultBowl.getInstance() ).getFileObject( files[ i ] ) );
+    }
+    return data;
+  }
+
+  private static RowSet readAll( TextFileInputMeta meta, TextFileInputData data ) throws Exception {
+    TextFileInput input = StepMockUtil.getStep( TextFileInput.class, TextFileInputMeta.class, "test" );
+    RowSet output = new BlockingRowSet( 100 );
+    input.setOutputRowSets( Collections.singletonList( output ) );
+    while ( input.processRow( meta, data ) ) {
+      // the rows are collected in the output row set
+    }
+    return output;
+  }
+
   @Test
   public void test_PDI17117() throws Exception {
     final String virtualFile = createVirtualFile( "pdi-14832.txt", "1,\n" );
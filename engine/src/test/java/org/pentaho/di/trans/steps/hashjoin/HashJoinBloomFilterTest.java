@@ -0,0 +1,60 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.hashjoin;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HashJoinBloomFilterTest {
+
+  @Test
+  public void testNoFalseNegatives() {
+    HashJoinBloomFilter filter = new HashJoinBloomFilter( 1000 );
+    Random random = new Random( 123 );
+    int[] hashes = new int[1000];
+    for ( int i = 0; i < hashes.length; i++ ) {
+      hashes[i] = random.nextInt();
+      filter.add( hashes[i] );
+    }
+    for ( int hash : hashes ) {
+      assertTrue( filter.mightContain( hash ) );
+    }
+  }
+
+  @Test
+  public void testFalsePositiveRate() {
+    HashJoinBloomFilter filter = new HashJoinBloomFilter( 1000 );
+    for ( int i = 0; i < 1000; i++ ) {
+      filter.add( i );
+    }
+    int falsePositives = 0;
+    for ( int i = 1000; i < 101000; i++ ) {
+      if ( filter.mightContain( i ) ) {
+        falsePositives++;
+      }
+    }
+    assertTrue( "False positives: " + falsePositives, falsePositives < 2000 );
+  }
+
+  @Test
+  public void testSize() {
+    assertEquals( 16384, new HashJoinBloomFilter( 1000 ).getNrBits() );
+    assertEquals( 64, new HashJoinBloomFilter( 0 ).getNrBits() );
+    assertEquals( 1L << 30, new HashJoinBloomFilter( Long.MAX_VALUE / 16 ).getNrBits() );
+  }
+}
@@ -0,0 +1,160 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.hashjoin;
+
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.pentaho.di.core.bowl.DefaultBowl;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.di.core.variables.Variables;
+import org.pentaho.di.junit.rules.RestorePDIEngineEnvironment;
+import org.pentaho.di.trans.step.StepMeta;
+import org.pentaho.di.trans.step.errorhandling.StreamInterface;
+import org.pentaho.di.trans.steps.loadsave.LoadSaveTester;
+import org.pentaho.di.trans.steps.loadsave.validator.FieldLoadSaveValidator;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+
+public class HashJoinMetaTest {
+  @ClassRule public static RestorePDIEngineEnvironment env = new RestorePDIEngineEnvironment();
+
+  LoadSaveTester loadSaveTester;
+
+  public HashJoinMetaTest() {
+    List<String> attributes = Arrays.asList( "joinType", "keyFields1", "keyFields2", "buildFirst", "cacheSize",
+      "directory", "compressFiles", "bloomFilter" );
+
+    Map<String, String> getterMap = new HashMap<String, String>();
+    getterMap.put( "joinType", "getJoinType" );
+    getterMap.put( "keyFields1", "getKeyFields1" );
+    getterMap.put( "keyFields2", "getKeyFields2" );
+    getterMap.put( "buildFirst", "isBuildFirst" );
+    getterMap.put( "cacheSize", "getCacheSize" );
+    getterMap.put( "directory", "getDirectory" );
+    getterMap.put( "compressFiles", "isCompressFiles" );
+    getterMap.put( "bloomFilter", "isBloomFilter" );
+
+    Map<String, String> setterMap = new HashMap<String, String>();
+    setterMap.put( "joinType", "setJoinType" );
+    setterMap.put( "keyFields1", "setKeyFields1" );
+    setterMap.put( "keyFields2", "setKeyFields2" );
+    setterMap.put( "buildFirst", "setBuildFirst" );
+    setterMap.put( "cacheSize", "setCacheSize" );
+    setterMap.put( "directory", "setDirectory" );
+    setterMap.put( "compressFiles", "setCompressFiles" );
+    setterMap.put( "bloomFilter", "setBloomFilter" );
+
+    loadSaveTester = new LoadSaveTester( HashJoinMeta.class, attributes, getterMap, setterMap,
+      new HashMap<String, FieldLoadSaveValidator<?>>(), new HashMap<String, FieldLoadSaveValidator<?>>() );
+  }
+
+  @Test
+  public void testSerialization() throws KettleException {
+    loadSaveTester.testSerialization();
+  }
+
+  @Test
+  public void testGetFields() throws Exception {
+    HashJoinMeta meta = new HashJoinMeta();
+    meta.setDefault();
+    RowMeta outputRowMeta = new RowMeta();
+    meta.getFields( DefaultBowl.getInstance(), outputRowMeta, "Hash Join", getInfoFields(),
+      new StepMeta( "Hash", meta ), new Variables(), null, null );
+
+    assertEquals( 4, outputRowMeta.size() );
+    assertEquals( "field1", outputRowMeta.getValueMeta( 0 ).getName() );
+    assertEquals( "field2", outputRowMeta.getValueMeta( 1 ).getName() );
+    assertEquals( "field1_1", outputRowMeta.getValueMeta( 2 ).getName() );
+    assertEquals( "field3", outputRowMeta.getValueMeta( 3 ).getName() );
+  }
+
+  @Test
+  public void testGetFieldsSemiJoin() throws Exception {
+    HashJoinMeta meta = new HashJoinMeta();
+    meta.setDefault();
+    for ( int joinType : new int[] { HashJoinMeta.JOIN_TYPE_LEFT_SEMI, HashJoinMeta.JOIN_TYPE_LEFT_ANTI } ) {
+      meta.setJoinType( HashJoinMeta.JOIN_TYPES[joinType] );
+      RowMeta outputRowMeta = new RowMeta();
+      meta.getFields( DefaultBowl.getInstance(), outputRowMeta, "Hash Join", getInfoFields(),
+        new StepMeta( "Hash", meta ), new Variables(), null, null );
+
+      // Only the fields of the first stream are passed on
+      //
+      assertEquals( 2, outputRowMeta.size() );
+      assertEquals( "field1", outputRowMeta.getValueMeta( 0 ).getName() );
+      assertEquals( "field2", outputRowMeta.getValueMeta( 1 ).getName() );
+    }
+  }
+
+  @Test
+  public void testGetJoinTypeIndex() {
+    HashJoinMeta meta = new HashJoinMeta();
+    meta.setJoinType( "FULL OUTER" );
+    assertEquals( HashJoinMeta.JOIN_TYPE_FULL_OUTER, meta.getJoinTypeIndex() );
+    assertFalse( meta.isSemiOrAntiJoin() );
+    meta.setJoinType( "LEFT ANTI" );
+    assertTrue( meta.isSemiOrAntiJoin() );
+    meta.setJoinType( "CROSS" );
+    assertEquals( -1, meta.getJoinTypeIndex() );
+  }
+
+  @Test
+  public void cloneTest() throws Exception {
+    HashJoinMeta meta = new HashJoinMeta();
+    meta.setDefault();
+    meta.setKeyFields1( new String[] { "kf1-1", "kf1-2" } );
+    meta.setKeyFields2( new String[] { "kf2-1", "kf2-2" } );
+    meta.setJoinType( "LEFT OUTER" );
+    meta.setBuildFirst( true );
+    meta.setCacheSize( "5000" );
+    HashJoinMeta aClone = (HashJoinMeta) meta.clone();
+    assertNotSame( meta, aClone );
+    assertNotSame( meta.getKeyFields1(), aClone.getKeyFields1() );
+    assertTrue( Arrays.equals( meta.getKeyFields1(), aClone.getKeyFields1() ) );
+    assertTrue( Arrays.equals( meta.getKeyFields2(), aClone.getKeyFields2() ) );
+    assertEquals( meta.getJoinType(), aClone.getJoinType() );
+    assertEquals( meta.isBuildFirst(), aClone.isBuildFirst() );
+    assertEquals( meta.getCacheSize(), aClone.getCacheSize() );
+
+    List<StreamInterface> infoStreams = meta.getStepIOMeta().getInfoStreams();
+    List<StreamInterface> cloneInfoStreams = aClone.getStepIOMeta().getInfoStreams();
+    assertEquals( infoStreams.size(), cloneInfoStreams.size() );
+    for ( int i = 0; i < infoStreams.size(); i++ ) {
+      assertNotSame( infoStreams.get( i ), cloneInfoStreams.get( i ) );
+    }
+  }
+
+  private static RowMetaInterface[] getInfoFields() {
+    RowMeta inputRow1 = new RowMeta();
+    inputRow1.addValueMeta( new ValueMetaInteger( "field1" ) );
+    inputRow1.addValueMeta( new ValueMetaString( "field2" ) );
+    RowMeta inputRow2 = new RowMeta();
+    inputRow2.addValueMeta( new ValueMetaString( "field1" ) );
+    inputRow2.addValueMeta( new ValueMetaString( "field3" ) );
+    return new RowMetaInterface[] { inputRow1, inputRow2 };
+  }
+}
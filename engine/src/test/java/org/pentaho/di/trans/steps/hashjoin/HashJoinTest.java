@@ -0,0 +1,267 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.hashjoin;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pentaho.di.core.QueueRowSet;
+import org.pentaho.di.core.RowSet;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.exception.KettleStepException;
+import org.pentaho.di.core.logging.LoggingObjectInterface;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.di.junit.rules.RestorePDIEngineEnvironment;
+import org.pentaho.di.trans.step.StepMeta;
+import org.pentaho.di.trans.steps.mock.StepMockHelper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class HashJoinTest {
+  @ClassRule public static RestorePDIEngineEnvironment env = new RestorePDIEngineEnvironment();
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private StepMockHelper<HashJoinMeta, HashJoinData> smh;
+  private RowMetaInterface oneMeta;
+  private RowMetaInterface twoMeta;
+  private HashJoinData data;
+
+  // Key k1 is in both streams twice, the null keys match each other
+  //
+  private static final Object[][] ONE_ROWS = {
+    { "k1", 1L }, { "k2", 2L }, { null, 3L }, { "k4", 4L }, { "k1", 5L } };
+  private static final Object[][] TWO_ROWS = {
+    { 10L, "k1" }, { 11L, "k1" }, { 12L, null }, { 13L, "k5" } };
+
+  private static final List<String> INNER = Arrays.asList(
+    "[k1, 1, 10, k1]", "[k1, 1, 11, k1]", "[k1, 5, 10, k1]", "[k1, 5, 11, k1]", "[null, 3, 12, null]" );
+  private static final List<String> UNMATCHED_ONE = Arrays.asList( "[k2, 2, null, null]", "[k4, 4, null, null]" );
+  private static final List<String> UNMATCHED_TWO = Collections.singletonList( "[null, null, 13, k5]" );
+  private static final List<String> SEMI = Arrays.asList( "[k1, 1]", "[k1, 5]", "[null, 3]" );
+  private static final List<String> ANTI = Arrays.asList( "[k2, 2]", "[k4, 4]" );
+
+  @Before
+  public void setUp() {
+    smh = new StepMockHelper<>( "hashJoin", HashJoinMeta.class, HashJoinData.class );
+    when( smh.logChannelInterfaceFactory.create( any(), any( LoggingObjectInterface.class ) ) ).thenReturn(
+      smh.logChannelInterface );
+    when( smh.trans.isRunning() ).thenReturn( true );
+
+    oneMeta = new RowMeta();
+    oneMeta.addValueMeta( new ValueMetaString( "key1" ) );
+    oneMeta.addValueMeta( new ValueMetaInteger( "a" ) );
+    twoMeta = new RowMeta();
+    twoMeta.addValueMeta( new ValueMetaInteger( "b" ) );
+    twoMeta.addValueMeta( new ValueMetaString( "key2" ) );
+  }
+
+  @After
+  public void cleanUp() {
+    smh.cleanUp();
+  }
+
+  @Test
+  public void testJoinTypesInMemory() throws Exception {
+    for ( boolean buildFirst : new boolean[] { false, true } ) {
+      assertJoinTypes( buildFirst, "1000", false );
+      assertFalse( data.spilling );
+    }
+  }
+
+  @Test
+  public void testJoinTypesSpilled() throws Exception {
+    for ( boolean buildFirst : new boolean[] { false, true } ) {
+      for ( boolean bloomFilter : new boolean[] { false, true } ) {
+        assertJoinTypes( buildFirst, "2", bloomFilter );
+        assertTrue( data.spilling );
+        assertEquals( bloomFilter, data.bloomFilter != null );
+      }
+    }
+  }
+
+  @Test
+  public void testBloomFilterSkipsSpillingUnmatchedProbeRows() throws Exception {
+    List<Object[]> oneRows = new ArrayList<>();
+    List<Object[]> twoRows = new ArrayList<>();
+    for ( int i = 0; i < 100; i++ ) {
+      oneRows.add( new Object[] { "probe" + i, (long) i } );
+      twoRows.add( new Object[] { (long) i, "build" + i } );
+    }
+
+    List<String> rows = join( HashJoinMeta.JOIN_TYPE_LEFT_OUTER, false, "10", true, oneRows, twoRows );
+
+    assertEquals( 100, rows.size() );
+    assertTrue( data.spilling );
+    long spilledProbeRows = 0;
+    for ( long nrRows : data.probeFileRows ) {
+      spilledProbeRows += nrRows;
+    }
+    assertTrue( "Spilled probe rows: " + spilledProbeRows, spilledProbeRows < 50 );
+  }
+
+  @Test
+  public void testSplitsPartitionsLargerThanTheCacheSize() throws Exception {
+    // About 30 build rows per partition, far more than the cache size
+    //
+    List<Object[]> oneRows = new ArrayList<>();
+    List<Object[]> twoRows = new ArrayList<>();
+    for ( int i = 0; i < 1000; i++ ) {
+      oneRows.add( new Object[] { "k" + i, (long) i } );
+      twoRows.add( new Object[] { (long) i, "k" + ( i * 2 ) } );
+    }
+
+    List<String> rows = join( HashJoinMeta.JOIN_TYPE_INNER, false, "5", false, oneRows, twoRows );
+
+    assertEquals( 500, rows.size() );
+    assertTrue( rows.contains( "[k998, 998, 499, k998]" ) );
+    assertEquals( 0, tempFolder.getRoot().list().length );
+  }
+
+  @Test
+  public void testTrimmedCaseInsensitiveKeys() throws Exception {
+    for ( int i = 0; i < oneMeta.size(); i++ ) {
+      oneMeta.getValueMeta( i ).setIgnoreWhitespace( true );
+      oneMeta.getValueMeta( i ).setCaseInsensitive( true );
+      twoMeta.getValueMeta( i ).setIgnoreWhitespace( true );
+      twoMeta.getValueMeta( i ).setCaseInsensitive( true );
+    }
+    List<Object[]> oneRows = Arrays.asList( new Object[] { " Key1", 1L }, new Object[] { "key2  ", 2L } );
+    List<Object[]> twoRows = Arrays.asList( new Object[] { 10L, "KEY1 " }, new Object[] { 11L, "\tkEy2" } );
+
+    for ( boolean buildFirst : new boolean[] { false, true } ) {
+      assertEquals( Arrays.asList( "[ Key1, 1, 10, KEY1 ]", "[key2  , 2, 11, \tkEy2]" ),
+        join( HashJoinMeta.JOIN_TYPE_INNER, buildFirst, "1000", false, oneRows, twoRows ) );
+    }
+  }
+
+  @Test( expected = KettleStepException.class )
+  public void testFailsOnPartitionWithTooManyEqualKeys() throws Exception {
+    List<Object[]> oneRows = new ArrayList<>();
+    List<Object[]> twoRows = new ArrayList<>();
+    for ( int i = 0; i < 10; i++ ) {
+      oneRows.add( new Object[] { "k1", (long) i } );
+      twoRows.add( new Object[] { (long) i, "k1" } );
+    }
+
+    try {
+      join( HashJoinMeta.JOIN_TYPE_INNER, false, "5", false, oneRows, twoRows );
+    } finally {
+      assertEquals( 0, tempFolder.getRoot().list().length );
+    }
+  }
+
+  private void assertJoinTypes( boolean buildFirst, String cacheSize, boolean bloomFilter ) throws Exception {
+    List<Object[]> oneRows = Arrays.asList( ONE_ROWS );
+    List<Object[]> twoRows = Arrays.asList( TWO_ROWS );
+    String description = "buildFirst=" + buildFirst + ", cacheSize=" + cacheSize + ", bloomFilter=" + bloomFilter;
+
+    assertEquals( description, sorted( INNER ),
+      join( HashJoinMeta.JOIN_TYPE_INNER, buildFirst, cacheSize, bloomFilter, oneRows, twoRows ) );
+    assertEquals( description, sorted( INNER, UNMATCHED_ONE ),
+      join( HashJoinMeta.JOIN_TYPE_LEFT_OUTER, buildFirst, cacheSize, bloomFilter, oneRows, twoRows ) );
+    assertEquals( description, sorted( INNER, UNMATCHED_TWO ),
+      join( HashJoinMeta.JOIN_TYPE_RIGHT_OUTER, buildFirst, cacheSize, bloomFilter, oneRows, twoRows ) );
+    assertEquals( description, sorted( INNER, UNMATCHED_ONE, UNMATCHED_TWO ),
+      join( HashJoinMeta.JOIN_TYPE_FULL_OUTER, buildFirst, cacheSize, bloomFilter, oneRows, twoRows ) );
+    assertEquals( description, sorted( SEMI ),
+      join( HashJoinMeta.JOIN_TYPE_LEFT_SEMI, buildFirst, cacheSize, bloomFilter, oneRows, twoRows ) );
+    assertEquals( description, sorted( ANTI ),
+      join( HashJoinMeta.JOIN_TYPE_LEFT_ANTI, buildFirst, cacheSize, bloomFilter, oneRows, twoRows ) );
+  }
+
+  /**
+   * Runs the step on the rows of both streams.
+   *
+   * @return the output rows as strings, sorted
+   */
+  private List<String> join( int joinType, boolean buildFirst, String cacheSize, boolean bloomFilter,
+    List<Object[]> oneRows, List<Object[]> twoRows ) throws KettleException {
+    StepMeta oneStepMeta = when( mock( StepMeta.class ).getName() ).thenReturn( "one" ).getMock();
+    StepMeta twoStepMeta = when( mock( StepMeta.class ).getName() ).thenReturn( "two" ).getMock();
+    doReturn( oneStepMeta ).when( smh.transMeta ).findStep( "one" );
+    doReturn( twoStepMeta ).when( smh.transMeta ).findStep( "two" );
+
+    HashJoinMeta meta = new HashJoinMeta();
+    meta.setDefault();
+    meta.setJoinType( HashJoinMeta.JOIN_TYPES[ joinType ] );
+    meta.setKeyFields1( new String[] { "key1" } );
+    meta.setKeyFields2( new String[] { "key2" } );
+    meta.setBuildFirst( buildFirst );
+    meta.setCacheSize( cacheSize );
+    meta.setBloomFilter( bloomFilter );
+    meta.setDirectory( tempFolder.getRoot().getAbsolutePath() );
+    meta.getStepIOMeta().getInfoStreams().get( 0 ).setStepMeta( oneStepMeta );
+    meta.getStepIOMeta().getInfoStreams().get( 1 ).setStepMeta( twoStepMeta );
+
+    data = new HashJoinData();
+    HashJoin step = new HashJoin( smh.stepMeta, data, 0, smh.transMeta, smh.trans );
+    step.addRowSetToInputRowSets( createRowSet( "one", oneMeta, oneRows ) );
+    step.addRowSetToInputRowSets( createRowSet( "two", twoMeta, twoRows ) );
+    RowSet output = new QueueRowSet();
+    step.addRowSetToOutputRowSets( output );
+
+    List<String> rows = new ArrayList<>();
+    assertTrue( step.init( meta, data ) );
+    try {
+      while ( step.processRow( meta, data ) ) {
+        // keep on joining
+      }
+    } finally {
+      step.dispose( meta, data );
+    }
+    for ( Object[] row = output.getRow(); row != null; row = output.getRow() ) {
+      rows.add( Arrays.toString( Arrays.copyOf( row, data.outputRowMeta.size() ) ) );
+    }
+    Collections.sort( rows );
+    return rows;
+  }
+
+  private static RowSet createRowSet( String stepname, RowMetaInterface rowMeta, List<Object[]> rows ) {
+    RowSet rowSet = new QueueRowSet();
+    rowSet.setThreadNameFromToCopy( stepname, 0, "hashJoin", 0 );
+    for ( Object[] row : rows ) {
+      rowSet.putRow( rowMeta, row.clone() );
+    }
+    rowSet.setDone();
+    return rowSet;
+  }
+
+  @SafeVarargs
+  private static List<String> sorted( List<String>... lists ) {
+    List<String> rows = new ArrayList<>();
+    for ( List<String> list : lists ) {
+      rows.addAll( list );
+    }
+    Collections.sort( rows );
+    return rows;
+  }
+}
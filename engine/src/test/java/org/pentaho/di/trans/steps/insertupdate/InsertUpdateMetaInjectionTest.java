@@ -49,6 +49,11 @@ public class InsertUpdateMetaInjectionTest extends BaseMetadataInjectionTest<Ins
         return meta.isUpdateBypassed();
       }
     } );
+    check( "BULK_UPSERT", new BooleanGetter() {
+      public boolean get() {
+        return meta.isBulkUpsert();
+      }
+    } );
     check( "KEY_STREAM", new StringGetter() {
       public String get() {
         return meta.getKeyFields()[ 0 ].getKeyStream();
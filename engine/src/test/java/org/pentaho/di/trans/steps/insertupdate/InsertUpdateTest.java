@@ -0,0 +1,270 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.insertupdate;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pentaho.di.core.database.Database;
+import org.pentaho.di.core.database.DatabaseInterface;
+import org.pentaho.di.core.database.DatabaseMeta;
+import org.pentaho.di.core.database.MSSQLServerDatabaseMeta;
+import org.pentaho.di.core.database.MySQLDatabaseMeta;
+import org.pentaho.di.core.database.OracleDatabaseMeta;
+import org.pentaho.di.core.database.PostgreSQLDatabaseMeta;
+import org.pentaho.di.core.exception.KettleStepException;
+import org.pentaho.di.core.logging.LoggingObjectInterface;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.di.core.variables.VariableSpace;
+import org.pentaho.di.trans.steps.mock.StepMockHelper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.AdditionalMatchers.and;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class InsertUpdateTest {
+  private static final Object[][] ROWS = {
+    { "1", "inserted" }, { "2", "updated" }, { "3", "unchanged" } };
+
+  StepMockHelper<InsertUpdateMeta, InsertUpdateData> smh;
+  InsertUpdateMeta stepMeta;
+  InsertUpdateData stepData;
+  InsertUpdate step;
+
+  @Before
+  public void setUp() {
+    smh = new StepMockHelper<>( "insertUpdate", InsertUpdateMeta.class, InsertUpdateData.class );
+    when( smh.logChannelInterfaceFactory.create( any(), any( LoggingObjectInterface.class ) ) ).thenReturn(
+      smh.logChannelInterface );
+    when( smh.trans.isRunning() ).thenReturn( true );
+  }
+
+  @After
+  public void cleanUp() {
+    smh.cleanUp();
+  }
+
+  @Test
+  public void testBulkUpsertCountsReturnedInserts_PostgreSQL() throws Exception {
+    // The unchanged row isn't returned
+    PreparedStatement upsert = mockUpsert( 1, 1, 0 );
+    ResultSet inserts = mock( ResultSet.class );
+    when( inserts.next() ).thenReturn( true, true, false );
+    when( inserts.getBoolean( 1 ) ).thenReturn( true, false );
+    doReturn( inserts ).when( upsert ).getGeneratedKeys();
+    Connection connection = mock( Connection.class );
+    doReturn( upsert ).when( connection ).prepareStatement( anyString(), anyInt() );
+
+    runBulkUpsert( new PostgreSQLDatabaseMeta(), connection, 3, ROWS );
+
+    verify( connection ).prepareStatement( startsWith( "INSERT INTO FOO AS t" ),
+      eq( Statement.RETURN_GENERATED_KEYS ) );
+    verify( upsert, times( 3 ) ).addBatch();
+    verify( upsert ).executeBatch();
+    verify( stepData.db ).commit();
+    assertCounts( 1, 1, 1 );
+  }
+
+  @Test
+  public void testBulkUpsertCountsAffectedRows_MySQL() throws Exception {
+    PreparedStatement upsert = mockUpsert( 1, 2, 0 );
+    Connection connection = mock( Connection.class );
+    doReturn( upsert ).when( connection ).prepareStatement( anyString() );
+
+    runBulkUpsert( createMySQLDatabaseMeta( "true" ), connection, 3, ROWS );
+
+    verify( connection ).prepareStatement( startsWith( "INSERT INTO FOO (" ) );
+    verify( upsert ).executeBatch();
+    assertCounts( 1, 1, 1 );
+  }
+
+  @Test
+  public void testBulkUpsertCountsRewrittenBatchAsOutput_MySQL() throws Exception {
+    // With rewriteBatchedStatements the driver doesn't report the counts per row
+    PreparedStatement upsert = mockUpsert( Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO,
+      Statement.SUCCESS_NO_INFO );
+    Connection connection = mock( Connection.class );
+    doReturn( upsert ).when( connection ).prepareStatement( anyString() );
+
+    runBulkUpsert( createMySQLDatabaseMeta( "true" ), connection, 3, ROWS );
+
+    assertCounts( 3, 0, 0 );
+  }
+
+  @Test( expected = KettleStepException.class )
+  public void testBulkUpsertNeedsAffectedRows_MySQL() throws Exception {
+    // Without useAffectedRows an unchanged row counts as found, like an insert
+    runBulkUpsert( createMySQLDatabaseMeta( null ), mock( Connection.class ), 3 );
+  }
+
+  @Test
+  public void testBulkUpsertCountsStagedRows_Oracle() throws Exception {
+    assertBulkUpsertCountsStagedRows( new OracleDatabaseMeta(), "CREATE PRIVATE TEMPORARY TABLE ",
+      "ORA$PTT_KETTLE_UPSERT_" );
+  }
+
+  @Test
+  public void testBulkUpsertCountsStagedRows_MSSQLServer() throws Exception {
+    assertBulkUpsertCountsStagedRows( new MSSQLServerDatabaseMeta(), "SELECT ", "#KETTLE_UPSERT_" );
+  }
+
+  private void assertBulkUpsertCountsStagedRows( DatabaseInterface dialect, String createStart, String stagingTable )
+    throws Exception {
+    PreparedStatement fill = mockUpsert( 1, 1, 1 );
+    PreparedStatement update = mock( PreparedStatement.class );
+    doReturn( 1 ).when( update ).executeUpdate();
+    PreparedStatement insert = mock( PreparedStatement.class );
+    doReturn( 1 ).when( insert ).executeUpdate();
+    PreparedStatement clear = mock( PreparedStatement.class );
+    Connection connection = mock( Connection.class );
+    doReturn( fill ).when( connection ).prepareStatement( startsWith( "INSERT INTO " + stagingTable ) );
+    doReturn( update ).when( connection ).prepareStatement( contains( "WHEN MATCHED" ) );
+    doReturn( insert ).when( connection ).prepareStatement( contains( "WHEN NOT MATCHED" ) );
+    doReturn( clear ).when( connection ).prepareStatement( startsWith( "DELETE FROM " + stagingTable ) );
+
+    runBulkUpsert( dialect, connection, 3, ROWS );
+
+    verify( stepData.db ).execStatement( and( startsWith( createStart ), contains( stagingTable ) ) );
+    verify( fill, times( 3 ) ).addBatch();
+    verify( fill ).executeBatch();
+    verify( update ).executeUpdate();
+    verify( insert ).executeUpdate();
+    verify( clear ).executeUpdate();
+    // Once after creating the staging table and once for the batch
+    verify( stepData.db, times( 2 ) ).commit();
+    assertCounts( 1, 1, 1 );
+
+    step.dispose( stepMeta, stepData );
+    verify( stepData.db ).execStatement( contains( "DROP TABLE " + stagingTable ) );
+  }
+
+  @Test
+  public void testBulkUpsertWritesTheBatchBeforeARepeatedKey() throws Exception {
+    PreparedStatement upsert = mockUpsert( 1 );
+    Connection connection = mock( Connection.class );
+    doReturn( upsert ).when( connection ).prepareStatement( anyString() );
+
+    runBulkUpsert( createMySQLDatabaseMeta( "true" ), connection, 3,
+      new Object[] { "1", "inserted" }, new Object[] { "1", "updated" }, new Object[] { "2", "inserted" } );
+
+    // The second row waits in the next batch with the third one
+    verify( upsert ).executeBatch();
+    assertEquals( 2, stepData.upsertRows.size() );
+    assertCounts( 1, 0, 0 );
+  }
+
+  private static PreparedStatement mockUpsert( int... counts ) throws Exception {
+    PreparedStatement upsert = mock( PreparedStatement.class );
+    doReturn( counts ).when( upsert ).executeBatch();
+    return upsert;
+  }
+
+  private static DatabaseInterface createMySQLDatabaseMeta( String useAffectedRows ) {
+    MySQLDatabaseMeta dialect = new MySQLDatabaseMeta();
+    dialect.setPluginId( "MYSQL" );
+    if ( useAffectedRows != null ) {
+      dialect.addExtraOption( "MYSQL", "useAffectedRows", useAffectedRows );
+    }
+    return dialect;
+  }
+
+  /**
+   * Prepares a bulk upsert into table FOO with key id and updated field city, then processes the rows.
+   */
+  private void runBulkUpsert( DatabaseInterface dialect, Connection connection, int batchSize, Object[]... rows )
+    throws Exception {
+    RowMeta inputRowMeta = new RowMeta();
+    inputRowMeta.addValueMeta( new ValueMetaString( "id" ) );
+    inputRowMeta.addValueMeta( new ValueMetaString( "city" ) );
+
+    InsertUpdateMeta.KeyField keyField = new InsertUpdateMeta.KeyField();
+    keyField.setKeyLookup( "id" );
+    keyField.setKeyStream( "id" );
+    keyField.setKeyCondition( "=" );
+    InsertUpdateMeta.UpdateField idField = new InsertUpdateMeta.UpdateField();
+    idField.setUpdateLookup( "id" );
+    idField.setUpdateStream( "id" );
+    idField.setUpdate( false );
+    InsertUpdateMeta.UpdateField cityField = new InsertUpdateMeta.UpdateField();
+    cityField.setUpdateLookup( "city" );
+    cityField.setUpdateStream( "city" );
+    cityField.setUpdate( true );
+
+    stepMeta = mock( InsertUpdateMeta.class );
+    doReturn( true ).when( stepMeta ).isBulkUpsert();
+    doReturn( new InsertUpdateMeta.KeyField[] { keyField } ).when( stepMeta ).getKeyFields();
+    doReturn( new InsertUpdateMeta.UpdateField[] { idField, cityField } ).when( stepMeta ).getUpdateFields();
+    doReturn( batchSize ).when( stepMeta ).getCommitSize( any( VariableSpace.class ) );
+
+    stepData = new InsertUpdateData();
+    step = new InsertUpdate( smh.stepMeta, smh.stepDataInterface, 0, smh.transMeta, smh.trans );
+    step.setInputRowMeta( inputRowMeta );
+    step.addRowSetToInputRowSets( smh.getMockInputRowSet( rows ) );
+    step.init( stepMeta, stepData ); // no connection: only remembers the meta and data
+
+    DatabaseMeta databaseMeta = new DatabaseMeta();
+    databaseMeta.setDatabaseInterface( dialect );
+    doReturn( databaseMeta ).when( stepMeta ).getDatabaseMeta();
+    stepData.db = mock( Database.class );
+    doReturn( connection ).when( stepData.db ).getConnection();
+    stepData.schemaTable = "FOO";
+    stepData.valuenrs = new int[] { 0, 1 };
+    stepData.insertRowMeta = inputRowMeta;
+    stepData.outputRowMeta = inputRowMeta;
+    step.prepareUpsert();
+    step.first = false;
+
+    for ( int i = 0; i < rows.length; i++ ) {
+      assertTrue( step.processRow( stepMeta, stepData ) );
+    }
+  }
+
+  private void assertCounts( int output, int updated, int skipped ) {
+    assertEquals( output, step.getLinesOutput() );
+    assertEquals( updated, step.getLinesUpdated() );
+    assertEquals( skipped, step.getLinesSkipped() );
+  }
+
+  @Test( expected = KettleStepException.class )
+  public void testBulkUpsertNeedsEqualsKeys() throws Exception {
+    InsertUpdateMeta stepMeta = smh.initStepMetaInterface;
+    InsertUpdateMeta.KeyField keyField = new InsertUpdateMeta.KeyField();
+    keyField.setKeyLookup( "id" );
+    keyField.setKeyCondition( "<=" );
+    doReturn( new InsertUpdateMeta.KeyField[] { keyField } ).when( stepMeta ).getKeyFields();
+    doReturn( new InsertUpdateMeta.UpdateField[0] ).when( stepMeta ).getUpdateFields();
+    smh.initStepDataInterface.insertRowMeta = new RowMeta();
+
+    InsertUpdate step = new InsertUpdate( smh.stepMeta, smh.stepDataInterface, 0, smh.transMeta, smh.trans );
+    step.init( stepMeta, smh.initStepDataInterface );
+    step.prepareUpsert();
+  }
+}
@@ -0,0 +1,152 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.memgroupby;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.pentaho.di.core.Const;
+import org.pentaho.di.core.KettleClientEnvironment;
+import org.pentaho.di.core.bowl.DefaultBowl;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.di.junit.rules.RestorePDIEngineEnvironment;
+import org.pentaho.di.trans.Trans;
+import org.pentaho.di.trans.TransMeta;
+import org.pentaho.di.trans.step.StepMeta;
+
+public class MemoryGroupByHybridTest {
+  @ClassRule public static RestorePDIEngineEnvironment env = new RestorePDIEngineEnvironment();
+
+  private static final int NR_GROUPS = 100;
+  private static final int NR_ROWS_PER_GROUP = 10;
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws KettleException {
+    KettleClientEnvironment.init();
+  }
+
+  @Test
+  public void tableFindsTheGroupsItWasGiven() {
+    MemoryGroupByTable table = new MemoryGroupByTable( 1 );
+    Aggregate[] aggregates = new Aggregate[ 1000 ];
+    for ( int i = 0; i < aggregates.length; i++ ) {
+      byte[] key = Integer.toString( i ).getBytes();
+      aggregates[ i ] = new Aggregate();
+      table.put( key, MemoryGroupByTable.hash( key ), new Object[] { i }, aggregates[ i ] );
+    }
+    assertEquals( aggregates.length, table.size() );
+    for ( int i = 0; i < aggregates.length; i++ ) {
+      byte[] key = Integer.toString( i ).getBytes();
+      assertSame( aggregates[ i ], table.get( key, MemoryGroupByTable.hash( key ) ) );
+    }
+    byte[] unknown = "unknown".getBytes();
+    assertNull( table.get( unknown, MemoryGroupByTable.hash( unknown ) ) );
+
+    table.clear();
+    assertEquals( 0, table.size() );
+    byte[] key = "1".getBytes();
+    assertNull( table.get( key, MemoryGroupByTable.hash( key ) ) );
+  }
+
+  @Test
+  public void spilledGroupsAreAggregatedLikeTheOthers() throws Exception {
+    Map<String, Object[]> unlimited = runStep( null );
+    Map<String, Object[]> hybrid = runStep( "7" );
+
+    assertEquals( NR_GROUPS, unlimited.size() );
+    assertEquals( unlimited.keySet(), hybrid.keySet() );
+    for ( int k = 0; k < NR_GROUPS; k++ ) {
+      Object[] row = hybrid.get( "group" + k );
+      assertEquals( Long.valueOf( NR_ROWS_PER_GROUP * k + NR_GROUPS * 45L ), row[ 1 ] );
+      // rows of a group keep their order when they're spilled
+      assertEquals( Long.valueOf( k ), row[ 2 ] );
+      assertEquals( Long.valueOf( k + NR_GROUPS * ( NR_ROWS_PER_GROUP - 1 ) ), row[ 3 ] );
+    }
+  }
+
+  private Map<String, Object[]> runStep( String maxGroups ) throws KettleException {
+    MemoryGroupByMeta meta = new MemoryGroupByMeta();
+    meta.allocate( 1, 3 );
+    meta.getGroupField()[ 0 ] = "key";
+    meta.getSubjectField()[ 0 ] = "value";
+    meta.getAggregateField()[ 0 ] = "sum";
+    meta.getAggregateType()[ 0 ] = MemoryGroupByMeta.TYPE_GROUP_SUM;
+    meta.getSubjectField()[ 1 ] = "value";
+    meta.getAggregateField()[ 1 ] = "first";
+    meta.getAggregateType()[ 1 ] = MemoryGroupByMeta.TYPE_GROUP_FIRST_INCL_NULL;
+    meta.getSubjectField()[ 2 ] = "value";
+    meta.getAggregateField()[ 2 ] = "last";
+    meta.getAggregateType()[ 2 ] = MemoryGroupByMeta.TYPE_GROUP_LAST_INCL_NULL;
+
+    RowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaString( "key" ) );
+    rowMeta.addValueMeta( new ValueMetaInteger( "value" ) );
+
+    MemoryGroupByData data = new MemoryGroupByData();
+    data.map = new HashMap<>();
+
+    TransMeta transMeta = mock( TransMeta.class );
+    when( transMeta.getBowl() ).thenReturn( DefaultBowl.getInstance() );
+    StepMeta stepMeta = new StepMeta( "testStep", meta );
+    when( transMeta.findStep( "testStep" ) ).thenReturn( stepMeta );
+
+    MemoryGroupBy step = spy( new MemoryGroupBy( stepMeta, data, 0, transMeta, mock( Trans.class ) ) );
+    if ( maxGroups != null ) {
+      step.setVariable( Const.KETTLE_MEMORY_GROUP_BY_MAX_GROUPS, maxGroups );
+    }
+    doNothing().when( step ).putRow( any(), any() );
+    doNothing().when( step ).setOutputDone();
+    doReturn( rowMeta ).when( step ).getInputRowMeta();
+
+    for ( long i = 0; i < NR_GROUPS * NR_ROWS_PER_GROUP; i++ ) {
+      doReturn( new Object[] { "group" + ( i % NR_GROUPS ), i } ).when( step ).getRow();
+      assertTrue( step.processRow( meta, data ) );
+    }
+    doReturn( null ).when( step ).getRow();
+    assertFalse( step.processRow( meta, data ) );
+
+    ArgumentCaptor<Object[]> rowCaptor = ArgumentCaptor.forClass( Object[].class );
+    verify( step, times( NR_GROUPS ) ).putRow( any(), rowCaptor.capture() );
+    assertNull( data.spillFiles );
+
+    Map<String, Object[]> groups = new HashMap<>();
+    List<Object[]> rows = rowCaptor.getAllValues();
+    for ( Object[] row : rows ) {
+      groups.put( (String) row[ 0 ], row );
+    }
+    return groups;
+  }
+}
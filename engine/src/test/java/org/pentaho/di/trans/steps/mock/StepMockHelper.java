@@ -39,6 +39,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.lenient;
@@ -91,7 +92,11 @@ public class StepMockHelper<Meta extends StepMetaInterface, Data extends StepDat
       return i < rows.size() ? rows.get( i ) : null;
     };
     lenient().when( rowSet.getRowWait( anyLong(), any( TimeUnit.class ) ) ).thenAnswer( answer );
-    when( rowSet.getRow() ).thenAnswer( answer );
+    lenient().when( rowSet.getRow() ).thenAnswer( answer );
+    lenient().when( rowSet.getRows( anyInt() ) ).thenAnswer( invocation -> {
+      Object[] row = answer.answer( invocation );
+      return row == null ? null : new Object[][] { row };
+    } );
     when( rowSet.isDone() ).thenAnswer( (Answer<Boolean>) invocation -> index.get() >= rows.size() );
     return rowSet;
   }
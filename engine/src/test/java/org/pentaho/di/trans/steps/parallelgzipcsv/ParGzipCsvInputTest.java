@@ -0,0 +1,245 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.parallelgzipcsv;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pentaho.di.core.KettleEnvironment;
+import org.pentaho.di.core.compress.bgzf.BGZFIndex;
+import org.pentaho.di.core.compress.bgzf.BGZFOutputStream;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.junit.rules.RestorePDIEngineEnvironment;
+import org.pentaho.di.trans.step.RowAdapter;
+import org.pentaho.di.trans.steps.mock.StepMockHelper;
+import org.pentaho.di.trans.steps.textfileinput.TextFileInputField;
+
+public class ParGzipCsvInputTest {
+  @ClassRule public static RestorePDIEngineEnvironment env = new RestorePDIEngineEnvironment();
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static final int NR_ROWS = 20000;
+
+  private StepMockHelper<ParGzipCsvInputMeta, ParGzipCsvInputData> mockHelper;
+
+  @BeforeClass
+  public static void initKettle() throws Exception {
+    KettleEnvironment.init();
+  }
+
+  @Before
+  public void setUp() {
+    mockHelper = new StepMockHelper<>( "ParGzipCsvInputTest", ParGzipCsvInputMeta.class, ParGzipCsvInputData.class );
+    when( mockHelper.logChannelInterfaceFactory.create( any(), any() ) ).thenReturn( mockHelper.logChannelInterface );
+    when( mockHelper.trans.isRunning() ).thenReturn( true );
+    when( mockHelper.trans.getExtensionDataMap() ).thenReturn( new HashMap<>() );
+  }
+
+  @After
+  public void tearDown() {
+    mockHelper.cleanUp();
+  }
+
+  /**
+   * Writes NR_ROWS rows in BGZF blocks of 64KB, so the rows are split over the blocks and the block boundaries fall in
+   * the middle of a row.
+   */
+  private File createBgzfFile() throws Exception {
+    File file = temporaryFolder.newFile( "rows.csv.gz" );
+    try ( Writer writer =
+      new OutputStreamWriter( new BGZFOutputStream( new FileOutputStream( file ) ), StandardCharsets.UTF_8 ) ) {
+      for ( int i = 0; i < NR_ROWS; i++ ) {
+        writer.write( i + ";row " + i + "\n" );
+      }
+    }
+    return file;
+  }
+
+  /**
+   * Writes a ".gzi" index for the file that only has the given blocks, all as little endian 64-bit integers.
+   */
+  private void createGziFile( File file, int... blocks ) throws Exception {
+    BGZFIndex index;
+    try ( InputStream in = new FileInputStream( file ) ) {
+      index = BGZFIndex.scan( in, 1L );
+    }
+    ByteBuffer buffer = ByteBuffer.allocate( 8 + 16 * blocks.length ).order( ByteOrder.LITTLE_ENDIAN );
+    buffer.putLong( blocks.length );
+    for ( int block : blocks ) {
+      buffer.putLong( index.getCompressedOffset( block ) );
+      buffer.putLong( index.getUncompressedOffset( block ) );
+    }
+    try ( OutputStream out = new FileOutputStream( file.getPath() + ".gzi" ) ) {
+      out.write( buffer.array() );
+    }
+  }
+
+  private ParGzipCsvInput createStep( File file, int stepNr, int nrCopies, List<Long> ids ) {
+    ParGzipCsvInputMeta meta = new ParGzipCsvInputMeta();
+    meta.setDefault();
+    meta.setFilename( file.getAbsolutePath() );
+    meta.setBufferSize( "1024" );
+    meta.setDelimiter( ";" );
+    meta.setEnclosure( "\"" );
+    meta.setEncoding( "UTF-8" );
+    meta.setHeaderPresent( false );
+    meta.setLazyConversionActive( false );
+    meta.setRunningInParallel( true );
+    meta.setInputFields( new TextFileInputField[] {
+      createField( "id", ValueMetaInterface.TYPE_INTEGER ), createField( "name", ValueMetaInterface.TYPE_STRING ) } );
+
+    ParGzipCsvInputData data = new ParGzipCsvInputData();
+    ParGzipCsvInput step = spy( new ParGzipCsvInput( mockHelper.stepMeta, data, stepNr, mockHelper.transMeta,
+      mockHelper.trans ) );
+    step.setStepMetaInterface( meta );
+    // Every BGZF block is a chunk
+    step.bgzfChunkSize = 1L;
+    assertTrue( step.init( meta, data ) );
+    data.stepNumber = stepNr;
+    data.totalNumberOfSteps = nrCopies;
+
+    step.addRowListener( new RowAdapter() {
+      @Override
+      public void rowWrittenEvent( RowMetaInterface rowMeta, Object[] row ) {
+        ids.add( (Long) row[ 0 ] );
+      }
+    } );
+    return step;
+  }
+
+  private static TextFileInputField createField( String name, int type ) {
+    TextFileInputField field = new TextFileInputField();
+    field.setName( name );
+    field.setType( type );
+    return field;
+  }
+
+  /**
+   * Runs the step copies one after the other.
+   *
+   * @return the ids of the rows read by each of the step copies
+   */
+  private List<List<Long>> run( ParGzipCsvInput[] copies, File file ) throws Exception {
+    List<List<Long>> ids = new ArrayList<>();
+    for ( int copy = 0; copy < copies.length; copy++ ) {
+      ids.add( new ArrayList<>() );
+      copies[ copy ] = createStep( file, copy, copies.length, ids.get( copy ) );
+    }
+    for ( ParGzipCsvInput step : copies ) {
+      ParGzipCsvInputMeta meta = (ParGzipCsvInputMeta) step.getStepMetaInterface();
+      ParGzipCsvInputData data = (ParGzipCsvInputData) step.getStepDataInterface();
+      while ( step.processRow( meta, data ) ) {
+        // Keep reading
+      }
+      step.dispose( meta, data );
+    }
+    return ids;
+  }
+
+  /**
+   * Every row is read exactly once, the rows read by a step copy are runs of consecutive rows.
+   */
+  private static void assertAllRowsReadOnce( List<List<Long>> ids ) {
+    boolean[] read = new boolean[ NR_ROWS ];
+    for ( List<Long> copyIds : ids ) {
+      for ( Long id : copyIds ) {
+        assertTrue( "Row " + id + " was read twice", !read[ id.intValue() ] );
+        read[ id.intValue() ] = true;
+      }
+    }
+    for ( int i = 0; i < NR_ROWS; i++ ) {
+      assertTrue( "Row " + i + " wasn't read", read[ i ] );
+    }
+  }
+
+  @Test
+  public void testTwoCopiesWithoutGziScanTheFileOnce() throws Exception {
+    File file = createBgzfFile();
+    ParGzipCsvInput[] copies = new ParGzipCsvInput[ 2 ];
+    List<List<Long>> ids = run( copies, file );
+
+    assertAllRowsReadOnce( ids );
+    assertTrue( ids.get( 0 ).size() > 0 );
+    assertTrue( ids.get( 1 ).size() > 0 );
+    verify( copies[ 0 ], times( 1 ) ).readBgzfIndex( any() );
+    verify( copies[ 1 ], never() ).readBgzfIndex( any() );
+  }
+
+  @Test
+  public void testThreeCopiesSplitOnBlockBoundaries() throws Exception {
+    File file = createBgzfFile();
+    List<List<Long>> ids = run( new ParGzipCsvInput[ 3 ], file );
+
+    assertAllRowsReadOnce( ids );
+    // Block 0 goes to copy 0 and block 1 to copy 1. The row that spans the block boundary is read by copy 0, copy 1
+    // skips it and continues with the next row.
+    List<Long> copy0 = ids.get( 0 );
+    int end = 0;
+    while ( end + 1 < copy0.size() && copy0.get( end + 1 ) == copy0.get( end ) + 1 ) {
+      end++;
+    }
+    assertEquals( Long.valueOf( 0L ), copy0.get( 0 ) );
+    assertEquals( Long.valueOf( copy0.get( end ) + 1 ), ids.get( 1 ).get( 0 ) );
+  }
+
+  @Test
+  public void testMoreCopiesThanChunks() throws Exception {
+    File file = createBgzfFile();
+    List<List<Long>> ids = run( new ParGzipCsvInput[ 12 ], file );
+
+    assertAllRowsReadOnce( ids );
+    assertEquals( 0, ids.get( 11 ).size() );
+  }
+
+  @Test
+  public void testCopiesUseTheGziIndex() throws Exception {
+    File file = createBgzfFile();
+    // Only the boundary of block 2 is in the index: two chunks, the third copy doesn't get one
+    createGziFile( file, 2 );
+    List<List<Long>> ids = run( new ParGzipCsvInput[ 3 ], file );
+
+    assertAllRowsReadOnce( ids );
+    assertTrue( ids.get( 0 ).size() > 0 );
+    assertTrue( ids.get( 1 ).size() > 0 );
+    assertEquals( 0, ids.get( 2 ).size() );
+  }
+}
@@ -46,6 +46,11 @@ public class ScriptValuesMetaModInjectionTest extends BaseMetadataInjectionTest<
         return meta.getOptimizationLevel();
       }
     } );
+    check( "PRIMITIVE_VALUES", new BooleanGetter() {
+      public boolean get() {
+        return meta.isPrimitiveValues();
+      }
+    } );
     check( "FIELD_NAME", new StringGetter() {
       public String get() {
         return meta.getFieldname()[ 0 ];
@@ -20,6 +20,7 @@ import org.pentaho.di.core.KettleEnvironment;
 import org.pentaho.di.core.row.RowMeta;
 import org.pentaho.di.core.row.ValueMetaInterface;
 import org.pentaho.di.core.row.value.ValueMetaBigNumber;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
 import org.pentaho.di.core.row.value.ValueMetaString;
 import org.pentaho.di.junit.rules.RestorePDIEngineEnvironment;
 import org.pentaho.di.trans.TransTestingUtil;
@@ -103,4 +104,37 @@ public class ScriptValuesModTest {
     Object[] row = TransTestingUtil.execute( step, meta, data, 1, false ).get( 0 );
     TransTestingUtil.assertResult( expectedRow, row );
   }
+
+  @Test
+  public void primitiveValuesAreNotWrapped() throws Exception {
+    ScriptValuesMod step = StepMockUtil.getStep( ScriptValuesMod.class, ScriptValuesMetaMod.class, "test" );
+
+    RowMeta input = new RowMeta();
+    input.addValueMeta( new ValueMetaString( "str" ) );
+    input.addValueMeta( new ValueMetaInteger( "num" ) );
+    step.setInputRowMeta( input );
+
+    step = spy( step );
+    doReturn( new Object[] { "abc", 41L } ).when( step ).getRow();
+
+    ScriptValuesMetaMod meta = new ScriptValuesMetaMod();
+    meta.setCompatible( false );
+    meta.setPrimitiveValues( true );
+    meta.allocate( 2 );
+    meta.setFieldname( new String[] { "str", "num" } );
+    meta.setType( new int[] { ValueMetaInterface.TYPE_STRING, ValueMetaInterface.TYPE_INTEGER } );
+    meta.setReplace( new boolean[] { true, true } );
+
+    meta.setJSScripts( new ScriptValuesScript[] {
+      new ScriptValuesScript( ScriptValuesScript.TRANSFORM_SCRIPT, "script",
+        "str = typeof str + ':' + str.toUpperCase();\nnum = num + 1;" )
+    } );
+
+    ScriptValuesModData data = new ScriptValuesModData();
+    step.init( meta, data );
+
+    Object[] expectedRow = { "string:ABC", 42L };
+    Object[] row = TransTestingUtil.execute( step, meta, data, 1, false ).get( 0 );
+    TransTestingUtil.assertResult( expectedRow, row );
+  }
 }
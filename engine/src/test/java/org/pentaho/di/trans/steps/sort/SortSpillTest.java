@@ -0,0 +1,140 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.sort;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.pentaho.di.core.KettleEnvironment;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaBigNumber;
+import org.pentaho.di.core.row.value.ValueMetaBoolean;
+import org.pentaho.di.core.row.value.ValueMetaDate;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaNumber;
+import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.di.junit.rules.RestorePDIEngineEnvironment;
+
+public class SortSpillTest {
+  @ClassRule public static RestorePDIEngineEnvironment env = new RestorePDIEngineEnvironment();
+
+  private static RowMetaInterface rowMeta;
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws Exception {
+    KettleEnvironment.init( false );
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaString( "name" ) );
+    rowMeta.addValueMeta( new ValueMetaInteger( "id" ) );
+    rowMeta.addValueMeta( new ValueMetaNumber( "amount" ) );
+    rowMeta.addValueMeta( new ValueMetaDate( "date" ) );
+    rowMeta.addValueMeta( new ValueMetaBoolean( "flag" ) );
+    rowMeta.addValueMeta( new ValueMetaBigNumber( "big" ) );
+  }
+
+  @Test
+  public void rowsSurviveARoundTrip() throws Exception {
+    List<Object[]> rows = new ArrayList<>();
+    rows.add( new Object[] { "alpha", 1L, 1.5, new Date( 0L ), true, new BigDecimal( "1.25" ) } );
+    rows.add( new Object[] { "alphabet", -1L, -0.25, new Date( 1500000000000L ), false, null } );
+    rows.add( new Object[] { null, null, null, null, null, null } );
+    rows.add( new Object[] { "alph\uD83D\uDE00", Long.MIN_VALUE, Double.NaN, new Date( -1L ), true,
+      new BigDecimal( "-99999999999999999999.5" ) } );
+    rows.add( new Object[] { "alph\uD83D\uDE01x", Long.MAX_VALUE, 0.0, null, false, BigDecimal.ZERO } );
+    rows.add( new Object[] { "", 0L, 3.0, new Date(), null, BigDecimal.ONE } );
+
+    for ( SortSpillCompression compression : Arrays.asList( SortSpillCompression.NONE, SortSpillCompression.GZIP ) ) {
+      byte[] bytes = write( rows, compression );
+      SortSpillReader reader =
+        new SortSpillReader( rowMeta, new ByteArrayInputStream( bytes ), compression, rows.size() );
+      for ( Object[] expected : rows ) {
+        Object[] row = reader.readRow();
+        assertArrayEquals( expected, Arrays.copyOf( row, expected.length ) );
+      }
+      assertNull( reader.readRow() );
+      reader.close();
+    }
+  }
+
+  @Test
+  public void mergeReturnsAllRowsInOrder() throws Exception {
+    Comparator<Object[]> comparator = new Comparator<Object[]>() {
+      @Override
+      public int compare( Object[] o1, Object[] o2 ) {
+        return ( (Long) o1[ 1 ] ).compareTo( (Long) o2[ 1 ] );
+      }
+    };
+
+    List<SortSpillReader> readers = new ArrayList<>();
+    List<Long> expected = new ArrayList<>();
+    for ( int f = 0; f < 5; f++ ) {
+      List<Object[]> rows = new ArrayList<>();
+      for ( long id = f; id < 100; id += f + 1 ) {
+        rows.add( new Object[] { "file" + f, id, null, null, null, null } );
+        expected.add( id );
+      }
+      byte[] bytes = write( rows, SortSpillCompression.NONE );
+      readers.add( new SortSpillReader( rowMeta, new ByteArrayInputStream( bytes ), SortSpillCompression.NONE,
+        rows.size() ) );
+    }
+    expected.sort( null );
+
+    SortSpillMerger merger = new SortSpillMerger( readers, comparator );
+    Object[] previous = null;
+    for ( Long id : expected ) {
+      Object[] row = merger.next();
+      assertEquals( id, row[ 1 ] );
+      if ( previous != null && previous[ 1 ].equals( row[ 1 ] ) ) {
+        // equal keys come out in the order of the files
+        assertEquals( -1, ( (String) previous[ 0 ] ).compareTo( (String) row[ 0 ] ) );
+      }
+      previous = row;
+    }
+    assertNull( merger.next() );
+    merger.close();
+  }
+
+  @Test
+  public void compressionDefaultsToGzip() {
+    assertEquals( SortSpillCompression.NONE, SortSpillCompression.getCompression( false, "SNAPPY" ) );
+    assertEquals( SortSpillCompression.SNAPPY, SortSpillCompression.getCompression( true, "snappy" ) );
+    assertEquals( SortSpillCompression.GZIP, SortSpillCompression.getCompression( true, null ) );
+    assertEquals( SortSpillCompression.GZIP, SortSpillCompression.getCompression( true, "LZ4" ) );
+  }
+
+  private byte[] write( List<Object[]> rows, SortSpillCompression compression ) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    SortSpillWriter writer = new SortSpillWriter( rowMeta, out, compression );
+    for ( Object[] row : rows ) {
+      writer.writeRow( row );
+    }
+    writer.close();
+    assertEquals( rows.size(), writer.getNrRows() );
+    return out.toByteArray();
+  }
+}
@@ -59,6 +59,26 @@ public class TableInputMetaInjectionTest extends BaseMetadataInjectionTest<Table
         return meta.isCachedRowMetaActive();
       }
     } );
+    check( "PARTITION_COLUMN", new StringGetter() {
+      public String get() {
+        return meta.getPartitionColumn();
+      }
+    } );
+    check( "PARTITION_METHOD", new StringGetter() {
+      public String get() {
+        return meta.getPartitionMethod();
+      }
+    } );
+    check( "NR_PARTITIONS", new StringGetter() {
+      public String get() {
+        return meta.getNrPartitions();
+      }
+    } );
+    check( "FETCH_SIZE", new StringGetter() {
+      public String get() {
+        return meta.getFetchSize();
+      }
+    } );
     skipPropertyTest( "CONNECTIONNAME" );
   }
 }
@@ -0,0 +1,155 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.tableinput;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pentaho.di.core.Const;
+import org.pentaho.di.core.database.Database;
+import org.pentaho.di.core.database.DatabaseMeta;
+import org.pentaho.di.core.exception.KettleDatabaseException;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.logging.LogChannelInterface;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TableInputPartitionReaderTest {
+  private TableInput step;
+  private RowMetaInterface rowMeta;
+  private List<Database> databases;
+
+  @Before
+  public void setUp() {
+    step = mock( TableInput.class );
+    doReturn( mock( LogChannelInterface.class ) ).when( step ).getLogChannel();
+    doReturn( "Table input" ).when( step ).getStepname();
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaInteger( "id" ) );
+    databases = new ArrayList<>();
+  }
+
+  @Test
+  public void testReadsAllPartitions() throws Exception {
+    int nrPartitions = 3;
+    int rowsPerPartition = TableInputPartitionReader.CHUNK_SIZE * 2 + 7;
+    List<TableInputPartition> partitions = new ArrayList<>();
+    for ( int p = 0; p < nrPartitions; p++ ) {
+      partitions.add( new TableInputPartition( p, "MOD( id, 3 ) = " + p, null ) );
+      databases.add( mockDatabase( p * rowsPerPartition, rowsPerPartition ) );
+    }
+
+    TableInputPartitionReader reader = createReader( partitions );
+    reader.start();
+    Set<Long> ids = new HashSet<>();
+    Object[] row;
+    while ( ( row = reader.getRow() ) != null ) {
+      ids.add( (Long) row[ 0 ] );
+    }
+    assertSame( rowMeta, reader.getRowMeta() );
+    reader.close();
+
+    assertEquals( nrPartitions * rowsPerPartition, ids.size() );
+    for ( Database db : databases ) {
+      verify( db ).openQuery( eq( "SELECT * FROM (" + Const.CR + "SELECT id FROM t" + Const.CR
+        + ") kettle_partition WHERE MOD( id, 3 ) = " + databases.indexOf( db ) ), isNull(), isNull(),
+        eq( ResultSet.FETCH_FORWARD ), eq( false ) );
+      verify( db ).disconnect();
+    }
+  }
+
+  @Test
+  public void testPartitionFailure() throws Exception {
+    List<TableInputPartition> partitions = new ArrayList<>();
+    partitions.add( new TableInputPartition( 0, "id < 10", null ) );
+    partitions.add( new TableInputPartition( 1, "id >= 10", null ) );
+    databases.add( mockDatabase( 0, 10 ) );
+    Database failing = mock( Database.class );
+    when( failing.openQuery( any(), any(), any(), anyInt(), anyBoolean() ) )
+      .thenThrow( new KettleDatabaseException( "connection lost" ) );
+    databases.add( failing );
+
+    TableInputPartitionReader reader = createReader( partitions );
+    reader.start();
+    try {
+      while ( reader.getRow() != null ) {
+        // read until the error shows up
+      }
+      fail( "The error of the partition should be thrown" );
+    } catch ( KettleException e ) {
+      assertEquals( KettleDatabaseException.class, e.getCause().getClass() );
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testStoppedStep() throws Exception {
+    List<TableInputPartition> partitions = new ArrayList<>();
+    partitions.add( new TableInputPartition( 0, null, null ) );
+    databases.add( mockDatabase( 0, 10 ) );
+    doReturn( true ).when( step ).isStopped();
+
+    TableInputPartitionReader reader = createReader( partitions );
+    reader.start();
+    assertNull( reader.getRow() );
+    reader.close();
+  }
+
+  private TableInputPartitionReader createReader( List<TableInputPartition> partitions ) {
+    Iterator<Database> iterator = databases.iterator();
+    return new TableInputPartitionReader( step, mock( DatabaseMeta.class ), "SELECT id FROM t", partitions,
+      new RowMeta(), new Object[ 0 ], 0, 0, false ) {
+      @Override
+      Database connect() {
+        return iterator.next();
+      }
+    };
+  }
+
+  private Database mockDatabase( long first, int nrRows ) throws KettleException {
+    Database db = mock( Database.class );
+    ResultSet rs = mock( ResultSet.class );
+    when( db.openQuery( any(), any(), any(), anyInt(), anyBoolean() ) ).thenReturn( rs );
+    when( db.getReturnRowMeta() ).thenReturn( rowMeta );
+    Object[][] rows = new Object[ nrRows + 1 ][];
+    for ( int i = 0; i < nrRows; i++ ) {
+      rows[ i ] = new Object[] { first + i };
+    }
+    when( db.getRow( rs, false ) ).thenReturn( rows[ 0 ], Arrays.copyOfRange( rows, 1, rows.length ) );
+    return db;
+  }
+}
@@ -0,0 +1,157 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.tableinput;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.pentaho.di.core.KettleClientEnvironment;
+import org.pentaho.di.core.database.DatabaseMeta;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaBigNumber;
+import org.pentaho.di.core.row.value.ValueMetaDate;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaNumber;
+import org.pentaho.di.core.row.value.ValueMetaString;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TableInputPartitionTest {
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws KettleException {
+    KettleClientEnvironment.init();
+  }
+
+  @Test
+  public void testIntegerRanges() throws Exception {
+    List<TableInputPartition> partitions =
+      TableInputPartition.createRangePartitions( "id", new ValueMetaInteger( "id" ), 1L, 100L, 4 );
+
+    assertEquals( 4, partitions.size() );
+    assertEquals( "( id < ? OR id IS NULL )", partitions.get( 0 ).getCondition() );
+    assertEquals( "id >= ? AND id < ?", partitions.get( 1 ).getCondition() );
+    assertEquals( "id >= ? AND id < ?", partitions.get( 2 ).getCondition() );
+    assertEquals( "id >= ?", partitions.get( 3 ).getCondition() );
+
+    assertArrayEquals( new Object[] { 26L }, getBounds( partitions.get( 0 ) ) );
+    assertArrayEquals( new Object[] { 26L, 51L }, getBounds( partitions.get( 1 ) ) );
+    assertArrayEquals( new Object[] { 51L, 76L }, getBounds( partitions.get( 2 ) ) );
+    assertArrayEquals( new Object[] { 76L }, getBounds( partitions.get( 3 ) ) );
+    for ( int i = 0; i < partitions.size(); i++ ) {
+      assertEquals( i, partitions.get( i ).getIndex() );
+    }
+  }
+
+  @Test
+  public void testFewerValuesThanPartitions() throws Exception {
+    List<TableInputPartition> partitions =
+      TableInputPartition.createRangePartitions( "id", new ValueMetaInteger( "id" ), 1L, 2L, 4 );
+    assertEquals( 2, partitions.size() );
+    assertArrayEquals( new Object[] { 2L }, getBounds( partitions.get( 0 ) ) );
+    assertArrayEquals( new Object[] { 2L }, getBounds( partitions.get( 1 ) ) );
+
+    partitions = TableInputPartition.createRangePartitions( "id", new ValueMetaInteger( "id" ), 5L, 5L, 4 );
+    assertEquals( 1, partitions.size() );
+    assertNull( partitions.get( 0 ).getCondition() );
+  }
+
+  @Test
+  public void testEmptyQuery() throws Exception {
+    List<TableInputPartition> partitions =
+      TableInputPartition.createRangePartitions( "id", new ValueMetaInteger( "id" ), null, null, 4 );
+    assertEquals( 1, partitions.size() );
+    assertNull( partitions.get( 0 ).getCondition() );
+    assertEquals( "SELECT * FROM t", partitions.get( 0 ).getSQL( "SELECT * FROM t" ) );
+  }
+
+  @Test
+  public void testNumberAndDateRanges() throws Exception {
+    List<TableInputPartition> partitions =
+      TableInputPartition.createRangePartitions( "x", new ValueMetaNumber( "x" ), 0.0, 1.0, 4 );
+    assertEquals( 4, partitions.size() );
+    assertArrayEquals( new Object[] { 0.25, 0.5 }, getBounds( partitions.get( 1 ) ) );
+
+    partitions = TableInputPartition.createRangePartitions( "x", new ValueMetaBigNumber( "x" ),
+      new BigDecimal( "-10" ), new BigDecimal( "10" ), 2 );
+    assertEquals( 2, partitions.size() );
+    assertEquals( 0, BigDecimal.ZERO.compareTo( (BigDecimal) getBounds( partitions.get( 1 ) )[ 0 ] ) );
+
+    long day = 24 * 60 * 60 * 1000L;
+    partitions =
+      TableInputPartition.createRangePartitions( "d", new ValueMetaDate( "d" ), new Date( 0 ), new Date( 4 * day ), 4 );
+    assertEquals( 4, partitions.size() );
+    assertArrayEquals( new Object[] { new Date( day ), new Date( 2 * day ) }, getBounds( partitions.get( 1 ) ) );
+    assertEquals( ValueMetaInterface.TYPE_DATE,
+      partitions.get( 1 ).getParametersMeta( new RowMeta() ).getValueMeta( 0 ).getType() );
+  }
+
+  @Test( expected = KettleException.class )
+  public void testStringRangesNotSupported() throws Exception {
+    TableInputPartition.createRangePartitions( "s", new ValueMetaString( "s" ), "a", "z", 4 );
+  }
+
+  @Test
+  public void testModulus() {
+    DatabaseMeta databaseMeta = mock( DatabaseMeta.class );
+    when( databaseMeta.getFunctionModulus( anyString(), anyString() ) ).thenAnswer(
+      invocation -> "MOD( " + invocation.getArgument( 0 ) + ", " + invocation.getArgument( 1 ) + " )" );
+
+    List<TableInputPartition> partitions = TableInputPartition.createModulusPartitions( databaseMeta, "id", 3 );
+    assertEquals( 3, partitions.size() );
+    assertEquals( "( ABS( MOD( id, 3 ) ) = 0 OR id IS NULL )", partitions.get( 0 ).getCondition() );
+    assertEquals( "ABS( MOD( id, 3 ) ) = 1", partitions.get( 1 ).getCondition() );
+    assertEquals( "ABS( MOD( id, 3 ) ) = 2", partitions.get( 2 ).getCondition() );
+    assertEquals( 0, partitions.get( 2 ).getParametersMeta( new RowMeta() ).size() );
+  }
+
+  @Test
+  public void testQueryAndParameters() throws Exception {
+    List<TableInputPartition> partitions =
+      TableInputPartition.createRangePartitions( "id", new ValueMetaInteger( "id" ), 0L, 10L, 2 );
+    TableInputPartition partition = partitions.get( 1 );
+
+    assertEquals( "SELECT * FROM (\nSELECT * FROM t WHERE a = ?\n) kettle_partition WHERE id >= ?",
+      partition.getSQL( "SELECT * FROM t WHERE a = ? ; \n" ).replace( "\r", "" ) );
+
+    RowMetaInterface parametersMeta = new RowMeta();
+    parametersMeta.addValueMeta( new ValueMetaString( "a" ) );
+    RowMetaInterface partitionParametersMeta = partition.getParametersMeta( parametersMeta );
+    assertEquals( 2, partitionParametersMeta.size() );
+    assertEquals( ValueMetaInterface.TYPE_STRING, partitionParametersMeta.getValueMeta( 0 ).getType() );
+    assertEquals( ValueMetaInterface.TYPE_INTEGER, partitionParametersMeta.getValueMeta( 1 ).getType() );
+    Object[] parameters = partition.getParameters( parametersMeta, new Object[] { "x" } );
+    assertEquals( "x", parameters[ 0 ] );
+    assertEquals( 5L, parameters[ 1 ] );
+
+    assertEquals( "SELECT MIN( id ), MAX( id )\nFROM (\nSELECT * FROM t\n) kettle_partition",
+      TableInputPartition.getMinMaxSQL( new DatabaseMeta(), "SELECT * FROM t;", "id" ).replace( "\r", "" ) );
+  }
+
+  private static Object[] getBounds( TableInputPartition partition ) {
+    RowMetaInterface empty = new RowMeta();
+    return partition.getParameters( empty, new Object[ 0 ] );
+  }
+}
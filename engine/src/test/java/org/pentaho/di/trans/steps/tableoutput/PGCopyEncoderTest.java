@@ -0,0 +1,238 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.tableoutput;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+import org.junit.Test;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.exception.KettleValueException;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaBigNumber;
+import org.pentaho.di.core.row.value.ValueMetaBinary;
+import org.pentaho.di.core.row.value.ValueMetaBoolean;
+import org.pentaho.di.core.row.value.ValueMetaDate;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaNumber;
+import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.di.core.row.value.ValueMetaTimestamp;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class PGCopyEncoderTest {
+
+  @Test
+  public void testTextEncoding() throws Exception {
+    RowMetaInterface rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaInteger( "int" ) );
+    rowMeta.addValueMeta( new ValueMetaString( "str" ) );
+    rowMeta.addValueMeta( new ValueMetaNumber( "num" ) );
+    rowMeta.addValueMeta( new ValueMetaNumber( "whole" ) );
+    rowMeta.addValueMeta( new ValueMetaBoolean( "bool" ) );
+    rowMeta.addValueMeta( new ValueMetaString( "null" ) );
+    rowMeta.addValueMeta( new ValueMetaBigNumber( "big" ) );
+    rowMeta.addValueMeta( new ValueMetaBinary( "bin" ) );
+    rowMeta.addValueMeta( new ValueMetaString( "unicode" ) );
+
+    PGCopyTextEncoder encoder = new PGCopyTextEncoder( rowMeta, 4 );
+    encoder.writeHeader();
+    encoder.writeRow( new Object[] { Long.MIN_VALUE, "a\tb\\c\nd\re", 1.5, 3.0, true, null, new BigDecimal( "123.450" ),
+      new byte[] { 1, (byte) 0xab }, "é€😀" } );
+    encoder.writeRow( new Object[] { 42L, "", -0.25, Double.NEGATIVE_INFINITY, false, "x", null, new byte[0], null } );
+    encoder.writeTrailer();
+
+    assertEquals( "-9223372036854775808\ta\\tb\\\\c\\nd\\re\t1.5\t3\tt\t\\N\t123.450\t\\\\x01ab\t"
+        + "é€😀\n"
+        + "42\t\t-0.25\t-Infinity\tf\tx\t\\N\t\\\\x\t\\N\n",
+      new String( encoder.toByteArray(), StandardCharsets.UTF_8 ) );
+  }
+
+  @Test
+  public void testTextDates() throws Exception {
+    RowMetaInterface rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaDate( "date" ) );
+    rowMeta.addValueMeta( new ValueMetaTimestamp( "timestamp" ) );
+    rowMeta.addValueMeta( new ValueMetaDate( "sqlDate" ) );
+
+    Date date = toDate( LocalDateTime.of( 2024, 2, 3, 4, 5, 6, 7000000 ) );
+    Timestamp timestamp = new Timestamp( toDate( LocalDateTime.of( 1999, 12, 31, 23, 59, 59 ) ).getTime() );
+    timestamp.setNanos( 123456789 );
+    java.sql.Date sqlDate = new java.sql.Date( toDate( LocalDateTime.of( 2010, 10, 1, 0, 0 ) ).getTime() );
+
+    PGCopyTextEncoder encoder = new PGCopyTextEncoder( rowMeta, 16 );
+    encoder.writeRow( new Object[] { date, timestamp, sqlDate } );
+
+    assertEquals( "2024-02-03 04:05:06.007\t1999-12-31 23:59:59.123456789\t2010-10-01 00:00:00\n",
+      new String( encoder.toByteArray(), StandardCharsets.UTF_8 ) );
+  }
+
+  @Test
+  public void testTruncate() throws Exception {
+    RowMetaInterface rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaString( "str" ) );
+
+    PGCopyTextEncoder encoder = new PGCopyTextEncoder( rowMeta, 16 );
+    encoder.writeRow( new Object[] { "first" } );
+    int mark = encoder.length();
+    encoder.writeRow( new Object[] { "second" } );
+    encoder.truncate( mark );
+    assertEquals( "first\n", new String( encoder.toByteArray(), StandardCharsets.UTF_8 ) );
+
+    encoder.clear();
+    assertEquals( 0, encoder.length() );
+  }
+
+  @Test
+  public void testBinaryEncoding() throws Exception {
+    RowMetaInterface rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaInteger( "int2" ) );
+    rowMeta.addValueMeta( new ValueMetaInteger( "int4" ) );
+    rowMeta.addValueMeta( new ValueMetaInteger( "int8" ) );
+    rowMeta.addValueMeta( new ValueMetaNumber( "float8" ) );
+    rowMeta.addValueMeta( new ValueMetaBoolean( "bool" ) );
+    rowMeta.addValueMeta( new ValueMetaString( "text" ) );
+    rowMeta.addValueMeta( new ValueMetaString( "jsonb" ) );
+    rowMeta.addValueMeta( new ValueMetaBinary( "bytea" ) );
+    rowMeta.addValueMeta( new ValueMetaString( "null" ) );
+    String[] types = { "int2", "int4", "int8", "float8", "bool", "varchar", "jsonb", "bytea", "text" };
+
+    PGCopyBinaryEncoder encoder = new PGCopyBinaryEncoder( rowMeta, types, 16 );
+    encoder.writeHeader();
+    encoder.writeRow( new Object[] { -2L, 100000L, Long.MAX_VALUE, 2.5, true, "hé", "{}", new byte[] { 7 }, null } );
+    encoder.writeTrailer();
+
+    DataInputStream in = new DataInputStream( new ByteArrayInputStream( encoder.toByteArray() ) );
+    byte[] signature = new byte[ 11 ];
+    in.readFully( signature );
+    assertArrayEquals( new byte[] { 'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0 }, signature );
+    assertEquals( 0, in.readInt() );
+    assertEquals( 0, in.readInt() );
+
+    assertEquals( 9, in.readShort() );
+    assertEquals( 2, in.readInt() );
+    assertEquals( -2, in.readShort() );
+    assertEquals( 4, in.readInt() );
+    assertEquals( 100000, in.readInt() );
+    assertEquals( 8, in.readInt() );
+    assertEquals( Long.MAX_VALUE, in.readLong() );
+    assertEquals( 8, in.readInt() );
+    assertEquals( 2.5, in.readDouble(), 0 );
+    assertEquals( 1, in.readInt() );
+    assertEquals( 1, in.readByte() );
+    assertEquals( 3, in.readInt() );
+    assertEquals( "hé", readString( in, 3 ) );
+    assertEquals( 3, in.readInt() );
+    assertEquals( 1, in.readByte() );
+    assertEquals( "{}", readString( in, 2 ) );
+    assertEquals( 1, in.readInt() );
+    assertEquals( 7, in.readByte() );
+    assertEquals( -1, in.readInt() );
+
+    assertEquals( -1, in.readShort() );
+    assertEquals( -1, in.read() );
+  }
+
+  @Test
+  public void testBinaryDates() throws Exception {
+    RowMetaInterface rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaDate( "date" ) );
+    rowMeta.addValueMeta( new ValueMetaDate( "timestamp" ) );
+    rowMeta.addValueMeta( new ValueMetaTimestamp( "timestamptz" ) );
+
+    PGCopyBinaryEncoder encoder =
+      new PGCopyBinaryEncoder( rowMeta, new String[] { "date", "timestamp", "timestamptz" }, 16 );
+    Timestamp timestamptz = new Timestamp( 946684801000L ); // 2000-01-01 00:00:01 UTC
+    timestamptz.setNanos( 2345000 );
+    encoder.writeRow( new Object[] {
+      toDate( LocalDateTime.of( 2000, 1, 2, 12, 0 ) ), toDate( LocalDateTime.of( 1999, 12, 31, 23, 59, 59 ) ),
+      timestamptz } );
+
+    DataInputStream in = new DataInputStream( new ByteArrayInputStream( encoder.toByteArray() ) );
+    assertEquals( 3, in.readShort() );
+    assertEquals( 4, in.readInt() );
+    assertEquals( 1, in.readInt() );
+    assertEquals( 8, in.readInt() );
+    assertEquals( -1000000L, in.readLong() );
+    assertEquals( 8, in.readInt() );
+    assertEquals( 1002345L, in.readLong() );
+  }
+
+  @Test
+  public void testBinaryNumeric() throws Exception {
+    // 12345.678 is 1 2345 6780 in base 10000 with the first digit at weight 1
+    //
+    assertNumeric( "12345.678", 1, 0x0000, 3, 1, 2345, 6780 );
+    assertNumeric( "-0.5", -1, 0x4000, 1, 5000 );
+    assertNumeric( "0.00", 0, 0x0000, 2 );
+    assertNumeric( "1E+8", 2, 0x0000, 0, 1 );
+    assertNumeric( "0.00001", -2, 0x0000, 5, 1000 );
+  }
+
+  @Test( expected = KettleException.class )
+  public void testBinaryUnsupportedType() throws Exception {
+    RowMetaInterface rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaString( "point" ) );
+    new PGCopyBinaryEncoder( rowMeta, new String[] { "point" }, 16 );
+  }
+
+  @Test( expected = KettleValueException.class )
+  public void testBinaryIntegerOutOfRange() throws Exception {
+    RowMetaInterface rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaInteger( "int2" ) );
+    new PGCopyBinaryEncoder( rowMeta, new String[] { "int2" }, 16 ).writeRow( new Object[] { 40000L } );
+  }
+
+  private static void assertNumeric( String value, int weight, int sign, int dscale, int... digits )
+    throws IOException {
+    RowMetaInterface rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaBigNumber( "numeric" ) );
+    PGCopyBinaryEncoder encoder;
+    try {
+      encoder = new PGCopyBinaryEncoder( rowMeta, new String[] { "numeric" }, 16 );
+    } catch ( KettleException e ) {
+      throw new IllegalStateException( e );
+    }
+    encoder.writeNumeric( new BigDecimal( value ) );
+
+    DataInputStream in = new DataInputStream( new ByteArrayInputStream( encoder.toByteArray() ) );
+    assertEquals( 8 + 2 * digits.length, in.readInt() );
+    assertEquals( digits.length, in.readShort() );
+    assertEquals( weight, in.readShort() );
+    assertEquals( sign, in.readShort() );
+    assertEquals( dscale, in.readShort() );
+    for ( int digit : digits ) {
+      assertEquals( digit, in.readShort() );
+    }
+  }
+
+  private static String readString( DataInputStream in, int length ) throws IOException {
+    byte[] bytes = new byte[ length ];
+    in.readFully( bytes );
+    return new String( bytes, StandardCharsets.UTF_8 );
+  }
+
+  private static Date toDate( LocalDateTime dateTime ) {
+    return Date.from( dateTime.atZone( ZoneId.systemDefault() ).toInstant() );
+  }
+}
@@ -0,0 +1,243 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.tableoutput;
+
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pentaho.di.core.database.Database;
+import org.pentaho.di.core.exception.KettleDatabaseException;
+import org.pentaho.di.core.logging.LogChannelInterface;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TableOutputBatchWriterTest {
+  private TableOutput step;
+  private RowMetaInterface insertRowMeta;
+  private List<Database> databases;
+  private List<PreparedStatement> statements;
+  private List<TableOutputBatchWriter.Batch> completed;
+  private AtomicInteger nrExecuted;
+
+  @Before
+  public void setUp() {
+    step = mock( TableOutput.class );
+    doReturn( mock( LogChannelInterface.class ) ).when( step ).getLogChannel();
+    doReturn( "Table output" ).when( step ).getStepname();
+
+    insertRowMeta = new RowMeta();
+    insertRowMeta.addValueMeta( new ValueMetaInteger( "id" ) );
+
+    databases = Collections.synchronizedList( new ArrayList<>() );
+    statements = Collections.synchronizedList( new ArrayList<>() );
+    completed = new ArrayList<>();
+    nrExecuted = new AtomicInteger();
+  }
+
+  private TableOutputBatchWriter createWriter( int nrConnections, int maxPendingBatches, boolean continueOnRowError,
+                                               boolean continueOnBatchError ) {
+    return new TableOutputBatchWriter( step, null, "INSERT", insertRowMeta, 3, nrConnections, maxPendingBatches,
+      continueOnRowError, continueOnBatchError ) {
+      @Override
+      Database connect() throws KettleDatabaseException {
+        Database db = mock( Database.class );
+        PreparedStatement ps = mock( PreparedStatement.class );
+        when( db.prepareSQL( anyString() ) ).thenReturn( ps );
+        when( ps.executeBatch() ).thenAnswer( invocation -> {
+          nrExecuted.incrementAndGet();
+          return new int[] { 1, 1, 1 };
+        } );
+        databases.add( db );
+        statements.add( ps );
+        return db;
+      }
+    };
+  }
+
+  private static TableOutputBatchWriter.Batch createBatch( long first, int size ) {
+    TableOutputBatchWriter.Batch batch = new TableOutputBatchWriter.Batch( size );
+    for ( long id = first; id < first + size; id++ ) {
+      Object[] row = new Object[] { id };
+      batch.add( row, row );
+    }
+    return batch;
+  }
+
+  @Test
+  public void testBatchesAreWrittenAndCommitted() throws Exception {
+    TableOutputBatchWriter writer = createWriter( 2, 2, false, false );
+    writer.start();
+    for ( int i = 0; i < 10; i++ ) {
+      writer.submit( createBatch( i * 3L, 3 ), completed::add );
+      assertTrue( writer.getNrPending() <= 2 );
+    }
+    writer.finish( completed::add );
+    writer.close( false );
+
+    assertEquals( 10, completed.size() );
+    assertEquals( 0, writer.getNrPending() );
+    List<Object> ids = new ArrayList<>();
+    for ( TableOutputBatchWriter.Batch batch : completed ) {
+      assertNull( batch.getError() );
+      assertNull( batch.getBatchException() );
+      assertFalse( batch.isSkipped() );
+      for ( Object[] row : batch.getWrittenRows() ) {
+        ids.add( row[ 0 ] );
+      }
+    }
+    assertEquals( 30, ids.size() );
+    for ( long id = 0; id < 30; id++ ) {
+      assertTrue( ids.contains( id ) );
+    }
+
+    assertEquals( 2, databases.size() );
+    for ( int i = 0; i < databases.size(); i++ ) {
+      Database db = databases.get( i );
+      verify( db ).setCommit( 3 );
+      verify( db, never() ).rollback();
+      verify( db ).closePreparedStatement( statements.get( i ) );
+      verify( db ).disconnect();
+    }
+    assertEquals( 10, nrExecuted.get() );
+  }
+
+  @Test
+  public void testBatchesAreWrittenInOrderOnOneConnection() throws Exception {
+    TableOutputBatchWriter writer = createWriter( 1, 3, false, false );
+    writer.start();
+    for ( int i = 0; i < 5; i++ ) {
+      writer.submit( createBatch( i * 3L, 3 ), completed::add );
+    }
+    writer.finish( completed::add );
+    writer.close( false );
+
+    assertEquals( 5, completed.size() );
+    for ( int i = 0; i < 5; i++ ) {
+      assertEquals( i * 3L, completed.get( i ).getOutputRows().get( 0 )[ 0 ] );
+    }
+    verify( databases.get( 0 ), times( 5 ) ).commit();
+  }
+
+  @Test
+  public void testBatchErrorWithErrorHandling() throws Exception {
+    TableOutputBatchWriter writer = createWriter( 1, 2, true, true );
+    writer.start();
+    when( statements.get( 0 ).executeBatch() )
+      .thenThrow( new BatchUpdateException( "duplicate key", new int[] { 1, -3, 1 } ) )
+      .thenReturn( new int[] { 1, 1, 1 } );
+
+    writer.submit( createBatch( 0, 3 ), completed::add );
+    writer.submit( createBatch( 3, 3 ), completed::add );
+    writer.finish( completed::add );
+    writer.close( false );
+
+    assertEquals( 2, completed.size() );
+    TableOutputBatchWriter.Batch failed = completed.get( 0 );
+    assertNull( failed.getError() );
+    assertNotNull( failed.getBatchException() );
+    assertEquals( -3, failed.getBatchException().getUpdateCounts()[ 1 ] );
+    assertNull( completed.get( 1 ).getBatchException() );
+    assertFalse( completed.get( 1 ).isSkipped() );
+
+    Database db = databases.get( 0 );
+    verify( db ).clearBatch( statements.get( 0 ) );
+    verify( db ).commit( true );
+    verify( db, never() ).rollback();
+  }
+
+  @Test
+  public void testBatchErrorWithoutErrorHandlingSkipsTheRemainingBatches() throws Exception {
+    TableOutputBatchWriter writer = createWriter( 1, 3, false, false );
+    writer.start();
+    when( statements.get( 0 ).executeBatch() ).thenThrow( new BatchUpdateException( "duplicate key", null ) );
+
+    writer.submit( createBatch( 0, 3 ), completed::add );
+    writer.submit( createBatch( 3, 3 ), completed::add );
+    writer.finish( completed::add );
+    writer.close( true );
+
+    assertEquals( 2, completed.size() );
+    assertNotNull( completed.get( 0 ).getBatchException() );
+    assertTrue( completed.get( 1 ).isSkipped() );
+
+    Database db = databases.get( 0 );
+    verify( statements.get( 0 ), times( 1 ) ).executeBatch();
+    verify( db, never() ).commit();
+    verify( db, times( 2 ) ).rollback();
+    verify( db ).disconnect();
+  }
+
+  @Test
+  public void testRowErrorKeepsTheRowOutOfTheBatch() throws Exception {
+    TableOutputBatchWriter writer = createWriter( 1, 2, true, true );
+    writer.start();
+    Database db = databases.get( 0 );
+    TableOutputBatchWriter.Batch batch = createBatch( 0, 3 );
+    Object[] badRow = batch.getOutputRows().get( 1 );
+    doThrow( new KettleDatabaseException( "conversion error" ) ).when( db )
+      .setValues( any( RowMetaInterface.class ), same( badRow ), any( PreparedStatement.class ) );
+
+    writer.submit( batch, completed::add );
+    writer.finish( completed::add );
+    writer.close( false );
+
+    assertEquals( 1, completed.size() );
+    assertNull( batch.getRowError( 0 ) );
+    assertNotNull( batch.getRowError( 1 ) );
+    assertEquals( 2, batch.getWrittenRows().size() );
+    verify( db, times( 2 ) ).insertRow( any( PreparedStatement.class ), eq( true ), eq( false ) );
+    verify( db ).commit();
+  }
+
+  @Test
+  public void testRowErrorWithoutErrorHandlingFailsTheBatch() throws Exception {
+    TableOutputBatchWriter writer = createWriter( 1, 2, false, false );
+    writer.start();
+    Database db = databases.get( 0 );
+    doThrow( new KettleDatabaseException( "conversion error" ) ).when( db )
+      .setValues( any( RowMetaInterface.class ), any( Object[].class ), any( PreparedStatement.class ) );
+
+    writer.submit( createBatch( 0, 3 ), completed::add );
+    writer.finish( completed::add );
+    writer.close( true );
+
+    assertEquals( 1, completed.size() );
+    assertNotNull( completed.get( 0 ).getError() );
+    verify( db, never() ).commit();
+  }
+}
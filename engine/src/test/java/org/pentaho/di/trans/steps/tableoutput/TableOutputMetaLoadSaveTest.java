@@ -43,6 +43,7 @@ public class TableOutputMetaLoadSaveTest implements InitializerInterface<StepMet
     PluginRegistry.init( false );
     List<String> attributes =
         Arrays.asList( "databaseMeta", "schemaName", "tableName", "commitSize", "truncateTable", "ignoreErrors", "useBatchUpdate",
+            "asyncBatchWrites", "maxPendingBatches", "nrWriterConnections", "bulkCopy", "copyFormat", "copyBufferSize",
             "partitioningEnabled", "partitioningField", "partitioningDaily", "partitioningMonthly", "tableNameInField", "tableNameField",
             "tableNameInTable", "returningGeneratedKeys", "generatedKeyField", "specifyFields", "fieldStream", "fieldDatabase" );
 
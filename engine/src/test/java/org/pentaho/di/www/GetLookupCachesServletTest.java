@@ -0,0 +1,111 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+
+
+package org.pentaho.di.www;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.pentaho.di.core.cache.LookupCache;
+import org.pentaho.di.core.cache.LookupCacheService;
+import org.pentaho.di.junit.rules.RestorePDIEngineEnvironment;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GetLookupCachesServletTest {
+  @ClassRule public static RestorePDIEngineEnvironment env = new RestorePDIEngineEnvironment();
+
+  private static final String CACHE_NAME = "GetLookupCachesServletTest";
+
+  private LookupCache cache;
+  private HttpServletRequest request;
+  private HttpServletResponse response;
+  private ByteArrayOutputStream output;
+
+  @Before
+  public void setUp() throws Exception {
+    cache = LookupCacheService.getInstance().acquire( CACHE_NAME, 0, 0 );
+    cache.put( "key", new Object[] { "value" } );
+
+    request = mock( HttpServletRequest.class );
+    when( request.getContextPath() ).thenReturn( GetLookupCachesServlet.CONTEXT_PATH );
+    when( request.getParameter( "xml" ) ).thenReturn( "Y" );
+    when( request.getParameter( GetLookupCachesServlet.PARAM_INVALIDATE ) ).thenReturn( CACHE_NAME );
+
+    output = new ByteArrayOutputStream();
+    response = mock( HttpServletResponse.class );
+    when( response.getOutputStream() ).thenReturn( new ServletOutputStream() {
+      @Override
+      public boolean isReady() {
+        return true;
+      }
+
+      @Override
+      public void setWriteListener( WriteListener writeListener ) {
+      }
+
+      @Override
+      public void write( int b ) {
+        output.write( b );
+      }
+    } );
+  }
+
+  @After
+  public void tearDown() {
+    LookupCacheService.getInstance().release( cache );
+    LookupCacheService.getInstance().invalidate( CACHE_NAME );
+  }
+
+  @Test
+  public void testInvalidateThroughGetIsNotAllowed() throws Exception {
+    when( request.getMethod() ).thenReturn( "GET" );
+
+    GetLookupCachesServlet servlet = new GetLookupCachesServlet();
+    servlet.setJettyMode( true );
+    servlet.doGet( request, response );
+
+    verify( response ).sendError( HttpServletResponse.SC_METHOD_NOT_ALLOWED );
+    verify( response, never() ).getOutputStream();
+    assertEquals( 1, cache.size() );
+    assertEquals( 0, cache.getInvalidations() );
+  }
+
+  @Test
+  public void testInvalidateThroughPost() throws Exception {
+    when( request.getMethod() ).thenReturn( "POST" );
+
+    GetLookupCachesServlet servlet = new GetLookupCachesServlet();
+    servlet.setJettyMode( true );
+    servlet.doGet( request, response );
+
+    verify( response ).setStatus( HttpServletResponse.SC_OK );
+    assertEquals( 0, cache.size() );
+    assertEquals( 1, cache.getInvalidations() );
+    assertTrue( output.toString().contains( CACHE_NAME ) );
+  }
+}
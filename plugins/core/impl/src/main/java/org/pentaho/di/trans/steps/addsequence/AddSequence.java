@@ -18,8 +18,9 @@ import org.pentaho.di.core.database.Database;
 import org.pentaho.di.core.exception.KettleDatabaseException;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.exception.KettleStepException;
-import org.pentaho.di.core.row.RowDataUtil;
 import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.columnar.ColumnarRowBatch;
+import org.pentaho.di.core.row.columnar.LongColumnVector;
 import org.pentaho.di.core.util.Utils;
 import org.pentaho.di.i18n.BaseMessages;
 import org.pentaho.di.trans.Trans;
@@ -81,7 +82,7 @@ public class AddSequence extends BaseStep implements StepInterface {
     if ( next != null ) {
       Object[] outputRowData = inputRowData;
       if ( inputRowData.length < inputRowMeta.size() + 1 ) {
-        outputRowData = RowDataUtil.resizeArray( inputRowData, inputRowMeta.size() + 1 );
+        outputRowData = resizeRowData( inputRowData, inputRowMeta.size() + 1 );
       }
       outputRowData[inputRowMeta.size()] = next;
       return outputRowData;
@@ -96,6 +97,10 @@ public class AddSequence extends BaseStep implements StepInterface {
     meta = (AddSequenceMeta) smi;
     data = (AddSequenceData) sdi;
 
+    if ( isColumnarExecution() && meta.isCounterUsed() && !log.isRowLevel() ) {
+      return processBatch();
+    }
+
     Object[] r = getRow(); // Get row from input rowset & set row busy!
     if ( r == null ) {
       // no more input to be expected...
@@ -138,6 +143,54 @@ public class AddSequence extends BaseStep implements StepInterface {
     return true;
   }
 
+  /**
+   * Adds the counter values to a complete columnar batch, taking a range of values from the counter at once.
+   */
+  private boolean processBatch() throws KettleException {
+    ColumnarRowBatch batch = getBatch( ROW_BATCH_SIZE );
+    if ( batch == null ) {
+      // no more input to be expected...
+      setOutputDone();
+      return false;
+    }
+
+    if ( first ) {
+      first = false;
+      data.outputRowMeta = getInputRowMeta().clone();
+      meta.getFields( getTransMeta().getBowl(), data.outputRowMeta, getStepname(), null, null, this, repository,
+        metaStore );
+    }
+
+    int n = batch.size();
+    LongColumnVector sequence = new LongColumnVector( n );
+    long[] values = sequence.getValues();
+    synchronized ( data.counter ) {
+      long nval = data.counter.getCounter();
+      for ( int i = 0; i < n; i++ ) {
+        values[ i ] = nval;
+
+        nval += data.increment;
+        if ( data.increment > 0 && data.maximum > data.start && nval > data.maximum ) {
+          nval = data.start;
+        }
+        if ( data.increment < 0 && data.maximum < data.start && nval < data.maximum ) {
+          nval = data.start;
+        }
+      }
+      data.counter.setCounter( nval );
+    }
+
+    putBatch( data.outputRowMeta, batch.addColumns( sequence ) );
+
+    long linesRead = getLinesRead();
+    if ( checkFeedback( linesRead - n, linesRead ) ) {
+      if ( log.isBasic() ) {
+        logBasic( BaseMessages.getString( PKG, "AddSequence.Log.LineNumber" ) + linesRead );
+      }
+    }
+    return true;
+  }
+
   public boolean init( StepMetaInterface smi, StepDataInterface sdi ) {
     meta = (AddSequenceMeta) smi;
     data = (AddSequenceData) sdi;
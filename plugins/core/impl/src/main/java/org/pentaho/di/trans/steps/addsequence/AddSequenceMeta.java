@@ -494,5 +494,13 @@ public class AddSequenceMeta extends BaseStepMeta implements StepMetaInterface {
     return new AddSequenceHelper();
   }
 
+  @Override
+  public boolean supportsColumnarBatches() {
+    return true;
+  }
 
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
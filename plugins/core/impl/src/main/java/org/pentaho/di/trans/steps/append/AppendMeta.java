@@ -221,4 +221,9 @@ public class AppendMeta extends BaseStepMeta implements StepMetaInterface {
   public TransformationType[] getSupportedTransformationTypes() {
     return new TransformationType[] { TransformationType.Normal, };
   }
+
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
 }
@@ -19,6 +19,7 @@ import java.util.List;
 
 import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.CCombo;
 import org.eclipse.swt.events.ModifyEvent;
 import org.eclipse.swt.events.ModifyListener;
 import org.eclipse.swt.events.SelectionAdapter;
@@ -41,6 +42,7 @@ import org.pentaho.di.cluster.ClusterSchema;
 import org.pentaho.di.cluster.SlaveServer;
 import org.pentaho.di.core.Const;
 import org.pentaho.di.i18n.BaseMessages;
+import org.pentaho.di.trans.step.RowFrameCodec;
 import org.pentaho.di.ui.core.PropsUI;
 import org.pentaho.di.ui.core.dialog.EnterSelectionDialog;
 import org.pentaho.di.ui.core.gui.GUIResource;
@@ -101,6 +103,8 @@ public class ClusterSchemaDialog extends Dialog {
 
   private Button wCompressed;
 
+  private CCombo wCodec;
+
   private Button wDynamic;
 
   private List<SlaveServer> slaveServers;
@@ -251,13 +255,38 @@ public class ClusterSchemaDialog extends Dialog {
     fdCompressed.right = new FormAttachment( 95, 0 );
     wCompressed.setLayoutData( fdCompressed );
 
+    // Send the rows in frames?
+    Label wlCodec = new Label( shell, SWT.RIGHT );
+    wlCodec.setToolTipText( BaseMessages.getString( PKG, "ClusterSchemaDialog.SocketCodec.Tooltip" ) );
+    props.setLook( wlCodec );
+    wlCodec.setText( BaseMessages.getString( PKG, "ClusterSchemaDialog.SocketCodec.Label" ) );
+    FormData fdlCodec = new FormData();
+    fdlCodec.top = new FormAttachment( wCompressed, margin );
+    fdlCodec.left = new FormAttachment( 0, 0 ); // First one in the left top corner
+    fdlCodec.right = new FormAttachment( middle, 0 );
+    wlCodec.setLayoutData( fdlCodec );
+
+    wCodec = new CCombo( shell, SWT.BORDER | SWT.READ_ONLY );
+    wCodec.setToolTipText( BaseMessages.getString( PKG, "ClusterSchemaDialog.SocketCodec.Tooltip" ) );
+    wCodec.add( "" );
+    for ( RowFrameCodec codec : RowFrameCodec.values() ) {
+      wCodec.add( codec.name() );
+    }
+    props.setLook( wCodec );
+    wCodec.addModifyListener( lsMod );
+    FormData fdCodec = new FormData();
+    fdCodec.top = new FormAttachment( wCompressed, margin );
+    fdCodec.left = new FormAttachment( middle, margin ); // To the right of the label
+    fdCodec.right = new FormAttachment( 95, 0 );
+    wCodec.setLayoutData( fdCodec );
+
     // What are the sockets buffer sizes??
     Label wlDynamic = new Label( shell, SWT.RIGHT );
     wlDynamic.setToolTipText( BaseMessages.getString( PKG, "ClusterSchemaDialog.DynamicCluster.Tooltip" ) );
     props.setLook( wlDynamic );
     wlDynamic.setText( BaseMessages.getString( PKG, "ClusterSchemaDialog.DynamicCluster.Label" ) );
     FormData fdlDynamic = new FormData();
-    fdlDynamic.top = new FormAttachment( wCompressed, margin );
+    fdlDynamic.top = new FormAttachment( wCodec, margin );
     fdlDynamic.left = new FormAttachment( 0, 0 ); // First one in the left top corner
     fdlDynamic.right = new FormAttachment( middle, 0 );
     wlDynamic.setLayoutData( fdlDynamic );
@@ -266,7 +295,7 @@ public class ClusterSchemaDialog extends Dialog {
     wDynamic.setToolTipText( BaseMessages.getString( PKG, "ClusterSchemaDialog.DynamicCluster.Tooltip" ) );
     props.setLook( wDynamic );
     FormData fdDynamic = new FormData();
-    fdDynamic.top = new FormAttachment( wCompressed, margin );
+    fdDynamic.top = new FormAttachment( wCodec, margin );
     fdDynamic.left = new FormAttachment( middle, margin ); // To the right of the label
     fdDynamic.right = new FormAttachment( 95, 0 );
     wDynamic.setLayoutData( fdDynamic );
@@ -413,6 +442,7 @@ public class ClusterSchemaDialog extends Dialog {
     wBufferSize.setText( Const.NVL( clusterSchema.getSocketsBufferSize(), "" ) );
     wFlushInterval.setText( Const.NVL( clusterSchema.getSocketsFlushInterval(), "" ) );
     wCompressed.setSelection( clusterSchema.isSocketsCompressed() );
+    wCodec.setText( Const.NVL( clusterSchema.getSocketsCodec(), "" ) );
     wDynamic.setSelection( clusterSchema.isDynamic() );
 
     refreshSlaveServers();
@@ -464,6 +494,7 @@ public class ClusterSchemaDialog extends Dialog {
     originalSchema.setSocketsBufferSize( clusterSchema.getSocketsBufferSize() );
     originalSchema.setSocketsFlushInterval( clusterSchema.getSocketsFlushInterval() );
     originalSchema.setSocketsCompressed( clusterSchema.isSocketsCompressed() );
+    originalSchema.setSocketsCodec( clusterSchema.getSocketsCodec() );
     originalSchema.setDynamic( clusterSchema.isDynamic() );
     originalSchema.setSlaveServers( clusterSchema.getSlaveServers() );
     originalSchema.setChanged();
@@ -492,6 +523,7 @@ public class ClusterSchemaDialog extends Dialog {
     clusterSchema.setSocketsBufferSize( wBufferSize.getText() );
     clusterSchema.setSocketsFlushInterval( wFlushInterval.getText() );
     clusterSchema.setSocketsCompressed( wCompressed.getSelection() );
+    clusterSchema.setSocketsCodec( wCodec.getText() );
     clusterSchema.setDynamic( wDynamic.getSelection() );
 
     String[] names = SlaveServer.getSlaveServerNames( slaveServers );
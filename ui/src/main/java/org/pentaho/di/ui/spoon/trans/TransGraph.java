@@ -3880,6 +3880,7 @@ public class TransGraph extends AbstractGraph implements XulEventHandler, Redraw
 
           trans.setSafeModeEnabled( executionConfiguration.isSafeModeEnabled() );
           trans.setGatheringMetrics( executionConfiguration.isGatheringMetrics() );
+          trans.setStepThreadingMode( executionConfiguration.getStepThreadingMode() );
 
           // Launch the step preparation in a different thread.
           // That way Spoon doesn't block anymore and that way we can follow the progress of the initialization
@@ -3997,6 +3998,7 @@ public class TransGraph extends AbstractGraph implements XulEventHandler, Redraw
         trans.setSafeModeEnabled( executionConfiguration.isSafeModeEnabled() );
         trans.setPreview( true );
         trans.setGatheringMetrics( executionConfiguration.isGatheringMetrics() );
+        trans.setStepThreadingMode( executionConfiguration.getStepThreadingMode() );
         trans.setMetaStore( spoon.getMetaStore() );
         trans.prepareExecution( args );
         trans.setRepository( spoon.rep );
@@ -119,6 +119,7 @@ public class CsvInputDialog extends BaseStepDialog implements StepDialogInterfac
   private boolean isReceivingInput;
   private Button wRunningInParallel;
   private Button wNewlinePossible;
+  private Button wMemoryMapped;
   private ComboVar wEncoding;
   private CCombo wFormat;
 
@@ -480,6 +481,25 @@ public class CsvInputDialog extends BaseStepDialog implements StepDialogInterfac
     } );
     lastControl = wNewlinePossible;
 
+    // Read the file through a memory mapped region?
+    //
+    Label wlMemoryMapped = new Label( shell, SWT.RIGHT );
+    wlMemoryMapped.setText( BaseMessages.getString( PKG, inputMeta.getDescription( "MEMORY_MAPPED" ) ) );
+    props.setLook( wlMemoryMapped );
+    FormData fdlMemoryMapped = new FormData();
+    fdlMemoryMapped.top = new FormAttachment( lastControl, margin );
+    fdlMemoryMapped.left = new FormAttachment( 0, 0 );
+    fdlMemoryMapped.right = new FormAttachment( middle, -margin );
+    wlMemoryMapped.setLayoutData( fdlMemoryMapped );
+    wMemoryMapped = new Button( shell, SWT.CHECK );
+    props.setLook( wMemoryMapped );
+    wMemoryMapped.setToolTipText( BaseMessages.getString( PKG, inputMeta.getTooltip( "MEMORY_MAPPED" ) ) );
+    FormData fdMemoryMapped = new FormData();
+    fdMemoryMapped.top = new FormAttachment( lastControl, margin );
+    fdMemoryMapped.left = new FormAttachment( middle, 0 );
+    wMemoryMapped.setLayoutData( fdMemoryMapped );
+    lastControl = wMemoryMapped;
+
     // Format
     Label wlFormat = new Label( shell, SWT.RIGHT );
     wlFormat.setText( BaseMessages.getString( PKG, inputMeta.getDescription( "FORMAT" ) ) );
@@ -778,6 +798,7 @@ public class CsvInputDialog extends BaseStepDialog implements StepDialogInterfac
     wHeaderPresent.setSelection( inputMeta.isHeaderPresent() );
     wRunningInParallel.setSelection( inputMeta.isRunningInParallel() );
     wNewlinePossible.setSelection( inputMeta.isNewlinePossibleInFields() );
+    wMemoryMapped.setSelection( inputMeta.isMemoryMapped() );
     wRowNumField.setText( Const.NVL( inputMeta.getRowNumField(), "" ) );
     wAddResult.setSelection( inputMeta.isAddResultFile() );
     wFormat.setText( Const.NVL( inputMeta.getFileFormat(), "" ) );
@@ -837,6 +858,7 @@ public class CsvInputDialog extends BaseStepDialog implements StepDialogInterfac
     inputMeta.setAddResultFile( wAddResult.getSelection() );
     inputMeta.setRunningInParallel( wRunningInParallel.getSelection() );
     inputMeta.setNewlinePossibleInFields( wNewlinePossible.getSelection() );
+    inputMeta.setMemoryMapped( wMemoryMapped.getSelection() );
     inputMeta.setFileFormat( wFormat.getText() );
     inputMeta.setEncoding( wEncoding.getText() );
 
@@ -284,6 +284,14 @@ public class TextFileInputDialog extends BaseStepDialog implements StepDialogInt
   private Text wLimit;
   private FormData fdlLimit, fdLimit;
 
+  private Label wlParallelReaders;
+  private Text wParallelReaders;
+  private FormData fdlParallelReaders, fdParallelReaders;
+
+  private Label wlParallelPreserveOrder;
+  private Button wParallelPreserveOrder;
+  private FormData fdlParallelPreserveOrder, fdParallelPreserveOrder;
+
   private Label wlDateLenient;
   private Button wDateLenient;
   private FormData fdlDateLenient, fdDateLenient;
@@ -567,6 +575,7 @@ public class TextFileInputDialog extends BaseStepDialog implements StepDialogInt
     // wFilename.addSelectionListener( lsDef );
     wSeparator.addSelectionListener( lsDef );
     wLimit.addSelectionListener( lsDef );
+    wParallelReaders.addSelectionListener( lsDef );
     wInclRownumField.addSelectionListener( lsDef );
     wInclFilenameField.addSelectionListener( lsDef );
     wNrHeader.addSelectionListener( lsDef );
@@ -1463,13 +1472,48 @@ public class TextFileInputDialog extends BaseStepDialog implements StepDialogInt
     fdLimit.right = new FormAttachment( 100, 0 );
     wLimit.setLayoutData( fdLimit );
 
+    wlParallelReaders = new Label( wContentComp, SWT.RIGHT );
+    wlParallelReaders.setText( BaseMessages.getString( PKG, "TextFileInputDialog.ParallelReaders.Label" ) );
+    props.setLook( wlParallelReaders );
+    fdlParallelReaders = new FormData();
+    fdlParallelReaders.left = new FormAttachment( 0, 0 );
+    fdlParallelReaders.top = new FormAttachment( wLimit, margin );
+    fdlParallelReaders.right = new FormAttachment( middle, -margin );
+    wlParallelReaders.setLayoutData( fdlParallelReaders );
+    wParallelReaders = new Text( wContentComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER );
+    wParallelReaders.setToolTipText( BaseMessages.getString( PKG, "TextFileInputDialog.ParallelReaders.Tooltip" ) );
+    props.setLook( wParallelReaders );
+    wParallelReaders.addModifyListener( lsMod );
+    fdParallelReaders = new FormData();
+    fdParallelReaders.left = new FormAttachment( middle, 0 );
+    fdParallelReaders.top = new FormAttachment( wLimit, margin );
+    fdParallelReaders.right = new FormAttachment( 100, 0 );
+    wParallelReaders.setLayoutData( fdParallelReaders );
+
+    wlParallelPreserveOrder = new Label( wContentComp, SWT.RIGHT );
+    wlParallelPreserveOrder.setText( BaseMessages.getString( PKG, "TextFileInputDialog.ParallelPreserveOrder.Label" ) );
+    props.setLook( wlParallelPreserveOrder );
+    fdlParallelPreserveOrder = new FormData();
+    fdlParallelPreserveOrder.left = new FormAttachment( 0, 0 );
+    fdlParallelPreserveOrder.top = new FormAttachment( wParallelReaders, margin );
+    fdlParallelPreserveOrder.right = new FormAttachment( middle, -margin );
+    wlParallelPreserveOrder.setLayoutData( fdlParallelPreserveOrder );
+    wParallelPreserveOrder = new Button( wContentComp, SWT.CHECK );
+    wParallelPreserveOrder.setToolTipText(
+      BaseMessages.getString( PKG, "TextFileInputDialog.ParallelPreserveOrder.Tooltip" ) );
+    props.setLook( wParallelPreserveOrder );
+    fdParallelPreserveOrder = new FormData();
+    fdParallelPreserveOrder.left = new FormAttachment( middle, 0 );
+    fdParallelPreserveOrder.top = new FormAttachment( wParallelReaders, margin );
+    wParallelPreserveOrder.setLayoutData( fdParallelPreserveOrder );
+
     // Date Lenient checkbox
     wlDateLenient = new Label( wContentComp, SWT.RIGHT );
     wlDateLenient.setText( BaseMessages.getString( PKG, "TextFileInputDialog.DateLenient.Label" ) );
     props.setLook( wlDateLenient );
     fdlDateLenient = new FormData();
     fdlDateLenient.left = new FormAttachment( 0, 0 );
-    fdlDateLenient.top = new FormAttachment( wLimit, margin );
+    fdlDateLenient.top = new FormAttachment( wParallelPreserveOrder, margin );
     fdlDateLenient.right = new FormAttachment( middle, -margin );
     wlDateLenient.setLayoutData( fdlDateLenient );
     wDateLenient = new Button( wContentComp, SWT.CHECK );
@@ -1477,7 +1521,7 @@ public class TextFileInputDialog extends BaseStepDialog implements StepDialogInt
     props.setLook( wDateLenient );
     fdDateLenient = new FormData();
     fdDateLenient.left = new FormAttachment( middle, 0 );
-    fdDateLenient.top = new FormAttachment( wLimit, margin );
+    fdDateLenient.top = new FormAttachment( wParallelPreserveOrder, margin );
     wDateLenient.setLayoutData( fdDateLenient );
 
     wlDateLocale = new Label( wContentComp, SWT.RIGHT );
@@ -2224,6 +2268,8 @@ public class TextFileInputDialog extends BaseStepDialog implements StepDialogInt
     }
 
     wLimit.setText( "" + meta.content.rowLimit );
+    wParallelReaders.setText( "" + meta.content.parallelReaders );
+    wParallelPreserveOrder.setSelection( meta.content.parallelPreserveOrder );
 
     logDebug( "getting fields info..." );
     getFieldsData( meta, false, reloadAllFields, newFieldNames );
@@ -2472,6 +2518,8 @@ public class TextFileInputDialog extends BaseStepDialog implements StepDialogInt
     meta.content.enclosure = wEnclosure.getText();
     meta.content.escapeCharacter = wEscape.getText();
     meta.content.rowLimit = Const.toLong( wLimit.getText(), 0L );
+    meta.content.parallelReaders = Const.toInt( wParallelReaders.getText(), 1 );
+    meta.content.parallelPreserveOrder = wParallelPreserveOrder.getSelection();
     meta.content.filenameField = wInclFilenameField.getText();
     meta.content.rowNumberField = wInclRownumField.getText();
     meta.inputFiles.isaddresult = wAddResult.getSelection();
@@ -0,0 +1,433 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.ui.trans.steps.hashjoin;
+
+import java.util.List;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.CCombo;
+import org.eclipse.swt.events.ModifyEvent;
+import org.eclipse.swt.events.ModifyListener;
+import org.eclipse.swt.events.SelectionAdapter;
+import org.eclipse.swt.events.SelectionEvent;
+import org.eclipse.swt.events.ShellAdapter;
+import org.eclipse.swt.events.ShellEvent;
+import org.eclipse.swt.layout.FormAttachment;
+import org.eclipse.swt.layout.FormData;
+import org.eclipse.swt.layout.FormLayout;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Listener;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.TableItem;
+import org.eclipse.swt.widgets.Text;
+import org.pentaho.di.core.Const;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.util.Utils;
+import org.pentaho.di.i18n.BaseMessages;
+import org.pentaho.di.trans.TransMeta;
+import org.pentaho.di.trans.step.BaseStepMeta;
+import org.pentaho.di.trans.step.StepDialogInterface;
+import org.pentaho.di.trans.step.StepMeta;
+import org.pentaho.di.trans.step.errorhandling.StreamInterface;
+import org.pentaho.di.trans.steps.hashjoin.HashJoinMeta;
+import org.pentaho.di.ui.core.dialog.ErrorDialog;
+import org.pentaho.di.ui.core.widget.ColumnInfo;
+import org.pentaho.di.ui.core.widget.TableView;
+import org.pentaho.di.ui.core.widget.TextVar;
+import org.pentaho.di.ui.trans.step.BaseStepDialog;
+import org.pentaho.di.ui.trans.step.ComponentSelectionListener;
+
+public class HashJoinDialog extends BaseStepDialog implements StepDialogInterface {
+  private static Class<?> PKG = HashJoinMeta.class; // for i18n purposes, needed by Translator2!!
+
+  private CCombo wStep1;
+  private CCombo wStep2;
+  private CCombo wType;
+  private Button wBuildFirst;
+  private TextVar wCacheSize;
+  private TextVar wDirectory;
+  private Button wCompress;
+  private Button wBloomFilter;
+
+  private TableView wKeys1;
+  private TableView wKeys2;
+
+  private HashJoinMeta input;
+
+  public HashJoinDialog( Shell parent, Object in, TransMeta tr, String sname ) {
+    super( parent, (BaseStepMeta) in, tr, sname );
+    input = (HashJoinMeta) in;
+  }
+
+  public String open() {
+    Shell parent = getParent();
+    Display display = parent.getDisplay();
+
+    shell = new Shell( parent, SWT.DIALOG_TRIM | SWT.RESIZE | SWT.MIN | SWT.MAX );
+    props.setLook( shell );
+    setShellImage( shell, input );
+
+    ModifyListener lsMod = new ModifyListener() {
+      public void modifyText( ModifyEvent e ) {
+        input.setChanged();
+      }
+    };
+    backupChanged = input.hasChanged();
+
+    FormLayout formLayout = new FormLayout();
+    formLayout.marginWidth = Const.FORM_MARGIN;
+    formLayout.marginHeight = Const.FORM_MARGIN;
+
+    shell.setLayout( formLayout );
+    shell.setText( BaseMessages.getString( PKG, "HashJoinDialog.Shell.Label" ) );
+
+    int middle = props.getMiddlePct();
+    int margin = Const.MARGIN;
+
+    // Stepname line
+    wlStepname = new Label( shell, SWT.RIGHT );
+    wlStepname.setText( BaseMessages.getString( PKG, "HashJoinDialog.Stepname.Label" ) );
+    props.setLook( wlStepname );
+    fdlStepname = new FormData();
+    fdlStepname.left = new FormAttachment( 0, 0 );
+    fdlStepname.right = new FormAttachment( middle, -margin );
+    fdlStepname.top = new FormAttachment( 0, margin );
+    wlStepname.setLayoutData( fdlStepname );
+    wStepname = new Text( shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER );
+    wStepname.setText( stepname );
+    props.setLook( wStepname );
+    wStepname.addModifyListener( lsMod );
+    fdStepname = new FormData();
+    fdStepname.left = new FormAttachment( middle, 0 );
+    fdStepname.top = new FormAttachment( 0, margin );
+    fdStepname.right = new FormAttachment( 100, 0 );
+    wStepname.setLayoutData( fdStepname );
+
+    // Get the previous steps...
+    String[] previousSteps = transMeta.getPrevStepNames( stepname );
+
+    wStep1 = new CCombo( shell, SWT.BORDER );
+    addLine( "HashJoinDialog.Step1.Label", wStep1, wStepname, middle, margin );
+    if ( previousSteps != null ) {
+      wStep1.setItems( previousSteps );
+    }
+    wStep1.addModifyListener( lsMod );
+
+    wStep2 = new CCombo( shell, SWT.BORDER );
+    addLine( "HashJoinDialog.Step2.Label", wStep2, wStep1, middle, margin );
+    if ( previousSteps != null ) {
+      wStep2.setItems( previousSteps );
+    }
+    wStep2.addModifyListener( lsMod );
+
+    wType = new CCombo( shell, SWT.BORDER );
+    addLine( "HashJoinDialog.Type.Label", wType, wStep2, middle, margin );
+    wType.setItems( HashJoinMeta.JOIN_TYPES );
+    wType.addModifyListener( lsMod );
+
+    wBuildFirst = new Button( shell, SWT.CHECK );
+    addLine( "HashJoinDialog.BuildFirst.Label", wBuildFirst, wType, middle, margin );
+    wBuildFirst.setToolTipText( BaseMessages.getString( PKG, "HashJoinDialog.BuildFirst.Tooltip" ) );
+    wBuildFirst.addSelectionListener( new ComponentSelectionListener( input ) );
+
+    wCacheSize = new TextVar( transMeta, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER );
+    addLine( "HashJoinDialog.CacheSize.Label", wCacheSize, wBuildFirst, middle, margin );
+    wCacheSize.setToolTipText( BaseMessages.getString( PKG, "HashJoinDialog.CacheSize.Tooltip" ) );
+    wCacheSize.addModifyListener( lsMod );
+
+    wDirectory = new TextVar( transMeta, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER );
+    addLine( "HashJoinDialog.Directory.Label", wDirectory, wCacheSize, middle, margin );
+    wDirectory.addModifyListener( lsMod );
+
+    wCompress = new Button( shell, SWT.CHECK );
+    addLine( "HashJoinDialog.Compress.Label", wCompress, wDirectory, middle, margin );
+    wCompress.addSelectionListener( new ComponentSelectionListener( input ) );
+
+    wBloomFilter = new Button( shell, SWT.CHECK );
+    addLine( "HashJoinDialog.BloomFilter.Label", wBloomFilter, wCompress, middle, margin );
+    wBloomFilter.setToolTipText( BaseMessages.getString( PKG, "HashJoinDialog.BloomFilter.Tooltip" ) );
+    wBloomFilter.addSelectionListener( new ComponentSelectionListener( input ) );
+
+    // THE KEYS TO MATCH for first step...
+    Label wlKeys1 = new Label( shell, SWT.NONE );
+    wlKeys1.setText( BaseMessages.getString( PKG, "HashJoinDialog.Keys1.Label" ) );
+    props.setLook( wlKeys1 );
+    FormData fdlKeys1 = new FormData();
+    fdlKeys1.left = new FormAttachment( 0, 0 );
+    fdlKeys1.top = new FormAttachment( wBloomFilter, margin );
+    wlKeys1.setLayoutData( fdlKeys1 );
+
+    int nrKeyRows1 = ( input.getKeyFields1() != null ? input.getKeyFields1().length : 1 );
+
+    ColumnInfo[] ciKeys1 =
+      new ColumnInfo[] { new ColumnInfo(
+        BaseMessages.getString( PKG, "HashJoinDialog.ColumnInfo.KeyField1" ), ColumnInfo.COLUMN_TYPE_TEXT,
+        false ), };
+
+    wKeys1 =
+      new TableView(
+        transMeta, shell, SWT.BORDER | SWT.FULL_SELECTION | SWT.MULTI | SWT.V_SCROLL | SWT.H_SCROLL, ciKeys1,
+        nrKeyRows1, lsMod, props );
+
+    FormData fdKeys1 = new FormData();
+    fdKeys1.top = new FormAttachment( wlKeys1, margin );
+    fdKeys1.left = new FormAttachment( 0, 0 );
+    fdKeys1.bottom = new FormAttachment( 100, -70 );
+    fdKeys1.right = new FormAttachment( 50, -margin );
+    wKeys1.setLayoutData( fdKeys1 );
+
+    Button wbKeys1 = new Button( shell, SWT.PUSH );
+    wbKeys1.setText( BaseMessages.getString( PKG, "HashJoinDialog.KeyFields1.Button" ) );
+    FormData fdbKeys1 = new FormData();
+    fdbKeys1.top = new FormAttachment( wKeys1, margin );
+    fdbKeys1.left = new FormAttachment( 0, 0 );
+    fdbKeys1.right = new FormAttachment( 50, -margin );
+    wbKeys1.setLayoutData( fdbKeys1 );
+    wbKeys1.addSelectionListener( new SelectionAdapter() {
+
+      public void widgetSelected( SelectionEvent e ) {
+        getKeys( 0, wKeys1 );
+      }
+    } );
+
+    // THE KEYS TO MATCH for second step
+    Label wlKeys2 = new Label( shell, SWT.NONE );
+    wlKeys2.setText( BaseMessages.getString( PKG, "HashJoinDialog.Keys2.Label" ) );
+    props.setLook( wlKeys2 );
+    FormData fdlKeys2 = new FormData();
+    fdlKeys2.left = new FormAttachment( 50, 0 );
+    fdlKeys2.top = new FormAttachment( wBloomFilter, margin );
+    wlKeys2.setLayoutData( fdlKeys2 );
+
+    int nrKeyRows2 = ( input.getKeyFields2() != null ? input.getKeyFields2().length : 1 );
+
+    ColumnInfo[] ciKeys2 =
+      new ColumnInfo[] { new ColumnInfo(
+        BaseMessages.getString( PKG, "HashJoinDialog.ColumnInfo.KeyField2" ), ColumnInfo.COLUMN_TYPE_TEXT,
+        false ), };
+
+    wKeys2 =
+      new TableView(
+        transMeta, shell, SWT.BORDER | SWT.FULL_SELECTION | SWT.MULTI | SWT.V_SCROLL | SWT.H_SCROLL, ciKeys2,
+        nrKeyRows2, lsMod, props );
+
+    FormData fdKeys2 = new FormData();
+    fdKeys2.top = new FormAttachment( wlKeys2, margin );
+    fdKeys2.left = new FormAttachment( 50, 0 );
+    fdKeys2.bottom = new FormAttachment( 100, -70 );
+    fdKeys2.right = new FormAttachment( 100, 0 );
+    wKeys2.setLayoutData( fdKeys2 );
+
+    Button wbKeys2 = new Button( shell, SWT.PUSH );
+    wbKeys2.setText( BaseMessages.getString( PKG, "HashJoinDialog.KeyFields2.Button" ) );
+    FormData fdbKeys2 = new FormData();
+    fdbKeys2.top = new FormAttachment( wKeys2, margin );
+    fdbKeys2.left = new FormAttachment( 50, 0 );
+    fdbKeys2.right = new FormAttachment( 100, 0 );
+    wbKeys2.setLayoutData( fdbKeys2 );
+    wbKeys2.addSelectionListener( new SelectionAdapter() {
+
+      public void widgetSelected( SelectionEvent e ) {
+        getKeys( 1, wKeys2 );
+      }
+    } );
+
+    // Some buttons
+    wOK = new Button( shell, SWT.PUSH );
+    wOK.setText( BaseMessages.getString( PKG, "System.Button.OK" ) );
+    wCancel = new Button( shell, SWT.PUSH );
+    wCancel.setText( BaseMessages.getString( PKG, "System.Button.Cancel" ) );
+
+    setButtonPositions( new Button[] { wOK, wCancel }, margin, wbKeys1 );
+
+    // Add listeners
+    lsCancel = new Listener() {
+      public void handleEvent( Event e ) {
+        cancel();
+      }
+    };
+    lsOK = new Listener() {
+      public void handleEvent( Event e ) {
+        ok();
+      }
+    };
+
+    wCancel.addListener( SWT.Selection, lsCancel );
+    wOK.addListener( SWT.Selection, lsOK );
+
+    lsDef = new SelectionAdapter() {
+      public void widgetDefaultSelected( SelectionEvent e ) {
+        ok();
+      }
+    };
+
+    wStepname.addSelectionListener( lsDef );
+    wCacheSize.addSelectionListener( lsDef );
+    wDirectory.addSelectionListener( lsDef );
+
+    // Detect X or ALT-F4 or something that kills this window...
+    shell.addShellListener( new ShellAdapter() {
+      public void shellClosed( ShellEvent e ) {
+        cancel();
+      }
+    } );
+
+    // Set the shell size, based upon previous time...
+    setSize();
+
+    getData();
+    input.setChanged( backupChanged );
+
+    shell.open();
+    while ( !shell.isDisposed() ) {
+      if ( !display.readAndDispatch() ) {
+        display.sleep();
+      }
+    }
+    return stepname;
+  }
+
+  /**
+   * Puts a label and a control on a line below the previous control.
+   */
+  private void addLine( String labelKey, Control control, Control previous, int middle, int margin ) {
+    Label label = new Label( shell, SWT.RIGHT );
+    label.setText( BaseMessages.getString( PKG, labelKey ) );
+    props.setLook( label );
+    FormData fdLabel = new FormData();
+    fdLabel.left = new FormAttachment( 0, 0 );
+    fdLabel.right = new FormAttachment( middle, -margin );
+    fdLabel.top = new FormAttachment( previous, margin );
+    label.setLayoutData( fdLabel );
+
+    props.setLook( control );
+    FormData fdControl = new FormData();
+    fdControl.left = new FormAttachment( middle, 0 );
+    fdControl.top = new FormAttachment( previous, margin );
+    fdControl.right = new FormAttachment( 100, 0 );
+    control.setLayoutData( fdControl );
+  }
+
+  /**
+   * Copy information from the meta-data input to the dialog fields.
+   */
+  public void getData() {
+    List<StreamInterface> infoStreams = input.getStepIOMeta().getInfoStreams();
+
+    wStep1.setText( Const.NVL( infoStreams.get( 0 ).getStepname(), "" ) );
+    wStep2.setText( Const.NVL( infoStreams.get( 1 ).getStepname(), "" ) );
+    String joinType = input.getJoinType();
+    if ( joinType != null && joinType.length() > 0 ) {
+      wType.setText( joinType );
+    } else {
+      wType.setText( HashJoinMeta.JOIN_TYPES[0] );
+    }
+    wBuildFirst.setSelection( input.isBuildFirst() );
+    wCacheSize.setText( Const.NVL( input.getCacheSize(), "" ) );
+    wDirectory.setText( Const.NVL( input.getDirectory(), "" ) );
+    wCompress.setSelection( input.isCompressFiles() );
+    wBloomFilter.setSelection( input.isBloomFilter() );
+
+    for ( int i = 0; i < input.getKeyFields1().length; i++ ) {
+      TableItem item = wKeys1.table.getItem( i );
+      if ( input.getKeyFields1()[i] != null ) {
+        item.setText( 1, input.getKeyFields1()[i] );
+      }
+    }
+    for ( int i = 0; i < input.getKeyFields2().length; i++ ) {
+      TableItem item = wKeys2.table.getItem( i );
+      if ( input.getKeyFields2()[i] != null ) {
+        item.setText( 1, input.getKeyFields2()[i] );
+      }
+    }
+
+    wStepname.selectAll();
+    wStepname.setFocus();
+  }
+
+  private void cancel() {
+    stepname = null;
+    input.setChanged( backupChanged );
+    dispose();
+  }
+
+  private void getMeta( HashJoinMeta meta ) {
+    List<StreamInterface> infoStreams = meta.getStepIOMeta().getInfoStreams();
+
+    infoStreams.get( 0 ).setStepMeta( transMeta.findStep( wStep1.getText() ) );
+    infoStreams.get( 1 ).setStepMeta( transMeta.findStep( wStep2.getText() ) );
+    meta.setJoinType( wType.getText() );
+    meta.setBuildFirst( wBuildFirst.getSelection() );
+    meta.setCacheSize( wCacheSize.getText() );
+    meta.setDirectory( wDirectory.getText() );
+    meta.setCompressFiles( wCompress.getSelection() );
+    meta.setBloomFilter( wBloomFilter.getSelection() );
+
+    int nrKeys1 = wKeys1.nrNonEmpty();
+    int nrKeys2 = wKeys2.nrNonEmpty();
+
+    meta.allocate( nrKeys1, nrKeys2 );
+
+    for ( int i = 0; i < nrKeys1; i++ ) {
+      TableItem item = wKeys1.getNonEmpty( i );
+      meta.getKeyFields1()[i] = item.getText( 1 );
+    }
+
+    for ( int i = 0; i < nrKeys2; i++ ) {
+      TableItem item = wKeys2.getNonEmpty( i );
+      meta.getKeyFields2()[i] = item.getText( 1 );
+    }
+  }
+
+  private void ok() {
+    if ( Utils.isEmpty( wStepname.getText() ) ) {
+      return;
+    }
+
+    getMeta( input );
+
+    stepname = wStepname.getText(); // return value
+
+    dispose();
+  }
+
+  /**
+   * Fills the keys with the fields of the first (0) or second (1) step.
+   */
+  private void getKeys( int streamIndex, TableView wKeys ) {
+    HashJoinMeta joinMeta = new HashJoinMeta();
+    getMeta( joinMeta );
+
+    try {
+      List<StreamInterface> infoStreams = joinMeta.getStepIOMeta().getInfoStreams();
+
+      StepMeta stepMeta = infoStreams.get( streamIndex ).getStepMeta();
+      if ( stepMeta != null ) {
+        RowMetaInterface prev = transMeta.getStepFields( stepMeta );
+        if ( prev != null ) {
+          BaseStepDialog.getFieldsFromPrevious( prev, wKeys, 1, new int[] { 1 }, new int[] {}, -1, -1, null );
+        }
+      }
+    } catch ( KettleException e ) {
+      new ErrorDialog(
+        shell, BaseMessages.getString( PKG, "HashJoinDialog.ErrorGettingFields.DialogTitle" ), BaseMessages
+          .getString( PKG, "HashJoinDialog.ErrorGettingFields.DialogMessage" ), e );
+    }
+  }
+}
@@ -102,6 +102,10 @@ public class InsertUpdateDialog extends BaseStepDialog implements StepDialogInte
   private Button wUpdateBypassed;
   private FormData fdlUpdateBypassed, fdUpdateBypassed;
 
+  private Label wlBulkUpsert;
+  private Button wBulkUpsert;
+  private FormData fdlBulkUpsert, fdBulkUpsert;
+
   private Button wGetLU;
   private FormData fdGetLU;
   private Listener lsGetLU;
@@ -282,12 +286,32 @@ public class InsertUpdateDialog extends BaseStepDialog implements StepDialogInte
     wUpdateBypassed.setLayoutData( fdUpdateBypassed );
     wUpdateBypassed.addSelectionListener( new ComponentSelectionListener( input ) );
 
+    // BulkUpsert line
+    wlBulkUpsert = new Label( shell, SWT.RIGHT );
+    wlBulkUpsert.setText( BaseMessages.getString( PKG, "InsertUpdateDialog.BulkUpsert.Label" ) );
+    wlBulkUpsert.setToolTipText( BaseMessages.getString( PKG, "InsertUpdateDialog.BulkUpsert.Tooltip" ) );
+    props.setLook( wlBulkUpsert );
+    fdlBulkUpsert = new FormData();
+    fdlBulkUpsert.left = new FormAttachment( 0, 0 );
+    fdlBulkUpsert.top = new FormAttachment( wUpdateBypassed, margin );
+    fdlBulkUpsert.right = new FormAttachment( middle, -margin );
+    wlBulkUpsert.setLayoutData( fdlBulkUpsert );
+    wBulkUpsert = new Button( shell, SWT.CHECK );
+    wBulkUpsert.setToolTipText( BaseMessages.getString( PKG, "InsertUpdateDialog.BulkUpsert.Tooltip" ) );
+    props.setLook( wBulkUpsert );
+    fdBulkUpsert = new FormData();
+    fdBulkUpsert.left = new FormAttachment( middle, 0 );
+    fdBulkUpsert.top = new FormAttachment( wUpdateBypassed, margin );
+    fdBulkUpsert.right = new FormAttachment( 100, 0 );
+    wBulkUpsert.setLayoutData( fdBulkUpsert );
+    wBulkUpsert.addSelectionListener( new ComponentSelectionListener( input ) );
+
     wlKey = new Label( shell, SWT.NONE );
     wlKey.setText( BaseMessages.getString( PKG, "InsertUpdateDialog.Keys.Label" ) );
     props.setLook( wlKey );
     fdlKey = new FormData();
     fdlKey.left = new FormAttachment( 0, 0 );
-    fdlKey.top = new FormAttachment( wUpdateBypassed, margin );
+    fdlKey.top = new FormAttachment( wBulkUpsert, margin );
     wlKey.setLayoutData( fdlKey );
 
     int nrKeyCols = 4;
@@ -656,6 +680,7 @@ public class InsertUpdateDialog extends BaseStepDialog implements StepDialogInte
 
     wCommit.setText( input.getCommitSizeVar() );
     wUpdateBypassed.setSelection( input.isUpdateBypassed() );
+    wBulkUpsert.setSelection( input.isBulkUpsert() );
 
     if ( input.getKeyFields() != null ) {
       for ( int i = 0; i < input.getKeyFields().length; i++ ) {
@@ -728,6 +753,7 @@ public class InsertUpdateDialog extends BaseStepDialog implements StepDialogInte
 
     inf.setCommitSize( wCommit.getText() );
     inf.setUpdateBypassed( wUpdateBypassed.getSelection() );
+    inf.setBulkUpsert( wBulkUpsert.getSelection() );
 
     if ( log.isDebug() ) {
       logDebug( BaseMessages.getString( PKG, "InsertUpdateDialog.Log.FoundKeys", nrkeys + "" ) );
@@ -206,6 +206,7 @@ public class ScriptValuesModDialog extends BaseStepDialog implements StepDialogI
   private ScriptValuesHelp scVHelp;
   private ScriptValuesHighlight lineStyler = new ScriptValuesHighlight();
   private Button wCompatible;
+  private Button wPrimitiveValues;
   private TextVar wOptimizationLevel;
 
   private TreeItem iteminput;
@@ -387,6 +388,28 @@ public class ScriptValuesModDialog extends BaseStepDialog implements StepDialogI
     wCompatible.addSelectionListener( new SelectionAdapter() {
       public void widgetSelected( SelectionEvent e ) {
         setInputOutputFields();
+        wPrimitiveValues.setEnabled( !wCompatible.getSelection() );
+        input.setChanged( true );
+      }
+    } );
+
+    Label wlPrimitiveValues = new Label( wTop, SWT.NONE );
+    wlPrimitiveValues.setText( BaseMessages.getString( PKG, "ScriptValuesDialogMod.PrimitiveValues.Label" ) );
+    props.setLook( wlPrimitiveValues );
+    FormData fdlPrimitiveValues = new FormData();
+    fdlPrimitiveValues.left = new FormAttachment( wCompatible, margin * 2 );
+    fdlPrimitiveValues.top = new FormAttachment( wlPosition, margin );
+    wlPrimitiveValues.setLayoutData( fdlPrimitiveValues );
+
+    wPrimitiveValues = new Button( wTop, SWT.CHECK );
+    wPrimitiveValues.setToolTipText( BaseMessages.getString( PKG, "ScriptValuesDialogMod.PrimitiveValues.Tooltip" ) );
+    props.setLook( wPrimitiveValues );
+    FormData fdPrimitiveValues = new FormData();
+    fdPrimitiveValues.left = new FormAttachment( wlPrimitiveValues, margin );
+    fdPrimitiveValues.top = new FormAttachment( wlPosition, margin );
+    wPrimitiveValues.setLayoutData( fdPrimitiveValues );
+    wPrimitiveValues.addSelectionListener( new SelectionAdapter() {
+      public void widgetSelected( SelectionEvent e ) {
         input.setChanged( true );
       }
     } );
@@ -395,7 +418,7 @@ public class ScriptValuesModDialog extends BaseStepDialog implements StepDialogI
     wlOptimizationLevel.setText( BaseMessages.getString( PKG, "ScriptValuesDialogMod.OptimizationLevel.Label" ) );
     props.setLook( wlOptimizationLevel );
     FormData fdlOptimizationLevel = new FormData();
-    fdlOptimizationLevel.left = new FormAttachment( wCompatible, margin * 2 );
+    fdlOptimizationLevel.left = new FormAttachment( wPrimitiveValues, margin * 2 );
     fdlOptimizationLevel.top = new FormAttachment( wlPosition, margin );
     wlOptimizationLevel.setLayoutData( fdlOptimizationLevel );
 
@@ -936,6 +959,8 @@ public class ScriptValuesModDialog extends BaseStepDialog implements StepDialogI
    */
   public void getData() {
     wCompatible.setSelection( input.isCompatible() );
+    wPrimitiveValues.setSelection( input.isPrimitiveValues() );
+    wPrimitiveValues.setEnabled( !input.isCompatible() );
     if ( !Utils.isEmpty( Const.trim( input.getOptimizationLevel() ) ) ) {
       wOptimizationLevel.setText( input.getOptimizationLevel().trim() );
     } else {
@@ -1035,6 +1060,7 @@ public class ScriptValuesModDialog extends BaseStepDialog implements StepDialogI
 
   private void getInfo( ScriptValuesMetaMod meta ) {
     meta.setCompatible( wCompatible.getSelection() );
+    meta.setPrimitiveValues( wPrimitiveValues.getSelection() );
     meta.setOptimizationLevel( wOptimizationLevel.getText() );
     int nrfields = wFields.nrNonEmpty();
     meta.allocate( nrfields );
@@ -101,6 +101,17 @@ public class TableInputDialog extends BaseStepDialog implements StepDialogInterf
   private Button wCachedRowMeta;
   private FormData fdlCachedRowMeta, fdCachedRowMeta;
 
+  private Label wlPartitionColumn;
+  private TextVar wPartitionColumn;
+
+  private Label wlPartitionMethod;
+  private CCombo wPartitionMethod;
+
+  private Label wlNrPartitions;
+  private TextVar wNrPartitions;
+
+  private TextVar wFetchSize;
+
   private Button wbTable;
   private FormData fdbTable;
   private Listener lsbTable;
@@ -179,6 +190,87 @@ public class TableInputDialog extends BaseStepDialog implements StepDialogInterf
 
     setButtonPositions( new Button[] { wOK, wPreview, wCancel }, margin, null );
 
+    // Fetch size
+    Label wlFetchSize = new Label( shell, SWT.RIGHT );
+    wlFetchSize.setText( BaseMessages.getString( PKG, "TableInputDialog.FetchSize" ) );
+    wlFetchSize.setToolTipText( BaseMessages.getString( PKG, "TableInputDialog.FetchSize.Tooltip" ) );
+    props.setLook( wlFetchSize );
+    FormData fdlFetchSize = new FormData();
+    fdlFetchSize.left = new FormAttachment( 0, 0 );
+    fdlFetchSize.right = new FormAttachment( middle, -margin );
+    fdlFetchSize.bottom = new FormAttachment( wOK, -2 * margin );
+    wlFetchSize.setLayoutData( fdlFetchSize );
+    wFetchSize = new TextVar( transMeta, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER );
+    wFetchSize.setToolTipText( BaseMessages.getString( PKG, "TableInputDialog.FetchSize.Tooltip" ) );
+    props.setLook( wFetchSize );
+    wFetchSize.addModifyListener( lsMod );
+    FormData fdFetchSize = new FormData();
+    fdFetchSize.left = new FormAttachment( middle, 0 );
+    fdFetchSize.right = new FormAttachment( 100, 0 );
+    fdFetchSize.bottom = new FormAttachment( wOK, -2 * margin );
+    wFetchSize.setLayoutData( fdFetchSize );
+
+    // Number of partitions
+    wlNrPartitions = new Label( shell, SWT.RIGHT );
+    wlNrPartitions.setText( BaseMessages.getString( PKG, "TableInputDialog.NrPartitions" ) );
+    props.setLook( wlNrPartitions );
+    FormData fdlNrPartitions = new FormData();
+    fdlNrPartitions.left = new FormAttachment( 0, 0 );
+    fdlNrPartitions.right = new FormAttachment( middle, -margin );
+    fdlNrPartitions.bottom = new FormAttachment( wFetchSize, -margin );
+    wlNrPartitions.setLayoutData( fdlNrPartitions );
+    wNrPartitions = new TextVar( transMeta, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER );
+    props.setLook( wNrPartitions );
+    wNrPartitions.addModifyListener( lsMod );
+    FormData fdNrPartitions = new FormData();
+    fdNrPartitions.left = new FormAttachment( middle, 0 );
+    fdNrPartitions.right = new FormAttachment( 100, 0 );
+    fdNrPartitions.bottom = new FormAttachment( wFetchSize, -margin );
+    wNrPartitions.setLayoutData( fdNrPartitions );
+
+    // Partition method
+    wlPartitionMethod = new Label( shell, SWT.RIGHT );
+    wlPartitionMethod.setText( BaseMessages.getString( PKG, "TableInputDialog.PartitionMethod" ) );
+    wlPartitionMethod.setToolTipText( BaseMessages.getString( PKG, "TableInputDialog.PartitionMethod.Tooltip" ) );
+    props.setLook( wlPartitionMethod );
+    FormData fdlPartitionMethod = new FormData();
+    fdlPartitionMethod.left = new FormAttachment( 0, 0 );
+    fdlPartitionMethod.right = new FormAttachment( middle, -margin );
+    fdlPartitionMethod.bottom = new FormAttachment( wNrPartitions, -margin );
+    wlPartitionMethod.setLayoutData( fdlPartitionMethod );
+    wPartitionMethod = new CCombo( shell, SWT.BORDER | SWT.READ_ONLY );
+    wPartitionMethod.setItems( new String[] {
+      TableInputMeta.PARTITION_METHOD_RANGE, TableInputMeta.PARTITION_METHOD_MODULUS } );
+    wPartitionMethod.setToolTipText( BaseMessages.getString( PKG, "TableInputDialog.PartitionMethod.Tooltip" ) );
+    props.setLook( wPartitionMethod );
+    wPartitionMethod.addModifyListener( lsMod );
+    FormData fdPartitionMethod = new FormData();
+    fdPartitionMethod.left = new FormAttachment( middle, 0 );
+    fdPartitionMethod.right = new FormAttachment( 100, 0 );
+    fdPartitionMethod.bottom = new FormAttachment( wNrPartitions, -margin );
+    wPartitionMethod.setLayoutData( fdPartitionMethod );
+
+    // Partition column
+    wlPartitionColumn = new Label( shell, SWT.RIGHT );
+    wlPartitionColumn.setText( BaseMessages.getString( PKG, "TableInputDialog.PartitionColumn" ) );
+    wlPartitionColumn.setToolTipText( BaseMessages.getString( PKG, "TableInputDialog.PartitionColumn.Tooltip" ) );
+    props.setLook( wlPartitionColumn );
+    FormData fdlPartitionColumn = new FormData();
+    fdlPartitionColumn.left = new FormAttachment( 0, 0 );
+    fdlPartitionColumn.right = new FormAttachment( middle, -margin );
+    fdlPartitionColumn.bottom = new FormAttachment( wPartitionMethod, -margin );
+    wlPartitionColumn.setLayoutData( fdlPartitionColumn );
+    wPartitionColumn = new TextVar( transMeta, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER );
+    wPartitionColumn.setToolTipText( BaseMessages.getString( PKG, "TableInputDialog.PartitionColumn.Tooltip" ) );
+    props.setLook( wPartitionColumn );
+    wPartitionColumn.addModifyListener( lsMod );
+    wPartitionColumn.addModifyListener( e -> setFlags() );
+    FormData fdPartitionColumn = new FormData();
+    fdPartitionColumn.left = new FormAttachment( middle, 0 );
+    fdPartitionColumn.right = new FormAttachment( 100, 0 );
+    fdPartitionColumn.bottom = new FormAttachment( wPartitionMethod, -margin );
+    wPartitionColumn.setLayoutData( fdPartitionColumn );
+
     // Limit input ...
     wlLimit = new Label( shell, SWT.RIGHT );
     wlLimit.setText( BaseMessages.getString( PKG, "TableInputDialog.LimitSize" ) );
@@ -186,7 +278,7 @@ public class TableInputDialog extends BaseStepDialog implements StepDialogInterf
     fdlLimit = new FormData();
     fdlLimit.left = new FormAttachment( 0, 0 );
     fdlLimit.right = new FormAttachment( middle, -margin );
-    fdlLimit.bottom = new FormAttachment( wOK, -2 * margin );
+    fdlLimit.bottom = new FormAttachment( wPartitionColumn, -margin );
     wlLimit.setLayoutData( fdlLimit );
     wLimit = new TextVar( transMeta, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER );
     props.setLook( wLimit );
@@ -194,7 +286,7 @@ public class TableInputDialog extends BaseStepDialog implements StepDialogInterf
     fdLimit = new FormData();
     fdLimit.left = new FormAttachment( middle, 0 );
     fdLimit.right = new FormAttachment( 100, 0 );
-    fdLimit.bottom = new FormAttachment( wOK, -2 * margin );
+    fdLimit.bottom = new FormAttachment( wPartitionColumn, -margin );
     wLimit.setLayoutData( fdLimit );
 
     // Execute for each row?
@@ -434,6 +526,9 @@ public class TableInputDialog extends BaseStepDialog implements StepDialogInterf
 
     wStepname.addSelectionListener( lsDef );
     wLimit.addSelectionListener( lsDef );
+    wPartitionColumn.addSelectionListener( lsDef );
+    wNrPartitions.addSelectionListener( lsDef );
+    wFetchSize.addSelectionListener( lsDef );
 
     // Detect X or ALT-F4 or something that kills this window...
     shell.addShellListener( new ShellAdapter() {
@@ -504,6 +599,10 @@ public class TableInputDialog extends BaseStepDialog implements StepDialogInterf
     wVariables.setSelection( input.isVariableReplacementActive() );
     wLazyConversion.setSelection( input.isLazyConversionActive() );
     wCachedRowMeta.setSelection( input.isCachedRowMetaActive() );
+    wPartitionColumn.setText( Const.NVL( input.getPartitionColumn(), "" ) );
+    wPartitionMethod.setText( Const.NVL( input.getPartitionMethod(), TableInputMeta.PARTITION_METHOD_RANGE ) );
+    wNrPartitions.setText( Const.NVL( input.getNrPartitions(), "" ) );
+    wFetchSize.setText( Const.NVL( input.getFetchSize(), "" ) );
 
     setSQLToolTip();
     setFlags();
@@ -543,6 +642,10 @@ public class TableInputDialog extends BaseStepDialog implements StepDialogInterf
     meta.setVariableReplacementActive( wVariables.getSelection() );
     meta.setLazyConversionActive( wLazyConversion.getSelection() );
     meta.setCachedRowMetaActive( wCachedRowMeta.getSelection() );
+    meta.setPartitionColumn( wPartitionColumn.getText() );
+    meta.setPartitionMethod( wPartitionMethod.getText() );
+    meta.setNrPartitions( wNrPartitions.getText() );
+    meta.setFetchSize( wFetchSize.getText() );
   }
 
   private void ok() {
@@ -658,6 +761,12 @@ public class TableInputDialog extends BaseStepDialog implements StepDialogInterf
       wPreview.setEnabled( true );
     }
 
+    // The partitioned read options...
+    boolean partitioned = !Utils.isEmpty( wPartitionColumn.getText() );
+    wlPartitionMethod.setEnabled( partitioned );
+    wPartitionMethod.setEnabled( partitioned );
+    wlNrPartitions.setEnabled( partitioned );
+    wNrPartitions.setEnabled( partitioned );
   }
 
   /**
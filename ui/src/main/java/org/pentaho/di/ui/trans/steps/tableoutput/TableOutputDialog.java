@@ -54,6 +54,7 @@ import org.pentaho.di.core.SQLStatement;
 import org.pentaho.di.core.SourceToTargetMapping;
 import org.pentaho.di.core.database.Database;
 import org.pentaho.di.core.database.DatabaseMeta;
+import org.pentaho.di.core.database.PostgreSQLDatabaseMeta;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.exception.KettleStepException;
 import org.pentaho.di.core.row.RowMeta;
@@ -66,6 +67,7 @@ import org.pentaho.di.trans.step.BaseStepMeta;
 import org.pentaho.di.trans.step.StepDialogInterface;
 import org.pentaho.di.trans.step.StepMeta;
 import org.pentaho.di.trans.step.StepMetaInterface;
+import org.pentaho.di.trans.steps.tableoutput.PGCopyEncoder;
 import org.pentaho.di.trans.steps.tableoutput.TableOutputMeta;
 import org.pentaho.di.ui.core.database.dialog.DatabaseExplorerDialog;
 import org.pentaho.di.ui.core.database.dialog.SQLEditor;
@@ -126,6 +128,24 @@ public class TableOutputDialog extends BaseStepDialog implements StepDialogInter
   private Button wBatch;
   private FormData fdlBatch, fdBatch;
 
+  private Label wlAsyncBatch;
+  private Button wAsyncBatch;
+
+  private Label wlMaxPendingBatches;
+  private TextVar wMaxPendingBatches;
+
+  private Label wlWriterConnections;
+  private TextVar wWriterConnections;
+
+  private Label wlBulkCopy;
+  private Button wBulkCopy;
+
+  private Label wlCopyFormat;
+  private CCombo wCopyFormat;
+
+  private Label wlCopyBufferSize;
+  private TextVar wCopyBufferSize;
+
   private Label wlUsePart;
   private Button wUsePart;
   private FormData fdlUsePart, fdUsePart;
@@ -557,20 +577,145 @@ public class TableOutputDialog extends BaseStepDialog implements StepDialogInter
       }
     } );
 
+    // Asynchronous batch writes
+    wlAsyncBatch = new Label( wMainComp, SWT.RIGHT );
+    wlAsyncBatch.setText( BaseMessages.getString( PKG, "TableOutputDialog.AsyncBatch.Label" ) );
+    wlAsyncBatch.setToolTipText( BaseMessages.getString( PKG, "TableOutputDialog.AsyncBatch.Tooltip" ) );
+    props.setLook( wlAsyncBatch );
+    FormData fdlAsyncBatch = new FormData();
+    fdlAsyncBatch.left = new FormAttachment( 0, 0 );
+    fdlAsyncBatch.top = new FormAttachment( wBatch, margin );
+    fdlAsyncBatch.right = new FormAttachment( middle, -margin );
+    wlAsyncBatch.setLayoutData( fdlAsyncBatch );
+    wAsyncBatch = new Button( wMainComp, SWT.CHECK );
+    props.setLook( wAsyncBatch );
+    FormData fdAsyncBatch = new FormData();
+    fdAsyncBatch.left = new FormAttachment( middle, 0 );
+    fdAsyncBatch.top = new FormAttachment( wBatch, margin );
+    fdAsyncBatch.right = new FormAttachment( 100, 0 );
+    wAsyncBatch.setLayoutData( fdAsyncBatch );
+    wAsyncBatch.addSelectionListener( lsSelMod );
+
+    wAsyncBatch.addSelectionListener( new SelectionAdapter() {
+      public void widgetSelected( SelectionEvent arg0 ) {
+        setFlags();
+      }
+    } );
+
+    // Maximum pending batches
+    wlMaxPendingBatches = new Label( wMainComp, SWT.RIGHT );
+    wlMaxPendingBatches.setText( BaseMessages.getString( PKG, "TableOutputDialog.MaxPendingBatches.Label" ) );
+    props.setLook( wlMaxPendingBatches );
+    FormData fdlMaxPendingBatches = new FormData();
+    fdlMaxPendingBatches.left = new FormAttachment( 0, 0 );
+    fdlMaxPendingBatches.top = new FormAttachment( wAsyncBatch, margin );
+    fdlMaxPendingBatches.right = new FormAttachment( middle, -margin );
+    wlMaxPendingBatches.setLayoutData( fdlMaxPendingBatches );
+    wMaxPendingBatches = new TextVar( transMeta, wMainComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER );
+    props.setLook( wMaxPendingBatches );
+    wMaxPendingBatches.addModifyListener( lsMod );
+    FormData fdMaxPendingBatches = new FormData();
+    fdMaxPendingBatches.left = new FormAttachment( middle, 0 );
+    fdMaxPendingBatches.top = new FormAttachment( wAsyncBatch, margin );
+    fdMaxPendingBatches.right = new FormAttachment( 100, 0 );
+    wMaxPendingBatches.setLayoutData( fdMaxPendingBatches );
+
+    // Number of writer connections
+    wlWriterConnections = new Label( wMainComp, SWT.RIGHT );
+    wlWriterConnections.setText( BaseMessages.getString( PKG, "TableOutputDialog.WriterConnections.Label" ) );
+    wlWriterConnections.setToolTipText( BaseMessages.getString( PKG, "TableOutputDialog.WriterConnections.Tooltip" ) );
+    props.setLook( wlWriterConnections );
+    FormData fdlWriterConnections = new FormData();
+    fdlWriterConnections.left = new FormAttachment( 0, 0 );
+    fdlWriterConnections.top = new FormAttachment( wMaxPendingBatches, margin );
+    fdlWriterConnections.right = new FormAttachment( middle, -margin );
+    wlWriterConnections.setLayoutData( fdlWriterConnections );
+    wWriterConnections = new TextVar( transMeta, wMainComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER );
+    props.setLook( wWriterConnections );
+    wWriterConnections.addModifyListener( lsMod );
+    FormData fdWriterConnections = new FormData();
+    fdWriterConnections.left = new FormAttachment( middle, 0 );
+    fdWriterConnections.top = new FormAttachment( wMaxPendingBatches, margin );
+    fdWriterConnections.right = new FormAttachment( 100, 0 );
+    wWriterConnections.setLayoutData( fdWriterConnections );
+
+    // Load with PostgreSQL COPY
+    wlBulkCopy = new Label( wMainComp, SWT.RIGHT );
+    wlBulkCopy.setText( BaseMessages.getString( PKG, "TableOutputDialog.BulkCopy.Label" ) );
+    wlBulkCopy.setToolTipText( BaseMessages.getString( PKG, "TableOutputDialog.BulkCopy.Tooltip" ) );
+    props.setLook( wlBulkCopy );
+    FormData fdlBulkCopy = new FormData();
+    fdlBulkCopy.left = new FormAttachment( 0, 0 );
+    fdlBulkCopy.top = new FormAttachment( wWriterConnections, margin );
+    fdlBulkCopy.right = new FormAttachment( middle, -margin );
+    wlBulkCopy.setLayoutData( fdlBulkCopy );
+    wBulkCopy = new Button( wMainComp, SWT.CHECK );
+    props.setLook( wBulkCopy );
+    FormData fdBulkCopy = new FormData();
+    fdBulkCopy.left = new FormAttachment( middle, 0 );
+    fdBulkCopy.top = new FormAttachment( wWriterConnections, margin );
+    fdBulkCopy.right = new FormAttachment( 100, 0 );
+    wBulkCopy.setLayoutData( fdBulkCopy );
+    wBulkCopy.addSelectionListener( lsSelMod );
+
+    wBulkCopy.addSelectionListener( new SelectionAdapter() {
+      public void widgetSelected( SelectionEvent arg0 ) {
+        setFlags();
+      }
+    } );
+
+    // COPY format
+    wlCopyFormat = new Label( wMainComp, SWT.RIGHT );
+    wlCopyFormat.setText( BaseMessages.getString( PKG, "TableOutputDialog.CopyFormat.Label" ) );
+    wlCopyFormat.setToolTipText( BaseMessages.getString( PKG, "TableOutputDialog.CopyFormat.Tooltip" ) );
+    props.setLook( wlCopyFormat );
+    FormData fdlCopyFormat = new FormData();
+    fdlCopyFormat.left = new FormAttachment( 0, 0 );
+    fdlCopyFormat.top = new FormAttachment( wBulkCopy, margin );
+    fdlCopyFormat.right = new FormAttachment( middle, -margin );
+    wlCopyFormat.setLayoutData( fdlCopyFormat );
+    wCopyFormat = new CCombo( wMainComp, SWT.SINGLE | SWT.READ_ONLY | SWT.BORDER );
+    wCopyFormat.setItems( new String[] { PGCopyEncoder.FORMAT_TEXT, PGCopyEncoder.FORMAT_BINARY } );
+    props.setLook( wCopyFormat );
+    wCopyFormat.addModifyListener( lsMod );
+    FormData fdCopyFormat = new FormData();
+    fdCopyFormat.left = new FormAttachment( middle, 0 );
+    fdCopyFormat.top = new FormAttachment( wBulkCopy, margin );
+    fdCopyFormat.right = new FormAttachment( 100, 0 );
+    wCopyFormat.setLayoutData( fdCopyFormat );
+
+    // COPY buffer size
+    wlCopyBufferSize = new Label( wMainComp, SWT.RIGHT );
+    wlCopyBufferSize.setText( BaseMessages.getString( PKG, "TableOutputDialog.CopyBufferSize.Label" ) );
+    props.setLook( wlCopyBufferSize );
+    FormData fdlCopyBufferSize = new FormData();
+    fdlCopyBufferSize.left = new FormAttachment( 0, 0 );
+    fdlCopyBufferSize.top = new FormAttachment( wCopyFormat, margin );
+    fdlCopyBufferSize.right = new FormAttachment( middle, -margin );
+    wlCopyBufferSize.setLayoutData( fdlCopyBufferSize );
+    wCopyBufferSize = new TextVar( transMeta, wMainComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER );
+    props.setLook( wCopyBufferSize );
+    wCopyBufferSize.addModifyListener( lsMod );
+    FormData fdCopyBufferSize = new FormData();
+    fdCopyBufferSize.left = new FormAttachment( middle, 0 );
+    fdCopyBufferSize.top = new FormAttachment( wCopyFormat, margin );
+    fdCopyBufferSize.right = new FormAttachment( 100, 0 );
+    wCopyBufferSize.setLayoutData( fdCopyBufferSize );
+
     // NameInField
     wlNameInField = new Label( wMainComp, SWT.RIGHT );
     wlNameInField.setText( BaseMessages.getString( PKG, "TableOutputDialog.NameInField.Label" ) );
     props.setLook( wlNameInField );
     fdlNameInField = new FormData();
     fdlNameInField.left = new FormAttachment( 0, 0 );
-    fdlNameInField.top = new FormAttachment( wBatch, margin * 5 );
+    fdlNameInField.top = new FormAttachment( wCopyBufferSize, margin * 5 );
     fdlNameInField.right = new FormAttachment( middle, -margin );
     wlNameInField.setLayoutData( fdlNameInField );
     wNameInField = new Button( wMainComp, SWT.CHECK );
     props.setLook( wNameInField );
     fdNameInField = new FormData();
     fdNameInField.left = new FormAttachment( middle, 0 );
-    fdNameInField.top = new FormAttachment( wBatch, margin * 5 );
+    fdNameInField.top = new FormAttachment( wCopyBufferSize, margin * 5 );
     fdNameInField.right = new FormAttachment( 100, 0 );
     wNameInField.setLayoutData( fdNameInField );
     wNameInField.addSelectionListener( new SelectionAdapter() {
@@ -1235,6 +1380,29 @@ public class TableOutputDialog extends BaseStepDialog implements StepDialogInter
     wlBatch.setEnabled( enableBatch );
     wBatch.setEnabled( enableBatch );
 
+    // COPY needs a PostgreSQL connection and a single target table
+    DatabaseMeta copyDatabaseMeta = transMeta.findDatabase( wConnection.getText() );
+    boolean enableBulkCopy = copyDatabaseMeta != null
+      && copyDatabaseMeta.getDatabaseInterface() instanceof PostgreSQLDatabaseMeta
+      && !returnKeys && !usePartitioning && !isTableNameInField && !transMeta.isUsingUniqueConnections();
+    boolean useBulkCopy = enableBulkCopy && wBulkCopy.getSelection();
+    wlBulkCopy.setEnabled( enableBulkCopy );
+    wBulkCopy.setEnabled( enableBulkCopy );
+    wlCopyFormat.setEnabled( useBulkCopy );
+    wCopyFormat.setEnabled( useBulkCopy );
+    wlCopyBufferSize.setEnabled( useBulkCopy );
+    wCopyBufferSize.setEnabled( useBulkCopy );
+
+    // Asynchronous batch writes need batch updates and a single target table
+    boolean enableAsyncBatch = useBatch && !usePartitioning && !isTableNameInField && !useBulkCopy;
+    boolean useAsyncBatch = enableAsyncBatch && wAsyncBatch.getSelection();
+    wlAsyncBatch.setEnabled( enableAsyncBatch );
+    wAsyncBatch.setEnabled( enableAsyncBatch );
+    wlMaxPendingBatches.setEnabled( useAsyncBatch );
+    wMaxPendingBatches.setEnabled( useAsyncBatch );
+    wlWriterConnections.setEnabled( useAsyncBatch );
+    wWriterConnections.setEnabled( useAsyncBatch );
+
     boolean specifyFields = wSpecifyFields.getSelection();
     wFields.setEnabled( specifyFields );
     wGetFields.setEnabled( specifyFields );
@@ -1280,6 +1448,12 @@ public class TableOutputDialog extends BaseStepDialog implements StepDialogInter
     wTruncate.setSelection( input.truncateTable() );
     wIgnore.setSelection( input.ignoreErrors() );
     wBatch.setSelection( input.useBatchUpdate() );
+    wAsyncBatch.setSelection( input.isAsyncBatchWrites() );
+    wMaxPendingBatches.setText( Const.NVL( input.getMaxPendingBatches(), "" ) );
+    wWriterConnections.setText( Const.NVL( input.getNrWriterConnections(), "" ) );
+    wBulkCopy.setSelection( input.isBulkCopy() );
+    wCopyFormat.setText( Const.NVL( input.getCopyFormat(), PGCopyEncoder.FORMAT_TEXT ) );
+    wCopyBufferSize.setText( Const.NVL( input.getCopyBufferSize(), "" ) );
 
     wCommit.setText( input.getCommitSize() );
 
@@ -1333,6 +1507,12 @@ public class TableOutputDialog extends BaseStepDialog implements StepDialogInter
     info.setTruncateTable( wTruncate.getSelection() );
     info.setIgnoreErrors( wIgnore.getSelection() );
     info.setUseBatchUpdate( wBatch.getSelection() );
+    info.setAsyncBatchWrites( wAsyncBatch.getSelection() );
+    info.setMaxPendingBatches( wMaxPendingBatches.getText() );
+    info.setNrWriterConnections( wWriterConnections.getText() );
+    info.setBulkCopy( wBulkCopy.getSelection() );
+    info.setCopyFormat( wCopyFormat.getText() );
+    info.setCopyBufferSize( wCopyBufferSize.getText() );
     info.setPartitioningEnabled( wUsePart.getSelection() );
     info.setPartitioningField( wPartField.getText() );
     info.setPartitioningDaily( wPartDaily.getSelection() );